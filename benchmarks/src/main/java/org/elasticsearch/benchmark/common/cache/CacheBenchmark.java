@@ -0,0 +1,131 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.benchmark.common.cache;
+
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput and the hit ratio of the {@link Cache} implementations under a skewed workload with many
+ * concurrent threads. Keys follow a Zipf distribution, misses load the key into the cache like
+ * {@link Cache#computeIfAbsent} would. The hit ratio can be computed from the {@code hits} and {@code misses}
+ * secondary results.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(64)
+public class CacheBenchmark {
+
+    private static final int NUMBER_OF_SAMPLES = 1 << 16;
+
+    @Param({ "lru", "frequency_aware" })
+    private String type;
+
+    // maximum number of entries in the cache as a percentage of the number of distinct keys
+    @Param({ "1", "10" })
+    private int cacheSizePercentage;
+
+    @Param({ "100000" })
+    private int numberOfKeys;
+
+    // exponent of the Zipf distribution of the keys, the higher the more skewed
+    @Param({ "0.8", "1.2" })
+    private double skew;
+
+    private Cache<Integer, Integer> cache;
+
+    private int[] samples;
+
+    @Setup
+    public void setup() {
+        cache = CacheBuilder.<Integer, Integer>builder()
+            .setMaximumWeight(Math.max(1, (long) numberOfKeys * cacheSizePercentage / 100))
+            .setFrequencyAware(type.equals("frequency_aware"))
+            .build();
+        samples = zipf(numberOfKeys, skew, NUMBER_OF_SAMPLES, new Random(0));
+        for (int sample : samples) {
+            getOrLoad(sample);
+        }
+    }
+
+    private static int[] zipf(int numberOfKeys, double skew, int numberOfSamples, Random random) {
+        double[] cumulative = new double[numberOfKeys];
+        double sum = 0;
+        for (int i = 0; i < numberOfKeys; i++) {
+            sum += 1 / Math.pow(i + 1, skew);
+            cumulative[i] = sum;
+        }
+        int[] samples = new int[numberOfSamples];
+        for (int i = 0; i < numberOfSamples; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            // scatter the keys so that hot keys don't share hash buckets
+            samples[i] = Integer.reverse(index < 0 ? -index - 1 : index);
+        }
+        return samples;
+    }
+
+    private boolean getOrLoad(int key) {
+        Integer value = cache.get(key);
+        if (value == null) {
+            cache.put(key, key);
+            return false;
+        }
+        return true;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long hits;
+        public long misses;
+        private int position;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+            position = (int) Thread.currentThread().getId() * 7919;
+        }
+    }
+
+    @Benchmark
+    public boolean getOrLoad(Counters counters) {
+        int key = samples[counters.position++ & (NUMBER_OF_SAMPLES - 1)];
+        boolean hit = getOrLoad(key);
+        if (hit) {
+            counters.hits++;
+        } else {
+            counters.misses++;
+        }
+        return hit;
+    }
+}
@@ -37,7 +37,9 @@ import org.elasticsearch.xpack.esql.expression.function.scalar.math.Abs;
 import org.elasticsearch.xpack.esql.expression.function.scalar.multivalue.MvMin;
 import org.elasticsearch.xpack.esql.expression.function.scalar.string.RLike;
 import org.elasticsearch.xpack.esql.expression.predicate.operator.arithmetic.Add;
+import org.elasticsearch.xpack.esql.expression.predicate.operator.arithmetic.Mul;
 import org.elasticsearch.xpack.esql.expression.predicate.operator.comparison.Equals;
+import org.elasticsearch.xpack.esql.expression.predicate.operator.comparison.LessThan;
 import org.elasticsearch.xpack.esql.planner.Layout;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -95,8 +97,10 @@ public class EvalBenchmark {
             "equal_to_const",
             "long_equal_to_long",
             "long_equal_to_int",
+            "long_less_than_long",
             "mv_min",
             "mv_min_ascending",
+            "mul_double_by_double",
             "rlike" }
     )
     public String operation;
@@ -153,6 +157,16 @@ public class EvalBenchmark {
                 FieldAttribute rhs = intField();
                 yield EvalMapper.toEvaluator(new Equals(Source.EMPTY, lhs, rhs), layout(lhs, rhs)).get(driverContext);
             }
+            case "long_less_than_long" -> {
+                FieldAttribute lhs = longField();
+                FieldAttribute rhs = longField();
+                yield EvalMapper.toEvaluator(new LessThan(Source.EMPTY, lhs, rhs), layout(lhs, rhs)).get(driverContext);
+            }
+            case "mul_double_by_double" -> {
+                FieldAttribute lhs = doubleField();
+                FieldAttribute rhs = doubleField();
+                yield EvalMapper.toEvaluator(new Mul(Source.EMPTY, lhs, rhs), layout(lhs, rhs)).get(driverContext);
+            }
             case "mv_min", "mv_min_ascending" -> {
                 FieldAttribute longField = longField();
                 yield EvalMapper.toEvaluator(new MvMin(Source.EMPTY, longField), layout(longField)).get(driverContext);
@@ -243,6 +257,23 @@ public class EvalBenchmark {
                     }
                 }
             }
+            case "long_less_than_long" -> {
+                BooleanVector v = actual.<BooleanBlock>getBlock(2).asVector();
+                for (int i = 0; i < BLOCK_LENGTH; i++) {
+                    if (v.getBoolean(i) != true) {
+                        throw new AssertionError("[" + operation + "] expected [true] but was [" + v.getBoolean(i) + "]");
+                    }
+                }
+            }
+            case "mul_double_by_double" -> {
+                DoubleVector v = actual.<DoubleBlock>getBlock(2).asVector();
+                for (int i = 0; i < BLOCK_LENGTH; i++) {
+                    double expected = (double) i * i;
+                    if (v.getDouble(i) != expected) {
+                        throw new AssertionError("[" + operation + "] expected [" + expected + "] but was [" + v.getDouble(i) + "]");
+                    }
+                }
+            }
             case "mv_min", "mv_min_ascending" -> {
                 LongVector v = actual.<LongBlock>getBlock(1).asVector();
                 for (int i = 0; i < BLOCK_LENGTH; i++) {
@@ -298,6 +329,24 @@ public class EvalBenchmark {
                 }
                 yield new Page(lhs.build(), rhs.build());
             }
+            case "long_less_than_long" -> {
+                var lhs = blockFactory.newLongBlockBuilder(BLOCK_LENGTH);
+                var rhs = blockFactory.newLongBlockBuilder(BLOCK_LENGTH);
+                for (int i = 0; i < BLOCK_LENGTH; i++) {
+                    lhs.appendLong(i * 100_000);
+                    rhs.appendLong(i * 100_000 + 1);
+                }
+                yield new Page(lhs.build(), rhs.build());
+            }
+            case "mul_double_by_double" -> {
+                var lhs = blockFactory.newDoubleBlockBuilder(BLOCK_LENGTH);
+                var rhs = blockFactory.newDoubleBlockBuilder(BLOCK_LENGTH);
+                for (int i = 0; i < BLOCK_LENGTH; i++) {
+                    lhs.appendDouble(i);
+                    rhs.appendDouble(i);
+                }
+                yield new Page(lhs.build(), rhs.build());
+            }
             case "mv_min", "mv_min_ascending" -> {
                 var builder = blockFactory.newLongBlockBuilder(BLOCK_LENGTH);
                 if (operation.endsWith("ascending")) {
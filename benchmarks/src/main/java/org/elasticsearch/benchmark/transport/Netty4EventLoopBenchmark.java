@@ -0,0 +1,193 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+
+package org.elasticsearch.benchmark.transport;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOption;
+
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.transport.netty4.Netty4Epoll;
+import org.elasticsearch.transport.netty4.Netty4Plugin;
+import org.elasticsearch.transport.netty4.SharedGroupFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the round trips per second and the latency distribution of small requests that are echoed back by a server,
+ * running on either the NIO or the native epoll event loops of the netty4 transport. Run with {@code -t} to add concurrent
+ * connections and with {@code -prof gc} to compare allocations.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class Netty4EventLoopBenchmark {
+
+    @Param({ "nio", "epoll" })
+    public String eventLoop;
+
+    @Param({ "64", "1024" })
+    public int requestSize;
+
+    private Settings settings;
+    private SharedGroupFactory groupFactory;
+    private SharedGroupFactory.SharedGroup serverGroup;
+    private SharedGroupFactory.SharedGroup clientGroup;
+    private Channel serverChannel;
+
+    @Setup
+    public void startServer() {
+        settings = Settings.builder()
+            .put(Netty4Plugin.WORKER_COUNT.getKey(), 2)
+            .put(Netty4Plugin.SETTING_NETTY_EPOLL.getKey(), eventLoop.equals("epoll"))
+            .build();
+        groupFactory = new SharedGroupFactory(settings);
+        if (groupFactory.isEpoll() != eventLoop.equals("epoll")) {
+            throw new IllegalStateException("the native epoll transport is not available on this platform");
+        }
+        serverGroup = groupFactory.getTransportGroup();
+        clientGroup = groupFactory.getTransportGroup();
+
+        ServerBootstrap serverBootstrap = new ServerBootstrap().group(serverGroup.getLowLevelGroup())
+            .channel(groupFactory.getServerChannelType())
+            .option(ChannelOption.ALLOCATOR, groupFactory.getAllocator())
+            .childOption(ChannelOption.ALLOCATOR, groupFactory.getAllocator())
+            .childOption(ChannelOption.TCP_NODELAY, true)
+            .childHandler(EchoHandler.INSTANCE);
+        if (groupFactory.isEpoll()) {
+            Netty4Epoll.configure(serverBootstrap, settings);
+        }
+        serverChannel = serverBootstrap.bind(new InetSocketAddress("127.0.0.1", 0)).syncUninterruptibly().channel();
+    }
+
+    @TearDown
+    public void stopServer() {
+        serverChannel.close().syncUninterruptibly();
+        serverGroup.shutdown();
+        clientGroup.shutdown();
+    }
+
+    @State(Scope.Thread)
+    public static class Connection {
+        private Channel channel;
+        private ByteBuf request;
+        private ResponseHandler responseHandler;
+
+        @Setup
+        public void connect(Netty4EventLoopBenchmark benchmark) {
+            request = Unpooled.wrappedBuffer(new byte[benchmark.requestSize]);
+            responseHandler = new ResponseHandler(benchmark.requestSize);
+            Bootstrap bootstrap = new Bootstrap().group(benchmark.clientGroup.getLowLevelGroup())
+                .channel(benchmark.groupFactory.getChannelType())
+                .option(ChannelOption.ALLOCATOR, benchmark.groupFactory.getAllocator())
+                .option(ChannelOption.TCP_NODELAY, true)
+                .handler(responseHandler);
+            if (benchmark.groupFactory.isEpoll()) {
+                Netty4Epoll.configure(bootstrap, benchmark.settings);
+            }
+            channel = bootstrap.connect(benchmark.serverChannel.localAddress()).syncUninterruptibly().channel();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            channel.close().syncUninterruptibly();
+            request.release();
+        }
+
+        void roundTrip() throws Exception {
+            CompletableFuture<Void> response = responseHandler.expectResponse();
+            channel.writeAndFlush(request.retainedDuplicate());
+            response.get();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void requestsPerSecond(Connection connection) throws Exception {
+        connection.roundTrip();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void latency(Connection connection) throws Exception {
+        connection.roundTrip();
+    }
+
+    @ChannelHandler.Sharable
+    private static class EchoHandler extends ChannelInboundHandlerAdapter {
+        static final EchoHandler INSTANCE = new EchoHandler();
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ctx.write(msg);
+        }
+
+        @Override
+        public void channelReadComplete(ChannelHandlerContext ctx) {
+            ctx.flush();
+        }
+    }
+
+    private static class ResponseHandler extends ChannelInboundHandlerAdapter {
+        private final int responseSize;
+        private int received;
+        private volatile CompletableFuture<Void> response;
+
+        ResponseHandler(int responseSize) {
+            this.responseSize = responseSize;
+        }
+
+        CompletableFuture<Void> expectResponse() {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            response = future;
+            return future;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ByteBuf buf = (ByteBuf) msg;
+            try {
+                received += buf.readableBytes();
+            } finally {
+                buf.release();
+            }
+            // responses may arrive in several reads, there is only ever one request in flight per connection
+            if (received >= responseSize) {
+                received -= responseSize;
+                response.complete(null);
+            }
+        }
+    }
+}
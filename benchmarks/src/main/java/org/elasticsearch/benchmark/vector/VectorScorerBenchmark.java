@@ -17,12 +17,14 @@ import org.apache.lucene.store.IOContext;
 import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.hnsw.RandomAccessVectorValues;
 import org.apache.lucene.util.hnsw.RandomVectorScorer;
 import org.apache.lucene.util.hnsw.RandomVectorScorerSupplier;
 import org.apache.lucene.util.quantization.RandomAccessQuantizedByteVectorValues;
 import org.apache.lucene.util.quantization.ScalarQuantizer;
 import org.elasticsearch.common.logging.LogConfigurator;
 import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.script.field.vectors.ESVectorUtil;
 import org.elasticsearch.simdvec.VectorScorerFactory;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -54,6 +56,8 @@ import static org.elasticsearch.simdvec.VectorSimilarityType.EUCLIDEAN;
 /**
  * Benchmark that compares various scalar quantized vector similarity function
  * implementations;: scalar, lucene's panama-ized, and Elasticsearch's native.
+ * Covers int7 vectors, int4 vectors packed two dimensions per byte, and the
+ * hamming distance of bit vectors.
  * Run with ./gradlew -p benchmarks run --args 'VectorScorerBenchmark'
  */
 public class VectorScorerBenchmark {
@@ -84,6 +88,22 @@ public class VectorScorerBenchmark {
     RandomVectorScorer luceneDotScorerQuery;
     RandomVectorScorer nativeDotScorerQuery;
 
+    // int4 vectors, packed two dimensions per byte
+    IndexInput int4In;
+    RandomVectorScorer luceneInt4DotScorer;
+    RandomVectorScorer luceneInt4SqrScorer;
+    RandomVectorScorer nativeInt4DotScorer;
+    RandomVectorScorer nativeInt4SqrScorer;
+    RandomVectorScorer luceneInt4DotScorerQuery;
+    RandomVectorScorer nativeInt4DotScorerQuery;
+
+    // bit vectors of dims bytes
+    IndexInput bitIn;
+    byte[] bits1;
+    byte[] bits2;
+    RandomVectorScorer nativeHammingScorer;
+    RandomVectorScorer nativeHammingScorerQuery;
+
     @Setup
     public void setup() throws IOException {
         var optionalVectorScorerFactory = VectorScorerFactory.instance();
@@ -157,11 +177,85 @@ public class VectorScorerBenchmark {
         if (q1 != q2) {
             throw new AssertionError("query: lucene[" + q1 + "] != " + "native[" + q2 + "]");
         }
+
+        setupInt4(queryVec);
+        f1 = int4DotProductLucene();
+        f2 = int4DotProductNative();
+        if (f1 != f2) {
+            throw new AssertionError("int4: lucene[" + f1 + "] != " + "native[" + f2 + "]");
+        }
+        f1 = int4SquareDistanceLucene();
+        f2 = int4SquareDistanceNative();
+        if (f1 != f2) {
+            throw new AssertionError("int4: lucene[" + f1 + "] != " + "native[" + f2 + "]");
+        }
+        if (nativeInt4DotScorerQuery != null) {
+            q1 = int4DotProductLuceneQuery();
+            q2 = int4DotProductNativeQuery();
+            if (q1 != q2) {
+                throw new AssertionError("int4 query: lucene[" + q1 + "] != " + "native[" + q2 + "]");
+            }
+        }
+
+        setupBits();
+        f1 = hammingScalar();
+        f2 = hammingNative();
+        if (f1 != f2) {
+            throw new AssertionError("hamming: scalar[" + f1 + "] != " + "native[" + f2 + "]");
+        }
+        if (nativeHammingScorerQuery != null) {
+            f2 = hammingNativeQuery();
+            if (f1 != f2) {
+                throw new AssertionError("hamming query: scalar[" + f1 + "] != " + "native[" + f2 + "]");
+            }
+        }
+    }
+
+    void setupInt4(float[] queryVec) throws IOException {
+        byte[] int4Vec1 = new byte[dims];
+        byte[] int4Vec2 = new byte[dims];
+        randomInt4BytesBetween(int4Vec1);
+        randomInt4BytesBetween(int4Vec2);
+        try (IndexOutput out = dir.createOutput("vector4.data", IOContext.DEFAULT)) {
+            byte[] packed = packInt4(int4Vec1);
+            out.writeBytes(packed, 0, packed.length);
+            out.writeInt(Float.floatToIntBits(vec1Offset));
+            packed = packInt4(int4Vec2);
+            out.writeBytes(packed, 0, packed.length);
+            out.writeInt(Float.floatToIntBits(vec2Offset));
+        }
+        int4In = dir.openInput("vector4.data", IOContext.DEFAULT);
+        var values = int4VectorValues(dims, 2, int4In, VectorSimilarityFunction.DOT_PRODUCT);
+        float correction = values.getScalarQuantizer().getConstantMultiplier();
+        luceneInt4DotScorer = luceneScoreSupplier(values, VectorSimilarityFunction.DOT_PRODUCT).scorer(0);
+        nativeInt4DotScorer = factory.getInt4SQVectorScorerSupplier(DOT_PRODUCT, int4In, values, correction).get().scorer(0);
+        luceneInt4DotScorerQuery = luceneScorer(values, VectorSimilarityFunction.DOT_PRODUCT, queryVec);
+        // only supported on JDK 22+
+        nativeInt4DotScorerQuery = factory.getInt4SQVectorScorer(VectorSimilarityFunction.DOT_PRODUCT, values, queryVec).orElse(null);
+        values = int4VectorValues(dims, 2, int4In, VectorSimilarityFunction.EUCLIDEAN);
+        luceneInt4SqrScorer = luceneScoreSupplier(values, VectorSimilarityFunction.EUCLIDEAN).scorer(0);
+        nativeInt4SqrScorer = factory.getInt4SQVectorScorerSupplier(EUCLIDEAN, int4In, values, correction).get().scorer(0);
+    }
+
+    void setupBits() throws IOException {
+        bits1 = new byte[dims];
+        bits2 = new byte[dims];
+        ThreadLocalRandom.current().nextBytes(bits1);
+        ThreadLocalRandom.current().nextBytes(bits2);
+        try (IndexOutput out = dir.createOutput("bits.data", IOContext.DEFAULT)) {
+            out.writeBytes(bits1, 0, bits1.length);
+            out.writeBytes(bits2, 0, bits2.length);
+        }
+        bitIn = dir.openInput("bits.data", IOContext.DEFAULT);
+        var values = new BitVectorValues(bitIn.slice("values", 0, bitIn.length()), dims, 2);
+        nativeHammingScorer = factory.getHammingVectorScorerSupplier(bitIn, values).get().scorer(0);
+        // only supported on JDK 22+
+        nativeHammingScorerQuery = factory.getHammingVectorScorer(values, bits1).orElse(null);
     }
 
     @TearDown
     public void teardown() throws IOException {
-        IOUtils.close(dir, in);
+        IOUtils.close(dir, in, int4In, bitIn);
     }
 
     @Benchmark
@@ -217,12 +311,75 @@ public class VectorScorerBenchmark {
         return 1 / (1f + adjustedDistance);
     }
 
+    // -- int4, packed two dimensions per byte
+
+    @Benchmark
+    public float int4DotProductLucene() throws IOException {
+        return luceneInt4DotScorer.score(1);
+    }
+
+    @Benchmark
+    public float int4DotProductNative() throws IOException {
+        return nativeInt4DotScorer.score(1);
+    }
+
+    @Benchmark
+    public float int4DotProductLuceneQuery() throws IOException {
+        return luceneInt4DotScorerQuery.score(1);
+    }
+
+    @Benchmark
+    public float int4DotProductNativeQuery() throws IOException {
+        if (nativeInt4DotScorerQuery == null) {
+            throw new UnsupportedOperationException("requires JDK 22+");
+        }
+        return nativeInt4DotScorerQuery.score(1);
+    }
+
+    @Benchmark
+    public float int4SquareDistanceLucene() throws IOException {
+        return luceneInt4SqrScorer.score(1);
+    }
+
+    @Benchmark
+    public float int4SquareDistanceNative() throws IOException {
+        return nativeInt4SqrScorer.score(1);
+    }
+
+    // -- hamming distance of bit vectors
+
+    @Benchmark
+    public float hammingScalar() {
+        int bits = bits1.length * Byte.SIZE;
+        return (bits - ESVectorUtil.xorBitCount(bits1, bits2)) / (float) bits;
+    }
+
+    @Benchmark
+    public float hammingNative() throws IOException {
+        return nativeHammingScorer.score(1);
+    }
+
+    @Benchmark
+    public float hammingNativeQuery() throws IOException {
+        if (nativeHammingScorerQuery == null) {
+            throw new UnsupportedOperationException("requires JDK 22+");
+        }
+        return nativeHammingScorerQuery.score(1);
+    }
+
     RandomAccessQuantizedByteVectorValues vectorValues(int dims, int size, IndexInput in, VectorSimilarityFunction sim) throws IOException {
         var sq = new ScalarQuantizer(0.1f, 0.9f, (byte) 7);
         var slice = in.slice("values", 0, in.length());
         return new OffHeapQuantizedByteVectorValues.DenseOffHeapVectorValues(dims, size, sq, false, sim, null, slice);
     }
 
+    RandomAccessQuantizedByteVectorValues int4VectorValues(int dims, int size, IndexInput in, VectorSimilarityFunction sim)
+        throws IOException {
+        var sq = new ScalarQuantizer(0.1f, 0.9f, (byte) 4);
+        var slice = in.slice("values", 0, in.length());
+        return new OffHeapQuantizedByteVectorValues.DenseOffHeapVectorValues(dims, size, sq, true, sim, null, slice);
+    }
+
     RandomVectorScorerSupplier luceneScoreSupplier(RandomAccessQuantizedByteVectorValues values, VectorSimilarityFunction sim)
         throws IOException {
         return new Lucene99ScalarQuantizedVectorScorer(null).getRandomVectorScorerSupplier(sim, values);
@@ -243,4 +400,71 @@ public class VectorScorerBenchmark {
             bytes[i++] = (byte) random.nextInt(MIN_INT7_VALUE, MAX_INT7_VALUE + 1);
         }
     }
+
+    // Unsigned int4 byte vectors have values in the range of 0 to 15 (inclusive).
+    static final byte MIN_INT4_VALUE = 0;
+    static final byte MAX_INT4_VALUE = 15;
+
+    static void randomInt4BytesBetween(byte[] bytes) {
+        var random = ThreadLocalRandom.current();
+        for (int i = 0, len = bytes.length; i < len;) {
+            bytes[i++] = (byte) random.nextInt(MIN_INT4_VALUE, MAX_INT4_VALUE + 1);
+        }
+    }
+
+    // Packs int4 values two per byte, the same way as Lucene's compressed int4 vectors.
+    static byte[] packInt4(byte[] raw) {
+        byte[] packed = new byte[raw.length / 2];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = (byte) ((raw[i] << 4) | raw[packed.length + i]);
+        }
+        return packed;
+    }
+
+    // Bit vectors that are stored one after the other, the same way as Lucene's flat byte vectors.
+    static final class BitVectorValues implements RandomAccessVectorValues.Bytes {
+        private final IndexInput slice;
+        private final int length;
+        private final int size;
+        private final byte[] vector;
+
+        BitVectorValues(IndexInput slice, int length, int size) {
+            this.slice = slice;
+            this.length = length;
+            this.size = size;
+            this.vector = new byte[length];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int dimension() {
+            return length;
+        }
+
+        @Override
+        public int getVectorByteLength() {
+            return length;
+        }
+
+        @Override
+        public IndexInput getSlice() {
+            return slice;
+        }
+
+        @Override
+        public byte[] vectorValue(int targetOrd) throws IOException {
+            slice.seek((long) targetOrd * length);
+            slice.readBytes(vector, 0, length);
+            return vector;
+        }
+
+        @Override
+        public BitVectorValues copy() {
+            return new BitVectorValues(slice.clone(), length, size);
+        }
+    }
 }
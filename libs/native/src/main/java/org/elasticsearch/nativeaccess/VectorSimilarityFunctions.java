@@ -40,4 +40,45 @@ public interface VectorSimilarityFunctions {
      * vector data bytes. The third argument is the length of the vector data.
      */
     MethodHandle squareDistanceHandle7u();
+
+    /**
+     * Produces a method handle returning the dot product of packed byte (unsigned int4) vectors.
+     *
+     * <p> Unsigned int4 vectors have values in the range of 0 to 15 (inclusive), and are packed
+     * two values per byte: the value of dimension {@code i} is stored in the upper nibble of byte
+     * {@code i}, and the value of dimension {@code i + length} in its lower nibble.
+     *
+     * <p> The type of the method handle will have {@code int} as return type, The type of
+     * its first and second arguments will be {@code MemorySegment}, whose contents is the
+     * packed vector data bytes. The third argument is the length of the packed vector data.
+     *
+     * <p> Returns {@code null} if the native library doesn't provide int4 functions.
+     */
+    MethodHandle dotProductHandle4u();
+
+    /**
+     * Produces a method handle returning the square distance of packed byte (unsigned int4) vectors.
+     *
+     * <p> Unsigned int4 vectors have values in the range of 0 to 15 (inclusive), and are packed
+     * two values per byte, see {@link #dotProductHandle4u()}.
+     *
+     * <p> The type of the method handle will have {@code int} as return type, The type of
+     * its first and second arguments will be {@code MemorySegment}, whose contents is the
+     * packed vector data bytes. The third argument is the length of the packed vector data.
+     *
+     * <p> Returns {@code null} if the native library doesn't provide int4 functions.
+     */
+    MethodHandle squareDistanceHandle4u();
+
+    /**
+     * Produces a method handle returning the hamming distance of bit vectors, i.e. the
+     * number of bits that differ between them.
+     *
+     * <p> The type of the method handle will have {@code int} as return type, The type of
+     * its first and second arguments will be {@code MemorySegment}, whose contents is the
+     * vector data bytes. The third argument is the length of the vector data in bytes.
+     *
+     * <p> Returns {@code null} if the native library doesn't provide a hamming function.
+     */
+    MethodHandle hammingHandle();
 }
@@ -9,6 +9,8 @@
 
 package org.elasticsearch.nativeaccess.jdk;
 
+import org.elasticsearch.logging.LogManager;
+import org.elasticsearch.logging.Logger;
 import org.elasticsearch.nativeaccess.VectorSimilarityFunctions;
 import org.elasticsearch.nativeaccess.lib.LoaderHelper;
 import org.elasticsearch.nativeaccess.lib.VectorLibrary;
@@ -25,8 +27,13 @@ import static org.elasticsearch.nativeaccess.jdk.LinkerHelper.downcallHandle;
 
 public final class JdkVectorLibrary implements VectorLibrary {
 
+    private static final Logger logger = LogManager.getLogger(JdkVectorLibrary.class);
+
     static final MethodHandle dot7u$mh;
     static final MethodHandle sqr7u$mh;
+    static final MethodHandle dot4u$mh;
+    static final MethodHandle sqr4u$mh;
+    static final MethodHandle hamming$mh;
 
     static final VectorSimilarityFunctions INSTANCE;
 
@@ -60,10 +67,25 @@ public final class JdkVectorLibrary implements VectorLibrary {
                         LinkerHelperUtil.critical()
                     );
                 }
+                // the int4 and hamming functions have no AVX-512 specific variant. They were added to the library
+                // after the int7 ones, so look them up separately and only disable the scorers whose symbols are missing
+                final MethodHandle dot4u = optionalDowncallHandle("dot4u");
+                final MethodHandle sqr4u = optionalDowncallHandle("sqr4u");
+                if (dot4u != null && sqr4u != null) {
+                    dot4u$mh = dot4u;
+                    sqr4u$mh = sqr4u;
+                } else {
+                    dot4u$mh = null;
+                    sqr4u$mh = null;
+                }
+                hamming$mh = optionalDowncallHandle("hamming");
                 INSTANCE = new JdkVectorSimilarityFunctions();
             } else {
                 dot7u$mh = null;
                 sqr7u$mh = null;
+                dot4u$mh = null;
+                sqr4u$mh = null;
+                hamming$mh = null;
                 INSTANCE = null;
             }
         } catch (Throwable t) {
@@ -71,6 +93,18 @@ public final class JdkVectorLibrary implements VectorLibrary {
         }
     }
 
+    /**
+     * Looks up a {@code (address, address, int) -> int} vector function, returning {@code null} if the library doesn't have it.
+     */
+    private static MethodHandle optionalDowncallHandle(String function) {
+        try {
+            return downcallHandle(function, FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, JAVA_INT), LinkerHelperUtil.critical());
+        } catch (LinkageError e) {
+            logger.debug("native vector function [{}] is not available, falling back to the java implementation", function);
+            return null;
+        }
+    }
+
     public JdkVectorLibrary() {}
 
     @Override
@@ -119,6 +153,56 @@ public final class JdkVectorLibrary implements VectorLibrary {
             return sqr7u(a, b, length);
         }
 
+        /**
+         * Computes the dot product of given packed unsigned int4 byte vectors.
+         *
+         * <p> Unsigned int4 vectors have values in the range of 0 to 15 (inclusive), packed two values per byte.
+         *
+         * @param a      address of the first vector
+         * @param b      address of the second vector
+         * @param length the packed vector length in bytes
+         */
+        static int dotProduct4u(MemorySegment a, MemorySegment b, int length) {
+            checkLength(a, b, length);
+            return dot4u(a, b, length);
+        }
+
+        /**
+         * Computes the square distance of given packed unsigned int4 byte vectors.
+         *
+         * <p> Unsigned int4 vectors have values in the range of 0 to 15 (inclusive), packed two values per byte.
+         *
+         * @param a      address of the first vector
+         * @param b      address of the second vector
+         * @param length the packed vector length in bytes
+         */
+        static int squareDistance4u(MemorySegment a, MemorySegment b, int length) {
+            checkLength(a, b, length);
+            return sqr4u(a, b, length);
+        }
+
+        /**
+         * Computes the hamming distance of given bit vectors.
+         *
+         * @param a      address of the first vector
+         * @param b      address of the second vector
+         * @param length the vector length in bytes
+         */
+        static int hammingDistance(MemorySegment a, MemorySegment b, int length) {
+            checkLength(a, b, length);
+            return hamming(a, b, length);
+        }
+
+        private static void checkLength(MemorySegment a, MemorySegment b, int length) {
+            assert length >= 0;
+            if (a.byteSize() != b.byteSize()) {
+                throw new IllegalArgumentException("dimensions differ: " + a.byteSize() + "!=" + b.byteSize());
+            }
+            if (length > a.byteSize()) {
+                throw new IllegalArgumentException("length: " + length + ", greater than vector dimensions: " + a.byteSize());
+            }
+        }
+
         private static int dot7u(MemorySegment a, MemorySegment b, int length) {
             try {
                 return (int) JdkVectorLibrary.dot7u$mh.invokeExact(a, b, length);
@@ -135,8 +219,35 @@ public final class JdkVectorLibrary implements VectorLibrary {
             }
         }
 
+        private static int dot4u(MemorySegment a, MemorySegment b, int length) {
+            try {
+                return (int) JdkVectorLibrary.dot4u$mh.invokeExact(a, b, length);
+            } catch (Throwable t) {
+                throw new AssertionError(t);
+            }
+        }
+
+        private static int sqr4u(MemorySegment a, MemorySegment b, int length) {
+            try {
+                return (int) JdkVectorLibrary.sqr4u$mh.invokeExact(a, b, length);
+            } catch (Throwable t) {
+                throw new AssertionError(t);
+            }
+        }
+
+        private static int hamming(MemorySegment a, MemorySegment b, int length) {
+            try {
+                return (int) JdkVectorLibrary.hamming$mh.invokeExact(a, b, length);
+            } catch (Throwable t) {
+                throw new AssertionError(t);
+            }
+        }
+
         static final MethodHandle DOT_HANDLE_7U;
         static final MethodHandle SQR_HANDLE_7U;
+        static final MethodHandle DOT_HANDLE_4U;
+        static final MethodHandle SQR_HANDLE_4U;
+        static final MethodHandle HAMMING_HANDLE;
 
         static {
             try {
@@ -144,6 +255,12 @@ public final class JdkVectorLibrary implements VectorLibrary {
                 var mt = MethodType.methodType(int.class, MemorySegment.class, MemorySegment.class, int.class);
                 DOT_HANDLE_7U = lookup.findStatic(JdkVectorSimilarityFunctions.class, "dotProduct7u", mt);
                 SQR_HANDLE_7U = lookup.findStatic(JdkVectorSimilarityFunctions.class, "squareDistance7u", mt);
+                boolean int4 = JdkVectorLibrary.dot4u$mh != null;
+                DOT_HANDLE_4U = int4 ? lookup.findStatic(JdkVectorSimilarityFunctions.class, "dotProduct4u", mt) : null;
+                SQR_HANDLE_4U = int4 ? lookup.findStatic(JdkVectorSimilarityFunctions.class, "squareDistance4u", mt) : null;
+                HAMMING_HANDLE = JdkVectorLibrary.hamming$mh != null
+                    ? lookup.findStatic(JdkVectorSimilarityFunctions.class, "hammingDistance", mt)
+                    : null;
             } catch (NoSuchMethodException | IllegalAccessException e) {
                 throw new RuntimeException(e);
             }
@@ -158,5 +275,20 @@ public final class JdkVectorLibrary implements VectorLibrary {
         public MethodHandle squareDistanceHandle7u() {
             return SQR_HANDLE_7U;
         }
+
+        @Override
+        public MethodHandle dotProductHandle4u() {
+            return DOT_HANDLE_4U;
+        }
+
+        @Override
+        public MethodHandle squareDistanceHandle4u() {
+            return SQR_HANDLE_4U;
+        }
+
+        @Override
+        public MethodHandle hammingHandle() {
+            return HAMMING_HANDLE;
+        }
     }
 }
@@ -27,6 +27,10 @@ public class JDKVectorLibraryTests extends VectorSimilarityFunctionsTests {
     static final byte MIN_INT7_VALUE = 0;
     static final byte MAX_INT7_VALUE = 127;
 
+    // bounds of the range of values that can be seen by int4 scalar quantized vectors
+    static final byte MIN_INT4_VALUE = 0;
+    static final byte MAX_INT4_VALUE = 15;
+
     static final Class<IllegalArgumentException> IAE = IllegalArgumentException.class;
 
     static final int[] VECTOR_DIMS = { 1, 4, 6, 8, 13, 16, 25, 31, 32, 33, 64, 100, 128, 207, 256, 300, 512, 702, 1023, 1024, 1025 };
@@ -96,6 +100,81 @@ public class JDKVectorLibraryTests extends VectorSimilarityFunctionsTests {
         }
     }
 
+    public void testInt4PackedVectors() {
+        assumeTrue(notSupportedMsg(), supported());
+        // size is the packed length, each vector has twice as many dimensions
+        final int packedLength = size;
+        final int numVecs = randomIntBetween(2, 101);
+        var values = new byte[numVecs][packedLength * 2];
+        var packed = new byte[numVecs][];
+        var segment = arena.allocate((long) packedLength * numVecs);
+        for (int i = 0; i < numVecs; i++) {
+            randomBytesBetween(values[i], MIN_INT4_VALUE, MAX_INT4_VALUE);
+            packed[i] = packInt4(values[i]);
+            MemorySegment.copy(MemorySegment.ofArray(packed[i]), 0L, segment, (long) i * packedLength, packedLength);
+        }
+
+        final int loopTimes = 1000;
+        for (int i = 0; i < loopTimes; i++) {
+            int first = randomInt(numVecs - 1);
+            int second = randomInt(numVecs - 1);
+            var nativeSeg1 = segment.asSlice((long) first * packedLength, packedLength);
+            var nativeSeg2 = segment.asSlice((long) second * packedLength, packedLength);
+
+            // dot product
+            int expected = dotProductScalar(values[first], values[second]);
+            assertEquals(expected, dotProduct4u(nativeSeg1, nativeSeg2, packedLength));
+            if (testWithHeapSegments()) {
+                var heapSeg1 = MemorySegment.ofArray(packed[first]);
+                var heapSeg2 = MemorySegment.ofArray(packed[second]);
+                assertEquals(expected, dotProduct4u(heapSeg1, heapSeg2, packedLength));
+                assertEquals(expected, dotProduct4u(nativeSeg1, heapSeg2, packedLength));
+                assertEquals(expected, dotProduct4u(heapSeg1, nativeSeg2, packedLength));
+            }
+
+            // square distance
+            expected = squareDistanceScalar(values[first], values[second]);
+            assertEquals(expected, squareDistance4u(nativeSeg1, nativeSeg2, packedLength));
+            if (testWithHeapSegments()) {
+                var heapSeg1 = MemorySegment.ofArray(packed[first]);
+                var heapSeg2 = MemorySegment.ofArray(packed[second]);
+                assertEquals(expected, squareDistance4u(heapSeg1, heapSeg2, packedLength));
+                assertEquals(expected, squareDistance4u(nativeSeg1, heapSeg2, packedLength));
+                assertEquals(expected, squareDistance4u(heapSeg1, nativeSeg2, packedLength));
+            }
+        }
+    }
+
+    public void testBitVectors() {
+        assumeTrue(notSupportedMsg(), supported());
+        final int length = size;
+        final int numVecs = randomIntBetween(2, 101);
+        var values = new byte[numVecs][length];
+        var segment = arena.allocate((long) length * numVecs);
+        for (int i = 0; i < numVecs; i++) {
+            random().nextBytes(values[i]);
+            MemorySegment.copy(MemorySegment.ofArray(values[i]), 0L, segment, (long) i * length, length);
+        }
+
+        final int loopTimes = 1000;
+        for (int i = 0; i < loopTimes; i++) {
+            int first = randomInt(numVecs - 1);
+            int second = randomInt(numVecs - 1);
+            var nativeSeg1 = segment.asSlice((long) first * length, length);
+            var nativeSeg2 = segment.asSlice((long) second * length, length);
+
+            int expected = hammingScalar(values[first], values[second]);
+            assertEquals(expected, hamming(nativeSeg1, nativeSeg2, length));
+            if (testWithHeapSegments()) {
+                var heapSeg1 = MemorySegment.ofArray(values[first]);
+                var heapSeg2 = MemorySegment.ofArray(values[second]);
+                assertEquals(expected, hamming(heapSeg1, heapSeg2, length));
+                assertEquals(expected, hamming(nativeSeg1, heapSeg2, length));
+                assertEquals(expected, hamming(heapSeg1, nativeSeg2, length));
+            }
+        }
+    }
+
     static boolean testWithHeapSegments() {
         return Runtime.version().feature() >= 22;
     }
@@ -108,6 +187,12 @@ public class JDKVectorLibraryTests extends VectorSimilarityFunctionsTests {
 
         e = expectThrows(IAE, () -> dotProduct7u(segment.asSlice(0L, size), segment.asSlice(size, size), size + 1));
         assertThat(e.getMessage(), containsString("greater than vector dimensions"));
+
+        e = expectThrows(IAE, () -> dotProduct4u(segment.asSlice(0L, size), segment.asSlice(size, size + 1), size));
+        assertThat(e.getMessage(), containsString("dimensions differ"));
+
+        e = expectThrows(IAE, () -> hamming(segment.asSlice(0L, size), segment.asSlice(size, size), size + 1));
+        assertThat(e.getMessage(), containsString("greater than vector dimensions"));
     }
 
     int dotProduct7u(MemorySegment a, MemorySegment b, int length) {
@@ -138,6 +223,48 @@ public class JDKVectorLibraryTests extends VectorSimilarityFunctionsTests {
         }
     }
 
+    int dotProduct4u(MemorySegment a, MemorySegment b, int length) {
+        try {
+            return (int) getVectorDistance().dotProductHandle4u().invokeExact(a, b, length);
+        } catch (Throwable e) {
+            if (e instanceof Error err) {
+                throw err;
+            } else if (e instanceof RuntimeException re) {
+                throw re;
+            } else {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    int squareDistance4u(MemorySegment a, MemorySegment b, int length) {
+        try {
+            return (int) getVectorDistance().squareDistanceHandle4u().invokeExact(a, b, length);
+        } catch (Throwable e) {
+            if (e instanceof Error err) {
+                throw err;
+            } else if (e instanceof RuntimeException re) {
+                throw re;
+            } else {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    int hamming(MemorySegment a, MemorySegment b, int length) {
+        try {
+            return (int) getVectorDistance().hammingHandle().invokeExact(a, b, length);
+        } catch (Throwable e) {
+            if (e instanceof Error err) {
+                throw err;
+            } else if (e instanceof RuntimeException re) {
+                throw re;
+            } else {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
     /** Computes the dot product of the given vectors a and b. */
     static int dotProductScalar(byte[] a, byte[] b) {
         int res = 0;
@@ -157,4 +284,22 @@ public class JDKVectorLibraryTests extends VectorSimilarityFunctionsTests {
         }
         return squareSum;
     }
+
+    /** Computes the number of bits that differ between the given vectors a and b. */
+    static int hammingScalar(byte[] a, byte[] b) {
+        int distance = 0;
+        for (int i = 0; i < a.length; i++) {
+            distance += Integer.bitCount((a[i] ^ b[i]) & 0xFF);
+        }
+        return distance;
+    }
+
+    /** Packs the given int4 values two per byte, the upper nibble of byte i is value i, its lower nibble value i + length / 2. */
+    static byte[] packInt4(byte[] raw) {
+        byte[] packed = new byte[raw.length / 2];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = (byte) ((raw[i] << 4) | raw[packed.length + i]);
+        }
+        return packed;
+    }
 }
@@ -19,6 +19,18 @@
 #define SQR7U_STRIDE_BYTES_LEN 16 // Must be a power of 2
 #endif
 
+#ifndef DOT4U_STRIDE_BYTES_LEN
+#define DOT4U_STRIDE_BYTES_LEN 16 // Must be a power of 2
+#endif
+
+#ifndef SQR4U_STRIDE_BYTES_LEN
+#define SQR4U_STRIDE_BYTES_LEN 16 // Must be a power of 2
+#endif
+
+#ifndef HAMMING_STRIDE_BYTES_LEN
+#define HAMMING_STRIDE_BYTES_LEN 32 // Must be a power of 2
+#endif
+
 #ifdef __linux__
     #include <sys/auxv.h>
     #include <asm/hwcap.h>
@@ -132,3 +144,129 @@ EXPORT int32_t sqr7u(int8_t* a, int8_t* b, size_t dims) {
     }
     return res;
 }
+
+// Int4 vectors are packed two values per byte: the value of dimension i is in the upper nibble
+// of byte i, and the value of dimension i + length is in the lower nibble of byte i.
+static inline int32_t dot4u_inner(int8_t* a, int8_t* b, size_t length) {
+    const uint8x16_t nibble_mask = vdupq_n_u8(0x0F);
+    uint32x4_t acc1 = vdupq_n_u32(0);
+    uint32x4_t acc2 = vdupq_n_u32(0);
+
+    for (int i = 0; i < length; i += DOT4U_STRIDE_BYTES_LEN) {
+        // Read into 16 x 8 bit vectors.
+        uint8x16_t va = vld1q_u8((const uint8_t*) (a + i));
+        uint8x16_t vb = vld1q_u8((const uint8_t*) (b + i));
+
+        // Unpack the upper and lower nibbles.
+        uint8x16_t va_lo = vandq_u8(va, nibble_mask);
+        uint8x16_t vb_lo = vandq_u8(vb, nibble_mask);
+        uint8x16_t va_hi = vshrq_n_u8(va, 4);
+        uint8x16_t vb_hi = vshrq_n_u8(vb, 4);
+
+        // Each product is at most 15 * 15, so the sum of two fits in 16 bits.
+        uint16x8_t tmp1 = vmull_u8(vget_low_u8(va_lo), vget_low_u8(vb_lo));
+        tmp1 = vmlal_u8(tmp1, vget_low_u8(va_hi), vget_low_u8(vb_hi));
+        uint16x8_t tmp2 = vmull_high_u8(va_lo, vb_lo);
+        tmp2 = vmlal_high_u8(tmp2, va_hi, vb_hi);
+
+        // Accumulate 4 x 32 bit vectors (adding adjacent 16 bit lanes).
+        acc1 = vpadalq_u16(acc1, tmp1);
+        acc2 = vpadalq_u16(acc2, tmp2);
+    }
+
+    // reduce
+    return vaddvq_u32(vaddq_u32(acc1, acc2));
+}
+
+EXPORT int32_t dot4u(int8_t* a, int8_t* b, size_t length) {
+    int32_t res = 0;
+    int i = 0;
+    if (length > DOT4U_STRIDE_BYTES_LEN) {
+        i += length & ~(DOT4U_STRIDE_BYTES_LEN - 1);
+        res = dot4u_inner(a, b, i);
+    }
+    for (; i < length; i++) {
+        const uint8_t x = a[i];
+        const uint8_t y = b[i];
+        res += (x >> 4) * (y >> 4) + (x & 0x0F) * (y & 0x0F);
+    }
+    return res;
+}
+
+static inline int32_t sqr4u_inner(int8_t* a, int8_t* b, size_t length) {
+    const uint8x16_t nibble_mask = vdupq_n_u8(0x0F);
+    uint32x4_t acc1 = vdupq_n_u32(0);
+    uint32x4_t acc2 = vdupq_n_u32(0);
+
+    for (int i = 0; i < length; i += SQR4U_STRIDE_BYTES_LEN) {
+        uint8x16_t va = vld1q_u8((const uint8_t*) (a + i));
+        uint8x16_t vb = vld1q_u8((const uint8_t*) (b + i));
+
+        // Absolute differences of the lower and upper nibbles.
+        uint8x16_t dist_lo = vabdq_u8(vandq_u8(va, nibble_mask), vandq_u8(vb, nibble_mask));
+        uint8x16_t dist_hi = vabdq_u8(vshrq_n_u8(va, 4), vshrq_n_u8(vb, 4));
+
+        uint16x8_t tmp1 = vmull_u8(vget_low_u8(dist_lo), vget_low_u8(dist_lo));
+        tmp1 = vmlal_u8(tmp1, vget_low_u8(dist_hi), vget_low_u8(dist_hi));
+        uint16x8_t tmp2 = vmull_high_u8(dist_lo, dist_lo);
+        tmp2 = vmlal_high_u8(tmp2, dist_hi, dist_hi);
+
+        acc1 = vpadalq_u16(acc1, tmp1);
+        acc2 = vpadalq_u16(acc2, tmp2);
+    }
+
+    // reduce
+    return vaddvq_u32(vaddq_u32(acc1, acc2));
+}
+
+EXPORT int32_t sqr4u(int8_t* a, int8_t* b, size_t length) {
+    int32_t res = 0;
+    int i = 0;
+    if (length > SQR4U_STRIDE_BYTES_LEN) {
+        i += length & ~(SQR4U_STRIDE_BYTES_LEN - 1);
+        res = sqr4u_inner(a, b, i);
+    }
+    for (; i < length; i++) {
+        const uint8_t x = a[i];
+        const uint8_t y = b[i];
+        const int32_t dist_hi = (x >> 4) - (y >> 4);
+        const int32_t dist_lo = (x & 0x0F) - (y & 0x0F);
+        res += dist_hi * dist_hi + dist_lo * dist_lo;
+    }
+    return res;
+}
+
+static inline int32_t hamming_inner(int8_t* a, int8_t* b, size_t length) {
+    uint32x4_t acc1 = vdupq_n_u32(0);
+    uint32x4_t acc2 = vdupq_n_u32(0);
+
+    for (int i = 0; i < length; i += HAMMING_STRIDE_BYTES_LEN) {
+        uint8x16_t va1 = vld1q_u8((const uint8_t*) (a + i));
+        uint8x16_t vb1 = vld1q_u8((const uint8_t*) (b + i));
+        uint8x16_t va2 = vld1q_u8((const uint8_t*) (a + i + 16));
+        uint8x16_t vb2 = vld1q_u8((const uint8_t*) (b + i + 16));
+
+        // Count the set bits of each byte of the xor, then accumulate 4 x 32 bit vectors.
+        acc1 = vpadalq_u16(acc1, vpaddlq_u8(vcntq_u8(veorq_u8(va1, vb1))));
+        acc2 = vpadalq_u16(acc2, vpaddlq_u8(vcntq_u8(veorq_u8(va2, vb2))));
+    }
+
+    // reduce
+    return vaddvq_u32(vaddq_u32(acc1, acc2));
+}
+
+EXPORT int32_t hamming(int8_t* a, int8_t* b, size_t length) {
+    int32_t res = 0;
+    int i = 0;
+    if (length > HAMMING_STRIDE_BYTES_LEN) {
+        i += length & ~(HAMMING_STRIDE_BYTES_LEN - 1);
+        res = hamming_inner(a, b, i);
+    }
+    for (; i < length; i++) {
+        uint8_t x = a[i] ^ b[i];
+        x = x - ((x >> 1) & 0x55);
+        x = (x & 0x33) + ((x >> 2) & 0x33);
+        res += (x + (x >> 4)) & 0x0F;
+    }
+    return res;
+}
@@ -153,3 +153,140 @@ EXPORT int32_t sqr7u(int8_t* a, int8_t* b, size_t dims) {
     }
     return res;
 }
+
+// Int4 vectors are packed two values per byte: the value of dimension i is in the upper nibble
+// of byte i, and the value of dimension i + length is in the lower nibble of byte i.
+static inline int32_t dot4u_inner(int8_t* a, int8_t* b, size_t length) {
+    const __m256i ones = _mm256_set1_epi16(1);
+    const __m256i nibble_mask = _mm256_set1_epi8(0x0F);
+
+    // Init accumulator(s) with 0
+    __m256i acc1 = _mm256_setzero_si256();
+
+#pragma GCC unroll 4
+    for(int i = 0; i < length; i += STRIDE_BYTES_LEN) {
+        // Load packed 8-bit integers
+        __m256i va1 = _mm256_loadu_si256(a + i);
+        __m256i vb1 = _mm256_loadu_si256(b + i);
+
+        // Unpack the upper and lower nibbles into unsigned 8-bit integers
+        const __m256i va_lo = _mm256_and_si256(va1, nibble_mask);
+        const __m256i vb_lo = _mm256_and_si256(vb1, nibble_mask);
+        const __m256i va_hi = _mm256_and_si256(_mm256_srli_epi16(va1, 4), nibble_mask);
+        const __m256i vb_hi = _mm256_and_si256(_mm256_srli_epi16(vb1, 4), nibble_mask);
+
+        // Each product is at most 15 * 15, so the sum of the four adjacent
+        // products fits in a signed 16-bit integer.
+        const __m256i vab_lo = _mm256_maddubs_epi16(va_lo, vb_lo);
+        const __m256i vab_hi = _mm256_maddubs_epi16(va_hi, vb_hi);
+        acc1 = _mm256_add_epi32(_mm256_madd_epi16(ones, _mm256_add_epi16(vab_lo, vab_hi)), acc1);
+    }
+
+    // reduce (horizontally add all)
+    return hsum_i32_8(acc1);
+}
+
+EXPORT int32_t dot4u(int8_t* a, int8_t* b, size_t length) {
+    int32_t res = 0;
+    int i = 0;
+    if (length > STRIDE_BYTES_LEN) {
+        i += length & ~(STRIDE_BYTES_LEN - 1);
+        res = dot4u_inner(a, b, i);
+    }
+    for (; i < length; i++) {
+        const uint8_t x = a[i];
+        const uint8_t y = b[i];
+        res += (x >> 4) * (y >> 4) + (x & 0x0F) * (y & 0x0F);
+    }
+    return res;
+}
+
+static inline int32_t sqr4u_inner(int8_t* a, int8_t* b, size_t length) {
+    const __m256i ones = _mm256_set1_epi16(1);
+    const __m256i nibble_mask = _mm256_set1_epi8(0x0F);
+
+    // Init accumulator(s) with 0
+    __m256i acc1 = _mm256_setzero_si256();
+
+#pragma GCC unroll 4
+    for(int i = 0; i < length; i += STRIDE_BYTES_LEN) {
+        // Load packed 8-bit integers
+        __m256i va1 = _mm256_loadu_si256(a + i);
+        __m256i vb1 = _mm256_loadu_si256(b + i);
+
+        const __m256i dist_lo = _mm256_sub_epi8(_mm256_and_si256(va1, nibble_mask), _mm256_and_si256(vb1, nibble_mask));
+        const __m256i dist_hi = _mm256_sub_epi8(
+            _mm256_and_si256(_mm256_srli_epi16(va1, 4), nibble_mask),
+            _mm256_and_si256(_mm256_srli_epi16(vb1, 4), nibble_mask)
+        );
+        const __m256i abs_dist_lo = _mm256_sign_epi8(dist_lo, dist_lo);
+        const __m256i abs_dist_hi = _mm256_sign_epi8(dist_hi, dist_hi);
+        const __m256i sqr_lo = _mm256_maddubs_epi16(abs_dist_lo, abs_dist_lo);
+        const __m256i sqr_hi = _mm256_maddubs_epi16(abs_dist_hi, abs_dist_hi);
+        acc1 = _mm256_add_epi32(_mm256_madd_epi16(ones, _mm256_add_epi16(sqr_lo, sqr_hi)), acc1);
+    }
+
+    // reduce (accumulate all)
+    return hsum_i32_8(acc1);
+}
+
+EXPORT int32_t sqr4u(int8_t* a, int8_t* b, size_t length) {
+    int32_t res = 0;
+    int i = 0;
+    if (length > STRIDE_BYTES_LEN) {
+        i += length & ~(STRIDE_BYTES_LEN - 1);
+        res = sqr4u_inner(a, b, i);
+    }
+    for (; i < length; i++) {
+        const uint8_t x = a[i];
+        const uint8_t y = b[i];
+        const int32_t dist_hi = (x >> 4) - (y >> 4);
+        const int32_t dist_lo = (x & 0x0F) - (y & 0x0F);
+        res += dist_hi * dist_hi + dist_lo * dist_lo;
+    }
+    return res;
+}
+
+static inline int32_t hamming_inner(int8_t* a, int8_t* b, size_t length) {
+    // Number of set bits of each 4-bit value
+    const __m256i lookup = _mm256_setr_epi8(
+        0, 1, 1, 2, 1, 2, 2, 3, 1, 2, 2, 3, 2, 3, 3, 4,
+        0, 1, 1, 2, 1, 2, 2, 3, 1, 2, 2, 3, 2, 3, 3, 4
+    );
+    const __m256i nibble_mask = _mm256_set1_epi8(0x0F);
+
+    // Init accumulator(s) with 0
+    __m256i acc1 = _mm256_setzero_si256();
+
+#pragma GCC unroll 4
+    for(int i = 0; i < length; i += STRIDE_BYTES_LEN) {
+        // Load packed 8-bit integers
+        __m256i va1 = _mm256_loadu_si256(a + i);
+        __m256i vb1 = _mm256_loadu_si256(b + i);
+
+        const __m256i x = _mm256_xor_si256(va1, vb1);
+        const __m256i cnt_lo = _mm256_shuffle_epi8(lookup, _mm256_and_si256(x, nibble_mask));
+        const __m256i cnt_hi = _mm256_shuffle_epi8(lookup, _mm256_and_si256(_mm256_srli_epi16(x, 4), nibble_mask));
+        // Horizontally add the bit counts of each group of 8 bytes into 64-bit lanes
+        acc1 = _mm256_add_epi64(_mm256_sad_epu8(_mm256_add_epi8(cnt_lo, cnt_hi), _mm256_setzero_si256()), acc1);
+    }
+
+    // reduce (horizontally add all), the upper halves of the 64-bit lanes are always 0
+    return hsum_i32_8(acc1);
+}
+
+EXPORT int32_t hamming(int8_t* a, int8_t* b, size_t length) {
+    int32_t res = 0;
+    int i = 0;
+    if (length > STRIDE_BYTES_LEN) {
+        i += length & ~(STRIDE_BYTES_LEN - 1);
+        res = hamming_inner(a, b, i);
+    }
+    for (; i < length; i++) {
+        uint8_t x = a[i] ^ b[i];
+        x = x - ((x >> 1) & 0x55);
+        x = (x & 0x33) + ((x >> 2) & 0x33);
+        res += (x + (x >> 4)) & 0x0F;
+    }
+    return res;
+}
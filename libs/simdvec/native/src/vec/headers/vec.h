@@ -20,3 +20,9 @@ EXPORT int vec_caps();
 EXPORT int32_t dot7u(int8_t* a, int8_t* b, size_t dims);
 
 EXPORT int32_t sqr7u(int8_t *a, int8_t *b, size_t length);
+
+EXPORT int32_t dot4u(int8_t* a, int8_t* b, size_t length);
+
+EXPORT int32_t sqr4u(int8_t* a, int8_t* b, size_t length);
+
+EXPORT int32_t hamming(int8_t* a, int8_t* b, size_t length);
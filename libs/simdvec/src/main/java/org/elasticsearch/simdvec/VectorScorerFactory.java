@@ -11,6 +11,7 @@ package org.elasticsearch.simdvec;
 
 import org.apache.lucene.index.VectorSimilarityFunction;
 import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.util.hnsw.RandomAccessVectorValues;
 import org.apache.lucene.util.hnsw.RandomVectorScorer;
 import org.apache.lucene.util.hnsw.RandomVectorScorerSupplier;
 import org.apache.lucene.util.quantization.RandomAccessQuantizedByteVectorValues;
@@ -57,4 +58,62 @@ public interface VectorScorerFactory {
         RandomAccessQuantizedByteVectorValues values,
         float[] queryVector
     );
+
+    /**
+     * Returns an optional containing an int4 scalar quantized vector score supplier
+     * for the given parameters, or an empty optional if a scorer is not supported.
+     * The vectors must be packed two dimensions per byte.
+     *
+     * @param similarityType the similarity type
+     * @param input the index input containing the vector data;
+     *    offset of the first vector is 0,
+     *    the length must be (maxOrd + Float#BYTES) * packed vector length
+     * @param values the random access vector values
+     * @param scoreCorrectionConstant the score correction constant
+     * @return an optional containing the vector scorer supplier, or empty
+     */
+    Optional<RandomVectorScorerSupplier> getInt4SQVectorScorerSupplier(
+        VectorSimilarityType similarityType,
+        IndexInput input,
+        RandomAccessQuantizedByteVectorValues values,
+        float scoreCorrectionConstant
+    );
+
+    /**
+     * Returns an optional containing an int4 scalar quantized vector scorer for
+     * the given parameters, or an empty optional if a scorer is not supported.
+     * The vectors must be packed two dimensions per byte.
+     *
+     * @param sim the similarity type
+     * @param values the random access vector values
+     * @param queryVector the query vector
+     * @return an optional containing the vector scorer, or empty
+     */
+    Optional<RandomVectorScorer> getInt4SQVectorScorer(
+        VectorSimilarityFunction sim,
+        RandomAccessQuantizedByteVectorValues values,
+        float[] queryVector
+    );
+
+    /**
+     * Returns an optional containing a hamming distance score supplier for bit vectors,
+     * or an empty optional if a scorer is not supported.
+     *
+     * @param input the index input containing the vector data;
+     *    offset of the first vector is 0,
+     *    the length must be maxOrd * vector byte length
+     * @param values the random access vector values
+     * @return an optional containing the vector scorer supplier, or empty
+     */
+    Optional<RandomVectorScorerSupplier> getHammingVectorScorerSupplier(IndexInput input, RandomAccessVectorValues.Bytes values);
+
+    /**
+     * Returns an optional containing a hamming distance scorer for bit vectors,
+     * or an empty optional if a scorer is not supported.
+     *
+     * @param values the random access vector values
+     * @param queryVector the query vector
+     * @return an optional containing the vector scorer, or empty
+     */
+    Optional<RandomVectorScorer> getHammingVectorScorer(RandomAccessVectorValues.Bytes values, byte[] queryVector);
 }
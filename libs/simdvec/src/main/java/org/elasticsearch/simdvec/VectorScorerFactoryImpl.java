@@ -11,6 +11,7 @@ package org.elasticsearch.simdvec;
 
 import org.apache.lucene.index.VectorSimilarityFunction;
 import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.util.hnsw.RandomAccessVectorValues;
 import org.apache.lucene.util.hnsw.RandomVectorScorer;
 import org.apache.lucene.util.hnsw.RandomVectorScorerSupplier;
 import org.apache.lucene.util.quantization.RandomAccessQuantizedByteVectorValues;
@@ -39,4 +40,33 @@ final class VectorScorerFactoryImpl implements VectorScorerFactory {
     ) {
         throw new UnsupportedOperationException("should not reach here");
     }
+
+    @Override
+    public Optional<RandomVectorScorerSupplier> getInt4SQVectorScorerSupplier(
+        VectorSimilarityType similarityType,
+        IndexInput input,
+        RandomAccessQuantizedByteVectorValues values,
+        float scoreCorrectionConstant
+    ) {
+        throw new UnsupportedOperationException("should not reach here");
+    }
+
+    @Override
+    public Optional<RandomVectorScorer> getInt4SQVectorScorer(
+        VectorSimilarityFunction sim,
+        RandomAccessQuantizedByteVectorValues values,
+        float[] queryVector
+    ) {
+        throw new UnsupportedOperationException("should not reach here");
+    }
+
+    @Override
+    public Optional<RandomVectorScorerSupplier> getHammingVectorScorerSupplier(IndexInput input, RandomAccessVectorValues.Bytes values) {
+        throw new UnsupportedOperationException("should not reach here");
+    }
+
+    @Override
+    public Optional<RandomVectorScorer> getHammingVectorScorer(RandomAccessVectorValues.Bytes values, byte[] queryVector) {
+        throw new UnsupportedOperationException("should not reach here");
+    }
 }
@@ -13,14 +13,20 @@ import org.apache.lucene.index.VectorSimilarityFunction;
 import org.apache.lucene.store.FilterIndexInput;
 import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.store.MemorySegmentAccessInput;
+import org.apache.lucene.util.hnsw.RandomAccessVectorValues;
 import org.apache.lucene.util.hnsw.RandomVectorScorer;
 import org.apache.lucene.util.hnsw.RandomVectorScorerSupplier;
 import org.apache.lucene.util.quantization.RandomAccessQuantizedByteVectorValues;
 import org.elasticsearch.nativeaccess.NativeAccess;
+import org.elasticsearch.simdvec.internal.HammingVectorScorer;
+import org.elasticsearch.simdvec.internal.HammingVectorScorerSupplier;
+import org.elasticsearch.simdvec.internal.Int4SQVectorScorer;
+import org.elasticsearch.simdvec.internal.Int4SQVectorScorerSupplier;
 import org.elasticsearch.simdvec.internal.Int7SQVectorScorer;
 import org.elasticsearch.simdvec.internal.Int7SQVectorScorerSupplier.DotProductSupplier;
 import org.elasticsearch.simdvec.internal.Int7SQVectorScorerSupplier.EuclideanSupplier;
 import org.elasticsearch.simdvec.internal.Int7SQVectorScorerSupplier.MaxInnerProductSupplier;
+import org.elasticsearch.simdvec.internal.Similarities;
 
 import java.util.Optional;
 
@@ -63,6 +69,70 @@ final class VectorScorerFactoryImpl implements VectorScorerFactory {
         return Int7SQVectorScorer.create(sim, values, queryVector);
     }
 
+    @Override
+    public Optional<RandomVectorScorerSupplier> getInt4SQVectorScorerSupplier(
+        VectorSimilarityType similarityType,
+        IndexInput input,
+        RandomAccessQuantizedByteVectorValues values,
+        float scoreCorrectionConstant
+    ) {
+        if (Similarities.hasInt4() == false) {
+            return Optional.empty();
+        }
+        if (values.getVectorByteLength() != (values.dimension() + 1) >> 1) {
+            // not packed
+            return Optional.empty();
+        }
+        input = FilterIndexInput.unwrapOnlyTest(input);
+        if (input instanceof MemorySegmentAccessInput == false) {
+            return Optional.empty();
+        }
+        MemorySegmentAccessInput msInput = (MemorySegmentAccessInput) input;
+        checkInvariants(values.size(), values.getVectorByteLength(), input);
+        return switch (similarityType) {
+            case COSINE, DOT_PRODUCT -> Optional.of(
+                new Int4SQVectorScorerSupplier.DotProductSupplier(msInput, values, scoreCorrectionConstant)
+            );
+            case EUCLIDEAN -> Optional.of(new Int4SQVectorScorerSupplier.EuclideanSupplier(msInput, values, scoreCorrectionConstant));
+            case MAXIMUM_INNER_PRODUCT -> Optional.of(
+                new Int4SQVectorScorerSupplier.MaxInnerProductSupplier(msInput, values, scoreCorrectionConstant)
+            );
+        };
+    }
+
+    @Override
+    public Optional<RandomVectorScorer> getInt4SQVectorScorer(
+        VectorSimilarityFunction sim,
+        RandomAccessQuantizedByteVectorValues values,
+        float[] queryVector
+    ) {
+        if (Similarities.hasInt4() == false) {
+            return Optional.empty();
+        }
+        return Int4SQVectorScorer.create(sim, values, queryVector);
+    }
+
+    @Override
+    public Optional<RandomVectorScorerSupplier> getHammingVectorScorerSupplier(IndexInput input, RandomAccessVectorValues.Bytes values) {
+        if (Similarities.hasHamming() == false) {
+            return Optional.empty();
+        }
+        input = FilterIndexInput.unwrapOnlyTest(input);
+        if (input instanceof MemorySegmentAccessInput == false) {
+            return Optional.empty();
+        }
+        checkInvariants(values.size(), values.getVectorByteLength(), input);
+        return Optional.of(new HammingVectorScorerSupplier((MemorySegmentAccessInput) input, values));
+    }
+
+    @Override
+    public Optional<RandomVectorScorer> getHammingVectorScorer(RandomAccessVectorValues.Bytes values, byte[] queryVector) {
+        if (Similarities.hasHamming() == false) {
+            return Optional.empty();
+        }
+        return HammingVectorScorer.create(values, queryVector);
+    }
+
     static void checkInvariants(int maxOrd, int vectorByteLength, IndexInput input) {
         if (input.length() < (long) vectorByteLength * maxOrd) {
             throw new IllegalArgumentException("input length is less than expected vector data");
@@ -0,0 +1,25 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.simdvec.internal;
+
+import org.apache.lucene.util.hnsw.RandomAccessVectorValues;
+import org.apache.lucene.util.hnsw.RandomVectorScorer;
+
+import java.util.Optional;
+
+public final class HammingVectorScorer {
+
+    // Unconditionally returns an empty optional on <= JDK 21, since the scorer is only supported on JDK 22+
+    public static Optional<RandomVectorScorer> create(RandomAccessVectorValues.Bytes values, byte[] queryVector) {
+        return Optional.empty();
+    }
+
+    private HammingVectorScorer() {}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.simdvec.internal;
+
+import org.apache.lucene.store.MemorySegmentAccessInput;
+import org.apache.lucene.util.hnsw.RandomAccessVectorValues;
+import org.apache.lucene.util.hnsw.RandomVectorScorer;
+import org.apache.lucene.util.hnsw.RandomVectorScorerSupplier;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Scores bit vectors by their hamming distance, directly from the memory segments of the vector data.
+ * The score is the fraction of bits that the two vectors have in common.
+ */
+public final class HammingVectorScorerSupplier implements RandomVectorScorerSupplier {
+
+    final int vectorByteLength;
+    final int maxOrd;
+    final MemorySegmentAccessInput input;
+    final RandomAccessVectorValues.Bytes values; // to support ordToDoc/getAcceptOrds
+
+    public HammingVectorScorerSupplier(MemorySegmentAccessInput input, RandomAccessVectorValues.Bytes values) {
+        this.input = input;
+        this.values = values;
+        this.vectorByteLength = values.getVectorByteLength();
+        this.maxOrd = values.size();
+    }
+
+    void checkOrdinal(int ord) {
+        if (ord < 0 || ord > maxOrd) {
+            throw new IllegalArgumentException("illegal ordinal: " + ord);
+        }
+    }
+
+    float scoreFromOrds(int firstOrd, int secondOrd) throws IOException {
+        checkOrdinal(firstOrd);
+        checkOrdinal(secondOrd);
+
+        final int length = vectorByteLength;
+        long firstByteOffset = (long) firstOrd * length;
+        long secondByteOffset = (long) secondOrd * length;
+
+        MemorySegment firstSeg = input.segmentSliceOrNull(firstByteOffset, length);
+        if (firstSeg == null) {
+            return fallbackScore(firstByteOffset, secondByteOffset);
+        }
+        MemorySegment secondSeg = input.segmentSliceOrNull(secondByteOffset, length);
+        if (secondSeg == null) {
+            return fallbackScore(firstByteOffset, secondByteOffset);
+        }
+        return hammingScore(Similarities.hamming(firstSeg, secondSeg, length), length);
+    }
+
+    float fallbackScore(long firstByteOffset, long secondByteOffset) throws IOException {
+        byte[] a = new byte[vectorByteLength];
+        input.readBytes(firstByteOffset, a, 0, a.length);
+        byte[] b = new byte[vectorByteLength];
+        input.readBytes(secondByteOffset, b, 0, b.length);
+        int distance = 0;
+        for (int i = 0; i < a.length; i++) {
+            distance += Integer.bitCount((a[i] ^ b[i]) & 0xFF);
+        }
+        return hammingScore(distance, vectorByteLength);
+    }
+
+    static float hammingScore(int distance, int vectorByteLength) {
+        int bits = vectorByteLength * Byte.SIZE;
+        return (bits - distance) / (float) bits;
+    }
+
+    @Override
+    public RandomVectorScorer scorer(int ord) {
+        checkOrdinal(ord);
+        return new RandomVectorScorer.AbstractRandomVectorScorer(values) {
+            @Override
+            public float score(int node) throws IOException {
+                return scoreFromOrds(ord, node);
+            }
+        };
+    }
+
+    @Override
+    public HammingVectorScorerSupplier copy() {
+        return new HammingVectorScorerSupplier(input.clone(), values);
+    }
+}
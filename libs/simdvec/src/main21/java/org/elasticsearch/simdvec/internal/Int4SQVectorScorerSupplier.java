@@ -0,0 +1,211 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.simdvec.internal;
+
+import org.apache.lucene.store.MemorySegmentAccessInput;
+import org.apache.lucene.util.hnsw.RandomVectorScorer;
+import org.apache.lucene.util.hnsw.RandomVectorScorerSupplier;
+import org.apache.lucene.util.quantization.RandomAccessQuantizedByteVectorValues;
+import org.apache.lucene.util.quantization.ScalarQuantizedVectorSimilarity;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+
+import static org.apache.lucene.index.VectorSimilarityFunction.DOT_PRODUCT;
+import static org.apache.lucene.index.VectorSimilarityFunction.EUCLIDEAN;
+import static org.apache.lucene.index.VectorSimilarityFunction.MAXIMUM_INNER_PRODUCT;
+import static org.apache.lucene.util.quantization.ScalarQuantizedVectorSimilarity.fromVectorSimilarity;
+
+/**
+ * Scores int4 scalar quantized vectors that are packed two dimensions per byte, directly from
+ * the memory segments of the vector data. The value of dimension {@code i} is stored in the upper
+ * nibble of byte {@code i}, and the value of dimension {@code i + packedLength} in its lower nibble,
+ * so that the dot product and the square distance of two packed vectors can be computed without
+ * unpacking them.
+ */
+public abstract sealed class Int4SQVectorScorerSupplier implements RandomVectorScorerSupplier {
+
+    static final byte BITS = 4;
+
+    final int dims;
+    final int packedLength;
+    final int maxOrd;
+    final float scoreCorrectionConstant;
+    final MemorySegmentAccessInput input;
+    final RandomAccessQuantizedByteVectorValues values; // to support ordToDoc/getAcceptOrds
+    final ScalarQuantizedVectorSimilarity fallbackScorer;
+
+    protected Int4SQVectorScorerSupplier(
+        MemorySegmentAccessInput input,
+        RandomAccessQuantizedByteVectorValues values,
+        float scoreCorrectionConstant,
+        ScalarQuantizedVectorSimilarity fallbackScorer
+    ) {
+        this.input = input;
+        this.values = values;
+        this.dims = values.dimension();
+        this.packedLength = values.getVectorByteLength();
+        assert packedLength == (dims + 1) >> 1 : "expected packed int4 vectors";
+        this.maxOrd = values.size();
+        this.scoreCorrectionConstant = scoreCorrectionConstant;
+        this.fallbackScorer = fallbackScorer;
+    }
+
+    protected final void checkOrdinal(int ord) {
+        if (ord < 0 || ord > maxOrd) {
+            throw new IllegalArgumentException("illegal ordinal: " + ord);
+        }
+    }
+
+    final float scoreFromOrds(int firstOrd, int secondOrd) throws IOException {
+        checkOrdinal(firstOrd);
+        checkOrdinal(secondOrd);
+
+        final int length = packedLength;
+        long firstByteOffset = (long) firstOrd * (length + Float.BYTES);
+        long secondByteOffset = (long) secondOrd * (length + Float.BYTES);
+
+        MemorySegment firstSeg = input.segmentSliceOrNull(firstByteOffset, length);
+        if (firstSeg == null) {
+            return fallbackScore(firstByteOffset, secondByteOffset);
+        }
+        float firstOffset = Float.intBitsToFloat(input.readInt(firstByteOffset + length));
+
+        MemorySegment secondSeg = input.segmentSliceOrNull(secondByteOffset, length);
+        if (secondSeg == null) {
+            return fallbackScore(firstByteOffset, secondByteOffset);
+        }
+        float secondOffset = Float.intBitsToFloat(input.readInt(secondByteOffset + length));
+
+        return scoreFromSegments(firstSeg, firstOffset, secondSeg, secondOffset);
+    }
+
+    abstract float scoreFromSegments(MemorySegment a, float aOffset, MemorySegment b, float bOffset);
+
+    protected final float fallbackScore(long firstByteOffset, long secondByteOffset) throws IOException {
+        byte[] packed = new byte[packedLength];
+        input.readBytes(firstByteOffset, packed, 0, packed.length);
+        byte[] a = unpack(packed, dims);
+        float aOffsetValue = Float.intBitsToFloat(input.readInt(firstByteOffset + packedLength));
+
+        input.readBytes(secondByteOffset, packed, 0, packed.length);
+        byte[] b = unpack(packed, dims);
+        float bOffsetValue = Float.intBitsToFloat(input.readInt(secondByteOffset + packedLength));
+
+        return fallbackScorer.score(a, aOffsetValue, b, bOffsetValue);
+    }
+
+    /** Packs int4 values two per byte, the inverse of {@link #unpack(byte[], int)}. */
+    static byte[] pack(byte[] raw) {
+        byte[] packed = new byte[(raw.length + 1) >> 1];
+        for (int i = 0; i < packed.length; i++) {
+            int lower = i + packed.length < raw.length ? raw[i + packed.length] : 0;
+            packed[i] = (byte) ((raw[i] << 4) | lower);
+        }
+        return packed;
+    }
+
+    /** Unpacks int4 values that are packed two per byte into one value per byte. */
+    static byte[] unpack(byte[] packed, int dims) {
+        byte[] raw = new byte[dims];
+        for (int i = 0; i < packed.length; i++) {
+            raw[i] = (byte) ((packed[i] & 0xFF) >> 4);
+            if (i + packed.length < dims) {
+                raw[i + packed.length] = (byte) (packed[i] & 0x0F);
+            }
+        }
+        return raw;
+    }
+
+    @Override
+    public RandomVectorScorer scorer(int ord) {
+        checkOrdinal(ord);
+        return new RandomVectorScorer.AbstractRandomVectorScorer(values) {
+            @Override
+            public float score(int node) throws IOException {
+                return scoreFromOrds(ord, node);
+            }
+        };
+    }
+
+    public static final class EuclideanSupplier extends Int4SQVectorScorerSupplier {
+
+        public EuclideanSupplier(
+            MemorySegmentAccessInput input,
+            RandomAccessQuantizedByteVectorValues values,
+            float scoreCorrectionConstant
+        ) {
+            super(input, values, scoreCorrectionConstant, fromVectorSimilarity(EUCLIDEAN, scoreCorrectionConstant, BITS));
+        }
+
+        @Override
+        float scoreFromSegments(MemorySegment a, float aOffset, MemorySegment b, float bOffset) {
+            int squareDistance = Similarities.squareDistance4u(a, b, packedLength);
+            float adjustedDistance = squareDistance * scoreCorrectionConstant;
+            return 1 / (1f + adjustedDistance);
+        }
+
+        @Override
+        public EuclideanSupplier copy() {
+            return new EuclideanSupplier(input.clone(), values, scoreCorrectionConstant);
+        }
+    }
+
+    public static final class DotProductSupplier extends Int4SQVectorScorerSupplier {
+
+        public DotProductSupplier(
+            MemorySegmentAccessInput input,
+            RandomAccessQuantizedByteVectorValues values,
+            float scoreCorrectionConstant
+        ) {
+            super(input, values, scoreCorrectionConstant, fromVectorSimilarity(DOT_PRODUCT, scoreCorrectionConstant, BITS));
+        }
+
+        @Override
+        float scoreFromSegments(MemorySegment a, float aOffset, MemorySegment b, float bOffset) {
+            int dotProduct = Similarities.dotProduct4u(a, b, packedLength);
+            assert dotProduct >= 0;
+            float adjustedDistance = dotProduct * scoreCorrectionConstant + aOffset + bOffset;
+            return Math.max((1 + adjustedDistance) / 2, 0f);
+        }
+
+        @Override
+        public DotProductSupplier copy() {
+            return new DotProductSupplier(input.clone(), values, scoreCorrectionConstant);
+        }
+    }
+
+    public static final class MaxInnerProductSupplier extends Int4SQVectorScorerSupplier {
+
+        public MaxInnerProductSupplier(
+            MemorySegmentAccessInput input,
+            RandomAccessQuantizedByteVectorValues values,
+            float scoreCorrectionConstant
+        ) {
+            super(input, values, scoreCorrectionConstant, fromVectorSimilarity(MAXIMUM_INNER_PRODUCT, scoreCorrectionConstant, BITS));
+        }
+
+        @Override
+        float scoreFromSegments(MemorySegment a, float aOffset, MemorySegment b, float bOffset) {
+            int dotProduct = Similarities.dotProduct4u(a, b, packedLength);
+            assert dotProduct >= 0;
+            float adjustedDistance = dotProduct * scoreCorrectionConstant + aOffset + bOffset;
+            if (adjustedDistance < 0) {
+                return 1 / (1 + -1 * adjustedDistance);
+            }
+            return adjustedDistance + 1;
+        }
+
+        @Override
+        public MaxInnerProductSupplier copy() {
+            return new MaxInnerProductSupplier(input.clone(), values, scoreCorrectionConstant);
+        }
+    }
+}
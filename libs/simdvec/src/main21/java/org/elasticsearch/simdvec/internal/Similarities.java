@@ -23,6 +23,23 @@ public class Similarities {
 
     static final MethodHandle DOT_PRODUCT_7U = DISTANCE_FUNCS.dotProductHandle7u();
     static final MethodHandle SQUARE_DISTANCE_7U = DISTANCE_FUNCS.squareDistanceHandle7u();
+    static final MethodHandle DOT_PRODUCT_4U = DISTANCE_FUNCS.dotProductHandle4u();
+    static final MethodHandle SQUARE_DISTANCE_4U = DISTANCE_FUNCS.squareDistanceHandle4u();
+    static final MethodHandle HAMMING = DISTANCE_FUNCS.hammingHandle();
+
+    /**
+     * Whether the native library provides the packed int4 functions.
+     */
+    public static boolean hasInt4() {
+        return DOT_PRODUCT_4U != null && SQUARE_DISTANCE_4U != null;
+    }
+
+    /**
+     * Whether the native library provides the hamming function.
+     */
+    public static boolean hasHamming() {
+        return HAMMING != null;
+    }
 
     static int dotProduct7u(MemorySegment a, MemorySegment b, int length) {
         try {
@@ -51,4 +68,46 @@ public class Similarities {
             }
         }
     }
+
+    static int dotProduct4u(MemorySegment a, MemorySegment b, int length) {
+        try {
+            return (int) DOT_PRODUCT_4U.invokeExact(a, b, length);
+        } catch (Throwable e) {
+            if (e instanceof Error err) {
+                throw err;
+            } else if (e instanceof RuntimeException re) {
+                throw re;
+            } else {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    static int squareDistance4u(MemorySegment a, MemorySegment b, int length) {
+        try {
+            return (int) SQUARE_DISTANCE_4U.invokeExact(a, b, length);
+        } catch (Throwable e) {
+            if (e instanceof Error err) {
+                throw err;
+            } else if (e instanceof RuntimeException re) {
+                throw re;
+            } else {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    static int hamming(MemorySegment a, MemorySegment b, int length) {
+        try {
+            return (int) HAMMING.invokeExact(a, b, length);
+        } catch (Throwable e) {
+            if (e instanceof Error err) {
+                throw err;
+            } else if (e instanceof RuntimeException re) {
+                throw re;
+            } else {
+                throw new RuntimeException(e);
+            }
+        }
+    }
 }
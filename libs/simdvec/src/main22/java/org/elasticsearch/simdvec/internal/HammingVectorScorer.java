@@ -0,0 +1,84 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.simdvec.internal;
+
+import org.apache.lucene.store.FilterIndexInput;
+import org.apache.lucene.store.MemorySegmentAccessInput;
+import org.apache.lucene.util.hnsw.RandomAccessVectorValues;
+import org.apache.lucene.util.hnsw.RandomVectorScorer;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.util.Optional;
+
+import static org.elasticsearch.simdvec.internal.Similarities.hamming;
+
+/**
+ * Scores a query against bit vectors by their hamming distance, see {@link HammingVectorScorerSupplier}.
+ */
+public final class HammingVectorScorer extends RandomVectorScorer.AbstractRandomVectorScorer {
+
+    final int vectorByteSize;
+    final MemorySegmentAccessInput input;
+    final MemorySegment query;
+    byte[] scratch;
+
+    /** Return an optional whose value, if present, is the scorer. Otherwise, an empty optional is returned. */
+    public static Optional<RandomVectorScorer> create(RandomAccessVectorValues.Bytes values, byte[] queryVector) {
+        checkDimensions(queryVector.length, values.getVectorByteLength());
+        var input = values.getSlice();
+        if (input == null) {
+            return Optional.empty();
+        }
+        input = FilterIndexInput.unwrapOnlyTest(input);
+        if (input instanceof MemorySegmentAccessInput == false) {
+            return Optional.empty();
+        }
+        MemorySegmentAccessInput msInput = (MemorySegmentAccessInput) input;
+        if (input.length() < (long) values.getVectorByteLength() * values.size()) {
+            throw new IllegalArgumentException("input length is less than expected vector data");
+        }
+        return Optional.of(new HammingVectorScorer(msInput, values, queryVector));
+    }
+
+    HammingVectorScorer(MemorySegmentAccessInput input, RandomAccessVectorValues.Bytes values, byte[] queryVector) {
+        super(values);
+        this.input = input;
+        this.vectorByteSize = values.getVectorByteLength();
+        this.query = MemorySegment.ofArray(queryVector);
+    }
+
+    @Override
+    public float score(int node) throws IOException {
+        checkOrdinal(node);
+        long byteOffset = (long) node * vectorByteSize;
+        MemorySegment seg = input.segmentSliceOrNull(byteOffset, vectorByteSize);
+        if (seg == null) {
+            if (scratch == null) {
+                scratch = new byte[vectorByteSize];
+            }
+            input.readBytes(byteOffset, scratch, 0, vectorByteSize);
+            seg = MemorySegment.ofArray(scratch);
+        }
+        return HammingVectorScorerSupplier.hammingScore(hamming(query, seg, vectorByteSize), vectorByteSize);
+    }
+
+    void checkOrdinal(int ord) {
+        if (ord < 0 || ord >= maxOrd()) {
+            throw new IllegalArgumentException("illegal ordinal: " + ord);
+        }
+    }
+
+    static void checkDimensions(int queryLen, int fieldLen) {
+        if (queryLen != fieldLen) {
+            throw new IllegalArgumentException("vector query dimension: " + queryLen + " differs from field dimension: " + fieldLen);
+        }
+    }
+}
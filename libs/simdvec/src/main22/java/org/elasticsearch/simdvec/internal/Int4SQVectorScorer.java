@@ -0,0 +1,173 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.simdvec.internal;
+
+import org.apache.lucene.codecs.hnsw.ScalarQuantizedVectorScorer;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.store.FilterIndexInput;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.MemorySegmentAccessInput;
+import org.apache.lucene.util.hnsw.RandomVectorScorer;
+import org.apache.lucene.util.quantization.RandomAccessQuantizedByteVectorValues;
+import org.apache.lucene.util.quantization.ScalarQuantizer;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.util.Optional;
+
+import static org.elasticsearch.simdvec.internal.Similarities.dotProduct4u;
+import static org.elasticsearch.simdvec.internal.Similarities.squareDistance4u;
+
+/**
+ * Scores a query against int4 scalar quantized vectors that are packed two dimensions per byte. The quantized
+ * query is packed the same way as the vectors, see {@link Int4SQVectorScorerSupplier}.
+ */
+public abstract sealed class Int4SQVectorScorer extends RandomVectorScorer.AbstractRandomVectorScorer {
+
+    final int vectorByteSize;
+    final MemorySegmentAccessInput input;
+    final MemorySegment query;
+    final float scoreCorrectionConstant;
+    final float queryCorrection;
+    byte[] scratch;
+
+    /** Return an optional whose value, if present, is the scorer. Otherwise, an empty optional is returned. */
+    public static Optional<RandomVectorScorer> create(
+        VectorSimilarityFunction sim,
+        RandomAccessQuantizedByteVectorValues values,
+        float[] queryVector
+    ) {
+        checkDimensions(queryVector.length, values.dimension());
+        if (values.getVectorByteLength() != (values.dimension() + 1) >> 1) {
+            // not packed
+            return Optional.empty();
+        }
+        var input = values.getSlice();
+        if (input == null) {
+            return Optional.empty();
+        }
+        input = FilterIndexInput.unwrapOnlyTest(input);
+        if (input instanceof MemorySegmentAccessInput == false) {
+            return Optional.empty();
+        }
+        MemorySegmentAccessInput msInput = (MemorySegmentAccessInput) input;
+        checkInvariants(values.size(), values.getVectorByteLength(), input);
+
+        ScalarQuantizer scalarQuantizer = values.getScalarQuantizer();
+        assert scalarQuantizer.getBits() == Int4SQVectorScorerSupplier.BITS;
+        byte[] quantizedQuery = new byte[queryVector.length];
+        float queryCorrection = ScalarQuantizedVectorScorer.quantizeQuery(queryVector, quantizedQuery, sim, scalarQuantizer);
+        byte[] packedQuery = Int4SQVectorScorerSupplier.pack(quantizedQuery);
+        return switch (sim) {
+            case COSINE, DOT_PRODUCT -> Optional.of(new DotProductScorer(msInput, values, packedQuery, queryCorrection));
+            case EUCLIDEAN -> Optional.of(new EuclideanScorer(msInput, values, packedQuery, queryCorrection));
+            case MAXIMUM_INNER_PRODUCT -> Optional.of(new MaxInnerProductScorer(msInput, values, packedQuery, queryCorrection));
+        };
+    }
+
+    Int4SQVectorScorer(
+        MemorySegmentAccessInput input,
+        RandomAccessQuantizedByteVectorValues values,
+        byte[] packedQuery,
+        float queryCorrection
+    ) {
+        super(values);
+        this.input = input;
+        assert packedQuery.length == values.getVectorByteLength();
+        this.vectorByteSize = values.getVectorByteLength();
+        this.query = MemorySegment.ofArray(packedQuery);
+        this.queryCorrection = queryCorrection;
+        this.scoreCorrectionConstant = values.getScalarQuantizer().getConstantMultiplier();
+    }
+
+    final MemorySegment getSegment(int ord) throws IOException {
+        checkOrdinal(ord);
+        long byteOffset = (long) ord * (vectorByteSize + Float.BYTES);
+        MemorySegment seg = input.segmentSliceOrNull(byteOffset, vectorByteSize);
+        if (seg == null) {
+            if (scratch == null) {
+                scratch = new byte[vectorByteSize];
+            }
+            input.readBytes(byteOffset, scratch, 0, vectorByteSize);
+            seg = MemorySegment.ofArray(scratch);
+        }
+        return seg;
+    }
+
+    final float nodeCorrection(int ord) throws IOException {
+        long byteOffset = (long) ord * (vectorByteSize + Float.BYTES);
+        return Float.intBitsToFloat(input.readInt(byteOffset + vectorByteSize));
+    }
+
+    static void checkInvariants(int maxOrd, int vectorByteLength, IndexInput input) {
+        if (input.length() < (long) vectorByteLength * maxOrd) {
+            throw new IllegalArgumentException("input length is less than expected vector data");
+        }
+    }
+
+    final void checkOrdinal(int ord) {
+        if (ord < 0 || ord >= maxOrd()) {
+            throw new IllegalArgumentException("illegal ordinal: " + ord);
+        }
+    }
+
+    public static final class DotProductScorer extends Int4SQVectorScorer {
+        public DotProductScorer(MemorySegmentAccessInput in, RandomAccessQuantizedByteVectorValues values, byte[] query, float correction) {
+            super(in, values, query, correction);
+        }
+
+        @Override
+        public float score(int node) throws IOException {
+            checkOrdinal(node);
+            int dotProduct = dotProduct4u(query, getSegment(node), vectorByteSize);
+            assert dotProduct >= 0;
+            float adjustedDistance = dotProduct * scoreCorrectionConstant + queryCorrection + nodeCorrection(node);
+            return Math.max((1 + adjustedDistance) / 2, 0f);
+        }
+    }
+
+    public static final class EuclideanScorer extends Int4SQVectorScorer {
+        public EuclideanScorer(MemorySegmentAccessInput in, RandomAccessQuantizedByteVectorValues values, byte[] query, float correction) {
+            super(in, values, query, correction);
+        }
+
+        @Override
+        public float score(int node) throws IOException {
+            checkOrdinal(node);
+            int sqDist = squareDistance4u(query, getSegment(node), vectorByteSize);
+            float adjustedDistance = sqDist * scoreCorrectionConstant;
+            return 1 / (1f + adjustedDistance);
+        }
+    }
+
+    public static final class MaxInnerProductScorer extends Int4SQVectorScorer {
+        public MaxInnerProductScorer(MemorySegmentAccessInput in, RandomAccessQuantizedByteVectorValues values, byte[] query, float corr) {
+            super(in, values, query, corr);
+        }
+
+        @Override
+        public float score(int node) throws IOException {
+            checkOrdinal(node);
+            int dotProduct = dotProduct4u(query, getSegment(node), vectorByteSize);
+            assert dotProduct >= 0;
+            float adjustedDistance = dotProduct * scoreCorrectionConstant + queryCorrection + nodeCorrection(node);
+            if (adjustedDistance < 0) {
+                return 1 / (1 + -1 * adjustedDistance);
+            }
+            return adjustedDistance + 1;
+        }
+    }
+
+    static void checkDimensions(int queryLen, int fieldLen) {
+        if (queryLen != fieldLen) {
+            throw new IllegalArgumentException("vector query dimension: " + queryLen + " differs from field dimension: " + fieldLen);
+        }
+    }
+}
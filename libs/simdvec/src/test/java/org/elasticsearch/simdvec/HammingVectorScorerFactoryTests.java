@@ -0,0 +1,146 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.simdvec;
+
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.hnsw.RandomAccessVectorValues;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class HammingVectorScorerFactoryTests extends AbstractVectorTestCase {
+
+    public void testRandom() throws IOException {
+        testRandomImpl(MMapDirectory.DEFAULT_MAX_CHUNK_SIZE);
+    }
+
+    public void testRandomMaxChunkSizeSmall() throws IOException {
+        long maxChunkSize = randomLongBetween(32, 128);
+        logger.info("maxChunkSize=" + maxChunkSize);
+        testRandomImpl(maxChunkSize);
+    }
+
+    void testRandomImpl(long maxChunkSize) throws IOException {
+        assumeTrue(notSupportedMsg(), supported());
+        var factory = AbstractVectorTestCase.factory.get();
+
+        try (Directory dir = new MMapDirectory(createTempDir("testRandom"), maxChunkSize)) {
+            // bit vectors are stored as bytes, so the dimension is the number of bytes
+            final int dims = randomIntBetween(1, 512);
+            final int size = randomIntBetween(2, 100);
+            final byte[][] vectors = new byte[size][dims];
+
+            String fileName = "testRandom-" + dims;
+            logger.info("Testing " + fileName);
+            try (IndexOutput out = dir.createOutput(fileName, IOContext.DEFAULT)) {
+                for (int i = 0; i < size; i++) {
+                    random().nextBytes(vectors[i]);
+                    out.writeBytes(vectors[i], 0, dims);
+                }
+            }
+            try (IndexInput in = dir.openInput(fileName, IOContext.DEFAULT)) {
+                var values = new ByteVectorValues(in.slice("values", 0, in.length()), dims, size);
+                var supplier = factory.getHammingVectorScorerSupplier(in, values).get();
+                for (int times = 0; times < TIMES; times++) {
+                    int idx0 = randomIntBetween(0, size - 1);
+                    int idx1 = randomIntBetween(0, size - 1); // may be the same as idx0 - which is ok.
+                    float expected = hammingScore(vectors[idx0], vectors[idx1]);
+                    assertThat(supplier.scorer(idx0).score(idx1), equalTo(expected));
+                    assertThat(supplier.copy().scorer(idx0).score(idx1), equalTo(expected));
+                    if (Runtime.version().feature() >= 22) {
+                        var scorer = factory.getHammingVectorScorer(values, vectors[idx0]).get();
+                        assertThat(scorer.score(idx1), equalTo(expected));
+                    }
+                }
+            }
+        }
+    }
+
+    public void testIllegalDimensions() throws IOException {
+        assumeTrue("scorer only supported on JDK 22+", Runtime.version().feature() >= 22);
+        assumeTrue(notSupportedMsg(), supported());
+        var factory = AbstractVectorTestCase.factory.get();
+
+        try (Directory dir = new MMapDirectory(createTempDir("testIllegalDimensions"))) {
+            String fileName = "testIllegalDimensions";
+            try (IndexOutput out = dir.createOutput(fileName, IOContext.DEFAULT)) {
+                out.writeBytes(new byte[32], 0, 32);
+            }
+            try (IndexInput in = dir.openInput(fileName, IOContext.DEFAULT)) {
+                var values = new ByteVectorValues(in.slice("values", 0, in.length()), 16, 2);
+                var e = expectThrows(IllegalArgumentException.class, () -> factory.getHammingVectorScorer(values, new byte[8]));
+                assertThat(e.getMessage(), equalTo("vector query dimension: 8 differs from field dimension: 16"));
+            }
+        }
+    }
+
+    /** The expected score: the fraction of bits that the given vectors have in common. */
+    static float hammingScore(byte[] a, byte[] b) {
+        int distance = 0;
+        for (int i = 0; i < a.length; i++) {
+            distance += Integer.bitCount((a[i] ^ b[i]) & 0xFF);
+        }
+        return ((a.length * Byte.SIZE) - distance) / (float) (a.length * Byte.SIZE);
+    }
+
+    /** Byte vectors that are stored one after the other, the same way as Lucene's flat byte vectors. */
+    static final class ByteVectorValues implements RandomAccessVectorValues.Bytes {
+        private final IndexInput slice;
+        private final int dims;
+        private final int size;
+        private final byte[] vector;
+
+        ByteVectorValues(IndexInput slice, int dims, int size) {
+            this.slice = slice;
+            this.dims = dims;
+            this.size = size;
+            this.vector = new byte[dims];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int dimension() {
+            return dims;
+        }
+
+        @Override
+        public int getVectorByteLength() {
+            return dims;
+        }
+
+        @Override
+        public IndexInput getSlice() {
+            return slice;
+        }
+
+        @Override
+        public byte[] vectorValue(int targetOrd) throws IOException {
+            slice.seek((long) targetOrd * dims);
+            slice.readBytes(vector, 0, dims);
+            return vector;
+        }
+
+        @Override
+        public ByteVectorValues copy() {
+            return new ByteVectorValues(slice.clone(), dims, size);
+        }
+    }
+
+    static final int TIMES = 100; // a loop iteration times
+}
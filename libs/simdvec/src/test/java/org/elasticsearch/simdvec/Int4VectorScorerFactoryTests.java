@@ -0,0 +1,193 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.simdvec;
+
+import org.apache.lucene.codecs.lucene99.OffHeapQuantizedByteVectorValues;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.quantization.RandomAccessQuantizedByteVectorValues;
+import org.apache.lucene.util.quantization.ScalarQuantizedVectorSimilarity;
+import org.apache.lucene.util.quantization.ScalarQuantizer;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.apache.lucene.codecs.hnsw.ScalarQuantizedVectorScorer.quantizeQuery;
+import static org.elasticsearch.simdvec.VectorSimilarityType.COSINE;
+import static org.elasticsearch.simdvec.VectorSimilarityType.DOT_PRODUCT;
+import static org.elasticsearch.simdvec.VectorSimilarityType.EUCLIDEAN;
+import static org.elasticsearch.simdvec.VectorSimilarityType.MAXIMUM_INNER_PRODUCT;
+import static org.hamcrest.Matchers.equalTo;
+
+public class Int4VectorScorerFactoryTests extends AbstractVectorTestCase {
+
+    // bounds of the range of values that can be seen by int4 scalar quantized vectors
+    static final byte MIN_INT4_VALUE = 0;
+    static final byte MAX_INT4_VALUE = 15;
+
+    public void testRandom() throws IOException {
+        testRandomSupplier(MMapDirectory.DEFAULT_MAX_CHUNK_SIZE);
+    }
+
+    public void testRandomMaxChunkSizeSmall() throws IOException {
+        long maxChunkSize = randomLongBetween(32, 128);
+        logger.info("maxChunkSize=" + maxChunkSize);
+        testRandomSupplier(maxChunkSize);
+    }
+
+    void testRandomSupplier(long maxChunkSize) throws IOException {
+        assumeTrue(notSupportedMsg(), supported());
+        var factory = AbstractVectorTestCase.factory.get();
+
+        try (Directory dir = new MMapDirectory(createTempDir("testRandom"), maxChunkSize)) {
+            // int4 vectors are only packed with an even number of dimensions
+            final int dims = randomIntBetween(1, 2048) * 2;
+            final int size = randomIntBetween(2, 100);
+            final float correction = randomFloat();
+            final byte[][] vectors = new byte[size][];
+            final float[] offsets = new float[size];
+
+            String fileName = "testRandom-" + dims;
+            logger.info("Testing " + fileName);
+            try (IndexOutput out = dir.createOutput(fileName, IOContext.DEFAULT)) {
+                for (int i = 0; i < size; i++) {
+                    var vec = new byte[dims];
+                    randomBytesBetween(vec, MIN_INT4_VALUE, MAX_INT4_VALUE);
+                    var off = randomFloat();
+                    var packed = pack(vec);
+                    out.writeBytes(packed, 0, packed.length);
+                    out.writeInt(Float.floatToIntBits(off));
+                    vectors[i] = vec;
+                    offsets[i] = off;
+                }
+            }
+            try (IndexInput in = dir.openInput(fileName, IOContext.DEFAULT)) {
+                for (int times = 0; times < TIMES; times++) {
+                    int idx0 = randomIntBetween(0, size - 1);
+                    int idx1 = randomIntBetween(0, size - 1); // may be the same as idx0 - which is ok.
+                    for (var sim : List.of(COSINE, DOT_PRODUCT, EUCLIDEAN, MAXIMUM_INNER_PRODUCT)) {
+                        var values = vectorValues(dims, size, in, VectorSimilarityType.of(sim));
+                        float expected = luceneInt4Score(sim, vectors[idx0], vectors[idx1], correction, offsets[idx0], offsets[idx1]);
+                        var supplier = factory.getInt4SQVectorScorerSupplier(sim, in, values, correction).get();
+                        assertThat(supplier.scorer(idx0).score(idx1), equalTo(expected));
+                        assertThat(supplier.copy().scorer(idx0).score(idx1), equalTo(expected));
+                    }
+                }
+            }
+        }
+    }
+
+    public void testRandomScorer() throws IOException {
+        assumeTrue("scorer only supported on JDK 22+", Runtime.version().feature() >= 22);
+        assumeTrue(notSupportedMsg(), supported());
+        var factory = AbstractVectorTestCase.factory.get();
+        var scalarQuantizer = new ScalarQuantizer(0.1f, 0.9f, (byte) 4);
+
+        try (Directory dir = new MMapDirectory(createTempDir("testRandomScorer"), randomLongBetween(32, 128))) {
+            for (var sim : List.of(COSINE, DOT_PRODUCT, EUCLIDEAN, MAXIMUM_INNER_PRODUCT)) {
+                final int dims = randomIntBetween(1, 2048) * 2;
+                final int size = randomIntBetween(2, 100);
+                final float[][] vectors = new float[size][];
+                final byte[][] qVectors = new byte[size][];
+                final float[] corrections = new float[size];
+
+                String fileName = "testRandomScorer-" + sim + "-" + dims + ".vex";
+                logger.info("Testing " + fileName);
+                try (IndexOutput out = dir.createOutput(fileName, IOContext.DEFAULT)) {
+                    for (int i = 0; i < size; i++) {
+                        vectors[i] = new float[dims];
+                        for (int j = 0; j < dims; j++) {
+                            vectors[i][j] = randomFloat();
+                        }
+                        qVectors[i] = new byte[dims];
+                        corrections[i] = quantizeQuery(vectors[i], qVectors[i], VectorSimilarityType.of(sim), scalarQuantizer);
+                        var packed = pack(qVectors[i]);
+                        out.writeBytes(packed, 0, packed.length);
+                        out.writeBytes(floatToByteArray(corrections[i]), 0, 4);
+                    }
+                }
+                try (IndexInput in = dir.openInput(fileName, IOContext.DEFAULT)) {
+                    for (int times = 0; times < TIMES; times++) {
+                        int idx0 = randomIntBetween(0, size - 1);
+                        int idx1 = randomIntBetween(0, size - 1);
+                        var values = vectorValues(dims, size, in, VectorSimilarityType.of(sim));
+                        var correction = scalarQuantizer.getConstantMultiplier();
+
+                        var expected = luceneInt4Score(
+                            sim,
+                            qVectors[idx0],
+                            qVectors[idx1],
+                            correction,
+                            corrections[idx0],
+                            corrections[idx1]
+                        );
+                        var scorer = factory.getInt4SQVectorScorer(VectorSimilarityType.of(sim), values, vectors[idx0]).get();
+                        assertThat(scorer.score(idx1), equalTo(expected));
+                    }
+                }
+            }
+        }
+    }
+
+    public void testUnpackedVectorsAreNotSupported() throws IOException {
+        assumeTrue(notSupportedMsg(), supported());
+        var factory = AbstractVectorTestCase.factory.get();
+
+        try (Directory dir = new MMapDirectory(createTempDir("testUnpacked"))) {
+            final int dims = 32;
+            String fileName = "testUnpacked-" + dims;
+            try (IndexOutput out = dir.createOutput(fileName, IOContext.DEFAULT)) {
+                byte[] bytes = concat(new byte[dims], floatToByteArray(1f), new byte[dims], floatToByteArray(1f));
+                out.writeBytes(bytes, 0, bytes.length);
+            }
+            try (IndexInput in = dir.openInput(fileName, IOContext.DEFAULT)) {
+                var sq = new ScalarQuantizer(0.1f, 0.9f, (byte) 4);
+                var values = new OffHeapQuantizedByteVectorValues.DenseOffHeapVectorValues(
+                    dims,
+                    2,
+                    sq,
+                    false,
+                    VectorSimilarityType.of(DOT_PRODUCT),
+                    null,
+                    in.slice("values", 0, in.length())
+                );
+                assertTrue(factory.getInt4SQVectorScorerSupplier(DOT_PRODUCT, in, values, 1f).isEmpty());
+                assertTrue(factory.getInt4SQVectorScorer(VectorSimilarityType.of(DOT_PRODUCT), values, new float[dims]).isEmpty());
+            }
+        }
+    }
+
+    RandomAccessQuantizedByteVectorValues vectorValues(int dims, int size, IndexInput in, VectorSimilarityFunction sim) throws IOException {
+        var sq = new ScalarQuantizer(0.1f, 0.9f, (byte) 4);
+        var slice = in.slice("values", 0, in.length());
+        return new OffHeapQuantizedByteVectorValues.DenseOffHeapVectorValues(dims, size, sq, true, sim, null, slice);
+    }
+
+    /** Computes the score of the unpacked vectors using the Lucene implementation. */
+    static float luceneInt4Score(VectorSimilarityType sim, byte[] a, byte[] b, float correction, float aOffset, float bOffset) {
+        var scorer = ScalarQuantizedVectorSimilarity.fromVectorSimilarity(VectorSimilarityType.of(sim), correction, (byte) 4);
+        return scorer.score(a, aOffset, b, bOffset);
+    }
+
+    /** Packs int4 values two per byte, the same way as Lucene's compressed int4 vectors. */
+    static byte[] pack(byte[] raw) {
+        byte[] packed = new byte[raw.length / 2];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = (byte) ((raw[i] << 4) | raw[packed.length + i]);
+        }
+        return packed;
+    }
+
+    static final int TIMES = 100; // a loop iteration times
+}
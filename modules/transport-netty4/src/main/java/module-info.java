@@ -20,6 +20,7 @@ module org.elasticsearch.transport.netty4 {
     requires io.netty.common;
     requires io.netty.handler;
     requires io.netty.transport;
+    requires io.netty.transport.classes.epoll;
     requires io.netty.codec.http;
 
     exports org.elasticsearch.http.netty4;
@@ -0,0 +1,65 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+
+package org.elasticsearch.http.netty4;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+
+import org.elasticsearch.http.HttpPreRequest;
+import org.elasticsearch.http.netty4.internal.HttpHeadersAuthenticatorUtils;
+
+import java.util.function.Predicate;
+
+/**
+ * An {@link HttpObjectAggregator} that only aggregates the requests whose handlers need the whole body up front. The headers and
+ * body pieces of the other requests are passed on as they arrive and are turned into a {@link Netty4HttpRequestBodyStream} by the
+ * {@link Netty4HttpPipeliningHandler}, so that their handlers can start working on the body while it's still being received.
+ */
+public class Netty4HttpAggregator extends HttpObjectAggregator {
+
+    private final Predicate<HttpPreRequest> streamContent;
+    private boolean aggregating = true;
+
+    public Netty4HttpAggregator(int maxContentLength, Predicate<HttpPreRequest> streamContent) {
+        super(maxContentLength);
+        this.streamContent = streamContent;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        assert msg instanceof HttpObject : "unexpected message [" + msg + "]";
+        if (msg instanceof HttpRequest request && msg instanceof FullHttpRequest == false) {
+            // malformed requests are aggregated so that the pipelining handler sees the decoder failure on a full request
+            aggregating = request.decoderResult().isFailure()
+                || streamContent.test(HttpHeadersAuthenticatorUtils.asHttpPreRequest(request)) == false;
+            if (aggregating == false && HttpUtil.is100ContinueExpected(request)) {
+                // the aggregator would normally answer this, but the body isn't limited to the max content length when it is streamed
+                ctx.writeAndFlush(
+                    new DefaultFullHttpResponse(request.protocolVersion(), HttpResponseStatus.CONTINUE, Unpooled.EMPTY_BUFFER)
+                );
+                request.headers().remove(HttpHeaderNames.EXPECT);
+            }
+        }
+        if (aggregating || msg instanceof FullHttpRequest) {
+            super.channelRead(ctx, msg);
+        } else {
+            ctx.fireChannelRead(msg);
+        }
+    }
+}
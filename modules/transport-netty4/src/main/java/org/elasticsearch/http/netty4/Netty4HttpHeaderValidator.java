@@ -245,7 +245,13 @@ public class Netty4HttpHeaderValidator extends ChannelInboundHandlerAdapter {
     }
 
     private static void setAutoReadForState(ChannelHandlerContext ctx, State state) {
-        ctx.channel().config().setAutoRead((state == QUEUEING_DATA || state == DROPPING_DATA_PERMANENTLY) == false);
+        // a request body that is streamed to its handler is only read on demand, see Netty4HttpRequestBodyStream
+        ctx.channel()
+            .config()
+            .setAutoRead(
+                (state == QUEUEING_DATA || state == DROPPING_DATA_PERMANENTLY) == false
+                    && Netty4HttpRequestBodyStream.isReadingPaused(ctx.channel()) == false
+            );
     }
 
     enum State {
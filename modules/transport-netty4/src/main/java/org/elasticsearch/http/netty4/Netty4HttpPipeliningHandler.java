@@ -20,8 +20,11 @@ import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.DefaultLastHttpContent;
 import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.handler.ssl.SslCloseCompletionEvent;
 import io.netty.util.ReferenceCountUtil;
 import io.netty.util.concurrent.Future;
@@ -89,6 +92,12 @@ public class Netty4HttpPipeliningHandler extends ChannelDuplexHandler {
 
     private final Netty4HttpServerTransport serverTransport;
 
+    /**
+     * The body of the request that is currently being read, if its content is streamed to the handler, see {@link Netty4HttpAggregator}.
+     */
+    @Nullable
+    private Netty4HttpRequestBodyStream currentRequestStream;
+
     /**
      * Construct a new pipelining handler; this handler should be used downstream of HTTP decoding/aggregation.
      *
@@ -110,7 +119,10 @@ public class Netty4HttpPipeliningHandler extends ChannelDuplexHandler {
     public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
         activityTracker.startActivity();
         try {
-            assert msg instanceof FullHttpRequest : "Should have fully aggregated message already but saw [" + msg + "]";
+            if (msg instanceof FullHttpRequest == false) {
+                handleStreamedRequest(ctx, (HttpObject) msg);
+                return;
+            }
             final FullHttpRequest fullHttpRequest = (FullHttpRequest) msg;
             final Netty4HttpRequest netty4HttpRequest;
             if (fullHttpRequest.decoderResult().isFailure()) {
@@ -132,6 +144,31 @@ public class Netty4HttpPipeliningHandler extends ChannelDuplexHandler {
         }
     }
 
+    private void handleStreamedRequest(ChannelHandlerContext ctx, HttpObject msg) {
+        if (msg instanceof HttpRequest httpRequest) {
+            assert currentRequestStream == null : "received request headers while the previous body was still being read";
+            assert httpRequest.decoderResult().isSuccess() : "malformed requests are always aggregated";
+            currentRequestStream = new Netty4HttpRequestBodyStream(ctx.channel());
+            handlePipelinedRequest(ctx, new Netty4HttpRequest(readSequence++, httpRequest, currentRequestStream));
+        } else {
+            assert msg instanceof HttpContent : "expected a piece of a streamed body but saw [" + msg + "]";
+            assert currentRequestStream != null : "received a piece of a body without a streamed request";
+            final Netty4HttpRequestBodyStream stream = currentRequestStream;
+            if (msg instanceof LastHttpContent) {
+                currentRequestStream = null;
+            }
+            stream.handleNettyContent((HttpContent) msg);
+        }
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+        if (currentRequestStream != null) {
+            currentRequestStream.channelReadComplete();
+        }
+        super.channelReadComplete(ctx);
+    }
+
     // protected so tests can override it
     protected void handlePipelinedRequest(ChannelHandlerContext ctx, Netty4HttpRequest pipelinedRequest) {
         final Netty4HttpChannel channel = ctx.channel().attr(Netty4HttpServerTransport.HTTP_CHANNEL_KEY).get();
@@ -358,6 +395,11 @@ public class Netty4HttpPipeliningHandler extends ChannelDuplexHandler {
 
     @Override
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        if (currentRequestStream != null) {
+            // the client went away before sending the whole body
+            currentRequestStream.close();
+            currentRequestStream = null;
+        }
         doFlush(ctx);
         super.channelInactive(ctx);
     }
@@ -12,6 +12,7 @@ package org.elasticsearch.http.netty4;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaders;
@@ -20,7 +21,10 @@ import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
 import io.netty.handler.codec.http.cookie.ServerCookieEncoder;
 
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.http.HttpBody;
 import org.elasticsearch.http.HttpRequest;
 import org.elasticsearch.http.HttpResponse;
 import org.elasticsearch.rest.ChunkedRestResponseBodyPart;
@@ -46,6 +50,8 @@ public class Netty4HttpRequest implements HttpRequest {
     private final Exception inboundException;
     private final boolean pooled;
     private final int sequence;
+    @Nullable
+    private final Netty4HttpRequestBodyStream contentStream;
 
     Netty4HttpRequest(int sequence, FullHttpRequest request) {
         this(sequence, request, new AtomicBoolean(false), true, Netty4Utils.toBytesReference(request.content()));
@@ -55,8 +61,30 @@ public class Netty4HttpRequest implements HttpRequest {
         this(sequence, request, new AtomicBoolean(false), true, Netty4Utils.toBytesReference(request.content()), inboundException);
     }
 
+    /**
+     * A request whose body is streamed to the handler, see {@link #contentStream()}.
+     */
+    Netty4HttpRequest(int sequence, io.netty.handler.codec.http.HttpRequest request, Netty4HttpRequestBodyStream contentStream) {
+        this(
+            sequence,
+            new DefaultFullHttpRequest(
+                request.protocolVersion(),
+                request.method(),
+                request.uri(),
+                Unpooled.EMPTY_BUFFER,
+                request.headers(),
+                EmptyHttpHeaders.INSTANCE
+            ),
+            new AtomicBoolean(false),
+            true,
+            BytesArray.EMPTY,
+            null,
+            contentStream
+        );
+    }
+
     private Netty4HttpRequest(int sequence, FullHttpRequest request, AtomicBoolean released, boolean pooled, BytesReference content) {
-        this(sequence, request, released, pooled, content, null);
+        this(sequence, request, released, pooled, content, null, null);
     }
 
     private Netty4HttpRequest(
@@ -66,6 +94,18 @@ public class Netty4HttpRequest implements HttpRequest {
         boolean pooled,
         BytesReference content,
         Exception inboundException
+    ) {
+        this(sequence, request, released, pooled, content, inboundException, null);
+    }
+
+    private Netty4HttpRequest(
+        int sequence,
+        FullHttpRequest request,
+        AtomicBoolean released,
+        boolean pooled,
+        BytesReference content,
+        Exception inboundException,
+        Netty4HttpRequestBodyStream contentStream
     ) {
         this.sequence = sequence;
         this.request = request;
@@ -74,6 +114,7 @@ public class Netty4HttpRequest implements HttpRequest {
         this.pooled = pooled;
         this.released = released;
         this.inboundException = inboundException;
+        this.contentStream = contentStream;
     }
 
     @Override
@@ -92,17 +133,26 @@ public class Netty4HttpRequest implements HttpRequest {
         return content;
     }
 
+    @Override
+    public HttpBody.Stream contentStream() {
+        return contentStream;
+    }
+
     @Override
     public void release() {
         if (pooled && released.compareAndSet(false, true)) {
             request.release();
+            if (contentStream != null) {
+                contentStream.close();
+            }
         }
     }
 
     @Override
     public HttpRequest releaseAndCopy() {
         assert released.get() == false;
-        if (pooled == false) {
+        if (pooled == false || contentStream != null) {
+            // a streamed body is passed to the handler chunk by chunk, so there is no content to copy
             return this;
         }
         try {
@@ -168,7 +218,7 @@ public class Netty4HttpRequest implements HttpRequest {
             copiedHeadersWithout,
             copiedTrailingHeadersWithout
         );
-        return new Netty4HttpRequest(sequence, requestWithoutHeader, released, pooled, content);
+        return new Netty4HttpRequest(sequence, requestWithoutHeader, released, pooled, content, null, contentStream);
     }
 
     @Override
@@ -0,0 +1,165 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+
+package org.elasticsearch.http.netty4;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.AttributeKey;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.http.HttpBody;
+import org.elasticsearch.transport.netty4.Netty4Utils;
+
+import java.util.ArrayDeque;
+
+/**
+ * The body of a request that is passed to its handler as it arrives. Reading from the channel is paused while the stream is open and
+ * only resumed when the handler asks for the {@link #next()} chunk, so that a slow handler pushes back on the client rather than
+ * accumulating the body in memory. All state is confined to the event loop of the channel.
+ */
+public class Netty4HttpRequestBodyStream implements HttpBody.Stream {
+
+    private static final Logger logger = LogManager.getLogger(Netty4HttpRequestBodyStream.class);
+
+    /**
+     * Set while a stream needs to control reads from the channel, see {@link #isReadingPaused}.
+     */
+    private static final AttributeKey<Boolean> READING_PAUSED_KEY = AttributeKey.newInstance("es-http-body-stream-paused");
+
+    private final Channel channel;
+    private final ArrayDeque<HttpContent> queuedChunks = new ArrayDeque<>(4);
+    private volatile HttpBody.ChunkHandler handler;
+    private boolean requested = false;
+    private boolean lastChunkReceived = false;
+    private boolean closed = false;
+
+    Netty4HttpRequestBodyStream(Channel channel) {
+        assert channel.eventLoop().inEventLoop();
+        this.channel = channel;
+        channel.attr(READING_PAUSED_KEY).set(Boolean.TRUE);
+        channel.config().setAutoRead(false);
+    }
+
+    /**
+     * Whether a stream reads from the given channel on demand, in which case other handlers must not enable auto-read.
+     */
+    static boolean isReadingPaused(Channel channel) {
+        return Boolean.TRUE.equals(channel.attr(READING_PAUSED_KEY).get());
+    }
+
+    @Override
+    public void setHandler(HttpBody.ChunkHandler chunkHandler) {
+        assert this.handler == null : "handler already set";
+        this.handler = chunkHandler;
+    }
+
+    @Override
+    public void next() {
+        assert handler != null : "handler must be set before asking for chunks";
+        // always fork, the handler usually asks for the next chunk from within onNext
+        channel.eventLoop().execute(() -> {
+            assert requested == false : "chunk already requested";
+            if (closed) {
+                return;
+            }
+            requested = true;
+            final HttpContent chunk = queuedChunks.poll();
+            if (chunk != null) {
+                sendChunk(chunk);
+            } else if (lastChunkReceived == false) {
+                channel.read();
+            }
+        });
+    }
+
+    /**
+     * Receives the next piece of the body from the pipeline.
+     */
+    void handleNettyContent(HttpContent content) {
+        assert channel.eventLoop().inEventLoop();
+        if (content.decoderResult().isFailure()) {
+            // the body is malformed, e.g. invalid chunked encoding, so there is no way to find the start of the next request
+            logger.debug("closing channel [{}] after failing to decode the request body", channel);
+            content.release();
+            doClose();
+            channel.close();
+            return;
+        }
+        if (content instanceof LastHttpContent) {
+            lastChunkReceived = true;
+            resumeReading();
+        }
+        if (closed) {
+            content.release();
+        } else if (requested && queuedChunks.isEmpty()) {
+            sendChunk(content);
+        } else {
+            queuedChunks.add(content);
+        }
+    }
+
+    /**
+     * Called when the current read from the channel completed. Reads may not yield any content, so another read is needed if the
+     * handler still waits for a chunk.
+     */
+    void channelReadComplete() {
+        assert channel.eventLoop().inEventLoop();
+        if (closed == false && requested && lastChunkReceived == false) {
+            assert queuedChunks.isEmpty();
+            channel.read();
+        }
+    }
+
+    private void sendChunk(HttpContent content) {
+        assert requested;
+        requested = false;
+        final ByteBuf buf = content.content();
+        final ReleasableBytesReference chunk = new ReleasableBytesReference(Netty4Utils.toBytesReference(buf), buf::release);
+        handler.onNext(chunk, content instanceof LastHttpContent);
+    }
+
+    @Override
+    public void close() {
+        if (channel.eventLoop().inEventLoop()) {
+            doClose();
+        } else {
+            channel.eventLoop().execute(this::doClose);
+        }
+    }
+
+    private void doClose() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        HttpContent chunk;
+        while ((chunk = queuedChunks.poll()) != null) {
+            chunk.release();
+        }
+        // the rest of the body is discarded as it arrives, so that the channel can be used for the next request
+        resumeReading();
+        final HttpBody.ChunkHandler chunkHandler = handler;
+        if (chunkHandler != null) {
+            chunkHandler.close();
+        }
+    }
+
+    private void resumeReading() {
+        if (isReadingPaused(channel)) {
+            channel.attr(READING_PAUSED_KEY).set(null);
+            channel.config().setAutoRead(true);
+        }
+    }
+}
@@ -19,7 +19,6 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.FixedRecvByteBufAllocator;
 import io.netty.channel.RecvByteBufAllocator;
-import io.netty.channel.socket.nio.NioChannelOption;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.http.HttpContentCompressor;
 import io.netty.handler.codec.http.HttpContentDecompressor;
@@ -58,7 +57,7 @@ import org.elasticsearch.rest.ChunkedZipResponse;
 import org.elasticsearch.telemetry.tracing.Tracer;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.netty4.AcceptChannelHandler;
-import org.elasticsearch.transport.netty4.NetUtils;
+import org.elasticsearch.transport.netty4.Netty4Epoll;
 import org.elasticsearch.transport.netty4.Netty4Plugin;
 import org.elasticsearch.transport.netty4.Netty4Utils;
 import org.elasticsearch.transport.netty4.Netty4WriteThrottlingHandler;
@@ -171,12 +170,13 @@ public class Netty4HttpServerTransport extends AbstractHttpServerTransport {
 
             serverBootstrap.group(sharedGroup.getLowLevelGroup());
 
-            // NettyAllocator will return the channel type designed to work with the configuredAllocator
-            serverBootstrap.channel(NettyAllocator.getServerChannelType());
+            // SharedGroupFactory will return the channel type designed to work with its event loops and allocator
+            final boolean epoll = sharedGroupFactory.isEpoll();
+            serverBootstrap.channel(sharedGroupFactory.getServerChannelType());
 
             // Set the allocators for both the server channel and the child channels created
-            serverBootstrap.option(ChannelOption.ALLOCATOR, NettyAllocator.getAllocator());
-            serverBootstrap.childOption(ChannelOption.ALLOCATOR, NettyAllocator.getAllocator());
+            serverBootstrap.option(ChannelOption.ALLOCATOR, sharedGroupFactory.getAllocator());
+            serverBootstrap.childOption(ChannelOption.ALLOCATOR, sharedGroupFactory.getAllocator());
 
             serverBootstrap.childHandler(configureServerChannelHandler());
             serverBootstrap.handler(ServerChannelExceptionHandler.INSTANCE);
@@ -188,22 +188,16 @@ public class Netty4HttpServerTransport extends AbstractHttpServerTransport {
                 // Netty logs a warning if it can't set the option, so try this only on supported platforms
                 if (IOUtils.LINUX || IOUtils.MAC_OS_X) {
                     if (SETTING_HTTP_TCP_KEEP_IDLE.get(settings) >= 0) {
-                        serverBootstrap.childOption(
-                            NioChannelOption.of(NetUtils.getTcpKeepIdleSocketOption()),
-                            SETTING_HTTP_TCP_KEEP_IDLE.get(settings)
-                        );
+                        serverBootstrap.childOption(Netty4Epoll.tcpKeepIdleOption(epoll), SETTING_HTTP_TCP_KEEP_IDLE.get(settings));
                     }
                     if (SETTING_HTTP_TCP_KEEP_INTERVAL.get(settings) >= 0) {
                         serverBootstrap.childOption(
-                            NioChannelOption.of(NetUtils.getTcpKeepIntervalSocketOption()),
+                            Netty4Epoll.tcpKeepIntervalOption(epoll),
                             SETTING_HTTP_TCP_KEEP_INTERVAL.get(settings)
                         );
                     }
                     if (SETTING_HTTP_TCP_KEEP_COUNT.get(settings) >= 0) {
-                        serverBootstrap.childOption(
-                            NioChannelOption.of(NetUtils.getTcpKeepCountSocketOption()),
-                            SETTING_HTTP_TCP_KEEP_COUNT.get(settings)
-                        );
+                        serverBootstrap.childOption(Netty4Epoll.tcpKeepCountOption(epoll), SETTING_HTTP_TCP_KEEP_COUNT.get(settings));
                     }
                 }
             }
@@ -225,6 +219,10 @@ public class Netty4HttpServerTransport extends AbstractHttpServerTransport {
             serverBootstrap.option(ChannelOption.SO_REUSEADDR, reuseAddress);
             serverBootstrap.childOption(ChannelOption.SO_REUSEADDR, reuseAddress);
 
+            if (epoll) {
+                Netty4Epoll.configure(serverBootstrap, settings);
+            }
+
             bindServer();
             if (acceptChannelPredicate != null) {
                 acceptChannelPredicate.setBoundAddress(boundAddress());
@@ -365,8 +363,12 @@ public class Netty4HttpServerTransport extends AbstractHttpServerTransport {
                         )
                     );
             }
-            // combines the HTTP message pieces into a single full HTTP request (with headers and body)
-            final HttpObjectAggregator aggregator = new HttpObjectAggregator(handlingSettings.maxContentLength());
+            // combines the HTTP message pieces into a single full HTTP request (with headers and body), unless the handler of the
+            // request consumes the body as a stream
+            final HttpObjectAggregator aggregator = new Netty4HttpAggregator(
+                handlingSettings.maxContentLength(),
+                transport.dispatcher::supportsContentStream
+            );
             aggregator.setMaxCumulationBufferComponents(transport.maxCompositeBufferComponents);
             ch.pipeline()
                 .addLast("decoder_compress", new HttpContentDecompressor()) // this handles request body decompression
@@ -0,0 +1,139 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+
+package org.elasticsearch.transport.netty4;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelException;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannelConfig;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.core.IOUtils;
+
+/**
+ * Configuration of Netty's native epoll transport, which {@link SharedGroupFactory} uses instead of NIO on Linux if
+ * {@link Netty4Plugin#SETTING_NETTY_EPOLL} is enabled. Epoll channels copy outbound heap buffers into pooled direct buffers
+ * themselves and read straight into direct buffers, so they need neither the JDK's per-thread direct buffer cache nor the
+ * workarounds of {@link CopyBytesSocketChannel}. See {@link NettyAllocator#getEpollAllocator()}.
+ */
+public final class Netty4Epoll {
+
+    private static final Logger logger = LogManager.getLogger(Netty4Epoll.class);
+
+    private Netty4Epoll() {}
+
+    /**
+     * Returns whether the native epoll transport should be used. Falls back to NIO with a warning if epoll is enabled but the
+     * native library cannot be loaded on this platform.
+     */
+    static boolean isEnabled(Settings settings) {
+        if (Netty4Plugin.SETTING_NETTY_EPOLL.get(settings) == false) {
+            return false;
+        }
+        if (IOUtils.LINUX == false) {
+            logger.warn(
+                "[{}] is enabled but the native epoll transport is only available on Linux, using NIO instead",
+                Netty4Plugin.SETTING_NETTY_EPOLL.getKey()
+            );
+            return false;
+        }
+        if (Epoll.isAvailable() == false) {
+            logger.warn(
+                () -> "[" + Netty4Plugin.SETTING_NETTY_EPOLL.getKey() + "] is enabled but the native epoll transport is not available, "
+                    + "using NIO instead",
+                Epoll.unavailabilityCause()
+            );
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sets the epoll specific options of the server channel and of the channels it accepts.
+     */
+    public static void configure(ServerBootstrap serverBootstrap, Settings settings) {
+        final EpollMode mode = epollMode(settings);
+        serverBootstrap.option(EpollChannelOption.EPOLL_MODE, mode);
+        serverBootstrap.childOption(EpollChannelOption.EPOLL_MODE, mode);
+        serverBootstrap.childOption(EpollChannelOption.TCP_QUICKACK, Netty4Plugin.SETTING_NETTY_EPOLL_TCP_QUICKACK.get(settings));
+        final int busyPollMicros = busyPollMicros(settings);
+        if (busyPollMicros > 0) {
+            serverBootstrap.childOption(EpollChannelOption.SO_BUSY_POLL, busyPollMicros);
+        }
+    }
+
+    /**
+     * Sets the epoll specific options of outbound channels.
+     */
+    public static void configure(Bootstrap bootstrap, Settings settings) {
+        bootstrap.option(EpollChannelOption.EPOLL_MODE, epollMode(settings));
+        bootstrap.option(EpollChannelOption.TCP_QUICKACK, Netty4Plugin.SETTING_NETTY_EPOLL_TCP_QUICKACK.get(settings));
+        final int busyPollMicros = busyPollMicros(settings);
+        if (busyPollMicros > 0) {
+            bootstrap.option(EpollChannelOption.SO_BUSY_POLL, busyPollMicros);
+        }
+    }
+
+    private static EpollMode epollMode(Settings settings) {
+        return Netty4Plugin.SETTING_NETTY_EPOLL_EDGE_TRIGGERED.get(settings) ? EpollMode.EDGE_TRIGGERED : EpollMode.LEVEL_TRIGGERED;
+    }
+
+    private static int busyPollMicros(Settings settings) {
+        return Math.toIntExact(Netty4Plugin.SETTING_NETTY_EPOLL_BUSY_POLL.get(settings).micros());
+    }
+
+    /**
+     * Returns the TCP_KEEPIDLE option for the given kind of channel.
+     */
+    public static ChannelOption<Integer> tcpKeepIdleOption(boolean epoll) {
+        return epoll ? EpollChannelOption.TCP_KEEPIDLE : Netty4Transport.OPTION_TCP_KEEP_IDLE;
+    }
+
+    /**
+     * Returns the TCP_KEEPINTERVAL option for the given kind of channel.
+     */
+    public static ChannelOption<Integer> tcpKeepIntervalOption(boolean epoll) {
+        return epoll ? EpollChannelOption.TCP_KEEPINTVL : Netty4Transport.OPTION_TCP_KEEP_INTERVAL;
+    }
+
+    /**
+     * Returns the TCP_KEEPCOUNT option for the given kind of channel.
+     */
+    public static ChannelOption<Integer> tcpKeepCountOption(boolean epoll) {
+        return epoll ? EpollChannelOption.TCP_KEEPCNT : Netty4Transport.OPTION_TCP_KEEP_COUNT;
+    }
+
+    /**
+     * The epoll equivalent of {@link NetUtils#tryEnsureReasonableKeepAliveConfig}.
+     */
+    static void tryEnsureReasonableKeepAliveConfig(EpollSocketChannel channel) {
+        final EpollSocketChannelConfig config = channel.config();
+        try {
+            if (config.isKeepAlive()) {
+                if (config.getTcpKeepIdle() > 300) {
+                    config.setTcpKeepIdle(300);
+                }
+                if (config.getTcpKeepIntvl() > 300) {
+                    config.setTcpKeepIntvl(300);
+                }
+            }
+        } catch (ChannelException e) {
+            // Getting an exception here should be ok when concurrently closing the channel
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.PageCacheRecycler;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.http.HttpPreRequest;
 import org.elasticsearch.http.HttpServerTransport;
 import org.elasticsearch.http.netty4.Netty4HttpServerTransport;
@@ -82,6 +83,31 @@ public class Netty4Plugin extends Plugin implements NetworkPlugin {
         Setting.Property.NodeScope
     );
     public static final Setting<Integer> NETTY_BOSS_COUNT = intSetting("transport.netty.boss_count", 1, 1, Setting.Property.NodeScope);
+    /*
+     * The native epoll transport replaces the NIO event loops and channels of both the transport and the HTTP layer on Linux. It is
+     * opt-in because it reads from the network into direct buffers, which count against the JVM's direct memory limit.
+     */
+    public static final Setting<Boolean> SETTING_NETTY_EPOLL = Setting.boolSetting(
+        "transport.netty.epoll.enabled",
+        false,
+        Setting.Property.NodeScope
+    );
+    public static final Setting<Boolean> SETTING_NETTY_EPOLL_EDGE_TRIGGERED = Setting.boolSetting(
+        "transport.netty.epoll.edge_triggered",
+        true,
+        Setting.Property.NodeScope
+    );
+    public static final Setting<Boolean> SETTING_NETTY_EPOLL_TCP_QUICKACK = Setting.boolSetting(
+        "transport.netty.epoll.tcp_quickack",
+        false,
+        Setting.Property.NodeScope
+    );
+    public static final Setting<TimeValue> SETTING_NETTY_EPOLL_BUSY_POLL = Setting.timeSetting(
+        "transport.netty.epoll.busy_poll",
+        TimeValue.ZERO,
+        TimeValue.ZERO,
+        Setting.Property.NodeScope
+    );
     /*
      * Size in bytes of an individual message received by io.netty.handler.codec.MessageAggregator which accumulates the content for an
      * HTTP request. This number is used for estimating the maximum number of allowed buffers before the MessageAggregator's internal
@@ -134,7 +160,11 @@ public class Netty4Plugin extends Plugin implements NetworkPlugin {
             NETTY_RECEIVE_PREDICTOR_SIZE,
             NETTY_RECEIVE_PREDICTOR_MIN,
             NETTY_RECEIVE_PREDICTOR_MAX,
-            NETTY_BOSS_COUNT
+            NETTY_BOSS_COUNT,
+            SETTING_NETTY_EPOLL,
+            SETTING_NETTY_EPOLL_EDGE_TRIGGERED,
+            SETTING_NETTY_EPOLL_TCP_QUICKACK,
+            SETTING_NETTY_EPOLL_BUSY_POLL
         );
     }
 
@@ -20,6 +20,7 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.FixedRecvByteBufAllocator;
 import io.netty.channel.RecvByteBufAllocator;
+import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.socket.nio.NioChannelOption;
 import io.netty.util.AttributeKey;
 
@@ -143,10 +144,11 @@ public class Netty4Transport extends TcpTransport {
         final Bootstrap bootstrap = new Bootstrap();
         bootstrap.group(sharedGroupForBootstrap.getLowLevelGroup());
 
-        // NettyAllocator will return the channel type designed to work with the configured allocator
-        assert Netty4NioSocketChannel.class.isAssignableFrom(NettyAllocator.getChannelType());
-        bootstrap.channel(NettyAllocator.getChannelType());
-        bootstrap.option(ChannelOption.ALLOCATOR, NettyAllocator.getAllocator());
+        // SharedGroupFactory will return the channel type designed to work with its event loops and allocator
+        final boolean epoll = sharedGroupFactory.isEpoll();
+        assert epoll || Netty4NioSocketChannel.class.isAssignableFrom(sharedGroupFactory.getChannelType());
+        bootstrap.channel(sharedGroupFactory.getChannelType());
+        bootstrap.option(ChannelOption.ALLOCATOR, sharedGroupFactory.getAllocator());
 
         // The TCP options are re-configured for client connections to RCS remote clusters
         // If how options are configured is changed here, please also update RemoteClusterClientBootstrapOptions#configure
@@ -156,13 +158,13 @@ public class Netty4Transport extends TcpTransport {
         if (TransportSettings.TCP_KEEP_ALIVE.get(settings)) {
             // Note that Netty logs a warning if it can't set the option
             if (TransportSettings.TCP_KEEP_IDLE.get(settings) >= 0) {
-                bootstrap.option(OPTION_TCP_KEEP_IDLE, TransportSettings.TCP_KEEP_IDLE.get(settings));
+                bootstrap.option(Netty4Epoll.tcpKeepIdleOption(epoll), TransportSettings.TCP_KEEP_IDLE.get(settings));
             }
             if (TransportSettings.TCP_KEEP_INTERVAL.get(settings) >= 0) {
-                bootstrap.option(OPTION_TCP_KEEP_INTERVAL, TransportSettings.TCP_KEEP_INTERVAL.get(settings));
+                bootstrap.option(Netty4Epoll.tcpKeepIntervalOption(epoll), TransportSettings.TCP_KEEP_INTERVAL.get(settings));
             }
             if (TransportSettings.TCP_KEEP_COUNT.get(settings) >= 0) {
-                bootstrap.option(OPTION_TCP_KEEP_COUNT, TransportSettings.TCP_KEEP_COUNT.get(settings));
+                bootstrap.option(Netty4Epoll.tcpKeepCountOption(epoll), TransportSettings.TCP_KEEP_COUNT.get(settings));
             }
         }
 
@@ -181,6 +183,10 @@ public class Netty4Transport extends TcpTransport {
         final boolean reuseAddress = TransportSettings.TCP_REUSE_ADDRESS.get(settings);
         bootstrap.option(ChannelOption.SO_REUSEADDR, reuseAddress);
 
+        if (epoll) {
+            Netty4Epoll.configure(bootstrap, settings);
+        }
+
         return bootstrap;
     }
 
@@ -203,12 +209,13 @@ public class Netty4Transport extends TcpTransport {
 
         serverBootstrap.group(sharedGroupForServerBootstrap.getLowLevelGroup());
 
-        // NettyAllocator will return the channel type designed to work with the configuredAllocator
-        serverBootstrap.channel(NettyAllocator.getServerChannelType());
+        // SharedGroupFactory will return the channel type designed to work with its event loops and allocator
+        final boolean epoll = sharedGroupFactory.isEpoll();
+        serverBootstrap.channel(sharedGroupFactory.getServerChannelType());
 
         // Set the allocators for both the server channel and the child channels created
-        serverBootstrap.option(ChannelOption.ALLOCATOR, NettyAllocator.getAllocator());
-        serverBootstrap.childOption(ChannelOption.ALLOCATOR, NettyAllocator.getAllocator());
+        serverBootstrap.option(ChannelOption.ALLOCATOR, sharedGroupFactory.getAllocator());
+        serverBootstrap.childOption(ChannelOption.ALLOCATOR, sharedGroupFactory.getAllocator());
 
         serverBootstrap.childHandler(getServerChannelInitializer(name));
         serverBootstrap.handler(new ServerChannelExceptionHandler());
@@ -218,16 +225,13 @@ public class Netty4Transport extends TcpTransport {
         if (profileSettings.tcpKeepAlive) {
             // Note that Netty logs a warning if it can't set the option
             if (profileSettings.tcpKeepIdle >= 0) {
-                serverBootstrap.childOption(NioChannelOption.of(NetUtils.getTcpKeepIdleSocketOption()), profileSettings.tcpKeepIdle);
+                serverBootstrap.childOption(Netty4Epoll.tcpKeepIdleOption(epoll), profileSettings.tcpKeepIdle);
             }
             if (profileSettings.tcpKeepInterval >= 0) {
-                serverBootstrap.childOption(
-                    NioChannelOption.of(NetUtils.getTcpKeepIntervalSocketOption()),
-                    profileSettings.tcpKeepInterval
-                );
+                serverBootstrap.childOption(Netty4Epoll.tcpKeepIntervalOption(epoll), profileSettings.tcpKeepInterval);
             }
             if (profileSettings.tcpKeepCount >= 0) {
-                serverBootstrap.childOption(NioChannelOption.of(NetUtils.getTcpKeepCountSocketOption()), profileSettings.tcpKeepCount);
+                serverBootstrap.childOption(Netty4Epoll.tcpKeepCountOption(epoll), profileSettings.tcpKeepCount);
             }
         }
 
@@ -244,6 +248,9 @@ public class Netty4Transport extends TcpTransport {
 
         serverBootstrap.option(ChannelOption.SO_REUSEADDR, profileSettings.reuseAddress);
         serverBootstrap.childOption(ChannelOption.SO_REUSEADDR, profileSettings.reuseAddress);
+        if (epoll) {
+            Netty4Epoll.configure(serverBootstrap, settings);
+        }
         serverBootstrap.validate();
 
         serverBootstraps.put(name, serverBootstrap);
@@ -313,8 +320,7 @@ public class Netty4Transport extends TcpTransport {
         @Override
         protected void initChannel(Channel ch) throws Exception {
             addClosedExceptionLogger(ch);
-            assert ch instanceof Netty4NioSocketChannel;
-            NetUtils.tryEnsureReasonableKeepAliveConfig(((Netty4NioSocketChannel) ch).javaChannel());
+            tryEnsureReasonableKeepAliveConfig(ch);
             setupPipeline(ch, false);
         }
 
@@ -338,8 +344,7 @@ public class Netty4Transport extends TcpTransport {
         @Override
         protected void initChannel(Channel ch) throws Exception {
             addClosedExceptionLogger(ch);
-            assert ch instanceof Netty4NioSocketChannel;
-            NetUtils.tryEnsureReasonableKeepAliveConfig(((Netty4NioSocketChannel) ch).javaChannel());
+            tryEnsureReasonableKeepAliveConfig(ch);
             Netty4TcpChannel nettyTcpChannel = new Netty4TcpChannel(ch, true, name, rstOnClose, ch.newSucceededFuture());
             ch.attr(CHANNEL_KEY).set(nettyTcpChannel);
             setupPipeline(ch, isRemoteClusterServerChannel);
@@ -353,6 +358,15 @@ public class Netty4Transport extends TcpTransport {
         }
     }
 
+    private static void tryEnsureReasonableKeepAliveConfig(Channel ch) {
+        if (ch instanceof EpollSocketChannel epollSocketChannel) {
+            Netty4Epoll.tryEnsureReasonableKeepAliveConfig(epollSocketChannel);
+        } else {
+            assert ch instanceof Netty4NioSocketChannel;
+            NetUtils.tryEnsureReasonableKeepAliveConfig(((Netty4NioSocketChannel) ch).javaChannel());
+        }
+    }
+
     private void setupPipeline(Channel ch, boolean isRemoteClusterServerChannel) {
         final var pipeline = ch.pipeline();
         pipeline.addLast("byte_buf_sizer", NettyByteBufSizer.INSTANCE);
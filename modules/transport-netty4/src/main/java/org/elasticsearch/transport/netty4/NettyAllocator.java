@@ -171,6 +171,15 @@ public class NettyAllocator {
         return ALLOCATOR;
     }
 
+    /**
+     * Returns the allocator for channels of the native epoll transport. Epoll channels can only read into direct buffers, so this
+     * allocator hands out pooled direct buffers for I/O while all other allocations remain on the heap like they do with
+     * {@link #getAllocator()}.
+     */
+    public static ByteBufAllocator getEpollAllocator() {
+        return ALLOCATOR instanceof NoDirectBuffers ? EpollAllocatorHolder.ALLOCATOR : ALLOCATOR;
+    }
+
     public static Recycler<BytesRef> getRecycler() {
         return RECYCLER;
     }
@@ -240,6 +249,14 @@ public class NettyAllocator {
         }
     }
 
+    private static class EpollAllocatorHolder {
+        // only created if the epoll transport is used, so that nodes running on NIO don't reserve any direct memory arenas
+        private static final ByteBufAllocator ALLOCATOR = new DirectIoBuffers(
+            ((NoDirectBuffers) NettyAllocator.ALLOCATOR).getDelegate(),
+            PooledByteBufAllocator.DEFAULT
+        );
+    }
+
     public static class NoDirectBuffers implements ByteBufAllocator {
 
         private final ByteBufAllocator delegate;
@@ -353,4 +370,63 @@ public class NettyAllocator {
             return delegate;
         }
     }
+
+    /**
+     * Like {@link NoDirectBuffers} but serves {@code ioBuffer} and {@code directBuffer} allocations from a separate allocator of
+     * direct buffers.
+     */
+    static class DirectIoBuffers extends NoDirectBuffers {
+
+        private final ByteBufAllocator directAllocator;
+
+        private DirectIoBuffers(ByteBufAllocator delegate, ByteBufAllocator directAllocator) {
+            super(delegate);
+            this.directAllocator = directAllocator;
+        }
+
+        @Override
+        public ByteBuf ioBuffer() {
+            return directBuffer();
+        }
+
+        @Override
+        public ByteBuf ioBuffer(int initialCapacity) {
+            return directBuffer(initialCapacity);
+        }
+
+        @Override
+        public ByteBuf ioBuffer(int initialCapacity, int maxCapacity) {
+            return directBuffer(initialCapacity, maxCapacity);
+        }
+
+        @Override
+        public ByteBuf directBuffer() {
+            return directAllocator.directBuffer();
+        }
+
+        @Override
+        public ByteBuf directBuffer(int initialCapacity) {
+            return directAllocator.directBuffer(initialCapacity);
+        }
+
+        @Override
+        public ByteBuf directBuffer(int initialCapacity, int maxCapacity) {
+            return directAllocator.directBuffer(initialCapacity, maxCapacity);
+        }
+
+        @Override
+        public CompositeByteBuf compositeDirectBuffer() {
+            return directAllocator.compositeDirectBuffer();
+        }
+
+        @Override
+        public CompositeByteBuf compositeDirectBuffer(int maxNumComponents) {
+            return directAllocator.compositeDirectBuffer(maxNumComponents);
+        }
+
+        @Override
+        public boolean isDirectBufferPooled() {
+            return directAllocator.isDirectBufferPooled();
+        }
+    }
 }
@@ -9,7 +9,13 @@
 
 package org.elasticsearch.transport.netty4;
 
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.util.concurrent.Future;
 
@@ -21,6 +27,7 @@ import org.elasticsearch.core.AbstractRefCounted;
 import org.elasticsearch.http.HttpServerTransport;
 import org.elasticsearch.transport.TcpTransport;
 
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -31,6 +38,10 @@ import static org.elasticsearch.common.util.concurrent.EsExecutors.daemonThreadF
  * both {@link #getHttpGroup()} and {@link #getTransportGroup()} if
  * {@link Netty4Plugin#SETTING_HTTP_WORKER_COUNT} is configured to be 0.
  * If that setting is not 0, then it will return a different group in the {@link #getHttpGroup()} call.
+ * <p>
+ * The groups run on native epoll event loops if {@link Netty4Plugin#SETTING_NETTY_EPOLL} is enabled and epoll is available,
+ * otherwise on NIO. Bootstraps must use the {@link #getChannelType() channel types} and the {@link #getAllocator() allocator}
+ * that match the kind of event loop.
  */
 public final class SharedGroupFactory {
 
@@ -39,6 +50,7 @@ public final class SharedGroupFactory {
     private final Settings settings;
     private final int workerCount;
     private final int httpWorkerCount;
+    private final boolean epoll;
 
     private RefCountedGroup genericGroup;
     private SharedGroup dedicatedHttpGroup;
@@ -47,6 +59,7 @@ public final class SharedGroupFactory {
         this.settings = settings;
         this.workerCount = Netty4Plugin.WORKER_COUNT.get(settings);
         this.httpWorkerCount = Netty4Plugin.SETTING_HTTP_WORKER_COUNT.get(settings);
+        this.epoll = Netty4Epoll.isEnabled(settings);
     }
 
     public Settings getSettings() {
@@ -57,6 +70,25 @@ public final class SharedGroupFactory {
         return workerCount;
     }
 
+    /**
+     * Whether the groups of this factory run on native epoll event loops rather than on NIO.
+     */
+    public boolean isEpoll() {
+        return epoll;
+    }
+
+    public Class<? extends Channel> getChannelType() {
+        return epoll ? EpollSocketChannel.class : NettyAllocator.getChannelType();
+    }
+
+    public Class<? extends ServerChannel> getServerChannelType() {
+        return epoll ? EpollServerSocketChannel.class : NettyAllocator.getServerChannelType();
+    }
+
+    public ByteBufAllocator getAllocator() {
+        return epoll ? NettyAllocator.getEpollAllocator() : NettyAllocator.getAllocator();
+    }
+
     public synchronized SharedGroup getTransportGroup() {
         return getGenericGroup();
     }
@@ -66,7 +98,7 @@ public final class SharedGroupFactory {
             return getGenericGroup();
         } else {
             if (dedicatedHttpGroup == null) {
-                NioEventLoopGroup eventLoopGroup = new NioEventLoopGroup(
+                EventLoopGroup eventLoopGroup = newEventLoopGroup(
                     httpWorkerCount,
                     daemonThreadFactory(settings, HttpServerTransport.HTTP_SERVER_WORKER_THREAD_NAME_PREFIX)
                 );
@@ -78,7 +110,7 @@ public final class SharedGroupFactory {
 
     private SharedGroup getGenericGroup() {
         if (genericGroup == null) {
-            EventLoopGroup eventLoopGroup = new NioEventLoopGroup(
+            EventLoopGroup eventLoopGroup = newEventLoopGroup(
                 workerCount,
                 EsExecutors.daemonThreadFactory(settings, TcpTransport.TRANSPORT_WORKER_THREAD_NAME_PREFIX)
             );
@@ -89,6 +121,10 @@ public final class SharedGroupFactory {
         return new SharedGroup(genericGroup);
     }
 
+    private EventLoopGroup newEventLoopGroup(int threads, ThreadFactory threadFactory) {
+        return epoll ? new EpollEventLoopGroup(threads, threadFactory) : new NioEventLoopGroup(threads, threadFactory);
+    }
+
     private static class RefCountedGroup extends AbstractRefCounted {
 
         private final EventLoopGroup eventLoopGroup;
@@ -11,6 +11,7 @@ package org.elasticsearch.http.netty4;
 
 import io.netty.buffer.ByteBufHolder;
 import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
@@ -19,6 +20,7 @@ import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.codec.DecoderResult;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpRequest;
 import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.DefaultLastHttpContent;
 import io.netty.handler.codec.http.FullHttpResponse;
@@ -38,6 +40,7 @@ import org.elasticsearch.common.bytes.ZeroBytesReference;
 import org.elasticsearch.common.network.ThreadWatchdog;
 import org.elasticsearch.common.network.ThreadWatchdogHelper;
 import org.elasticsearch.common.recycler.Recycler;
+import org.elasticsearch.http.HttpBody;
 import org.elasticsearch.http.HttpResponse;
 import org.elasticsearch.rest.ChunkedRestResponseBodyPart;
 import org.elasticsearch.rest.RestStatus;
@@ -275,6 +278,81 @@ public class Netty4HttpPipeliningHandlerTests extends ESTestCase {
         assertThat(nettyRequest.getInboundException(), sameInstance(cause));
     }
 
+    public void testStreamedRequestBody() {
+        final EmbeddedChannel embeddedChannel = new EmbeddedChannel(getTestHttpHandler());
+        embeddedChannel.writeInbound(new DefaultHttpRequest(HTTP_1_1, HttpMethod.POST, "/_bulk"));
+        final Netty4HttpRequest request = embeddedChannel.readInbound();
+        assertEquals(0, request.content().length());
+        final HttpBody.Stream stream = request.contentStream();
+        assertNotNull(stream);
+        assertFalse("reading is paused until the handler asks for a chunk", embeddedChannel.config().isAutoRead());
+
+        final List<ReleasableBytesReference> chunks = new ArrayList<>();
+        final AtomicBoolean lastChunkReceived = new AtomicBoolean();
+        stream.setHandler((chunk, isLast) -> {
+            chunks.add(chunk);
+            lastChunkReceived.set(isLast);
+        });
+
+        // chunks are queued until they are requested
+        final DefaultHttpContent content = new DefaultHttpContent(Unpooled.copiedBuffer("first", StandardCharsets.UTF_8));
+        embeddedChannel.writeInbound(content);
+        assertThat(chunks, empty());
+        stream.next();
+        embeddedChannel.runPendingTasks();
+        assertThat(chunks, hasSize(1));
+        assertEquals(new BytesArray("first"), chunks.get(0));
+        assertFalse(lastChunkReceived.get());
+
+        // chunks that arrive after they were requested are passed on right away
+        stream.next();
+        embeddedChannel.runPendingTasks();
+        embeddedChannel.writeInbound(new DefaultLastHttpContent(Unpooled.copiedBuffer("last", StandardCharsets.UTF_8)));
+        assertThat(chunks, hasSize(2));
+        assertEquals(new BytesArray("last"), chunks.get(1));
+        assertTrue(lastChunkReceived.get());
+        assertTrue("reading resumes once the whole body was received", embeddedChannel.config().isAutoRead());
+
+        chunks.forEach(ReleasableBytesReference::close);
+        assertEquals(0, content.refCnt());
+        request.release();
+    }
+
+    public void testReleasingStreamedRequestDiscardsBody() {
+        final EmbeddedChannel embeddedChannel = new EmbeddedChannel(getTestHttpHandler());
+        embeddedChannel.writeInbound(new DefaultHttpRequest(HTTP_1_1, HttpMethod.POST, "/_bulk"));
+        final Netty4HttpRequest request = embeddedChannel.readInbound();
+        final AtomicBoolean handlerClosed = new AtomicBoolean();
+        request.contentStream().setHandler(new HttpBody.ChunkHandler() {
+            @Override
+            public void onNext(ReleasableBytesReference chunk, boolean isLast) {
+                fail("no chunks were requested");
+            }
+
+            @Override
+            public void close() {
+                handlerClosed.set(true);
+            }
+        });
+        final DefaultHttpContent queued = new DefaultHttpContent(Unpooled.copiedBuffer("queued", StandardCharsets.UTF_8));
+        embeddedChannel.writeInbound(queued);
+
+        request.release();
+        assertTrue(handlerClosed.get());
+        assertEquals(0, queued.refCnt());
+        assertTrue(embeddedChannel.config().isAutoRead());
+
+        // the rest of the body is dropped, and the next request is read as usual
+        final DefaultLastHttpContent last = new DefaultLastHttpContent(Unpooled.copiedBuffer("last", StandardCharsets.UTF_8));
+        embeddedChannel.writeInbound(last);
+        assertEquals(0, last.refCnt());
+        embeddedChannel.writeInbound(createHttpRequest("/next"));
+        final Netty4HttpRequest next = embeddedChannel.readInbound();
+        assertEquals("/next", next.uri());
+        assertNull(next.contentStream());
+        next.release();
+    }
+
     public void testResumesChunkedMessage() {
         final List<Object> messagesSeen = new ArrayList<>();
         final EmbeddedChannel embeddedChannel = new EmbeddedChannel(capturingHandler(messagesSeen), getTestHttpHandler());
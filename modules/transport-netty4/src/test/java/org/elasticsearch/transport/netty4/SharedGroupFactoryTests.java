@@ -9,9 +9,18 @@
 
 package org.elasticsearch.transport.netty4;
 
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.core.IOUtils;
 import org.elasticsearch.test.ESTestCase;
 
+import static org.hamcrest.Matchers.instanceOf;
+
 public final class SharedGroupFactoryTests extends ESTestCase {
 
     public void testSharedEventLoops() throws Exception {
@@ -58,4 +67,42 @@ public final class SharedGroupFactoryTests extends ESTestCase {
             assertTrue(transportGroup.getLowLevelGroup().terminationFuture().isDone());
         }
     }
+
+    public void testNioEventLoopsByDefault() {
+        SharedGroupFactory sharedGroupFactory = new SharedGroupFactory(Settings.EMPTY);
+        assertFalse(sharedGroupFactory.isEpoll());
+        assertSame(NettyAllocator.getChannelType(), sharedGroupFactory.getChannelType());
+        assertSame(NettyAllocator.getServerChannelType(), sharedGroupFactory.getServerChannelType());
+        assertSame(NettyAllocator.getAllocator(), sharedGroupFactory.getAllocator());
+        SharedGroupFactory.SharedGroup transportGroup = sharedGroupFactory.getTransportGroup();
+        try {
+            assertThat(transportGroup.getLowLevelGroup(), instanceOf(NioEventLoopGroup.class));
+        } finally {
+            transportGroup.shutdown();
+        }
+    }
+
+    public void testEpollEventLoops() {
+        Settings settings = Settings.builder()
+            .put(Netty4Plugin.SETTING_NETTY_EPOLL.getKey(), true)
+            .put(Netty4Plugin.SETTING_HTTP_WORKER_COUNT.getKey(), randomIntBetween(0, 2))
+            .build();
+        SharedGroupFactory sharedGroupFactory = new SharedGroupFactory(settings);
+        // falls back to NIO if epoll isn't available
+        assertEquals(IOUtils.LINUX && Epoll.isAvailable(), sharedGroupFactory.isEpoll());
+        assumeTrue("native epoll transport is not available", sharedGroupFactory.isEpoll());
+
+        assertSame(EpollSocketChannel.class, sharedGroupFactory.getChannelType());
+        assertSame(EpollServerSocketChannel.class, sharedGroupFactory.getServerChannelType());
+        assertTrue(sharedGroupFactory.getAllocator().directBuffer(16).release());
+        SharedGroupFactory.SharedGroup httpGroup = sharedGroupFactory.getHttpGroup();
+        SharedGroupFactory.SharedGroup transportGroup = sharedGroupFactory.getTransportGroup();
+        try {
+            assertThat(httpGroup.getLowLevelGroup(), instanceOf(EpollEventLoopGroup.class));
+            assertThat(transportGroup.getLowLevelGroup(), instanceOf(EpollEventLoopGroup.class));
+        } finally {
+            httpGroup.shutdown();
+            transportGroup.shutdown();
+        }
+    }
 }
@@ -215,6 +215,17 @@ public class TransportVersions {
     public static final TransportVersion CCS_TELEMETRY_STATS = def(8_739_00_0);
     public static final TransportVersion GLOBAL_RETENTION_TELEMETRY = def(8_740_00_0);
     public static final TransportVersion ROUTING_TABLE_VERSION_REMOVED = def(8_741_00_0);
+    public static final TransportVersion TRANSLOG_SYNC_HISTOGRAMS = def(8_742_00_0);
+    public static final TransportVersion ZSTD_TRANSPORT_COMPRESSION = def(8_743_00_0);
+    public static final TransportVersion ESQL_AGGREGATION_SPILL = def(8_744_00_0);
+    public static final TransportVersion ESQL_ADAPTIVE_DATA_PARTITIONING = def(8_745_00_0);
+    public static final TransportVersion MAX_SIM_QUERY = def(8_746_00_0);
+    public static final TransportVersion SEGMENTS_STATS_VECTOR_MERGES = def(8_747_00_0);
+    public static final TransportVersion KNN_PROFILE_SEARCH_SEGMENTS = def(8_748_00_0);
+    public static final TransportVersion RECOVERY_FILE_CHUNK_TRAILING_CONTENT = def(8_749_00_0);
+    public static final TransportVersion RECOVERY_ADAPTIVE_THROTTLING = def(8_750_00_0);
+    public static final TransportVersion ROUTING_TABLE_SHARD_DIFFS = def(8_751_00_0);
+    public static final TransportVersion CLUSTER_STATE_SERIALIZATION_SECTION_STATS = def(8_752_00_0);
 
     /*
      * STOP! READ THIS FIRST! No, really,
@@ -86,13 +86,13 @@ public final class BulkRequestParser {
             .withRestApiVersion(restApiVersion);
     }
 
-    private static int findNextMarker(byte marker, int from, BytesReference data) {
+    private static int findNextMarker(byte marker, int from, BytesReference data, boolean lastData) {
         final int res = data.indexOf(marker, from);
         if (res != -1) {
             assert res >= 0;
             return res;
         }
-        if (from != data.length()) {
+        if (from != data.length() && lastData) {
             throw new IllegalArgumentException("The bulk request must be terminated by a newline [\\n]");
         }
         return res;
@@ -137,278 +137,395 @@ public final class BulkRequestParser {
         Consumer<UpdateRequest> updateRequestConsumer,
         Consumer<DeleteRequest> deleteRequestConsumer
     ) throws IOException {
-        XContent xContent = xContentType.xContent();
-        int line = 0;
-        int from = 0;
-        byte marker = xContent.bulkSeparator();
+        incrementalParser(
+            defaultIndex,
+            defaultRouting,
+            defaultFetchSourceContext,
+            defaultPipeline,
+            defaultRequireAlias,
+            defaultRequireDataStream,
+            defaultListExecutedPipelines,
+            allowExplicitIndex,
+            xContentType,
+            indexRequestConsumer,
+            updateRequestConsumer,
+            deleteRequestConsumer
+        ).parse(data, true);
+    }
+
+    /**
+     * Creates a parser for a bulk request body that arrives in several pieces, see {@link IncrementalParser#parse}. The
+     * parameters are the same as for {@link #parse}.
+     */
+    public IncrementalParser incrementalParser(
+        @Nullable String defaultIndex,
+        @Nullable String defaultRouting,
+        @Nullable FetchSourceContext defaultFetchSourceContext,
+        @Nullable String defaultPipeline,
+        @Nullable Boolean defaultRequireAlias,
+        @Nullable Boolean defaultRequireDataStream,
+        @Nullable Boolean defaultListExecutedPipelines,
+        boolean allowExplicitIndex,
+        XContentType xContentType,
+        BiConsumer<IndexRequest, String> indexRequestConsumer,
+        Consumer<UpdateRequest> updateRequestConsumer,
+        Consumer<DeleteRequest> deleteRequestConsumer
+    ) {
+        return new IncrementalParser(
+            defaultIndex,
+            defaultRouting,
+            defaultFetchSourceContext,
+            defaultPipeline,
+            defaultRequireAlias,
+            defaultRequireDataStream,
+            defaultListExecutedPipelines,
+            allowExplicitIndex,
+            xContentType,
+            indexRequestConsumer,
+            updateRequestConsumer,
+            deleteRequestConsumer
+        );
+    }
+
+    /**
+     * Parses a bulk request body piece by piece, keeping the line count and the deduplicated strings across pieces.
+     */
+    public final class IncrementalParser {
+        private final String defaultIndex;
+        private final String defaultRouting;
+        private final FetchSourceContext defaultFetchSourceContext;
+        private final String defaultPipeline;
+        private final Boolean defaultRequireAlias;
+        private final Boolean defaultRequireDataStream;
+        private final Boolean defaultListExecutedPipelines;
+        private final boolean allowExplicitIndex;
+        private final XContentType xContentType;
+        private final BiConsumer<IndexRequest, String> indexRequestConsumer;
+        private final Consumer<UpdateRequest> updateRequestConsumer;
+        private final Consumer<DeleteRequest> deleteRequestConsumer;
+
         // Bulk requests can contain a lot of repeated strings for the index, pipeline and routing parameters. This map is used to
         // deduplicate duplicate strings parsed for these parameters. While it does not prevent instantiating the duplicate strings, it
-        // reduces their lifetime to the lifetime of this parse call instead of the lifetime of the full bulk request.
-        final Map<String, String> stringDeduplicator = new HashMap<>();
-        boolean typesDeprecationLogged = false;
+        // reduces their lifetime to the lifetime of this parser instead of the lifetime of the full bulk request.
+        private final Map<String, String> stringDeduplicator = new HashMap<>();
+        private int line = 0;
+        private boolean typesDeprecationLogged = false;
 
-        while (true) {
-            int nextMarker = findNextMarker(marker, from, data);
-            if (nextMarker == -1) {
-                break;
-            }
-            line++;
+        private IncrementalParser(
+            @Nullable String defaultIndex,
+            @Nullable String defaultRouting,
+            @Nullable FetchSourceContext defaultFetchSourceContext,
+            @Nullable String defaultPipeline,
+            @Nullable Boolean defaultRequireAlias,
+            @Nullable Boolean defaultRequireDataStream,
+            @Nullable Boolean defaultListExecutedPipelines,
+            boolean allowExplicitIndex,
+            XContentType xContentType,
+            BiConsumer<IndexRequest, String> indexRequestConsumer,
+            Consumer<UpdateRequest> updateRequestConsumer,
+            Consumer<DeleteRequest> deleteRequestConsumer
+        ) {
+            this.defaultIndex = defaultIndex;
+            this.defaultRouting = defaultRouting;
+            this.defaultFetchSourceContext = defaultFetchSourceContext;
+            this.defaultPipeline = defaultPipeline;
+            this.defaultRequireAlias = defaultRequireAlias;
+            this.defaultRequireDataStream = defaultRequireDataStream;
+            this.defaultListExecutedPipelines = defaultListExecutedPipelines;
+            this.allowExplicitIndex = allowExplicitIndex;
+            this.xContentType = xContentType;
+            this.indexRequestConsumer = indexRequestConsumer;
+            this.updateRequestConsumer = updateRequestConsumer;
+            this.deleteRequestConsumer = deleteRequestConsumer;
+        }
 
-            // now parse the action
-            try (XContentParser parser = createParser(xContent, data, from, nextMarker)) {
-                // move pointers
-                from = nextMarker + 1;
+        /**
+         * Parses all complete items in {@code data} and returns the number of bytes that were consumed. The remaining bytes hold
+         * an incomplete item and must be passed again, followed by more data, with the next call. If {@code lastData} is set
+         * then no more data follows and all of {@code data} is consumed. Parsed requests may reference the consumed bytes.
+         */
+        public int parse(BytesReference data, boolean lastData) throws IOException {
+            XContent xContent = xContentType.xContent();
+            int from = 0;
+            byte marker = xContent.bulkSeparator();
 
-                // Move to START_OBJECT
-                XContentParser.Token token = parser.nextToken();
-                if (token == null) {
-                    continue;
-                }
-                if (token != XContentParser.Token.START_OBJECT) {
-                    throw new IllegalArgumentException(
-                        "Malformed action/metadata line ["
-                            + line
-                            + "], expected "
-                            + XContentParser.Token.START_OBJECT
-                            + " but found ["
-                            + token
-                            + "]"
-                    );
-                }
-                // Move to FIELD_NAME, that's the action
-                token = parser.nextToken();
-                if (token != XContentParser.Token.FIELD_NAME) {
-                    throw new IllegalArgumentException(
-                        "Malformed action/metadata line ["
-                            + line
-                            + "], expected "
-                            + XContentParser.Token.FIELD_NAME
-                            + " but found ["
-                            + token
-                            + "]"
-                    );
-                }
-                String action = parser.currentName();
-                if (SUPPORTED_ACTIONS.contains(action) == false) {
-                    throw new IllegalArgumentException(
-                        "Malformed action/metadata line ["
-                            + line
-                            + "], expected field [create], [delete], [index] or [update] but found ["
-                            + action
-                            + "]"
-                    );
+            while (true) {
+                int nextMarker = findNextMarker(marker, from, data, lastData);
+                if (nextMarker == -1) {
+                    break;
                 }
+                final int actionStart = from;
+                line++;
+
+                // now parse the action
+                try (XContentParser parser = createParser(xContent, data, from, nextMarker)) {
+                    // move pointers
+                    from = nextMarker + 1;
+
+                    // Move to START_OBJECT
+                    XContentParser.Token token = parser.nextToken();
+                    if (token == null) {
+                        continue;
+                    }
+                    if (token != XContentParser.Token.START_OBJECT) {
+                        throw new IllegalArgumentException(
+                            "Malformed action/metadata line ["
+                                + line
+                                + "], expected "
+                                + XContentParser.Token.START_OBJECT
+                                + " but found ["
+                                + token
+                                + "]"
+                        );
+                    }
+                    // Move to FIELD_NAME, that's the action
+                    token = parser.nextToken();
+                    if (token != XContentParser.Token.FIELD_NAME) {
+                        throw new IllegalArgumentException(
+                            "Malformed action/metadata line ["
+                                + line
+                                + "], expected "
+                                + XContentParser.Token.FIELD_NAME
+                                + " but found ["
+                                + token
+                                + "]"
+                        );
+                    }
+                    String action = parser.currentName();
+                    if (SUPPORTED_ACTIONS.contains(action) == false) {
+                        throw new IllegalArgumentException(
+                            "Malformed action/metadata line ["
+                                + line
+                                + "], expected field [create], [delete], [index] or [update] but found ["
+                                + action
+                                + "]"
+                        );
+                    }
 
-                String index = defaultIndex;
-                String type = null;
-                String id = null;
-                String routing = defaultRouting;
-                FetchSourceContext fetchSourceContext = defaultFetchSourceContext;
-                String opType = null;
-                long version = Versions.MATCH_ANY;
-                VersionType versionType = VersionType.INTERNAL;
-                long ifSeqNo = SequenceNumbers.UNASSIGNED_SEQ_NO;
-                long ifPrimaryTerm = UNASSIGNED_PRIMARY_TERM;
-                int retryOnConflict = 0;
-                String pipeline = defaultPipeline;
-                boolean requireAlias = defaultRequireAlias != null && defaultRequireAlias;
-                boolean requireDataStream = defaultRequireDataStream != null && defaultRequireDataStream;
-                boolean listExecutedPipelines = defaultListExecutedPipelines != null && defaultListExecutedPipelines;
-                Map<String, String> dynamicTemplates = Map.of();
+                    String index = defaultIndex;
+                    String type = null;
+                    String id = null;
+                    String routing = defaultRouting;
+                    FetchSourceContext fetchSourceContext = defaultFetchSourceContext;
+                    String opType = null;
+                    long version = Versions.MATCH_ANY;
+                    VersionType versionType = VersionType.INTERNAL;
+                    long ifSeqNo = SequenceNumbers.UNASSIGNED_SEQ_NO;
+                    long ifPrimaryTerm = UNASSIGNED_PRIMARY_TERM;
+                    int retryOnConflict = 0;
+                    String pipeline = defaultPipeline;
+                    boolean requireAlias = defaultRequireAlias != null && defaultRequireAlias;
+                    boolean requireDataStream = defaultRequireDataStream != null && defaultRequireDataStream;
+                    boolean listExecutedPipelines = defaultListExecutedPipelines != null && defaultListExecutedPipelines;
+                    Map<String, String> dynamicTemplates = Map.of();
 
-                // at this stage, next token can either be END_OBJECT (and use default index and type, with auto generated id)
-                // or START_OBJECT which will have another set of parameters
-                token = parser.nextToken();
+                    // at this stage, next token can either be END_OBJECT (and use default index and type, with auto generated id)
+                    // or START_OBJECT which will have another set of parameters
+                    token = parser.nextToken();
 
-                if (token == XContentParser.Token.START_OBJECT) {
-                    String currentFieldName = null;
-                    while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
-                        if (token == XContentParser.Token.FIELD_NAME) {
-                            currentFieldName = parser.currentName();
-                        } else if (token.isValue()) {
-                            if (INDEX.match(currentFieldName, parser.getDeprecationHandler())) {
-                                if (allowExplicitIndex == false) {
-                                    throw new IllegalArgumentException("explicit index in bulk is not allowed");
-                                }
-                                index = stringDeduplicator.computeIfAbsent(parser.text(), Function.identity());
-                            } else if (TYPE.match(currentFieldName, parser.getDeprecationHandler())) {
-                                if (parser.getRestApiVersion().matches(RestApiVersion.equalTo(RestApiVersion.V_7))) {
-                                    // for bigger bulks, deprecation throttling might not be enough
-                                    if (deprecateOrErrorOnType && typesDeprecationLogged == false) {
-                                        deprecationLogger.compatibleCritical("bulk_with_types", RestBulkAction.TYPES_DEPRECATION_MESSAGE);
-                                        typesDeprecationLogged = true;
-                                    }
-                                } else if (parser.getRestApiVersion().matches(RestApiVersion.onOrAfter(RestApiVersion.V_8))
-                                    && deprecateOrErrorOnType) {
-                                        throw new IllegalArgumentException(
-                                            "Action/metadata line [" + line + "] contains an unknown parameter [" + currentFieldName + "]"
-                                        );
+                    if (token == XContentParser.Token.START_OBJECT) {
+                        String currentFieldName = null;
+                        while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+                            if (token == XContentParser.Token.FIELD_NAME) {
+                                currentFieldName = parser.currentName();
+                            } else if (token.isValue()) {
+                                if (INDEX.match(currentFieldName, parser.getDeprecationHandler())) {
+                                    if (allowExplicitIndex == false) {
+                                        throw new IllegalArgumentException("explicit index in bulk is not allowed");
                                     }
-                                type = stringDeduplicator.computeIfAbsent(parser.text(), Function.identity());
-                            } else if (ID.match(currentFieldName, parser.getDeprecationHandler())) {
-                                id = parser.text();
-                            } else if (ROUTING.match(currentFieldName, parser.getDeprecationHandler())) {
-                                routing = stringDeduplicator.computeIfAbsent(parser.text(), Function.identity());
-                            } else if (OP_TYPE.match(currentFieldName, parser.getDeprecationHandler())) {
-                                opType = parser.text();
-                            } else if (VERSION.match(currentFieldName, parser.getDeprecationHandler())) {
-                                version = parser.longValue();
-                            } else if (VERSION_TYPE.match(currentFieldName, parser.getDeprecationHandler())) {
-                                versionType = VersionType.fromString(parser.text());
-                            } else if (IF_SEQ_NO.match(currentFieldName, parser.getDeprecationHandler())) {
-                                ifSeqNo = parser.longValue();
-                            } else if (IF_PRIMARY_TERM.match(currentFieldName, parser.getDeprecationHandler())) {
-                                ifPrimaryTerm = parser.longValue();
-                            } else if (RETRY_ON_CONFLICT.match(currentFieldName, parser.getDeprecationHandler())) {
-                                retryOnConflict = parser.intValue();
-                            } else if (PIPELINE.match(currentFieldName, parser.getDeprecationHandler())) {
-                                pipeline = stringDeduplicator.computeIfAbsent(parser.text(), Function.identity());
-                            } else if (SOURCE.match(currentFieldName, parser.getDeprecationHandler())) {
-                                fetchSourceContext = FetchSourceContext.fromXContent(parser);
-                            } else if (REQUIRE_ALIAS.match(currentFieldName, parser.getDeprecationHandler())) {
-                                requireAlias = parser.booleanValue();
-                            } else if (REQUIRE_DATA_STREAM.match(currentFieldName, parser.getDeprecationHandler())) {
-                                requireDataStream = parser.booleanValue();
-                            } else if (LIST_EXECUTED_PIPELINES.match(currentFieldName, parser.getDeprecationHandler())) {
-                                listExecutedPipelines = parser.booleanValue();
-                            } else {
-                                throw new IllegalArgumentException(
-                                    "Action/metadata line [" + line + "] contains an unknown parameter [" + currentFieldName + "]"
-                                );
-                            }
-                        } else if (token == XContentParser.Token.START_ARRAY) {
-                            throw new IllegalArgumentException(
-                                "Malformed action/metadata line ["
-                                    + line
-                                    + "], expected a simple value for field ["
-                                    + currentFieldName
-                                    + "] but found ["
-                                    + token
-                                    + "]"
-                            );
-                        } else if (token == XContentParser.Token.START_OBJECT
-                            && DYNAMIC_TEMPLATES.match(currentFieldName, parser.getDeprecationHandler())) {
-                                dynamicTemplates = parser.mapStrings();
-                            } else if (token == XContentParser.Token.START_OBJECT
-                                && SOURCE.match(currentFieldName, parser.getDeprecationHandler())) {
+                                    index = stringDeduplicator.computeIfAbsent(parser.text(), Function.identity());
+                                } else if (TYPE.match(currentFieldName, parser.getDeprecationHandler())) {
+                                    if (parser.getRestApiVersion().matches(RestApiVersion.equalTo(RestApiVersion.V_7))) {
+                                        // for bigger bulks, deprecation throttling might not be enough
+                                        if (deprecateOrErrorOnType && typesDeprecationLogged == false) {
+                                            deprecationLogger.compatibleCritical(
+                                                "bulk_with_types",
+                                                RestBulkAction.TYPES_DEPRECATION_MESSAGE
+                                            );
+                                            typesDeprecationLogged = true;
+                                        }
+                                    } else if (parser.getRestApiVersion().matches(RestApiVersion.onOrAfter(RestApiVersion.V_8))
+                                        && deprecateOrErrorOnType) {
+                                            throw new IllegalArgumentException(
+                                                "Action/metadata line ["
+                                                    + line
+                                                    + "] contains an unknown parameter ["
+                                                    + currentFieldName
+                                                    + "]"
+                                            );
+                                        }
+                                    type = stringDeduplicator.computeIfAbsent(parser.text(), Function.identity());
+                                } else if (ID.match(currentFieldName, parser.getDeprecationHandler())) {
+                                    id = parser.text();
+                                } else if (ROUTING.match(currentFieldName, parser.getDeprecationHandler())) {
+                                    routing = stringDeduplicator.computeIfAbsent(parser.text(), Function.identity());
+                                } else if (OP_TYPE.match(currentFieldName, parser.getDeprecationHandler())) {
+                                    opType = parser.text();
+                                } else if (VERSION.match(currentFieldName, parser.getDeprecationHandler())) {
+                                    version = parser.longValue();
+                                } else if (VERSION_TYPE.match(currentFieldName, parser.getDeprecationHandler())) {
+                                    versionType = VersionType.fromString(parser.text());
+                                } else if (IF_SEQ_NO.match(currentFieldName, parser.getDeprecationHandler())) {
+                                    ifSeqNo = parser.longValue();
+                                } else if (IF_PRIMARY_TERM.match(currentFieldName, parser.getDeprecationHandler())) {
+                                    ifPrimaryTerm = parser.longValue();
+                                } else if (RETRY_ON_CONFLICT.match(currentFieldName, parser.getDeprecationHandler())) {
+                                    retryOnConflict = parser.intValue();
+                                } else if (PIPELINE.match(currentFieldName, parser.getDeprecationHandler())) {
+                                    pipeline = stringDeduplicator.computeIfAbsent(parser.text(), Function.identity());
+                                } else if (SOURCE.match(currentFieldName, parser.getDeprecationHandler())) {
                                     fetchSourceContext = FetchSourceContext.fromXContent(parser);
-                                } else if (token != XContentParser.Token.VALUE_NULL) {
+                                } else if (REQUIRE_ALIAS.match(currentFieldName, parser.getDeprecationHandler())) {
+                                    requireAlias = parser.booleanValue();
+                                } else if (REQUIRE_DATA_STREAM.match(currentFieldName, parser.getDeprecationHandler())) {
+                                    requireDataStream = parser.booleanValue();
+                                } else if (LIST_EXECUTED_PIPELINES.match(currentFieldName, parser.getDeprecationHandler())) {
+                                    listExecutedPipelines = parser.booleanValue();
+                                } else {
                                     throw new IllegalArgumentException(
-                                        "Malformed action/metadata line ["
-                                            + line
-                                            + "], expected a simple value for field ["
-                                            + currentFieldName
-                                            + "] but found ["
-                                            + token
-                                            + "]"
+                                        "Action/metadata line [" + line + "] contains an unknown parameter [" + currentFieldName + "]"
                                     );
                                 }
-                    }
-                } else if (token != XContentParser.Token.END_OBJECT) {
-                    throw new IllegalArgumentException(
-                        "Malformed action/metadata line ["
-                            + line
-                            + "], expected "
-                            + XContentParser.Token.START_OBJECT
-                            + " or "
-                            + XContentParser.Token.END_OBJECT
-                            + " but found ["
-                            + token
-                            + "]"
-                    );
-                }
-                checkBulkActionIsProperlyClosed(parser);
-
-                if ("delete".equals(action)) {
-                    if (dynamicTemplates.isEmpty() == false) {
+                            } else if (token == XContentParser.Token.START_ARRAY) {
+                                throw new IllegalArgumentException(
+                                    "Malformed action/metadata line ["
+                                        + line
+                                        + "], expected a simple value for field ["
+                                        + currentFieldName
+                                        + "] but found ["
+                                        + token
+                                        + "]"
+                                );
+                            } else if (token == XContentParser.Token.START_OBJECT
+                                && DYNAMIC_TEMPLATES.match(currentFieldName, parser.getDeprecationHandler())) {
+                                    dynamicTemplates = parser.mapStrings();
+                                } else if (token == XContentParser.Token.START_OBJECT
+                                    && SOURCE.match(currentFieldName, parser.getDeprecationHandler())) {
+                                        fetchSourceContext = FetchSourceContext.fromXContent(parser);
+                                    } else if (token != XContentParser.Token.VALUE_NULL) {
+                                        throw new IllegalArgumentException(
+                                            "Malformed action/metadata line ["
+                                                + line
+                                                + "], expected a simple value for field ["
+                                                + currentFieldName
+                                                + "] but found ["
+                                                + token
+                                                + "]"
+                                        );
+                                    }
+                        }
+                    } else if (token != XContentParser.Token.END_OBJECT) {
                         throw new IllegalArgumentException(
-                            "Delete request in line [" + line + "] does not accept " + DYNAMIC_TEMPLATES.getPreferredName()
+                            "Malformed action/metadata line ["
+                                + line
+                                + "], expected "
+                                + XContentParser.Token.START_OBJECT
+                                + " or "
+                                + XContentParser.Token.END_OBJECT
+                                + " but found ["
+                                + token
+                                + "]"
                         );
                     }
-                    deleteRequestConsumer.accept(
-                        new DeleteRequest(index).id(id)
-                            .routing(routing)
-                            .version(version)
-                            .versionType(versionType)
-                            .setIfSeqNo(ifSeqNo)
-                            .setIfPrimaryTerm(ifPrimaryTerm)
-                    );
-                } else {
-                    nextMarker = findNextMarker(marker, from, data);
-                    if (nextMarker == -1) {
-                        break;
-                    }
-                    line++;
+                    checkBulkActionIsProperlyClosed(parser);
 
-                    // we use internalAdd so we don't fork here, this allows us not to copy over the big byte array to small chunks
-                    // of index request.
-                    if ("index".equals(action) || "create".equals(action)) {
-                        var indexRequest = new IndexRequest(index).id(id)
-                            .routing(routing)
-                            .version(version)
-                            .versionType(versionType)
-                            .setPipeline(pipeline)
-                            .setIfSeqNo(ifSeqNo)
-                            .setIfPrimaryTerm(ifPrimaryTerm)
-                            .source(sliceTrimmingCarriageReturn(data, from, nextMarker, xContentType), xContentType)
-                            .setDynamicTemplates(dynamicTemplates)
-                            .setRequireAlias(requireAlias)
-                            .setRequireDataStream(requireDataStream)
-                            .setListExecutedPipelines(listExecutedPipelines);
-                        if ("create".equals(action)) {
-                            indexRequest = indexRequest.create(true);
-                        } else if (opType != null) {
-                            indexRequest = indexRequest.create("create".equals(opType));
-                        }
-                        indexRequestConsumer.accept(indexRequest, type);
-                    } else if ("update".equals(action)) {
-                        if (version != Versions.MATCH_ANY || versionType != VersionType.INTERNAL) {
-                            throw new IllegalArgumentException(
-                                "Update requests do not support versioning. " + "Please use `if_seq_no` and `if_primary_term` instead"
-                            );
-                        }
-                        if (requireDataStream) {
-                            throw new IllegalArgumentException(
-                                "Update requests do not support the `require_data_stream` flag, "
-                                    + "as data streams do not support update operations"
-                            );
-                        }
-                        // TODO: support dynamic_templates in update requests
+                    if ("delete".equals(action)) {
                         if (dynamicTemplates.isEmpty() == false) {
                             throw new IllegalArgumentException(
-                                "Update request in line [" + line + "] does not accept " + DYNAMIC_TEMPLATES.getPreferredName()
+                                "Delete request in line [" + line + "] does not accept " + DYNAMIC_TEMPLATES.getPreferredName()
                             );
                         }
-                        UpdateRequest updateRequest = new UpdateRequest().index(index)
-                            .id(id)
-                            .routing(routing)
-                            .retryOnConflict(retryOnConflict)
-                            .setIfSeqNo(ifSeqNo)
-                            .setIfPrimaryTerm(ifPrimaryTerm)
-                            .setRequireAlias(requireAlias)
-                            .routing(routing);
-                        try (
-                            XContentParser sliceParser = createParser(
-                                xContent,
-                                sliceTrimmingCarriageReturn(data, from, nextMarker, xContentType)
-                            )
-                        ) {
-                            updateRequest.fromXContent(sliceParser);
-                        }
-                        if (fetchSourceContext != null) {
-                            updateRequest.fetchSource(fetchSourceContext);
-                        }
-                        IndexRequest upsertRequest = updateRequest.upsertRequest();
-                        if (upsertRequest != null) {
-                            upsertRequest.setPipeline(pipeline).setListExecutedPipelines(listExecutedPipelines);
+                        deleteRequestConsumer.accept(
+                            new DeleteRequest(index).id(id)
+                                .routing(routing)
+                                .version(version)
+                                .versionType(versionType)
+                                .setIfSeqNo(ifSeqNo)
+                                .setIfPrimaryTerm(ifPrimaryTerm)
+                        );
+                    } else {
+                        nextMarker = findNextMarker(marker, from, data, lastData);
+                        if (nextMarker == -1) {
+                            if (lastData == false) {
+                                // the source hasn't fully arrived yet, parse the action line again once it did
+                                line--;
+                                from = actionStart;
+                            }
+                            break;
                         }
+                        line++;
+
+                        // we use internalAdd so we don't fork here, this allows us not to copy over the big byte array to small chunks
+                        // of index request.
+                        if ("index".equals(action) || "create".equals(action)) {
+                            var indexRequest = new IndexRequest(index).id(id)
+                                .routing(routing)
+                                .version(version)
+                                .versionType(versionType)
+                                .setPipeline(pipeline)
+                                .setIfSeqNo(ifSeqNo)
+                                .setIfPrimaryTerm(ifPrimaryTerm)
+                                .source(sliceTrimmingCarriageReturn(data, from, nextMarker, xContentType), xContentType)
+                                .setDynamicTemplates(dynamicTemplates)
+                                .setRequireAlias(requireAlias)
+                                .setRequireDataStream(requireDataStream)
+                                .setListExecutedPipelines(listExecutedPipelines);
+                            if ("create".equals(action)) {
+                                indexRequest = indexRequest.create(true);
+                            } else if (opType != null) {
+                                indexRequest = indexRequest.create("create".equals(opType));
+                            }
+                            indexRequestConsumer.accept(indexRequest, type);
+                        } else if ("update".equals(action)) {
+                            if (version != Versions.MATCH_ANY || versionType != VersionType.INTERNAL) {
+                                throw new IllegalArgumentException(
+                                    "Update requests do not support versioning. " + "Please use `if_seq_no` and `if_primary_term` instead"
+                                );
+                            }
+                            if (requireDataStream) {
+                                throw new IllegalArgumentException(
+                                    "Update requests do not support the `require_data_stream` flag, "
+                                        + "as data streams do not support update operations"
+                                );
+                            }
+                            // TODO: support dynamic_templates in update requests
+                            if (dynamicTemplates.isEmpty() == false) {
+                                throw new IllegalArgumentException(
+                                    "Update request in line [" + line + "] does not accept " + DYNAMIC_TEMPLATES.getPreferredName()
+                                );
+                            }
+                            UpdateRequest updateRequest = new UpdateRequest().index(index)
+                                .id(id)
+                                .routing(routing)
+                                .retryOnConflict(retryOnConflict)
+                                .setIfSeqNo(ifSeqNo)
+                                .setIfPrimaryTerm(ifPrimaryTerm)
+                                .setRequireAlias(requireAlias)
+                                .routing(routing);
+                            try (
+                                XContentParser sliceParser = createParser(
+                                    xContent,
+                                    sliceTrimmingCarriageReturn(data, from, nextMarker, xContentType)
+                                )
+                            ) {
+                                updateRequest.fromXContent(sliceParser);
+                            }
+                            if (fetchSourceContext != null) {
+                                updateRequest.fetchSource(fetchSourceContext);
+                            }
+                            IndexRequest upsertRequest = updateRequest.upsertRequest();
+                            if (upsertRequest != null) {
+                                upsertRequest.setPipeline(pipeline).setListExecutedPipelines(listExecutedPipelines);
+                            }
 
-                        updateRequestConsumer.accept(updateRequest);
+                            updateRequestConsumer.accept(updateRequest);
+                        }
+                        // move pointers
+                        from = nextMarker + 1;
                     }
-                    // move pointers
-                    from = nextMarker + 1;
                 }
             }
+            return from;
         }
     }
 
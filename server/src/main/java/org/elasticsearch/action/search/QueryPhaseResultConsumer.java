@@ -51,10 +51,27 @@ import static org.elasticsearch.action.search.SearchPhaseController.setShardInde
  * in the {@link CircuitBreaker#REQUEST} circuit breaker. Before any partial or final reduce, the memory
  * needed to reduce the aggregations is estimated and a {@link CircuitBreakingException} is thrown if it
  * exceeds the maximum memory allowed in this breaker.
+ * Partial reduces are triggered every {@link SearchRequest#getBatchedReduceSize()} shard results, or earlier
+ * if the serialized aggregations that are buffered exceed a fraction of the circuit breaker limit or the room left in it (see
+ * {@link #maxBufferedAggsBytes(CircuitBreaker)}). This only changes when the buffered results are reduced: they are still
+ * reduced as whole {@link InternalAggregations}, and the memory held on the coordinating node is still that of the buffered
+ * shard results plus the partially reduced result. Such early partial reduces always fold at least
+ * {@link #MIN_BUFFERED_RESULTS_FOR_EARLY_REDUCE} shard results, so that a nearly full breaker doesn't cause a partial reduce for
+ * every shard result.
  */
 public class QueryPhaseResultConsumer extends ArraySearchPhaseResults<SearchPhaseResult> {
     private static final Logger logger = LogManager.getLogger(QueryPhaseResultConsumer.class);
 
+    /**
+     * The circuit breaker limit is divided by this to get the size of the buffered aggregations that triggers a partial reduce.
+     */
+    static final int BUFFERED_AGGS_BREAKER_LIMIT_DIVISOR = 10;
+
+    /**
+     * The minimum number of buffered shard results that a partial reduce triggered by the size of the buffered aggregations folds.
+     */
+    static final int MIN_BUFFERED_RESULTS_FOR_EARLY_REDUCE = 5;
+
     private final Executor executor;
     private final CircuitBreaker circuitBreaker;
     private final SearchProgressListener progressListener;
@@ -104,6 +121,20 @@ public class QueryPhaseResultConsumer extends ArraySearchPhaseResults<SearchPhas
         this.pendingMerges = new PendingMerges(batchReduceSize, request.resolveTrackTotalHitsUpTo());
     }
 
+    /**
+     * Returns the size of the serialized aggregations that can be buffered before a partial reduce is triggered, regardless
+     * of the number of buffered shard results. This is a tenth of the circuit breaker limit, or the room that is left in the
+     * breaker if that is less, which may be zero when the breaker is full.
+     */
+    static long maxBufferedAggsBytes(CircuitBreaker circuitBreaker) {
+        final long limit = circuitBreaker.getLimit();
+        if (limit <= 0) {
+            return Long.MAX_VALUE;
+        }
+        final long available = Math.max(0L, limit - circuitBreaker.getUsed());
+        return Math.min(limit / BUFFERED_AGGS_BREAKER_LIMIT_DIVISOR, available);
+    }
+
     @Override
     protected void doClose() {
         pendingMerges.close();
@@ -248,6 +279,14 @@ public class QueryPhaseResultConsumer extends ArraySearchPhaseResults<SearchPhas
         return pendingMerges.numReducePhases;
     }
 
+    /**
+     * Returns the maximum amount of memory, in bytes, that was accounted in the circuit breaker to buffer and reduce
+     * the aggregations of this search on the coordinating node.
+     */
+    public long getMaxAggsBufferSize() {
+        return pendingMerges.maxAggsCurrentBufferSize;
+    }
+
     private class PendingMerges implements Releasable {
         private final int batchReduceSize;
         private final List<QuerySearchResult> buffer = new ArrayList<>();
@@ -366,7 +405,10 @@ public class QueryPhaseResultConsumer extends ArraySearchPhaseResults<SearchPhas
                     }
                     // add one if a partial merge is pending
                     int size = buffer.size() + (hasPartialReduce ? 1 : 0);
-                    if (size >= batchReduceSize) {
+                    // also merge early if the buffered aggs get too large, as long as enough shard results are buffered
+                    if (size >= batchReduceSize
+                        || (buffer.size() >= MIN_BUFFERED_RESULTS_FOR_EARLY_REDUCE
+                            && aggsCurrentBufferSize >= maxBufferedAggsBytes(circuitBreaker))) {
                         hasPartialReduce = true;
                         executeNextImmediately = false;
                         QuerySearchResult[] clone = buffer.toArray(QuerySearchResult[]::new);
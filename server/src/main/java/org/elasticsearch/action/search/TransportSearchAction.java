@@ -1478,6 +1478,18 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
                 shardIterators.size(),
                 exc -> searchTransportService.cancelSearchTask(task, "failed to merge result [" + exc.getMessage() + "]")
             );
+            final ActionListener<SearchResponse> searchListener;
+            if (queryResultConsumer instanceof QueryPhaseResultConsumer aggsConsumer
+                && searchRequest.source() != null
+                && searchRequest.source().aggregations() != null) {
+                // the aggregations are fully reduced by the time the response is sent, so the peak is final
+                searchListener = ActionListener.runBefore(
+                    listener,
+                    () -> searchResponseMetrics.recordAggsReduceMemory(aggsConsumer.getMaxAggsBufferSize())
+                );
+            } else {
+                searchListener = listener;
+            }
             boolean success = false;
             try {
                 final SearchPhase searchPhase;
@@ -1492,7 +1504,7 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
                         executor,
                         queryResultConsumer,
                         searchRequest,
-                        listener,
+                        searchListener,
                         shardIterators,
                         timeProvider,
                         clusterState,
@@ -1512,7 +1524,7 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
                         executor,
                         queryResultConsumer,
                         searchRequest,
-                        listener,
+                        searchListener,
                         shardIterators,
                         timeProvider,
                         clusterState,
@@ -57,6 +57,7 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -1075,27 +1076,82 @@ public class ClusterState implements ChunkedToXContent, Diffable<ClusterState> {
         return tv;
     }
 
+    /**
+     * The main sections of a serialized cluster state or cluster state diff.
+     */
+    public enum Section {
+        METADATA,
+        ROUTING_TABLE,
+        NODES,
+        BLOCKS,
+        CUSTOMS;
+
+        public String getName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Notified of the number of bytes and the time it took to write each {@link Section} of a cluster state or cluster state diff.
+     */
+    @FunctionalInterface
+    public interface SectionListener {
+        void onSectionWritten(Section section, long bytes, long timeInNanos);
+    }
+
     @Override
     public void writeTo(StreamOutput out) throws IOException {
+        writeTo(out, null);
+    }
+
+    /**
+     * Writes this cluster state like {@link #writeTo(StreamOutput)} does and reports each of its {@link Section}s to the given listener,
+     * which requires a stream that tracks its {@link StreamOutput#position()}.
+     */
+    public void writeTo(StreamOutput out, @Nullable SectionListener listener) throws IOException {
         clusterName.writeTo(out);
         out.writeLong(version);
         out.writeString(stateUUID);
-        metadata.writeTo(out);
-        routingTable.writeTo(out);
-        nodes.writeTo(out);
+        writeSection(out, Section.METADATA, metadata, listener);
+        writeSection(out, Section.ROUTING_TABLE, routingTable, listener);
+        writeSection(out, Section.NODES, nodes, listener);
         if (out.getTransportVersion().onOrAfter(TransportVersions.V_8_8_0)) {
             out.writeMap(compatibilityVersions, StreamOutput::writeWriteable);
         }
         if (out.getTransportVersion().onOrAfter(TransportVersions.V_8_12_0)) {
             clusterFeatures.writeTo(out);
         }
-        blocks.writeTo(out);
-        VersionedNamedWriteable.writeVersionedWritables(out, customs);
+        writeSection(out, Section.BLOCKS, blocks, listener);
+        writeSection(out, Section.CUSTOMS, o -> VersionedNamedWriteable.writeVersionedWritables(o, customs), listener);
         if (out.getTransportVersion().before(TransportVersions.V_8_0_0)) {
             out.writeVInt(-1); // used to be minimumMasterNodesOnPublishingMaster, which was used in 7.x for BWC with 6.x
         }
     }
 
+    /**
+     * Writes a diff that was computed by {@link #diff} like {@link Diff#writeTo} does and reports each of its {@link Section}s to the
+     * given listener, which requires a stream that tracks its {@link StreamOutput#position()}.
+     */
+    public static void writeDiffTo(Diff<ClusterState> diff, StreamOutput out, SectionListener listener) throws IOException {
+        if (diff instanceof ClusterStateDiff clusterStateDiff) {
+            clusterStateDiff.writeTo(out, listener);
+        } else {
+            diff.writeTo(out);
+        }
+    }
+
+    private static void writeSection(StreamOutput out, Section section, Writeable writeable, @Nullable SectionListener listener)
+        throws IOException {
+        if (listener == null) {
+            writeable.writeTo(out);
+            return;
+        }
+        final long startPosition = out.position();
+        final long startTimeInNanos = System.nanoTime();
+        writeable.writeTo(out);
+        listener.onSectionWritten(section, out.position() - startPosition, System.nanoTime() - startTimeInNanos);
+    }
+
     private static class ClusterStateDiff implements Diff<ClusterState> {
 
         private final long toVersion;
@@ -1170,21 +1226,25 @@ public class ClusterState implements ChunkedToXContent, Diffable<ClusterState> {
 
         @Override
         public void writeTo(StreamOutput out) throws IOException {
+            writeTo(out, null);
+        }
+
+        void writeTo(StreamOutput out, @Nullable SectionListener listener) throws IOException {
             clusterName.writeTo(out);
             out.writeString(fromUuid);
             out.writeString(toUuid);
             out.writeLong(toVersion);
-            routingTable.writeTo(out);
-            nodes.writeTo(out);
+            writeSection(out, Section.ROUTING_TABLE, routingTable, listener);
+            writeSection(out, Section.NODES, nodes, listener);
             if (out.getTransportVersion().onOrAfter(TransportVersions.V_8_8_0)) {
                 out.writeOptionalWriteable(versions);
             }
             if (out.getTransportVersion().onOrAfter(TransportVersions.V_8_12_0)) {
                 features.writeTo(out);
             }
-            metadata.writeTo(out);
-            blocks.writeTo(out);
-            customs.writeTo(out);
+            writeSection(out, Section.METADATA, metadata, listener);
+            writeSection(out, Section.BLOCKS, blocks, listener);
+            writeSection(out, Section.CUSTOMS, customs, listener);
             if (out.getTransportVersion().before(TransportVersions.V_8_0_0)) {
                 out.writeVInt(-1); // used to be minimumMasterNodesOnPublishingMaster, which was used in 7.x for BWC with 6.x
             }
@@ -9,40 +9,66 @@
 
 package org.elasticsearch.cluster.coordination;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.xcontent.ToXContentObject;
 import org.elasticsearch.xcontent.XContentBuilder;
 
 import java.io.IOException;
+import java.util.Map;
 
 public class ClusterStateSerializationStats implements Writeable, ToXContentObject {
 
-    public static final ClusterStateSerializationStats EMPTY = new ClusterStateSerializationStats(0L, 0L, 0L, 0L, 0L, 0L);
+    public static final ClusterStateSerializationStats EMPTY = new ClusterStateSerializationStats(
+        0L,
+        0L,
+        0L,
+        0L,
+        Map.of(),
+        0L,
+        0L,
+        0L,
+        0L,
+        Map.of()
+    );
 
     private final long fullStateCount;
     private final long totalUncompressedFullStateBytes;
     private final long totalCompressedFullStateBytes;
+    private final long totalFullStateSerializationTimeInNanos;
+    private final Map<String, SectionStats> fullStateSections;
     private final long diffCount;
     private final long totalUncompressedDiffBytes;
     private final long totalCompressedDiffBytes;
+    private final long totalDiffSerializationTimeInNanos;
+    private final Map<String, SectionStats> diffSections;
 
     public ClusterStateSerializationStats(
         long fullStateCount,
         long totalUncompressedFullStateBytes,
         long totalCompressedFullStateBytes,
+        long totalFullStateSerializationTimeInNanos,
+        Map<String, SectionStats> fullStateSections,
         long diffCount,
         long totalUncompressedDiffBytes,
-        long totalCompressedDiffBytes
+        long totalCompressedDiffBytes,
+        long totalDiffSerializationTimeInNanos,
+        Map<String, SectionStats> diffSections
     ) {
         this.fullStateCount = fullStateCount;
         this.totalUncompressedFullStateBytes = totalUncompressedFullStateBytes;
         this.totalCompressedFullStateBytes = totalCompressedFullStateBytes;
+        this.totalFullStateSerializationTimeInNanos = totalFullStateSerializationTimeInNanos;
+        this.fullStateSections = fullStateSections;
         this.diffCount = diffCount;
         this.totalUncompressedDiffBytes = totalUncompressedDiffBytes;
         this.totalCompressedDiffBytes = totalCompressedDiffBytes;
+        this.totalDiffSerializationTimeInNanos = totalDiffSerializationTimeInNanos;
+        this.diffSections = diffSections;
     }
 
     public ClusterStateSerializationStats(StreamInput in) throws IOException {
@@ -52,6 +78,17 @@ public class ClusterStateSerializationStats implements Writeable, ToXContentObje
         this.diffCount = in.readVLong();
         this.totalUncompressedDiffBytes = in.readVLong();
         this.totalCompressedDiffBytes = in.readVLong();
+        if (in.getTransportVersion().onOrAfter(TransportVersions.CLUSTER_STATE_SERIALIZATION_SECTION_STATS)) {
+            this.totalFullStateSerializationTimeInNanos = in.readVLong();
+            this.fullStateSections = in.readOrderedMap(StreamInput::readString, SectionStats::new);
+            this.totalDiffSerializationTimeInNanos = in.readVLong();
+            this.diffSections = in.readOrderedMap(StreamInput::readString, SectionStats::new);
+        } else {
+            this.totalFullStateSerializationTimeInNanos = 0L;
+            this.fullStateSections = Map.of();
+            this.totalDiffSerializationTimeInNanos = 0L;
+            this.diffSections = Map.of();
+        }
     }
 
     public long getFullStateCount() {
@@ -66,6 +103,17 @@ public class ClusterStateSerializationStats implements Writeable, ToXContentObje
         return totalCompressedFullStateBytes;
     }
 
+    public long getTotalFullStateSerializationTimeInNanos() {
+        return totalFullStateSerializationTimeInNanos;
+    }
+
+    /**
+     * The uncompressed size and the serialization time of each section of the full cluster states, keyed by section name.
+     */
+    public Map<String, SectionStats> getFullStateSections() {
+        return fullStateSections;
+    }
+
     public long getDiffCount() {
         return diffCount;
     }
@@ -78,6 +126,17 @@ public class ClusterStateSerializationStats implements Writeable, ToXContentObje
         return totalCompressedDiffBytes;
     }
 
+    public long getTotalDiffSerializationTimeInNanos() {
+        return totalDiffSerializationTimeInNanos;
+    }
+
+    /**
+     * The uncompressed size and the serialization time of each section of the cluster state diffs, keyed by section name.
+     */
+    public Map<String, SectionStats> getDiffSections() {
+        return diffSections;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject();
@@ -89,16 +148,47 @@ public class ClusterStateSerializationStats implements Writeable, ToXContentObje
             ByteSizeValue.ofBytes(totalUncompressedFullStateBytes)
         );
         builder.humanReadableField("compressed_size_in_bytes", "compressed_size", ByteSizeValue.ofBytes(totalCompressedFullStateBytes));
+        builder.humanReadableField(
+            "serialization_time_in_millis",
+            "serialization_time",
+            TimeValue.timeValueNanos(totalFullStateSerializationTimeInNanos)
+        );
+        sectionsToXContent(builder, fullStateSections);
         builder.endObject();
         builder.startObject("diffs");
         builder.field("count", diffCount);
         builder.humanReadableField("uncompressed_size_in_bytes", "uncompressed_size", ByteSizeValue.ofBytes(totalUncompressedDiffBytes));
         builder.humanReadableField("compressed_size_in_bytes", "compressed_size", ByteSizeValue.ofBytes(totalCompressedDiffBytes));
+        builder.humanReadableField(
+            "serialization_time_in_millis",
+            "serialization_time",
+            TimeValue.timeValueNanos(totalDiffSerializationTimeInNanos)
+        );
+        sectionsToXContent(builder, diffSections);
         builder.endObject();
         builder.endObject();
         return builder;
     }
 
+    private static void sectionsToXContent(XContentBuilder builder, Map<String, SectionStats> sections) throws IOException {
+        builder.startObject("sections");
+        for (Map.Entry<String, SectionStats> section : sections.entrySet()) {
+            builder.startObject(section.getKey());
+            builder.humanReadableField(
+                "uncompressed_size_in_bytes",
+                "uncompressed_size",
+                ByteSizeValue.ofBytes(section.getValue().uncompressedBytes())
+            );
+            builder.humanReadableField(
+                "serialization_time_in_millis",
+                "serialization_time",
+                TimeValue.timeValueNanos(section.getValue().serializationTimeInNanos())
+            );
+            builder.endObject();
+        }
+        builder.endObject();
+    }
+
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         out.writeVLong(fullStateCount);
@@ -107,6 +197,28 @@ public class ClusterStateSerializationStats implements Writeable, ToXContentObje
         out.writeVLong(diffCount);
         out.writeVLong(totalUncompressedDiffBytes);
         out.writeVLong(totalCompressedDiffBytes);
+        if (out.getTransportVersion().onOrAfter(TransportVersions.CLUSTER_STATE_SERIALIZATION_SECTION_STATS)) {
+            out.writeVLong(totalFullStateSerializationTimeInNanos);
+            out.writeMap(fullStateSections, StreamOutput::writeWriteable);
+            out.writeVLong(totalDiffSerializationTimeInNanos);
+            out.writeMap(diffSections, StreamOutput::writeWriteable);
+        }
+    }
+
+    /**
+     * The total uncompressed size and serialization time of one section of the serialized cluster states or diffs.
+     */
+    public record SectionStats(long uncompressedBytes, long serializationTimeInNanos) implements Writeable {
+
+        public SectionStats(StreamInput in) throws IOException {
+            this(in.readVLong(), in.readVLong());
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVLong(uncompressedBytes);
+            out.writeVLong(serializationTimeInNanos);
+        }
     }
 
 }
@@ -49,6 +49,7 @@ import org.elasticsearch.transport.TransportService;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
@@ -262,10 +263,12 @@ public class PublicationTransportHandler {
     }
 
     private ReleasableBytesReference serializeFullClusterState(ClusterState clusterState, DiscoveryNode node, TransportVersion version) {
+        final long startTimeInNanos = System.nanoTime();
         final RecyclerBytesStreamOutput bytesStream = transportService.newNetworkBytesStream();
         boolean success = false;
         try {
             final long uncompressedBytes;
+            final SectionStatsCollector sections = new SectionStatsCollector();
             try (
                 StreamOutput stream = new PositionTrackingOutputStreamStreamOutput(
                     CompressorFactory.COMPRESSOR.threadLocalOutputStream(Streams.flushOnCloseStream(bytesStream))
@@ -273,13 +276,18 @@ public class PublicationTransportHandler {
             ) {
                 stream.setTransportVersion(version);
                 stream.writeBoolean(true);
-                clusterState.writeTo(stream);
+                clusterState.writeTo(stream, sections);
                 uncompressedBytes = stream.position();
             } catch (IOException e) {
                 throw new ElasticsearchException("failed to serialize cluster state for publishing to node {}", e, node);
             }
             final ReleasableBytesReference result = new ReleasableBytesReference(bytesStream.bytes(), bytesStream);
-            serializationStatsTracker.serializedFullState(uncompressedBytes, result.length());
+            serializationStatsTracker.serializedFullState(
+                uncompressedBytes,
+                result.length(),
+                System.nanoTime() - startTimeInNanos,
+                sections
+            );
             logger.trace(
                 "serialized full cluster state version [{}] using transport version [{}] with size [{}]",
                 clusterState.version(),
@@ -302,10 +310,12 @@ public class PublicationTransportHandler {
         TransportVersion version
     ) {
         final long clusterStateVersion = newState.version();
+        final long startTimeInNanos = System.nanoTime();
         final RecyclerBytesStreamOutput bytesStream = transportService.newNetworkBytesStream();
         boolean success = false;
         try {
             final long uncompressedBytes;
+            final SectionStatsCollector sections = new SectionStatsCollector();
             try (
                 StreamOutput stream = new PositionTrackingOutputStreamStreamOutput(
                     CompressorFactory.COMPRESSOR.threadLocalOutputStream(Streams.flushOnCloseStream(bytesStream))
@@ -313,7 +323,7 @@ public class PublicationTransportHandler {
             ) {
                 stream.setTransportVersion(version);
                 stream.writeBoolean(false);
-                diff.writeTo(stream);
+                ClusterState.writeDiffTo(diff, stream, sections);
                 if (version.onOrAfter(INCLUDES_LAST_COMMITTED_DATA_VERSION)) {
                     stream.writeBoolean(newState.metadata().clusterUUIDCommitted());
                     newState.getLastCommittedConfiguration().writeTo(stream);
@@ -323,7 +333,12 @@ public class PublicationTransportHandler {
                 throw new ElasticsearchException("failed to serialize cluster state diff for publishing to node {}", e, node);
             }
             final ReleasableBytesReference result = new ReleasableBytesReference(bytesStream.bytes(), bytesStream);
-            serializationStatsTracker.serializedDiff(uncompressedBytes, result.length());
+            serializationStatsTracker.serializedDiff(
+                uncompressedBytes,
+                result.length(),
+                System.nanoTime() - startTimeInNanos,
+                sections
+            );
             logger.trace(
                 "serialized cluster state diff for version [{}] using transport version [{}] with size [{}]",
                 clusterStateVersion,
@@ -547,26 +562,68 @@ public class PublicationTransportHandler {
         }
     }
 
+    /**
+     * Collects the size and serialization time of the sections of a single serialized cluster state or diff.
+     */
+    private static class SectionStatsCollector implements ClusterState.SectionListener {
+
+        private final long[] uncompressedBytes = new long[ClusterState.Section.values().length];
+        private final long[] serializationTimeInNanos = new long[ClusterState.Section.values().length];
+
+        @Override
+        public void onSectionWritten(ClusterState.Section section, long bytes, long timeInNanos) {
+            uncompressedBytes[section.ordinal()] += bytes;
+            serializationTimeInNanos[section.ordinal()] += timeInNanos;
+        }
+
+        void addTo(long[] totalUncompressedBytes, long[] totalSerializationTimeInNanos) {
+            for (int i = 0; i < uncompressedBytes.length; i++) {
+                totalUncompressedBytes[i] += uncompressedBytes[i];
+                totalSerializationTimeInNanos[i] += serializationTimeInNanos[i];
+            }
+        }
+    }
+
     private static class SerializationStatsTracker {
 
         private long fullStateCount;
         private long totalUncompressedFullStateBytes;
         private long totalCompressedFullStateBytes;
+        private long totalFullStateSerializationTimeInNanos;
+        private final long[] fullStateSectionBytes = new long[ClusterState.Section.values().length];
+        private final long[] fullStateSectionTimeInNanos = new long[ClusterState.Section.values().length];
 
         private long diffCount;
         private long totalUncompressedDiffBytes;
         private long totalCompressedDiffBytes;
-
-        public synchronized void serializedFullState(long uncompressedBytes, int compressedBytes) {
+        private long totalDiffSerializationTimeInNanos;
+        private final long[] diffSectionBytes = new long[ClusterState.Section.values().length];
+        private final long[] diffSectionTimeInNanos = new long[ClusterState.Section.values().length];
+
+        public synchronized void serializedFullState(
+            long uncompressedBytes,
+            int compressedBytes,
+            long serializationTimeInNanos,
+            SectionStatsCollector sections
+        ) {
             fullStateCount += 1;
             totalUncompressedFullStateBytes += uncompressedBytes;
             totalCompressedFullStateBytes += compressedBytes;
+            totalFullStateSerializationTimeInNanos += serializationTimeInNanos;
+            sections.addTo(fullStateSectionBytes, fullStateSectionTimeInNanos);
         }
 
-        public synchronized void serializedDiff(long uncompressedBytes, int compressedBytes) {
+        public synchronized void serializedDiff(
+            long uncompressedBytes,
+            int compressedBytes,
+            long serializationTimeInNanos,
+            SectionStatsCollector sections
+        ) {
             diffCount += 1;
             totalUncompressedDiffBytes += uncompressedBytes;
             totalCompressedDiffBytes += compressedBytes;
+            totalDiffSerializationTimeInNanos += serializationTimeInNanos;
+            sections.addTo(diffSectionBytes, diffSectionTimeInNanos);
         }
 
         public synchronized ClusterStateSerializationStats getSerializationStats() {
@@ -574,11 +631,26 @@ public class PublicationTransportHandler {
                 fullStateCount,
                 totalUncompressedFullStateBytes,
                 totalCompressedFullStateBytes,
+                totalFullStateSerializationTimeInNanos,
+                sectionStats(fullStateSectionBytes, fullStateSectionTimeInNanos),
                 diffCount,
                 totalUncompressedDiffBytes,
-                totalCompressedDiffBytes
+                totalCompressedDiffBytes,
+                totalDiffSerializationTimeInNanos,
+                sectionStats(diffSectionBytes, diffSectionTimeInNanos)
             );
         }
+
+        private static Map<String, ClusterStateSerializationStats.SectionStats> sectionStats(long[] bytes, long[] timeInNanos) {
+            final Map<String, ClusterStateSerializationStats.SectionStats> sections = new LinkedHashMap<>();
+            for (ClusterState.Section section : ClusterState.Section.values()) {
+                sections.put(
+                    section.getName(),
+                    new ClusterStateSerializationStats.SectionStats(bytes[section.ordinal()], timeInNanos[section.ordinal()])
+                );
+            }
+            return sections;
+        }
     }
 
 }
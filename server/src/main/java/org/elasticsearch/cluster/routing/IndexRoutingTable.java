@@ -9,6 +9,7 @@
 
 package org.elasticsearch.cluster.routing;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.Diff;
 import org.elasticsearch.cluster.SimpleDiffable;
@@ -346,8 +347,98 @@ public class IndexRoutingTable implements SimpleDiffable<IndexRoutingTable> {
         return builder.build();
     }
 
+    @Override
+    public Diff<IndexRoutingTable> diff(IndexRoutingTable previousState) {
+        if (this.equals(previousState)) {
+            return SimpleDiffable.empty();
+        }
+        if (index.equals(previousState.index) == false || shards.length != previousState.shards.length) {
+            return new IndexRoutingTableDiff(this, null);
+        }
+        final List<IndexShardRoutingTable> changedShards = new ArrayList<>();
+        for (int i = 0; i < shards.length; i++) {
+            if (shards[i] != previousState.shards[i] && shards[i].equals(previousState.shards[i]) == false) {
+                changedShards.add(shards[i]);
+            }
+        }
+        return new IndexRoutingTableDiff(this, changedShards.toArray(IndexShardRoutingTable[]::new));
+    }
+
     public static Diff<IndexRoutingTable> readDiffFrom(StreamInput in) throws IOException {
-        return SimpleDiffable.readDiffFrom(IndexRoutingTable::readFrom, in);
+        if (in.getTransportVersion().before(TransportVersions.ROUTING_TABLE_SHARD_DIFFS)) {
+            return SimpleDiffable.readDiffFrom(IndexRoutingTable::readFrom, in);
+        }
+        if (in.readBoolean() == false) {
+            return SimpleDiffable.empty();
+        }
+        if (in.readBoolean()) {
+            return new IndexRoutingTableDiff(readFrom(in), null);
+        }
+        final Index index = new Index(in);
+        final IndexShardRoutingTable[] changedShards = in.readArray(
+            i -> IndexShardRoutingTable.Builder.readFromThin(i, index).build(),
+            IndexShardRoutingTable[]::new
+        );
+        return new IndexRoutingTableDiff(index, changedShards);
+    }
+
+    /**
+     * A diff that only contains the shards whose routing changed, since a shard that starts or relocates leaves the routing of all
+     * the other shards of its index untouched. Falls back to the complete routing table if the number of shards changed and for
+     * nodes that do not know this format.
+     */
+    private static final class IndexRoutingTableDiff implements Diff<IndexRoutingTable> {
+
+        private final Index index;
+        // the complete routing table, not available when a diff of changed shards was read from the wire
+        @Nullable
+        private final IndexRoutingTable after;
+        // null if the diff replaces the whole routing table
+        @Nullable
+        private final IndexShardRoutingTable[] changedShards;
+
+        IndexRoutingTableDiff(IndexRoutingTable after, @Nullable IndexShardRoutingTable[] changedShards) {
+            this.index = after.index;
+            this.after = after;
+            this.changedShards = changedShards;
+        }
+
+        IndexRoutingTableDiff(Index index, IndexShardRoutingTable[] changedShards) {
+            this.index = index;
+            this.after = null;
+            this.changedShards = changedShards;
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeBoolean(true);
+            if (out.getTransportVersion().before(TransportVersions.ROUTING_TABLE_SHARD_DIFFS)) {
+                assert after != null : "diffs of changed shards are not sent on";
+                after.writeTo(out);
+            } else if (changedShards == null) {
+                out.writeBoolean(true);
+                after.writeTo(out);
+            } else {
+                out.writeBoolean(false);
+                index.writeTo(out);
+                out.writeArray((o, s) -> IndexShardRoutingTable.Builder.writeToThin(s, o), changedShards);
+            }
+        }
+
+        @Override
+        public IndexRoutingTable apply(IndexRoutingTable part) {
+            if (changedShards == null) {
+                return after;
+            }
+            if (part.index.equals(index) == false) {
+                throw new IllegalStateException("cannot apply diff of routing table for " + index + " to routing table for " + part.index);
+            }
+            final IndexShardRoutingTable[] shards = part.shards.clone();
+            for (IndexShardRoutingTable changedShard : changedShards) {
+                shards[changedShard.shardId().id()] = changedShard;
+            }
+            return new IndexRoutingTable(index, shards);
+        }
     }
 
     @Override
@@ -20,6 +20,7 @@ public class CacheBuilder<K, V> {
     private long expireAfterWriteNanos = -1;
     private ToLongBiFunction<K, V> weigher;
     private RemovalListener<K, V> removalListener;
+    private boolean frequencyAware;
 
     public static <K, V> CacheBuilder<K, V> builder() {
         return new CacheBuilder<>();
@@ -79,8 +80,43 @@ public class CacheBuilder<K, V> {
         return this;
     }
 
+    /**
+     * Sets whether the cache evicts entries based on their access frequency rather than on their recency only.
+     *
+     * @param frequencyAware {@code true} to build a {@link FrequencyAwareCache}, which doesn't serialize reads on a
+     *                       global lock and keeps frequently accessed entries in the cache when many entries are accessed
+     *                       only once, {@code false} (the default) to build an {@link LRUCache}
+     */
+    public CacheBuilder<K, V> setFrequencyAware(boolean frequencyAware) {
+        this.frequencyAware = frequencyAware;
+        return this;
+    }
+
     public Cache<K, V> build() {
-        Cache<K, V> cache = new Cache<>();
+        if (frequencyAware) {
+            return buildFrequencyAware();
+        }
+        LRUCache<K, V> cache = new LRUCache<>();
+        if (maximumWeight != -1) {
+            cache.setMaximumWeight(maximumWeight);
+        }
+        if (expireAfterAccessNanos != -1) {
+            cache.setExpireAfterAccessNanos(expireAfterAccessNanos);
+        }
+        if (expireAfterWriteNanos != -1) {
+            cache.setExpireAfterWriteNanos(expireAfterWriteNanos);
+        }
+        if (weigher != null) {
+            cache.setWeigher(weigher);
+        }
+        if (removalListener != null) {
+            cache.setRemovalListener(removalListener);
+        }
+        return cache;
+    }
+
+    private FrequencyAwareCache<K, V> buildFrequencyAware() {
+        FrequencyAwareCache<K, V> cache = new FrequencyAwareCache<>();
         if (maximumWeight != -1) {
             cache.setMaximumWeight(maximumWeight);
         }
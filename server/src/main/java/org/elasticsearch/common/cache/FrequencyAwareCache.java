@@ -0,0 +1,974 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.common.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * A concurrent cache with frequency-aware admission.
+ * <p>
+ * Entries are stored in a {@link ConcurrentHashMap} so that lookups never take a lock. Unlike {@link LRUCache} the
+ * eviction policy is not updated on every access: reads are recorded into striped, lossy ring buffers and writes into
+ * a queue, and both are replayed against the policy in batches by whichever thread manages to acquire the eviction
+ * lock without blocking. A read never waits for the eviction lock, a write only waits if too many writes are pending.
+ * <p>
+ * The eviction policy is W-TinyLFU. New entries enter a small LRU admission window. Entries that overflow the window
+ * become candidates for the main space, which is a segmented LRU made of a probation and a protected segment. When the
+ * cache exceeds its maximum weight, a candidate is only admitted if it has been accessed more frequently than the entry
+ * it would evict from the probation segment, as estimated by a {@link FrequencySketch}. This keeps frequently accessed
+ * entries in the cache when a burst of entries that are accessed only once goes through it.
+ * <p>
+ * Expired entries are never returned, but like with {@link LRUCache} they are only removed from the cache during
+ * maintenance, on {@link #computeIfAbsent} or on an explicit call to {@link #refresh()}.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+public class FrequencyAwareCache<K, V> implements Cache<K, V> {
+
+    // percentage of the maximum weight that is used as admission window
+    static final double WINDOW_PERCENTAGE = 0.01;
+
+    // percentage of the main space that is used for the protected segment
+    static final double PROTECTED_PERCENTAGE = 0.8;
+
+    // number of pending writes after which writers wait for the eviction lock to apply them
+    static final int MAX_PENDING_WRITES = 1024;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    // positive if entries have an expiration
+    private long expireAfterAccessNanos = -1;
+
+    // true if entries can expire after access
+    private boolean entriesExpireAfterAccess;
+
+    // positive if entries have an expiration after write
+    private long expireAfterWriteNanos = -1;
+
+    // true if entries can expire after initial insertion
+    private boolean entriesExpireAfterWrite;
+
+    // the maximum weight that this cache supports
+    private long maximumWeight = -1;
+
+    // the weigher of entries
+    private ToLongBiFunction<K, V> weigher = (k, v) -> 1;
+
+    // the removal callback
+    private RemovalListener<K, V> removalListener = notification -> {};
+
+    private final ConcurrentHashMap<K, CompletableFuture<Node<K, V>>> map = new ConcurrentHashMap<>();
+
+    private final ReadBuffer<Node<K, V>> readBuffer = new ReadBuffer<>();
+
+    private final Queue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+
+    private final AtomicBoolean drainRequired = new AtomicBoolean();
+
+    // lock protecting the eviction policy, everything below is only accessed while holding it
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final AccessOrderQueue<K, V> window = new AccessOrderQueue<>();
+
+    private final AccessOrderQueue<K, V> probation = new AccessOrderQueue<>();
+
+    private final AccessOrderQueue<K, V> protectedSegment = new AccessOrderQueue<>();
+
+    // all entries of the eviction policy in write order, only maintained if entries can expire after write
+    private final WriteOrderQueue<K, V> writeOrder = new WriteOrderQueue<>();
+
+    private final FrequencySketch sketch = new FrequencySketch();
+
+    // the number of entries in the eviction policy
+    private int count = 0;
+
+    // the weight of the entries in the eviction policy
+    private long weight = 0;
+
+    private long windowWeight = 0;
+
+    private long protectedWeight = 0;
+
+    // use CacheBuilder to construct
+    FrequencyAwareCache() {
+        sketch.ensureCapacity(16);
+    }
+
+    void setExpireAfterAccessNanos(long expireAfterAccessNanos) {
+        if (expireAfterAccessNanos <= 0) {
+            throw new IllegalArgumentException("expireAfterAccessNanos <= 0");
+        }
+        this.expireAfterAccessNanos = expireAfterAccessNanos;
+        this.entriesExpireAfterAccess = true;
+    }
+
+    // pkg-private for testing
+    long getExpireAfterAccessNanos() {
+        return this.expireAfterAccessNanos;
+    }
+
+    void setExpireAfterWriteNanos(long expireAfterWriteNanos) {
+        if (expireAfterWriteNanos <= 0) {
+            throw new IllegalArgumentException("expireAfterWriteNanos <= 0");
+        }
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.entriesExpireAfterWrite = true;
+    }
+
+    // pkg-private for testing
+    long getExpireAfterWriteNanos() {
+        return this.expireAfterWriteNanos;
+    }
+
+    void setMaximumWeight(long maximumWeight) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("maximumWeight < 0");
+        }
+        this.maximumWeight = maximumWeight;
+    }
+
+    void setWeigher(ToLongBiFunction<K, V> weigher) {
+        Objects.requireNonNull(weigher);
+        this.weigher = weigher;
+    }
+
+    void setRemovalListener(RemovalListener<K, V> removalListener) {
+        Objects.requireNonNull(removalListener);
+        this.removalListener = removalListener;
+    }
+
+    /**
+     * The relative time used to track time-based evictions.
+     *
+     * @return the current relative time
+     */
+    protected long now() {
+        // System.nanoTime takes non-negligible time, so we only use it if we need it
+        // use System.nanoTime because we want relative time, not absolute time
+        return entriesExpireAfterAccess || entriesExpireAfterWrite ? System.nanoTime() : 0;
+    }
+
+    // the segment of the eviction policy an entry belongs to
+    enum Segment {
+        WINDOW,
+        PROBATION,
+        PROTECTED
+    }
+
+    static final class Node<K, V> {
+        final K key;
+        final V value;
+        final long weight;
+        final long writeTime;
+        final int hash;
+        volatile long accessTime;
+        // set once the entry has been removed from the map, by the thread that removed it
+        volatile boolean retired;
+        CompletableFuture<Node<K, V>> future;
+        // only accessed under the eviction lock
+        Node<K, V> before;
+        Node<K, V> after;
+        Node<K, V> beforeInWriteOrder;
+        Node<K, V> afterInWriteOrder;
+        Segment segment;
+
+        Node(K key, V value, long weight, long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.hash = FrequencySketch.spread(key.hashCode());
+            this.writeTime = this.accessTime = writeTime;
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        Node<K, V> node = getNode(key, now(), false);
+        return node == null ? null : node.value;
+    }
+
+    private Node<K, V> getNode(K key, long now, boolean eagerEvict) {
+        CompletableFuture<Node<K, V>> future = map.get(key);
+        if (future == null) {
+            misses.increment();
+            return null;
+        }
+        Node<K, V> node;
+        try {
+            node = future.get();
+        } catch (ExecutionException e) {
+            assert future.isCompletedExceptionally();
+            misses.increment();
+            return null;
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        if (isExpired(node, now)) {
+            misses.increment();
+            if (eagerEvict && map.remove(key, future)) {
+                evictions.increment();
+                retire(node, RemovalNotification.RemovalReason.EVICTED);
+            }
+            return null;
+        }
+        hits.increment();
+        if (entriesExpireAfterAccess) {
+            node.accessTime = now;
+        }
+        if (readBuffer.offer(node) == false) {
+            scheduleDrain();
+        }
+        return node;
+    }
+
+    @Override
+    public V computeIfAbsent(K key, CacheLoader<K, V> loader) throws ExecutionException {
+        long now = now();
+        // we have to eagerly evict expired entries or our putIfAbsent call below will fail
+        Node<K, V> node = getNode(key, now, true);
+        if (node != null) {
+            return node.value;
+        }
+        // as in LRUCache we must not invoke the loader while holding a lock of the map, so we install a future that
+        // other callers wait on and complete it on the thread that won the race to install it
+        CompletableFuture<Node<K, V>> completableFuture = new CompletableFuture<>();
+        CompletableFuture<Node<K, V>> future = map.putIfAbsent(key, completableFuture);
+        if (future == null) {
+            V loaded;
+            try {
+                loaded = loader.load(key);
+            } catch (Exception e) {
+                map.remove(key, completableFuture);
+                completableFuture.completeExceptionally(e);
+                throw new ExecutionException(e);
+            }
+            if (loaded == null) {
+                NullPointerException npe = new NullPointerException("loader returned a null value");
+                map.remove(key, completableFuture);
+                completableFuture.completeExceptionally(npe);
+                throw new ExecutionException(npe);
+            }
+            Node<K, V> added = new Node<>(key, loaded, weigher.applyAsLong(key, loaded), now);
+            added.future = completableFuture;
+            completableFuture.complete(added);
+            afterWrite(() -> onAdd(added));
+            return loaded;
+        }
+        try {
+            node = future.get();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        if (entriesExpireAfterAccess) {
+            node.accessTime = now;
+        }
+        if (readBuffer.offer(node) == false) {
+            scheduleDrain();
+        }
+        return node.value;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        Node<K, V> node = new Node<>(key, value, weigher.applyAsLong(key, value), now());
+        node.future = CompletableFuture.completedFuture(node);
+        CompletableFuture<Node<K, V>> previous = map.put(key, node.future);
+        afterWrite(() -> onAdd(node));
+        if (previous != null) {
+            Node<K, V> replaced = previous.handle((ok, ex) -> ok).join();
+            if (replaced != null) {
+                retire(replaced, RemovalNotification.RemovalReason.REPLACED);
+            }
+        }
+    }
+
+    @Override
+    public void invalidate(K key) {
+        CompletableFuture<Node<K, V>> future = map.remove(key);
+        if (future != null) {
+            Node<K, V> node = future.handle((ok, ex) -> ok).join();
+            if (node != null) {
+                evictions.increment();
+                retire(node, RemovalNotification.RemovalReason.INVALIDATED);
+            }
+        }
+    }
+
+    @Override
+    public void invalidate(K key, V value) {
+        CompletableFuture<Node<K, V>> future = map.get(key);
+        if (future != null && future.isDone() && future.isCompletedExceptionally() == false) {
+            Node<K, V> node = future.join();
+            if (Objects.equals(value, node.value) && map.remove(key, future)) {
+                evictions.increment();
+                retire(node, RemovalNotification.RemovalReason.INVALIDATED);
+            }
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        for (Map.Entry<K, CompletableFuture<Node<K, V>>> entry : map.entrySet()) {
+            CompletableFuture<Node<K, V>> future = entry.getValue();
+            if (future.isDone() && map.remove(entry.getKey(), future)) {
+                Node<K, V> node = future.handle((ok, ex) -> ok).join();
+                if (node != null) {
+                    retire(node, RemovalNotification.RemovalReason.INVALIDATED);
+                }
+            }
+        }
+        cleanUp();
+    }
+
+    @Override
+    public void refresh() {
+        cleanUp();
+    }
+
+    @Override
+    public int count() {
+        cleanUp();
+        return count;
+    }
+
+    @Override
+    public long weight() {
+        cleanUp();
+        return weight;
+    }
+
+    @Override
+    public Iterable<K> keys() {
+        return () -> new Iterator<>() {
+            private final EntryIterator iterator = new EntryIterator();
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public K next() {
+                return iterator.next().key;
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+            }
+        };
+    }
+
+    @Override
+    public Iterable<V> values() {
+        return () -> new Iterator<>() {
+            private final EntryIterator iterator = new EntryIterator();
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public V next() {
+                return iterator.next().value;
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+            }
+        };
+    }
+
+    @Override
+    public void forEach(BiConsumer<K, V> consumer) {
+        for (CompletableFuture<Node<K, V>> future : map.values()) {
+            if (future.isDone() && future.isCompletedExceptionally() == false) {
+                Node<K, V> node = future.join();
+                consumer.accept(node.key, node.value);
+            }
+        }
+    }
+
+    @Override
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private class EntryIterator implements Iterator<Node<K, V>> {
+        private final Iterator<CompletableFuture<Node<K, V>>> futures = map.values().iterator();
+        private Node<K, V> current;
+        private Node<K, V> next;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && futures.hasNext()) {
+                CompletableFuture<Node<K, V>> future = futures.next();
+                if (future.isDone() && future.isCompletedExceptionally() == false) {
+                    next = future.join();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Node<K, V> next() {
+            if (hasNext() == false) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            next = null;
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            Node<K, V> node = current;
+            if (node != null) {
+                current = null;
+                if (map.remove(node.key, node.future)) {
+                    evictions.increment();
+                    retire(node, RemovalNotification.RemovalReason.INVALIDATED);
+                }
+            }
+        }
+    }
+
+    /**
+     * Called by the thread that removed the node from the map, which is the only one to notify the removal listener.
+     */
+    private void retire(Node<K, V> node, RemovalNotification.RemovalReason removalReason) {
+        node.retired = true;
+        afterWrite(() -> onRemove(node));
+        removalListener.onRemoval(new RemovalNotification<>(node.key, node.value, removalReason));
+    }
+
+    private void afterWrite(Runnable task) {
+        writeBuffer.add(task);
+        if (pendingWrites.incrementAndGet() > MAX_PENDING_WRITES) {
+            // the threads that perform maintenance can't keep up, apply back pressure
+            cleanUp();
+        } else {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Performs maintenance if the eviction lock is available. If it isn't, the thread holding it checks for pending
+     * work again after releasing it, so no task is left behind.
+     */
+    private void scheduleDrain() {
+        drainRequired.set(true);
+        if (evictionLock.isHeldByCurrentThread()) {
+            // called from a removal listener during maintenance, the pending work is picked up once the lock is released
+            return;
+        }
+        while (drainRequired.get() && evictionLock.tryLock()) {
+            try {
+                drainRequired.set(false);
+                maintenance(now());
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void cleanUp() {
+        if (evictionLock.isHeldByCurrentThread()) {
+            drainRequired.set(true);
+            return;
+        }
+        evictionLock.lock();
+        try {
+            drainRequired.set(false);
+            maintenance(now());
+        } finally {
+            evictionLock.unlock();
+        }
+        // pending work may have been recorded while we were waiting for the lock
+        if (drainRequired.get()) {
+            scheduleDrain();
+        }
+    }
+
+    private void maintenance(long now) {
+        assert evictionLock.isHeldByCurrentThread();
+        readBuffer.drain(this::onAccess);
+        Runnable task;
+        while ((task = writeBuffer.poll()) != null) {
+            pendingWrites.decrementAndGet();
+            task.run();
+        }
+        expire(now);
+        evict();
+    }
+
+    private void onAdd(Node<K, V> node) {
+        assert evictionLock.isHeldByCurrentThread();
+        if (node.retired) {
+            // removed before it made it to the eviction policy
+            return;
+        }
+        count++;
+        weight += node.weight;
+        sketch.ensureCapacity(count);
+        sketch.increment(node.hash);
+        node.segment = Segment.WINDOW;
+        window.addLast(node);
+        windowWeight += node.weight;
+        if (entriesExpireAfterWrite) {
+            writeOrder.addLast(node);
+        }
+    }
+
+    private void onRemove(Node<K, V> node) {
+        assert evictionLock.isHeldByCurrentThread();
+        unlink(node);
+    }
+
+    private void onAccess(Node<K, V> node) {
+        assert evictionLock.isHeldByCurrentThread();
+        if (node.segment == null) {
+            // not added yet or already removed
+            return;
+        }
+        sketch.increment(node.hash);
+        switch (node.segment) {
+            case WINDOW -> window.moveToLast(node);
+            case PROBATION -> {
+                probation.remove(node);
+                node.segment = Segment.PROTECTED;
+                protectedSegment.addLast(node);
+                protectedWeight += node.weight;
+                demoteFromProtected();
+            }
+            case PROTECTED -> protectedSegment.moveToLast(node);
+        }
+    }
+
+    private void demoteFromProtected() {
+        if (maximumWeight == -1) {
+            return;
+        }
+        long maximumProtectedWeight = (long) ((maximumWeight - maximumWindowWeight()) * PROTECTED_PERCENTAGE);
+        while (protectedWeight > maximumProtectedWeight) {
+            Node<K, V> demoted = protectedSegment.pollFirst();
+            if (demoted == null) {
+                break;
+            }
+            protectedWeight -= demoted.weight;
+            demoted.segment = Segment.PROBATION;
+            probation.addLast(demoted);
+        }
+    }
+
+    private long maximumWindowWeight() {
+        return Math.max(1, (long) (maximumWeight * WINDOW_PERCENTAGE));
+    }
+
+    private void expire(long now) {
+        if (entriesExpireAfterAccess) {
+            // each segment is in access order, so we can stop at the first entry that hasn't expired
+            for (AccessOrderQueue<K, V> queue : List.of(window, probation, protectedSegment)) {
+                Node<K, V> node;
+                while ((node = queue.peekFirst()) != null && isExpired(node, now)) {
+                    evictNode(node);
+                }
+            }
+        }
+        if (entriesExpireAfterWrite) {
+            // reads reorder the segments but not the write order queue, which is the one to scan for expired writes
+            Node<K, V> node;
+            while ((node = writeOrder.peekFirst()) != null && now - node.writeTime > expireAfterWriteNanos) {
+                evictNode(node);
+            }
+        }
+    }
+
+    private void evict() {
+        if (maximumWeight == -1) {
+            return;
+        }
+        // entries that overflow the admission window become candidates at the tail of the probation segment
+        long maximumWindowWeight = maximumWindowWeight();
+        while (windowWeight > maximumWindowWeight) {
+            Node<K, V> candidate = window.pollFirst();
+            if (candidate == null) {
+                break;
+            }
+            windowWeight -= candidate.weight;
+            candidate.segment = Segment.PROBATION;
+            probation.addLast(candidate);
+        }
+        while (weight > maximumWeight) {
+            Node<K, V> victim = probation.peekFirst();
+            Node<K, V> candidate = probation.peekLast();
+            if (victim == null) {
+                victim = protectedSegment.peekFirst();
+                if (victim == null) {
+                    victim = window.peekFirst();
+                }
+                if (victim == null) {
+                    break;
+                }
+                evictNode(victim);
+            } else if (victim == candidate || admit(candidate, victim)) {
+                evictNode(victim);
+            } else {
+                evictNode(candidate);
+            }
+        }
+    }
+
+    /**
+     * Whether the candidate should replace the victim in the main space of the cache.
+     */
+    private boolean admit(Node<K, V> candidate, Node<K, V> victim) {
+        int candidateFrequency = sketch.frequency(candidate.hash);
+        int victimFrequency = sketch.frequency(victim.hash);
+        if (candidateFrequency > victimFrequency) {
+            return true;
+        } else if (candidateFrequency <= 5) {
+            return false;
+        }
+        // admit a warm candidate once in a while so that an attacker can't pin a victim by flooding its hash
+        return (ThreadLocalRandom.current().nextInt() & 127) == 0;
+    }
+
+    private void evictNode(Node<K, V> node) {
+        assert evictionLock.isHeldByCurrentThread();
+        unlink(node);
+        // the entry may have been replaced or invalidated concurrently, in which case the other thread notifies
+        if (map.remove(node.key, node.future)) {
+            node.retired = true;
+            evictions.increment();
+            removalListener.onRemoval(new RemovalNotification<>(node.key, node.value, RemovalNotification.RemovalReason.EVICTED));
+        }
+    }
+
+    private void unlink(Node<K, V> node) {
+        assert evictionLock.isHeldByCurrentThread();
+        if (node.segment == null) {
+            return;
+        }
+        switch (node.segment) {
+            case WINDOW -> {
+                window.remove(node);
+                windowWeight -= node.weight;
+            }
+            case PROBATION -> probation.remove(node);
+            case PROTECTED -> {
+                protectedSegment.remove(node);
+                protectedWeight -= node.weight;
+            }
+        }
+        if (entriesExpireAfterWrite) {
+            writeOrder.remove(node);
+        }
+        node.segment = null;
+        count--;
+        weight -= node.weight;
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+        return (entriesExpireAfterAccess && now - node.accessTime > expireAfterAccessNanos)
+            || (entriesExpireAfterWrite && now - node.writeTime > expireAfterWriteNanos);
+    }
+
+    // pkg-private for testing
+    List<K> keysInSegment(Segment segment) {
+        evictionLock.lock();
+        try {
+            AccessOrderQueue<K, V> queue = switch (segment) {
+                case WINDOW -> window;
+                case PROBATION -> probation;
+                case PROTECTED -> protectedSegment;
+            };
+            List<K> keys = new ArrayList<>();
+            for (Node<K, V> node = queue.head; node != null; node = node.after) {
+                keys.add(node.key);
+            }
+            return keys;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * A doubly-linked list of nodes in access order, least recently accessed first.
+     */
+    private static final class AccessOrderQueue<K, V> {
+        Node<K, V> head;
+        Node<K, V> tail;
+
+        Node<K, V> peekFirst() {
+            return head;
+        }
+
+        Node<K, V> peekLast() {
+            return tail;
+        }
+
+        Node<K, V> pollFirst() {
+            Node<K, V> node = head;
+            if (node != null) {
+                remove(node);
+            }
+            return node;
+        }
+
+        void addLast(Node<K, V> node) {
+            node.before = tail;
+            node.after = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.after = node;
+            }
+            tail = node;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (tail != node) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.before == null) {
+                head = node.after;
+            } else {
+                node.before.after = node.after;
+            }
+            if (node.after == null) {
+                tail = node.before;
+            } else {
+                node.after.before = node.before;
+            }
+            node.before = null;
+            node.after = null;
+        }
+    }
+
+    /**
+     * A doubly-linked list of nodes in the order they were added to the eviction policy, oldest first. Writes are
+     * applied in the order they were recorded, so this is also the order of {@link Node#writeTime}, up to the few
+     * nanoseconds between taking the time and recording the write.
+     */
+    private static final class WriteOrderQueue<K, V> {
+        Node<K, V> head;
+        Node<K, V> tail;
+
+        Node<K, V> peekFirst() {
+            return head;
+        }
+
+        void addLast(Node<K, V> node) {
+            node.beforeInWriteOrder = tail;
+            node.afterInWriteOrder = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.afterInWriteOrder = node;
+            }
+            tail = node;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.beforeInWriteOrder == null) {
+                head = node.afterInWriteOrder;
+            } else {
+                node.beforeInWriteOrder.afterInWriteOrder = node.afterInWriteOrder;
+            }
+            if (node.afterInWriteOrder == null) {
+                tail = node.beforeInWriteOrder;
+            } else {
+                node.afterInWriteOrder.beforeInWriteOrder = node.beforeInWriteOrder;
+            }
+            node.beforeInWriteOrder = null;
+            node.afterInWriteOrder = null;
+        }
+    }
+
+    /**
+     * Striped, lossy ring buffers recording reads. Each thread records into the stripe its id maps to; if the stripe is
+     * full the read is dropped, which only makes the eviction policy slightly less accurate.
+     */
+    static final class ReadBuffer<E> {
+        static final int STRIPE_SIZE = 16;
+        static final int STRIPE_MASK = STRIPE_SIZE - 1;
+
+        private final Stripe<E>[] stripes;
+
+        @SuppressWarnings("unchecked")
+        ReadBuffer() {
+            int numberOfStripes = Integer.highestOneBit(Math.min(64, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+            stripes = new Stripe[numberOfStripes];
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new Stripe<>();
+            }
+        }
+
+        /**
+         * Records the element, returns {@code false} if the stripe is full and should be drained.
+         */
+        boolean offer(E e) {
+            long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+            Stripe<E> stripe = stripes[(int) (h >>> 32) & (stripes.length - 1)];
+            long tail = stripe.writeCounter.get();
+            if (tail - stripe.readCounter >= STRIPE_SIZE) {
+                return false;
+            }
+            if (stripe.writeCounter.compareAndSet(tail, tail + 1)) {
+                stripe.buffer.lazySet((int) (tail & STRIPE_MASK), e);
+            }
+            return true;
+        }
+
+        /**
+         * Replays the recorded elements, must not be called concurrently.
+         */
+        void drain(Consumer<E> consumer) {
+            for (Stripe<E> stripe : stripes) {
+                long head = stripe.readCounter;
+                long tail = stripe.writeCounter.get();
+                for (; head < tail; head++) {
+                    int index = (int) (head & STRIPE_MASK);
+                    E e = stripe.buffer.get(index);
+                    if (e == null) {
+                        // the writer has claimed the slot but not published the element yet
+                        break;
+                    }
+                    stripe.buffer.lazySet(index, null);
+                    consumer.accept(e);
+                }
+                stripe.readCounter = head;
+            }
+        }
+
+        private static final class Stripe<E> {
+            final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(STRIPE_SIZE);
+            final AtomicLong writeCounter = new AtomicLong();
+            volatile long readCounter;
+        }
+    }
+
+    /**
+     * A count-min sketch estimating the frequency of keys with four 4-bit counters per key. All counters are halved
+     * periodically so that the estimated frequencies favor recent accesses. Not thread-safe, only accessed under the
+     * eviction lock.
+     */
+    static final class FrequencySketch {
+        private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private static final long ONE_MASK = 0x1111111111111111L;
+
+        private long[] table;
+        private int tableMask;
+        private int sampleSize;
+        private int size;
+
+        void ensureCapacity(long maximumSize) {
+            int maximum = (int) Math.min(Math.max(maximumSize, 1), Integer.MAX_VALUE >>> 1);
+            if (table != null && table.length >= maximum) {
+                return;
+            }
+            table = new long[Math.max(Integer.highestOneBit(maximum - 1) << 1, 8)];
+            tableMask = table.length - 1;
+            sampleSize = 10 * maximum;
+            if (sampleSize <= 0) {
+                sampleSize = Integer.MAX_VALUE;
+            }
+            size = 0;
+        }
+
+        int frequency(int hash) {
+            int start = (hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        void increment(int hash) {
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                added |= incrementAt(indexOf(hash, i), start + i);
+            }
+            if (added && ++size >= sampleSize) {
+                reset();
+            }
+        }
+
+        private boolean incrementAt(int index, int counter) {
+            int offset = counter << 2;
+            long mask = 0xfL << offset;
+            if ((table[index] & mask) != mask) {
+                table[index] += 1L << offset;
+                return true;
+            }
+            return false;
+        }
+
+        private void reset() {
+            int count = 0;
+            for (int i = 0; i < table.length; i++) {
+                count += Long.bitCount(table[i] & ONE_MASK);
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            size = (size >>> 1) - (count >>> 2);
+        }
+
+        private int indexOf(int item, int i) {
+            long hash = (item + SEEDS[i]) * SEEDS[i];
+            hash += (hash >>> 32);
+            return ((int) hash) & tableMask;
+        }
+
+        static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.http;
+
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.core.Releasable;
+
+/**
+ * The body of an http request that is passed to its handler in chunks as it arrives instead of being aggregated in memory first. See
+ * {@link HttpRequest#contentStream()}.
+ */
+public interface HttpBody {
+
+    /**
+     * A stream of chunks of a request body. Chunks are only read from the network once the consumer asks for them with
+     * {@link #next()}, which pushes back on the client while the consumer is busy with the previous chunk.
+     */
+    interface Stream extends Releasable {
+
+        /**
+         * Sets the handler that receives the chunks. Must be called before the first call to {@link #next()}.
+         */
+        void setHandler(ChunkHandler chunkHandler);
+
+        /**
+         * Asks for the next chunk, which is passed to the {@link ChunkHandler} once it is available, possibly on another thread. Must
+         * not be called again before the handler received the chunk, nor after it received the last chunk.
+         */
+        void next();
+
+        /**
+         * Stops the stream. Chunks that have not been passed to the handler yet, and the rest of the body, are discarded and the handler
+         * is {@link ChunkHandler#close() closed}. Called when the request is released so it's safe to call more than once.
+         */
+        @Override
+        void close();
+    }
+
+    /**
+     * Receives the chunks of a {@link Stream}.
+     */
+    interface ChunkHandler extends Releasable {
+
+        /**
+         * Handles the next chunk of the body. The handler owns the chunk and must release it once it is done with it.
+         *
+         * @param chunk  the next chunk of the body, possibly empty
+         * @param isLast whether this is the last chunk of the body
+         */
+        void onNext(ReleasableBytesReference chunk, boolean isLast);
+
+        /**
+         * Called instead of {@link #onNext} when the requested chunk can't be passed to the handler, for instance because holding on
+         * to it would trip a circuit breaker. No more chunks follow. Closes the handler by default.
+         */
+        default void onFailure(Exception e) {
+            close();
+        }
+
+        /**
+         * Called when the stream is closed, either because the request was released or because the channel was closed before the
+         * whole body was received.
+         */
+        @Override
+        default void close() {}
+    }
+}
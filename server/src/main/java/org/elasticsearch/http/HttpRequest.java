@@ -28,8 +28,21 @@ public interface HttpRequest extends HttpPreRequest {
         HTTP_1_1
     }
 
+    /**
+     * The body of the request. This is empty if the body is {@link #contentStream() streamed}.
+     */
     BytesReference content();
 
+    /**
+     * The body of the request as a stream of chunks if the http module passes it to the handler as it arrives rather than
+     * aggregating it first, which it only does for handlers that {@link org.elasticsearch.rest.RestHandler#supportsContentStream()
+     * support it}. Otherwise {@code null}.
+     */
+    @Nullable
+    default HttpBody.Stream contentStream() {
+        return null;
+    }
+
     List<String> strictCookies();
 
     HttpVersion protocolVersion();
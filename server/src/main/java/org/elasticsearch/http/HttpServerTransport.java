@@ -55,6 +55,15 @@ public interface HttpServerTransport extends LifecycleComponent, ReportingServic
          */
         void dispatchBadRequest(RestChannel channel, ThreadContext threadContext, Throwable cause);
 
+        /**
+         * Whether the handler of the given request consumes its body as a stream of chunks, see
+         * {@link org.elasticsearch.rest.RestHandler#supportsContentStream()}. Called on the network thread once the headers of the
+         * request have been received, so this must not block.
+         */
+        default boolean supportsContentStream(HttpPreRequest request) {
+            return false;
+        }
+
         default Map<String, HttpRouteStats> getStats() {
             return Map.of();
         }
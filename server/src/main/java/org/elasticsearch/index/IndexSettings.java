@@ -92,6 +92,30 @@ public final class IndexSettings {
         Property.Dynamic,
         Property.IndexScope
     );
+    /**
+     * How long a translog sync requested by a write may be delayed so that it can be batched with the syncs requested by the writes
+     * that arrive in the meantime. Defaults to {@code 0}, which syncs as soon as possible.
+     */
+    public static final Setting<TimeValue> INDEX_TRANSLOG_GROUP_COMMIT_MAX_DELAY_SETTING = Setting.timeSetting(
+        "index.translog.group_commit.max_delay",
+        TimeValue.ZERO,
+        TimeValue.ZERO,
+        TimeValue.timeValueSeconds(1),
+        Property.Dynamic,
+        Property.IndexScope
+    );
+    /**
+     * The amount of unsynced translog data above which a delayed translog sync is executed without waiting for
+     * {@link #INDEX_TRANSLOG_GROUP_COMMIT_MAX_DELAY_SETTING} to elapse.
+     */
+    public static final Setting<ByteSizeValue> INDEX_TRANSLOG_GROUP_COMMIT_MAX_BYTES_SETTING = Setting.byteSizeSetting(
+        "index.translog.group_commit.max_bytes",
+        ByteSizeValue.ofMb(1),
+        ByteSizeValue.ZERO,
+        ByteSizeValue.ofBytes(Long.MAX_VALUE),
+        Property.Dynamic,
+        Property.IndexScope
+    );
     public static final Setting<TimeValue> INDEX_SEARCH_IDLE_AFTER = Setting.timeSetting(
         "index.search.idle.after",
         TimeValue.timeValueSeconds(30),
@@ -202,6 +226,17 @@ public final class IndexSettings {
         Property.IndexScope
     );
 
+    /**
+     * Index setting to pick exact or graph search for each segment of a filtered kNN search based on how many of its documents
+     * match the filter.
+     */
+    public static final Setting<Boolean> KNN_ADAPTIVE_FILTERED_SEARCH_ENABLED_SETTING = Setting.boolSetting(
+        "index.knn.adaptive_filtered_search.enabled",
+        false,
+        Property.Dynamic,
+        Property.IndexScope
+    );
+
     /**
      * Index setting describing the maximum number of terms that can be used in Terms Query.
      * The default maximum of 65536 terms is defensive, as extra processing and memory is involved
@@ -725,6 +760,8 @@ public final class IndexSettings {
     private final boolean defaultAllowUnmappedFields;
     private volatile Translog.Durability durability;
     private volatile TimeValue syncInterval;
+    private volatile TimeValue groupCommitMaxDelay;
+    private volatile ByteSizeValue groupCommitMaxBytes;
     private volatile TimeValue refreshInterval;
     private final boolean fastRefresh;
     private volatile ByteSizeValue flushThresholdSize;
@@ -767,6 +804,7 @@ public final class IndexSettings {
     private volatile TimeValue searchIdleAfter;
     private volatile int maxAnalyzedOffset;
     private volatile boolean weightMatchesEnabled;
+    private volatile boolean knnAdaptiveFilteredSearchEnabled;
     private volatile int maxTermsCount;
     private volatile String defaultPipeline;
     private volatile String requiredPipeline;
@@ -887,6 +925,8 @@ public final class IndexSettings {
         this.durability = scopedSettings.get(INDEX_TRANSLOG_DURABILITY_SETTING);
         defaultFields = scopedSettings.get(DEFAULT_FIELD_SETTING);
         syncInterval = INDEX_TRANSLOG_SYNC_INTERVAL_SETTING.get(settings);
+        groupCommitMaxDelay = scopedSettings.get(INDEX_TRANSLOG_GROUP_COMMIT_MAX_DELAY_SETTING);
+        groupCommitMaxBytes = scopedSettings.get(INDEX_TRANSLOG_GROUP_COMMIT_MAX_BYTES_SETTING);
         refreshInterval = scopedSettings.get(INDEX_REFRESH_INTERVAL_SETTING);
         fastRefresh = scopedSettings.get(INDEX_FAST_REFRESH_SETTING);
         if (fastRefresh) {
@@ -920,6 +960,7 @@ public final class IndexSettings {
         maxSlicesPerScroll = scopedSettings.get(MAX_SLICES_PER_SCROLL);
         maxAnalyzedOffset = scopedSettings.get(MAX_ANALYZED_OFFSET_SETTING);
         weightMatchesEnabled = scopedSettings.get(WEIGHT_MATCHES_MODE_ENABLED_SETTING);
+        knnAdaptiveFilteredSearchEnabled = scopedSettings.get(KNN_ADAPTIVE_FILTERED_SEARCH_ENABLED_SETTING);
         maxTermsCount = scopedSettings.get(MAX_TERMS_COUNT_SETTING);
         maxRegexLength = scopedSettings.get(MAX_REGEX_LENGTH_SETTING);
         this.mergePolicyConfig = new MergePolicyConfig(logger, this);
@@ -978,8 +1019,17 @@ public final class IndexSettings {
             mergeSchedulerConfig::setMaxThreadAndMergeCount
         );
         scopedSettings.addSettingsUpdateConsumer(MergeSchedulerConfig.AUTO_THROTTLE_SETTING, mergeSchedulerConfig::setAutoThrottle);
+        scopedSettings.addSettingsUpdateConsumer(
+            MergeSchedulerConfig.VECTOR_MERGE_WORKERS_SETTING,
+            mergeSchedulerConfig::setVectorMergeWorkers
+        );
         scopedSettings.addSettingsUpdateConsumer(INDEX_TRANSLOG_DURABILITY_SETTING, this::setTranslogDurability);
         scopedSettings.addSettingsUpdateConsumer(INDEX_TRANSLOG_SYNC_INTERVAL_SETTING, this::setTranslogSyncInterval);
+        scopedSettings.addSettingsUpdateConsumer(
+            INDEX_TRANSLOG_GROUP_COMMIT_MAX_DELAY_SETTING,
+            INDEX_TRANSLOG_GROUP_COMMIT_MAX_BYTES_SETTING,
+            this::setTranslogGroupCommit
+        );
         scopedSettings.addSettingsUpdateConsumer(MAX_RESULT_WINDOW_SETTING, this::setMaxResultWindow);
         scopedSettings.addSettingsUpdateConsumer(MAX_INNER_RESULT_WINDOW_SETTING, this::setMaxInnerResultWindow);
         scopedSettings.addSettingsUpdateConsumer(MAX_RESCORE_WINDOW_SETTING, this::setMaxRescoreWindow);
@@ -998,6 +1048,7 @@ public final class IndexSettings {
         scopedSettings.addSettingsUpdateConsumer(MAX_REFRESH_LISTENERS_PER_SHARD, this::setMaxRefreshListeners);
         scopedSettings.addSettingsUpdateConsumer(MAX_ANALYZED_OFFSET_SETTING, this::setHighlightMaxAnalyzedOffset);
         scopedSettings.addSettingsUpdateConsumer(WEIGHT_MATCHES_MODE_ENABLED_SETTING, this::setWeightMatchesEnabled);
+        scopedSettings.addSettingsUpdateConsumer(KNN_ADAPTIVE_FILTERED_SEARCH_ENABLED_SETTING, this::setKnnAdaptiveFilteredSearchEnabled);
         scopedSettings.addSettingsUpdateConsumer(MAX_TERMS_COUNT_SETTING, this::setMaxTermsCount);
         scopedSettings.addSettingsUpdateConsumer(MAX_SLICES_PER_SCROLL, this::setMaxSlicesPerScroll);
         scopedSettings.addSettingsUpdateConsumer(DEFAULT_FIELD_SETTING, this::setDefaultFields);
@@ -1232,6 +1283,25 @@ public final class IndexSettings {
         this.syncInterval = translogSyncInterval;
     }
 
+    /**
+     * Returns how long translog syncs may be delayed to be batched together, {@link TimeValue#ZERO} if they are not delayed.
+     */
+    public TimeValue getTranslogGroupCommitMaxDelay() {
+        return groupCommitMaxDelay;
+    }
+
+    /**
+     * Returns the amount of unsynced translog data that triggers a delayed translog sync immediately.
+     */
+    public ByteSizeValue getTranslogGroupCommitMaxBytes() {
+        return groupCommitMaxBytes;
+    }
+
+    private void setTranslogGroupCommit(TimeValue maxDelay, ByteSizeValue maxBytes) {
+        this.groupCommitMaxDelay = maxDelay;
+        this.groupCommitMaxBytes = maxBytes;
+    }
+
     /**
      * Returns this interval in which the shards of this index are asynchronously refreshed. {@code -1} means async refresh is disabled.
      */
@@ -1394,6 +1464,18 @@ public final class IndexSettings {
         this.weightMatchesEnabled = value;
     }
 
+    /**
+     * Returns <code>true</code> if filtered kNN searches pick exact or graph search per segment, see
+     * {@link #KNN_ADAPTIVE_FILTERED_SEARCH_ENABLED_SETTING}.
+     */
+    public boolean isKnnAdaptiveFilteredSearchEnabled() {
+        return this.knnAdaptiveFilteredSearchEnabled;
+    }
+
+    private void setKnnAdaptiveFilteredSearchEnabled(boolean value) {
+        this.knnAdaptiveFilteredSearchEnabled = value;
+    }
+
     /**
      *  Returns the maximum number of terms that can be used in a Terms Query request
      */
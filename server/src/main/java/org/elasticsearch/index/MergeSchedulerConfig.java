@@ -39,6 +39,13 @@ import org.elasticsearch.common.util.concurrent.EsExecutors;
  *     unluckily suddenly requires a large merge will see that merge aggressively
  *     throttled, while an application doing heavy indexing will see the throttle
  *     move higher to allow merges to keep up with ongoing indexing.
+ *
+ * <li><code>index.merge.scheduler.vector_merge_workers</code>:
+ *
+ *     The number of workers that build the HNSW graph of a vector field while
+ *     it is merged. Defaults to <code>1</code>, which builds the graph on the merge
+ *     thread. Larger values fork graph construction onto the bounded
+ *     <code>vector_merge</code> thread pool, which is shared by all shards on the node.
  * </ul>
  */
 public final class MergeSchedulerConfig {
@@ -64,7 +71,17 @@ public final class MergeSchedulerConfig {
         Property.IndexScope
     );
 
+    public static final Setting<Integer> VECTOR_MERGE_WORKERS_SETTING = Setting.intSetting(
+        "index.merge.scheduler.vector_merge_workers",
+        1,
+        1,
+        512,
+        Property.Dynamic,
+        Property.IndexScope
+    );
+
     private volatile boolean autoThrottle;
+    private volatile int vectorMergeWorkers;
     private volatile int maxThreadCount;
     private volatile int maxMergeCount;
 
@@ -73,6 +90,7 @@ public final class MergeSchedulerConfig {
         int maxMerge = indexSettings.getValue(MAX_MERGE_COUNT_SETTING);
         setMaxThreadAndMergeCount(maxThread, maxMerge);
         this.autoThrottle = indexSettings.getValue(AUTO_THROTTLE_SETTING);
+        this.vectorMergeWorkers = indexSettings.getValue(VECTOR_MERGE_WORKERS_SETTING);
     }
 
     /**
@@ -124,4 +142,15 @@ public final class MergeSchedulerConfig {
     public int getMaxMergeCount() {
         return maxMergeCount;
     }
+
+    /**
+     * Returns the number of workers that build the HNSW graph of a vector field during a merge.
+     */
+    public int getVectorMergeWorkers() {
+        return vectorMergeWorkers;
+    }
+
+    void setVectorMergeWorkers(int vectorMergeWorkers) {
+        this.vectorMergeWorkers = vectorMergeWorkers;
+    }
 }
@@ -16,11 +16,13 @@ import org.apache.lucene.codecs.lucene99.Lucene99Codec;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.FeatureFlag;
 import org.elasticsearch.core.Nullable;
+import org.elasticsearch.index.codec.vectors.VectorMergeTracker;
 import org.elasticsearch.index.codec.zstd.Zstd814StoredFieldsFormat;
 import org.elasticsearch.index.mapper.MapperService;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 /**
@@ -43,12 +45,37 @@ public class CodecService implements CodecProvider {
     /** the raw unfiltered lucene default. useful for testing */
     public static final String LUCENE_DEFAULT_CODEC = "lucene_default";
 
+    private final VectorMergeTracker vectorMergeTracker = new VectorMergeTracker();
+
     public CodecService(@Nullable MapperService mapperService, BigArrays bigArrays) {
+        this(mapperService, bigArrays, null);
+    }
+
+    /**
+     * @param vectorMergeExecutor the executor that builds the HNSW graphs of vector fields during merges, see
+     *                            {@link org.elasticsearch.index.MergeSchedulerConfig#VECTOR_MERGE_WORKERS_SETTING}
+     */
+    public CodecService(@Nullable MapperService mapperService, BigArrays bigArrays, @Nullable ExecutorService vectorMergeExecutor) {
         final var codecs = new HashMap<String, Codec>();
 
-        Codec legacyBestSpeedCodec = new LegacyPerFieldMapperCodec(Lucene99Codec.Mode.BEST_SPEED, mapperService, bigArrays);
+        Codec legacyBestSpeedCodec = new LegacyPerFieldMapperCodec(
+            Lucene99Codec.Mode.BEST_SPEED,
+            mapperService,
+            bigArrays,
+            vectorMergeExecutor,
+            vectorMergeTracker
+        );
         if (ZSTD_STORED_FIELDS_FEATURE_FLAG.isEnabled()) {
-            codecs.put(DEFAULT_CODEC, new PerFieldMapperCodec(Zstd814StoredFieldsFormat.Mode.BEST_SPEED, mapperService, bigArrays));
+            codecs.put(
+                DEFAULT_CODEC,
+                new PerFieldMapperCodec(
+                    Zstd814StoredFieldsFormat.Mode.BEST_SPEED,
+                    mapperService,
+                    bigArrays,
+                    vectorMergeExecutor,
+                    vectorMergeTracker
+                )
+            );
         } else {
             codecs.put(DEFAULT_CODEC, legacyBestSpeedCodec);
         }
@@ -56,9 +83,21 @@ public class CodecService implements CodecProvider {
 
         codecs.put(
             BEST_COMPRESSION_CODEC,
-            new PerFieldMapperCodec(Zstd814StoredFieldsFormat.Mode.BEST_COMPRESSION, mapperService, bigArrays)
+            new PerFieldMapperCodec(
+                Zstd814StoredFieldsFormat.Mode.BEST_COMPRESSION,
+                mapperService,
+                bigArrays,
+                vectorMergeExecutor,
+                vectorMergeTracker
+            )
+        );
+        Codec legacyBestCompressionCodec = new LegacyPerFieldMapperCodec(
+            Lucene99Codec.Mode.BEST_COMPRESSION,
+            mapperService,
+            bigArrays,
+            vectorMergeExecutor,
+            vectorMergeTracker
         );
-        Codec legacyBestCompressionCodec = new LegacyPerFieldMapperCodec(Lucene99Codec.Mode.BEST_COMPRESSION, mapperService, bigArrays);
         codecs.put(LEGACY_BEST_COMPRESSION_CODEC, legacyBestCompressionCodec);
 
         codecs.put(LUCENE_DEFAULT_CODEC, Codec.getDefault());
@@ -82,6 +121,13 @@ public class CodecService implements CodecProvider {
         return codec;
     }
 
+    /**
+     * Returns the tracker that records the time spent merging the vector fields of the shard.
+     */
+    public VectorMergeTracker vectorMergeTracker() {
+        return vectorMergeTracker;
+    }
+
     /**
      * Returns all registered available codec names.
      */
@@ -15,16 +15,25 @@ import org.apache.lucene.codecs.PostingsFormat;
 import org.apache.lucene.codecs.lucene90.Lucene90DocValuesFormat;
 import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat;
 import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.index.IndexMode;
 import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.MergeSchedulerConfig;
 import org.elasticsearch.index.codec.bloomfilter.ES87BloomFilterPostingsFormat;
 import org.elasticsearch.index.codec.postings.ES812PostingsFormat;
 import org.elasticsearch.index.codec.tsdb.ES87TSDBDocValuesFormat;
+import org.elasticsearch.index.codec.vectors.VectorMergeTracker;
+import org.elasticsearch.index.mapper.DateFieldMapper;
+import org.elasticsearch.index.mapper.FieldMapper;
 import org.elasticsearch.index.mapper.IdFieldMapper;
+import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.index.mapper.Mapper;
 import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.mapper.NumberFieldMapper;
 import org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * Class that encapsulates the logic of figuring out the most appropriate file format for a given field, across postings, doc values and
  * vectors.
@@ -38,11 +47,30 @@ public class PerFieldFormatSupplier {
     private final ES87TSDBDocValuesFormat tsdbDocValuesFormat;
 
     private final ES812PostingsFormat es812PostingsFormat;
+    private final ExecutorService vectorMergeExecutor;
+    private final VectorMergeTracker vectorMergeTracker;
 
     public PerFieldFormatSupplier(MapperService mapperService, BigArrays bigArrays) {
+        this(mapperService, bigArrays, null, new VectorMergeTracker());
+    }
+
+    /**
+     * @param vectorMergeExecutor the executor that builds HNSW graphs during merges when
+     *                            {@link MergeSchedulerConfig#VECTOR_MERGE_WORKERS_SETTING} is greater than 1, graphs are built
+     *                            on the merge thread if {@code null}
+     * @param vectorMergeTracker  records the time spent merging vector fields
+     */
+    public PerFieldFormatSupplier(
+        MapperService mapperService,
+        BigArrays bigArrays,
+        @Nullable ExecutorService vectorMergeExecutor,
+        VectorMergeTracker vectorMergeTracker
+    ) {
         this.mapperService = mapperService;
+        this.vectorMergeExecutor = vectorMergeExecutor;
+        this.vectorMergeTracker = vectorMergeTracker;
         this.bloomFilterPostingsFormat = new ES87BloomFilterPostingsFormat(bigArrays, this::internalGetPostingsFormatForField);
-        this.tsdbDocValuesFormat = new ES87TSDBDocValuesFormat();
+        this.tsdbDocValuesFormat = new ES87TSDBDocValuesFormat(this::useDocValuesSkipIndex);
         this.es812PostingsFormat = new ES812PostingsFormat();
     }
 
@@ -86,12 +114,21 @@ public class PerFieldFormatSupplier {
         if (mapperService != null) {
             Mapper mapper = mapperService.mappingLookup().getMapper(field);
             if (mapper instanceof DenseVectorFieldMapper vectorMapper) {
-                return vectorMapper.getKnnVectorsFormatForField(knnVectorsFormat);
+                final int numMergeWorkers = vectorMergeWorkers();
+                final ExecutorService mergeExec = numMergeWorkers > 1 ? vectorMergeExecutor : null;
+                return vectorMergeTracker.wrap(vectorMapper.getKnnVectorsFormatForField(knnVectorsFormat, numMergeWorkers, mergeExec));
             }
         }
         return knnVectorsFormat;
     }
 
+    int vectorMergeWorkers() {
+        if (vectorMergeExecutor == null) {
+            return 1;
+        }
+        return mapperService.getIndexSettings().getMergeSchedulerConfig().getVectorMergeWorkers();
+    }
+
     public DocValuesFormat getDocValuesFormatForField(String field) {
         if (useTSDBDocValuesFormat(field)) {
             return tsdbDocValuesFormat;
@@ -100,27 +137,50 @@ public class PerFieldFormatSupplier {
     }
 
     boolean useTSDBDocValuesFormat(final String field) {
+        return mapperService != null && useTSDBDocValuesFormat(mapperService.getIndexSettings(), field);
+    }
+
+    /**
+     * Whether the doc values of the field are written with the {@link ES87TSDBDocValuesFormat} in indices with these settings.
+     */
+    public static boolean useTSDBDocValuesFormat(IndexSettings indexSettings, String field) {
         if (excludeFields(field)) {
             return false;
         }
 
-        return mapperService != null
-            && (isTimeSeriesModeIndex() || isLogsModeIndex())
-            && mapperService.getIndexSettings().isES87TSDBCodecEnabled();
+        return (isTimeSeriesModeIndex(indexSettings) || isLogsModeIndex(indexSettings)) && indexSettings.isES87TSDBCodecEnabled();
+    }
+
+    /**
+     * Numeric and date fields that have doc values but no points get a skip index in their doc values, so that range queries
+     * on them can skip blocks of documents. Only used for fields that {@link #useTSDBDocValuesFormat use the tsdb format}.
+     */
+    boolean useDocValuesSkipIndex(String field) {
+        if (mapperService == null) {
+            return false;
+        }
+        Mapper mapper = mapperService.mappingLookup().getMapper(field);
+        if (mapper instanceof FieldMapper fieldMapper) {
+            MappedFieldType fieldType = fieldMapper.fieldType();
+            return (fieldType instanceof NumberFieldMapper.NumberFieldType || fieldType instanceof DateFieldMapper.DateFieldType)
+                && fieldType.isIndexed() == false
+                && fieldType.hasDocValues();
+        }
+        return false;
     }
 
-    private boolean excludeFields(String fieldName) {
+    private static boolean excludeFields(String fieldName) {
         // Avoid using tsdb codec for fields like _seq_no, _primary_term.
         // But _tsid and _ts_routing_hash should always use the tsdb codec.
         return fieldName.startsWith("_") && fieldName.equals("_tsid") == false && fieldName.equals("_ts_routing_hash") == false;
     }
 
-    private boolean isTimeSeriesModeIndex() {
-        return mapperService != null && IndexMode.TIME_SERIES == mapperService.getIndexSettings().getMode();
+    private static boolean isTimeSeriesModeIndex(IndexSettings indexSettings) {
+        return IndexMode.TIME_SERIES == indexSettings.getMode();
     }
 
-    private boolean isLogsModeIndex() {
-        return mapperService != null && IndexMode.LOGSDB == mapperService.getIndexSettings().getMode();
+    private static boolean isLogsModeIndex(IndexSettings indexSettings) {
+        return IndexMode.LOGSDB == indexSettings.getMode();
     }
 
 }
@@ -48,6 +48,13 @@ public class DocValuesForUtil {
         return bitsPerValue;
     }
 
+    /**
+     * Returns the number of bytes that {@link #encode} writes for a block of values with the given number of bits per value.
+     */
+    public int encodedSize(int bitsPerValue) {
+        return roundBits(bitsPerValue) * blockSize / Byte.SIZE;
+    }
+
     public void encode(long[] in, int bitsPerValue, final DataOutput out) throws IOException {
         if (bitsPerValue <= 24) { // these bpvs are handled efficiently by ForUtil
             ForUtil.encode(in, bitsPerValue, out);
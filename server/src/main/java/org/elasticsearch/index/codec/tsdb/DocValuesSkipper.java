@@ -0,0 +1,98 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.tsdb;
+
+import org.apache.lucene.store.IndexInput;
+
+import java.io.IOException;
+
+import static org.apache.lucene.search.DocIdSetIterator.NO_MORE_DOCS;
+
+/**
+ * Iterates over the skip index of a numeric doc values field. Each interval of the skip index covers up to
+ * {@link ES87TSDBDocValuesFormat#SKIP_INDEX_INTERVAL_SIZE} consecutive documents with a value and records the range of their doc
+ * ids and values, so that range queries can skip over intervals that can't match, and accept intervals that match entirely,
+ * without reading any values. Once exhausted, both {@link #minDocID()} and {@link #maxDocID()} return {@code NO_MORE_DOCS}.
+ */
+public final class DocValuesSkipper {
+
+    private final IndexInput input;
+    private int minDocID = -1;
+    private int maxDocID = -1;
+    private long minValue;
+    private long maxValue;
+    private int docCount;
+
+    DocValuesSkipper(IndexInput input) {
+        this.input = input;
+    }
+
+    /**
+     * Moves to the first interval whose {@link #maxDocID()} is greater than or equal to {@code target}. The interval may start
+     * after {@code target}. Intervals can only be visited in order, so this is a no-op if {@code target} is in the current interval.
+     */
+    public void advance(int target) throws IOException {
+        while (target > maxDocID) {
+            final long start = input.getFilePointer();
+            if (start == input.length()) {
+                minDocID = maxDocID = NO_MORE_DOCS;
+                minValue = Long.MAX_VALUE;
+                maxValue = Long.MIN_VALUE;
+                docCount = 0;
+                return;
+            }
+            maxDocID = input.readInt();
+            if (target > maxDocID) {
+                input.seek(start + ES87TSDBDocValuesFormat.SKIP_INDEX_ENTRY_BYTES);
+                continue;
+            }
+            minDocID = input.readInt();
+            maxValue = input.readLong();
+            minValue = input.readLong();
+            docCount = input.readInt();
+        }
+    }
+
+    /**
+     * The first document of the current interval that has a value.
+     */
+    public int minDocID() {
+        return minDocID;
+    }
+
+    /**
+     * The last document of the current interval that has a value.
+     */
+    public int maxDocID() {
+        return maxDocID;
+    }
+
+    /**
+     * The minimum value of all documents in the current interval.
+     */
+    public long minValue() {
+        return minValue;
+    }
+
+    /**
+     * The maximum value of all documents in the current interval.
+     */
+    public long maxValue() {
+        return maxValue;
+    }
+
+    /**
+     * The number of documents in the current interval that have a value. If this is equal to
+     * {@code maxDocID() - minDocID() + 1} then all documents of the interval have a value.
+     */
+    public int docCount() {
+        return docCount;
+    }
+}
@@ -42,6 +42,7 @@ import org.elasticsearch.core.IOUtils;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.function.Predicate;
 
 import static org.elasticsearch.index.codec.tsdb.ES87TSDBDocValuesFormat.DIRECT_MONOTONIC_BLOCK_SHIFT;
 import static org.elasticsearch.index.codec.tsdb.ES87TSDBDocValuesFormat.SORTED_SET;
@@ -51,10 +52,18 @@ final class ES87TSDBDocValuesConsumer extends DocValuesConsumer {
     IndexOutput data, meta;
     final int maxDoc;
     private byte[] termsDictBuffer;
-
-    ES87TSDBDocValuesConsumer(SegmentWriteState state, String dataCodec, String dataExtension, String metaCodec, String metaExtension)
-        throws IOException {
+    private final Predicate<String> skipIndexFields;
+
+    ES87TSDBDocValuesConsumer(
+        SegmentWriteState state,
+        String dataCodec,
+        String dataExtension,
+        String metaCodec,
+        String metaExtension,
+        Predicate<String> skipIndexFields
+    ) throws IOException {
         this.termsDictBuffer = new byte[1 << 14];
+        this.skipIndexFields = skipIndexFields;
         boolean success = false;
         try {
             final String dataName = IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, dataExtension);
@@ -88,12 +97,64 @@ final class ES87TSDBDocValuesConsumer extends DocValuesConsumer {
     public void addNumericField(FieldInfo field, DocValuesProducer valuesProducer) throws IOException {
         meta.writeInt(field.number);
         meta.writeByte(ES87TSDBDocValuesFormat.NUMERIC);
-        writeField(field, new EmptyDocValuesProducer() {
+        DocValuesProducer producer = new EmptyDocValuesProducer() {
             @Override
             public SortedNumericDocValues getSortedNumeric(FieldInfo field) throws IOException {
                 return DocValues.singleton(valuesProducer.getNumeric(field));
             }
-        }, -1);
+        };
+        writeField(field, producer, -1);
+        writeSkipIndex(field, producer);
+    }
+
+    /**
+     * Writes the range of doc ids and values of each interval of {@link ES87TSDBDocValuesFormat#SKIP_INDEX_INTERVAL_SIZE} documents
+     * with a value, which allows range queries to skip over intervals without reading their values.
+     */
+    private void writeSkipIndex(FieldInfo field, DocValuesProducer valuesProducer) throws IOException {
+        if (skipIndexFields.test(field.name) == false) {
+            meta.writeLong(-1L); // skipIndexOffset
+            return;
+        }
+        final long start = data.getFilePointer();
+        int minDocID = -1;
+        int maxDocID = -1;
+        long minValue = Long.MAX_VALUE;
+        long maxValue = Long.MIN_VALUE;
+        int docCount = 0;
+        SortedNumericDocValues values = valuesProducer.getSortedNumeric(field);
+        for (int doc = values.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = values.nextDoc()) {
+            if (docCount == 0) {
+                minDocID = doc;
+            }
+            maxDocID = doc;
+            final int count = values.docValueCount();
+            for (int i = 0; i < count; ++i) {
+                final long value = values.nextValue();
+                minValue = Math.min(minValue, value);
+                maxValue = Math.max(maxValue, value);
+            }
+            if (++docCount == ES87TSDBDocValuesFormat.SKIP_INDEX_INTERVAL_SIZE) {
+                writeSkipIndexInterval(minDocID, maxDocID, minValue, maxValue, docCount);
+                minValue = Long.MAX_VALUE;
+                maxValue = Long.MIN_VALUE;
+                docCount = 0;
+            }
+        }
+        if (docCount > 0) {
+            writeSkipIndexInterval(minDocID, maxDocID, minValue, maxValue, docCount);
+        }
+        meta.writeLong(start); // skipIndexOffset
+        meta.writeLong(data.getFilePointer() - start); // skipIndexLength
+    }
+
+    private void writeSkipIndexInterval(int minDocID, int maxDocID, long minValue, long maxValue, int docCount) throws IOException {
+        // maxDocID goes first so that readers can skip intervals after reading a single int
+        data.writeInt(maxDocID);
+        data.writeInt(minDocID);
+        data.writeLong(maxValue);
+        data.writeLong(minValue);
+        data.writeInt(docCount);
     }
 
     private long[] writeField(FieldInfo field, DocValuesProducer valuesProducer, long maxOrd) throws IOException {
@@ -456,6 +517,7 @@ final class ES87TSDBDocValuesConsumer extends DocValuesConsumer {
         meta.writeInt(field.number);
         meta.writeByte(ES87TSDBDocValuesFormat.SORTED_NUMERIC);
         writeSortedNumericField(field, valuesProducer, -1);
+        writeSkipIndex(field, valuesProducer);
     }
 
     private void writeSortedNumericField(FieldInfo field, DocValuesProducer valuesProducer, long maxOrd) throws IOException {
@@ -11,6 +11,7 @@ package org.elasticsearch.index.codec.tsdb;
 
 import org.apache.lucene.store.DataInput;
 import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.util.BitUtil;
 import org.apache.lucene.util.MathUtil;
 import org.apache.lucene.util.packed.PackedInts;
 
@@ -189,7 +190,11 @@ public class ES87TSDBDocValuesEncoder {
      *   <li>1: two runs</li>
      *   <li>2: bit-packed</li>
      *   <li>3: cycle</li>
+     *   <li>4: run-length encoded</li>
+     *   <li>5: ordinal range, bit-packed after subtracting the minimum ordinal of the block</li>
      * </ul>
+     * Blocks with more than two runs that don't cycle use whichever of bit-packing, run-length and ordinal range encoding
+     * takes the least space.
      */
     void encodeOrdinals(long[] in, DataOutput out, int bitsPerOrd) throws IOException {
         assert in.length == ES87TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE;
@@ -252,14 +257,87 @@ public class ES87TSDBDocValuesEncoder {
                 out.writeVLong(in[i]);
             }
         } else {
-            // set 2 trailing bits to indicate the block is bit-packed
-            out.writeVLong(0b11);
-            forUtil.encode(in, bitsPerOrd, out);
+            final int bitPackedSize = 1 + forUtil.encodedSize(bitsPerOrd);
+            final long runLengthHeader = ((long) numRuns << 5) | 0b01111;
+            final int runLengthSize = numRuns > 2 ? runLengthEncodedSize(in, runLengthHeader, bitPackedSize) : Integer.MAX_VALUE;
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (long l : in) {
+                min = Math.min(l, min);
+                max = Math.max(l, max);
+            }
+            final int rangeBits = DocValuesForUtil.roundBits(PackedInts.unsignedBitsRequired(max - min));
+            final long rangeHeader = ((long) rangeBits << 6) | 0b011111;
+            final int rangeSize = numRuns > 2 && rangeBits < bitsPerOrd
+                ? vLongSize(rangeHeader) + vLongSize(min) + forUtil.encodedSize(rangeBits)
+                : Integer.MAX_VALUE;
+            if (runLengthSize < bitPackedSize && runLengthSize <= rangeSize) {
+                // set 4 trailing bits to indicate the block is run-length encoded
+                out.writeVLong(runLengthHeader);
+                runLengthEncode(in, out);
+            } else if (rangeSize < bitPackedSize) {
+                // set 5 trailing bits to indicate the block is bit-packed relative to the minimum ordinal
+                out.writeVLong(rangeHeader);
+                out.writeVLong(min);
+                for (int i = 0; i < in.length; ++i) {
+                    in[i] -= min;
+                }
+                forUtil.encode(in, rangeBits, out);
+            } else {
+                // set 2 trailing bits to indicate the block is bit-packed
+                out.writeVLong(0b11);
+                forUtil.encode(in, bitsPerOrd, out);
+            }
         }
     }
 
+    /**
+     * Writes each run but the last one as its length followed by the difference between the value of the next run and its value.
+     */
+    private static void runLengthEncode(long[] in, DataOutput out) throws IOException {
+        out.writeVLong(in[0]);
+        int runStart = 0;
+        for (int i = 1; i < in.length; ++i) {
+            if (in[i] != in[i - 1]) {
+                out.writeVInt(i - runStart);
+                out.writeZLong(in[i] - in[i - 1]);
+                runStart = i;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes {@link #runLengthEncode} writes, or {@link Integer#MAX_VALUE} as soon as it exceeds {@code limit}.
+     */
+    private static int runLengthEncodedSize(long[] in, long header, int limit) {
+        int size = vLongSize(header) + vLongSize(in[0]);
+        int runStart = 0;
+        for (int i = 1; i < in.length && size < limit; ++i) {
+            if (in[i] != in[i - 1]) {
+                size += vLongSize(i - runStart) + vLongSize(BitUtil.zigZagEncode(in[i] - in[i - 1]));
+                runStart = i;
+            }
+        }
+        return size < limit ? size : Integer.MAX_VALUE;
+    }
+
+    private static int vLongSize(long l) {
+        return Math.max(1, (Long.SIZE - Long.numberOfLeadingZeros(l) + 6) / 7);
+    }
+
     void decodeOrdinals(DataInput in, long[] out, int bitsPerOrd) throws IOException {
+        decodeOrdinals(in, out, null, bitsPerOrd);
+    }
+
+    /**
+     * Decodes ordinals that have been encoded with {@link #encodeOrdinals} and, if the block was stored as runs, also writes the
+     * exclusive end of each run to {@code runEnds} so that callers don't need to look for the runs again.
+     *
+     * @return the number of runs, or {@code -1} if the block wasn't stored as runs or {@code runEnds} is {@code null}
+     */
+    int decodeOrdinals(DataInput in, long[] out, int[] runEnds, int bitsPerOrd) throws IOException {
         assert out.length == ES87TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE : out.length;
+        assert runEnds == null || runEnds.length == out.length : runEnds.length;
 
         long v1 = in.readVLong();
         int encoding = Long.numberOfTrailingZeros(~v1);
@@ -267,12 +345,21 @@ public class ES87TSDBDocValuesEncoder {
         if (encoding == 0) {
             // single run
             Arrays.fill(out, v1);
+            if (runEnds != null) {
+                runEnds[0] = out.length;
+                return 1;
+            }
         } else if (encoding == 1) {
             // two runs
             int runLen = in.readVInt();
             long v2 = v1 + in.readZLong();
             Arrays.fill(out, 0, runLen, v1);
             Arrays.fill(out, runLen, out.length, v2);
+            if (runEnds != null) {
+                runEnds[0] = runLen;
+                runEnds[1] = out.length;
+                return 2;
+            }
         } else if (encoding == 2) {
             // bit-packed
             forUtil.decode(bitsPerOrd, in, out);
@@ -288,7 +375,48 @@ public class ES87TSDBDocValuesEncoder {
                 System.arraycopy(out, 0, out, length, copyLength);
                 length += copyLength;
             }
+        } else if (encoding == 4) {
+            // run-length encoding
+            int numRuns = (int) v1;
+            long value = in.readVLong();
+            int runStart = 0;
+            for (int run = 0; run < numRuns - 1; ++run) {
+                int runEnd = runStart + in.readVInt();
+                Arrays.fill(out, runStart, runEnd, value);
+                if (runEnds != null) {
+                    runEnds[run] = runEnd;
+                }
+                value += in.readZLong();
+                runStart = runEnd;
+            }
+            Arrays.fill(out, runStart, out.length, value);
+            if (runEnds != null) {
+                runEnds[numRuns - 1] = out.length;
+                return numRuns;
+            }
+        } else if (encoding == 5) {
+            // ordinal range
+            int rangeBits = (int) v1;
+            long min = in.readVLong();
+            forUtil.decode(rangeBits, in, out);
+            add(out, min);
+        }
+        return -1;
+    }
+
+    /**
+     * Writes the exclusive end of each run of equal values in {@code values} to {@code runEnds} and returns the number of runs.
+     */
+    static int findRuns(long[] values, int[] runEnds) {
+        assert runEnds.length >= values.length;
+        int numRuns = 0;
+        for (int i = 1; i < values.length; ++i) {
+            if (values[i] != values[i - 1]) {
+                runEnds[numRuns++] = i;
+            }
         }
+        runEnds[numRuns++] = values.length;
+        return numRuns;
     }
 
     /** Decode longs that have been encoded with {@link #encode}. */
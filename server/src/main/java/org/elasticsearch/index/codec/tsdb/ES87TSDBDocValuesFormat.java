@@ -15,6 +15,7 @@ import org.apache.lucene.index.SegmentReadState;
 import org.apache.lucene.index.SegmentWriteState;
 
 import java.io.IOException;
+import java.util.function.Predicate;
 
 public class ES87TSDBDocValuesFormat extends org.apache.lucene.codecs.DocValuesFormat {
 
@@ -28,7 +29,11 @@ public class ES87TSDBDocValuesFormat extends org.apache.lucene.codecs.DocValuesF
     static final String META_CODEC = "ES87TSDBDocValuesMetadata";
     static final String META_EXTENSION = "dvm";
     static final int VERSION_START = 0;
-    static final int VERSION_CURRENT = VERSION_START;
+    // ordinal blocks may be run-length or ordinal range encoded
+    static final int VERSION_ORDINAL_RUNS = 1;
+    // numeric and sorted numeric fields may have a skip index
+    static final int VERSION_SKIP_INDEX = 2;
+    static final int VERSION_CURRENT = VERSION_SKIP_INDEX;
     static final byte NUMERIC = 0;
     static final byte BINARY = 1;
     static final byte SORTED = 2;
@@ -43,13 +48,29 @@ public class ES87TSDBDocValuesFormat extends org.apache.lucene.codecs.DocValuesF
     static final int TERMS_DICT_REVERSE_INDEX_SIZE = 1 << TERMS_DICT_REVERSE_INDEX_SHIFT;
     static final int TERMS_DICT_REVERSE_INDEX_MASK = TERMS_DICT_REVERSE_INDEX_SIZE - 1;
 
+    static final int SKIP_INDEX_INTERVAL_SHIFT = 12;
+    static final int SKIP_INDEX_INTERVAL_SIZE = 1 << SKIP_INDEX_INTERVAL_SHIFT;
+    // maxDocID, minDocID, maxValue, minValue and docCount of an interval
+    static final int SKIP_INDEX_ENTRY_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final Predicate<String> skipIndexFields;
+
     public ES87TSDBDocValuesFormat() {
+        this(field -> false);
+    }
+
+    /**
+     * @param skipIndexFields the numeric and sorted numeric fields whose doc values are written with a skip index. The skip index
+     *                        is recorded in the metadata of the field, so reading doesn't depend on this.
+     */
+    public ES87TSDBDocValuesFormat(Predicate<String> skipIndexFields) {
         super(CODEC_NAME);
+        this.skipIndexFields = skipIndexFields;
     }
 
     @Override
     public DocValuesConsumer fieldsConsumer(SegmentWriteState state) throws IOException {
-        return new ES87TSDBDocValuesConsumer(state, DATA_CODEC, DATA_EXTENSION, META_CODEC, META_EXTENSION);
+        return new ES87TSDBDocValuesConsumer(state, DATA_CODEC, DATA_EXTENSION, META_CODEC, META_EXTENSION, skipIndexFields);
     }
 
     @Override
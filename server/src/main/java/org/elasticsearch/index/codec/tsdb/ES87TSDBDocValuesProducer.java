@@ -40,6 +40,7 @@ import org.apache.lucene.util.packed.PackedInts;
 import org.elasticsearch.core.IOUtils;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -74,7 +75,7 @@ public class ES87TSDBDocValuesProducer extends DocValuesProducer {
                     state.segmentSuffix
                 );
 
-                readFields(in, state.fieldInfos);
+                readFields(in, state.fieldInfos, version);
 
             } catch (Throwable exception) {
                 priorE = exception;
@@ -285,38 +286,65 @@ public class ES87TSDBDocValuesProducer extends DocValuesProducer {
 
     private SortedDocValues getSorted(SortedEntry entry) throws IOException {
         final NumericDocValues ords = getNumeric(entry.ordsEntry, entry.termsDictEntry.termsDictSize);
-        return new BaseSortedDocValues(entry) {
+        if (ords instanceof RunLengthDocValues runs) {
+            return new RunLengthSortedDocValues(entry, ords, runs);
+        }
+        return new OrdsSortedDocValues(entry, ords);
+    }
 
-            @Override
-            public int ordValue() throws IOException {
-                return (int) ords.longValue();
-            }
+    private class OrdsSortedDocValues extends BaseSortedDocValues {
 
-            @Override
-            public boolean advanceExact(int target) throws IOException {
-                return ords.advanceExact(target);
-            }
+        final NumericDocValues ords;
 
-            @Override
-            public int docID() {
-                return ords.docID();
-            }
+        OrdsSortedDocValues(SortedEntry entry, NumericDocValues ords) throws IOException {
+            super(entry);
+            this.ords = ords;
+        }
 
-            @Override
-            public int nextDoc() throws IOException {
-                return ords.nextDoc();
-            }
+        @Override
+        public int ordValue() throws IOException {
+            return (int) ords.longValue();
+        }
 
-            @Override
-            public int advance(int target) throws IOException {
-                return ords.advance(target);
-            }
+        @Override
+        public boolean advanceExact(int target) throws IOException {
+            return ords.advanceExact(target);
+        }
 
-            @Override
-            public long cost() {
-                return ords.cost();
-            }
-        };
+        @Override
+        public int docID() {
+            return ords.docID();
+        }
+
+        @Override
+        public int nextDoc() throws IOException {
+            return ords.nextDoc();
+        }
+
+        @Override
+        public int advance(int target) throws IOException {
+            return ords.advance(target);
+        }
+
+        @Override
+        public long cost() {
+            return ords.cost();
+        }
+    }
+
+    private class RunLengthSortedDocValues extends OrdsSortedDocValues implements RunLengthDocValues {
+
+        private final RunLengthDocValues runs;
+
+        RunLengthSortedDocValues(SortedEntry entry, NumericDocValues ords, RunLengthDocValues runs) throws IOException {
+            super(entry, ords);
+            this.runs = runs;
+        }
+
+        @Override
+        public int runEnd() throws IOException {
+            return runs.runEnd();
+        }
     }
 
     private abstract class BaseSortedDocValues extends SortedDocValues {
@@ -710,7 +738,7 @@ public class ES87TSDBDocValuesProducer extends DocValuesProducer {
         data.close();
     }
 
-    private void readFields(IndexInput meta, FieldInfos infos) throws IOException {
+    private void readFields(IndexInput meta, FieldInfos infos, int version) throws IOException {
         for (int fieldNumber = meta.readInt(); fieldNumber != -1; fieldNumber = meta.readInt()) {
             FieldInfo info = infos.fieldInfo(fieldNumber);
             if (info == null) {
@@ -718,7 +746,11 @@ public class ES87TSDBDocValuesProducer extends DocValuesProducer {
             }
             byte type = meta.readByte();
             if (type == ES87TSDBDocValuesFormat.NUMERIC) {
-                numerics.put(info.name, readNumeric(meta));
+                NumericEntry entry = readNumeric(meta);
+                if (version >= ES87TSDBDocValuesFormat.VERSION_SKIP_INDEX) {
+                    readSkipIndex(meta, entry);
+                }
+                numerics.put(info.name, entry);
             } else if (type == ES87TSDBDocValuesFormat.BINARY) {
                 binaries.put(info.name, readBinary(meta));
             } else if (type == ES87TSDBDocValuesFormat.SORTED) {
@@ -726,7 +758,11 @@ public class ES87TSDBDocValuesProducer extends DocValuesProducer {
             } else if (type == ES87TSDBDocValuesFormat.SORTED_SET) {
                 sortedSets.put(info.name, readSortedSet(meta));
             } else if (type == ES87TSDBDocValuesFormat.SORTED_NUMERIC) {
-                sortedNumerics.put(info.name, readSortedNumeric(meta));
+                SortedNumericEntry entry = readSortedNumeric(meta);
+                if (version >= ES87TSDBDocValuesFormat.VERSION_SKIP_INDEX) {
+                    readSkipIndex(meta, entry);
+                }
+                sortedNumerics.put(info.name, entry);
             } else {
                 throw new CorruptIndexException("invalid type: " + type, meta);
             }
@@ -763,6 +799,13 @@ public class ES87TSDBDocValuesProducer extends DocValuesProducer {
         }
     }
 
+    private static void readSkipIndex(IndexInput meta, NumericEntry entry) throws IOException {
+        entry.skipIndexOffset = meta.readLong();
+        if (entry.skipIndexOffset != -1) {
+            entry.skipIndexLength = meta.readLong();
+        }
+    }
+
     private BinaryEntry readBinary(IndexInput meta) throws IOException {
         final BinaryEntry entry = new BinaryEntry();
         entry.dataOffset = meta.readLong();
@@ -867,46 +910,7 @@ public class ES87TSDBDocValuesProducer extends DocValuesProducer {
             // Special case for maxOrd 1, no need to read blocks and use ordinal 0 as only value
             if (entry.docsWithFieldOffset == -1) {
                 // Special case when all docs have a value
-                return new NumericDocValues() {
-
-                    private final int maxDoc = ES87TSDBDocValuesProducer.this.maxDoc;
-                    private int doc = -1;
-
-                    @Override
-                    public long longValue() {
-                        // Only one ordinal!
-                        return 0L;
-                    }
-
-                    @Override
-                    public int docID() {
-                        return doc;
-                    }
-
-                    @Override
-                    public int nextDoc() throws IOException {
-                        return advance(doc + 1);
-                    }
-
-                    @Override
-                    public int advance(int target) throws IOException {
-                        if (target >= maxDoc) {
-                            return doc = NO_MORE_DOCS;
-                        }
-                        return doc = target;
-                    }
-
-                    @Override
-                    public boolean advanceExact(int target) {
-                        doc = target;
-                        return true;
-                    }
-
-                    @Override
-                    public long cost() {
-                        return maxDoc;
-                    }
-                };
+                return new SingleOrdinalDenseDocValues();
             } else {
                 final IndexedDISI disi = new IndexedDISI(
                     data,
@@ -961,64 +965,7 @@ public class ES87TSDBDocValuesProducer extends DocValuesProducer {
         final int bitsPerOrd = maxOrd >= 0 ? PackedInts.bitsRequired(maxOrd - 1) : -1;
         if (entry.docsWithFieldOffset == -1) {
             // dense
-            return new NumericDocValues() {
-
-                private final int maxDoc = ES87TSDBDocValuesProducer.this.maxDoc;
-                private int doc = -1;
-                private final ES87TSDBDocValuesEncoder decoder = new ES87TSDBDocValuesEncoder();
-                private long currentBlockIndex = -1;
-                private final long[] currentBlock = new long[ES87TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE];
-
-                @Override
-                public int docID() {
-                    return doc;
-                }
-
-                @Override
-                public int nextDoc() throws IOException {
-                    return advance(doc + 1);
-                }
-
-                @Override
-                public int advance(int target) throws IOException {
-                    if (target >= maxDoc) {
-                        return doc = NO_MORE_DOCS;
-                    }
-                    return doc = target;
-                }
-
-                @Override
-                public boolean advanceExact(int target) {
-                    doc = target;
-                    return true;
-                }
-
-                @Override
-                public long cost() {
-                    return maxDoc;
-                }
-
-                @Override
-                public long longValue() throws IOException {
-                    final int index = doc;
-                    final int blockIndex = index >>> ES87TSDBDocValuesFormat.NUMERIC_BLOCK_SHIFT;
-                    final int blockInIndex = index & ES87TSDBDocValuesFormat.NUMERIC_BLOCK_MASK;
-                    if (blockIndex != currentBlockIndex) {
-                        assert blockIndex > currentBlockIndex : blockIndex + " < " + currentBlockIndex;
-                        // no need to seek if the loading block is the next block
-                        if (currentBlockIndex + 1 != blockIndex) {
-                            valuesData.seek(indexReader.get(blockIndex));
-                        }
-                        currentBlockIndex = blockIndex;
-                        if (maxOrd >= 0) {
-                            decoder.decodeOrdinals(valuesData, currentBlock, bitsPerOrd);
-                        } else {
-                            decoder.decode(valuesData, currentBlock);
-                        }
-                    }
-                    return currentBlock[blockInIndex];
-                }
-            };
+            return new DenseNumericDocValues(entry, indexReader, valuesData, maxOrd, bitsPerOrd);
         } else {
             final IndexedDISI disi = new IndexedDISI(
                 data,
@@ -1028,7 +975,7 @@ public class ES87TSDBDocValuesProducer extends DocValuesProducer {
                 entry.denseRankPower,
                 entry.numValues
             );
-            return new NumericDocValues() {
+            return new BaseNumericDocValues(entry) {
 
                 private final ES87TSDBDocValuesEncoder decoder = new ES87TSDBDocValuesEncoder();
                 private long currentBlockIndex = -1;
@@ -1083,6 +1030,183 @@ public class ES87TSDBDocValuesProducer extends DocValuesProducer {
         }
     }
 
+    private final class SingleOrdinalDenseDocValues extends NumericDocValues implements RunLengthDocValues {
+
+        private final int maxDoc = ES87TSDBDocValuesProducer.this.maxDoc;
+        private int doc = -1;
+
+        @Override
+        public long longValue() {
+            // Only one ordinal!
+            return 0L;
+        }
+
+        @Override
+        public int runEnd() {
+            return maxDoc;
+        }
+
+        @Override
+        public int docID() {
+            return doc;
+        }
+
+        @Override
+        public int nextDoc() throws IOException {
+            return advance(doc + 1);
+        }
+
+        @Override
+        public int advance(int target) throws IOException {
+            if (target >= maxDoc) {
+                return doc = NO_MORE_DOCS;
+            }
+            return doc = target;
+        }
+
+        @Override
+        public boolean advanceExact(int target) {
+            doc = target;
+            return true;
+        }
+
+        @Override
+        public long cost() {
+            return maxDoc;
+        }
+    }
+
+    private abstract class BaseNumericDocValues extends NumericDocValues implements SkipIndexedDocValues {
+
+        final NumericEntry entry;
+
+        BaseNumericDocValues(NumericEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public DocValuesSkipper skipper() throws IOException {
+            return ES87TSDBDocValuesProducer.this.skipper(entry);
+        }
+    }
+
+    private abstract class BaseSortedNumericDocValues extends SortedNumericDocValues implements SkipIndexedDocValues {
+
+        final SortedNumericEntry entry;
+
+        BaseSortedNumericDocValues(SortedNumericEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public DocValuesSkipper skipper() throws IOException {
+            return ES87TSDBDocValuesProducer.this.skipper(entry);
+        }
+    }
+
+    private DocValuesSkipper skipper(NumericEntry entry) throws IOException {
+        if (entry.skipIndexOffset == -1) {
+            return null;
+        }
+        return new DocValuesSkipper(data.slice("skip-index", entry.skipIndexOffset, entry.skipIndexLength));
+    }
+
+    private final class DenseNumericDocValues extends BaseNumericDocValues implements RunLengthDocValues {
+
+        private final int maxDoc = ES87TSDBDocValuesProducer.this.maxDoc;
+        private final DirectMonotonicReader indexReader;
+        private final IndexInput valuesData;
+        private final long maxOrd;
+        private final int bitsPerOrd;
+        private int doc = -1;
+        private final ES87TSDBDocValuesEncoder decoder = new ES87TSDBDocValuesEncoder();
+        private long currentBlockIndex = -1;
+        private final long[] currentBlock = new long[ES87TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE];
+        // the exclusive ends of the runs of the current block, only computed on demand unless the block was stored as runs
+        private final int[] currentRunEnds = new int[ES87TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE];
+        private int currentNumRuns = -1;
+
+        DenseNumericDocValues(NumericEntry entry, DirectMonotonicReader indexReader, IndexInput valuesData, long maxOrd, int bitsPerOrd) {
+            super(entry);
+            this.indexReader = indexReader;
+            this.valuesData = valuesData;
+            this.maxOrd = maxOrd;
+            this.bitsPerOrd = bitsPerOrd;
+        }
+
+        @Override
+        public int docID() {
+            return doc;
+        }
+
+        @Override
+        public int nextDoc() throws IOException {
+            return advance(doc + 1);
+        }
+
+        @Override
+        public int advance(int target) throws IOException {
+            if (target >= maxDoc) {
+                return doc = NO_MORE_DOCS;
+            }
+            return doc = target;
+        }
+
+        @Override
+        public boolean advanceExact(int target) {
+            doc = target;
+            return true;
+        }
+
+        @Override
+        public long cost() {
+            return maxDoc;
+        }
+
+        @Override
+        public long longValue() throws IOException {
+            final int index = doc;
+            final int blockIndex = index >>> ES87TSDBDocValuesFormat.NUMERIC_BLOCK_SHIFT;
+            final int blockInIndex = index & ES87TSDBDocValuesFormat.NUMERIC_BLOCK_MASK;
+            if (blockIndex != currentBlockIndex) {
+                loadBlock(blockIndex);
+            }
+            return currentBlock[blockInIndex];
+        }
+
+        @Override
+        public int runEnd() throws IOException {
+            final int blockIndex = doc >>> ES87TSDBDocValuesFormat.NUMERIC_BLOCK_SHIFT;
+            final int blockInIndex = doc & ES87TSDBDocValuesFormat.NUMERIC_BLOCK_MASK;
+            if (blockIndex != currentBlockIndex) {
+                loadBlock(blockIndex);
+            }
+            if (currentNumRuns == -1) {
+                currentNumRuns = ES87TSDBDocValuesEncoder.findRuns(currentBlock, currentRunEnds);
+            }
+            int run = Arrays.binarySearch(currentRunEnds, 0, currentNumRuns, blockInIndex);
+            // an exact match is the end of the previous run
+            run = run >= 0 ? run + 1 : -1 - run;
+            final int blockStart = blockIndex << ES87TSDBDocValuesFormat.NUMERIC_BLOCK_SHIFT;
+            return Math.min(maxDoc, blockStart + currentRunEnds[run]);
+        }
+
+        private void loadBlock(int blockIndex) throws IOException {
+            assert blockIndex > currentBlockIndex : blockIndex + " < " + currentBlockIndex;
+            // no need to seek if the loading block is the next block
+            if (currentBlockIndex + 1 != blockIndex) {
+                valuesData.seek(indexReader.get(blockIndex));
+            }
+            currentBlockIndex = blockIndex;
+            if (maxOrd >= 0) {
+                currentNumRuns = decoder.decodeOrdinals(valuesData, currentBlock, currentRunEnds, bitsPerOrd);
+            } else {
+                decoder.decode(valuesData, currentBlock);
+                currentNumRuns = -1;
+            }
+        }
+    }
+
     private NumericValues getValues(NumericEntry entry, final long maxOrd) throws IOException {
         assert entry.numValues > 0;
         final RandomAccessInput indexSlice = data.randomAccessSlice(entry.indexOffset, entry.indexLength);
@@ -1129,7 +1253,7 @@ public class ES87TSDBDocValuesProducer extends DocValuesProducer {
 
         if (entry.docsWithFieldOffset == -1) {
             // dense
-            return new SortedNumericDocValues() {
+            return new BaseSortedNumericDocValues(entry) {
 
                 int doc = -1;
                 long start, end;
@@ -1190,7 +1314,7 @@ public class ES87TSDBDocValuesProducer extends DocValuesProducer {
                 entry.denseRankPower,
                 entry.numDocsWithField
             );
-            return new SortedNumericDocValues() {
+            return new BaseSortedNumericDocValues(entry) {
 
                 boolean set;
                 long start, end;
@@ -1260,6 +1384,8 @@ public class ES87TSDBDocValuesProducer extends DocValuesProducer {
         DirectMonotonicReader.Meta indexMeta;
         long valuesOffset;
         long valuesLength;
+        long skipIndexOffset = -1;
+        long skipIndexLength;
     }
 
     private static class BinaryEntry {
@@ -0,0 +1,27 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.tsdb;
+
+import java.io.IOException;
+
+/**
+ * Dense doc values that can tell how many consecutive documents share the value of the current document. This is typical for
+ * dimensions in time series indices, which are sorted by {@code _tsid}, and allows callers to handle a whole run of documents
+ * at once instead of reading the same value over and over again.
+ */
+public interface RunLengthDocValues {
+
+    /**
+     * Returns the exclusive end of the run of documents that have the same value as the current document. All documents between
+     * the current document and the returned document have a value. The run may continue after the returned document, since runs
+     * are only tracked within blocks of {@link ES87TSDBDocValuesFormat#NUMERIC_BLOCK_SIZE} values.
+     */
+    int runEnd() throws IOException;
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.tsdb;
+
+import org.elasticsearch.core.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Numeric doc values that may have been written with a skip index, see {@link DocValuesSkipper}.
+ */
+public interface SkipIndexedDocValues {
+
+    /**
+     * Returns a new {@link DocValuesSkipper} over the skip index of the field, or {@code null} if the field was written without one.
+     */
+    @Nullable
+    DocValuesSkipper skipper() throws IOException;
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.util.VectorUtil;
+
+import java.util.Arrays;
+
+/**
+ * Quantizes vectors to one bit per dimension around the centroid of a segment's vectors.
+ * <p>
+ * Each vector {@code v} is stored as the signs of its residual {@code r = v - c}, along with
+ * three correction factors: {@code |r|^2 / sum(|r_i|)}, {@code |r|^2} and {@code <r, c>}.
+ * The query's residual {@code q - c} is quantized to four bits per dimension and split into
+ * four bit planes, so the inner product of a stored vector's signs with the query residual is
+ * a handful of popcounts. The correction factors turn that into an unbiased estimate of
+ * {@code <r, q - c>}, from which all similarity functions can be derived.
+ */
+final class BinaryQuantizer {
+    /**
+     * The number of correction factors stored after each binary code.
+     */
+    static final int CORRECTIONS = 3;
+    static final int QUERY_BITS = 4;
+
+    private BinaryQuantizer() {}
+
+    /**
+     * The number of longs needed to store the binary code of a vector.
+     */
+    static int codeLongs(int dims) {
+        return (dims + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    /**
+     * The number of bytes each quantized vector takes on disk.
+     */
+    static int bytesPerVector(int dims) {
+        return codeLongs(dims) * Long.BYTES + CORRECTIONS * Float.BYTES;
+    }
+
+    /**
+     * Cosine is the dot product of normalized vectors, so quantize the normalized vectors.
+     */
+    static float[] prepare(float[] vector, VectorSimilarityFunction similarityFunction) {
+        if (similarityFunction != VectorSimilarityFunction.COSINE) {
+            return vector;
+        }
+        float[] copy = vector.clone();
+        VectorUtil.l2normalize(copy, false);
+        return copy;
+    }
+
+    /**
+     * Quantize {@code vector} into {@code code} and return its correction factors.
+     */
+    static float[] quantize(float[] vector, float[] centroid, long[] code) {
+        Arrays.fill(code, 0L);
+        float normSquared = 0;
+        float absSum = 0;
+        float dotCentroid = 0;
+        for (int i = 0; i < vector.length; i++) {
+            float residual = vector[i] - centroid[i];
+            if (residual > 0) {
+                code[i >>> 6] |= 1L << (i & 63);
+            }
+            normSquared += residual * residual;
+            absSum += Math.abs(residual);
+            dotCentroid += residual * centroid[i];
+        }
+        return new float[] { absSum == 0 ? 0 : normSquared / absSum, normSquared, dotCentroid };
+    }
+
+    /**
+     * A query quantized against a centroid.
+     */
+    static final class Query {
+        private final VectorSimilarityFunction similarityFunction;
+        private final long[][] planes;
+        private final float lower;
+        private final float width;
+        private final float residualSum;
+        private final float residualNormSquared;
+        private final float centroidDot;
+
+        Query(float[] target, float[] centroid, VectorSimilarityFunction similarityFunction) {
+            this.similarityFunction = similarityFunction;
+            final float[] query = prepare(target, similarityFunction);
+            final int dims = query.length;
+            final float[] residual = new float[dims];
+            float lower = Float.POSITIVE_INFINITY;
+            float upper = Float.NEGATIVE_INFINITY;
+            float residualSum = 0;
+            float residualNormSquared = 0;
+            for (int i = 0; i < dims; i++) {
+                residual[i] = query[i] - centroid[i];
+                lower = Math.min(lower, residual[i]);
+                upper = Math.max(upper, residual[i]);
+                residualSum += residual[i];
+                residualNormSquared += residual[i] * residual[i];
+            }
+            this.lower = lower;
+            this.width = (upper - lower) / ((1 << QUERY_BITS) - 1);
+            this.residualSum = residualSum;
+            this.residualNormSquared = residualNormSquared;
+            this.centroidDot = VectorUtil.dotProduct(query, centroid);
+            this.planes = new long[QUERY_BITS][codeLongs(dims)];
+            for (int i = 0; i < dims; i++) {
+                int quantized = width == 0 ? 0 : Math.round((residual[i] - lower) / width);
+                for (int bit = 0; bit < QUERY_BITS; bit++) {
+                    if ((quantized & (1 << bit)) != 0) {
+                        planes[bit][i >>> 6] |= 1L << (i & 63);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Estimate the similarity score of the query and the vector quantized into
+         * {@code code} with the correction factors {@code corrections}.
+         */
+        float score(long[] code, float[] corrections) {
+            int setBits = 0;
+            long quantizedSum = 0;
+            for (int i = 0; i < code.length; i++) {
+                setBits += Long.bitCount(code[i]);
+                for (int bit = 0; bit < QUERY_BITS; bit++) {
+                    quantizedSum += (long) Long.bitCount(code[i] & planes[bit][i]) << bit;
+                }
+            }
+            // sum of the query residual over the dimensions where the vector's residual is positive
+            final float positiveSum = lower * setBits + width * quantizedSum;
+            final float residualDot = corrections[0] * (2 * positiveSum - residualSum);
+            return switch (similarityFunction) {
+                case EUCLIDEAN -> {
+                    float distance = corrections[1] + residualNormSquared - 2 * residualDot;
+                    yield 1 / (1 + Math.max(distance, 0));
+                }
+                case DOT_PRODUCT, COSINE -> Math.max((1 + residualDot + corrections[2] + centroidDot) / 2, 0);
+                case MAXIMUM_INNER_PRODUCT -> VectorUtil.scaleMaxInnerProductScore(residualDot + corrections[2] + centroidDot);
+            };
+        }
+    }
+}
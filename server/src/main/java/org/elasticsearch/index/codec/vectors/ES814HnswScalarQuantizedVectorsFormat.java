@@ -17,8 +17,10 @@ import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsReader;
 import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsWriter;
 import org.apache.lucene.index.SegmentReadState;
 import org.apache.lucene.index.SegmentWriteState;
+import org.apache.lucene.search.TaskExecutor;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
 
 import static org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat.DEFAULT_BEAM_WIDTH;
 import static org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat.DEFAULT_MAX_CONN;
@@ -34,6 +36,12 @@ public final class ES814HnswScalarQuantizedVectorsFormat extends KnnVectorsForma
 
     private final int beamWidth;
 
+    /** The number of workers that build the graph during merges, see {@link Lucene99HnswVectorsWriter} */
+    private final int numMergeWorkers;
+
+    /** The executor that runs the merge workers, {@code null} when graphs are merged on the merge thread */
+    private final TaskExecutor mergeExec;
+
     /** The format for storing, reading, merging vectors on disk */
     private final FlatVectorsFormat flatVectorsFormat;
 
@@ -42,6 +50,18 @@ public final class ES814HnswScalarQuantizedVectorsFormat extends KnnVectorsForma
     }
 
     public ES814HnswScalarQuantizedVectorsFormat(int maxConn, int beamWidth, Float confidenceInterval, int bits, boolean compress) {
+        this(maxConn, beamWidth, confidenceInterval, bits, compress, 1, null);
+    }
+
+    public ES814HnswScalarQuantizedVectorsFormat(
+        int maxConn,
+        int beamWidth,
+        Float confidenceInterval,
+        int bits,
+        boolean compress,
+        int numMergeWorkers,
+        ExecutorService mergeExec
+    ) {
         super(NAME);
         if (maxConn <= 0 || maxConn > MAXIMUM_MAX_CONN) {
             throw new IllegalArgumentException(
@@ -53,14 +73,22 @@ public final class ES814HnswScalarQuantizedVectorsFormat extends KnnVectorsForma
                 "beamWidth must be positive and less than or equal to " + MAXIMUM_BEAM_WIDTH + "; beamWidth=" + beamWidth
             );
         }
+        if (numMergeWorkers < 1) {
+            throw new IllegalArgumentException("numMergeWorkers must be at least 1; numMergeWorkers=" + numMergeWorkers);
+        }
+        if (numMergeWorkers == 1 && mergeExec != null) {
+            throw new IllegalArgumentException("No executor service is needed as we'll use single thread to merge");
+        }
         this.maxConn = maxConn;
         this.beamWidth = beamWidth;
+        this.numMergeWorkers = numMergeWorkers;
+        this.mergeExec = mergeExec == null ? null : new TaskExecutor(mergeExec);
         this.flatVectorsFormat = new ES814ScalarQuantizedVectorsFormat(confidenceInterval, bits, compress);
     }
 
     @Override
     public KnnVectorsWriter fieldsWriter(SegmentWriteState state) throws IOException {
-        return new Lucene99HnswVectorsWriter(state, maxConn, beamWidth, flatVectorsFormat.fieldsWriter(state), 1, null);
+        return new Lucene99HnswVectorsWriter(state, maxConn, beamWidth, flatVectorsFormat.fieldsWriter(state), numMergeWorkers, mergeExec);
     }
 
     @Override
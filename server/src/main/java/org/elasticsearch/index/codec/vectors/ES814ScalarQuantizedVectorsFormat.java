@@ -40,6 +40,7 @@ import org.elasticsearch.simdvec.VectorScorerFactory;
 import org.elasticsearch.simdvec.VectorSimilarityType;
 
 import java.io.IOException;
+import java.util.Optional;
 
 import static org.apache.lucene.codecs.lucene99.Lucene99ScalarQuantizedVectorsFormat.DYNAMIC_CONFIDENCE_INTERVAL;
 
@@ -245,21 +246,24 @@ public class ES814ScalarQuantizedVectorsFormat extends FlatVectorsFormat {
         @Override
         public RandomVectorScorerSupplier getRandomVectorScorerSupplier(VectorSimilarityFunction sim, RandomAccessVectorValues values)
             throws IOException {
-            if (values instanceof RandomAccessQuantizedByteVectorValues qValues && values.getSlice() != null) {
-                // TODO: optimize int4 quantization
-                if (qValues.getScalarQuantizer().getBits() != 7) {
-                    return delegate.getRandomVectorScorerSupplier(sim, values);
-                }
-                if (factory != null) {
-                    var scorer = factory.getInt7SQVectorScorerSupplier(
+            if (values instanceof RandomAccessQuantizedByteVectorValues qValues && values.getSlice() != null && factory != null) {
+                var scorer = switch (qValues.getScalarQuantizer().getBits()) {
+                    case 7 -> factory.getInt7SQVectorScorerSupplier(
                         VectorSimilarityType.of(sim),
                         values.getSlice(),
                         qValues,
                         qValues.getScalarQuantizer().getConstantMultiplier()
                     );
-                    if (scorer.isPresent()) {
-                        return scorer.get();
-                    }
+                    case 4 -> factory.getInt4SQVectorScorerSupplier(
+                        VectorSimilarityType.of(sim),
+                        values.getSlice(),
+                        qValues,
+                        qValues.getScalarQuantizer().getConstantMultiplier()
+                    );
+                    default -> Optional.<RandomVectorScorerSupplier>empty();
+                };
+                if (scorer.isPresent()) {
+                    return scorer.get();
                 }
             }
             return delegate.getRandomVectorScorerSupplier(sim, values);
@@ -268,16 +272,14 @@ public class ES814ScalarQuantizedVectorsFormat extends FlatVectorsFormat {
         @Override
         public RandomVectorScorer getRandomVectorScorer(VectorSimilarityFunction sim, RandomAccessVectorValues values, float[] query)
             throws IOException {
-            if (values instanceof RandomAccessQuantizedByteVectorValues qValues && values.getSlice() != null) {
-                // TODO: optimize int4 quantization
-                if (qValues.getScalarQuantizer().getBits() != 7) {
-                    return delegate.getRandomVectorScorer(sim, values, query);
-                }
-                if (factory != null) {
-                    var scorer = factory.getInt7SQVectorScorer(sim, qValues, query);
-                    if (scorer.isPresent()) {
-                        return scorer.get();
-                    }
+            if (values instanceof RandomAccessQuantizedByteVectorValues qValues && values.getSlice() != null && factory != null) {
+                var scorer = switch (qValues.getScalarQuantizer().getBits()) {
+                    case 7 -> factory.getInt7SQVectorScorer(sim, qValues, query);
+                    case 4 -> factory.getInt4SQVectorScorer(sim, qValues, query);
+                    default -> Optional.<RandomVectorScorer>empty();
+                };
+                if (scorer.isPresent()) {
+                    return scorer.get();
                 }
             }
             return delegate.getRandomVectorScorer(sim, values, query);
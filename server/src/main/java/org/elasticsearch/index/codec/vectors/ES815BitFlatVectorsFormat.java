@@ -22,6 +22,7 @@ import org.apache.lucene.util.hnsw.RandomVectorScorer;
 import org.apache.lucene.util.hnsw.RandomVectorScorerSupplier;
 import org.apache.lucene.util.quantization.RandomAccessQuantizedByteVectorValues;
 import org.elasticsearch.script.field.vectors.ESVectorUtil;
+import org.elasticsearch.simdvec.VectorScorerFactory;
 
 import java.io.IOException;
 
@@ -41,7 +42,14 @@ class ES815BitFlatVectorsFormat extends FlatVectorsFormat {
 
     static class FlatBitVectorScorer implements FlatVectorsScorer {
 
-        static final FlatBitVectorScorer INSTANCE = new FlatBitVectorScorer();
+        static final FlatBitVectorScorer INSTANCE = new FlatBitVectorScorer(VectorScorerFactory.instance().orElse(null));
+
+        // scores mmapped vectors natively, if available
+        private final VectorScorerFactory factory;
+
+        FlatBitVectorScorer(VectorScorerFactory factory) {
+            this.factory = factory;
+        }
 
         static void checkDimensions(int queryLen, int fieldLen) {
             if (queryLen != fieldLen) {
@@ -63,6 +71,15 @@ class ES815BitFlatVectorsFormat extends FlatVectorsFormat {
             assert vectorSimilarityFunction == VectorSimilarityFunction.EUCLIDEAN;
             if (randomAccessVectorValues instanceof RandomAccessVectorValues.Bytes randomAccessVectorValuesBytes) {
                 assert randomAccessVectorValues instanceof RandomAccessQuantizedByteVectorValues == false;
+                if (factory != null && randomAccessVectorValuesBytes.getSlice() != null) {
+                    var scorer = factory.getHammingVectorScorerSupplier(
+                        randomAccessVectorValuesBytes.getSlice(),
+                        randomAccessVectorValuesBytes
+                    );
+                    if (scorer.isPresent()) {
+                        return scorer.get();
+                    }
+                }
                 return switch (vectorSimilarityFunction) {
                     case DOT_PRODUCT, MAXIMUM_INNER_PRODUCT, COSINE, EUCLIDEAN -> new HammingScorerSupplier(randomAccessVectorValuesBytes);
                 };
@@ -80,6 +97,12 @@ class ES815BitFlatVectorsFormat extends FlatVectorsFormat {
             assert vectorSimilarityFunction == VectorSimilarityFunction.EUCLIDEAN;
             if (randomAccessVectorValues instanceof RandomAccessVectorValues.Bytes randomAccessVectorValuesBytes) {
                 checkDimensions(bytes.length, randomAccessVectorValuesBytes.dimension());
+                if (factory != null && randomAccessVectorValuesBytes.getSlice() != null) {
+                    var scorer = factory.getHammingVectorScorer(randomAccessVectorValuesBytes, bytes);
+                    if (scorer.isPresent()) {
+                        return scorer.get();
+                    }
+                }
                 return switch (vectorSimilarityFunction) {
                     case DOT_PRODUCT, MAXIMUM_INNER_PRODUCT, COSINE, EUCLIDEAN -> new HammingVectorScorer(
                         randomAccessVectorValuesBytes,
@@ -17,8 +17,10 @@ import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsReader;
 import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsWriter;
 import org.apache.lucene.index.SegmentReadState;
 import org.apache.lucene.index.SegmentWriteState;
+import org.apache.lucene.search.TaskExecutor;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
 
 public class ES815HnswBitVectorsFormat extends KnnVectorsFormat {
 
@@ -30,6 +32,12 @@ public class ES815HnswBitVectorsFormat extends KnnVectorsFormat {
     private final int maxConn;
     private final int beamWidth;
 
+    /** The number of workers that build the graph during merges, see {@link Lucene99HnswVectorsWriter} */
+    private final int numMergeWorkers;
+
+    /** The executor that runs the merge workers, {@code null} when graphs are merged on the merge thread */
+    private final TaskExecutor mergeExec;
+
     private final FlatVectorsFormat flatVectorsFormat = new ES815BitFlatVectorsFormat();
 
     public ES815HnswBitVectorsFormat() {
@@ -37,6 +45,10 @@ public class ES815HnswBitVectorsFormat extends KnnVectorsFormat {
     }
 
     public ES815HnswBitVectorsFormat(int maxConn, int beamWidth) {
+        this(maxConn, beamWidth, 1, null);
+    }
+
+    public ES815HnswBitVectorsFormat(int maxConn, int beamWidth, int numMergeWorkers, ExecutorService mergeExec) {
         super(NAME);
         if (maxConn <= 0 || maxConn > MAXIMUM_MAX_CONN) {
             throw new IllegalArgumentException(
@@ -48,13 +60,21 @@ public class ES815HnswBitVectorsFormat extends KnnVectorsFormat {
                 "beamWidth must be positive and less than or equal to " + MAXIMUM_BEAM_WIDTH + "; beamWidth=" + beamWidth
             );
         }
+        if (numMergeWorkers < 1) {
+            throw new IllegalArgumentException("numMergeWorkers must be at least 1; numMergeWorkers=" + numMergeWorkers);
+        }
+        if (numMergeWorkers == 1 && mergeExec != null) {
+            throw new IllegalArgumentException("No executor service is needed as we'll use single thread to merge");
+        }
         this.maxConn = maxConn;
         this.beamWidth = beamWidth;
+        this.numMergeWorkers = numMergeWorkers;
+        this.mergeExec = mergeExec == null ? null : new TaskExecutor(mergeExec);
     }
 
     @Override
     public KnnVectorsWriter fieldsWriter(SegmentWriteState state) throws IOException {
-        return new Lucene99HnswVectorsWriter(state, maxConn, beamWidth, flatVectorsFormat.fieldsWriter(state), 1, null);
+        return new Lucene99HnswVectorsWriter(state, maxConn, beamWidth, flatVectorsFormat.fieldsWriter(state), numMergeWorkers, mergeExec);
     }
 
     @Override
@@ -0,0 +1,55 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.KnnVectorsReader;
+import org.apache.lucene.codecs.KnnVectorsWriter;
+import org.apache.lucene.codecs.hnsw.FlatVectorsFormat;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.SegmentWriteState;
+
+import java.io.IOException;
+
+/**
+ * Brute force searches over binary quantized vectors, the best candidates are rescored against the raw vectors.
+ */
+public class ES816BinaryFlatVectorsFormat extends KnnVectorsFormat {
+
+    static final String NAME = "ES816BinaryFlatVectorsFormat";
+
+    private final FlatVectorsFormat format = new ES816BinaryQuantizedVectorsFormat();
+
+    /**
+     * Sole constructor
+     */
+    public ES816BinaryFlatVectorsFormat() {
+        super(NAME);
+    }
+
+    @Override
+    public KnnVectorsWriter fieldsWriter(SegmentWriteState state) throws IOException {
+        return new ES813Int8FlatVectorFormat.ES813FlatVectorWriter(format.fieldsWriter(state));
+    }
+
+    @Override
+    public KnnVectorsReader fieldsReader(SegmentReadState state) throws IOException {
+        return new RescoringKnnVectorsReader(
+            new ES813Int8FlatVectorFormat.ES813FlatVectorReader(format.fieldsReader(state)),
+            state.fieldInfos,
+            RescoringKnnVectorsReader.DEFAULT_OVERSAMPLE
+        );
+    }
+
+    @Override
+    public String toString() {
+        return NAME + "(name=" + NAME + ", innerFormat=" + format + ")";
+    }
+}
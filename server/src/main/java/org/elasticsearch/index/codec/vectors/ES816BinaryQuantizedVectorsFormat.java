@@ -0,0 +1,54 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.hnsw.DefaultFlatVectorScorer;
+import org.apache.lucene.codecs.hnsw.FlatVectorsFormat;
+import org.apache.lucene.codecs.hnsw.FlatVectorsReader;
+import org.apache.lucene.codecs.hnsw.FlatVectorsWriter;
+import org.apache.lucene.codecs.lucene99.Lucene99FlatVectorsFormat;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.SegmentWriteState;
+
+import java.io.IOException;
+
+/**
+ * Stores float vectors quantized to one bit per dimension with {@link BinaryQuantizer}, next to the raw
+ * vectors that are stored with {@link Lucene99FlatVectorsFormat}. Searches score the quantized vectors,
+ * which take about 32 times less memory than the raw vectors, and {@link RescoringKnnVectorsReader}
+ * rescores the best candidates against the raw vectors. Byte vectors are stored as they are.
+ */
+public class ES816BinaryQuantizedVectorsFormat extends FlatVectorsFormat {
+
+    static final String NAME = "ES816BinaryQuantizedVectorsFormat";
+    static final String META_CODEC_NAME = "ES816BinaryQuantizedVectorsFormatMeta";
+    static final String VECTOR_DATA_CODEC_NAME = "ES816BinaryQuantizedVectorsFormatData";
+    static final String META_EXTENSION = "vemb";
+    static final String VECTOR_DATA_EXTENSION = "veb";
+    static final int VERSION_START = 0;
+    static final int VERSION_CURRENT = VERSION_START;
+
+    private static final FlatVectorsFormat rawVectorFormat = new Lucene99FlatVectorsFormat(DefaultFlatVectorScorer.INSTANCE);
+
+    @Override
+    public FlatVectorsWriter fieldsWriter(SegmentWriteState state) throws IOException {
+        return new ES816BinaryQuantizedVectorsWriter(state, rawVectorFormat.fieldsWriter(state));
+    }
+
+    @Override
+    public FlatVectorsReader fieldsReader(SegmentReadState state) throws IOException {
+        return new ES816BinaryQuantizedVectorsReader(state, rawVectorFormat.fieldsReader(state));
+    }
+
+    @Override
+    public String toString() {
+        return NAME + "(name=" + NAME + ", rawVectorFormat=" + rawVectorFormat + ")";
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.codecs.hnsw.FlatVectorsReader;
+import org.apache.lucene.index.ByteVectorValues;
+import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.store.ChecksumIndexInput;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.apache.lucene.util.hnsw.RandomVectorScorer;
+import org.elasticsearch.core.IOUtils;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.elasticsearch.index.codec.vectors.ES816BinaryQuantizedVectorsFormat.META_CODEC_NAME;
+import static org.elasticsearch.index.codec.vectors.ES816BinaryQuantizedVectorsFormat.META_EXTENSION;
+import static org.elasticsearch.index.codec.vectors.ES816BinaryQuantizedVectorsFormat.VECTOR_DATA_CODEC_NAME;
+import static org.elasticsearch.index.codec.vectors.ES816BinaryQuantizedVectorsFormat.VECTOR_DATA_EXTENSION;
+import static org.elasticsearch.index.codec.vectors.ES816BinaryQuantizedVectorsFormat.VERSION_CURRENT;
+import static org.elasticsearch.index.codec.vectors.ES816BinaryQuantizedVectorsFormat.VERSION_START;
+
+/**
+ * Reads segments written by {@link ES816BinaryQuantizedVectorsWriter}. Float queries are scored against the
+ * binary quantized vectors, all other access goes to the raw vectors.
+ */
+class ES816BinaryQuantizedVectorsReader extends FlatVectorsReader {
+
+    private static final long SHALLOW_SIZE = RamUsageEstimator.shallowSizeOfInstance(ES816BinaryQuantizedVectorsReader.class);
+
+    private final FlatVectorsReader rawVectorsReader;
+    private final Map<String, FieldEntry> fields = new HashMap<>();
+    private final IndexInput vectorData;
+
+    ES816BinaryQuantizedVectorsReader(SegmentReadState state, FlatVectorsReader rawVectorsReader) throws IOException {
+        super(rawVectorsReader.getFlatVectorScorer());
+        this.rawVectorsReader = rawVectorsReader;
+        boolean success = false;
+        IndexInput vectorData = null;
+        try {
+            final String metaFileName = IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, META_EXTENSION);
+            int version = -1;
+            try (ChecksumIndexInput meta = state.directory.openChecksumInput(metaFileName, state.context)) {
+                Throwable priorE = null;
+                try {
+                    version = CodecUtil.checkIndexHeader(
+                        meta,
+                        META_CODEC_NAME,
+                        VERSION_START,
+                        VERSION_CURRENT,
+                        state.segmentInfo.getId(),
+                        state.segmentSuffix
+                    );
+                    readFields(meta, state.fieldInfos);
+                } catch (Throwable t) {
+                    priorE = t;
+                } finally {
+                    CodecUtil.checkFooter(meta, priorE);
+                }
+            }
+            vectorData = state.directory.openInput(
+                IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, VECTOR_DATA_EXTENSION),
+                state.context
+            );
+            CodecUtil.checkIndexHeader(
+                vectorData,
+                VECTOR_DATA_CODEC_NAME,
+                version,
+                version,
+                state.segmentInfo.getId(),
+                state.segmentSuffix
+            );
+            CodecUtil.retrieveChecksum(vectorData);
+            success = true;
+        } finally {
+            if (success == false) {
+                IOUtils.closeWhileHandlingException(vectorData, rawVectorsReader);
+            }
+        }
+        this.vectorData = vectorData;
+    }
+
+    private void readFields(ChecksumIndexInput meta, FieldInfos fieldInfos) throws IOException {
+        for (int fieldNumber = meta.readInt(); fieldNumber != -1; fieldNumber = meta.readInt()) {
+            final FieldInfo info = fieldInfos.fieldInfo(fieldNumber);
+            if (info == null) {
+                throw new CorruptIndexException("Invalid field number: " + fieldNumber, meta);
+            }
+            final int dims = info.getVectorDimension();
+            final int size = meta.readVInt();
+            final float[] centroid = new float[dims];
+            meta.readFloats(centroid, 0, dims);
+            final long vectorDataOffset = meta.readLong();
+            final long vectorDataLength = meta.readLong();
+            if (vectorDataLength != (long) size * BinaryQuantizer.bytesPerVector(dims)) {
+                throw new CorruptIndexException(
+                    "Binary quantized vector data length " + vectorDataLength + " not matching size=" + size + " * dims=" + dims,
+                    meta
+                );
+            }
+            fields.put(info.name, new FieldEntry(info.getVectorSimilarityFunction(), centroid, vectorDataOffset, vectorDataLength));
+        }
+    }
+
+    @Override
+    public RandomVectorScorer getRandomVectorScorer(String field, float[] target) throws IOException {
+        final RandomVectorScorer rawScorer = rawVectorsReader.getRandomVectorScorer(field, target);
+        final FieldEntry entry = fields.get(field);
+        if (entry == null || rawScorer == null) {
+            return rawScorer;
+        }
+        return new QuantizedVectorScorer(
+            rawScorer,
+            new BinaryQuantizer.Query(target, entry.centroid, entry.similarityFunction),
+            vectorData.slice("binary-quantized-vector-data", entry.vectorDataOffset, entry.vectorDataLength),
+            target.length
+        );
+    }
+
+    @Override
+    public RandomVectorScorer getRandomVectorScorer(String field, byte[] target) throws IOException {
+        return rawVectorsReader.getRandomVectorScorer(field, target);
+    }
+
+    @Override
+    public void checkIntegrity() throws IOException {
+        rawVectorsReader.checkIntegrity();
+        CodecUtil.checksumEntireFile(vectorData);
+    }
+
+    @Override
+    public FloatVectorValues getFloatVectorValues(String field) throws IOException {
+        return rawVectorsReader.getFloatVectorValues(field);
+    }
+
+    @Override
+    public ByteVectorValues getByteVectorValues(String field) throws IOException {
+        return rawVectorsReader.getByteVectorValues(field);
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOUtils.close(rawVectorsReader, vectorData);
+    }
+
+    @Override
+    public long ramBytesUsed() {
+        long total = SHALLOW_SIZE + rawVectorsReader.ramBytesUsed();
+        for (FieldEntry entry : fields.values()) {
+            total += RamUsageEstimator.sizeOf(entry.centroid);
+        }
+        return total;
+    }
+
+    private record FieldEntry(
+        VectorSimilarityFunction similarityFunction,
+        float[] centroid,
+        long vectorDataOffset,
+        long vectorDataLength
+    ) {}
+
+    /**
+     * Scores the query against the quantized vectors and uses the raw vectors' scorer for everything else.
+     */
+    private static final class QuantizedVectorScorer implements RandomVectorScorer {
+        private final RandomVectorScorer rawScorer;
+        private final BinaryQuantizer.Query query;
+        private final IndexInput slice;
+        private final int bytesPerVector;
+        private final long[] code;
+        private final float[] corrections = new float[BinaryQuantizer.CORRECTIONS];
+
+        QuantizedVectorScorer(RandomVectorScorer rawScorer, BinaryQuantizer.Query query, IndexInput slice, int dims) {
+            this.rawScorer = rawScorer;
+            this.query = query;
+            this.slice = slice;
+            this.bytesPerVector = BinaryQuantizer.bytesPerVector(dims);
+            this.code = new long[BinaryQuantizer.codeLongs(dims)];
+        }
+
+        @Override
+        public float score(int ord) throws IOException {
+            slice.seek((long) ord * bytesPerVector);
+            slice.readLongs(code, 0, code.length);
+            slice.readFloats(corrections, 0, corrections.length);
+            return query.score(code, corrections);
+        }
+
+        @Override
+        public int maxOrd() {
+            return rawScorer.maxOrd();
+        }
+
+        @Override
+        public int ordToDoc(int ord) {
+            return rawScorer.ordToDoc(ord);
+        }
+
+        @Override
+        public Bits getAcceptOrds(Bits acceptDocs) {
+            return rawScorer.getAcceptOrds(acceptDocs);
+        }
+    }
+}
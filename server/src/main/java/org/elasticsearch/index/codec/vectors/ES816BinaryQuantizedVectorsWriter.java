@@ -0,0 +1,251 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.codecs.KnnFieldVectorsWriter;
+import org.apache.lucene.codecs.KnnVectorsWriter;
+import org.apache.lucene.codecs.hnsw.FlatFieldVectorsWriter;
+import org.apache.lucene.codecs.hnsw.FlatVectorsWriter;
+import org.apache.lucene.index.DocsWithFieldSet;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.index.MergeState;
+import org.apache.lucene.index.SegmentWriteState;
+import org.apache.lucene.index.Sorter;
+import org.apache.lucene.index.VectorEncoding;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.apache.lucene.util.hnsw.CloseableRandomVectorScorerSupplier;
+import org.elasticsearch.core.CheckedConsumer;
+import org.elasticsearch.core.IOUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.elasticsearch.index.codec.vectors.ES816BinaryQuantizedVectorsFormat.META_CODEC_NAME;
+import static org.elasticsearch.index.codec.vectors.ES816BinaryQuantizedVectorsFormat.META_EXTENSION;
+import static org.elasticsearch.index.codec.vectors.ES816BinaryQuantizedVectorsFormat.VECTOR_DATA_CODEC_NAME;
+import static org.elasticsearch.index.codec.vectors.ES816BinaryQuantizedVectorsFormat.VECTOR_DATA_EXTENSION;
+import static org.elasticsearch.index.codec.vectors.ES816BinaryQuantizedVectorsFormat.VERSION_CURRENT;
+
+/**
+ * Writes the raw vectors with a {@link FlatVectorsWriter} and then the binary quantized float vectors of each
+ * field. Quantizing needs the centroid of the field's vectors so the vectors are read twice: once to compute
+ * the centroid and once to quantize them. Graphs built on top of this writer use the raw vectors, the quantized
+ * vectors are only used at search time.
+ */
+class ES816BinaryQuantizedVectorsWriter extends FlatVectorsWriter {
+
+    private final FlatVectorsWriter rawVectorsWriter;
+    private final List<FieldWriter> fields = new ArrayList<>();
+    private final IndexOutput meta;
+    private final IndexOutput vectorData;
+    private boolean finished;
+
+    ES816BinaryQuantizedVectorsWriter(SegmentWriteState state, FlatVectorsWriter rawVectorsWriter) throws IOException {
+        super(rawVectorsWriter.getFlatVectorScorer());
+        this.rawVectorsWriter = rawVectorsWriter;
+        boolean success = false;
+        IndexOutput meta = null;
+        IndexOutput vectorData = null;
+        try {
+            meta = state.directory.createOutput(
+                IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, META_EXTENSION),
+                state.context
+            );
+            vectorData = state.directory.createOutput(
+                IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, VECTOR_DATA_EXTENSION),
+                state.context
+            );
+            CodecUtil.writeIndexHeader(meta, META_CODEC_NAME, VERSION_CURRENT, state.segmentInfo.getId(), state.segmentSuffix);
+            CodecUtil.writeIndexHeader(
+                vectorData,
+                VECTOR_DATA_CODEC_NAME,
+                VERSION_CURRENT,
+                state.segmentInfo.getId(),
+                state.segmentSuffix
+            );
+            success = true;
+        } finally {
+            if (success == false) {
+                IOUtils.closeWhileHandlingException(meta, vectorData, rawVectorsWriter);
+            }
+        }
+        this.meta = meta;
+        this.vectorData = vectorData;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public FlatFieldVectorsWriter<?> addField(FieldInfo fieldInfo, KnnFieldVectorsWriter<?> indexWriter) throws IOException {
+        if (fieldInfo.getVectorEncoding() != VectorEncoding.FLOAT32) {
+            return rawVectorsWriter.addField(fieldInfo, indexWriter);
+        }
+        FieldWriter fieldWriter = new FieldWriter(fieldInfo, (KnnFieldVectorsWriter<float[]>) indexWriter);
+        fields.add(fieldWriter);
+        return rawVectorsWriter.addField(fieldInfo, fieldWriter);
+    }
+
+    @Override
+    public void flush(int maxDoc, Sorter.DocMap sortMap) throws IOException {
+        rawVectorsWriter.flush(maxDoc, sortMap);
+        for (FieldWriter field : fields) {
+            final List<float[]> vectors = field.sortedVectors(sortMap);
+            writeField(field.fieldInfo, consumer -> {
+                for (float[] vector : vectors) {
+                    consumer.accept(vector);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void mergeOneField(FieldInfo fieldInfo, MergeState mergeState) throws IOException {
+        rawVectorsWriter.mergeOneField(fieldInfo, mergeState);
+        if (fieldInfo.getVectorEncoding() == VectorEncoding.FLOAT32) {
+            writeField(fieldInfo, mergedVectors(fieldInfo, mergeState));
+        }
+    }
+
+    @Override
+    public CloseableRandomVectorScorerSupplier mergeOneFieldToIndex(FieldInfo fieldInfo, MergeState mergeState) throws IOException {
+        if (fieldInfo.getVectorEncoding() == VectorEncoding.FLOAT32) {
+            writeField(fieldInfo, mergedVectors(fieldInfo, mergeState));
+        }
+        // the graph is built with the raw vectors, which keeps its quality independent of the quantization
+        return rawVectorsWriter.mergeOneFieldToIndex(fieldInfo, mergeState);
+    }
+
+    private static FieldVectors mergedVectors(FieldInfo fieldInfo, MergeState mergeState) {
+        return consumer -> {
+            FloatVectorValues values = KnnVectorsWriter.MergedVectorValues.mergeFloatVectorValues(fieldInfo, mergeState);
+            for (int doc = values.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = values.nextDoc()) {
+                consumer.accept(values.vectorValue());
+            }
+        };
+    }
+
+    private void writeField(FieldInfo fieldInfo, FieldVectors vectors) throws IOException {
+        final int dims = fieldInfo.getVectorDimension();
+        final VectorSimilarityFunction similarityFunction = fieldInfo.getVectorSimilarityFunction();
+        final float[] centroid = new float[dims];
+        final int[] count = new int[1];
+        vectors.forEach(vector -> {
+            float[] prepared = BinaryQuantizer.prepare(vector, similarityFunction);
+            for (int i = 0; i < dims; i++) {
+                centroid[i] += prepared[i];
+            }
+            count[0]++;
+        });
+        if (count[0] > 0) {
+            for (int i = 0; i < dims; i++) {
+                centroid[i] /= count[0];
+            }
+        }
+
+        final long vectorDataOffset = vectorData.getFilePointer();
+        final long[] code = new long[BinaryQuantizer.codeLongs(dims)];
+        vectors.forEach(vector -> {
+            float[] corrections = BinaryQuantizer.quantize(BinaryQuantizer.prepare(vector, similarityFunction), centroid, code);
+            for (long bits : code) {
+                vectorData.writeLong(bits);
+            }
+            for (float correction : corrections) {
+                vectorData.writeInt(Float.floatToIntBits(correction));
+            }
+        });
+
+        meta.writeInt(fieldInfo.number);
+        meta.writeVInt(count[0]);
+        for (float v : centroid) {
+            meta.writeInt(Float.floatToIntBits(v));
+        }
+        meta.writeLong(vectorDataOffset);
+        meta.writeLong(vectorData.getFilePointer() - vectorDataOffset);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (finished) {
+            throw new IllegalStateException("already finished");
+        }
+        finished = true;
+        rawVectorsWriter.finish();
+        meta.writeInt(-1);
+        CodecUtil.writeFooter(meta);
+        CodecUtil.writeFooter(vectorData);
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOUtils.close(meta, vectorData, rawVectorsWriter);
+    }
+
+    @Override
+    public long ramBytesUsed() {
+        // the raw vectors writer accounts for the field writers since they are its indexing delegates
+        return rawVectorsWriter.ramBytesUsed();
+    }
+
+    /**
+     * Visits the vectors of a field in the order of their ordinals. Can be called several times.
+     */
+    @FunctionalInterface
+    private interface FieldVectors {
+        void forEach(CheckedConsumer<float[], IOException> consumer) throws IOException;
+    }
+
+    /**
+     * Keeps track of the vectors the {@link FlatVectorsWriter} buffers for a field so they can be quantized
+     * on flush, and forwards them to the writer that indexes them, if any.
+     */
+    private static class FieldWriter extends KnnFieldVectorsWriter<float[]> {
+        private static final long SHALLOW_SIZE = RamUsageEstimator.shallowSizeOfInstance(FieldWriter.class);
+
+        private final FieldInfo fieldInfo;
+        private final KnnFieldVectorsWriter<float[]> indexWriter;
+        private final DocsWithFieldSet docsWithField = new DocsWithFieldSet();
+        private final List<float[]> vectors = new ArrayList<>();
+
+        FieldWriter(FieldInfo fieldInfo, KnnFieldVectorsWriter<float[]> indexWriter) {
+            this.fieldInfo = fieldInfo;
+            this.indexWriter = indexWriter;
+        }
+
+        @Override
+        public void addValue(int docID, float[] vectorValue) throws IOException {
+            docsWithField.add(docID);
+            vectors.add(vectorValue);
+            if (indexWriter != null) {
+                indexWriter.addValue(docID, vectorValue);
+            }
+        }
+
+        @Override
+        public float[] copyValue(float[] vectorValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        List<float[]> sortedVectors(Sorter.DocMap sortMap) throws IOException {
+            return FloatVectorsSorter.sortedVectors(vectors, docsWithField, sortMap);
+        }
+
+        @Override
+        public long ramBytesUsed() {
+            long total = SHALLOW_SIZE + docsWithField.ramBytesUsed() + (long) vectors.size() * RamUsageEstimator.NUM_BYTES_OBJECT_REF;
+            return indexWriter == null ? total : total + indexWriter.ramBytesUsed();
+        }
+    }
+}
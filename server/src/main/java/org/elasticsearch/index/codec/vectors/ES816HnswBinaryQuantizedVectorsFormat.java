@@ -0,0 +1,127 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.KnnVectorsReader;
+import org.apache.lucene.codecs.KnnVectorsWriter;
+import org.apache.lucene.codecs.hnsw.FlatVectorsFormat;
+import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsReader;
+import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsWriter;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.SegmentWriteState;
+import org.apache.lucene.search.TaskExecutor;
+import org.apache.lucene.util.hnsw.HnswGraph;
+import org.apache.lucene.util.hnsw.HnswGraphProvider;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat.DEFAULT_BEAM_WIDTH;
+import static org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat.DEFAULT_MAX_CONN;
+
+/**
+ * HNSW graphs over binary quantized vectors. The graphs are built with the raw vectors and searched with the
+ * quantized vectors, and the best candidates are rescored against the raw vectors.
+ */
+public final class ES816HnswBinaryQuantizedVectorsFormat extends KnnVectorsFormat {
+
+    static final String NAME = "ES816HnswBinaryQuantizedVectorsFormat";
+
+    static final int MAXIMUM_MAX_CONN = 512;
+    static final int MAXIMUM_BEAM_WIDTH = 3200;
+
+    private final int maxConn;
+
+    private final int beamWidth;
+
+    /** The number of workers that build the graph during merges, see {@link Lucene99HnswVectorsWriter} */
+    private final int numMergeWorkers;
+
+    /** The executor that runs the merge workers, {@code null} when graphs are merged on the merge thread */
+    private final TaskExecutor mergeExec;
+
+    /** The format for storing, reading, merging vectors on disk */
+    private final FlatVectorsFormat flatVectorsFormat = new ES816BinaryQuantizedVectorsFormat();
+
+    public ES816HnswBinaryQuantizedVectorsFormat() {
+        this(DEFAULT_MAX_CONN, DEFAULT_BEAM_WIDTH);
+    }
+
+    public ES816HnswBinaryQuantizedVectorsFormat(int maxConn, int beamWidth) {
+        this(maxConn, beamWidth, 1, null);
+    }
+
+    public ES816HnswBinaryQuantizedVectorsFormat(int maxConn, int beamWidth, int numMergeWorkers, ExecutorService mergeExec) {
+        super(NAME);
+        if (maxConn <= 0 || maxConn > MAXIMUM_MAX_CONN) {
+            throw new IllegalArgumentException(
+                "maxConn must be positive and less than or equal to " + MAXIMUM_MAX_CONN + "; maxConn=" + maxConn
+            );
+        }
+        if (beamWidth <= 0 || beamWidth > MAXIMUM_BEAM_WIDTH) {
+            throw new IllegalArgumentException(
+                "beamWidth must be positive and less than or equal to " + MAXIMUM_BEAM_WIDTH + "; beamWidth=" + beamWidth
+            );
+        }
+        if (numMergeWorkers < 1) {
+            throw new IllegalArgumentException("numMergeWorkers must be at least 1; numMergeWorkers=" + numMergeWorkers);
+        }
+        if (numMergeWorkers == 1 && mergeExec != null) {
+            throw new IllegalArgumentException("No executor service is needed as we'll use single thread to merge");
+        }
+        this.maxConn = maxConn;
+        this.beamWidth = beamWidth;
+        this.numMergeWorkers = numMergeWorkers;
+        this.mergeExec = mergeExec == null ? null : new TaskExecutor(mergeExec);
+    }
+
+    @Override
+    public KnnVectorsWriter fieldsWriter(SegmentWriteState state) throws IOException {
+        return new Lucene99HnswVectorsWriter(state, maxConn, beamWidth, flatVectorsFormat.fieldsWriter(state), numMergeWorkers, mergeExec);
+    }
+
+    @Override
+    public KnnVectorsReader fieldsReader(SegmentReadState state) throws IOException {
+        return new RescoringHnswVectorsReader(
+            new Lucene99HnswVectorsReader(state, flatVectorsFormat.fieldsReader(state)),
+            state.fieldInfos
+        );
+    }
+
+    @Override
+    public String toString() {
+        return "ES816HnswBinaryQuantizedVectorsFormat(name=ES816HnswBinaryQuantizedVectorsFormat, maxConn="
+            + maxConn
+            + ", beamWidth="
+            + beamWidth
+            + ", flatVectorFormat="
+            + flatVectorsFormat
+            + ")";
+    }
+
+    /**
+     * Exposes the graphs of the wrapped reader so that merges can start from the graph of the largest segment.
+     */
+    private static class RescoringHnswVectorsReader extends RescoringKnnVectorsReader implements HnswGraphProvider {
+        private final Lucene99HnswVectorsReader hnswReader;
+
+        RescoringHnswVectorsReader(Lucene99HnswVectorsReader hnswReader, FieldInfos fieldInfos) {
+            super(hnswReader, fieldInfos, DEFAULT_OVERSAMPLE);
+            this.hnswReader = hnswReader;
+        }
+
+        @Override
+        public HnswGraph getGraph(String field) throws IOException {
+            return hnswReader.getGraph(field);
+        }
+    }
+}
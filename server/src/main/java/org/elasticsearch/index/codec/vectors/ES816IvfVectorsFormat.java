@@ -0,0 +1,101 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.KnnVectorsReader;
+import org.apache.lucene.codecs.KnnVectorsWriter;
+import org.apache.lucene.codecs.hnsw.DefaultFlatVectorScorer;
+import org.apache.lucene.codecs.hnsw.FlatVectorsFormat;
+import org.apache.lucene.codecs.lucene99.Lucene99FlatVectorsFormat;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.SegmentWriteState;
+
+import java.io.IOException;
+
+/**
+ * An inverted file (IVF) vectors format. Vectors are clustered into partitions when segments are flushed
+ * or merged and each partition is stored as a list of vector ordinals next to its centroid. Searches
+ * rank the centroids and then only score the vectors of the {@code nprobe} closest partitions, so only
+ * the centroids have to be kept in memory and merging is much cheaper than building an HNSW graph.
+ * The raw vectors are stored with {@link Lucene99FlatVectorsFormat}.
+ */
+public class ES816IvfVectorsFormat extends KnnVectorsFormat {
+
+    static final String NAME = "ES816IvfVectorsFormat";
+    static final String META_CODEC_NAME = "ES816IvfVectorsFormatMeta";
+    static final String POSTINGS_CODEC_NAME = "ES816IvfVectorsFormatPostings";
+    static final String META_EXTENSION = "ivfm";
+    static final String POSTINGS_EXTENSION = "ivfp";
+    static final int VERSION_START = 0;
+    static final int VERSION_CURRENT = VERSION_START;
+
+    public static final int DEFAULT_VECTORS_PER_CLUSTER = 1000;
+    public static final int MIN_VECTORS_PER_CLUSTER = 64;
+    public static final int MAX_VECTORS_PER_CLUSTER = 1 << 16;
+    public static final int DEFAULT_NPROBE = 10;
+    public static final int MAX_NPROBE = 10_000;
+
+    private static final FlatVectorsFormat rawVectorFormat = new Lucene99FlatVectorsFormat(DefaultFlatVectorScorer.INSTANCE);
+
+    private final int vectorsPerCluster;
+    private final int nprobe;
+
+    public ES816IvfVectorsFormat() {
+        this(DEFAULT_VECTORS_PER_CLUSTER, DEFAULT_NPROBE);
+    }
+
+    /**
+     * @param vectorsPerCluster the number of vectors to put in each partition on average
+     * @param nprobe the minimum number of partitions that searches of segments written with this format visit
+     */
+    public ES816IvfVectorsFormat(int vectorsPerCluster, int nprobe) {
+        super(NAME);
+        if (vectorsPerCluster < MIN_VECTORS_PER_CLUSTER || vectorsPerCluster > MAX_VECTORS_PER_CLUSTER) {
+            throw new IllegalArgumentException(
+                "vectorsPerCluster must be between "
+                    + MIN_VECTORS_PER_CLUSTER
+                    + " and "
+                    + MAX_VECTORS_PER_CLUSTER
+                    + "; vectorsPerCluster="
+                    + vectorsPerCluster
+            );
+        }
+        if (nprobe <= 0 || nprobe > MAX_NPROBE) {
+            throw new IllegalArgumentException("nprobe must be positive and less than or equal to " + MAX_NPROBE + "; nprobe=" + nprobe);
+        }
+        this.vectorsPerCluster = vectorsPerCluster;
+        this.nprobe = nprobe;
+    }
+
+    @Override
+    public KnnVectorsWriter fieldsWriter(SegmentWriteState state) throws IOException {
+        return new ES816IvfVectorsWriter(state, rawVectorFormat.fieldsWriter(state), vectorsPerCluster, nprobe);
+    }
+
+    @Override
+    public KnnVectorsReader fieldsReader(SegmentReadState state) throws IOException {
+        return new ES816IvfVectorsReader(state, rawVectorFormat.fieldsReader(state));
+    }
+
+    @Override
+    public String toString() {
+        return NAME
+            + "(name="
+            + NAME
+            + ", vectorsPerCluster="
+            + vectorsPerCluster
+            + ", nprobe="
+            + nprobe
+            + ", rawVectorFormat="
+            + rawVectorFormat
+            + ")";
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.codecs.KnnVectorsReader;
+import org.apache.lucene.codecs.hnsw.FlatVectorsReader;
+import org.apache.lucene.index.ByteVectorValues;
+import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.KnnCollector;
+import org.apache.lucene.store.ChecksumIndexInput;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.apache.lucene.util.hnsw.NeighborQueue;
+import org.apache.lucene.util.hnsw.OrdinalTranslatedKnnCollector;
+import org.apache.lucene.util.hnsw.RandomVectorScorer;
+import org.elasticsearch.core.IOUtils;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.elasticsearch.index.codec.vectors.ES816IvfVectorsFormat.META_CODEC_NAME;
+import static org.elasticsearch.index.codec.vectors.ES816IvfVectorsFormat.META_EXTENSION;
+import static org.elasticsearch.index.codec.vectors.ES816IvfVectorsFormat.POSTINGS_CODEC_NAME;
+import static org.elasticsearch.index.codec.vectors.ES816IvfVectorsFormat.POSTINGS_EXTENSION;
+import static org.elasticsearch.index.codec.vectors.ES816IvfVectorsFormat.VERSION_CURRENT;
+import static org.elasticsearch.index.codec.vectors.ES816IvfVectorsFormat.VERSION_START;
+
+/**
+ * Reads segments written by {@link ES816IvfVectorsWriter}. Searches score the query against all centroids and
+ * then visit the partitions from the closest to the furthest, stopping once they visited {@code nprobe}
+ * partitions and collected at least {@code k} vectors.
+ */
+class ES816IvfVectorsReader extends KnnVectorsReader {
+
+    private final FlatVectorsReader rawVectorsReader;
+    private final Map<String, FieldEntry> fields = new HashMap<>();
+    private final IndexInput postings;
+
+    ES816IvfVectorsReader(SegmentReadState state, FlatVectorsReader rawVectorsReader) throws IOException {
+        this.rawVectorsReader = rawVectorsReader;
+        boolean success = false;
+        IndexInput postings = null;
+        try {
+            final String metaFileName = IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, META_EXTENSION);
+            int version = -1;
+            try (ChecksumIndexInput meta = state.directory.openChecksumInput(metaFileName, state.context)) {
+                Throwable priorE = null;
+                try {
+                    version = CodecUtil.checkIndexHeader(
+                        meta,
+                        META_CODEC_NAME,
+                        VERSION_START,
+                        VERSION_CURRENT,
+                        state.segmentInfo.getId(),
+                        state.segmentSuffix
+                    );
+                    readFields(meta, state.fieldInfos);
+                } catch (Throwable t) {
+                    priorE = t;
+                } finally {
+                    CodecUtil.checkFooter(meta, priorE);
+                }
+            }
+            postings = state.directory.openInput(
+                IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, POSTINGS_EXTENSION),
+                state.context
+            );
+            CodecUtil.checkIndexHeader(postings, POSTINGS_CODEC_NAME, version, version, state.segmentInfo.getId(), state.segmentSuffix);
+            CodecUtil.retrieveChecksum(postings);
+            success = true;
+        } finally {
+            if (success == false) {
+                IOUtils.closeWhileHandlingException(postings, rawVectorsReader);
+            }
+        }
+        this.postings = postings;
+    }
+
+    private void readFields(ChecksumIndexInput meta, FieldInfos fieldInfos) throws IOException {
+        for (int fieldNumber = meta.readInt(); fieldNumber != -1; fieldNumber = meta.readInt()) {
+            final FieldInfo info = fieldInfos.fieldInfo(fieldNumber);
+            if (info == null) {
+                throw new CorruptIndexException("Invalid field number: " + fieldNumber, meta);
+            }
+            final int dims = info.getVectorDimension();
+            final int nprobe = meta.readVInt();
+            final float[][] centroids = new float[meta.readVInt()][dims];
+            for (float[] centroid : centroids) {
+                meta.readFloats(centroid, 0, dims);
+            }
+            final long postingsOffset = meta.readLong();
+            final long postingsLength = meta.readLong();
+            final long[] offsets = new long[centroids.length];
+            long offset = 0;
+            for (int c = 0; c < offsets.length; c++) {
+                offset += meta.readVLong();
+                offsets[c] = offset;
+            }
+            fields.put(
+                info.name,
+                new FieldEntry(info.getVectorSimilarityFunction(), nprobe, centroids, postingsOffset, postingsLength, offsets)
+            );
+        }
+    }
+
+    @Override
+    public void checkIntegrity() throws IOException {
+        rawVectorsReader.checkIntegrity();
+        CodecUtil.checksumEntireFile(postings);
+    }
+
+    @Override
+    public FloatVectorValues getFloatVectorValues(String field) throws IOException {
+        return rawVectorsReader.getFloatVectorValues(field);
+    }
+
+    @Override
+    public ByteVectorValues getByteVectorValues(String field) throws IOException {
+        return rawVectorsReader.getByteVectorValues(field);
+    }
+
+    @Override
+    public void search(String field, float[] target, KnnCollector knnCollector, Bits acceptDocs) throws IOException {
+        final RandomVectorScorer scorer = rawVectorsReader.getRandomVectorScorer(field, target);
+        final FieldEntry entry = fields.get(field);
+        if (entry == null) {
+            collectAllMatchingDocs(knnCollector, acceptDocs, scorer);
+            return;
+        }
+        final OrdinalTranslatedKnnCollector collector = new OrdinalTranslatedKnnCollector(knnCollector, scorer::ordToDoc);
+        final Bits acceptedOrds = scorer.getAcceptOrds(acceptDocs);
+        final NeighborQueue closest = new NeighborQueue(Math.max(1, entry.centroids.length), true);
+        for (int c = 0; c < entry.centroids.length; c++) {
+            closest.add(c, entry.similarityFunction.compare(target, entry.centroids[c]));
+        }
+        final IndexInput in = postings.slice("ivf-postings", entry.postingsOffset, entry.postingsLength);
+        int probed = 0;
+        long collected = 0;
+        while (closest.size() > 0 && (probed < entry.nprobe || collected < knnCollector.k())) {
+            in.seek(entry.offsets[closest.pop()]);
+            probed++;
+            final int count = in.readVInt();
+            int ord = 0;
+            for (int i = 0; i < count; i++) {
+                ord += in.readVInt();
+                if (acceptedOrds == null || acceptedOrds.get(ord)) {
+                    collector.collect(ord, scorer.score(ord));
+                    collector.incVisitedCount(1);
+                    collected++;
+                    if (collector.earlyTerminated()) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void search(String field, byte[] target, KnnCollector knnCollector, Bits acceptDocs) throws IOException {
+        collectAllMatchingDocs(knnCollector, acceptDocs, rawVectorsReader.getRandomVectorScorer(field, target));
+    }
+
+    private static void collectAllMatchingDocs(KnnCollector knnCollector, Bits acceptDocs, RandomVectorScorer scorer) throws IOException {
+        OrdinalTranslatedKnnCollector collector = new OrdinalTranslatedKnnCollector(knnCollector, scorer::ordToDoc);
+        Bits acceptedOrds = scorer.getAcceptOrds(acceptDocs);
+        for (int i = 0; i < scorer.maxOrd(); i++) {
+            if (acceptedOrds == null || acceptedOrds.get(i)) {
+                collector.collect(i, scorer.score(i));
+                collector.incVisitedCount(1);
+                if (collector.earlyTerminated()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOUtils.close(rawVectorsReader, postings);
+    }
+
+    @Override
+    public long ramBytesUsed() {
+        long total = rawVectorsReader.ramBytesUsed();
+        for (FieldEntry entry : fields.values()) {
+            total += entry.ramBytesUsed();
+        }
+        return total;
+    }
+
+    private record FieldEntry(
+        VectorSimilarityFunction similarityFunction,
+        int nprobe,
+        float[][] centroids,
+        long postingsOffset,
+        long postingsLength,
+        long[] offsets
+    ) {
+        long ramBytesUsed() {
+            long total = RamUsageEstimator.sizeOf(offsets) + RamUsageEstimator.shallowSizeOf(centroids);
+            for (float[] centroid : centroids) {
+                total += RamUsageEstimator.sizeOf(centroid);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.codecs.KnnFieldVectorsWriter;
+import org.apache.lucene.codecs.KnnVectorsWriter;
+import org.apache.lucene.codecs.hnsw.FlatVectorsWriter;
+import org.apache.lucene.index.DocsWithFieldSet;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.index.MergeState;
+import org.apache.lucene.index.SegmentWriteState;
+import org.apache.lucene.index.Sorter;
+import org.apache.lucene.index.VectorEncoding;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.core.IOUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.elasticsearch.index.codec.vectors.ES816IvfVectorsFormat.META_CODEC_NAME;
+import static org.elasticsearch.index.codec.vectors.ES816IvfVectorsFormat.META_EXTENSION;
+import static org.elasticsearch.index.codec.vectors.ES816IvfVectorsFormat.POSTINGS_CODEC_NAME;
+import static org.elasticsearch.index.codec.vectors.ES816IvfVectorsFormat.POSTINGS_EXTENSION;
+import static org.elasticsearch.index.codec.vectors.ES816IvfVectorsFormat.VERSION_CURRENT;
+
+/**
+ * Writes the raw vectors with a {@link FlatVectorsWriter} and then clusters the float vectors of
+ * each field with {@link HierarchicalKMeans}. The centroids go to the meta file, which is loaded
+ * on heap when the segment is opened, and the ordinals of each partition go to the postings file.
+ * Byte vectors aren't clustered and are searched exhaustively.
+ */
+class ES816IvfVectorsWriter extends KnnVectorsWriter {
+
+    private final SegmentWriteState state;
+    private final FlatVectorsWriter rawVectorsWriter;
+    private final int vectorsPerCluster;
+    private final int nprobe;
+    private final List<FieldWriter> fields = new ArrayList<>();
+    private final IndexOutput meta;
+    private final IndexOutput postings;
+    private boolean finished;
+
+    ES816IvfVectorsWriter(SegmentWriteState state, FlatVectorsWriter rawVectorsWriter, int vectorsPerCluster, int nprobe)
+        throws IOException {
+        this.state = state;
+        this.rawVectorsWriter = rawVectorsWriter;
+        this.vectorsPerCluster = vectorsPerCluster;
+        this.nprobe = nprobe;
+        boolean success = false;
+        IndexOutput meta = null;
+        IndexOutput postings = null;
+        try {
+            meta = state.directory.createOutput(
+                IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, META_EXTENSION),
+                state.context
+            );
+            postings = state.directory.createOutput(
+                IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, POSTINGS_EXTENSION),
+                state.context
+            );
+            CodecUtil.writeIndexHeader(meta, META_CODEC_NAME, VERSION_CURRENT, state.segmentInfo.getId(), state.segmentSuffix);
+            CodecUtil.writeIndexHeader(postings, POSTINGS_CODEC_NAME, VERSION_CURRENT, state.segmentInfo.getId(), state.segmentSuffix);
+            success = true;
+        } finally {
+            if (success == false) {
+                IOUtils.closeWhileHandlingException(meta, postings, rawVectorsWriter);
+            }
+        }
+        this.meta = meta;
+        this.postings = postings;
+    }
+
+    @Override
+    public KnnFieldVectorsWriter<?> addField(FieldInfo fieldInfo) throws IOException {
+        if (fieldInfo.getVectorEncoding() != VectorEncoding.FLOAT32) {
+            return rawVectorsWriter.addField(fieldInfo, null);
+        }
+        FieldWriter fieldWriter = new FieldWriter(fieldInfo);
+        fields.add(fieldWriter);
+        return rawVectorsWriter.addField(fieldInfo, fieldWriter);
+    }
+
+    @Override
+    public void flush(int maxDoc, Sorter.DocMap sortMap) throws IOException {
+        rawVectorsWriter.flush(maxDoc, sortMap);
+        for (FieldWriter field : fields) {
+            final List<float[]> vectors = field.sortedVectors(sortMap);
+            writeField(field.fieldInfo, new HierarchicalKMeans.Vectors() {
+                @Override
+                public int size() {
+                    return vectors.size();
+                }
+
+                @Override
+                public float[] vector(int ord) {
+                    return vectors.get(ord);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void mergeOneField(FieldInfo fieldInfo, MergeState mergeState) throws IOException {
+        rawVectorsWriter.mergeOneField(fieldInfo, mergeState);
+        if (fieldInfo.getVectorEncoding() != VectorEncoding.FLOAT32) {
+            return;
+        }
+        // the merged vectors can be much larger than the heap so they are clustered from a temporary copy
+        final int dims = fieldInfo.getVectorDimension();
+        String tempName = null;
+        boolean success = false;
+        try {
+            int size = 0;
+            try (IndexOutput temp = state.directory.createTempOutput(state.segmentInfo.name, "ivf_" + fieldInfo.number, state.context)) {
+                tempName = temp.getName();
+                FloatVectorValues values = MergedVectorValues.mergeFloatVectorValues(fieldInfo, mergeState);
+                for (int doc = values.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = values.nextDoc()) {
+                    for (float v : values.vectorValue()) {
+                        temp.writeInt(Float.floatToIntBits(v));
+                    }
+                    size++;
+                }
+            }
+            final int numVectors = size;
+            try (IndexInput in = state.directory.openInput(tempName, state.context)) {
+                final float[] buffer = new float[dims];
+                writeField(fieldInfo, new HierarchicalKMeans.Vectors() {
+                    @Override
+                    public int size() {
+                        return numVectors;
+                    }
+
+                    @Override
+                    public float[] vector(int ord) throws IOException {
+                        in.seek((long) ord * dims * Float.BYTES);
+                        in.readFloats(buffer, 0, dims);
+                        return buffer;
+                    }
+                });
+            }
+            success = true;
+        } finally {
+            if (tempName != null) {
+                if (success) {
+                    state.directory.deleteFile(tempName);
+                } else {
+                    try {
+                        state.directory.deleteFile(tempName);
+                    } catch (IOException | RuntimeException e) {
+                        // ignored, the original failure is more interesting
+                    }
+                }
+            }
+        }
+    }
+
+    private void writeField(FieldInfo fieldInfo, HierarchicalKMeans.Vectors vectors) throws IOException {
+        final HierarchicalKMeans.Clusters clusters = HierarchicalKMeans.cluster(
+            vectors,
+            fieldInfo.getVectorDimension(),
+            vectorsPerCluster,
+            fieldInfo.getVectorSimilarityFunction()
+        );
+        final float[][] centroids = clusters.centroids();
+        final int[] assignments = clusters.assignments();
+
+        // group the ordinals by partition, keeping them sorted within each partition
+        final int[] starts = new int[centroids.length + 1];
+        for (int assignment : assignments) {
+            starts[assignment + 1]++;
+        }
+        for (int c = 0; c < centroids.length; c++) {
+            starts[c + 1] += starts[c];
+        }
+        final int[] ords = new int[assignments.length];
+        final int[] next = Arrays.copyOf(starts, centroids.length);
+        for (int ord = 0; ord < assignments.length; ord++) {
+            ords[next[assignments[ord]]++] = ord;
+        }
+
+        final long postingsOffset = postings.getFilePointer();
+        final long[] offsets = new long[centroids.length];
+        for (int c = 0; c < centroids.length; c++) {
+            offsets[c] = postings.getFilePointer() - postingsOffset;
+            postings.writeVInt(starts[c + 1] - starts[c]);
+            int previous = 0;
+            for (int i = starts[c]; i < starts[c + 1]; i++) {
+                postings.writeVInt(ords[i] - previous);
+                previous = ords[i];
+            }
+        }
+
+        meta.writeInt(fieldInfo.number);
+        meta.writeVInt(nprobe);
+        meta.writeVInt(centroids.length);
+        for (float[] centroid : centroids) {
+            for (float v : centroid) {
+                meta.writeInt(Float.floatToIntBits(v));
+            }
+        }
+        meta.writeLong(postingsOffset);
+        meta.writeLong(postings.getFilePointer() - postingsOffset);
+        long previousOffset = 0;
+        for (long offset : offsets) {
+            meta.writeVLong(offset - previousOffset);
+            previousOffset = offset;
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (finished) {
+            throw new IllegalStateException("already finished");
+        }
+        finished = true;
+        rawVectorsWriter.finish();
+        meta.writeInt(-1);
+        CodecUtil.writeFooter(meta);
+        CodecUtil.writeFooter(postings);
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOUtils.close(meta, postings, rawVectorsWriter);
+    }
+
+    @Override
+    public long ramBytesUsed() {
+        long total = rawVectorsWriter.ramBytesUsed();
+        for (FieldWriter field : fields) {
+            total += field.ramBytesUsed();
+        }
+        return total;
+    }
+
+    /**
+     * Keeps track of the vectors the {@link FlatVectorsWriter} buffers for a field so they can be clustered
+     * on flush. The vectors are the copies the {@link FlatVectorsWriter} made so they aren't copied again.
+     */
+    private static class FieldWriter extends KnnFieldVectorsWriter<float[]> {
+        private static final long SHALLOW_SIZE = RamUsageEstimator.shallowSizeOfInstance(FieldWriter.class);
+
+        private final FieldInfo fieldInfo;
+        private final DocsWithFieldSet docsWithField = new DocsWithFieldSet();
+        private final List<float[]> vectors = new ArrayList<>();
+
+        FieldWriter(FieldInfo fieldInfo) {
+            this.fieldInfo = fieldInfo;
+        }
+
+        @Override
+        public void addValue(int docID, float[] vectorValue) {
+            docsWithField.add(docID);
+            vectors.add(vectorValue);
+        }
+
+        @Override
+        public float[] copyValue(float[] vectorValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        List<float[]> sortedVectors(Sorter.DocMap sortMap) throws IOException {
+            return FloatVectorsSorter.sortedVectors(vectors, docsWithField, sortMap);
+        }
+
+        @Override
+        public long ramBytesUsed() {
+            return SHALLOW_SIZE + docsWithField.ramBytesUsed() + (long) vectors.size() * RamUsageEstimator.NUM_BYTES_OBJECT_REF;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.index.DocsWithFieldSet;
+import org.apache.lucene.index.Sorter;
+import org.apache.lucene.search.DocIdSetIterator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Orders the float vectors that a writer buffered for a field like the segment it flushes them to.
+ */
+final class FloatVectorsSorter {
+    private FloatVectorsSorter() {}
+
+    /**
+     * The vectors in the order of their ordinals in the flushed segment, which are
+     * assigned in the order of the documents after sorting the index.
+     * @param vectors the buffered vectors, in the order they were added
+     * @param docsWithField the documents the vectors were added for
+     * @param sortMap how the index is sorted, or {@code null} if it isn't
+     */
+    static List<float[]> sortedVectors(List<float[]> vectors, DocsWithFieldSet docsWithField, Sorter.DocMap sortMap)
+        throws IOException {
+        if (sortMap == null) {
+            return vectors;
+        }
+        final int[] newDocs = new int[vectors.size()];
+        final DocIdSetIterator docs = docsWithField.iterator();
+        int ord = 0;
+        for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
+            newDocs[ord++] = sortMap.oldToNew(doc);
+        }
+        final Integer[] oldOrds = new Integer[newDocs.length];
+        for (int i = 0; i < oldOrds.length; i++) {
+            oldOrds[i] = i;
+        }
+        Arrays.sort(oldOrds, (a, b) -> Integer.compare(newDocs[a], newDocs[b]));
+        final List<float[]> sorted = new ArrayList<>(oldOrds.length);
+        for (int oldOrd : oldOrds) {
+            sorted.add(vectors.get(oldOrd));
+        }
+        return sorted;
+    }
+}
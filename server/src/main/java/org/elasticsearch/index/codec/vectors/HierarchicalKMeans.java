@@ -0,0 +1,235 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.util.VectorUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Clusters vectors into partitions of about {@code vectorsPerCluster} vectors. Rather than running k-means
+ * with all centroids at once, which costs {@code vectors * centroids} similarity computations per iteration,
+ * this splits the vectors into at most {@link #MAX_CLUSTERS_PER_SPLIT} clusters and recursively splits the
+ * clusters that are still too large. Each split runs k-means on a sample of the vectors it splits and then
+ * assigns all of them to the nearest of its centroids.
+ */
+final class HierarchicalKMeans {
+    static final int MAX_CLUSTERS_PER_SPLIT = 64;
+    static final int SAMPLES_PER_CLUSTER = 64;
+    static final int MAX_SAMPLES = 1 << 14;
+    static final int MAX_ITERATIONS = 10;
+
+    /**
+     * Random access to the vectors to cluster. The returned array may be reused by the next call.
+     */
+    interface Vectors {
+        int size();
+
+        float[] vector(int ord) throws IOException;
+    }
+
+    /**
+     * The centroids of the partitions and the partition of each vector.
+     */
+    record Clusters(float[][] centroids, int[] assignments) {}
+
+    private final Vectors vectors;
+    private final int dims;
+    private final int vectorsPerCluster;
+    private final VectorSimilarityFunction similarityFunction;
+    private final boolean spherical;
+    private final Random random;
+
+    private final List<float[]> centroids = new ArrayList<>();
+    private final int[] assignments;
+
+    private HierarchicalKMeans(Vectors vectors, int dims, int vectorsPerCluster, VectorSimilarityFunction similarityFunction) {
+        this.vectors = vectors;
+        this.dims = dims;
+        this.vectorsPerCluster = vectorsPerCluster;
+        this.similarityFunction = similarityFunction;
+        this.spherical = similarityFunction != VectorSimilarityFunction.EUCLIDEAN;
+        // clustering is deterministic so that flushing the same documents produces the same segment
+        this.random = new Random(42);
+        this.assignments = new int[vectors.size()];
+    }
+
+    static Clusters cluster(Vectors vectors, int dims, int vectorsPerCluster, VectorSimilarityFunction similarityFunction)
+        throws IOException {
+        HierarchicalKMeans kMeans = new HierarchicalKMeans(vectors, dims, vectorsPerCluster, similarityFunction);
+        int[] ords = new int[vectors.size()];
+        for (int i = 0; i < ords.length; i++) {
+            ords[i] = i;
+        }
+        if (ords.length > 0) {
+            kMeans.split(ords, 0, ords.length);
+        }
+        return new Clusters(kMeans.centroids.toArray(new float[0][]), kMeans.assignments);
+    }
+
+    /**
+     * Split {@code ords[from:to]} into clusters, reordering them so each cluster is contiguous.
+     */
+    private void split(int[] ords, int from, int to) throws IOException {
+        final int size = to - from;
+        if (size <= vectorsPerCluster) {
+            leaf(ords, from, to);
+            return;
+        }
+        final int k = Math.min(MAX_CLUSTERS_PER_SPLIT, (size + vectorsPerCluster - 1) / vectorsPerCluster);
+        final float[][] splitCentroids = kMeans(sample(ords, from, to, k), k);
+
+        final int[] nearest = new int[size];
+        final int[] counts = new int[k];
+        for (int i = 0; i < size; i++) {
+            nearest[i] = nearest(vectors.vector(ords[from + i]), splitCentroids);
+            counts[nearest[i]]++;
+        }
+        final int[] starts = new int[k + 1];
+        for (int c = 0; c < k; c++) {
+            if (counts[c] == size) {
+                // all vectors are nearest to the same centroid, most likely because they are all the same
+                leaf(ords, from, to);
+                return;
+            }
+            starts[c + 1] = starts[c] + counts[c];
+        }
+        final int[] sorted = new int[size];
+        final int[] next = Arrays.copyOf(starts, k);
+        for (int i = 0; i < size; i++) {
+            sorted[next[nearest[i]]++] = ords[from + i];
+        }
+        System.arraycopy(sorted, 0, ords, from, size);
+        for (int c = 0; c < k; c++) {
+            if (counts[c] > 0) {
+                split(ords, from + starts[c], from + starts[c + 1]);
+            }
+        }
+    }
+
+    private void leaf(int[] ords, int from, int to) throws IOException {
+        final float[] centroid = new float[dims];
+        for (int i = from; i < to; i++) {
+            float[] vector = vectors.vector(ords[i]);
+            for (int d = 0; d < dims; d++) {
+                centroid[d] += vector[d];
+            }
+        }
+        if (finishCentroid(centroid, to - from) == false) {
+            System.arraycopy(vectors.vector(ords[from]), 0, centroid, 0, dims);
+        }
+        final int cluster = centroids.size();
+        centroids.add(centroid);
+        for (int i = from; i < to; i++) {
+            assignments[ords[i]] = cluster;
+        }
+    }
+
+    private float[][] sample(int[] ords, int from, int to, int k) throws IOException {
+        final int size = to - from;
+        final int sampleSize = Math.min(size, Math.min(MAX_SAMPLES, k * SAMPLES_PER_CLUSTER));
+        final int[] candidates = Arrays.copyOfRange(ords, from, to);
+        final float[][] sample = new float[sampleSize][];
+        for (int i = 0; i < sampleSize; i++) {
+            // partial Fisher-Yates shuffle
+            final int j = i + random.nextInt(size - i);
+            final int ord = candidates[j];
+            candidates[j] = candidates[i];
+            candidates[i] = ord;
+            sample[i] = vectors.vector(ord).clone();
+        }
+        return sample;
+    }
+
+    /**
+     * Lloyd's k-means on the sample, seeded with the first {@code k} of the already shuffled sample.
+     */
+    private float[][] kMeans(float[][] sample, int k) {
+        final float[][] current = new float[k][];
+        for (int c = 0; c < k; c++) {
+            current[c] = sample[c].clone();
+        }
+        final int[] nearest = new int[sample.length];
+        Arrays.fill(nearest, -1);
+        final int[] counts = new int[k];
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            boolean changed = false;
+            for (int i = 0; i < sample.length; i++) {
+                int c = nearest(sample[i], current);
+                if (c != nearest[i]) {
+                    nearest[i] = c;
+                    changed = true;
+                }
+            }
+            if (changed == false) {
+                break;
+            }
+            Arrays.fill(counts, 0);
+            final float[][] sums = new float[k][dims];
+            for (int i = 0; i < sample.length; i++) {
+                counts[nearest[i]]++;
+                for (int d = 0; d < dims; d++) {
+                    sums[nearest[i]][d] += sample[i][d];
+                }
+            }
+            for (int c = 0; c < k; c++) {
+                if (finishCentroid(sums[c], counts[c])) {
+                    current[c] = sums[c];
+                } else {
+                    // reseed empty clusters so they can take over part of a large one
+                    current[c] = sample[random.nextInt(sample.length)].clone();
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Turn a sum of {@code count} vectors into a centroid, returning {@code false} if it can't be used.
+     */
+    private boolean finishCentroid(float[] sum, int count) {
+        if (count == 0) {
+            return false;
+        }
+        if (spherical) {
+            // similarity is based on the angle so the centroid is the normalized mean
+            float norm = (float) Math.sqrt(VectorUtil.dotProduct(sum, sum));
+            if (norm == 0 || Float.isFinite(norm) == false) {
+                return false;
+            }
+            for (int d = 0; d < dims; d++) {
+                sum[d] /= norm;
+            }
+        } else {
+            for (int d = 0; d < dims; d++) {
+                sum[d] /= count;
+            }
+        }
+        return true;
+    }
+
+    private int nearest(float[] vector, float[][] candidates) {
+        int best = 0;
+        float bestScore = Float.NEGATIVE_INFINITY;
+        for (int c = 0; c < candidates.length; c++) {
+            float score = similarityFunction.compare(vector, candidates[c]);
+            if (score > bestScore) {
+                bestScore = score;
+                best = c;
+            }
+        }
+        return best;
+    }
+}
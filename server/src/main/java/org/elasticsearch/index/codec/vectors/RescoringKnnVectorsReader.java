@@ -0,0 +1,102 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.KnnVectorsReader;
+import org.apache.lucene.index.ByteVectorValues;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.VectorEncoding;
+import org.apache.lucene.search.KnnCollector;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopKnnCollector;
+import org.apache.lucene.util.Bits;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Searches float vectors with approximate scores from the wrapped reader, collecting {@code oversample} times
+ * more candidates than requested, and then rescores these candidates against the raw vectors so that the
+ * collector only ever sees exact scores.
+ */
+class RescoringKnnVectorsReader extends KnnVectorsReader {
+
+    static final int DEFAULT_OVERSAMPLE = 3;
+
+    private final KnnVectorsReader delegate;
+    private final FieldInfos fieldInfos;
+    private final int oversample;
+
+    RescoringKnnVectorsReader(KnnVectorsReader delegate, FieldInfos fieldInfos, int oversample) {
+        if (oversample < 1) {
+            throw new IllegalArgumentException("oversample must be at least 1; oversample=" + oversample);
+        }
+        this.delegate = delegate;
+        this.fieldInfos = fieldInfos;
+        this.oversample = oversample;
+    }
+
+    @Override
+    public void search(String field, float[] target, KnnCollector knnCollector, Bits acceptDocs) throws IOException {
+        final FieldInfo info = fieldInfos.fieldInfo(field);
+        if (info == null || info.getVectorEncoding() != VectorEncoding.FLOAT32 || knnCollector.k() == 0) {
+            delegate.search(field, target, knnCollector, acceptDocs);
+            return;
+        }
+        final int numCandidates = (int) Math.min((long) knnCollector.k() * oversample, Integer.MAX_VALUE);
+        final int visitLimit = (int) Math.min(knnCollector.visitLimit(), Integer.MAX_VALUE);
+        final TopKnnCollector candidates = new TopKnnCollector(numCandidates, visitLimit);
+        delegate.search(field, target, candidates, acceptDocs);
+        knnCollector.incVisitedCount(candidates.visitedCount());
+
+        final ScoreDoc[] scoreDocs = candidates.topDocs().scoreDocs;
+        Arrays.sort(scoreDocs, Comparator.comparingInt(scoreDoc -> scoreDoc.doc));
+        final FloatVectorValues values = delegate.getFloatVectorValues(field);
+        for (ScoreDoc scoreDoc : scoreDocs) {
+            if (values.advance(scoreDoc.doc) != scoreDoc.doc) {
+                throw new IllegalStateException("no vector found for candidate doc [" + scoreDoc.doc + "] of field [" + field + "]");
+            }
+            knnCollector.collect(scoreDoc.doc, info.getVectorSimilarityFunction().compare(target, values.vectorValue()));
+        }
+    }
+
+    @Override
+    public void search(String field, byte[] target, KnnCollector knnCollector, Bits acceptDocs) throws IOException {
+        delegate.search(field, target, knnCollector, acceptDocs);
+    }
+
+    @Override
+    public void checkIntegrity() throws IOException {
+        delegate.checkIntegrity();
+    }
+
+    @Override
+    public FloatVectorValues getFloatVectorValues(String field) throws IOException {
+        return delegate.getFloatVectorValues(field);
+    }
+
+    @Override
+    public ByteVectorValues getByteVectorValues(String field) throws IOException {
+        return delegate.getByteVectorValues(field);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    @Override
+    public long ramBytesUsed() {
+        return delegate.ramBytesUsed();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.KnnFieldVectorsWriter;
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.KnnVectorsReader;
+import org.apache.lucene.codecs.KnnVectorsWriter;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.MergeState;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.SegmentWriteState;
+import org.apache.lucene.index.Sorter;
+import org.elasticsearch.common.metrics.CounterMetric;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks how many vector fields were merged and how long it took, which is dominated by building the HNSW graphs.
+ * The counters are shared by all formats that are {@link #wrap wrapped} by the same tracker, usually all vector fields of a shard.
+ */
+public final class VectorMergeTracker {
+
+    private final CounterMetric totalMerges = new CounterMetric();
+    private final CounterMetric totalMergeTimeInNanos = new CounterMetric();
+
+    /**
+     * Returns a format that writes, reads and merges exactly like {@code format} but records the time spent merging each field.
+     */
+    public KnnVectorsFormat wrap(KnnVectorsFormat format) {
+        // It's legal to reuse the same format name as this is the same on-disk format.
+        return new KnnVectorsFormat(format.getName()) {
+            @Override
+            public KnnVectorsWriter fieldsWriter(SegmentWriteState state) throws IOException {
+                return new TrackingKnnVectorsWriter(format.fieldsWriter(state));
+            }
+
+            @Override
+            public KnnVectorsReader fieldsReader(SegmentReadState state) throws IOException {
+                return format.fieldsReader(state);
+            }
+
+            @Override
+            public int getMaxDimensions(String fieldName) {
+                return format.getMaxDimensions(fieldName);
+            }
+
+            @Override
+            public String toString() {
+                return format.toString();
+            }
+        };
+    }
+
+    /**
+     * The number of vector fields that have been merged.
+     */
+    public long getTotalMerges() {
+        return totalMerges.count();
+    }
+
+    /**
+     * The total time spent merging vector fields, including the construction of their HNSW graphs.
+     */
+    public long getTotalMergeTimeInMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalMergeTimeInNanos.count());
+    }
+
+    private class TrackingKnnVectorsWriter extends KnnVectorsWriter {
+
+        private final KnnVectorsWriter delegate;
+
+        TrackingKnnVectorsWriter(KnnVectorsWriter delegate) {
+            super();
+            this.delegate = delegate;
+        }
+
+        @Override
+        public KnnFieldVectorsWriter<?> addField(FieldInfo fieldInfo) throws IOException {
+            return delegate.addField(fieldInfo);
+        }
+
+        @Override
+        public void flush(int maxDoc, Sorter.DocMap sortMap) throws IOException {
+            delegate.flush(maxDoc, sortMap);
+        }
+
+        @Override
+        public void mergeOneField(FieldInfo fieldInfo, MergeState mergeState) throws IOException {
+            final long startTimeInNanos = System.nanoTime();
+            try {
+                delegate.mergeOneField(fieldInfo, mergeState);
+            } finally {
+                totalMergeTimeInNanos.inc(System.nanoTime() - startTimeInNanos);
+                totalMerges.inc();
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            delegate.finish();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public long ramBytesUsed() {
+            return delegate.ramBytesUsed();
+        }
+    }
+}
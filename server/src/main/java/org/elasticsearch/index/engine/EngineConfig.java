@@ -135,6 +135,17 @@ public final class EngineConfig {
         Property.IndexSettingDeprecatedInV7AndRemovedInV8
     );
 
+    /**
+     * Whether the live version map stores its entries in paged arrays rather than in per-entry objects. This greatly reduces the heap
+     * used and the garbage created by update heavy workloads, at the cost of slightly more expensive version lookups. The memory is
+     * accounted on the request circuit breaker.
+     */
+    public static final Setting<Boolean> INDEX_PAGED_VERSION_MAP_SETTING = Setting.boolSetting(
+        "index.paged_version_map.enabled",
+        false,
+        Property.IndexScope
+    );
+
     private final TranslogConfig translogConfig;
 
     private final LongSupplier relativeTimeInNanosSupplier;
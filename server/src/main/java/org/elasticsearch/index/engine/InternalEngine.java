@@ -48,6 +48,7 @@ import org.elasticsearch.cluster.metadata.DataStream;
 import org.elasticsearch.cluster.service.ClusterApplierService;
 import org.elasticsearch.common.ReferenceDocs;
 import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.lucene.LoggerInfoStream;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
@@ -59,6 +60,7 @@ import org.elasticsearch.common.metrics.CounterMetric;
 import org.elasticsearch.common.metrics.MeanMetric;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.Maps;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.common.util.concurrent.AsyncIOProcessor;
@@ -94,6 +96,7 @@ import org.elasticsearch.index.seqno.SequenceNumbers;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.shard.ShardLongFieldRange;
 import org.elasticsearch.index.store.Store;
+import org.elasticsearch.index.translog.SyncBatchSizeTracker;
 import org.elasticsearch.index.translog.Translog;
 import org.elasticsearch.index.translog.TranslogConfig;
 import org.elasticsearch.index.translog.TranslogCorruptedException;
@@ -191,7 +194,10 @@ public class InternalEngine extends Engine {
     private final SoftDeletesPolicy softDeletesPolicy;
     private final LastRefreshedCheckpointListener lastRefreshedCheckpointListener;
     private final FlushListeners flushListener;
-    private final AsyncIOProcessor<Tuple<Long, Translog.Location>> translogSyncProcessor;
+    private final AsyncIOProcessor<TranslogSyncRequest> translogSyncProcessor;
+    private final TranslogGroupCommitter translogGroupCommitter;
+    // number of sync requests served by each translog sync
+    private final SyncBatchSizeTracker translogSyncBatchSizes = new SyncBatchSizeTracker();
 
     private final CompletionStatsCache completionStatsCache;
 
@@ -241,7 +247,7 @@ public class InternalEngine extends Engine {
         this.relativeTimeInNanosSupplier = config().getRelativeTimeInNanosSupplier();
         this.lastFlushTimestamp = relativeTimeInNanosSupplier.getAsLong(); // default to creation timestamp
         this.liveVersionMapArchive = createLiveVersionMapArchive();
-        this.versionMap = new LiveVersionMap(liveVersionMapArchive);
+        this.versionMap = createLiveVersionMap(engineConfig, liveVersionMapArchive);
         final TranslogDeletionPolicy translogDeletionPolicy = new TranslogDeletionPolicy();
         store.incRef();
         IndexWriter writer = null;
@@ -328,6 +334,15 @@ public class InternalEngine extends Engine {
             this.externalReaderManager.addListener(completionStatsCache);
             this.flushListener = new FlushListeners(logger, engineConfig.getThreadPool().getThreadContext());
             this.translogSyncProcessor = createTranslogSyncProcessor(logger, engineConfig.getThreadPool().getThreadContext());
+            this.translogGroupCommitter = new TranslogGroupCommitter(
+                logger,
+                engineConfig.getIndexSettings(),
+                engineConfig.getThreadPool(),
+                (location, requests, listener) -> translogSyncProcessor.put(
+                    new TranslogSyncRequest(SequenceNumbers.NO_OPS_PERFORMED, location, requests),
+                    listener
+                )
+            );
             success = true;
         } finally {
             if (success == false) {
@@ -679,24 +694,32 @@ public class InternalEngine extends Engine {
         return getTranslog().syncNeeded();
     }
 
-    private AsyncIOProcessor<Tuple<Long, Translog.Location>> createTranslogSyncProcessor(Logger logger, ThreadContext threadContext) {
+    /**
+     * A request to sync the translog up to the given location and global checkpoint, on behalf of the given number of requests.
+     */
+    private record TranslogSyncRequest(long globalCheckpoint, Translog.Location location, int requests) {}
+
+    private AsyncIOProcessor<TranslogSyncRequest> createTranslogSyncProcessor(Logger logger, ThreadContext threadContext) {
         return new AsyncIOProcessor<>(logger, 1024, threadContext) {
             @Override
-            protected void write(List<Tuple<Tuple<Long, Translog.Location>, Consumer<Exception>>> candidates) throws IOException {
+            protected void write(List<Tuple<TranslogSyncRequest, Consumer<Exception>>> candidates) throws IOException {
                 try {
                     Translog.Location location = Translog.Location.EMPTY;
                     long processGlobalCheckpoint = SequenceNumbers.UNASSIGNED_SEQ_NO;
-                    for (Tuple<Tuple<Long, Translog.Location>, Consumer<Exception>> syncMarkers : candidates) {
-                        Tuple<Long, Translog.Location> marker = syncMarkers.v1();
-                        long globalCheckpointToSync = marker.v1();
+                    int requests = 0;
+                    for (Tuple<TranslogSyncRequest, Consumer<Exception>> syncMarkers : candidates) {
+                        TranslogSyncRequest marker = syncMarkers.v1();
+                        long globalCheckpointToSync = marker.globalCheckpoint();
                         if (globalCheckpointToSync != SequenceNumbers.UNASSIGNED_SEQ_NO) {
                             processGlobalCheckpoint = SequenceNumbers.max(processGlobalCheckpoint, globalCheckpointToSync);
                         }
-                        location = location.compareTo(marker.v2()) >= 0 ? location : marker.v2();
+                        location = location.compareTo(marker.location()) >= 0 ? location : marker.location();
+                        requests += marker.requests();
                     }
 
                     final boolean synced = translog.ensureSynced(location, processGlobalCheckpoint);
                     if (synced) {
+                        translogSyncBatchSizes.addBatchSize(requests);
                         revisitIndexDeletionPolicyOnTranslogSynced();
                     }
                 } catch (AlreadyClosedException ex) {
@@ -712,12 +735,12 @@ public class InternalEngine extends Engine {
 
     @Override
     public void asyncEnsureTranslogSynced(Translog.Location location, Consumer<Exception> listener) {
-        translogSyncProcessor.put(new Tuple<>(SequenceNumbers.NO_OPS_PERFORMED, location), listener);
+        translogGroupCommitter.sync(location, listener);
     }
 
     @Override
     public void asyncEnsureGlobalCheckpointSynced(long globalCheckpoint, Consumer<Exception> listener) {
-        translogSyncProcessor.put(new Tuple<>(globalCheckpoint, Translog.Location.EMPTY), listener);
+        translogSyncProcessor.put(new TranslogSyncRequest(globalCheckpoint, Translog.Location.EMPTY, 1), listener);
     }
 
     @Override
@@ -728,7 +751,7 @@ public class InternalEngine extends Engine {
 
     @Override
     public TranslogStats getTranslogStats() {
-        return getTranslog().stats();
+        return getTranslog().stats(translogSyncBatchSizes.getHistogram());
     }
 
     @Override
@@ -3406,6 +3429,15 @@ public class InternalEngine extends Engine {
         return lastUnsafeSegmentGenerationForGets.get();
     }
 
+    private static LiveVersionMap createLiveVersionMap(EngineConfig engineConfig, LiveVersionMapArchive archive) {
+        if (engineConfig.getIndexSettings().getValue(EngineConfig.INDEX_PAGED_VERSION_MAP_SETTING)
+            && archive == LiveVersionMapArchive.NOOP_ARCHIVE) {
+            // only account for the memory on the breaker, tripping it after an operation made it to Lucene would fail the engine
+            return new LiveVersionMap(archive, new BigArrays(null, engineConfig.getCircuitBreakerService(), CircuitBreaker.REQUEST));
+        }
+        return new LiveVersionMap(archive);
+    }
+
     protected LiveVersionMapArchive createLiveVersionMapArchive() {
         return LiveVersionMapArchive.NOOP_ARCHIVE;
     }
@@ -13,8 +13,10 @@ import org.apache.lucene.search.ReferenceManager;
 import org.apache.lucene.util.Accountable;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.common.util.concurrent.KeyedLock;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
 
 import java.io.IOException;
@@ -29,12 +31,34 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
 
     private final LiveVersionMapArchive archive;
 
+    /**
+     * If non-null, the live versions are stored in a {@link PagedVersionMap} allocated with these big arrays rather than in a
+     * {@code ConcurrentHashMap}.
+     */
+    @Nullable
+    private final BigArrays bigArrays;
+
     LiveVersionMap() {
         this(LiveVersionMapArchive.NOOP_ARCHIVE);
     }
 
     LiveVersionMap(LiveVersionMapArchive archive) {
+        this(archive, null);
+    }
+
+    LiveVersionMap(LiveVersionMapArchive archive, @Nullable BigArrays bigArrays) {
+        // archives hold on to the old maps after refresh, so the paged storage, which is released on refresh, can't be used with them
+        assert bigArrays == null || archive == LiveVersionMapArchive.NOOP_ARCHIVE : "paged storage can't be used with an archive";
         this.archive = archive;
+        this.bigArrays = bigArrays;
+        this.maps = new Maps(newVersionLookup(16));
+    }
+
+    private VersionLookup newVersionLookup(int expectedSize) {
+        if (bigArrays != null) {
+            return new VersionLookup(new PagedVersionMap(expectedSize, bigArrays));
+        }
+        return new VersionLookup(ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency(expectedSize));
     }
 
     public static final class VersionLookup {
@@ -47,6 +71,10 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
         private static final VersionLookup EMPTY = new VersionLookup(Collections.emptyMap());
         private final Map<BytesRef, VersionValue> map;
 
+        // non-null if the entries are stored in paged arrays, which account for their own memory usage
+        @Nullable
+        private final PagedVersionMap pagedMap;
+
         // each version map has a notion of safe / unsafe which allows us to apply certain optimization in the auto-generated ID usecase
         // where we know that documents can't have any duplicates so we can skip the version map entirely. This reduces
         // the memory pressure significantly for this use-case where we often get a massive amount of small document (metrics).
@@ -71,13 +99,16 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
                 existingEntriesSize += existingValue == null ? 0 : mapEntryBytesUsed(entry.getKey(), existingValue);
             }
             map.putAll(versionLookup.map);
-            adjustRamUsage(versionLookup.ramBytesUsed() - existingEntriesSize);
+            if (pagedMap == null) {
+                adjustRamUsage(versionLookup.ramBytesUsed() - existingEntriesSize);
+            }
             minDeleteTimestamp.accumulateAndGet(versionLookup.minDeleteTimestamp(), Math::min);
         }
 
         // Visible for testing
         VersionLookup(Map<BytesRef, VersionValue> map) {
             this.map = map;
+            this.pagedMap = map instanceof PagedVersionMap paged ? paged : null;
         }
 
         public VersionValue get(BytesRef key) {
@@ -85,6 +116,9 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
         }
 
         VersionValue put(BytesRef key, VersionValue value) {
+            if (pagedMap != null) {
+                return pagedMap.put(key, value);
+            }
             long ramAccounting = mapEntryBytesUsed(key, value);
             VersionValue previousValue = map.put(key, value);
             ramAccounting += previousValue == null ? 0 : -mapEntryBytesUsed(key, previousValue);
@@ -110,7 +144,7 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
 
         VersionValue remove(BytesRef uid) {
             VersionValue previousValue = map.remove(uid);
-            if (previousValue != null) {
+            if (previousValue != null && pagedMap == null) {
                 adjustRamUsage(-mapEntryBytesUsed(uid, previousValue));
             }
             return previousValue;
@@ -132,7 +166,17 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
         }
 
         public long ramBytesUsed() {
-            return ramBytesUsed.get();
+            return pagedMap != null ? pagedMap.ramBytesUsed() : ramBytesUsed.get();
+        }
+
+        /**
+         * Releases the memory held by this lookup if its entries are stored in paged arrays. Lookups that are released behave like
+         * empty lookups.
+         */
+        void release() {
+            if (pagedMap != null) {
+                pagedMap.close();
+            }
         }
 
         public static long mapEntryBytesUsed(BytesRef key, VersionValue value) {
@@ -164,8 +208,12 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
             this.previousMapsNeededSafeAccess = previousMapsNeededSafeAccess;
         }
 
+        Maps(VersionLookup current) {
+            this(current, VersionLookup.EMPTY, false);
+        }
+
         Maps() {
-            this(new VersionLookup(ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency()), VersionLookup.EMPTY, false);
+            this(new VersionLookup(ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency()));
         }
 
         boolean isSafeAccessMode() {
@@ -183,11 +231,11 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
          * Builds a new map for the refresh transition this should be called in beforeRefresh()
          */
         Maps buildTransitionMap() {
-            return new Maps(
-                new VersionLookup(ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency(current.size())),
-                current,
-                shouldInheritSafeAccess()
-            );
+            return buildTransitionMap(new VersionLookup(ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency(current.size())));
+        }
+
+        Maps buildTransitionMap(VersionLookup newCurrent) {
+            return new Maps(newCurrent, current, shouldInheritSafeAccess());
         }
 
         /**
@@ -224,14 +272,14 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
         }
 
         long ramBytesUsed() {
-            return current.ramBytesUsed.get() + old.ramBytesUsed.get();
+            return current.ramBytesUsed() + old.ramBytesUsed();
         }
     }
 
     // All deletes also go here, and delete "tombstones" are retained after refresh:
     private final Map<BytesRef, DeleteVersionValue> tombstones = ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency();
 
-    private volatile Maps maps = new Maps();
+    private volatile Maps maps;
     // we maintain a second map that only receives the updates that we skip on the actual map (unsafe ops)
     // this map is only maintained if assertions are enabled
     private volatile Maps unsafeKeysMap = new Maps();
@@ -282,7 +330,7 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
         // map. While reopen is running, any lookup will first
         // try this new map, then fallback to old, then to the
         // current searcher:
-        maps = maps.buildTransitionMap();
+        maps = maps.buildTransitionMap(newVersionLookup(maps.current.size()));
         assert (unsafeKeysMap = unsafeKeysMap.buildTransitionMap()) != null;
         // This is not 100% correct, since concurrent indexing ops can change these counters in between our execution of the previous
         // line and this one, but that should be minor, and the error won't accumulate over time:
@@ -297,8 +345,12 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
         // reopen, and so any concurrent indexing requests can still sneak in a few additions to that current map that are in fact
         // reflected in the previous reader. We don't touch tombstones here: they expire on their own index.gc_deletes timeframe:
 
-        maps = maps.invalidateOldMap(archive);
+        final Maps previousMaps = maps;
+        maps = previousMaps.invalidateOldMap(archive);
         assert (unsafeKeysMap = unsafeKeysMap.invalidateOldMapForAssert()) != null;
+        if (bigArrays != null) {
+            previousMaps.old.release();
+        }
 
     }
 
@@ -463,7 +515,11 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
      * Called when this index is closed.
      */
     synchronized void clear() {
+        final Maps previousMaps = maps;
+        // the index is being closed, no need for the paged storage anymore
         maps = new Maps();
+        previousMaps.current.release();
+        previousMaps.old.release();
         tombstones.clear();
         // NOTE: we can't zero this here, because a refresh thread could be calling InternalEngine.pruneDeletedTombstones at the same time,
         // and this will lead to an assert trip. Presumably it's fine if our ramBytesUsedForTombstones is non-zero after clear since the
@@ -495,7 +551,7 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
      */
     long reclaimableRefreshRamBytes() {
         return archive == LiveVersionMapArchive.NOOP_ARCHIVE
-            ? maps.current.ramBytesUsed.get()
+            ? maps.current.ramBytesUsed()
             : maps.ramBytesUsed() + archive.getReclaimableRamBytes();
     }
 
@@ -512,7 +568,7 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
      * fraction of the Archive entries that are kept around until an ongoing unpromotable refresh is finished.
      */
     long getRefreshingBytes() {
-        return archive == LiveVersionMapArchive.NOOP_ARCHIVE ? maps.old.ramBytesUsed.get() : archive.getRefreshingRamBytes();
+        return archive == LiveVersionMapArchive.NOOP_ARCHIVE ? maps.old.ramBytesUsed() : archive.getRefreshingRamBytes();
     }
 
     /**
@@ -0,0 +1,285 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.engine;
+
+import com.carrotsearch.hppc.BitMixer;
+
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.BytesRefHash;
+import org.elasticsearch.common.util.LongArray;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.index.translog.Translog;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@code Map<BytesRef, VersionValue>} that stores its keys in a {@link BytesRefHash} and its values as primitives in paged
+ * {@link LongArray}s, so that entries don't create any long-lived objects. This trades some CPU on lookups, which materialize a
+ * short-lived {@link VersionValue}, for a much smaller heap footprint and much less GC pressure than a {@code ConcurrentHashMap}
+ * when uids are updated at a high rate between refreshes.
+ * <p>
+ * Entries are spread over a fixed number of stripes, each guarded by its own monitor. Removed entries only get marked as such and
+ * their memory is reclaimed when the whole map is {@link #close() closed}, which happens on refresh. A closed map behaves like an
+ * empty map, which is what a concurrent reader would see if it had read the {@link LiveVersionMap} after the refresh.
+ */
+final class PagedVersionMap extends AbstractMap<BytesRef, VersionValue> implements Accountable, Releasable {
+
+    private static final int STRIPES_BITS = 5;
+    private static final int STRIPES = 1 << STRIPES_BITS;
+
+    // per entry: version, seqNo, term, translog generation or delete timestamp, translog location, translog size and kind
+    private static final int STRIDE = 6;
+    private static final int VERSION = 0;
+    private static final int SEQ_NO = 1;
+    private static final int TERM = 2;
+    private static final int GENERATION_OR_TIME = 3;
+    private static final int LOCATION = 4;
+    private static final int SIZE_AND_KIND = 5;
+
+    private static final long REMOVED = 0;
+    private static final long INDEX = 1;
+    private static final long INDEX_WITH_LOCATION = 2;
+    private static final long DELETE = 3;
+    private static final int KIND_BITS = 2;
+    private static final long KIND_MASK = (1L << KIND_BITS) - 1;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final AtomicLong ramBytesUsed = new AtomicLong();
+
+    PagedVersionMap(int expectedSize, BigArrays bigArrays) {
+        final long capacityPerStripe = Math.max(16, expectedSize / STRIPES);
+        boolean success = false;
+        try {
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new Stripe(capacityPerStripe, bigArrays);
+            }
+            success = true;
+        } finally {
+            if (success == false) {
+                close();
+            }
+        }
+    }
+
+    private Stripe stripe(int hashCode) {
+        // the hash uses the low bits of the mixed hash code to find slots, pick the stripe with the high bits
+        return stripes[BitMixer.mix32(hashCode) >>> (Integer.SIZE - STRIPES_BITS)];
+    }
+
+    @Override
+    public VersionValue get(Object key) {
+        final BytesRef uid = (BytesRef) key;
+        final int hashCode = uid.hashCode();
+        return stripe(hashCode).get(uid, hashCode);
+    }
+
+    @Override
+    public VersionValue put(BytesRef key, VersionValue value) {
+        final int hashCode = key.hashCode();
+        return stripe(hashCode).put(key, hashCode, value);
+    }
+
+    @Override
+    public VersionValue remove(Object key) {
+        final BytesRef uid = (BytesRef) key;
+        final int hashCode = uid.hashCode();
+        return stripe(hashCode).remove(uid, hashCode);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns a point in time snapshot of the entries of this map. This copies all entries and should only be used for merging
+     * into other maps and for testing.
+     */
+    @Override
+    public Set<Entry<BytesRef, VersionValue>> entrySet() {
+        final Map<BytesRef, VersionValue> snapshot = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            stripe.copyTo(snapshot);
+        }
+        return Collections.unmodifiableSet(snapshot.entrySet());
+    }
+
+    @Override
+    public long ramBytesUsed() {
+        return ramBytesUsed.get();
+    }
+
+    @Override
+    public void close() {
+        for (Stripe stripe : stripes) {
+            if (stripe != null) {
+                stripe.close();
+            }
+        }
+    }
+
+    private final class Stripe {
+        private final BigArrays bigArrays;
+        private BytesRefHash uids;
+        private LongArray values;
+        private int size;
+        private long stripeRamBytesUsed;
+        private boolean closed;
+
+        Stripe(long capacity, BigArrays bigArrays) {
+            this.bigArrays = bigArrays;
+            this.uids = new BytesRefHash(capacity, bigArrays);
+            boolean success = false;
+            try {
+                this.values = bigArrays.newLongArray(capacity * STRIDE, false);
+                success = true;
+            } finally {
+                if (success == false) {
+                    uids.close();
+                }
+            }
+            updateRamBytesUsed();
+        }
+
+        synchronized VersionValue get(BytesRef uid, int hashCode) {
+            if (closed) {
+                return null;
+            }
+            final long id = uids.find(uid, hashCode);
+            return id < 0 ? null : read(id);
+        }
+
+        synchronized VersionValue put(BytesRef uid, int hashCode, VersionValue value) {
+            if (closed) {
+                // the map was dropped by a concurrent refresh, which made the operation visible in Lucene
+                return null;
+            }
+            long id = uids.add(uid, hashCode);
+            final VersionValue previous;
+            if (id < 0) {
+                id = -1 - id;
+                previous = read(id);
+            } else {
+                values = bigArrays.grow(values, (id + 1) * STRIDE);
+                previous = null;
+            }
+            if (previous == null) {
+                size++;
+            }
+            write(id, value);
+            updateRamBytesUsed();
+            return previous;
+        }
+
+        synchronized VersionValue remove(BytesRef uid, int hashCode) {
+            if (closed) {
+                return null;
+            }
+            final long id = uids.find(uid, hashCode);
+            if (id < 0) {
+                return null;
+            }
+            final VersionValue previous = read(id);
+            if (previous != null) {
+                values.set(id * STRIDE + SIZE_AND_KIND, REMOVED);
+                size--;
+            }
+            return previous;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized void copyTo(Map<BytesRef, VersionValue> snapshot) {
+            if (closed) {
+                return;
+            }
+            for (long id = 0; id < uids.size(); id++) {
+                final VersionValue value = read(id);
+                if (value != null) {
+                    snapshot.put(BytesRef.deepCopyOf(uids.get(id, new BytesRef())), value);
+                }
+            }
+        }
+
+        private VersionValue read(long id) {
+            final long offset = id * STRIDE;
+            final long sizeAndKind = values.get(offset + SIZE_AND_KIND);
+            final long kind = sizeAndKind & KIND_MASK;
+            if (kind == REMOVED) {
+                return null;
+            }
+            final long version = values.get(offset + VERSION);
+            final long seqNo = values.get(offset + SEQ_NO);
+            final long term = values.get(offset + TERM);
+            if (kind == DELETE) {
+                return new DeleteVersionValue(version, seqNo, term, values.get(offset + GENERATION_OR_TIME));
+            }
+            final Translog.Location location = kind == INDEX_WITH_LOCATION
+                ? new Translog.Location(
+                    values.get(offset + GENERATION_OR_TIME),
+                    values.get(offset + LOCATION),
+                    (int) (sizeAndKind >> KIND_BITS)
+                )
+                : null;
+            return new IndexVersionValue(location, version, seqNo, term);
+        }
+
+        private void write(long id, VersionValue value) {
+            final long offset = id * STRIDE;
+            values.set(offset + VERSION, value.version);
+            values.set(offset + SEQ_NO, value.seqNo);
+            values.set(offset + TERM, value.term);
+            if (value instanceof DeleteVersionValue delete) {
+                values.set(offset + GENERATION_OR_TIME, delete.time);
+                values.set(offset + SIZE_AND_KIND, DELETE);
+            } else {
+                assert value instanceof IndexVersionValue : "unexpected version value " + value;
+                final Translog.Location location = value.getLocation();
+                if (location == null) {
+                    values.set(offset + SIZE_AND_KIND, INDEX);
+                } else {
+                    values.set(offset + GENERATION_OR_TIME, location.generation());
+                    values.set(offset + LOCATION, location.translogLocation());
+                    values.set(offset + SIZE_AND_KIND, ((long) location.size() << KIND_BITS) | INDEX_WITH_LOCATION);
+                }
+            }
+        }
+
+        private void updateRamBytesUsed() {
+            final long newRamBytesUsed = closed ? 0 : uids.ramBytesUsed() + values.ramBytesUsed();
+            ramBytesUsed.addAndGet(newRamBytesUsed - stripeRamBytesUsed);
+            stripeRamBytesUsed = newRamBytesUsed;
+        }
+
+        synchronized void close() {
+            if (closed == false) {
+                closed = true;
+                Releasables.close(uids, values);
+                uids = null;
+                values = null;
+                updateRamBytesUsed();
+            }
+        }
+    }
+}
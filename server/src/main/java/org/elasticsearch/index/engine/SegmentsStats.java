@@ -15,6 +15,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.store.LuceneFilesExtensions;
 import org.elasticsearch.xcontent.ToXContentFragment;
 import org.elasticsearch.xcontent.XContentBuilder;
@@ -32,6 +33,8 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
     private long versionMapMemoryInBytes;
     private long maxUnsafeAutoIdTimestamp = Long.MIN_VALUE;
     private long bitsetMemoryInBytes;
+    private long vectorMerges;
+    private long vectorMergeTimeInMillis;
     private final Map<String, FileStats> files;
 
     public SegmentsStats() {
@@ -54,6 +57,10 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
         bitsetMemoryInBytes = in.readLong();
         maxUnsafeAutoIdTimestamp = in.readLong();
         files = in.readMapValues(FileStats::new, FileStats::getExt);
+        if (in.getTransportVersion().onOrAfter(TransportVersions.SEGMENTS_STATS_VECTOR_MERGES)) {
+            vectorMerges = in.readVLong();
+            vectorMergeTimeInMillis = in.readVLong();
+        }
     }
 
     public void add(long count) {
@@ -76,6 +83,11 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
         this.bitsetMemoryInBytes += bitsetMemoryInBytes;
     }
 
+    public void addVectorMerges(long vectorMerges, long vectorMergeTimeInMillis) {
+        this.vectorMerges += vectorMerges;
+        this.vectorMergeTimeInMillis += vectorMergeTimeInMillis;
+    }
+
     public void addFiles(Map<String, FileStats> newFiles) {
         newFiles.forEach((k, v) -> files.merge(k, v, FileStats::merge));
     }
@@ -89,6 +101,7 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
         addIndexWriterMemoryInBytes(mergeStats.indexWriterMemoryInBytes);
         addVersionMapMemoryInBytes(mergeStats.versionMapMemoryInBytes);
         addBitsetMemoryInBytes(mergeStats.bitsetMemoryInBytes);
+        addVectorMerges(mergeStats.vectorMerges, mergeStats.vectorMergeTimeInMillis);
         addFiles(mergeStats.files);
     }
 
@@ -132,6 +145,24 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
         return ByteSizeValue.ofBytes(bitsetMemoryInBytes);
     }
 
+    /**
+     * The number of vector fields that have been merged.
+     */
+    public long getVectorMerges() {
+        return vectorMerges;
+    }
+
+    /**
+     * The total time spent merging vector fields, which includes building their HNSW graphs.
+     */
+    public long getVectorMergeTimeInMillis() {
+        return vectorMergeTimeInMillis;
+    }
+
+    public TimeValue getVectorMergeTime() {
+        return new TimeValue(vectorMergeTimeInMillis);
+    }
+
     /**
      * Returns a mapping of file extension to statistics about files of that type.
      *
@@ -164,6 +195,8 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
         builder.humanReadableField(Fields.VERSION_MAP_MEMORY_IN_BYTES, Fields.VERSION_MAP_MEMORY, getVersionMapMemory());
         builder.humanReadableField(Fields.FIXED_BIT_SET_MEMORY_IN_BYTES, Fields.FIXED_BIT_SET, getBitsetMemory());
         builder.field(Fields.MAX_UNSAFE_AUTO_ID_TIMESTAMP, maxUnsafeAutoIdTimestamp);
+        builder.field(Fields.VECTOR_MERGES_TOTAL, vectorMerges);
+        builder.humanReadableField(Fields.VECTOR_MERGES_TOTAL_TIME_IN_MILLIS, Fields.VECTOR_MERGES_TOTAL_TIME, getVectorMergeTime());
         builder.startObject(Fields.FILE_SIZES);
         for (Map.Entry<String, FileStats> entry : files.entrySet()) {
             entry.getValue().toXContent(builder, params);
@@ -183,12 +216,23 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
             && versionMapMemoryInBytes == that.versionMapMemoryInBytes
             && maxUnsafeAutoIdTimestamp == that.maxUnsafeAutoIdTimestamp
             && bitsetMemoryInBytes == that.bitsetMemoryInBytes
+            && vectorMerges == that.vectorMerges
+            && vectorMergeTimeInMillis == that.vectorMergeTimeInMillis
             && Objects.equals(files, that.files);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(count, indexWriterMemoryInBytes, versionMapMemoryInBytes, maxUnsafeAutoIdTimestamp, bitsetMemoryInBytes, files);
+        return Objects.hash(
+            count,
+            indexWriterMemoryInBytes,
+            versionMapMemoryInBytes,
+            maxUnsafeAutoIdTimestamp,
+            bitsetMemoryInBytes,
+            vectorMerges,
+            vectorMergeTimeInMillis,
+            files
+        );
     }
 
     static final class Fields {
@@ -215,6 +259,9 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
         static final String MAX_UNSAFE_AUTO_ID_TIMESTAMP = "max_unsafe_auto_id_timestamp";
         static final String FIXED_BIT_SET = "fixed_bit_set";
         static final String FIXED_BIT_SET_MEMORY_IN_BYTES = "fixed_bit_set_memory_in_bytes";
+        static final String VECTOR_MERGES_TOTAL = "vector_merges_total";
+        static final String VECTOR_MERGES_TOTAL_TIME = "vector_merges_total_time";
+        static final String VECTOR_MERGES_TOTAL_TIME_IN_MILLIS = "vector_merges_total_time_in_millis";
         static final String FILE_SIZES = "file_sizes";
     }
 
@@ -236,6 +283,10 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
         out.writeLong(maxUnsafeAutoIdTimestamp);
 
         out.writeCollection(files.values());
+        if (out.getTransportVersion().onOrAfter(TransportVersions.SEGMENTS_STATS_VECTOR_MERGES)) {
+            out.writeVLong(vectorMerges);
+            out.writeVLong(vectorMergeTimeInMillis);
+        }
     }
 
     public void clearFiles() {
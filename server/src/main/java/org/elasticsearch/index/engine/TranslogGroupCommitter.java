@@ -0,0 +1,155 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.engine;
+
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.util.concurrent.AbstractRunnable;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Batches the translog syncs requested by writes into group commits: instead of syncing as soon as a write asks for it, the sync is
+ * delayed by up to {@link IndexSettings#getTranslogGroupCommitMaxDelay()} so that the writes arriving in the meantime share a single
+ * fsync. The sync is executed earlier once the pending writes reach {@link IndexSettings#getTranslogGroupCommitMaxBytes()}.
+ * Delayed syncs are executed on the dedicated {@link ThreadPool.Names#TRANSLOG_SYNC} thread pool, so that write threads never wait
+ * for the window to elapse and the syncs don't queue behind flushes. Each shard has at most one batched sync queued at a time. If
+ * no delay is configured syncs are passed through as they come.
+ */
+final class TranslogGroupCommitter {
+
+    /**
+     * Syncs the translog up to the given location, on behalf of the given number of requests.
+     */
+    @FunctionalInterface
+    interface Syncer {
+        void sync(Translog.Location location, int requests, Consumer<Exception> listener);
+    }
+
+    private final Logger logger;
+    private final IndexSettings indexSettings;
+    private final ThreadPool threadPool;
+    private final ThreadContext threadContext;
+    private final Syncer syncer;
+
+    private final Object mutex = new Object();
+    private List<Consumer<Exception>> pendingListeners = new ArrayList<>();
+    private Translog.Location pendingLocation = Translog.Location.EMPTY;
+    private long pendingBytes;
+    private boolean syncScheduled;
+    private boolean syncTriggered;
+
+    TranslogGroupCommitter(Logger logger, IndexSettings indexSettings, ThreadPool threadPool, Syncer syncer) {
+        this.logger = logger;
+        this.indexSettings = indexSettings;
+        this.threadPool = threadPool;
+        this.threadContext = threadPool.getThreadContext();
+        this.syncer = syncer;
+    }
+
+    /**
+     * Ensures that the translog is synced up to the given location, possibly batching the sync with the ones requested by concurrent
+     * writes. The listener is notified once the location is synced.
+     */
+    void sync(Translog.Location location, Consumer<Exception> listener) {
+        final TimeValue maxDelay = indexSettings.getTranslogGroupCommitMaxDelay();
+        if (maxDelay.nanos() <= 0) {
+            syncer.sync(location, 1, listener);
+            return;
+        }
+
+        final boolean scheduleSync;
+        final boolean triggerSync;
+        synchronized (mutex) {
+            pendingListeners.add(preserveContext(listener));
+            pendingLocation = pendingLocation.compareTo(location) >= 0 ? pendingLocation : location;
+            pendingBytes += location.size();
+            triggerSync = syncTriggered == false && pendingBytes >= indexSettings.getTranslogGroupCommitMaxBytes().getBytes();
+            syncTriggered |= triggerSync;
+            scheduleSync = syncScheduled == false && triggerSync == false;
+            syncScheduled |= scheduleSync;
+        }
+
+        final Executor executor = threadPool.executor(ThreadPool.Names.TRANSLOG_SYNC);
+        if (triggerSync) {
+            executor.execute(new SyncPendingRunnable());
+        } else if (scheduleSync) {
+            threadPool.schedule(new SyncPendingRunnable(), maxDelay, executor);
+        }
+    }
+
+    private Consumer<Exception> preserveContext(Consumer<Exception> consumer) {
+        final Supplier<ThreadContext.StoredContext> restorableContext = threadContext.newRestorableContext(false);
+        return e -> {
+            try (ThreadContext.StoredContext ignore = restorableContext.get()) {
+                consumer.accept(e);
+            }
+        };
+    }
+
+    private class SyncPendingRunnable extends AbstractRunnable {
+
+        @Override
+        protected void doRun() {
+            final List<Consumer<Exception>> listeners;
+            final Translog.Location location;
+            synchronized (mutex) {
+                listeners = pendingListeners;
+                location = pendingLocation;
+                resetPending();
+            }
+            if (listeners.isEmpty() == false) {
+                try {
+                    syncer.sync(location, listeners.size(), e -> notifyListeners(listeners, e));
+                } catch (Exception e) {
+                    notifyListeners(listeners, e);
+                }
+            }
+        }
+
+        @Override
+        public void onFailure(Exception e) {
+            // rejected, fail the pending syncs so that writes don't wait forever
+            final List<Consumer<Exception>> listeners;
+            synchronized (mutex) {
+                listeners = pendingListeners;
+                resetPending();
+            }
+            notifyListeners(listeners, e);
+        }
+    }
+
+    private void resetPending() {
+        assert Thread.holdsLock(mutex);
+        pendingListeners = new ArrayList<>();
+        pendingLocation = Translog.Location.EMPTY;
+        pendingBytes = 0;
+        syncScheduled = false;
+        syncTriggered = false;
+    }
+
+    private void notifyListeners(List<Consumer<Exception>> listeners, Exception exception) {
+        for (Consumer<Exception> listener : listeners) {
+            try {
+                listener.accept(exception);
+            } catch (Exception ex) {
+                logger.warn("failed to notify callback", ex);
+            }
+        }
+    }
+}
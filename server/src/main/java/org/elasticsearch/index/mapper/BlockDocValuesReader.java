@@ -18,6 +18,7 @@ import org.apache.lucene.index.SortedNumericDocValues;
 import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.io.stream.ByteArrayStreamInput;
+import org.elasticsearch.index.codec.tsdb.RunLengthDocValues;
 import org.elasticsearch.index.mapper.BlockLoader.BlockFactory;
 import org.elasticsearch.index.mapper.BlockLoader.BooleanBuilder;
 import org.elasticsearch.index.mapper.BlockLoader.Builder;
@@ -121,6 +122,9 @@ public abstract class BlockDocValuesReader implements BlockLoader.AllReader {
 
         @Override
         public BlockLoader.Block read(BlockFactory factory, Docs docs) throws IOException {
+            if (numericDocValues instanceof RunLengthDocValues runs && docs.count() > 1) {
+                return readRuns(factory, docs, runs);
+            }
             try (BlockLoader.LongBuilder builder = factory.longsFromDocValues(docs.count())) {
                 int lastDoc = -1;
                 for (int i = 0; i < docs.count(); i++) {
@@ -139,6 +143,42 @@ public abstract class BlockDocValuesReader implements BlockLoader.AllReader {
             }
         }
 
+        /**
+         * Reads dense doc values that repeat their value for runs of documents, reading each value once per run and
+         * returning a constant block if all docs are in the same run.
+         */
+        private BlockLoader.Block readRuns(BlockFactory factory, Docs docs, RunLengthDocValues runs) throws IOException {
+            int firstDoc = docs.get(0);
+            if (firstDoc < numericDocValues.docID()) {
+                throw new IllegalStateException("docs within same block must be in order");
+            }
+            boolean hasValue = numericDocValues.advanceExact(firstDoc);
+            assert hasValue : "run-length doc values are dense";
+            long value = numericDocValues.longValue();
+            int runEnd = runs.runEnd();
+            if (docs.get(docs.count() - 1) < runEnd) {
+                return factory.constantLongs(value, docs.count());
+            }
+            try (BlockLoader.LongBuilder builder = factory.longsFromDocValues(docs.count())) {
+                int lastDoc = -1;
+                for (int i = 0; i < docs.count(); i++) {
+                    int doc = docs.get(i);
+                    if (doc < lastDoc) {
+                        throw new IllegalStateException("docs within same block must be in order");
+                    }
+                    if (doc >= runEnd) {
+                        hasValue = numericDocValues.advanceExact(doc);
+                        assert hasValue : "run-length doc values are dense";
+                        value = numericDocValues.longValue();
+                        runEnd = runs.runEnd();
+                    }
+                    builder.appendLong(value);
+                    lastDoc = doc;
+                }
+                return builder.build();
+            }
+        }
+
         @Override
         public void read(int docId, BlockLoader.StoredFields storedFields, Builder builder) throws IOException {
             BlockLoader.LongBuilder blockBuilder = (BlockLoader.LongBuilder) builder;
@@ -256,6 +296,9 @@ public abstract class BlockDocValuesReader implements BlockLoader.AllReader {
 
         @Override
         public BlockLoader.Block read(BlockFactory factory, Docs docs) throws IOException {
+            if (numericDocValues instanceof RunLengthDocValues runs && docs.count() > 1) {
+                return readRuns(factory, docs, runs);
+            }
             try (BlockLoader.IntBuilder builder = factory.intsFromDocValues(docs.count())) {
                 int lastDoc = -1;
                 for (int i = 0; i < docs.count(); i++) {
@@ -274,6 +317,42 @@ public abstract class BlockDocValuesReader implements BlockLoader.AllReader {
             }
         }
 
+        /**
+         * Reads dense doc values that repeat their value for runs of documents, reading each value once per run and
+         * returning a constant block if all docs are in the same run.
+         */
+        private BlockLoader.Block readRuns(BlockFactory factory, Docs docs, RunLengthDocValues runs) throws IOException {
+            int firstDoc = docs.get(0);
+            if (firstDoc < numericDocValues.docID()) {
+                throw new IllegalStateException("docs within same block must be in order");
+            }
+            boolean hasValue = numericDocValues.advanceExact(firstDoc);
+            assert hasValue : "run-length doc values are dense";
+            int value = Math.toIntExact(numericDocValues.longValue());
+            int runEnd = runs.runEnd();
+            if (docs.get(docs.count() - 1) < runEnd) {
+                return factory.constantInts(value, docs.count());
+            }
+            try (BlockLoader.IntBuilder builder = factory.intsFromDocValues(docs.count())) {
+                int lastDoc = -1;
+                for (int i = 0; i < docs.count(); i++) {
+                    int doc = docs.get(i);
+                    if (doc < lastDoc) {
+                        throw new IllegalStateException("docs within same block must be in order");
+                    }
+                    if (doc >= runEnd) {
+                        hasValue = numericDocValues.advanceExact(doc);
+                        assert hasValue : "run-length doc values are dense";
+                        value = Math.toIntExact(numericDocValues.longValue());
+                        runEnd = runs.runEnd();
+                    }
+                    builder.appendInt(value);
+                    lastDoc = doc;
+                }
+                return builder.build();
+            }
+        }
+
         @Override
         public void read(int docId, BlockLoader.StoredFields storedFields, Builder builder) throws IOException {
             IntBuilder blockBuilder = (IntBuilder) builder;
@@ -571,6 +650,9 @@ public abstract class BlockDocValuesReader implements BlockLoader.AllReader {
             if (docs.count() == 1) {
                 return readSingleDoc(factory, docs.get(0));
             }
+            if (ordinals instanceof RunLengthDocValues runs) {
+                return readRuns(factory, docs, runs);
+            }
             try (BlockLoader.SingletonOrdinalsBuilder builder = factory.singletonOrdinalsBuilder(ordinals, docs.count())) {
                 for (int i = 0; i < docs.count(); i++) {
                     int doc = docs.get(i);
@@ -587,6 +669,33 @@ public abstract class BlockDocValuesReader implements BlockLoader.AllReader {
             }
         }
 
+        /**
+         * Reads dense ordinals that repeat for runs of documents, like the dimensions of time series indices. Each ordinal is only
+         * read once per run and the builder turns the runs into a constant or an ordinals block.
+         */
+        private BlockLoader.Block readRuns(BlockFactory factory, Docs docs, RunLengthDocValues runs) throws IOException {
+            try (BlockLoader.SingletonOrdinalsBuilder builder = factory.singletonOrdinalsBuilder(ordinals, docs.count())) {
+                int ord = -1;
+                int runEnd = -1;
+                int lastDoc = -1;
+                for (int i = 0; i < docs.count(); i++) {
+                    int doc = docs.get(i);
+                    if (doc < ordinals.docID() || doc < lastDoc) {
+                        throw new IllegalStateException("docs within same block must be in order");
+                    }
+                    if (doc >= runEnd) {
+                        boolean hasValue = ordinals.advanceExact(doc);
+                        assert hasValue : "run-length doc values are dense";
+                        ord = ordinals.ordValue();
+                        runEnd = runs.runEnd();
+                    }
+                    builder.appendOrd(ord);
+                    lastDoc = doc;
+                }
+                return builder.build();
+            }
+        }
+
         @Override
         public void read(int docId, BlockLoader.StoredFields storedFields, Builder builder) throws IOException {
             if (ordinals.advanceExact(docId)) {
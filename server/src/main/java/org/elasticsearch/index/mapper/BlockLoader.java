@@ -411,6 +411,18 @@ public interface BlockLoader {
          */
         Block constantBytes(BytesRef value);
 
+        /**
+         * Build a block that contains {@code value} repeated
+         * {@code count} times.
+         */
+        Block constantInts(int value, int count);
+
+        /**
+         * Build a block that contains {@code value} repeated
+         * {@code count} times.
+         */
+        Block constantLongs(long value, int count);
+
         /**
          * Build a reader for reading keyword ordinals.
          */
@@ -617,7 +617,7 @@ public final class DateFieldMapper extends FieldMapper {
                         query = new IndexOrDocValuesQuery(query, dvQuery);
                     }
                 } else {
-                    query = SortedNumericDocValuesField.newSlowRangeQuery(name(), l, u);
+                    query = NumberFieldMapper.NumberType.docValuesRangeQuery(name(), l, u, context);
                 }
                 if (hasDocValues() && context.indexSortedOnField(name())) {
                     query = new IndexSortSortedNumericDocValuesRangeQuery(name(), l, u, query);
@@ -12,6 +12,7 @@ package org.elasticsearch.index.mapper;
 import org.elasticsearch.features.FeatureSpecification;
 import org.elasticsearch.features.NodeFeature;
 import org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper;
+import org.elasticsearch.index.mapper.vectors.MultiDenseVectorFieldMapper;
 
 import java.util.Set;
 
@@ -28,6 +29,9 @@ public class MapperFeatures implements FeatureSpecification {
             SourceFieldMapper.SYNTHETIC_SOURCE_FALLBACK,
             DenseVectorFieldMapper.INT4_QUANTIZATION,
             DenseVectorFieldMapper.BIT_VECTORS,
+            DenseVectorFieldMapper.IVF_INDEX_TYPE,
+            DenseVectorFieldMapper.BBQ_INDEX_TYPES,
+            MultiDenseVectorFieldMapper.MULTI_DENSE_VECTOR_FIELD,
             DocumentMapper.INDEX_SORTING_ON_NESTED,
             KeywordFieldMapper.KEYWORD_DIMENSION_IGNORE_ABOVE,
             IndexModeFieldMapper.QUERYING_INDEX_MODE,
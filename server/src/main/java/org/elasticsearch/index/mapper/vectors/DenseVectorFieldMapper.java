@@ -45,6 +45,9 @@ import org.elasticsearch.index.codec.vectors.ES813Int8FlatVectorFormat;
 import org.elasticsearch.index.codec.vectors.ES814HnswScalarQuantizedVectorsFormat;
 import org.elasticsearch.index.codec.vectors.ES815BitFlatVectorFormat;
 import org.elasticsearch.index.codec.vectors.ES815HnswBitVectorsFormat;
+import org.elasticsearch.index.codec.vectors.ES816BinaryFlatVectorsFormat;
+import org.elasticsearch.index.codec.vectors.ES816HnswBinaryQuantizedVectorsFormat;
+import org.elasticsearch.index.codec.vectors.ES816IvfVectorsFormat;
 import org.elasticsearch.index.fielddata.FieldDataContext;
 import org.elasticsearch.index.fielddata.IndexFieldData;
 import org.elasticsearch.index.mapper.ArraySourceValueFetcher;
@@ -84,6 +87,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -105,6 +109,8 @@ public class DenseVectorFieldMapper extends FieldMapper {
 
     public static final NodeFeature INT4_QUANTIZATION = new NodeFeature("mapper.vectors.int4_quantization");
     public static final NodeFeature BIT_VECTORS = new NodeFeature("mapper.vectors.bit_vectors");
+    public static final NodeFeature IVF_INDEX_TYPE = new NodeFeature("mapper.vectors.ivf_index_type");
+    public static final NodeFeature BBQ_INDEX_TYPES = new NodeFeature("mapper.vectors.bbq_index_types");
 
     public static final IndexVersion MAGNITUDE_STORED_INDEX_VERSION = IndexVersions.V_7_5_0;
     public static final IndexVersion INDEXED_BY_DEFAULT_INDEX_VERSION = IndexVersions.FIRST_DETACHED_INDEX_VERSION;
@@ -1155,7 +1161,11 @@ public class DenseVectorFieldMapper extends FieldMapper {
             this.type = type;
         }
 
-        abstract KnnVectorsFormat getVectorsFormat(ElementType elementType);
+        /**
+         * @param numMergeWorkers the number of workers that build the HNSW graph during merges, ignored by flat formats
+         * @param mergeExec the executor that runs the merge workers, or {@code null} if {@code numMergeWorkers} is {@code 1}
+         */
+        abstract KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec);
 
         final void validateElementType(ElementType elementType) {
             if (type.supportsElementType(elementType) == false) {
@@ -1347,6 +1357,77 @@ public class DenseVectorFieldMapper extends FieldMapper {
             public boolean supportsDimension(int dims) {
                 return dims % 2 == 0;
             }
+        },
+        IVF("ivf") {
+            @Override
+            public IndexOptions parseIndexOptions(String fieldName, Map<String, ?> indexOptionsMap) {
+                Object vectorsPerClusterNode = indexOptionsMap.remove("vectors_per_cluster");
+                Object nprobeNode = indexOptionsMap.remove("nprobe");
+                if (vectorsPerClusterNode == null) {
+                    vectorsPerClusterNode = ES816IvfVectorsFormat.DEFAULT_VECTORS_PER_CLUSTER;
+                }
+                if (nprobeNode == null) {
+                    nprobeNode = ES816IvfVectorsFormat.DEFAULT_NPROBE;
+                }
+                int vectorsPerCluster = XContentMapValues.nodeIntegerValue(vectorsPerClusterNode);
+                int nprobe = XContentMapValues.nodeIntegerValue(nprobeNode);
+                MappingParser.checkNoRemainingFields(fieldName, indexOptionsMap);
+                return new IvfIndexOptions(vectorsPerCluster, nprobe);
+            }
+
+            @Override
+            public boolean supportsElementType(ElementType elementType) {
+                return elementType == ElementType.FLOAT;
+            }
+
+            @Override
+            public boolean supportsDimension(int dims) {
+                return true;
+            }
+        },
+        BBQ_HNSW("bbq_hnsw") {
+            @Override
+            public IndexOptions parseIndexOptions(String fieldName, Map<String, ?> indexOptionsMap) {
+                Object mNode = indexOptionsMap.remove("m");
+                Object efConstructionNode = indexOptionsMap.remove("ef_construction");
+                if (mNode == null) {
+                    mNode = Lucene99HnswVectorsFormat.DEFAULT_MAX_CONN;
+                }
+                if (efConstructionNode == null) {
+                    efConstructionNode = Lucene99HnswVectorsFormat.DEFAULT_BEAM_WIDTH;
+                }
+                int m = XContentMapValues.nodeIntegerValue(mNode);
+                int efConstruction = XContentMapValues.nodeIntegerValue(efConstructionNode);
+                MappingParser.checkNoRemainingFields(fieldName, indexOptionsMap);
+                return new BBQHnswIndexOptions(m, efConstruction);
+            }
+
+            @Override
+            public boolean supportsElementType(ElementType elementType) {
+                return elementType == ElementType.FLOAT;
+            }
+
+            @Override
+            public boolean supportsDimension(int dims) {
+                return true;
+            }
+        },
+        BBQ_FLAT("bbq_flat") {
+            @Override
+            public IndexOptions parseIndexOptions(String fieldName, Map<String, ?> indexOptionsMap) {
+                MappingParser.checkNoRemainingFields(fieldName, indexOptionsMap);
+                return new BBQFlatIndexOptions();
+            }
+
+            @Override
+            public boolean supportsElementType(ElementType elementType) {
+                return elementType == ElementType.FLOAT;
+            }
+
+            @Override
+            public boolean supportsDimension(int dims) {
+                return true;
+            }
         };
 
         static Optional<VectorIndexType> fromString(String type) {
@@ -1391,7 +1472,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
         }
 
         @Override
-        KnnVectorsFormat getVectorsFormat(ElementType elementType) {
+        KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
             assert elementType == ElementType.FLOAT;
             return new ES813Int8FlatVectorFormat(confidenceInterval, 7, false);
         }
@@ -1432,7 +1513,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
         }
 
         @Override
-        KnnVectorsFormat getVectorsFormat(ElementType elementType) {
+        KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
             if (elementType.equals(ElementType.BIT)) {
                 return new ES815BitFlatVectorFormat();
             }
@@ -1470,9 +1551,9 @@ public class DenseVectorFieldMapper extends FieldMapper {
         }
 
         @Override
-        public KnnVectorsFormat getVectorsFormat(ElementType elementType) {
+        public KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
             assert elementType == ElementType.FLOAT;
-            return new ES814HnswScalarQuantizedVectorsFormat(m, efConstruction, confidenceInterval, 4, true);
+            return new ES814HnswScalarQuantizedVectorsFormat(m, efConstruction, confidenceInterval, 4, true, numMergeWorkers, mergeExec);
         }
 
         @Override
@@ -1534,7 +1615,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
         }
 
         @Override
-        public KnnVectorsFormat getVectorsFormat(ElementType elementType) {
+        public KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
             assert elementType == ElementType.FLOAT;
             return new ES813Int8FlatVectorFormat(confidenceInterval, 4, true);
         }
@@ -1590,9 +1671,9 @@ public class DenseVectorFieldMapper extends FieldMapper {
         }
 
         @Override
-        public KnnVectorsFormat getVectorsFormat(ElementType elementType) {
+        public KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
             assert elementType == ElementType.FLOAT;
-            return new ES814HnswScalarQuantizedVectorsFormat(m, efConstruction, confidenceInterval, 7, false);
+            return new ES814HnswScalarQuantizedVectorsFormat(m, efConstruction, confidenceInterval, 7, false, numMergeWorkers, mergeExec);
         }
 
         @Override
@@ -1663,11 +1744,11 @@ public class DenseVectorFieldMapper extends FieldMapper {
         }
 
         @Override
-        public KnnVectorsFormat getVectorsFormat(ElementType elementType) {
+        public KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
             if (elementType == ElementType.BIT) {
-                return new ES815HnswBitVectorsFormat(m, efConstruction);
+                return new ES815HnswBitVectorsFormat(m, efConstruction, numMergeWorkers, mergeExec);
             }
-            return new Lucene99HnswVectorsFormat(m, efConstruction, 1, null);
+            return new Lucene99HnswVectorsFormat(m, efConstruction, numMergeWorkers, mergeExec);
         }
 
         @Override
@@ -1712,6 +1793,157 @@ public class DenseVectorFieldMapper extends FieldMapper {
         }
     }
 
+    static class IvfIndexOptions extends IndexOptions {
+        private final int vectorsPerCluster;
+        private final int nprobe;
+
+        IvfIndexOptions(int vectorsPerCluster, int nprobe) {
+            super(VectorIndexType.IVF);
+            if (vectorsPerCluster < ES816IvfVectorsFormat.MIN_VECTORS_PER_CLUSTER
+                || vectorsPerCluster > ES816IvfVectorsFormat.MAX_VECTORS_PER_CLUSTER) {
+                throw new IllegalArgumentException(
+                    "[vectors_per_cluster] must be between "
+                        + ES816IvfVectorsFormat.MIN_VECTORS_PER_CLUSTER
+                        + " and "
+                        + ES816IvfVectorsFormat.MAX_VECTORS_PER_CLUSTER
+                        + " but was ["
+                        + vectorsPerCluster
+                        + "]"
+                );
+            }
+            if (nprobe <= 0 || nprobe > ES816IvfVectorsFormat.MAX_NPROBE) {
+                throw new IllegalArgumentException(
+                    "[nprobe] must be between 1 and " + ES816IvfVectorsFormat.MAX_NPROBE + " but was [" + nprobe + "]"
+                );
+            }
+            this.vectorsPerCluster = vectorsPerCluster;
+            this.nprobe = nprobe;
+        }
+
+        @Override
+        public KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
+            assert elementType == ElementType.FLOAT;
+            return new ES816IvfVectorsFormat(vectorsPerCluster, nprobe);
+        }
+
+        @Override
+        boolean updatableTo(IndexOptions update) {
+            // partitions are computed per segment so existing segments keep theirs until they are merged
+            return update.type.equals(this.type);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field("type", type);
+            builder.field("vectors_per_cluster", vectorsPerCluster);
+            builder.field("nprobe", nprobe);
+            builder.endObject();
+            return builder;
+        }
+
+        @Override
+        public boolean doEquals(IndexOptions o) {
+            IvfIndexOptions that = (IvfIndexOptions) o;
+            return vectorsPerCluster == that.vectorsPerCluster && nprobe == that.nprobe;
+        }
+
+        @Override
+        public int doHashCode() {
+            return Objects.hash(vectorsPerCluster, nprobe);
+        }
+
+        @Override
+        public String toString() {
+            return "{type=" + type + ", vectors_per_cluster=" + vectorsPerCluster + ", nprobe=" + nprobe + "}";
+        }
+    }
+
+    static class BBQHnswIndexOptions extends IndexOptions {
+        private final int m;
+        private final int efConstruction;
+
+        BBQHnswIndexOptions(int m, int efConstruction) {
+            super(VectorIndexType.BBQ_HNSW);
+            this.m = m;
+            this.efConstruction = efConstruction;
+        }
+
+        @Override
+        KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
+            assert elementType == ElementType.FLOAT;
+            return new ES816HnswBinaryQuantizedVectorsFormat(m, efConstruction, numMergeWorkers, mergeExec);
+        }
+
+        @Override
+        boolean updatableTo(IndexOptions update) {
+            // fewer connections would break assumptions on max number of connections (based on largest previous graph) during merge
+            return update.type.equals(this.type) && ((BBQHnswIndexOptions) update).m >= this.m;
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field("type", type);
+            builder.field("m", m);
+            builder.field("ef_construction", efConstruction);
+            builder.endObject();
+            return builder;
+        }
+
+        @Override
+        public boolean doEquals(IndexOptions o) {
+            BBQHnswIndexOptions that = (BBQHnswIndexOptions) o;
+            return m == that.m && efConstruction == that.efConstruction;
+        }
+
+        @Override
+        public int doHashCode() {
+            return Objects.hash(m, efConstruction);
+        }
+
+        @Override
+        public String toString() {
+            return "{type=" + type + ", m=" + m + ", ef_construction=" + efConstruction + "}";
+        }
+    }
+
+    static class BBQFlatIndexOptions extends IndexOptions {
+
+        BBQFlatIndexOptions() {
+            super(VectorIndexType.BBQ_FLAT);
+        }
+
+        @Override
+        KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
+            assert elementType == ElementType.FLOAT;
+            return new ES816BinaryFlatVectorsFormat();
+        }
+
+        @Override
+        boolean updatableTo(IndexOptions update) {
+            return update.type.equals(this.type) || update.type.equals(VectorIndexType.BBQ_HNSW);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field("type", type);
+            builder.endObject();
+            return builder;
+        }
+
+        @Override
+        public boolean doEquals(IndexOptions o) {
+            return o instanceof BBQFlatIndexOptions;
+        }
+
+        @Override
+        public int doHashCode() {
+            return Objects.hash(type);
+        }
+    }
+
     public static final TypeParser PARSER = new TypeParser(
         (n, c) -> new Builder(n, c.indexVersionCreated()),
         notInMultiFields(CONTENT_TYPE)
@@ -1846,6 +2078,23 @@ public class DenseVectorFieldMapper extends FieldMapper {
             Query filter,
             Float similarityThreshold,
             BitSetProducer parentFilter
+        ) {
+            return createKnnQuery(queryVector, k, numCands, filter, similarityThreshold, parentFilter, false);
+        }
+
+        /**
+         * Creates a kNN query like {@link #createKnnQuery(VectorData, Integer, int, Query, Float, BitSetProducer)}.
+         * If {@code adaptiveFilteredSearch} is set then a filtered search decides per segment whether scoring all filtered
+         * vectors is cheaper than searching the graph. This is ignored for nested and {@code bit} vectors.
+         */
+        public Query createKnnQuery(
+            VectorData queryVector,
+            Integer k,
+            int numCands,
+            Query filter,
+            Float similarityThreshold,
+            BitSetProducer parentFilter,
+            boolean adaptiveFilteredSearch
         ) {
             if (isIndexed() == false) {
                 throw new IllegalArgumentException(
@@ -1853,8 +2102,24 @@ public class DenseVectorFieldMapper extends FieldMapper {
                 );
             }
             return switch (getElementType()) {
-                case BYTE -> createKnnByteQuery(queryVector.asByteVector(), k, numCands, filter, similarityThreshold, parentFilter);
-                case FLOAT -> createKnnFloatQuery(queryVector.asFloatVector(), k, numCands, filter, similarityThreshold, parentFilter);
+                case BYTE -> createKnnByteQuery(
+                    queryVector.asByteVector(),
+                    k,
+                    numCands,
+                    filter,
+                    similarityThreshold,
+                    parentFilter,
+                    adaptiveFilteredSearch
+                );
+                case FLOAT -> createKnnFloatQuery(
+                    queryVector.asFloatVector(),
+                    k,
+                    numCands,
+                    filter,
+                    similarityThreshold,
+                    parentFilter,
+                    adaptiveFilteredSearch
+                );
                 case BIT -> createKnnBitQuery(queryVector.asByteVector(), k, numCands, filter, similarityThreshold, parentFilter);
             };
         }
@@ -1887,7 +2152,8 @@ public class DenseVectorFieldMapper extends FieldMapper {
             int numCands,
             Query filter,
             Float similarityThreshold,
-            BitSetProducer parentFilter
+            BitSetProducer parentFilter,
+            boolean adaptiveFilteredSearch
         ) {
             elementType.checkDimensions(dims, queryVector.length);
 
@@ -1897,7 +2163,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
             }
             Query knnQuery = parentFilter != null
                 ? new ESDiversifyingChildrenByteKnnVectorQuery(name(), queryVector, filter, k, numCands, parentFilter)
-                : new ESKnnByteVectorQuery(name(), queryVector, k, numCands, filter);
+                : new ESKnnByteVectorQuery(name(), queryVector, k, numCands, filter, adaptiveFilteredSearch);
             if (similarityThreshold != null) {
                 knnQuery = new VectorSimilarityQuery(
                     knnQuery,
@@ -1914,7 +2180,8 @@ public class DenseVectorFieldMapper extends FieldMapper {
             int numCands,
             Query filter,
             Float similarityThreshold,
-            BitSetProducer parentFilter
+            BitSetProducer parentFilter,
+            boolean adaptiveFilteredSearch
         ) {
             elementType.checkDimensions(dims, queryVector.length);
             elementType.checkVectorBounds(queryVector);
@@ -1933,7 +2200,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
             }
             Query knnQuery = parentFilter != null
                 ? new ESDiversifyingChildrenFloatKnnVectorQuery(name(), queryVector, filter, k, numCands, parentFilter)
-                : new ESKnnFloatVectorQuery(name(), queryVector, k, numCands, filter);
+                : new ESKnnFloatVectorQuery(name(), queryVector, k, numCands, filter, adaptiveFilteredSearch);
             if (similarityThreshold != null) {
                 knnQuery = new VectorSimilarityQuery(
                     knnQuery,
@@ -2123,11 +2390,26 @@ public class DenseVectorFieldMapper extends FieldMapper {
      * {@code null} if the default format should be used.
      */
     public KnnVectorsFormat getKnnVectorsFormatForField(KnnVectorsFormat defaultFormat) {
+        return getKnnVectorsFormatForField(defaultFormat, 1, null);
+    }
+
+    /**
+     * Same as {@link #getKnnVectorsFormatForField(KnnVectorsFormat)} but HNSW graphs are built by {@code numMergeWorkers}
+     * workers running on {@code mergeExec} when segments are merged.
+     */
+    public KnnVectorsFormat getKnnVectorsFormatForField(KnnVectorsFormat defaultFormat, int numMergeWorkers, ExecutorService mergeExec) {
         final KnnVectorsFormat format;
         if (indexOptions == null) {
-            format = fieldType().elementType == ElementType.BIT ? new ES815HnswBitVectorsFormat() : defaultFormat;
+            format = fieldType().elementType == ElementType.BIT
+                ? new ES815HnswBitVectorsFormat(
+                    Lucene99HnswVectorsFormat.DEFAULT_MAX_CONN,
+                    Lucene99HnswVectorsFormat.DEFAULT_BEAM_WIDTH,
+                    numMergeWorkers,
+                    mergeExec
+                )
+                : defaultFormat;
         } else {
-            format = indexOptions.getVectorsFormat(fieldType().elementType);
+            format = indexOptions.getVectorsFormat(fieldType().elementType, numMergeWorkers, mergeExec);
         }
         // It's legal to reuse the same format name as this is the same on-disk format.
         return new KnnVectorsFormat(format.getName()) {
@@ -0,0 +1,380 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.mapper.vectors;
+
+import org.apache.lucene.document.BinaryDocValuesField;
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.search.FieldExistsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.xcontent.support.XContentMapValues;
+import org.elasticsearch.features.NodeFeature;
+import org.elasticsearch.index.fielddata.FieldDataContext;
+import org.elasticsearch.index.fielddata.IndexFieldData;
+import org.elasticsearch.index.mapper.ArraySourceValueFetcher;
+import org.elasticsearch.index.mapper.DocumentParserContext;
+import org.elasticsearch.index.mapper.FieldMapper;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.MapperBuilderContext;
+import org.elasticsearch.index.mapper.MapperParsingException;
+import org.elasticsearch.index.mapper.SimpleMappedFieldType;
+import org.elasticsearch.index.mapper.SourceLoader;
+import org.elasticsearch.index.mapper.TextSearchInfo;
+import org.elasticsearch.index.mapper.ValueFetcher;
+import org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper.ElementType;
+import org.elasticsearch.index.query.SearchExecutionContext;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.vectors.MaxSimQuery;
+import org.elasticsearch.search.vectors.VectorData;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentParser.Token;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.elasticsearch.common.xcontent.XContentParserUtils.ensureExpectedToken;
+import static org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper.MAX_DIMS_COUNT;
+
+/**
+ * A {@link FieldMapper} for indexing several dense vectors of the same number of dimensions per document, such as the
+ * token embeddings used by late-interaction models. All the vectors of a document are concatenated into a single binary
+ * doc value, floats are stored in little-endian order and bytes as they are, so the number of vectors of a document
+ * follows from the length of its doc value. Documents are scored with {@link MaxSimQuery}.
+ */
+public class MultiDenseVectorFieldMapper extends FieldMapper {
+
+    public static final NodeFeature MULTI_DENSE_VECTOR_FIELD = new NodeFeature("mapper.vectors.multi_dense_vector");
+
+    public static final String CONTENT_TYPE = "multi_dense_vector";
+
+    private static MultiDenseVectorFieldMapper toType(FieldMapper in) {
+        return (MultiDenseVectorFieldMapper) in;
+    }
+
+    public static class Builder extends FieldMapper.Builder {
+
+        private final Parameter<ElementType> elementType = new Parameter<>("element_type", false, () -> ElementType.FLOAT, (n, c, o) -> {
+            ElementType elementType = DenseVectorFieldMapper.namesToElementType.get((String) o);
+            if (elementType == null || elementType == ElementType.BIT) {
+                throw new MapperParsingException(
+                    "invalid element_type [" + o + "]; available types are [" + ElementType.FLOAT + ", " + ElementType.BYTE + "]"
+                );
+            }
+            return elementType;
+        }, m -> toType(m).fieldType().elementType, XContentBuilder::field, Objects::toString);
+
+        private final Parameter<Integer> dims = new Parameter<>("dims", false, () -> null, (n, c, o) -> {
+            if (o instanceof Integer == false) {
+                throw new MapperParsingException("Property [dims] on field [" + n + "] must be an integer but got [" + o + "]");
+            }
+            int dims = XContentMapValues.nodeIntegerValue(o);
+            if (dims < 1 || dims > MAX_DIMS_COUNT) {
+                throw new MapperParsingException(
+                    "The number of dimensions for field ["
+                        + n
+                        + "] should be in the range [1, "
+                        + MAX_DIMS_COUNT
+                        + "] but was ["
+                        + dims
+                        + "]"
+                );
+            }
+            return dims;
+        }, m -> toType(m).fieldType().dims, XContentBuilder::field, Object::toString).addValidator(dims -> {
+            if (dims == null) {
+                throw new MapperParsingException("Missing required parameter [dims] for field [" + leafName() + "]");
+            }
+        });
+
+        private final Parameter<Map<String, String>> meta = Parameter.metaParam();
+
+        public Builder(String name) {
+            super(name);
+        }
+
+        @Override
+        protected Parameter<?>[] getParameters() {
+            return new Parameter<?>[] { elementType, dims, meta };
+        }
+
+        public Builder dimensions(int dimensions) {
+            this.dims.setValue(dimensions);
+            return this;
+        }
+
+        public Builder elementType(ElementType elementType) {
+            this.elementType.setValue(elementType);
+            return this;
+        }
+
+        @Override
+        public MultiDenseVectorFieldMapper build(MapperBuilderContext context) {
+            return new MultiDenseVectorFieldMapper(
+                leafName(),
+                new MultiDenseVectorFieldType(
+                    context.buildFullName(leafName()),
+                    elementType.getValue(),
+                    dims.getValue(),
+                    meta.getValue()
+                ),
+                builderParams(this, context)
+            );
+        }
+    }
+
+    public static final TypeParser PARSER = new TypeParser((n, c) -> new Builder(n), notInMultiFields(CONTENT_TYPE));
+
+    public static final class MultiDenseVectorFieldType extends SimpleMappedFieldType {
+        private final ElementType elementType;
+        private final int dims;
+
+        public MultiDenseVectorFieldType(String name, ElementType elementType, int dims, Map<String, String> meta) {
+            super(name, false, false, true, TextSearchInfo.NONE, meta);
+            this.elementType = elementType;
+            this.dims = dims;
+        }
+
+        @Override
+        public String typeName() {
+            return CONTENT_TYPE;
+        }
+
+        public ElementType getElementType() {
+            return elementType;
+        }
+
+        public int getVectorDimensions() {
+            return dims;
+        }
+
+        @Override
+        public ValueFetcher valueFetcher(SearchExecutionContext context, String format) {
+            if (format != null) {
+                throw new IllegalArgumentException("Field [" + name() + "] of type [" + typeName() + "] doesn't support formats.");
+            }
+            return new ArraySourceValueFetcher(name(), context) {
+                @Override
+                protected Object parseSourceValue(Object value) {
+                    return value;
+                }
+            };
+        }
+
+        @Override
+        public DocValueFormat docValueFormat(String format, ZoneId timeZone) {
+            throw new IllegalArgumentException(
+                "Field [" + name() + "] of type [" + typeName() + "] doesn't support docvalue_fields or aggregations"
+            );
+        }
+
+        @Override
+        public boolean isAggregatable() {
+            return false;
+        }
+
+        @Override
+        public IndexFieldData.Builder fielddataBuilder(FieldDataContext fieldDataContext) {
+            throw new IllegalArgumentException("[" + CONTENT_TYPE + "] fields do not support sorting, scripting or aggregating");
+        }
+
+        @Override
+        public Query existsQuery(SearchExecutionContext context) {
+            return new FieldExistsQuery(name());
+        }
+
+        @Override
+        public Query termQuery(Object value, SearchExecutionContext context) {
+            throw new IllegalArgumentException("Field [" + name() + "] of type [" + typeName() + "] doesn't support term queries");
+        }
+
+        /**
+         * Creates a query that scores every document with a value for this field by the sum, over the query vectors,
+         * of the highest dot product of the query vector with any of the document's vectors.
+         */
+        public Query createMaxSimQuery(List<VectorData> queryVectors) {
+            if (queryVectors.isEmpty()) {
+                throw new IllegalArgumentException("at least one query vector is required to query field [" + name() + "]");
+            }
+            return switch (elementType) {
+                case FLOAT -> {
+                    float[][] vectors = new float[queryVectors.size()][];
+                    for (int i = 0; i < vectors.length; i++) {
+                        float[] vector = queryVectors.get(i).asFloatVector();
+                        elementType.checkDimensions(dims, vector.length);
+                        elementType.checkVectorBounds(vector);
+                        vectors[i] = vector;
+                    }
+                    yield new MaxSimQuery.Floats(name(), vectors);
+                }
+                case BYTE -> {
+                    byte[][] vectors = new byte[queryVectors.size()][];
+                    for (int i = 0; i < vectors.length; i++) {
+                        byte[] vector = queryVectors.get(i).asByteVector();
+                        elementType.checkDimensions(dims, vector.length);
+                        vectors[i] = vector;
+                    }
+                    yield new MaxSimQuery.Bytes(name(), vectors);
+                }
+                case BIT -> throw new IllegalStateException("[" + CONTENT_TYPE + "] fields do not support bit vectors");
+            };
+        }
+    }
+
+    private MultiDenseVectorFieldMapper(String simpleName, MappedFieldType mappedFieldType, BuilderParams params) {
+        super(simpleName, mappedFieldType, params);
+    }
+
+    @Override
+    public MultiDenseVectorFieldType fieldType() {
+        return (MultiDenseVectorFieldType) super.fieldType();
+    }
+
+    @Override
+    public boolean parsesArrayValue() {
+        return true;
+    }
+
+    @Override
+    public void parse(DocumentParserContext context) throws IOException {
+        if (context.doc().getByKey(fieldType().name()) != null) {
+            throw new IllegalArgumentException(
+                "Field ["
+                    + fullPath()
+                    + "] of type ["
+                    + typeName()
+                    + "] doesn't support indexing multiple values for the same field in the same document"
+            );
+        }
+        if (Token.VALUE_NULL == context.parser().currentToken()) {
+            return;
+        }
+        ensureExpectedToken(Token.START_ARRAY, context.parser().currentToken(), context.parser());
+        final int dims = fieldType().dims;
+        final ElementType elementType = fieldType().elementType;
+        final List<float[]> vectors = new ArrayList<>();
+        for (Token token = context.parser().nextToken(); token != Token.END_ARRAY; token = context.parser().nextToken()) {
+            ensureExpectedToken(Token.START_ARRAY, token, context.parser());
+            float[] vector = new float[dims];
+            int index = 0;
+            for (token = context.parser().nextToken(); token != Token.END_ARRAY; token = context.parser().nextToken()) {
+                if (index >= dims) {
+                    throw dimensionsMismatch(context, vectors.size());
+                }
+                ensureExpectedToken(Token.VALUE_NUMBER, token, context.parser());
+                vector[index++] = context.parser().floatValue(true);
+            }
+            if (index != dims) {
+                throw dimensionsMismatch(context, vectors.size());
+            }
+            elementType.checkVectorBounds(vector);
+            vectors.add(vector);
+        }
+        if (vectors.isEmpty()) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(vectors.size() * elementType.getNumBytes(dims)).order(ByteOrder.LITTLE_ENDIAN);
+        for (float[] vector : vectors) {
+            for (float value : vector) {
+                elementType.writeValue(buffer, value);
+            }
+        }
+        context.doc().addWithKey(fieldType().name(), new BinaryDocValuesField(fieldType().name(), new BytesRef(buffer.array())));
+    }
+
+    private IllegalArgumentException dimensionsMismatch(DocumentParserContext context, int vectorIndex) {
+        return new IllegalArgumentException(
+            "The ["
+                + typeName()
+                + "] field ["
+                + fullPath()
+                + "] in doc ["
+                + context.documentDescription()
+                + "] has a vector at index ["
+                + vectorIndex
+                + "] with a different number of dimensions than defined in the mapping ["
+                + fieldType().dims
+                + "]"
+        );
+    }
+
+    @Override
+    protected void parseCreateField(DocumentParserContext context) {
+        throw new AssertionError("parse is implemented directly");
+    }
+
+    @Override
+    protected String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public FieldMapper.Builder getMergeBuilder() {
+        return new Builder(leafName()).init(this);
+    }
+
+    @Override
+    protected SyntheticSourceSupport syntheticSourceSupport() {
+        return new SyntheticSourceSupport.Native(new DocValuesSyntheticFieldLoader());
+    }
+
+    private class DocValuesSyntheticFieldLoader extends SourceLoader.DocValuesBasedSyntheticFieldLoader {
+        private BinaryDocValues values;
+        private boolean hasValue;
+
+        @Override
+        public DocValuesLoader docValuesLoader(LeafReader leafReader, int[] docIdsInLeaf) throws IOException {
+            values = leafReader.getBinaryDocValues(fullPath());
+            if (values == null) {
+                return null;
+            }
+            return docId -> {
+                hasValue = docId == values.advance(docId);
+                return hasValue;
+            };
+        }
+
+        @Override
+        public boolean hasValue() {
+            return hasValue;
+        }
+
+        @Override
+        public void write(XContentBuilder b) throws IOException {
+            if (false == hasValue) {
+                return;
+            }
+            BytesRef ref = values.binaryValue();
+            ByteBuffer byteBuffer = ByteBuffer.wrap(ref.bytes, ref.offset, ref.length).order(ByteOrder.LITTLE_ENDIAN);
+            int dims = fieldType().dims;
+            int numVectors = ref.length / fieldType().elementType.getNumBytes(dims);
+            b.startArray(leafName());
+            for (int vector = 0; vector < numVectors; vector++) {
+                b.startArray();
+                for (int dim = 0; dim < dims; dim++) {
+                    fieldType().elementType.readAndWriteValue(byteBuffer, b);
+                }
+                b.endArray();
+            }
+            b.endArray();
+        }
+
+        @Override
+        public String fieldName() {
+            return fullPath();
+        }
+    }
+}
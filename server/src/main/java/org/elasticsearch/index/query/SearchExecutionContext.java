@@ -31,6 +31,7 @@ import org.elasticsearch.index.IndexSortConfig;
 import org.elasticsearch.index.IndexVersion;
 import org.elasticsearch.index.analysis.NamedAnalyzer;
 import org.elasticsearch.index.cache.bitset.BitsetFilterCache;
+import org.elasticsearch.index.codec.PerFieldFormatSupplier;
 import org.elasticsearch.index.fielddata.FieldDataContext;
 import org.elasticsearch.index.fielddata.IndexFieldData;
 import org.elasticsearch.index.mapper.DocumentParsingException;
@@ -544,6 +545,15 @@ public class SearchExecutionContext extends QueryRewriteContext {
         return indexSortConfig.hasPrimarySortOnField(field);
     }
 
+    /**
+     * Whether the doc values of a numeric or date field that isn't indexed have a skip index that range queries can use to skip
+     * blocks of documents. Segments written before the skip index existed don't have it, so queries must still be able to do
+     * without.
+     */
+    public boolean hasDocValuesSkipIndex(String field) {
+        return PerFieldFormatSupplier.useTSDBDocValuesFormat(indexSettings, field);
+    }
+
     public ParsedQuery toQuery(QueryBuilder queryBuilder) {
         reset();
         try {
@@ -0,0 +1,70 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.translog;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the number of sync requests served by each translog sync as a histogram with fixed buckets.
+ */
+public class SyncBatchSizeTracker {
+
+    /*
+     * A sync serves at least one request. Group commit batches rarely exceed a few thousand requests, so the last histogram bucket
+     * is >= 4096 (2^12)
+     */
+
+    public static int[] getBucketUpperBounds() {
+        int[] bounds = new int[13];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = 1 << i;
+        }
+        return bounds;
+    }
+
+    private static int getBucket(int batchSize) {
+        if (batchSize <= 0) {
+            return 0;
+        } else if (LAST_BUCKET_LOWER_BOUND <= batchSize) {
+            return BUCKET_COUNT - 1;
+        } else {
+            return Integer.SIZE - Integer.numberOfLeadingZeros(batchSize);
+        }
+    }
+
+    public static final int BUCKET_COUNT = getBucketUpperBounds().length + 1;
+
+    private static final int LAST_BUCKET_LOWER_BOUND = getBucketUpperBounds()[BUCKET_COUNT - 2];
+
+    private final LongAdder[] buckets;
+
+    public SyncBatchSizeTracker() {
+        buckets = new LongAdder[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void addBatchSize(int batchSize) {
+        buckets[getBucket(batchSize)].increment();
+    }
+
+    /**
+     * @return An array of frequencies of batch sizes in buckets with upper bounds as returned by {@link #getBucketUpperBounds()}, plus
+     *         an extra bucket for batches larger than the largest upper bound.
+     */
+    public long[] getHistogram() {
+        final long[] histogram = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            histogram[i] = buckets[i].longValue();
+        }
+        return histogram;
+    }
+}
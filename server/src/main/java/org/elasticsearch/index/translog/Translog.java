@@ -21,6 +21,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
 import org.elasticsearch.common.lucene.uid.Versions;
+import org.elasticsearch.common.network.HandlingTimeTracker;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.core.IOUtils;
 import org.elasticsearch.core.Nullable;
@@ -51,6 +52,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -121,6 +123,8 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
     private final LongSupplier primaryTermSupplier;
     private final String translogUUID;
     private final TranslogDeletionPolicy deletionPolicy;
+    // how long each sync of the translog took, in millis
+    private final HandlingTimeTracker syncTimeTracker = new HandlingTimeTracker();
     private final LongConsumer persistedSequenceNumberConsumer;
     private final OperationListener operationListener;
 
@@ -806,7 +810,7 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
             readLock.lock();
             try {
                 if (closed.get() == false) {
-                    current.sync();
+                    syncUpTo(Long.MAX_VALUE, SequenceNumbers.UNASSIGNED_SEQ_NO);
                 }
             } finally {
                 readLock.unlock();
@@ -898,7 +902,7 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
                 long persistedGlobalCheckpoint = current.getLastSyncedCheckpoint().globalCheckpoint;
                 if (location.generation == current.getGeneration() || persistedGlobalCheckpoint < globalCheckpoint) {
                     ensureOpen();
-                    return current.syncUpTo(location.translogLocation + location.size, globalCheckpoint);
+                    return syncUpTo(location.translogLocation + location.size, globalCheckpoint);
                 }
             } finally {
                 readLock.unlock();
@@ -910,6 +914,15 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
         return false;
     }
 
+    private boolean syncUpTo(long offset, long globalCheckpoint) throws IOException {
+        final long startTimeNanos = System.nanoTime();
+        final boolean synced = current.syncUpTo(offset, globalCheckpoint);
+        if (synced) {
+            syncTimeTracker.addHandlingTime(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeNanos));
+        }
+        return synced;
+    }
+
     /**
      * Closes the translog if the current translog writer experienced a tragic exception.
      *
@@ -940,6 +953,13 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
      * return stats
      */
     public TranslogStats stats() {
+        return stats(new long[SyncBatchSizeTracker.BUCKET_COUNT]);
+    }
+
+    /**
+     * Returns the stats of this translog, including the given histogram of the number of sync requests served by each sync.
+     */
+    public TranslogStats stats(long[] syncBatchSizeHistogram) {
         // acquire lock to make the two numbers roughly consistent (no file change half way)
         readLock.lock();
         try {
@@ -949,7 +969,9 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
                 sizeInBytes(),
                 totalOperationsByMinGen(uncommittedGen),
                 sizeInBytesByMinGen(uncommittedGen),
-                earliestLastModifiedAge()
+                earliestLastModifiedAge(),
+                syncTimeTracker.getHistogram(),
+                syncBatchSizeHistogram
             );
         } finally {
             readLock.unlock();
@@ -8,15 +8,19 @@
  */
 package org.elasticsearch.index.translog;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.network.HandlingTimeTracker;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.xcontent.ToXContentFragment;
 import org.elasticsearch.xcontent.XContentBuilder;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Objects;
 
 public class TranslogStats implements Writeable, ToXContentFragment {
@@ -26,6 +30,11 @@ public class TranslogStats implements Writeable, ToXContentFragment {
     private long uncommittedSizeInBytes;
     private int uncommittedOperations;
     private long earliestLastModifiedAge;
+    // frequencies of sync times (millis) in buckets with upper bounds as returned by HandlingTimeTracker#getBucketUpperBounds()
+    private long[] syncTimeHistogram = new long[HandlingTimeTracker.BUCKET_COUNT];
+    // frequencies of the number of sync requests served by each sync in buckets with upper bounds as returned by
+    // SyncBatchSizeTracker#getBucketUpperBounds()
+    private long[] syncBatchSizeHistogram = new long[SyncBatchSizeTracker.BUCKET_COUNT];
 
     public TranslogStats() {}
 
@@ -35,6 +44,10 @@ public class TranslogStats implements Writeable, ToXContentFragment {
         uncommittedOperations = in.readVInt();
         uncommittedSizeInBytes = in.readVLong();
         earliestLastModifiedAge = in.readVLong();
+        if (in.getTransportVersion().onOrAfter(TransportVersions.TRANSLOG_SYNC_HISTOGRAMS)) {
+            syncTimeHistogram = in.readVLongArray();
+            syncBatchSizeHistogram = in.readVLongArray();
+        }
     }
 
     public TranslogStats(
@@ -43,6 +56,26 @@ public class TranslogStats implements Writeable, ToXContentFragment {
         int uncommittedOperations,
         long uncommittedSizeInBytes,
         long earliestLastModifiedAge
+    ) {
+        this(
+            numberOfOperations,
+            translogSizeInBytes,
+            uncommittedOperations,
+            uncommittedSizeInBytes,
+            earliestLastModifiedAge,
+            new long[HandlingTimeTracker.BUCKET_COUNT],
+            new long[SyncBatchSizeTracker.BUCKET_COUNT]
+        );
+    }
+
+    public TranslogStats(
+        int numberOfOperations,
+        long translogSizeInBytes,
+        int uncommittedOperations,
+        long uncommittedSizeInBytes,
+        long earliestLastModifiedAge,
+        long[] syncTimeHistogram,
+        long[] syncBatchSizeHistogram
     ) {
         if (numberOfOperations < 0) {
             throw new IllegalArgumentException("numberOfOperations must be >= 0");
@@ -64,6 +97,10 @@ public class TranslogStats implements Writeable, ToXContentFragment {
         this.uncommittedSizeInBytes = uncommittedSizeInBytes;
         this.uncommittedOperations = uncommittedOperations;
         this.earliestLastModifiedAge = earliestLastModifiedAge;
+        assert syncTimeHistogram.length == HandlingTimeTracker.BUCKET_COUNT;
+        assert syncBatchSizeHistogram.length == SyncBatchSizeTracker.BUCKET_COUNT;
+        this.syncTimeHistogram = syncTimeHistogram;
+        this.syncBatchSizeHistogram = syncBatchSizeHistogram;
     }
 
     public void add(TranslogStats translogStats) {
@@ -80,6 +117,17 @@ public class TranslogStats implements Writeable, ToXContentFragment {
         } else {
             this.earliestLastModifiedAge = Math.min(this.earliestLastModifiedAge, translogStats.earliestLastModifiedAge);
         }
+        this.syncTimeHistogram = addHistograms(this.syncTimeHistogram, translogStats.syncTimeHistogram);
+        this.syncBatchSizeHistogram = addHistograms(this.syncBatchSizeHistogram, translogStats.syncBatchSizeHistogram);
+    }
+
+    private static long[] addHistograms(long[] first, long[] second) {
+        assert first.length == second.length;
+        final long[] sum = new long[first.length];
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] = first[i] + second[i];
+        }
+        return sum;
     }
 
     public long getTranslogSizeInBytes() {
@@ -104,6 +152,22 @@ public class TranslogStats implements Writeable, ToXContentFragment {
         return earliestLastModifiedAge;
     }
 
+    /**
+     * @return An array of frequencies of the time translog syncs took in millis, in buckets with upper bounds as returned by
+     *         {@link HandlingTimeTracker#getBucketUpperBounds()}, plus an extra bucket for longer syncs.
+     */
+    public long[] getSyncTimeHistogram() {
+        return syncTimeHistogram;
+    }
+
+    /**
+     * @return An array of frequencies of the number of sync requests served by each translog sync, in buckets with upper bounds as
+     *         returned by {@link SyncBatchSizeTracker#getBucketUpperBounds()}, plus an extra bucket for larger batches.
+     */
+    public long[] getSyncBatchSizeHistogram() {
+        return syncBatchSizeHistogram;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject("translog");
@@ -112,10 +176,51 @@ public class TranslogStats implements Writeable, ToXContentFragment {
         builder.field("uncommitted_operations", uncommittedOperations);
         builder.humanReadableField("uncommitted_size_in_bytes", "uncommitted_size", ByteSizeValue.ofBytes(uncommittedSizeInBytes));
         builder.field("earliest_last_modified_age", earliestLastModifiedAge);
+        builder.startObject("sync");
+        histogramToXContent(builder, "time_histogram", syncTimeHistogram, HandlingTimeTracker.getBucketUpperBounds(), true);
+        histogramToXContent(builder, "batch_size_histogram", syncBatchSizeHistogram, SyncBatchSizeTracker.getBucketUpperBounds(), false);
+        builder.endObject();
         builder.endObject();
         return builder;
     }
 
+    static void histogramToXContent(XContentBuilder builder, String fieldName, long[] histogram, int[] bucketBounds, boolean millis)
+        throws IOException {
+        assert histogram.length == bucketBounds.length + 1;
+        builder.startArray(fieldName);
+
+        int firstBucket = 0;
+        long remainingCount = 0L;
+        for (int i = 0; i < histogram.length; i++) {
+            if (remainingCount == 0) {
+                firstBucket = i;
+            }
+            remainingCount += histogram[i];
+        }
+
+        for (int i = firstBucket; i < histogram.length && 0 < remainingCount; i++) {
+            builder.startObject();
+            if (i > 0) {
+                if (millis) {
+                    builder.humanReadableField("ge_millis", "ge", TimeValue.timeValueMillis(bucketBounds[i - 1]));
+                } else {
+                    builder.field("ge", bucketBounds[i - 1]);
+                }
+            }
+            if (i < bucketBounds.length) {
+                if (millis) {
+                    builder.humanReadableField("lt_millis", "lt", TimeValue.timeValueMillis(bucketBounds[i]));
+                } else {
+                    builder.field("lt", bucketBounds[i]);
+                }
+            }
+            builder.field("count", histogram[i]);
+            builder.endObject();
+            remainingCount -= histogram[i];
+        }
+        builder.endArray();
+    }
+
     @Override
     public String toString() {
         return Strings.toString(this, true, true);
@@ -128,6 +233,10 @@ public class TranslogStats implements Writeable, ToXContentFragment {
         out.writeVInt(uncommittedOperations);
         out.writeVLong(uncommittedSizeInBytes);
         out.writeVLong(earliestLastModifiedAge);
+        if (out.getTransportVersion().onOrAfter(TransportVersions.TRANSLOG_SYNC_HISTOGRAMS)) {
+            out.writeVLongArray(syncTimeHistogram);
+            out.writeVLongArray(syncBatchSizeHistogram);
+        }
     }
 
     @Override
@@ -139,17 +248,22 @@ public class TranslogStats implements Writeable, ToXContentFragment {
             && translogSizeInBytes == that.translogSizeInBytes
             && uncommittedOperations == that.uncommittedOperations
             && uncommittedSizeInBytes == that.uncommittedSizeInBytes
-            && earliestLastModifiedAge == that.earliestLastModifiedAge;
+            && earliestLastModifiedAge == that.earliestLastModifiedAge
+            && Arrays.equals(syncTimeHistogram, that.syncTimeHistogram)
+            && Arrays.equals(syncBatchSizeHistogram, that.syncBatchSizeHistogram);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(
+        int result = Objects.hash(
             numberOfOperations,
             translogSizeInBytes,
             uncommittedOperations,
             uncommittedSizeInBytes,
             earliestLastModifiedAge
         );
+        result = 31 * result + Arrays.hashCode(syncTimeHistogram);
+        result = 31 * result + Arrays.hashCode(syncBatchSizeHistogram);
+        return result;
     }
 }
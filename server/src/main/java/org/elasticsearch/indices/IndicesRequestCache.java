@@ -10,6 +10,7 @@
 package org.elasticsearch.indices;
 
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.util.Accountable;
 import org.apache.lucene.util.RamUsageEstimator;
 import org.elasticsearch.common.CheckedSupplier;
@@ -60,6 +61,16 @@ public final class IndicesRequestCache implements Closeable {
         Property.Dynamic,
         Property.IndexScope
     );
+    /**
+     * A setting to enable caching partial aggregation results per segment, on top of the whole shard result. Segments
+     * that are untouched by a refresh keep their cached results so that only new segments need to be aggregated.
+     */
+    public static final Setting<Boolean> INDEX_CACHE_REQUEST_SEGMENT_AGGREGATIONS_SETTING = Setting.boolSetting(
+        "index.requests.cache.segment_aggregations.enable",
+        false,
+        Property.Dynamic,
+        Property.IndexScope
+    );
     public static final Setting<ByteSizeValue> INDICES_CACHE_QUERY_SIZE = Setting.memorySizeSetting(
         "indices.requests.cache.size",
         "1%",
@@ -70,6 +81,15 @@ public final class IndicesRequestCache implements Closeable {
         new TimeValue(0),
         Property.NodeScope
     );
+    /**
+     * A setting to choose between the frequency-aware cache, which records accesses without a global lock and keeps frequently
+     * requested entries when many entries are requested only once, and the LRU cache the request cache used to be backed by.
+     */
+    public static final Setting<Boolean> INDICES_CACHE_QUERY_FREQUENCY_AWARE = Setting.boolSetting(
+        "indices.requests.cache.frequency_aware",
+        true,
+        Property.NodeScope
+    );
 
     private final ConcurrentMap<CleanupKey, Boolean> registeredClosedListeners = ConcurrentCollections.newConcurrentMap();
     private final Set<CleanupKey> keysToClean = ConcurrentCollections.newConcurrentSet();
@@ -80,7 +100,8 @@ public final class IndicesRequestCache implements Closeable {
         CacheBuilder<Key, BytesReference> cacheBuilder = CacheBuilder.<Key, BytesReference>builder()
             .setMaximumWeight(INDICES_CACHE_QUERY_SIZE.get(settings).getBytes())
             .weigher((k, v) -> k.ramBytesUsed() + v.ramBytesUsed())
-            .removalListener(notification -> notification.getKey().entity.onRemoval(notification));
+            .removalListener(notification -> notification.getKey().entity.onRemoval(notification))
+            .setFrequencyAware(INDICES_CACHE_QUERY_FREQUENCY_AWARE.get(settings));
         if (expire != null) {
             cacheBuilder.setExpireAfterAccess(expire);
         }
@@ -134,6 +155,43 @@ public final class IndicesRequestCache implements Closeable {
         return value;
     }
 
+    /**
+     * Returns the value cached for the given segment level reader, or <code>null</code> if there is none. Unlike
+     * {@link #getOrCompute} this doesn't load missing values, callers are expected to {@link #put} them once computed.
+     * Segment level lookups are made on behalf of a shard level request that already counted as a hit or a miss, so they
+     * don't record hits and misses on the cache entity.
+     */
+    BytesReference get(
+        CacheEntity cacheEntity,
+        MappingLookup.CacheKey mappingCacheKey,
+        IndexReader.CacheHelper cacheHelper,
+        BytesReference cacheKey
+    ) {
+        return cache.get(new Key(cacheEntity, mappingCacheKey, cacheHelper.getKey(), cacheKey));
+    }
+
+    /**
+     * Caches the value computed for the given segment level reader. The entry is cleaned up once the reader is closed.
+     */
+    void put(
+        CacheEntity cacheEntity,
+        MappingLookup.CacheKey mappingCacheKey,
+        IndexReader.CacheHelper cacheHelper,
+        BytesReference cacheKey,
+        BytesReference value
+    ) {
+        final Key key = new Key(cacheEntity, mappingCacheKey, cacheHelper.getKey(), cacheKey);
+        CleanupKey cleanupKey = new CleanupKey(cacheEntity, cacheHelper.getKey());
+        if (registeredClosedListeners.containsKey(cleanupKey) == false) {
+            Boolean previous = registeredClosedListeners.putIfAbsent(cleanupKey, Boolean.TRUE);
+            if (previous == null) {
+                cacheHelper.addClosedListener(cleanupKey::onClose);
+            }
+        }
+        cache.put(key, value);
+        cacheEntity.onCached(key, value);
+    }
+
     /**
      * Invalidates the given the cache entry for the given key and it's context
      * @param cacheEntity the cache entity to invalidate for
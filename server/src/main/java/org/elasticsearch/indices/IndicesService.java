@@ -13,6 +13,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader.CacheHelper;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.util.CollectionUtil;
 import org.apache.lucene.util.RamUsageEstimator;
@@ -75,6 +76,7 @@ import org.elasticsearch.core.IOUtils;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.core.Tuple;
 import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.env.ShardLock;
 import org.elasticsearch.env.ShardLockObtainFailedException;
@@ -137,6 +139,8 @@ import org.elasticsearch.plugins.IndexStorePlugin;
 import org.elasticsearch.plugins.PluginsService;
 import org.elasticsearch.repositories.RepositoriesService;
 import org.elasticsearch.script.ScriptService;
+import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.search.aggregations.SegmentAggregationsCache;
 import org.elasticsearch.search.aggregations.support.ValuesSourceRegistry;
 import org.elasticsearch.search.builder.PointInTimeBuilder;
 import org.elasticsearch.search.internal.AliasFilter;
@@ -175,6 +179,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
 import static java.util.Collections.emptyList;
@@ -1570,25 +1575,68 @@ public class IndicesService extends AbstractLifecycleComponent
 
     }
 
+    /**
+     * Can the aggregations of a cacheable shard request also be cached per segment? This requires that the partial results of
+     * the individual segments reduce to the same result as aggregating the whole shard at once, which is the same requirement
+     * as for collecting the segments of a shard in parallel.
+     */
+    public static boolean canCacheSegmentAggregations(
+        ShardSearchRequest request,
+        SearchContext context,
+        ToLongFunction<String> fieldCardinality
+    ) {
+        assert canCache(request, context);
+        if (context.aggregations() == null || context.aggregations().isInSortOrderExecutionRequired()) {
+            return false;
+        }
+        if (context.indexShard().indexSettings().getValue(IndicesRequestCache.INDEX_CACHE_REQUEST_SEGMENT_AGGREGATIONS_SETTING) == false) {
+            return false;
+        }
+        // terminate_after makes the results of a segment depend on the segments that were collected before it
+        if (context.terminateAfter() != SearchContext.DEFAULT_TERMINATE_AFTER) {
+            return false;
+        }
+        return request.source() != null
+            && request.source().aggregations() != null
+            && request.source().aggregations().supportsParallelCollection(fieldCardinality);
+    }
+
     /**
      * Loads the cache result, computing it if needed by executing the query phase and otherwise deserializing the cached
      * value into the {@link SearchContext#queryResult() context's query result}. The combination of load + compute allows
      * to have a single load operation that will cause other requests with the same key to wait till its loaded an reuse
      * the same cache.
+     * <p>
+     * If {@code cacheSegmentAggregations} is set, the partial aggregation results of every segment are cached as well, so
+     * that recomputing the shard level result after a refresh only needs to aggregate the segments that changed.
      */
-    public void loadIntoContext(ShardSearchRequest request, SearchContext context) throws Exception {
+    public void loadIntoContext(ShardSearchRequest request, SearchContext context, boolean cacheSegmentAggregations) throws Exception {
         assert canCache(request, context);
         final DirectoryReader directoryReader = context.searcher().getDirectoryReader();
 
         boolean[] loadedFromCache = new boolean[] { true };
         BytesReference cacheKey = request.cacheKey(requestCacheKeyDifferentiator);
+        final IndexShardSegmentAggregationsCache segmentAggregationsCache = cacheSegmentAggregations
+            ? new IndexShardSegmentAggregationsCache(
+                new IndexShardCacheEntity(context.indexShard()),
+                context.getSearchExecutionContext().mappingCacheKey(),
+                cacheKey
+            )
+            : null;
         BytesReference bytesReference = cacheShardLevelResult(
             context.indexShard(),
             context.getSearchExecutionContext().mappingCacheKey(),
             directoryReader,
             cacheKey,
             out -> {
+                if (segmentAggregationsCache != null) {
+                    context.aggregations().setSegmentAggregationsCache(segmentAggregationsCache);
+                }
                 QueryPhase.execute(context);
+                if (segmentAggregationsCache != null && context.queryResult().searchTimedOut() == false) {
+                    // segments that were only partially collected because of a timeout must not be cached
+                    segmentAggregationsCache.publish();
+                }
                 context.queryResult().writeToNoId(out);
                 loadedFromCache[0] = false;
             }
@@ -1663,6 +1711,67 @@ public class IndicesService extends AbstractLifecycleComponent
         return indicesRequestCache.getOrCompute(cacheEntity, supplier, mappingCacheKey, reader, cacheKey);
     }
 
+    /**
+     * Caches the partial aggregation results of the segments of a shard in the {@link IndicesRequestCache}, keyed by the
+     * segment reader so that they survive refreshes that don't touch the segment. Results are only published to the cache
+     * once the query phase has completed.
+     */
+    private final class IndexShardSegmentAggregationsCache implements SegmentAggregationsCache {
+        private final IndexShardCacheEntity cacheEntity;
+        private final MappingLookup.CacheKey mappingCacheKey;
+        private final BytesReference cacheKey;
+        private final List<Tuple<CacheHelper, BytesReference>> computed = new ArrayList<>();
+
+        IndexShardSegmentAggregationsCache(
+            IndexShardCacheEntity cacheEntity,
+            MappingLookup.CacheKey mappingCacheKey,
+            BytesReference cacheKey
+        ) {
+            this.cacheEntity = cacheEntity;
+            this.mappingCacheKey = mappingCacheKey;
+            this.cacheKey = cacheKey;
+        }
+
+        @Override
+        public InternalAggregations get(LeafReaderContext ctx) throws IOException {
+            final CacheHelper cacheHelper = ctx.reader().getReaderCacheHelper();
+            if (cacheHelper == null) {
+                return null;
+            }
+            final BytesReference bytes = indicesRequestCache.get(cacheEntity, mappingCacheKey, cacheHelper, cacheKey);
+            if (bytes == null) {
+                return null;
+            }
+            try (StreamInput in = new NamedWriteableAwareStreamInput(bytes.streamInput(), namedWriteableRegistry)) {
+                return InternalAggregations.readFrom(in);
+            }
+        }
+
+        @Override
+        public void put(LeafReaderContext ctx, InternalAggregations aggregations) throws IOException {
+            final CacheHelper cacheHelper = ctx.reader().getReaderCacheHelper();
+            if (cacheHelper == null) {
+                return;
+            }
+            // see cacheShardLevelResult for why we start small
+            try (BytesStreamOutput out = new BytesStreamOutput(512)) {
+                aggregations.writeTo(out);
+                synchronized (computed) {
+                    computed.add(new Tuple<>(cacheHelper, out.bytes()));
+                }
+            }
+        }
+
+        void publish() {
+            synchronized (computed) {
+                for (Tuple<CacheHelper, BytesReference> entry : computed) {
+                    indicesRequestCache.put(cacheEntity, mappingCacheKey, entry.v1(), cacheKey, entry.v2());
+                }
+                computed.clear();
+            }
+        }
+    }
+
     static final class IndexShardCacheEntity extends AbstractIndexShardCacheEntity {
         private static final long BASE_RAM_BYTES_USED = RamUsageEstimator.shallowSizeOfInstance(IndexShardCacheEntity.class);
         private final IndexShard indexShard;
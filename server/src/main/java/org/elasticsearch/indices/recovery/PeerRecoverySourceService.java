@@ -367,6 +367,7 @@ public class PeerRecoverySourceService extends AbstractLifecycleComponent implem
                     transportService,
                     request.targetNode(),
                     recoverySettings,
+                    request.isPrimaryRelocation(),
                     throttleTime -> shard.recoveryStats().addThrottleTime(throttleTime),
                     task
                 );
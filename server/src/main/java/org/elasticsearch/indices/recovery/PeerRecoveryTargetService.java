@@ -670,6 +670,9 @@ public class PeerRecoveryTargetService implements IndexEventListener {
             if (request.sourceThrottleTimeInNanos() != RecoveryState.Index.UNKNOWN) {
                 indexState.addSourceThrottling(request.sourceThrottleTimeInNanos());
             }
+            if (request.sourceBytesPerSec() > 0L) {
+                indexState.setSourceBandwidth(request.sourceBytesPerSec());
+            }
 
             RateLimiter rateLimiter = recoverySettings.rateLimiter();
             if (rateLimiter != null) {
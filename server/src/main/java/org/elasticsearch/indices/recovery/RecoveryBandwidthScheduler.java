@@ -0,0 +1,214 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+
+package org.elasticsearch.indices.recovery;
+
+import org.apache.lucene.store.RateLimiter;
+import org.apache.lucene.store.RateLimiter.SimpleRateLimiter;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.TimeValue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Shares the recovery bandwidth of a node among the recoveries that are currently sending files from it, instead of letting them
+ * compete for a single rate limiter.
+ * <p>
+ * Each recovery gets a share that is proportional to its weight: primary relocations weigh twice as much as replica recoveries, and
+ * the weight decreases logarithmically with the number of bytes that the recovery still has to send so that small shards finish
+ * quickly. Shares are recomputed whenever a recovery starts or stops sending files and as recoveries make progress.
+ * <p>
+ * The total bandwidth that is shared starts at {@code indices.recovery.max_bytes_per_sec} and adapts to the latency of the file
+ * chunks, which are only acknowledged once the target wrote them to disk and therefore reflect both network and disk saturation.
+ * If the slowest chunk of an interval of {@code indices.recovery.adaptive_throttling.target_latency} took longer than that target,
+ * the bandwidth is reduced multiplicatively, down to a tenth of the maximum. Otherwise it grows back additively.
+ */
+public final class RecoveryBandwidthScheduler {
+
+    static final double MIN_BANDWIDTH_FACTOR = 0.1;
+    static final double DECREASE_FACTOR = 0.8;
+    static final double INCREASE_STEP = 0.05;
+
+    private static final double PRIMARY_RELOCATION_WEIGHT = 2.0;
+    private static final long WEIGHT_UNIT_BYTES = 1L << 20;
+
+    private final LongSupplier relativeTimeInNanosSupplier;
+    private final Set<Allocation> allocations = new HashSet<>();
+
+    // all guarded by this
+    private long maxBytesPerSec;
+    private long targetLatencyInNanos;
+    private double bandwidthFactor = 1.0;
+    private long windowStartInNanos;
+    private long maxLatencyInWindowInNanos;
+
+    RecoveryBandwidthScheduler(long maxBytesPerSec, TimeValue targetLatency, LongSupplier relativeTimeInNanosSupplier) {
+        this.maxBytesPerSec = maxBytesPerSec;
+        this.targetLatencyInNanos = targetLatency.nanos();
+        this.relativeTimeInNanosSupplier = relativeTimeInNanosSupplier;
+        this.windowStartInNanos = relativeTimeInNanosSupplier.getAsLong();
+    }
+
+    synchronized void setMaxBytesPerSec(long maxBytesPerSec) {
+        this.maxBytesPerSec = maxBytesPerSec;
+        rebalance();
+    }
+
+    synchronized void setTargetLatency(TimeValue targetLatency) {
+        this.targetLatencyInNanos = targetLatency.nanos();
+    }
+
+    /**
+     * Starts sharing bandwidth with a recovery that is about to send {@code bytesToSend} bytes of files. The returned allocation must
+     * be released once the recovery stopped sending files.
+     */
+    public synchronized Allocation allocate(boolean primaryRelocation, long bytesToSend) {
+        final Allocation allocation = new Allocation(primaryRelocation, bytesToSend);
+        allocations.add(allocation);
+        rebalance();
+        return allocation;
+    }
+
+    /**
+     * The bandwidth that is currently shared among all recoveries, or {@code 0} if recoveries are not throttled.
+     */
+    public synchronized long availableBytesPerSec() {
+        return maxBytesPerSec <= 0 ? 0 : Math.round(maxBytesPerSec * bandwidthFactor);
+    }
+
+    /**
+     * The number of recoveries that are currently sharing bandwidth.
+     */
+    public synchronized int activeAllocations() {
+        return allocations.size();
+    }
+
+    private synchronized void release(Allocation allocation) {
+        if (allocations.remove(allocation)) {
+            rebalance();
+        }
+    }
+
+    private synchronized void onBytesSent(Allocation allocation, long bytes) {
+        allocation.remainingBytes = Math.max(0L, allocation.remainingBytes - bytes);
+        rebalance();
+    }
+
+    private synchronized void onChunkAcknowledged(long latencyInNanos) {
+        maxLatencyInWindowInNanos = Math.max(maxLatencyInWindowInNanos, latencyInNanos);
+        final long now = relativeTimeInNanosSupplier.getAsLong();
+        if (now - windowStartInNanos < targetLatencyInNanos) {
+            return;
+        }
+        if (maxLatencyInWindowInNanos > targetLatencyInNanos) {
+            bandwidthFactor = Math.max(MIN_BANDWIDTH_FACTOR, bandwidthFactor * DECREASE_FACTOR);
+        } else {
+            bandwidthFactor = Math.min(1.0, bandwidthFactor + INCREASE_STEP);
+        }
+        windowStartInNanos = now;
+        maxLatencyInWindowInNanos = 0L;
+        rebalance();
+    }
+
+    private void rebalance() {
+        assert Thread.holdsLock(this);
+        final long availableBytesPerSec = availableBytesPerSec();
+        double totalWeight = 0;
+        for (Allocation allocation : allocations) {
+            totalWeight += allocation.weight();
+        }
+        for (Allocation allocation : allocations) {
+            allocation.setBytesPerSec(availableBytesPerSec == 0 ? 0 : Math.round(availableBytesPerSec * allocation.weight() / totalWeight));
+        }
+    }
+
+    static double weight(boolean primaryRelocation, long remainingBytes) {
+        final double priority = primaryRelocation ? PRIMARY_RELOCATION_WEIGHT : 1.0;
+        return priority / (Math.log((double) remainingBytes / WEIGHT_UNIT_BYTES + 2.0) / Math.log(2.0));
+    }
+
+    /**
+     * The share of the bandwidth of a single recovery.
+     */
+    public final class Allocation implements Releasable {
+
+        private final boolean primaryRelocation;
+
+        // all guarded by the scheduler
+        private long remainingBytes;
+        private long bytesPerSec;
+        @Nullable
+        private SimpleRateLimiter rateLimiter;
+
+        private Allocation(boolean primaryRelocation, long bytesToSend) {
+            this.primaryRelocation = primaryRelocation;
+            this.remainingBytes = bytesToSend;
+        }
+
+        private double weight() {
+            return RecoveryBandwidthScheduler.weight(primaryRelocation, remainingBytes);
+        }
+
+        private void setBytesPerSec(long bytesPerSec) {
+            this.bytesPerSec = bytesPerSec;
+            if (bytesPerSec <= 0) {
+                rateLimiter = null;
+            } else {
+                final double mbPerSec = (double) bytesPerSec / 1024 / 1024;
+                if (rateLimiter == null) {
+                    rateLimiter = new SimpleRateLimiter(mbPerSec);
+                } else {
+                    rateLimiter.setMBPerSec(mbPerSec);
+                }
+            }
+        }
+
+        /**
+         * The rate limiter to pause this recovery with, or {@code null} if recoveries are not throttled.
+         */
+        @Nullable
+        public RateLimiter rateLimiter() {
+            synchronized (RecoveryBandwidthScheduler.this) {
+                return rateLimiter;
+            }
+        }
+
+        /**
+         * The bandwidth that is currently allocated to this recovery, or {@code 0} if recoveries are not throttled.
+         */
+        public long bytesPerSec() {
+            synchronized (RecoveryBandwidthScheduler.this) {
+                return bytesPerSec;
+            }
+        }
+
+        /**
+         * Records that a file chunk of {@code bytes} bytes is about to be sent.
+         */
+        public void onBytesSent(long bytes) {
+            RecoveryBandwidthScheduler.this.onBytesSent(this, bytes);
+        }
+
+        /**
+         * Records how long it took for a file chunk to be written on the target and acknowledged.
+         */
+        public void onChunkAcknowledged(long latencyInNanos) {
+            RecoveryBandwidthScheduler.this.onChunkAcknowledged(latencyInNanos);
+        }
+
+        @Override
+        public void close() {
+            release(this);
+        }
+    }
+}
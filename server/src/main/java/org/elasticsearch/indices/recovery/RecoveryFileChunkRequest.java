@@ -9,21 +9,26 @@
 
 package org.elasticsearch.indices.recovery;
 
+import org.elasticsearch.TransportVersions;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.core.RefCounted;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.transport.TrailingBytesMessage;
 
 import java.io.IOException;
 
-public final class RecoveryFileChunkRequest extends RecoveryTransportRequest implements RefCounted {
+public final class RecoveryFileChunkRequest extends RecoveryTransportRequest implements RefCounted, TrailingBytesMessage {
     private final boolean lastChunk;
     private final long position;
     private final ReleasableBytesReference content;
     private final StoreFileMetadata metadata;
     private final long sourceThrottleTimeInNanos;
+    private final long sourceBytesPerSec;
 
     private final int totalTranslogOps;
 
@@ -33,12 +38,27 @@ public final class RecoveryFileChunkRequest extends RecoveryTransportRequest imp
         position = in.readVLong();
         final long length = in.readVLong();
         final String checksum = in.readString();
-        content = in.readReleasableBytesReference();
-        final String writtenBy = in.readString();
+        final String writtenBy;
+        if (in.getTransportVersion().onOrAfter(TransportVersions.RECOVERY_FILE_CHUNK_TRAILING_CONTENT)) {
+            writtenBy = in.readString();
+            lastChunk = in.readBoolean();
+            totalTranslogOps = in.readVInt();
+            sourceThrottleTimeInNanos = in.readLong();
+            if (in.getTransportVersion().onOrAfter(TransportVersions.RECOVERY_ADAPTIVE_THROTTLING)) {
+                sourceBytesPerSec = in.readZLong();
+            } else {
+                sourceBytesPerSec = 0L;
+            }
+            content = in.readReleasableBytesReference();
+        } else {
+            content = in.readReleasableBytesReference();
+            writtenBy = in.readString();
+            lastChunk = in.readBoolean();
+            totalTranslogOps = in.readVInt();
+            sourceThrottleTimeInNanos = in.readLong();
+            sourceBytesPerSec = 0L;
+        }
         metadata = new StoreFileMetadata(name, length, checksum, writtenBy);
-        lastChunk = in.readBoolean();
-        totalTranslogOps = in.readVInt();
-        sourceThrottleTimeInNanos = in.readLong();
     }
 
     public RecoveryFileChunkRequest(
@@ -51,6 +71,32 @@ public final class RecoveryFileChunkRequest extends RecoveryTransportRequest imp
         boolean lastChunk,
         int totalTranslogOps,
         long sourceThrottleTimeInNanos
+    ) {
+        this(
+            recoveryId,
+            requestSeqNo,
+            shardId,
+            metadata,
+            position,
+            content,
+            lastChunk,
+            totalTranslogOps,
+            sourceThrottleTimeInNanos,
+            0L
+        );
+    }
+
+    public RecoveryFileChunkRequest(
+        long recoveryId,
+        final long requestSeqNo,
+        ShardId shardId,
+        StoreFileMetadata metadata,
+        long position,
+        ReleasableBytesReference content,
+        boolean lastChunk,
+        int totalTranslogOps,
+        long sourceThrottleTimeInNanos,
+        long sourceBytesPerSec
     ) {
         super(requestSeqNo, recoveryId, shardId);
         this.metadata = metadata;
@@ -59,6 +105,7 @@ public final class RecoveryFileChunkRequest extends RecoveryTransportRequest imp
         this.lastChunk = lastChunk;
         this.totalTranslogOps = totalTranslogOps;
         this.sourceThrottleTimeInNanos = sourceThrottleTimeInNanos;
+        this.sourceBytesPerSec = sourceBytesPerSec;
     }
 
     public String name() {
@@ -85,18 +132,45 @@ public final class RecoveryFileChunkRequest extends RecoveryTransportRequest imp
         return sourceThrottleTimeInNanos;
     }
 
+    /**
+     * The bandwidth that the source allocated to this recovery when it sent this chunk, or {@code 0} if the source does not use
+     * adaptive throttling.
+     */
+    public long sourceBytesPerSec() {
+        return sourceBytesPerSec;
+    }
+
     @Override
     public void writeTo(StreamOutput out) throws IOException {
+        writeWithoutTrailingBytes(out).writeTo(out);
+    }
+
+    @Override
+    public BytesReference writeWithoutTrailingBytes(StreamOutput out) throws IOException {
         super.writeTo(out);
         out.writeString(metadata.name());
         out.writeVLong(position);
         out.writeVLong(metadata.length());
         out.writeString(metadata.checksum());
-        out.writeBytesReference(content);
-        out.writeString(metadata.writtenBy());
-        out.writeBoolean(lastChunk);
-        out.writeVInt(totalTranslogOps);
-        out.writeLong(sourceThrottleTimeInNanos);
+        if (out.getTransportVersion().onOrAfter(TransportVersions.RECOVERY_FILE_CHUNK_TRAILING_CONTENT)) {
+            out.writeString(metadata.writtenBy());
+            out.writeBoolean(lastChunk);
+            out.writeVInt(totalTranslogOps);
+            out.writeLong(sourceThrottleTimeInNanos);
+            if (out.getTransportVersion().onOrAfter(TransportVersions.RECOVERY_ADAPTIVE_THROTTLING)) {
+                out.writeZLong(sourceBytesPerSec);
+            }
+            // the content goes last so that the transport can send it as is rather than copying it into its own buffers
+            out.writeVInt(content.length());
+            return content;
+        } else {
+            out.writeBytesReference(content);
+            out.writeString(metadata.writtenBy());
+            out.writeBoolean(lastChunk);
+            out.writeVInt(totalTranslogOps);
+            out.writeLong(sourceThrottleTimeInNanos);
+            return BytesArray.EMPTY;
+        }
     }
 
     @Override
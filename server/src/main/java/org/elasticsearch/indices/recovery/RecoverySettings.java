@@ -382,6 +382,27 @@ public class RecoverySettings {
         Setting.Property.NodeScope
     );
 
+    /**
+     * Whether the bandwidth of the node is shared among the recoveries it sends files for by a {@link RecoveryBandwidthScheduler}
+     * rather than by a single rate limiter.
+     */
+    public static final Setting<Boolean> INDICES_RECOVERY_ADAPTIVE_THROTTLING_ENABLED_SETTING = Setting.boolSetting(
+        "indices.recovery.adaptive_throttling.enabled",
+        false,
+        Property.Dynamic,
+        Property.NodeScope
+    );
+
+    /**
+     * The time it may take for a file chunk to be acknowledged by the target before adaptive throttling reduces the bandwidth.
+     */
+    public static final Setting<TimeValue> INDICES_RECOVERY_ADAPTIVE_THROTTLING_TARGET_LATENCY_SETTING = Setting.positiveTimeSetting(
+        "indices.recovery.adaptive_throttling.target_latency",
+        TimeValue.timeValueMillis(200),
+        Property.Dynamic,
+        Property.NodeScope
+    );
+
     /**
      * Indicates whether the `recovery_source` should be enabled (see {@link SourceFieldMapper}).
      * This setting is not registered and should be used exclusively in a serverless environment.
@@ -409,8 +430,10 @@ public class RecoverySettings {
     private volatile int maxConcurrentSnapshotFileDownloads;
     private volatile int maxConcurrentSnapshotFileDownloadsPerNode;
     private volatile int maxConcurrentIncomingRecoveries;
+    private volatile boolean adaptiveThrottlingEnabled;
 
     private final AdjustableSemaphore maxSnapshotFileDownloadsPerNodeSemaphore;
+    private final RecoveryBandwidthScheduler bandwidthScheduler;
 
     private volatile ByteSizeValue chunkSize = DEFAULT_CHUNK_SIZE;
 
@@ -441,6 +464,12 @@ public class RecoverySettings {
         this.availableDiskWriteBandwidth = NODE_BANDWIDTH_RECOVERY_DISK_WRITE_SETTING.get(settings);
         validateNodeBandwidthRecoverySettings(settings);
         this.nodeBandwidthSettingsExist = hasNodeBandwidthRecoverySettings(settings);
+        this.adaptiveThrottlingEnabled = INDICES_RECOVERY_ADAPTIVE_THROTTLING_ENABLED_SETTING.get(settings);
+        this.bandwidthScheduler = new RecoveryBandwidthScheduler(
+            0L,
+            INDICES_RECOVERY_ADAPTIVE_THROTTLING_TARGET_LATENCY_SETTING.get(settings),
+            System::nanoTime
+        );
         computeMaxBytesPerSec(settings);
         if (DiscoveryNode.canContainData(settings)) {
             clusterSettings.addSettingsUpdateConsumer(
@@ -488,6 +517,11 @@ public class RecoverySettings {
             CLUSTER_ROUTING_ALLOCATION_NODE_CONCURRENT_INCOMING_RECOVERIES_SETTING,
             this::setMaxConcurrentIncomingRecoveries
         );
+        clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_ADAPTIVE_THROTTLING_ENABLED_SETTING, this::setAdaptiveThrottlingEnabled);
+        clusterSettings.addSettingsUpdateConsumer(
+            INDICES_RECOVERY_ADAPTIVE_THROTTLING_TARGET_LATENCY_SETTING,
+            bandwidthScheduler::setTargetLatency
+        );
     }
 
     private void computeMaxBytesPerSec(Settings settings) {
@@ -632,6 +666,7 @@ public class RecoverySettings {
         } else {
             rateLimiter = new SimpleRateLimiter(maxBytesPerSec.getMbFrac());
         }
+        bandwidthScheduler.setMaxBytesPerSec(Math.max(maxBytesPerSec.getBytes(), 0L));
     }
 
     public ByteSizeValue getMaxBytesPerSec() {
@@ -654,6 +689,21 @@ public class RecoverySettings {
         this.maxConcurrentOperations = maxConcurrentOperations;
     }
 
+    public boolean isAdaptiveThrottlingEnabled() {
+        return adaptiveThrottlingEnabled;
+    }
+
+    private void setAdaptiveThrottlingEnabled(boolean adaptiveThrottlingEnabled) {
+        this.adaptiveThrottlingEnabled = adaptiveThrottlingEnabled;
+    }
+
+    /**
+     * The scheduler that shares the bandwidth of this node among recoveries if {@link #isAdaptiveThrottlingEnabled()}.
+     */
+    public RecoveryBandwidthScheduler bandwidthScheduler() {
+        return bandwidthScheduler;
+    }
+
     public boolean nodeBandwidthSettingsExist() {
         return nodeBandwidthSettingsExist;
     }
@@ -9,6 +9,7 @@
 
 package org.elasticsearch.indices.recovery;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.routing.RecoverySource;
 import org.elasticsearch.cluster.routing.ShardRouting;
@@ -375,6 +376,8 @@ public class RecoveryState implements ToXContentFragment, Writeable {
         static final String SOURCE_THROTTLE_TIME_IN_MILLIS = "source_throttle_time_in_millis";
         static final String TARGET_THROTTLE_TIME = "target_throttle_time";
         static final String TARGET_THROTTLE_TIME_IN_MILLIS = "target_throttle_time_in_millis";
+        static final String SOURCE_BANDWIDTH_PER_SEC = "source_bandwidth_per_sec";
+        static final String SOURCE_BANDWIDTH_PER_SEC_IN_BYTES = "source_bandwidth_per_sec_in_bytes";
     }
 
     public static class Timer implements Writeable {
@@ -866,6 +869,7 @@ public class RecoveryState implements ToXContentFragment, Writeable {
 
         private long sourceThrottlingInNanos = UNKNOWN;
         private long targetThrottleTimeInNanos = UNKNOWN;
+        private long sourceBandwidthInBytesPerSec = UNKNOWN;
 
         public Index() {
             this(new RecoveryFilesDetails());
@@ -880,6 +884,9 @@ public class RecoveryState implements ToXContentFragment, Writeable {
             fileDetails = new RecoveryFilesDetails(in);
             sourceThrottlingInNanos = in.readLong();
             targetThrottleTimeInNanos = in.readLong();
+            if (in.getTransportVersion().onOrAfter(TransportVersions.RECOVERY_ADAPTIVE_THROTTLING)) {
+                sourceBandwidthInBytesPerSec = in.readZLong();
+            }
         }
 
         @Override
@@ -888,6 +895,9 @@ public class RecoveryState implements ToXContentFragment, Writeable {
             fileDetails.writeTo(out);
             out.writeLong(sourceThrottlingInNanos);
             out.writeLong(targetThrottleTimeInNanos);
+            if (out.getTransportVersion().onOrAfter(TransportVersions.RECOVERY_ADAPTIVE_THROTTLING)) {
+                out.writeZLong(sourceBandwidthInBytesPerSec);
+            }
         }
 
         public synchronized List<FileDetail> fileDetails() {
@@ -899,6 +909,7 @@ public class RecoveryState implements ToXContentFragment, Writeable {
             fileDetails.clear();
             sourceThrottlingInNanos = UNKNOWN;
             targetThrottleTimeInNanos = UNKNOWN;
+            sourceBandwidthInBytesPerSec = UNKNOWN;
         }
 
         public synchronized void addFileDetail(String name, long length, boolean reused) {
@@ -937,6 +948,21 @@ public class RecoveryState implements ToXContentFragment, Writeable {
             }
         }
 
+        /**
+         * Records the bandwidth that the source most recently allocated to this recovery with adaptive throttling.
+         */
+        public synchronized void setSourceBandwidth(long bytesPerSec) {
+            sourceBandwidthInBytesPerSec = bytesPerSec;
+        }
+
+        /**
+         * The bandwidth that the source most recently allocated to this recovery, or {@link #UNKNOWN} if the source does not use
+         * adaptive throttling.
+         */
+        public synchronized long sourceBandwidthInBytesPerSec() {
+            return sourceBandwidthInBytesPerSec;
+        }
+
         public synchronized TimeValue sourceThrottling() {
             return TimeValue.timeValueNanos(sourceThrottlingInNanos);
         }
@@ -1130,6 +1156,13 @@ public class RecoveryState implements ToXContentFragment, Writeable {
             builder.humanReadableField(Fields.TOTAL_TIME_IN_MILLIS, Fields.TOTAL_TIME, new TimeValue(time()));
             builder.humanReadableField(Fields.SOURCE_THROTTLE_TIME_IN_MILLIS, Fields.SOURCE_THROTTLE_TIME, sourceThrottling());
             builder.humanReadableField(Fields.TARGET_THROTTLE_TIME_IN_MILLIS, Fields.TARGET_THROTTLE_TIME, targetThrottling());
+            if (sourceBandwidthInBytesPerSec != UNKNOWN) {
+                builder.humanReadableField(
+                    Fields.SOURCE_BANDWIDTH_PER_SEC_IN_BYTES,
+                    Fields.SOURCE_BANDWIDTH_PER_SEC,
+                    ByteSizeValue.ofBytes(sourceBandwidthInBytesPerSec)
+                );
+            }
             return builder;
         }
 
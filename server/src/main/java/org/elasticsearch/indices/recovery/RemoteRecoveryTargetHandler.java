@@ -27,6 +27,8 @@ import org.elasticsearch.common.util.CancellableThreads;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.Releasables;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.seqno.ReplicationTracker;
 import org.elasticsearch.index.seqno.RetentionLeases;
@@ -61,6 +63,7 @@ public class RemoteRecoveryTargetHandler implements RecoveryTargetHandler {
     private final ShardId shardId;
     private final DiscoveryNode targetNode;
     private final RecoverySettings recoverySettings;
+    private final boolean primaryRelocation;
     private final Map<Object, RetryableAction<?>> onGoingRetryableActions = ConcurrentCollections.newConcurrentMap();
 
     private final TransportRequestOptions translogOpsRequestOptions;
@@ -74,12 +77,17 @@ public class RemoteRecoveryTargetHandler implements RecoveryTargetHandler {
     private final Task task;
     private volatile boolean isCancelled = false;
 
+    // the share of the node's recovery bandwidth while sending files, if adaptive throttling is enabled
+    @Nullable
+    private volatile RecoveryBandwidthScheduler.Allocation bandwidthAllocation;
+
     public RemoteRecoveryTargetHandler(
         long recoveryId,
         ShardId shardId,
         TransportService transportService,
         DiscoveryNode targetNode,
         RecoverySettings recoverySettings,
+        boolean primaryRelocation,
         Consumer<Long> onSourceThrottle,
         Task task
     ) {
@@ -89,6 +97,7 @@ public class RemoteRecoveryTargetHandler implements RecoveryTargetHandler {
         this.shardId = shardId;
         this.targetNode = targetNode;
         this.recoverySettings = recoverySettings;
+        this.primaryRelocation = primaryRelocation;
         this.onSourceThrottle = onSourceThrottle;
         this.translogOpsRequestOptions = TransportRequestOptions.of(
             recoverySettings.internalActionLongTimeout(),
@@ -188,6 +197,13 @@ public class RemoteRecoveryTargetHandler implements RecoveryTargetHandler {
         int totalTranslogOps,
         ActionListener<Void> listener
     ) {
+        if (recoverySettings.isAdaptiveThrottlingEnabled() && phase1FileNames.isEmpty() == false) {
+            long bytesToSend = 0L;
+            for (long fileSize : phase1FileSizes) {
+                bytesToSend += fileSize;
+            }
+            allocateBandwidth(bytesToSend);
+        }
         final String action = PeerRecoveryTargetService.Actions.FILES_INFO;
         final long requestSeqNo = requestSeqNoGenerator.getAndIncrement();
         RecoveryFilesInfoRequest request = new RecoveryFilesInfoRequest(
@@ -211,6 +227,8 @@ public class RemoteRecoveryTargetHandler implements RecoveryTargetHandler {
         Store.MetadataSnapshot sourceMetadata,
         ActionListener<Void> listener
     ) {
+        // all files have been sent by now
+        releaseBandwidth();
         final String action = PeerRecoveryTargetService.Actions.CLEAN_FILES;
         final long requestSeqNo = requestSeqNoGenerator.getAndIncrement();
         final RecoveryCleanFilesRequest request = new RecoveryCleanFilesRequest(
@@ -259,8 +277,12 @@ public class RemoteRecoveryTargetHandler implements RecoveryTargetHandler {
     ) {
         // Pause using the rate limiter, if desired, to throttle the recovery
         final long throttleTimeInNanos;
-        // always fetch the ratelimiter - it might be updated in real-time on the recovery settings
-        final RateLimiter rl = recoverySettings.rateLimiter();
+        final RecoveryBandwidthScheduler.Allocation allocation = bandwidthAllocation;
+        if (allocation != null) {
+            allocation.onBytesSent(content.length());
+        }
+        // always fetch the ratelimiter - it might be updated in real-time on the recovery settings or by the bandwidth scheduler
+        final RateLimiter rl = allocation != null ? allocation.rateLimiter() : recoverySettings.rateLimiter();
         if (rl != null) {
             long bytes = bytesSinceLastPause.addAndGet(content.length());
             if (bytes > rl.getMinPauseCheckBytes()) {
@@ -279,6 +301,8 @@ public class RemoteRecoveryTargetHandler implements RecoveryTargetHandler {
             throttleTimeInNanos = 0;
         }
 
+        final long allocatedBytesPerSec = allocation != null ? allocation.bytesPerSec() : 0L;
+
         final String action = PeerRecoveryTargetService.Actions.FILE_CHUNK;
         final long requestSeqNo = requestSeqNoGenerator.getAndIncrement();
         /* we send estimateTotalOperations with every request since we collect stats on the target and that way we can
@@ -294,16 +318,23 @@ public class RemoteRecoveryTargetHandler implements RecoveryTargetHandler {
             content,
             lastChunk,
             totalTranslogOps,
-            throttleTimeInNanos
+            throttleTimeInNanos,
+            allocatedBytesPerSec
         );
 
         // Fork the actual sending onto a separate thread so we can send them concurrently even if CPU-bound (e.g. using compression).
         // The AsyncIOProcessor and MultiFileWriter both concentrate their work onto fewer threads if possible, but once we have
         // chunks to send we want to increase parallelism again.
+        final long startTimeInNanos = System.nanoTime();
         threadPool.generic()
             .execute(
                 ActionRunnable.wrap(
-                    ActionListener.<TransportResponse.Empty>runBefore(listener.map(r -> null), request::decRef),
+                    ActionListener.<TransportResponse.Empty>runBefore(listener.map(r -> {
+                        if (allocation != null) {
+                            allocation.onChunkAcknowledged(System.nanoTime() - startTimeInNanos);
+                        }
+                        return null;
+                    }), request::decRef),
                     l -> executeRetryableAction(action, request, fileChunkRequestOptions, l, in -> TransportResponse.Empty.INSTANCE)
                 )
             );
@@ -312,6 +343,7 @@ public class RemoteRecoveryTargetHandler implements RecoveryTargetHandler {
     @Override
     public void cancel() {
         isCancelled = true;
+        releaseBandwidth();
         if (onGoingRetryableActions.isEmpty()) {
             return;
         }
@@ -325,6 +357,18 @@ public class RemoteRecoveryTargetHandler implements RecoveryTargetHandler {
         });
     }
 
+    private synchronized void allocateBandwidth(long bytesToSend) {
+        if (isCancelled == false) {
+            Releasables.close(bandwidthAllocation);
+            bandwidthAllocation = recoverySettings.bandwidthScheduler().allocate(primaryRelocation, bytesToSend);
+        }
+    }
+
+    private synchronized void releaseBandwidth() {
+        Releasables.close(bandwidthAllocation);
+        bandwidthAllocation = null;
+    }
+
     private <T extends TransportResponse> void executeRetryableAction(
         String action,
         RecoveryTransportRequest request,
@@ -0,0 +1,204 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.lucene.queries;
+
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.search.ConstantScoreScorer;
+import org.apache.lucene.search.ConstantScoreWeight;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.FieldExistsQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.TwoPhaseIterator;
+import org.apache.lucene.search.Weight;
+import org.elasticsearch.index.codec.tsdb.DocValuesSkipper;
+import org.elasticsearch.index.codec.tsdb.SkipIndexedDocValues;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A range query on the doc values of a numeric field that uses the {@link DocValuesSkipper skip index} of the doc values, if they
+ * have one, to skip over intervals of documents whose values are all outside the range and to accept intervals whose values are
+ * all inside the range without reading them. This is most effective if the index is sorted on the field or on a field that is
+ * correlated with it, like {@code @timestamp}, and makes it possible to filter on numeric fields that aren't indexed. Segments
+ * without a skip index check the value of every document, like {@link SortedNumericDocValuesField#newSlowRangeQuery} does.
+ */
+public final class DocValuesSkipIndexRangeQuery extends Query {
+
+    private final String field;
+    private final long lowerValue;
+    private final long upperValue;
+
+    /**
+     * @param lowerValue the inclusive lower bound
+     * @param upperValue the inclusive upper bound
+     */
+    public DocValuesSkipIndexRangeQuery(String field, long lowerValue, long upperValue) {
+        this.field = Objects.requireNonNull(field);
+        this.lowerValue = lowerValue;
+        this.upperValue = upperValue;
+    }
+
+    @Override
+    public Query rewrite(IndexSearcher indexSearcher) throws IOException {
+        if (lowerValue == Long.MIN_VALUE && upperValue == Long.MAX_VALUE) {
+            return new FieldExistsQuery(field);
+        }
+        if (lowerValue > upperValue) {
+            return new MatchNoDocsQuery();
+        }
+        return super.rewrite(indexSearcher);
+    }
+
+    @Override
+    public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+        return new ConstantScoreWeight(this, boost) {
+
+            @Override
+            public Scorer scorer(LeafReaderContext context) throws IOException {
+                final SortedNumericDocValues values = context.reader().getSortedNumericDocValues(field);
+                if (values == null) {
+                    return null;
+                }
+                final NumericDocValues singleton = DocValues.unwrapSingleton(values);
+                final DocValuesSkipper skipper;
+                if (singleton instanceof SkipIndexedDocValues skipIndexed) {
+                    skipper = skipIndexed.skipper();
+                } else if (values instanceof SkipIndexedDocValues skipIndexed) {
+                    skipper = skipIndexed.skipper();
+                } else {
+                    skipper = null;
+                }
+                final DocIdSetIterator iterator = singleton != null ? singleton : values;
+                final SkippingIterator approximation = skipper == null ? null : new SkippingIterator(iterator, skipper);
+                final TwoPhaseIterator twoPhase = new TwoPhaseIterator(approximation == null ? iterator : approximation) {
+                    @Override
+                    public boolean matches() throws IOException {
+                        if (approximation != null && approximation.allMatch) {
+                            return true;
+                        }
+                        if (singleton != null) {
+                            final long value = singleton.longValue();
+                            return value >= lowerValue && value <= upperValue;
+                        }
+                        for (int i = 0, count = values.docValueCount(); i < count; ++i) {
+                            final long value = values.nextValue();
+                            if (value < lowerValue) {
+                                continue;
+                            }
+                            // values are sorted, so the next value is the smallest one that may be in the range
+                            return value <= upperValue;
+                        }
+                        return false;
+                    }
+
+                    @Override
+                    public float matchCost() {
+                        return 2; // 2 comparisons
+                    }
+                };
+                return new ConstantScoreScorer(this, score(), scoreMode, twoPhase);
+            }
+
+            @Override
+            public boolean isCacheable(LeafReaderContext ctx) {
+                return DocValues.isCacheable(ctx, field);
+            }
+        };
+    }
+
+    /**
+     * Iterates over the documents with a value, skipping the intervals of the skip index that can't match.
+     */
+    private final class SkippingIterator extends DocIdSetIterator {
+        private final DocIdSetIterator values;
+        private final DocValuesSkipper skipper;
+        // the last document of the current interval of the skip index
+        private int upTo = -1;
+        // whether all values of the current interval are within the range
+        private boolean allMatch;
+
+        SkippingIterator(DocIdSetIterator values, DocValuesSkipper skipper) {
+            this.values = values;
+            this.skipper = skipper;
+        }
+
+        @Override
+        public int docID() {
+            return values.docID();
+        }
+
+        @Override
+        public int nextDoc() throws IOException {
+            return advance(values.docID() + 1);
+        }
+
+        @Override
+        public int advance(int target) throws IOException {
+            while (target > upTo) {
+                skipper.advance(target);
+                upTo = skipper.maxDocID();
+                if (upTo == NO_MORE_DOCS) {
+                    return values.advance(NO_MORE_DOCS);
+                }
+                if (skipper.minValue() > upperValue || skipper.maxValue() < lowerValue) {
+                    // no document of the interval matches
+                    target = upTo + 1;
+                } else {
+                    allMatch = skipper.minValue() >= lowerValue && skipper.maxValue() <= upperValue;
+                }
+            }
+            return values.advance(target);
+        }
+
+        @Override
+        public long cost() {
+            return values.cost();
+        }
+    }
+
+    @Override
+    public void visit(QueryVisitor visitor) {
+        if (visitor.acceptField(field)) {
+            visitor.visitLeaf(this);
+        }
+    }
+
+    @Override
+    public String toString(String field) {
+        StringBuilder b = new StringBuilder();
+        if (this.field.equals(field) == false) {
+            b.append(this.field).append(":");
+        }
+        return b.append("[").append(lowerValue).append(" TO ").append(upperValue).append("]").toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (sameClassAs(o) == false) return false;
+        DocValuesSkipIndexRangeQuery that = (DocValuesSkipIndexRangeQuery) o;
+        return field.equals(that.field) && lowerValue == that.lowerValue && upperValue == that.upperValue;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(classHash(), field, lowerValue, upperValue);
+    }
+}
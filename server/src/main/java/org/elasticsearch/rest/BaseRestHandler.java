@@ -11,14 +11,17 @@ package org.elasticsearch.rest;
 
 import org.apache.lucene.search.spell.LevenshteinDistance;
 import org.elasticsearch.client.internal.node.NodeClient;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.common.util.set.Sets;
 import org.elasticsearch.core.CheckedConsumer;
 import org.elasticsearch.core.RefCounted;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.RestApiVersion;
 import org.elasticsearch.core.Tuple;
+import org.elasticsearch.http.HttpBody;
 import org.elasticsearch.plugins.ActionPlugin;
 import org.elasticsearch.rest.action.admin.cluster.RestNodesUsageAction;
 
@@ -32,6 +35,7 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -123,12 +127,56 @@ public abstract class BaseRestHandler implements RestHandler {
                 );
             }
 
+            if (request.isStreamedContent()) {
+                if (action instanceof RequestBodyChunkConsumer == false) {
+                    throw new IllegalStateException("request [" + request.method() + " " + request.path() + "] can't stream its body");
+                }
+                request.contentStream().setHandler(new ChunkHandler((RequestBodyChunkConsumer) action, channel, client));
+            }
+
             usageCount.increment();
             // execute the action
             action.accept(channel);
         }
     }
 
+    /**
+     * Passes the chunks of a streamed request body to a {@link RequestBodyChunkConsumer} in the thread context of the request, because
+     * chunks arrive on the network threads.
+     */
+    private static class ChunkHandler implements HttpBody.ChunkHandler {
+        private final RequestBodyChunkConsumer consumer;
+        private final RestChannel channel;
+        private final Supplier<ThreadContext.StoredContext> requestContext;
+
+        ChunkHandler(RequestBodyChunkConsumer consumer, RestChannel channel, NodeClient client) {
+            this.consumer = consumer;
+            this.channel = channel;
+            this.requestContext = client.threadPool().getThreadContext().newRestorableContext(false);
+        }
+
+        @Override
+        public void onNext(ReleasableBytesReference chunk, boolean isLast) {
+            try (ThreadContext.StoredContext ignore = requestContext.get()) {
+                consumer.handleChunk(channel, chunk, isLast);
+            }
+        }
+
+        @Override
+        public void onFailure(Exception e) {
+            try (ThreadContext.StoredContext ignore = requestContext.get()) {
+                consumer.handleFailure(channel, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try (ThreadContext.StoredContext ignore = requestContext.get()) {
+                consumer.streamClose();
+            }
+        }
+    }
+
     protected static String unrecognized(RestRequest request, Set<String> invalids, Set<String> candidates, String detail) {
         StringBuilder message = new StringBuilder().append("request [")
             .append(request.path())
@@ -180,6 +228,31 @@ public abstract class BaseRestHandler implements RestHandler {
         default void close() {}
     }
 
+    /**
+     * The action of a handler that {@link #supportsContentStream() supports streamed request bodies}. The action is
+     * {@link #accept accepted} before the first chunk is available and is responsible for asking for each chunk with
+     * {@link HttpBody.Stream#next()} once it is ready for it.
+     */
+    protected interface RequestBodyChunkConsumer extends RestChannelConsumer {
+
+        /**
+         * Handles the next chunk of the request body, which the consumer owns and must release.
+         */
+        void handleChunk(RestChannel channel, ReleasableBytesReference chunk, boolean isLast);
+
+        /**
+         * Called instead of {@link #handleChunk} when the requested chunk couldn't be received, see
+         * {@link HttpBody.ChunkHandler#onFailure}. The consumer must respond with the failure.
+         */
+        void handleFailure(RestChannel channel, Exception e);
+
+        /**
+         * Called when the stream is closed, either after the response was sent or because the client went away before sending the whole
+         * body. Must release any chunks the consumer still holds on to.
+         */
+        default void streamClose() {}
+    }
+
     /**
      * Prepare the request for execution. Implementations should consume all request params before
      * returning the runnable for actual execution. Unconsumed params will immediately terminate
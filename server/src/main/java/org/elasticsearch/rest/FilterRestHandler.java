@@ -53,6 +53,11 @@ public abstract class FilterRestHandler implements RestHandler {
         return delegate.supportsBulkContent();
     }
 
+    @Override
+    public boolean supportsContentStream() {
+        return delegate.supportsContentStream();
+    }
+
     @Override
     public boolean mediaTypesValid(RestRequest request) {
         return delegate.mediaTypesValid(request);
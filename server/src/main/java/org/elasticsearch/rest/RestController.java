@@ -19,6 +19,7 @@ import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.client.internal.node.NodeClient;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
@@ -34,7 +35,9 @@ import org.elasticsearch.core.Releasables;
 import org.elasticsearch.core.RestApiVersion;
 import org.elasticsearch.core.Streams;
 import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.http.HttpBody;
 import org.elasticsearch.http.HttpHeadersValidationException;
+import org.elasticsearch.http.HttpPreRequest;
 import org.elasticsearch.http.HttpRouteStats;
 import org.elasticsearch.http.HttpServerTransport;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
@@ -404,6 +407,25 @@ public class RestController implements HttpServerTransport.Dispatcher {
         return false;
     }
 
+    @Override
+    public boolean supportsContentStream(HttpPreRequest request) {
+        final RestRequest.Method method;
+        try {
+            method = request.method();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        Iterator<MethodHandlers> allHandlers = getAllHandlers(null, request.rawPath());
+        while (allHandlers.hasNext()) {
+            MethodHandlers handlers = allHandlers.next();
+            RestHandler handler = handlers == null ? null : handlers.getHandler(method, RestApiVersion.current());
+            if (handler != null) {
+                return handler.supportsContentStream();
+            }
+        }
+        return false;
+    }
+
     @Override
     public Map<String, HttpRouteStats> getStats() {
         final Iterator<MethodHandlers> methodHandlersIterator = handlers.allNodeValues();
@@ -426,7 +448,14 @@ public class RestController implements HttpServerTransport.Dispatcher {
         ThreadContext threadContext
     ) throws Exception {
         final int contentLength = request.contentLength();
-        if (contentLength > 0) {
+        if (request.isStreamedContent() && handler.supportsContentStream() == false) {
+            // the transport only streams content to handlers that support it, but the route may have been resolved differently
+            channel.sendResponse(
+                RestResponse.createSimpleErrorResponse(channel, BAD_REQUEST, "request body streaming is not supported by this handler")
+            );
+            return;
+        }
+        if (contentLength > 0 || request.isStreamedContent()) {
             if (isContentTypeDisallowed(request) || handler.mediaTypesValid(request) == false) {
                 sendContentTypeErrorMessage(request.getAllHeaderValues("Content-Type"), channel);
                 return;
@@ -462,6 +491,11 @@ public class RestController implements HttpServerTransport.Dispatcher {
             }
             // iff we could reserve bytes for the request we need to send the response also over this channel
             responseChannel = new ResourceHandlingHttpChannel(channel, circuitBreakerService, contentLength, methodHandlers);
+            if (request.isStreamedContent()) {
+                // the content length of a streamed request is zero, so its chunks are charged as they arrive instead
+                final boolean canTrip = handler.canTripCircuitBreaker();
+                request.wrapContentStream(stream -> new InFlightRequestsBreakingStream(stream, circuitBreakerService, canTrip));
+            }
             // TODO: Count requests double in the circuit breaker if they need copying?
             if (handler.allowsUnsafeBuffers() == false) {
                 request.ensureSafeBuffers();
@@ -972,6 +1006,71 @@ public class RestController implements HttpServerTransport.Dispatcher {
         }
     }
 
+    /**
+     * Charges the chunks of a streamed request body to the in-flight requests breaker until the handler releases them. A chunk that
+     * would trip the breaker is dropped and the handler is {@link HttpBody.ChunkHandler#onFailure failed} instead.
+     */
+    private static final class InFlightRequestsBreakingStream implements HttpBody.Stream {
+        private final HttpBody.Stream delegate;
+        private final CircuitBreakerService circuitBreakerService;
+        private final boolean canTripCircuitBreaker;
+
+        InFlightRequestsBreakingStream(
+            HttpBody.Stream delegate,
+            CircuitBreakerService circuitBreakerService,
+            boolean canTripCircuitBreaker
+        ) {
+            this.delegate = delegate;
+            this.circuitBreakerService = circuitBreakerService;
+            this.canTripCircuitBreaker = canTripCircuitBreaker;
+        }
+
+        @Override
+        public void setHandler(HttpBody.ChunkHandler chunkHandler) {
+            delegate.setHandler(new HttpBody.ChunkHandler() {
+                @Override
+                public void onNext(ReleasableBytesReference chunk, boolean isLast) {
+                    final int length = chunk.length();
+                    try {
+                        if (canTripCircuitBreaker) {
+                            inFlightRequestsBreaker(circuitBreakerService).addEstimateBytesAndMaybeBreak(length, "<http_request>");
+                        } else {
+                            inFlightRequestsBreaker(circuitBreakerService).addWithoutBreaking(length);
+                        }
+                    } catch (CircuitBreakingException e) {
+                        chunk.close();
+                        chunkHandler.onFailure(e);
+                        return;
+                    }
+                    chunkHandler.onNext(new ReleasableBytesReference(chunk, () -> {
+                        chunk.close();
+                        inFlightRequestsBreaker(circuitBreakerService).addWithoutBreaking(-length);
+                    }), isLast);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    chunkHandler.onFailure(e);
+                }
+
+                @Override
+                public void close() {
+                    chunkHandler.close();
+                }
+            });
+        }
+
+        @Override
+        public void next() {
+            delegate.next();
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+
     private static class ResponseLengthRecorder extends AtomicReference<MethodHandlers> implements Releasable {
         private long responseLength;
 
@@ -48,6 +48,16 @@ public interface RestHandler {
         return false;
     }
 
+    /**
+     * Indicates if the RestHandler can consume the request body in chunks as it arrives, see {@link RestRequest#contentStream()}.
+     * The http module only streams the body of requests to handlers that return true here, all other handlers receive the whole body
+     * at once. Handlers that support it must be a {@link BaseRestHandler} whose {@link BaseRestHandler#prepareRequest prepared} action
+     * is a {@link BaseRestHandler.RequestBodyChunkConsumer} when the request is streamed.
+     */
+    default boolean supportsContentStream() {
+        return false;
+    }
+
     /**
      * Returns the concrete RestHandler for this RestHandler. That is, if this is a delegating RestHandler it returns the delegate.
      * Otherwise it returns itself.
@@ -24,6 +24,7 @@ import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.RestApiVersion;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.core.Tuple;
+import org.elasticsearch.http.HttpBody;
 import org.elasticsearch.http.HttpChannel;
 import org.elasticsearch.http.HttpRequest;
 import org.elasticsearch.telemetry.tracing.Traceable;
@@ -43,6 +44,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
 
 import static org.elasticsearch.common.unit.ByteSizeValue.parseBytesSizeValue;
@@ -91,6 +93,8 @@ public class RestRequest implements ToXContent.Params, Traceable {
     private final ParsedMediaType parsedContentType;
     private final Optional<RestApiVersion> restApiVersion;
     private HttpRequest httpRequest;
+    @Nullable
+    private HttpBody.Stream contentStream;
 
     private boolean contentConsumed = false;
 
@@ -136,6 +140,7 @@ public class RestRequest implements ToXContent.Params, Traceable {
             throw new MediaTypeHeaderException(e, "Content-Type");
         }
         this.httpRequest = httpRequest;
+        this.contentStream = httpRequest.contentStream();
         try {
             this.restApiVersion = RestCompatibleVersionHelper.getCompatibleVersion(parsedAccept, parsedContentType, hasContent());
         } catch (ElasticsearchStatusException e) {
@@ -163,6 +168,7 @@ public class RestRequest implements ToXContent.Params, Traceable {
         this.restApiVersion = other.restApiVersion;
         this.parserConfig = other.parserConfig;
         this.httpRequest = other.httpRequest;
+        this.contentStream = other.contentStream;
         this.httpChannel = other.httpChannel;
         this.params = other.params;
         this.rawPath = other.rawPath;
@@ -304,7 +310,32 @@ public class RestRequest implements ToXContent.Params, Traceable {
     }
 
     public boolean hasContent() {
-        return contentLength() > 0;
+        return isStreamedContent() || contentLength() > 0;
+    }
+
+    /**
+     * Whether the body of this request is passed to the handler in chunks as it arrives, see {@link #contentStream()}.
+     */
+    public boolean isStreamedContent() {
+        return contentStream != null;
+    }
+
+    /**
+     * The body of this request as a stream of chunks, or {@code null} if the body has been aggregated and is available from
+     * {@link #content()}. Only handlers that {@link RestHandler#supportsContentStream() support it} receive streamed requests.
+     */
+    @Nullable
+    public HttpBody.Stream contentStream() {
+        this.contentConsumed = true;
+        return contentStream;
+    }
+
+    /**
+     * Replaces the stream of a streamed body with a wrapper around it, see {@link #contentStream()}.
+     */
+    void wrapContentStream(UnaryOperator<HttpBody.Stream> wrapper) {
+        assert contentStream != null;
+        contentStream = wrapper.apply(contentStream);
     }
 
     public int contentLength() {
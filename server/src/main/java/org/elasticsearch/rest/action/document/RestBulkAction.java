@@ -9,22 +9,42 @@
 
 package org.elasticsearch.rest.action.document;
 
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkRequestParser;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.bulk.BulkShardRequest;
 import org.elasticsearch.action.support.ActiveShardCount;
 import org.elasticsearch.client.internal.node.NodeClient;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.Releasables;
 import org.elasticsearch.core.RestApiVersion;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.http.HttpBody;
+import org.elasticsearch.http.HttpTransportSettings;
 import org.elasticsearch.rest.BaseRestHandler;
+import org.elasticsearch.rest.RestChannel;
 import org.elasticsearch.rest.RestRequest;
+import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.rest.Scope;
 import org.elasticsearch.rest.ServerlessScope;
 import org.elasticsearch.rest.action.RestRefCountedChunkedToXContentListener;
 import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.elasticsearch.rest.RestRequest.Method.POST;
 import static org.elasticsearch.rest.RestRequest.Method.PUT;
@@ -42,10 +62,38 @@ import static org.elasticsearch.rest.RestRequest.Method.PUT;
 public class RestBulkAction extends BaseRestHandler {
     public static final String TYPES_DEPRECATION_MESSAGE = "[types removal] Specifying types in bulk requests is deprecated.";
 
+    /**
+     * Whether bulk request bodies are parsed as they arrive instead of being aggregated in memory first. This is opt-in because
+     * streamed requests execute the items of earlier batches before a failure later in the body is found, and they apply
+     * {@code http.max_content_length} to each item rather than to the whole body.
+     */
+    public static final Setting<Boolean> STREAM_REQUEST_BODY = Setting.boolSetting(
+        "rest.bulk.stream_request_body",
+        false,
+        Property.NodeScope
+    );
+
+    /**
+     * The size of the batches in which the items of a streamed bulk request are executed.
+     */
+    public static final Setting<ByteSizeValue> STREAM_BATCH_SIZE = Setting.byteSizeSetting(
+        "rest.bulk.stream_batch_size",
+        ByteSizeValue.ofMb(10),
+        ByteSizeValue.ofKb(1),
+        ByteSizeValue.ofBytes(Integer.MAX_VALUE),
+        Property.NodeScope
+    );
+
     private final boolean allowExplicitIndex;
+    private final boolean streamRequestBody;
+    private final long streamBatchSizeInBytes;
+    private final long maxContentLengthInBytes;
 
     public RestBulkAction(Settings settings) {
         this.allowExplicitIndex = MULTI_ALLOW_EXPLICIT_INDEX.get(settings);
+        this.streamRequestBody = STREAM_REQUEST_BODY.get(settings);
+        this.streamBatchSizeInBytes = STREAM_BATCH_SIZE.get(settings).getBytes();
+        this.maxContentLengthInBytes = HttpTransportSettings.SETTING_HTTP_MAX_CONTENT_LENGTH.get(settings).getBytes();
     }
 
     @Override
@@ -70,6 +118,9 @@ public class RestBulkAction extends BaseRestHandler {
         if (request.getRestApiVersion() == RestApiVersion.V_7 && request.hasParam("type")) {
             request.param("type");
         }
+        if (request.isStreamedContent()) {
+            return new StreamingBulkConsumer(request, client);
+        }
         BulkRequest bulkRequest = new BulkRequest();
         String defaultIndex = request.param("index");
         String defaultRouting = request.param("routing");
@@ -106,6 +157,247 @@ public class RestBulkAction extends BaseRestHandler {
         return true;
     }
 
+    @Override
+    public boolean supportsContentStream() {
+        return streamRequestBody;
+    }
+
+    /**
+     * Parses the items of a streamed bulk request as the body arrives and executes them in batches of roughly
+     * {@link #STREAM_BATCH_SIZE}. At most one batch is executed at a time, and the next chunk of the body is only read while the
+     * batch that is being filled isn't full yet. A request therefore holds the batch that is being executed, the batch that is being
+     * filled, each of which may overshoot the batch size by one item, and the item that is still arriving. That item may not grow
+     * beyond {@code http.max_content_length}. The chunks are charged to the in-flight requests circuit breaker while they are held.
+     * The items of all batches are returned in a single response once the whole body has been processed. Items are executed as soon
+     * as their batch is full, so if the request fails half-way then the items of earlier batches have been executed anyway.
+     */
+    private class StreamingBulkConsumer implements RequestBodyChunkConsumer {
+        private final NodeClient client;
+        private final HttpBody.Stream stream;
+        private final BulkRequestParser.IncrementalParser parser;
+        private final byte bulkSeparator;
+        private final ActiveShardCount waitForActiveShards;
+        private final TimeValue timeout;
+        private final String refresh;
+        private final long startTimeNanos = System.nanoTime();
+
+        private RestChannel channel;
+        private BulkRequest batch;
+        // chunks that are referenced by the requests of the current batch
+        private List<ReleasableBytesReference> batchChunks = new ArrayList<>();
+        // chunks that hold the start of an item that hasn't fully arrived yet
+        private final ArrayDeque<ReleasableBytesReference> unparsedChunks = new ArrayDeque<>();
+        private long unparsedBytes;
+        private final List<BulkItemResponse> responses = new ArrayList<>();
+        private long ingestTookInMillis = BulkResponse.NO_INGEST_TOOK;
+        private boolean chunkRequested;
+        private boolean lastChunkReceived;
+        private boolean batchInFlight;
+        private boolean done;
+
+        StreamingBulkConsumer(RestRequest request, NodeClient client) {
+            this.client = client;
+            this.stream = request.contentStream();
+            String waitForActiveShards = request.param("wait_for_active_shards");
+            this.waitForActiveShards = waitForActiveShards == null ? null : ActiveShardCount.parseString(waitForActiveShards);
+            this.timeout = request.paramAsTime("timeout", BulkShardRequest.DEFAULT_TIMEOUT);
+            this.refresh = request.param("refresh");
+            this.batch = newBatch();
+            this.parser = new BulkRequestParser(true, request.getRestApiVersion()).incrementalParser(
+                request.param("index"),
+                request.param("routing"),
+                FetchSourceContext.parseFromRestRequest(request),
+                request.param("pipeline"),
+                request.paramAsBoolean(DocWriteRequest.REQUIRE_ALIAS, false),
+                request.paramAsBoolean(DocWriteRequest.REQUIRE_DATA_STREAM, false),
+                request.paramAsBoolean("list_executed_pipelines", false),
+                allowExplicitIndex,
+                request.getXContentType(),
+                (indexRequest, type) -> batch.add(indexRequest),
+                updateRequest -> batch.add(updateRequest),
+                deleteRequest -> batch.add(deleteRequest)
+            );
+            this.bulkSeparator = request.getXContentType().xContent().bulkSeparator();
+        }
+
+        private BulkRequest newBatch() {
+            BulkRequest bulkRequest = new BulkRequest();
+            if (waitForActiveShards != null) {
+                bulkRequest.waitForActiveShards(waitForActiveShards);
+            }
+            bulkRequest.timeout(timeout);
+            bulkRequest.setRefreshPolicy(refresh);
+            return bulkRequest;
+        }
+
+        @Override
+        public synchronized void accept(RestChannel restChannel) {
+            this.channel = restChannel;
+            proceed();
+        }
+
+        @Override
+        public synchronized void handleChunk(RestChannel restChannel, ReleasableBytesReference chunk, boolean isLast) {
+            assert chunkRequested;
+            chunkRequested = false;
+            lastChunkReceived = isLast;
+            if (done) {
+                chunk.close();
+                return;
+            }
+            // the unparsed chunks were already searched for the end of a line, so an item can only have been completed by this chunk
+            final boolean completesLine = chunk.indexOf(bulkSeparator, 0) != -1;
+            if (chunk.length() > 0) {
+                unparsedChunks.add(chunk);
+                unparsedBytes += chunk.length();
+            } else {
+                chunk.close();
+            }
+            if (completesLine || isLast) {
+                final BytesReference data = unparsedChunks.size() == 1
+                    ? unparsedChunks.peek()
+                    : CompositeBytesReference.of(unparsedChunks.toArray(new BytesReference[0]));
+                final int consumed;
+                try {
+                    consumed = parser.parse(data, isLast);
+                } catch (Exception e) {
+                    onFailure(e);
+                    return;
+                }
+                moveConsumedChunksToBatch(consumed);
+            }
+            if (unparsedBytes > maxContentLengthInBytes) {
+                onFailure(
+                    new ElasticsearchStatusException(
+                        "bulk request item exceeds the maximum content length of [{}]",
+                        RestStatus.REQUEST_ENTITY_TOO_LARGE,
+                        ByteSizeValue.ofBytes(maxContentLengthInBytes)
+                    )
+                );
+                return;
+            }
+            proceed();
+        }
+
+        @Override
+        public synchronized void handleFailure(RestChannel restChannel, Exception e) {
+            assert chunkRequested;
+            chunkRequested = false;
+            onFailure(e);
+        }
+
+        private void moveConsumedChunksToBatch(int consumed) {
+            unparsedBytes -= consumed;
+            int remaining = consumed;
+            while (remaining > 0) {
+                final ReleasableBytesReference first = unparsedChunks.peek();
+                if (first.length() <= remaining) {
+                    batchChunks.add(unparsedChunks.poll());
+                    remaining -= first.length();
+                } else {
+                    // the chunk holds the end of the last parsed item and the start of the next one
+                    batchChunks.add(first.retain());
+                    unparsedChunks.poll();
+                    unparsedChunks.addFirst(first.retainedSlice(remaining, first.length() - remaining));
+                    first.decRef();
+                    remaining = 0;
+                }
+            }
+        }
+
+        /**
+         * Executes the current batch if it is full, asks for the next chunk unless that would exceed the memory bound, and sends the
+         * response once all items have been executed.
+         */
+        private void proceed() {
+            if (done) {
+                return;
+            }
+            if (lastChunkReceived) {
+                if (batchInFlight == false) {
+                    if (batch.numberOfActions() > 0) {
+                        executeBatch();
+                    } else {
+                        sendResponse();
+                    }
+                }
+                return;
+            }
+            if (batch.estimatedSizeInBytes() >= streamBatchSizeInBytes) {
+                if (batchInFlight) {
+                    // push back on the client until the batch that is being executed completes
+                    return;
+                }
+                executeBatch();
+            }
+            if (done == false && chunkRequested == false) {
+                chunkRequested = true;
+                stream.next();
+            }
+        }
+
+        private void executeBatch() {
+            assert batchInFlight == false;
+            batchInFlight = true;
+            final BulkRequest bulkRequest = batch;
+            final List<ReleasableBytesReference> chunks = batchChunks;
+            batch = newBatch();
+            batchChunks = new ArrayList<>();
+            client.bulk(bulkRequest, ActionListener.releaseAfter(new ActionListener<BulkResponse>() {
+                @Override
+                public void onResponse(BulkResponse bulkResponse) {
+                    onBatchResponse(bulkResponse);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    StreamingBulkConsumer.this.onFailure(e);
+                }
+            }, Releasables.wrap(chunks)));
+        }
+
+        private synchronized void onBatchResponse(BulkResponse bulkResponse) {
+            batchInFlight = false;
+            responses.addAll(List.of(bulkResponse.getItems()));
+            if (bulkResponse.getIngestTookInMillis() != BulkResponse.NO_INGEST_TOOK) {
+                ingestTookInMillis = Math.max(ingestTookInMillis, 0L) + bulkResponse.getIngestTookInMillis();
+            }
+            proceed();
+        }
+
+        private void sendResponse() {
+            done = true;
+            final long tookInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeNanos);
+            ActionListener.respondAndRelease(
+                new RestRefCountedChunkedToXContentListener<>(channel),
+                new BulkResponse(responses.toArray(new BulkItemResponse[0]), tookInMillis, ingestTookInMillis)
+            );
+        }
+
+        private synchronized void onFailure(Exception e) {
+            if (done) {
+                return;
+            }
+            done = true;
+            releaseChunks();
+            new RestRefCountedChunkedToXContentListener<BulkResponse>(channel).onFailure(e);
+        }
+
+        @Override
+        public synchronized void streamClose() {
+            done = true;
+            releaseChunks();
+        }
+
+        private void releaseChunks() {
+            Releasables.close(unparsedChunks);
+            unparsedChunks.clear();
+            unparsedBytes = 0;
+            Releasables.close(batchChunks);
+            batchChunks.clear();
+        }
+    }
+
     @Override
     public boolean allowsUnsafeBuffers() {
         return true;
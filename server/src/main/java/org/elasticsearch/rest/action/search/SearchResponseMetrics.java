@@ -40,9 +40,11 @@ public class SearchResponseMetrics {
 
     public static final String TOOK_DURATION_TOTAL_HISTOGRAM_NAME = "es.search_response.took_durations.histogram";
     public static final String RESPONSE_COUNT_TOTAL_COUNTER_NAME = "es.search_response.response_count.total";
+    public static final String AGGS_REDUCE_MEMORY_HISTOGRAM_NAME = "es.search_response.aggs_reduce_memory.histogram";
 
     private final LongHistogram tookDurationTotalMillisHistogram;
     private final LongCounter responseCountTotalCounter;
+    private final LongHistogram aggsReduceMemoryBytesHistogram;
 
     public SearchResponseMetrics(MeterRegistry meterRegistry) {
         this(
@@ -57,13 +59,23 @@ public class SearchResponseMetrics {
                     + "success, partial failure, or failure, expressed as a single total counter and individual "
                     + "attribute counters",
                 "count"
+            ),
+            meterRegistry.registerLongHistogram(
+                AGGS_REDUCE_MEMORY_HISTOGRAM_NAME,
+                "The peak memory used on the coordinating node to buffer and reduce the aggregations of a search, expressed as a histogram",
+                "bytes"
             )
         );
     }
 
-    private SearchResponseMetrics(LongHistogram tookDurationTotalMillisHistogram, LongCounter responseCountTotalCounter) {
+    private SearchResponseMetrics(
+        LongHistogram tookDurationTotalMillisHistogram,
+        LongCounter responseCountTotalCounter,
+        LongHistogram aggsReduceMemoryBytesHistogram
+    ) {
         this.tookDurationTotalMillisHistogram = tookDurationTotalMillisHistogram;
         this.responseCountTotalCounter = responseCountTotalCounter;
+        this.aggsReduceMemoryBytesHistogram = aggsReduceMemoryBytesHistogram;
     }
 
     public long recordTookTime(long tookTime) {
@@ -71,6 +83,11 @@ public class SearchResponseMetrics {
         return tookTime;
     }
 
+    public long recordAggsReduceMemory(long bytes) {
+        aggsReduceMemoryBytesHistogram.record(bytes);
+        return bytes;
+    }
+
     public void incrementResponseCount(ResponseCountTotalStatus responseCountTotalStatus) {
         responseCountTotalCounter.incrementBy(
             1L,
@@ -12,6 +12,7 @@ package org.elasticsearch.search;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
@@ -529,7 +530,14 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         final boolean canCache = IndicesService.canCache(request, context);
         context.getSearchExecutionContext().freezeContext();
         if (canCache) {
-            indicesService.loadIntoContext(request, context);
+            final IndexService indexService = indicesService.indexServiceSafe(request.shardId().getIndex());
+            final DirectoryReader directoryReader = context.searcher().getDirectoryReader();
+            final boolean cacheSegmentAggregations = IndicesService.canCacheSegmentAggregations(
+                request,
+                context,
+                field -> DefaultSearchContext.getFieldCardinality(field, indexService, directoryReader)
+            );
+            indicesService.loadIntoContext(request, context, cacheSegmentAggregations);
         } else {
             QueryPhase.execute(context);
         }
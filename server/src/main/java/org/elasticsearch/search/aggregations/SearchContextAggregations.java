@@ -20,6 +20,7 @@ public class SearchContextAggregations {
     private final AggregatorFactories factories;
     private final Supplier<AggregationReduceContext.Builder> toAggregationReduceContextBuilder;
     private CollectorManager<AggregatorCollector, Void> aggCollectorManager;
+    private SegmentAggregationsCache segmentAggregationsCache;
 
     /**
      * Creates a new aggregation context with the parsed aggregator factories
@@ -50,6 +51,20 @@ public class SearchContextAggregations {
         return aggCollectorManager;
     }
 
+    /**
+     * Registers the cache used to store partial aggregation results per segment
+     */
+    public void setSegmentAggregationsCache(SegmentAggregationsCache segmentAggregationsCache) {
+        this.segmentAggregationsCache = segmentAggregationsCache;
+    }
+
+    /**
+     * Returns the cache used to store partial aggregation results per segment, or {@code null} if they are not cached
+     */
+    public SegmentAggregationsCache getSegmentAggregationsCache() {
+        return segmentAggregationsCache;
+    }
+
     /**
      * Returns if the aggregations needs to execute in sort order.
      */
@@ -0,0 +1,105 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.aggregations;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.CollectionTerminatedException;
+import org.apache.lucene.search.LeafCollector;
+import org.apache.lucene.search.ScoreMode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * {@link AggregatorCollector} that aggregates every segment with its own set of aggregators so that the partial results
+ * can be cached per segment in a {@link SegmentAggregationsCache}. Segments with cached results are not collected at all,
+ * their results are reduced together with the freshly computed ones during the post-collection phase.
+ */
+class SegmentCachingAggregatorCollector extends AggregatorCollector {
+
+    private final Supplier<AggregatorCollector> collectorSupplier;
+    private final SegmentAggregationsCache cache;
+    private final Supplier<AggregationReduceContext> reduceContextSupplier;
+    private final ScoreMode scoreMode;
+    private final List<InternalAggregations> segmentResults = new ArrayList<>();
+
+    // created eagerly to resolve the score mode, it is used for the first segment that misses the cache
+    private AggregatorCollector spare;
+    private LeafReaderContext currentLeaf;
+    private AggregatorCollector currentCollector;
+
+    SegmentCachingAggregatorCollector(
+        Supplier<AggregatorCollector> collectorSupplier,
+        SegmentAggregationsCache cache,
+        Supplier<AggregationReduceContext> reduceContextSupplier
+    ) {
+        super(new Aggregator[0], BucketCollector.NO_OP_BUCKET_COLLECTOR);
+        this.collectorSupplier = collectorSupplier;
+        this.cache = cache;
+        this.reduceContextSupplier = reduceContextSupplier;
+        this.spare = collectorSupplier.get();
+        this.scoreMode = spare.scoreMode();
+    }
+
+    @Override
+    public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
+        // segments are collected sequentially, so the previous one is complete and its aggregators are released
+        finishCurrentLeaf();
+        InternalAggregations cached = cache.get(context);
+        if (cached != null) {
+            segmentResults.add(cached);
+            throw new CollectionTerminatedException();
+        }
+        if (spare != null) {
+            currentCollector = spare;
+            spare = null;
+        } else {
+            currentCollector = collectorSupplier.get();
+        }
+        currentLeaf = context;
+        return currentCollector.getLeafCollector(context);
+    }
+
+    private void finishCurrentLeaf() throws IOException {
+        if (currentCollector != null) {
+            // builds the results and releases the aggregators, so the memory they hold does not add up across segments
+            currentCollector.doPostCollection();
+            InternalAggregations aggregations = InternalAggregations.from(currentCollector.internalAggregations);
+            cache.put(currentLeaf, aggregations);
+            segmentResults.add(aggregations);
+            currentCollector = null;
+            currentLeaf = null;
+        }
+    }
+
+    @Override
+    public ScoreMode scoreMode() {
+        return scoreMode;
+    }
+
+    @Override
+    public void doPostCollection() throws IOException {
+        finishCurrentLeaf();
+        if (spare != null) {
+            // no segment was collected, the spare provides the empty results
+            spare.doPostCollection();
+            segmentResults.add(InternalAggregations.from(spare.internalAggregations));
+            spare = null;
+        }
+        if (segmentResults.size() == 1) {
+            internalAggregations.addAll(segmentResults.get(0).asList());
+        } else {
+            internalAggregations.addAll(InternalAggregations.topLevelReduce(segmentResults, reduceContextSupplier.get()).asList());
+        }
+        segmentResults.clear();
+    }
+}
@@ -11,15 +11,20 @@ package org.elasticsearch.search.aggregations.bucket.histogram;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.NumericDocValues;
 import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.CollectionUtil;
 import org.elasticsearch.common.Rounding;
 import org.elasticsearch.common.Rounding.DateTimeUnit;
 import org.elasticsearch.core.CheckedFunction;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasables;
+import org.elasticsearch.index.mapper.DateFieldMapper;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.aggregations.AdaptingAggregator;
 import org.elasticsearch.search.aggregations.AggregationExecutionContext;
@@ -32,6 +37,7 @@ import org.elasticsearch.search.aggregations.InternalAggregations;
 import org.elasticsearch.search.aggregations.LeafBucketCollector;
 import org.elasticsearch.search.aggregations.LeafBucketCollectorBase;
 import org.elasticsearch.search.aggregations.bucket.BucketsAggregator;
+import org.elasticsearch.search.aggregations.bucket.filter.FilterByFilterAggregator;
 import org.elasticsearch.search.aggregations.bucket.filter.FiltersAggregator;
 import org.elasticsearch.search.aggregations.bucket.range.InternalDateRange;
 import org.elasticsearch.search.aggregations.bucket.range.RangeAggregationBuilder;
@@ -48,6 +54,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
+import java.util.function.LongPredicate;
 
 /**
  * Aggregator for {@code date_histogram} that rounds values using
@@ -61,6 +68,12 @@ import java.util.function.BiConsumer;
 class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAggregator {
     private static final Logger logger = LogManager.getLogger(DateHistogramAggregator.class);
 
+    /**
+     * Don't count a segment from the index sort if it'd take more than
+     * one doc values lookup for every this many documents.
+     */
+    static final int DOCS_PER_INDEX_SORT_LOOKUP = 8;
+
     /**
      * Build an {@link Aggregator} for a {@code date_histogram} aggregation.
      * If we can determine the bucket boundaries from
@@ -241,6 +254,27 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
 
     private final LongKeyedBucketOrds bucketOrds;
 
+    /**
+     * Can we try to count segments from the index sort? See
+     * {@link #countFromIndexSort}.
+     */
+    private final boolean canCountFromIndexSort;
+    /**
+     * The top level query, which has to match the whole segment for us
+     * to count it from the index sort.
+     */
+    private final Query topLevelQuery;
+    /**
+     * {@link Weight} for the {@link #topLevelQuery}, built lazily the
+     * first time we try to count a segment from the index sort.
+     */
+    private Weight topLevelWeight;
+    /**
+     * Count of segments that we counted from the index sort without
+     * collecting any documents.
+     */
+    private int segmentsCountedFromIndexSort;
+
     DateHistogramAggregator(
         String name,
         AggregatorFactories factories,
@@ -273,6 +307,26 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
         this.formatter = valuesSourceConfig.format();
 
         bucketOrds = LongKeyedBucketOrds.build(bigArrays(), cardinality);
+        this.canCountFromIndexSort = parent == null
+            && subAggregators.length == 0
+            && valuesSource != null
+            && context.enableRewriteToFilterByFilter()
+            && isPrimaryIndexSort(valuesSourceConfig, context);
+        this.topLevelQuery = canCountFromIndexSort ? context.query() : null;
+    }
+
+    /**
+     * Is the index sorted on the field that we round, without a script
+     * or a missing value changing the values that we read?
+     */
+    private static boolean isPrimaryIndexSort(ValuesSourceConfig valuesSourceConfig, AggregationContext context) {
+        if (valuesSourceConfig.script() != null || valuesSourceConfig.missing() != null) {
+            return false;
+        }
+        if (valuesSourceConfig.fieldType() instanceof DateFieldMapper.DateFieldType == false) {
+            return false;
+        }
+        return context.getIndexSettings().getIndexSortConfig().hasPrimarySortOnField(valuesSourceConfig.fieldContext().field());
     }
 
     @Override
@@ -288,6 +342,10 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
         if (valuesSource == null) {
             return LeafBucketCollector.NO_OP_COLLECTOR;
         }
+        if (canCountFromIndexSort && docCountProvider.alwaysOne() && countFromIndexSort(aggCtx.getLeafReaderContext())) {
+            segmentsCountedFromIndexSort++;
+            return LeafBucketCollector.NO_OP_COLLECTOR;
+        }
         final SortedNumericDocValues values = valuesSource.longValues(aggCtx.getLeafReaderContext());
         final NumericDocValues singleton = DocValues.unwrapSingleton(values);
         return singleton != null ? getLeafCollector(singleton, sub) : getLeafCollector(values, sub);
@@ -324,6 +382,157 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
         };
     }
 
+    /**
+     * Counts the documents in each bucket of a segment that is sorted on
+     * the field that we round without collecting them. Because the values
+     * only ever grow, or only ever shrink, with the doc id every bucket is
+     * a contiguous range of doc ids and we can find where it ends with a
+     * galloping search over the doc values. That's similar to how
+     * {@link FilterByFilterAggregator} counts filters and it has the same
+     * requirements: there mustn't be any sub-aggregations, deleted docs or
+     * a {@code _doc_count} field and the top level query has to match every
+     * document in the segment.
+     * <p>
+     * Each bucket costs a handful of doc values lookups so this is only
+     * worth it if the buckets are large. We give up as soon as we've done
+     * more than a lookup for every {@link #DOCS_PER_INDEX_SORT_LOOKUP}
+     * documents and collect the segment like normal.
+     *
+     * @return {@code true} if the segment was counted, {@code false} if
+     *         nothing was counted and the segment has to be collected
+     */
+    private boolean countFromIndexSort(LeafReaderContext ctx) throws IOException {
+        int maxDoc = ctx.reader().maxDoc();
+        if (maxDoc == 0 || ctx.reader().getLiveDocs() != null) {
+            return false;
+        }
+        if (topLevelWeight == null) {
+            topLevelWeight = searcher().createWeight(searcher().rewrite(topLevelQuery), ScoreMode.COMPLETE_NO_SCORES, 1.0f);
+        }
+        if (topLevelWeight.count(ctx) != maxDoc) {
+            return false;
+        }
+        SortedValues values = new SortedValues(ctx, maxDoc / DOCS_PER_INDEX_SORT_LOOKUP);
+        /*
+         * Documents without a value are sorted to the start or the end of
+         * the segment so if the first and last documents have a value then
+         * all of them do.
+         */
+        if (values.init() == false || values.advanceExact(0) == false || values.advanceExact(maxDoc - 1) == false) {
+            return false;
+        }
+        boolean ascending = values.valueOf(0) <= values.valueOf(maxDoc - 1);
+        long[] keys = new long[1];
+        long[] counts = new long[1];
+        int buckets = 0;
+        int start = 0;
+        while (start < maxDoc) {
+            long key = preparedRounding.round(values.valueOf(start));
+            long nextKey = preparedRounding.nextRoundingValue(key);
+            int end = values.firstDocPast(start, ascending ? v -> v >= nextKey : v -> v < key);
+            if (values.exhausted()) {
+                return false;
+            }
+            if (hardBounds == null || hardBounds.contain(key)) {
+                keys = ArrayUtil.grow(keys, buckets + 1);
+                counts = ArrayUtil.grow(counts, buckets + 1);
+                keys[buckets] = key;
+                counts[buckets] = end - start;
+                buckets++;
+            }
+            start = end;
+        }
+        for (int b = 0; b < buckets; b++) {
+            long bucketOrd = bucketOrds.add(0, keys[b]);
+            if (bucketOrd < 0) { // already seen
+                bucketOrd = -1 - bucketOrd;
+            }
+            incrementBucketDocCount(bucketOrd, counts[b]);
+        }
+        return true;
+    }
+
+    /**
+     * Random access to the values of a segment that is sorted on them.
+     * Doc values can only move forwards so we pull a fresh copy of them
+     * when asked for an earlier document, like Lucene's
+     * {@code IndexSortSortedNumericDocValuesRangeQuery} does.
+     */
+    private class SortedValues {
+        private final LeafReaderContext ctx;
+        private final int maxLookups;
+        private NumericDocValues values;
+        private int lookups;
+
+        SortedValues(LeafReaderContext ctx, int maxLookups) {
+            this.ctx = ctx;
+            this.maxLookups = maxLookups;
+        }
+
+        /**
+         * Load the doc values, returning {@code false} if the segment
+         * has more than one value for some documents.
+         */
+        boolean init() throws IOException {
+            values = DocValues.unwrapSingleton(valuesSource.longValues(ctx));
+            return values != null;
+        }
+
+        boolean advanceExact(int doc) throws IOException {
+            lookups++;
+            if (doc < values.docID()) {
+                values = DocValues.unwrapSingleton(valuesSource.longValues(ctx));
+            }
+            return values.advanceExact(doc);
+        }
+
+        long valueOf(int doc) throws IOException {
+            if (advanceExact(doc) == false) {
+                throw new IllegalStateException("expected a value for [" + doc + "] because the segment is sorted on the field");
+            }
+            return values.longValue();
+        }
+
+        /**
+         * Have we done more lookups than we're willing to?
+         */
+        boolean exhausted() {
+            return lookups > maxLookups;
+        }
+
+        /**
+         * Find the first document after {@code start} whose value is past
+         * the bucket of {@code start}. The values are sorted so once
+         * {@code past} matches it matches every later document too. We
+         * gallop forwards until we overshoot and then binary search back.
+         */
+        int firstDocPast(int start, LongPredicate past) throws IOException {
+            int maxDoc = ctx.reader().maxDoc();
+            int lo = start + 1;
+            int step = 1;
+            int hi = lo;
+            while (hi < maxDoc && past.test(valueOf(hi)) == false) {
+                if (exhausted()) {
+                    return hi;
+                }
+                lo = hi + 1;
+                hi = lo + step;
+                step <<= 1;
+            }
+            hi = Math.min(hi, maxDoc);
+            // lo is the first candidate we haven't ruled out, hi is past the bucket or maxDoc
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (past.test(valueOf(mid))) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+    }
+
     private void addRoundedValue(long rounded, int doc, long owningBucketOrd, LeafBucketCollector sub) throws IOException {
         if (hardBounds == null || hardBounds.contain(rounded)) {
             long bucketOrd = bucketOrds.add(owningBucketOrd, rounded);
@@ -389,6 +598,7 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
     @Override
     public void collectDebugInfo(BiConsumer<String, Object> add) {
         add.accept("total_buckets", bucketOrds.size());
+        add.accept("segments_counted_from_index_sort", segmentsCountedFromIndexSort);
     }
 
     /**
@@ -73,7 +73,9 @@ public class DfsProfiler extends AbstractProfileBreakdown<DfsTimingType> {
                         queryProfiler.getTree(),
                         queryProfiler.getRewriteTime(),
                         queryProfiler.getCollectorResult(),
-                        queryProfiler.getVectorOpsCount()
+                        queryProfiler.getVectorOpsCount(),
+                        queryProfiler.getKnnExactSegments(),
+                        queryProfiler.getKnnApproximateSegments()
                     )
                 );
             }
@@ -36,6 +36,8 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
     public static final String QUERY_ARRAY = "query";
 
     public static final String VECTOR_OPERATIONS_COUNT = "vector_operations_count";
+    public static final String KNN_EXACT_SEARCH_SEGMENTS = "knn_exact_search_segments";
+    public static final String KNN_APPROXIMATE_SEARCH_SEGMENTS = "knn_approximate_search_segments";
 
     private final List<ProfileResult> queryProfileResults;
 
@@ -45,17 +47,34 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
 
     private final Long vectorOperationsCount;
 
+    private final Long knnExactSegments;
+
+    private final Long knnApproximateSegments;
+
     public QueryProfileShardResult(
         List<ProfileResult> queryProfileResults,
         long rewriteTime,
         CollectorResult profileCollector,
         @Nullable Long vectorOperationsCount
+    ) {
+        this(queryProfileResults, rewriteTime, profileCollector, vectorOperationsCount, null, null);
+    }
+
+    public QueryProfileShardResult(
+        List<ProfileResult> queryProfileResults,
+        long rewriteTime,
+        CollectorResult profileCollector,
+        @Nullable Long vectorOperationsCount,
+        @Nullable Long knnExactSegments,
+        @Nullable Long knnApproximateSegments
     ) {
         assert (profileCollector != null);
         this.queryProfileResults = queryProfileResults;
         this.profileCollector = profileCollector;
         this.rewriteTime = rewriteTime;
         this.vectorOperationsCount = vectorOperationsCount;
+        this.knnExactSegments = knnExactSegments;
+        this.knnApproximateSegments = knnApproximateSegments;
     }
 
     /**
@@ -71,6 +90,13 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
         profileCollector = new CollectorResult(in);
         rewriteTime = in.readLong();
         vectorOperationsCount = (in.getTransportVersion().onOrAfter(TransportVersions.V_8_12_0)) ? in.readOptionalLong() : null;
+        if (in.getTransportVersion().onOrAfter(TransportVersions.KNN_PROFILE_SEARCH_SEGMENTS)) {
+            knnExactSegments = in.readOptionalLong();
+            knnApproximateSegments = in.readOptionalLong();
+        } else {
+            knnExactSegments = null;
+            knnApproximateSegments = null;
+        }
     }
 
     @Override
@@ -84,6 +110,10 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
         if (out.getTransportVersion().onOrAfter(TransportVersions.V_8_12_0)) {
             out.writeOptionalLong(vectorOperationsCount);
         }
+        if (out.getTransportVersion().onOrAfter(TransportVersions.KNN_PROFILE_SEARCH_SEGMENTS)) {
+            out.writeOptionalLong(knnExactSegments);
+            out.writeOptionalLong(knnApproximateSegments);
+        }
     }
 
     public List<ProfileResult> getQueryResults() {
@@ -98,12 +128,35 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
         return profileCollector;
     }
 
+    /**
+     * The number of segments a filtered kNN search scored exactly, {@code null} if the search didn't pick a strategy per segment.
+     */
+    @Nullable
+    public Long getKnnExactSegments() {
+        return knnExactSegments;
+    }
+
+    /**
+     * The number of segments a filtered kNN search searched through the graph, {@code null} if the search didn't pick a strategy
+     * per segment.
+     */
+    @Nullable
+    public Long getKnnApproximateSegments() {
+        return knnApproximateSegments;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject();
         if (vectorOperationsCount != null) {
             builder.field(VECTOR_OPERATIONS_COUNT, vectorOperationsCount);
         }
+        if (knnExactSegments != null) {
+            builder.field(KNN_EXACT_SEARCH_SEGMENTS, knnExactSegments);
+        }
+        if (knnApproximateSegments != null) {
+            builder.field(KNN_APPROXIMATE_SEARCH_SEGMENTS, knnApproximateSegments);
+        }
         builder.startArray(QUERY_ARRAY);
         for (ProfileResult p : queryProfileResults) {
             p.toXContent(builder, params);
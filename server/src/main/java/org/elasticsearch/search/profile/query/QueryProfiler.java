@@ -10,6 +10,7 @@
 package org.elasticsearch.search.profile.query;
 
 import org.apache.lucene.search.Query;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.search.profile.AbstractProfiler;
 import org.elasticsearch.search.profile.Timer;
 
@@ -35,6 +36,10 @@ public final class QueryProfiler extends AbstractProfiler<QueryProfileBreakdown,
 
     private long vectorOpsCount;
 
+    private Long knnExactSegments;
+
+    private Long knnApproximateSegments;
+
     public QueryProfiler() {
         super(new InternalQueryProfileTree());
     }
@@ -47,6 +52,24 @@ public final class QueryProfiler extends AbstractProfiler<QueryProfileBreakdown,
         return this.vectorOpsCount;
     }
 
+    /**
+     * Records how many segments a filtered kNN search scored exactly and how many it searched through the graph.
+     */
+    public void setKnnSearchSegments(long exactSegments, long approximateSegments) {
+        this.knnExactSegments = exactSegments;
+        this.knnApproximateSegments = approximateSegments;
+    }
+
+    @Nullable
+    public Long getKnnExactSegments() {
+        return knnExactSegments;
+    }
+
+    @Nullable
+    public Long getKnnApproximateSegments() {
+        return knnApproximateSegments;
+    }
+
     /** Set the collector result that is associated with this profiler. */
     public void setCollectorResult(CollectorResult collectorResult) {
         if (this.collectorResult != null) {
@@ -9,18 +9,41 @@
 
 package org.elasticsearch.search.vectors;
 
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.KnnByteVectorQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TopDocs;
 import org.elasticsearch.search.profile.query.QueryProfiler;
 
+import java.io.IOException;
+
 public class ESKnnByteVectorQuery extends KnnByteVectorQuery implements ProfilingQuery {
     private final Integer kParam;
+    private final FilteredKnnSearchStrategy filteredSearch;
     private long vectorOpsCount;
 
     public ESKnnByteVectorQuery(String field, byte[] target, Integer k, int numCands, Query filter) {
+        this(field, target, k, numCands, filter, false);
+    }
+
+    /**
+     * @param adaptiveFilteredSearch whether a filtered search picks exact or graph search per segment
+     *                               with {@link FilteredKnnSearchStrategy}
+     */
+    public ESKnnByteVectorQuery(String field, byte[] target, Integer k, int numCands, Query filter, boolean adaptiveFilteredSearch) {
         super(field, target, numCands, filter);
         this.kParam = k;
+        this.filteredSearch = filter == null || adaptiveFilteredSearch == false
+            ? null
+            : new FilteredKnnSearchStrategy.Bytes(field, target, numCands, filter);
+    }
+
+    @Override
+    public Query rewrite(IndexSearcher indexSearcher) throws IOException {
+        if (filteredSearch == null) {
+            return super.rewrite(indexSearcher);
+        }
+        return filteredSearch.rewrite(indexSearcher, this::mergeLeafResults);
     }
 
     @Override
@@ -34,5 +57,8 @@ public class ESKnnByteVectorQuery extends KnnByteVectorQuery implements Profilin
     @Override
     public void profile(QueryProfiler queryProfiler) {
         queryProfiler.setVectorOpsCount(vectorOpsCount);
+        if (filteredSearch != null) {
+            queryProfiler.setKnnSearchSegments(filteredSearch.exactSegments(), filteredSearch.approximateSegments());
+        }
     }
 }
@@ -0,0 +1,287 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.apache.lucene.index.ByteVectorValues;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.FieldExistsQuery;
+import org.apache.lucene.search.FilteredDocIdSetIterator;
+import org.apache.lucene.search.HitQueue;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.BitSet;
+import org.apache.lucene.util.BitSetIterator;
+import org.apache.lucene.util.Bits;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static org.apache.lucene.search.DocIdSetIterator.NO_MORE_DOCS;
+
+/**
+ * Executes a filtered kNN search segment by segment, like Lucene does, but picks the cheaper of exact and graph search
+ * for each segment.
+ * <p>
+ * Graph search has to step over the candidates that don't match the filter, so collecting {@code numCands} results visits
+ * roughly {@code numCands * ln(maxDoc) / selectivity} vectors, while an exact search visits each of the matching vectors once.
+ * The cheaper of both is picked for each segment based on the cardinality of the filter in that segment. Graph searches that
+ * hit their visit limit fall back to an exact search, like Lucene does.
+ * <p>
+ * The filter is collected into a bitset per segment for the duration of the search only, like Lucene's own kNN queries do,
+ * so it doesn't hold any memory across searches.
+ */
+abstract class FilteredKnnSearchStrategy {
+
+    private static final TopDocs NO_RESULTS = new TopDocs(new TotalHits(0, TotalHits.Relation.EQUAL_TO), new ScoreDoc[0]);
+
+    protected final String field;
+    protected final int numCands;
+    private final Query filter;
+
+    private final LongAdder exactSegments = new LongAdder();
+    private final LongAdder approximateSegments = new LongAdder();
+
+    FilteredKnnSearchStrategy(String field, int numCands, Query filter) {
+        this.field = field;
+        this.numCands = numCands;
+        this.filter = filter;
+    }
+
+    /**
+     * Searches all segments of the searcher and merges their results with {@code mergeLeafResults}.
+     */
+    final Query rewrite(IndexSearcher searcher, Function<TopDocs[], TopDocs> mergeLeafResults) throws IOException {
+        IndexReader reader = searcher.getIndexReader();
+        // only docs with a vector can be hits, so leave the others out of the filter's cardinality
+        Query filterWithVectors = new BooleanQuery.Builder().add(filter, BooleanClause.Occur.FILTER)
+            .add(new FieldExistsQuery(field), BooleanClause.Occur.FILTER)
+            .build();
+        Weight filterWeight = searcher.createWeight(searcher.rewrite(filterWithVectors), ScoreMode.COMPLETE_NO_SCORES, 1f);
+        List<Callable<TopDocs>> tasks = new ArrayList<>(reader.leaves().size());
+        for (LeafReaderContext context : reader.leaves()) {
+            tasks.add(() -> searchLeaf(context, filterWeight));
+        }
+        TopDocs[] perLeafResults = searcher.getTaskExecutor().invokeAll(tasks).toArray(TopDocs[]::new);
+        TopDocs topK = mergeLeafResults.apply(perLeafResults);
+        if (topK.scoreDocs.length == 0) {
+            return new MatchNoDocsQuery();
+        }
+        ScoreDoc[] scoreDocs = topK.scoreDocs.clone();
+        Arrays.sort(scoreDocs, Comparator.comparingInt(scoreDoc -> scoreDoc.doc));
+        int[] docs = new int[scoreDocs.length];
+        float[] scores = new float[scoreDocs.length];
+        for (int i = 0; i < scoreDocs.length; i++) {
+            docs[i] = scoreDocs[i].doc;
+            scores[i] = scoreDocs[i].score;
+        }
+        return new KnnScoreDocQuery(docs, scores, KnnScoreDocQueryBuilder.findSegmentStarts(reader, docs), reader.getContext().id());
+    }
+
+    /**
+     * The number of segments that were searched by scoring all documents that match the filter.
+     */
+    final long exactSegments() {
+        return exactSegments.sum();
+    }
+
+    /**
+     * The number of segments that were searched through their HNSW graph.
+     */
+    final long approximateSegments() {
+        return approximateSegments.sum();
+    }
+
+    private TopDocs searchLeaf(LeafReaderContext context, Weight filterWeight) throws IOException {
+        BitSet acceptDocs = acceptDocs(context, filterWeight);
+        if (acceptDocs == null) {
+            return NO_RESULTS;
+        }
+        int cost = acceptDocs.cardinality();
+        if (cost == 0) {
+            return NO_RESULTS;
+        }
+        TopDocs results = null;
+        if (preferExactSearch(numCands, cost, context.reader().maxDoc()) == false) {
+            TopDocs approximate = approximateSearch(context.reader(), acceptDocs, cost + 1);
+            // fewer than numCands hits while more docs match the filter means that the visit limit was reached
+            if (approximate.totalHits.relation == TotalHits.Relation.EQUAL_TO && approximate.scoreDocs.length >= numCands) {
+                approximateSegments.increment();
+                results = approximate;
+            }
+        }
+        if (results == null) {
+            exactSegments.increment();
+            results = exactSearch(context.reader(), new BitSetIterator(acceptDocs, cost));
+        }
+        if (context.docBase > 0) {
+            for (ScoreDoc scoreDoc : results.scoreDocs) {
+                scoreDoc.doc += context.docBase;
+            }
+        }
+        return results;
+    }
+
+    private static BitSet acceptDocs(LeafReaderContext context, Weight filterWeight) throws IOException {
+        Scorer scorer = filterWeight.scorer(context);
+        if (scorer == null) {
+            return null;
+        }
+        DocIdSetIterator docs = scorer.iterator();
+        final Bits liveDocs = context.reader().getLiveDocs();
+        if (liveDocs == null && docs instanceof BitSetIterator bitSetIterator) {
+            // the filter already built a bitset for this search, no need to copy it
+            return bitSetIterator.getBitSet();
+        }
+        if (liveDocs != null) {
+            docs = new FilteredDocIdSetIterator(docs) {
+                @Override
+                protected boolean match(int doc) {
+                    return liveDocs.get(doc);
+                }
+            };
+        }
+        return BitSet.of(docs, context.reader().maxDoc());
+    }
+
+    static boolean preferExactSearch(int numCands, int cost, int maxDoc) {
+        if (cost <= numCands) {
+            return true;
+        }
+        double selectivity = (double) cost / maxDoc;
+        double estimatedGraphVisits = numCands * Math.log(maxDoc) / selectivity;
+        return cost <= estimatedGraphVisits;
+    }
+
+    abstract TopDocs approximateSearch(LeafReader reader, Bits acceptDocs, int visitedLimit) throws IOException;
+
+    abstract TopDocs exactSearch(LeafReader reader, DocIdSetIterator acceptDocs) throws IOException;
+
+    /**
+     * Scores all accepted docs that have a vector and collects the {@code numCands} best of them.
+     */
+    final TopDocs collectTopDocs(DocIdSetIterator acceptDocs, DocIdSetIterator vectors, CurrentVectorScorer scorer) throws IOException {
+        HitQueue queue = new HitQueue(numCands, true);
+        ScoreDoc top = queue.top();
+        int visited = 0;
+        for (int doc = acceptDocs.nextDoc(); doc != NO_MORE_DOCS; doc = acceptDocs.nextDoc()) {
+            int vectorDoc = vectors.docID() < doc ? vectors.advance(doc) : vectors.docID();
+            if (vectorDoc == NO_MORE_DOCS) {
+                break;
+            }
+            if (vectorDoc != doc) {
+                continue;
+            }
+            visited++;
+            float score = scorer.score();
+            if (score > top.score) {
+                top.score = score;
+                top.doc = doc;
+                top = queue.updateTop();
+            }
+        }
+        // remove the sentinel values that were not replaced by a hit
+        while (queue.size() > 0 && queue.top().score < 0) {
+            queue.pop();
+        }
+        ScoreDoc[] topScoreDocs = new ScoreDoc[queue.size()];
+        for (int i = topScoreDocs.length - 1; i >= 0; i--) {
+            topScoreDocs[i] = queue.pop();
+        }
+        return new TopDocs(new TotalHits(visited, TotalHits.Relation.EQUAL_TO), topScoreDocs);
+    }
+
+    @FunctionalInterface
+    interface CurrentVectorScorer {
+        /**
+         * Scores the vector that the vector values are positioned on.
+         */
+        float score() throws IOException;
+    }
+
+    static VectorSimilarityFunction similarityFunction(LeafReader reader, String field) {
+        FieldInfo fieldInfo = reader.getFieldInfos().fieldInfo(field);
+        return fieldInfo == null ? null : fieldInfo.getVectorSimilarityFunction();
+    }
+
+    static class Floats extends FilteredKnnSearchStrategy {
+        private final float[] target;
+
+        Floats(String field, float[] target, int numCands, Query filter) {
+            super(field, numCands, filter);
+            this.target = target;
+        }
+
+        @Override
+        TopDocs approximateSearch(LeafReader reader, Bits acceptDocs, int visitedLimit) throws IOException {
+            if (reader.getFloatVectorValues(field) == null) {
+                return NO_RESULTS;
+            }
+            return reader.searchNearestVectors(field, target, numCands, acceptDocs, visitedLimit);
+        }
+
+        @Override
+        TopDocs exactSearch(LeafReader reader, DocIdSetIterator acceptDocs) throws IOException {
+            FloatVectorValues values = reader.getFloatVectorValues(field);
+            if (values == null) {
+                return NO_RESULTS;
+            }
+            VectorSimilarityFunction similarity = similarityFunction(reader, field);
+            return collectTopDocs(acceptDocs, values, () -> similarity.compare(target, values.vectorValue()));
+        }
+    }
+
+    static class Bytes extends FilteredKnnSearchStrategy {
+        private final byte[] target;
+
+        Bytes(String field, byte[] target, int numCands, Query filter) {
+            super(field, numCands, filter);
+            this.target = target;
+        }
+
+        @Override
+        TopDocs approximateSearch(LeafReader reader, Bits acceptDocs, int visitedLimit) throws IOException {
+            if (reader.getByteVectorValues(field) == null) {
+                return NO_RESULTS;
+            }
+            return reader.searchNearestVectors(field, target, numCands, acceptDocs, visitedLimit);
+        }
+
+        @Override
+        TopDocs exactSearch(LeafReader reader, DocIdSetIterator acceptDocs) throws IOException {
+            ByteVectorValues values = reader.getByteVectorValues(field);
+            if (values == null) {
+                return NO_RESULTS;
+            }
+            VectorSimilarityFunction similarity = similarityFunction(reader, field);
+            return collectTopDocs(acceptDocs, values, () -> similarity.compare(target, values.vectorValue()));
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.VectorUtil;
+import org.elasticsearch.common.util.ByteUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Late-interaction (MaxSim) query over the vectors of a {@code multi_dense_vector} field. Matches all documents that have
+ * a value for the field and scores them by the sum, over the query vectors, of the highest dot product of the query vector
+ * with any of the document's vectors. The document's vectors are read from doc values and each of them is decoded once
+ * and compared to all query vectors before moving to the next one. The sum is scaled with
+ * {@link VectorUtil#scaleMaxInnerProductScore} so that scores are never negative, which keeps their order.
+ * <p>
+ * Scoring all vectors of every matching document is expensive so this query is meant to be used as a rescorer, or in
+ * conjunction with a selective query.
+ */
+public abstract class MaxSimQuery extends Query {
+
+    protected final String field;
+
+    MaxSimQuery(String field) {
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * Returns a new {@link MaxSim} to score documents with. It holds the scratch buffers that scoring a document needs, so it
+     * must not be shared between threads.
+     */
+    abstract MaxSim newMaxSim();
+
+    /**
+     * Computes the sum of the maximum similarities of the query vectors and the vectors of a document.
+     */
+    interface MaxSim {
+        float score(BytesRef value);
+    }
+
+    @Override
+    public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+        return new Weight(this) {
+            @Override
+            public Explanation explain(LeafReaderContext context, int doc) throws IOException {
+                BinaryDocValues values = context.reader().getBinaryDocValues(field);
+                if (values == null || values.advanceExact(doc) == false) {
+                    return Explanation.noMatch("no vectors found for field [" + field + "]");
+                }
+                float score = newMaxSim().score(values.binaryValue());
+                return Explanation.match(score * boost, "max sim of the query vectors with the document's vectors: " + score);
+            }
+
+            @Override
+            public Scorer scorer(LeafReaderContext context) throws IOException {
+                BinaryDocValues values = context.reader().getBinaryDocValues(field);
+                if (values == null) {
+                    return null;
+                }
+                final MaxSim maxSim = newMaxSim();
+                return new Scorer(this) {
+                    @Override
+                    public DocIdSetIterator iterator() {
+                        return values;
+                    }
+
+                    @Override
+                    public float getMaxScore(int upTo) {
+                        return Float.POSITIVE_INFINITY;
+                    }
+
+                    @Override
+                    public float score() throws IOException {
+                        return maxSim.score(values.binaryValue()) * boost;
+                    }
+
+                    @Override
+                    public int docID() {
+                        return values.docID();
+                    }
+                };
+            }
+
+            @Override
+            public boolean isCacheable(LeafReaderContext context) {
+                return DocValues.isCacheable(context, field);
+            }
+        };
+    }
+
+    @Override
+    public void visit(QueryVisitor visitor) {
+        if (visitor.acceptField(field)) {
+            visitor.visitLeaf(this);
+        }
+    }
+
+    public static class Floats extends MaxSimQuery {
+
+        private final float[][] queryVectors;
+
+        public Floats(String field, float[][] queryVectors) {
+            super(field);
+            this.queryVectors = queryVectors;
+        }
+
+        @Override
+        MaxSim newMaxSim() {
+            final int dims = queryVectors[0].length;
+            final float[] vector = new float[dims];
+            final float[] maxSims = new float[queryVectors.length];
+            return value -> {
+                Arrays.fill(maxSims, Float.NEGATIVE_INFINITY);
+                final int numVectors = value.length / (dims * Float.BYTES);
+                int offset = value.offset;
+                for (int v = 0; v < numVectors; v++) {
+                    for (int d = 0; d < dims; d++) {
+                        vector[d] = ByteUtils.readFloatLE(value.bytes, offset);
+                        offset += Float.BYTES;
+                    }
+                    for (int q = 0; q < queryVectors.length; q++) {
+                        maxSims[q] = Math.max(maxSims[q], VectorUtil.dotProduct(queryVectors[q], vector));
+                    }
+                }
+                float sum = 0;
+                for (float maxSim : maxSims) {
+                    sum += maxSim;
+                }
+                return VectorUtil.scaleMaxInnerProductScore(sum);
+            };
+        }
+
+        @Override
+        public String toString(String field) {
+            return "MaxSimQuery.Floats[" + this.field + "][" + queryVectors.length + " vectors]";
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (sameClassAs(o) == false) return false;
+            Floats other = (Floats) o;
+            return field.equals(other.field) && Arrays.deepEquals(queryVectors, other.queryVectors);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(classHash(), field, Arrays.deepHashCode(queryVectors));
+        }
+    }
+
+    public static class Bytes extends MaxSimQuery {
+
+        private final byte[][] queryVectors;
+
+        public Bytes(String field, byte[][] queryVectors) {
+            super(field);
+            this.queryVectors = queryVectors;
+        }
+
+        @Override
+        MaxSim newMaxSim() {
+            final int dims = queryVectors[0].length;
+            final byte[] vector = new byte[dims];
+            final int[] maxSims = new int[queryVectors.length];
+            return value -> {
+                Arrays.fill(maxSims, Integer.MIN_VALUE);
+                final int numVectors = value.length / dims;
+                for (int v = 0; v < numVectors; v++) {
+                    System.arraycopy(value.bytes, value.offset + v * dims, vector, 0, dims);
+                    for (int q = 0; q < queryVectors.length; q++) {
+                        maxSims[q] = Math.max(maxSims[q], VectorUtil.dotProduct(queryVectors[q], vector));
+                    }
+                }
+                long sum = 0;
+                for (int maxSim : maxSims) {
+                    sum += maxSim;
+                }
+                return VectorUtil.scaleMaxInnerProductScore(sum);
+            };
+        }
+
+        @Override
+        public String toString(String field) {
+            return "MaxSimQuery.Bytes[" + this.field + "][" + queryVectors.length + " vectors]";
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (sameClassAs(o) == false) return false;
+            Bytes other = (Bytes) o;
+            return field.equals(other.field) && Arrays.deepEquals(queryVectors, other.queryVectors);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(classHash(), field, Arrays.deepHashCode(queryVectors));
+        }
+    }
+}
@@ -165,6 +165,26 @@ public class DefaultBuiltInExecutorBuilders implements BuiltInExecutorBuilders {
                 EsExecutors.TaskTrackingConfig.DO_NOT_TRACK
             )
         );
+        result.put(
+            ThreadPool.Names.TRANSLOG_SYNC,
+            new FixedExecutorBuilder(
+                settings,
+                ThreadPool.Names.TRANSLOG_SYNC,
+                halfProcMaxAt5,
+                -1,
+                EsExecutors.TaskTrackingConfig.DO_NOT_TRACK
+            )
+        );
+        result.put(
+            ThreadPool.Names.VECTOR_MERGE,
+            new FixedExecutorBuilder(
+                settings,
+                ThreadPool.Names.VECTOR_MERGE,
+                halfProc,
+                -1,
+                EsExecutors.TaskTrackingConfig.DO_NOT_TRACK
+            )
+        );
         result.put(
             ThreadPool.Names.CLUSTER_COORDINATION,
             new FixedExecutorBuilder(settings, ThreadPool.Names.CLUSTER_COORDINATION, 1, -1, EsExecutors.TaskTrackingConfig.DO_NOT_TRACK)
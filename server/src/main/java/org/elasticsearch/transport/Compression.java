@@ -19,6 +19,8 @@ import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.core.Booleans;
 import org.elasticsearch.lz4.ESLZ4Compressor;
 import org.elasticsearch.lz4.ESLZ4Decompressor;
+import org.elasticsearch.nativeaccess.NativeAccess;
+import org.elasticsearch.nativeaccess.Zstd;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -27,14 +29,20 @@ public class Compression {
 
     public enum Scheme {
         LZ4,
-        DEFLATE;
+        DEFLATE,
+        ZSTD;
 
         static final TransportVersion LZ4_VERSION = TransportVersions.V_7_14_0;
+        static final TransportVersion ZSTD_VERSION = TransportVersions.ZSTD_TRANSPORT_COMPRESSION;
         static final int HEADER_LENGTH = 4;
         private static final byte[] DEFLATE_HEADER = new byte[] { 'D', 'F', 'L', '\0' };
         private static final byte[] LZ4_HEADER = new byte[] { 'L', 'Z', '4', '\0' };
+        private static final byte[] ZSTD_HEADER = new byte[] { 'Z', 'S', 'T', '\0' };
         private static final int LZ4_BLOCK_SIZE;
         private static final boolean USE_FORKED_LZ4;
+        // zstd's own maximum block size, larger blocks would not improve the ratio
+        static final int ZSTD_BLOCK_SIZE = 128 * 1024;
+        static final int ZSTD_LEVEL = 3;
 
         static {
             String blockSizeString = System.getProperty("es.transport.compression.lz4_block_size");
@@ -69,6 +77,15 @@ public class Compression {
             }
         }
 
+        public static boolean isZstd(BytesReference bytes) {
+            byte firstByte = bytes.get(0);
+            if (firstByte != Scheme.ZSTD_HEADER[0]) {
+                return false;
+            } else {
+                return validateHeader(bytes, ZSTD_HEADER);
+            }
+        }
+
         private static boolean validateHeader(BytesReference bytes, byte[] header) {
             for (int i = 1; i < Compression.Scheme.HEADER_LENGTH; ++i) {
                 if (bytes.get(i) != header[i]) {
@@ -96,6 +113,27 @@ public class Compression {
             }
             return new ReuseBuffersLZ4BlockOutputStream(outputStream, LZ4_BLOCK_SIZE, lz4Compressor);
         }
+
+        /**
+         * Returns the zstd bindings, or {@code null} if native access is not available on this platform, in which case
+         * {@link #ZSTD} can't be used to compress messages.
+         */
+        public static Zstd zstd() {
+            return ZstdHolder.ZSTD;
+        }
+
+        public static OutputStream zstdOutputStream(OutputStream outputStream) throws IOException {
+            final Zstd zstd = zstd();
+            if (zstd == null) {
+                throw new IllegalStateException("zstd compression requires native access");
+            }
+            outputStream.write(ZSTD_HEADER);
+            return new ReuseBuffersZstdBlockOutputStream(outputStream, ZSTD_BLOCK_SIZE, ZSTD_LEVEL, zstd);
+        }
+    }
+
+    private static final class ZstdHolder {
+        private static final Zstd ZSTD = NativeAccess.instance().getZstd();
     }
 
     public enum Enabled {
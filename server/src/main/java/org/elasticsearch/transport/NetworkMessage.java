@@ -55,6 +55,11 @@ public abstract class NetworkMessage {
     }
 
     private static Compression.Scheme adjustedScheme(TransportVersion version, Compression.Scheme compressionScheme) {
+        if (compressionScheme == Compression.Scheme.ZSTD
+            && (version.before(Compression.Scheme.ZSTD_VERSION) || Compression.Scheme.zstd() == null)) {
+            // fall back to the default scheme if the remote node can't decompress zstd or if native access is not available
+            compressionScheme = Compression.Scheme.LZ4;
+        }
         return compressionScheme == Compression.Scheme.LZ4 && version.before(Compression.Scheme.LZ4_VERSION) ? null : compressionScheme;
     }
 }
@@ -68,6 +68,8 @@ abstract class OutboundMessage extends NetworkMessage {
             } else if (message instanceof RemoteTransportException) {
                 stream.writeException((RemoteTransportException) message);
                 zeroCopyBuffer = BytesArray.EMPTY;
+            } else if (compress == false && message instanceof TrailingBytesMessage trailingBytesMessage) {
+                zeroCopyBuffer = trailingBytesMessage.writeWithoutTrailingBytes(stream);
             } else {
                 message.writeTo(stream);
                 zeroCopyBuffer = BytesArray.EMPTY;
@@ -101,6 +103,8 @@ abstract class OutboundMessage extends NetworkMessage {
             );
         } else if (compressionScheme == Compression.Scheme.LZ4) {
             return new OutputStreamStreamOutput(Compression.Scheme.lz4OutputStream(Streams.noCloseStream(bytesStream)));
+        } else if (compressionScheme == Compression.Scheme.ZSTD) {
+            return new OutputStreamStreamOutput(Compression.Scheme.zstdOutputStream(Streams.noCloseStream(bytesStream)));
         } else {
             throw new IllegalArgumentException("Invalid compression scheme: " + compressionScheme);
         }
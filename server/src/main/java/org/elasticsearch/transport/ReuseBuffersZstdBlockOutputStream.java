@@ -0,0 +1,198 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.transport;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.util.ByteUtils;
+import org.elasticsearch.nativeaccess.CloseableByteBuffer;
+import org.elasticsearch.nativeaccess.Zstd;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * Compresses data into blocks of zstd compressed data, using the native zstd bindings. Each block is preceded by its compressed
+ * and decompressed lengths, and the stream is terminated by an empty block. See {@link ZstdTransportDecompressor} for the
+ * decompression side.
+ * <p>
+ * Like {@link ReuseBuffersLZ4BlockOutputStream}, the heap buffers used to accumulate the uncompressed block and to copy the
+ * compressed block back from native memory are reused from a thread local. A single thread should fully compress the stream in
+ * one go. The native memory is reused by all the blocks of the stream, see {@link ZstdBlockBuffers}, and released once the stream
+ * is finished or closed.
+ */
+public class ReuseBuffersZstdBlockOutputStream extends FilterOutputStream {
+
+    private static class ArrayBox {
+        private byte[] uncompressed = BytesRef.EMPTY_BYTES;
+        private byte[] compressed = BytesRef.EMPTY_BYTES;
+        private boolean owned = false;
+
+        private void markOwnership(int uncompressedBlockSize, int compressedMaxSize) {
+            assert owned == false;
+            owned = true;
+            if (uncompressedBlockSize > uncompressed.length) {
+                uncompressed = new byte[uncompressedBlockSize];
+            }
+            if (compressedMaxSize > compressed.length) {
+                compressed = new byte[compressedMaxSize];
+            }
+        }
+
+        private void release() {
+            owned = false;
+        }
+    }
+
+    private static final ThreadLocal<ArrayBox> ARRAY_BOX = ThreadLocal.withInitial(ArrayBox::new);
+
+    static final int HEADER_LENGTH = 4 // compressed length
+        + 4;        // decompressed length
+
+    static final int MAX_BLOCK_SIZE = 1 << 20;
+
+    private final int blockSize;
+    private final int level;
+    private final Zstd zstd;
+    private final ArrayBox arrayBox;
+    private final ZstdBlockBuffers buffers = new ZstdBlockBuffers();
+    private final byte[] buffer;
+    private final byte[] compressedBuffer;
+    private boolean finished;
+    private int o;
+
+    /**
+     * Creates a new {@link OutputStream} that compresses blocks of up to {@code blockSize} bytes at the given zstd level.
+     *
+     * @param out       the {@link OutputStream} to feed
+     * @param blockSize the maximum number of bytes to compress at once, must be &gt; 0 and &lt;= 1 M
+     * @param level     the zstd compression level
+     * @param zstd      the zstd bindings
+     */
+    public ReuseBuffersZstdBlockOutputStream(OutputStream out, int blockSize, int level, Zstd zstd) {
+        super(out);
+        if (blockSize <= 0 || blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("blockSize must be > 0 and <= " + MAX_BLOCK_SIZE + ", got " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.level = level;
+        this.zstd = Objects.requireNonNull(zstd);
+        this.arrayBox = ARRAY_BOX.get();
+        arrayBox.markOwnership(blockSize, HEADER_LENGTH + zstd.compressBound(blockSize));
+        this.buffer = arrayBox.uncompressed;
+        this.compressedBuffer = arrayBox.compressed;
+        o = 0;
+        finished = false;
+    }
+
+    private void ensureNotFinished() {
+        if (finished) {
+            throw new IllegalStateException("This stream is already closed");
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureNotFinished();
+        if (o == blockSize) {
+            flushBufferedData();
+        }
+        buffer[o++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        ensureNotFinished();
+
+        while (o + len > blockSize) {
+            final int l = blockSize - o;
+            System.arraycopy(b, off, buffer, o, l);
+            o = blockSize;
+            flushBufferedData();
+            off += l;
+            len -= l;
+        }
+        System.arraycopy(b, off, buffer, o, len);
+        o += len;
+    }
+
+    @Override
+    public void write(byte[] b) throws IOException {
+        ensureNotFinished();
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (finished == false) {
+                finish();
+            }
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+        } finally {
+            arrayBox.release();
+            buffers.close();
+        }
+    }
+
+    private void flushBufferedData() throws IOException {
+        if (o == 0) {
+            return;
+        }
+        final CloseableByteBuffer src = buffers.src(o);
+        final CloseableByteBuffer dest = buffers.dest(zstd.compressBound(o));
+        src.buffer().put(buffer, 0, o);
+        src.buffer().flip();
+        final int compressedLength = zstd.compress(dest, src, level);
+        dest.buffer().get(0, compressedBuffer, HEADER_LENGTH, compressedLength);
+        ByteUtils.writeIntLE(compressedLength, compressedBuffer, 0);
+        ByteUtils.writeIntLE(o, compressedBuffer, 4);
+        out.write(compressedBuffer, 0, HEADER_LENGTH + compressedLength);
+        o = 0;
+    }
+
+    /**
+     * Flushes the underlying stream. Pending data is only compressed and written once the current block is full, or on
+     * {@link #finish()} or {@link #close()}.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Same as {@link #close()} except that it doesn't close the underlying stream.
+     * This can be useful if you want to keep on using the underlying stream.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    public void finish() throws IOException {
+        ensureNotFinished();
+        flushBufferedData();
+        ByteUtils.writeIntLE(0, compressedBuffer, 0);
+        ByteUtils.writeIntLE(0, compressedBuffer, 4);
+        out.write(compressedBuffer, 0, HEADER_LENGTH);
+        finished = true;
+        buffers.close();
+        out.flush();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(out=" + out + ", blockSize=" + blockSize + ", level=" + level + ")";
+    }
+}
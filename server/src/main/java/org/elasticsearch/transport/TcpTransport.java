@@ -242,14 +242,10 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
         private final TransportVersion version;
         private final Compression.Enabled compress;
         private final Compression.Scheme compressionScheme;
+        private final boolean zstdAvailable;
         private final AtomicBoolean isClosing = new AtomicBoolean(false);
 
-        NodeChannels(
-            DiscoveryNode node,
-            List<TcpChannel> channels,
-            ConnectionProfile connectionProfile,
-            TransportVersion handshakeVersion
-        ) {
+        NodeChannels(DiscoveryNode node, List<TcpChannel> channels, ConnectionProfile connectionProfile, HandshakeResult handshakeResult) {
             this.node = node;
             this.channels = Collections.unmodifiableList(channels);
             assert channels.size() == connectionProfile.getNumConnections()
@@ -260,9 +256,10 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
                     typeMapping.put(type, handle);
                 }
             }
-            version = handshakeVersion;
+            version = handshakeResult.transportVersion();
             compress = connectionProfile.getCompressionEnabled();
             compressionScheme = connectionProfile.getCompressionScheme();
+            zstdAvailable = handshakeResult.zstdAvailable();
         }
 
         @Override
@@ -331,7 +328,10 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
                 || (compress == Compression.Enabled.INDEXING_DATA
                     && request instanceof RawIndexingDataTransportRequest
                     && ((RawIndexingDataTransportRequest) request).isRawIndexingData());
-            return shouldCompress ? compressionScheme : null;
+            if (shouldCompress == false) {
+                return null;
+            }
+            return compressionSchemeForRemote(compressionScheme, zstdAvailable);
         }
 
         @Override
@@ -947,11 +947,30 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
         }
     }
 
+    /**
+     * The outcome of the transport-level handshake with a remote node.
+     *
+     * @param transportVersion the transport version to use for the messages sent to the remote node
+     * @param zstdAvailable    whether the remote node advertised that it can decompress {@link Compression.Scheme#ZSTD} messages
+     */
+    public record HandshakeResult(TransportVersion transportVersion, boolean zstdAvailable) {}
+
+    /**
+     * Returns the compression scheme to use for requests sent to a remote node: {@link Compression.Scheme#ZSTD} is only sent to
+     * nodes that advertised in the handshake that they can decompress it, the others get {@link Compression.Scheme#LZ4} instead.
+     */
+    static Compression.Scheme compressionSchemeForRemote(Compression.Scheme scheme, boolean remoteZstdAvailable) {
+        if (scheme == Compression.Scheme.ZSTD && remoteZstdAvailable == false) {
+            return Compression.Scheme.LZ4;
+        }
+        return scheme;
+    }
+
     public void executeHandshake(
         DiscoveryNode node,
         TcpChannel channel,
         ConnectionProfile profile,
-        ActionListener<TransportVersion> listener
+        ActionListener<HandshakeResult> listener
     ) {
         long requestId = responseHandlers.newRequestId();
         handshaker.sendHandshake(requestId, node, channel, profile.getHandshakeTimeout(), listener);
@@ -1113,10 +1132,10 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
             if (countDown.countDown()) {
                 final TcpChannel handshakeChannel = channels.get(0);
                 try {
-                    executeHandshake(node, handshakeChannel, connectionProfile, ActionListener.wrap(responseVersion -> {
+                    executeHandshake(node, handshakeChannel, connectionProfile, ActionListener.wrap(handshakeResult -> {
                         final long connectionId = outboundConnectionCount.incrementAndGet();
                         logger.debug("opened transport connection [{}] to [{}] using channels [{}]", connectionId, node, channels);
-                        NodeChannels nodeChannels = new NodeChannels(node, channels, connectionProfile, responseVersion);
+                        NodeChannels nodeChannels = new NodeChannels(node, channels, connectionProfile, handshakeResult);
                         long relativeMillisTime = threadPool.relativeTimeInMillis();
                         nodeChannels.channels.forEach(ch -> {
                             // Mark the channel init time
@@ -0,0 +1,33 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+
+package org.elasticsearch.transport;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+
+import java.io.IOException;
+
+/**
+ * A message whose serialized form ends with a potentially large buffer, for instance a chunk of a file. Unless the message is
+ * compressed, the network layer appends this buffer to the serialized message as is instead of copying it into the buffers
+ * that the rest of the message is serialized to, like it does for {@link BytesTransportRequest}.
+ */
+public interface TrailingBytesMessage extends Writeable {
+
+    /**
+     * Writes this message except for the returned bytes, which must be appended to the output right after. Together they must be
+     * identical to the output of {@link #writeTo}, so that the receiver can't tell how the message was sent. Returns an empty
+     * reference if the message was written in full, for instance because the receiver's transport version requires a different
+     * order of fields.
+     */
+    BytesReference writeWithoutTrailingBytes(StreamOutput out) throws IOException;
+}
@@ -18,6 +18,7 @@ import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.threadpool.ThreadPool;
 
@@ -128,17 +129,29 @@ final class TransportHandshaker {
     private final ThreadPool threadPool;
     private final HandshakeRequestSender handshakeRequestSender;
     private final boolean ignoreDeserializationErrors;
+    private final boolean zstdAvailable;
 
     TransportHandshaker(
         TransportVersion version,
         ThreadPool threadPool,
         HandshakeRequestSender handshakeRequestSender,
         boolean ignoreDeserializationErrors
+    ) {
+        this(version, threadPool, handshakeRequestSender, ignoreDeserializationErrors, Compression.Scheme.zstd() != null);
+    }
+
+    TransportHandshaker(
+        TransportVersion version,
+        ThreadPool threadPool,
+        HandshakeRequestSender handshakeRequestSender,
+        boolean ignoreDeserializationErrors,
+        boolean zstdAvailable
     ) {
         this.version = version;
         this.threadPool = threadPool;
         this.handshakeRequestSender = handshakeRequestSender;
         this.ignoreDeserializationErrors = ignoreDeserializationErrors;
+        this.zstdAvailable = zstdAvailable;
     }
 
     void sendHandshake(
@@ -146,7 +159,7 @@ final class TransportHandshaker {
         DiscoveryNode node,
         TcpChannel channel,
         TimeValue timeout,
-        ActionListener<TransportVersion> listener
+        ActionListener<TcpTransport.HandshakeResult> listener
     ) {
         numHandshakes.inc();
         final HandshakeResponseHandler handler = new HandshakeResponseHandler(requestId, listener);
@@ -175,9 +188,10 @@ final class TransportHandshaker {
     }
 
     void handleHandshake(TransportChannel channel, long requestId, StreamInput stream) throws IOException {
+        final HandshakeRequest request;
         try {
             // Must read the handshake request to exhaust the stream
-            new HandshakeRequest(stream);
+            request = new HandshakeRequest(stream);
         } catch (Exception e) {
             assert ignoreDeserializationErrors : e;
             throw e;
@@ -196,7 +210,9 @@ final class TransportHandshaker {
             assert ignoreDeserializationErrors : exception;
             throw exception;
         }
-        channel.sendResponse(new HandshakeResponse(this.version));
+        // only nodes that know about zstd expect its availability in the response
+        final boolean advertiseZstd = request.version != null && request.version.onOrAfter(Compression.Scheme.ZSTD_VERSION);
+        channel.sendResponse(new HandshakeResponse(this.version, advertiseZstd ? zstdAvailable : null));
     }
 
     TransportResponseHandler<HandshakeResponse> removeHandlerForHandshake(long requestId) {
@@ -214,17 +230,17 @@ final class TransportHandshaker {
     private class HandshakeResponseHandler implements TransportResponseHandler<HandshakeResponse> {
 
         private final long requestId;
-        private final ActionListener<TransportVersion> listener;
+        private final ActionListener<TcpTransport.HandshakeResult> listener;
         private final AtomicBoolean isDone = new AtomicBoolean(false);
 
-        private HandshakeResponseHandler(long requestId, ActionListener<TransportVersion> listener) {
+        private HandshakeResponseHandler(long requestId, ActionListener<TcpTransport.HandshakeResult> listener) {
             this.requestId = requestId;
             this.listener = listener;
         }
 
         @Override
         public HandshakeResponse read(StreamInput in) throws IOException {
-            return new HandshakeResponse(in);
+            return new HandshakeResponse(in, version);
         }
 
         @Override
@@ -247,7 +263,8 @@ final class TransportHandshaker {
                         )
                     );
                 } else {
-                    listener.onResponse(responseVersion);
+                    // nodes that don't advertise zstd can't be assumed to decompress it
+                    listener.onResponse(new TcpTransport.HandshakeResult(responseVersion, response.zstdAvailable == Boolean.TRUE));
                 }
             }
         }
@@ -306,25 +323,43 @@ final class TransportHandshaker {
     static final class HandshakeResponse extends TransportResponse {
 
         private final TransportVersion responseVersion;
+        // whether the responding node can decompress zstd, or null if the requesting node doesn't expect it in the response
+        @Nullable
+        private final Boolean zstdAvailable;
 
-        HandshakeResponse(TransportVersion responseVersion) {
+        HandshakeResponse(TransportVersion responseVersion, @Nullable Boolean zstdAvailable) {
             this.responseVersion = responseVersion;
+            this.zstdAvailable = zstdAvailable;
         }
 
-        private HandshakeResponse(StreamInput in) throws IOException {
+        private HandshakeResponse(StreamInput in, TransportVersion requestVersion) throws IOException {
             super(in);
             responseVersion = TransportVersion.readVersion(in);
+            // the responding node only sends its zstd availability if both nodes know about zstd
+            if (responseVersion.onOrAfter(Compression.Scheme.ZSTD_VERSION) && requestVersion.onOrAfter(Compression.Scheme.ZSTD_VERSION)) {
+                zstdAvailable = in.readBoolean();
+            } else {
+                zstdAvailable = null;
+            }
         }
 
         @Override
         public void writeTo(StreamOutput out) throws IOException {
             assert responseVersion != null;
             TransportVersion.writeVersion(responseVersion, out);
+            if (zstdAvailable != null) {
+                out.writeBoolean(zstdAvailable);
+            }
         }
 
         TransportVersion getResponseVersion() {
             return responseVersion;
         }
+
+        @Nullable
+        Boolean getZstdAvailable() {
+            return zstdAvailable;
+        }
     }
 
     @FunctionalInterface
@@ -0,0 +1,71 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.transport;
+
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.nativeaccess.CloseableByteBuffer;
+import org.elasticsearch.nativeaccess.NativeAccess;
+
+/**
+ * The native source and destination buffers used to compress or decompress the zstd blocks of a single message. The native bindings
+ * can't read from or write to heap memory, so the blocks are copied through these buffers, which are reused by all the blocks of the
+ * message. They only grow to the size of its largest block, which is bounded by {@link ReuseBuffersZstdBlockOutputStream#MAX_BLOCK_SIZE}
+ * and its compress bound, and are released on {@link #close()}.
+ * <p>
+ * Like any {@link CloseableByteBuffer} they must be used and released by the thread that allocated them. A message is compressed by
+ * the thread that serializes it, and decompressed by the network thread of the channel it was received on.
+ */
+final class ZstdBlockBuffers implements Releasable {
+
+    private CloseableByteBuffer src;
+    private CloseableByteBuffer dest;
+
+    /**
+     * Returns the source buffer, with its position set to 0 and its limit to {@code length}.
+     */
+    CloseableByteBuffer src(int length) {
+        src = ensureCapacity(src, length);
+        return src;
+    }
+
+    /**
+     * Returns the destination buffer, with its position set to 0 and its limit to {@code length}.
+     */
+    CloseableByteBuffer dest(int length) {
+        dest = ensureCapacity(dest, length);
+        return dest;
+    }
+
+    private static CloseableByteBuffer ensureCapacity(CloseableByteBuffer buffer, int length) {
+        if (buffer == null || length > buffer.buffer().capacity()) {
+            if (buffer != null) {
+                buffer.close();
+            }
+            buffer = NativeAccess.instance().newBuffer(length);
+        }
+        buffer.buffer().clear().limit(length);
+        return buffer;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (src != null) {
+                src.close();
+            }
+        } finally {
+            src = null;
+            if (dest != null) {
+                dest.close();
+                dest = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.transport;
+
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefIterator;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.recycler.Recycler;
+import org.elasticsearch.nativeaccess.CloseableByteBuffer;
+import org.elasticsearch.nativeaccess.Zstd;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+
+/**
+ * Decompresses the blocks written by {@link ReuseBuffersZstdBlockOutputStream}. The compressed bytes of a block are copied straight
+ * from the network buffers into native memory and decompressed into native memory, from which they are copied into recycled pages.
+ * The native memory is reused by all the blocks of the message, see {@link ZstdBlockBuffers}, and released once the end of the
+ * stream is reached or the decompressor is closed.
+ */
+public class ZstdTransportDecompressor extends TransportDecompressor {
+
+    private enum State {
+        INIT_BLOCK,
+        DECOMPRESS_DATA,
+        FINISHED,
+        CORRUPTED
+    }
+
+    private final Zstd zstd;
+
+    private final ZstdBlockBuffers buffers = new ZstdBlockBuffers();
+
+    private State currentState = State.INIT_BLOCK;
+
+    /**
+     * Compressed length of current incoming block.
+     */
+    private int compressedLength;
+
+    /**
+     * Decompressed length of current incoming block.
+     */
+    private int decompressedLength;
+
+    public ZstdTransportDecompressor(Recycler<BytesRef> recycler) {
+        super(recycler);
+        this.zstd = Compression.Scheme.zstd();
+        if (zstd == null) {
+            throw new IllegalStateException("received a zstd compressed message but zstd requires native access");
+        }
+    }
+
+    @Override
+    public Compression.Scheme getScheme() {
+        return Compression.Scheme.ZSTD;
+    }
+
+    @Override
+    public int decompress(BytesReference bytesReference) throws IOException {
+        int bytesConsumed = 0;
+        if (hasSkippedHeader == false) {
+            hasSkippedHeader = true;
+            int esHeaderLength = Compression.Scheme.HEADER_LENGTH;
+            bytesReference = bytesReference.slice(esHeaderLength, bytesReference.length() - esHeaderLength);
+            bytesConsumed += esHeaderLength;
+        }
+
+        while (true) {
+            int consumed = decodeBlock(bytesReference);
+            bytesConsumed += consumed;
+            int newLength = bytesReference.length() - consumed;
+            if (consumed > 0 && newLength > 0) {
+                bytesReference = bytesReference.slice(consumed, newLength);
+            } else {
+                break;
+            }
+        }
+
+        return bytesConsumed;
+    }
+
+    private int decodeBlock(BytesReference reference) throws IOException {
+        try {
+            return switch (currentState) {
+                case INIT_BLOCK -> readBlockHeader(reference);
+                case DECOMPRESS_DATA -> decompressBlock(reference);
+                case FINISHED -> 0;
+                case CORRUPTED -> throw new IllegalStateException("zstd stream corrupted.");
+            };
+        } catch (IOException | RuntimeException e) {
+            currentState = State.CORRUPTED;
+            throw e;
+        }
+    }
+
+    private int readBlockHeader(BytesReference reference) {
+        final int headerLength = ReuseBuffersZstdBlockOutputStream.HEADER_LENGTH;
+        if (reference.length() < headerLength) {
+            return 0;
+        }
+        final int compressedLength = reference.getIntLE(0);
+        final int decompressedLength = reference.getIntLE(4);
+        final int maxBlockSize = ReuseBuffersZstdBlockOutputStream.MAX_BLOCK_SIZE;
+        if (decompressedLength < 0 || decompressedLength > maxBlockSize) {
+            throw new IllegalStateException(
+                String.format(Locale.ROOT, "invalid decompressedLength: %d (expected: 0-%d)", decompressedLength, maxBlockSize)
+            );
+        }
+        final int maxCompressedLength = decompressedLength == 0 ? 0 : zstd.compressBound(decompressedLength);
+        if (compressedLength < 0 || compressedLength > maxCompressedLength || (compressedLength == 0) != (decompressedLength == 0)) {
+            throw new IllegalStateException(
+                String.format(
+                    Locale.ROOT,
+                    "stream corrupted: compressedLength(%d) and decompressedLength(%d) mismatch",
+                    compressedLength,
+                    decompressedLength
+                )
+            );
+        }
+        if (decompressedLength == 0) {
+            currentState = State.FINISHED;
+            buffers.close();
+        } else {
+            this.compressedLength = compressedLength;
+            this.decompressedLength = decompressedLength;
+            currentState = State.DECOMPRESS_DATA;
+        }
+        return headerLength;
+    }
+
+    private int decompressBlock(BytesReference reference) throws IOException {
+        if (reference.length() < compressedLength) {
+            return 0;
+        }
+        final CloseableByteBuffer src = buffers.src(compressedLength);
+        final CloseableByteBuffer dest = buffers.dest(decompressedLength);
+        final ByteBuffer srcBuffer = src.buffer();
+        final BytesRefIterator iterator = reference.slice(0, compressedLength).iterator();
+        BytesRef ref;
+        while ((ref = iterator.next()) != null) {
+            srcBuffer.put(ref.bytes, ref.offset, ref.length);
+        }
+        srcBuffer.flip();
+        final int decompressed = zstd.decompress(dest, src);
+        if (decompressed != decompressedLength) {
+            throw new IllegalStateException(
+                String.format(Locale.ROOT, "expected %d decompressed bytes, got %d", decompressedLength, decompressed)
+            );
+        }
+
+        final ByteBuffer destBuffer = dest.buffer();
+        int bytesToCopy = decompressedLength;
+        int uncompressedOffset = 0;
+        while (bytesToCopy > 0) {
+            maybeAddNewPage();
+            final Recycler.V<BytesRef> page = pages.getLast();
+            int toCopy = Math.min(bytesToCopy, pageLength - pageOffset);
+            destBuffer.get(uncompressedOffset, page.v().bytes, page.v().offset + pageOffset, toCopy);
+            pageOffset += toCopy;
+            bytesToCopy -= toCopy;
+            uncompressedOffset += toCopy;
+        }
+        currentState = State.INIT_BLOCK;
+        return compressedLength;
+    }
+
+    @Override
+    public void close() {
+        try {
+            super.close();
+        } finally {
+            buffers.close();
+        }
+    }
+
+    /**
+     * Returns {@code true} if and only if the end of the compressed stream
+     * has been reached.
+     */
+    public boolean isClosed() {
+        return currentState == State.FINISHED;
+    }
+}
@@ -14,6 +14,7 @@ import org.elasticsearch.action.admin.indices.stats.CommonStats;
 import org.elasticsearch.action.admin.indices.stats.CommonStatsFlags;
 import org.elasticsearch.action.admin.indices.stats.IndexShardStats;
 import org.elasticsearch.action.admin.indices.stats.ShardStats;
+import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.coordination.ClusterStateSerializationStats;
 import org.elasticsearch.cluster.coordination.PendingClusterStateStats;
 import org.elasticsearch.cluster.coordination.PublishClusterStateStats;
@@ -90,6 +91,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.IntStream;
@@ -347,6 +349,15 @@ public class NodeStatsTests extends ESTestCase {
                             publishStats.getIncompatibleClusterStateDiffReceivedCount(),
                             deserializedPublishStats.getIncompatibleClusterStateDiffReceivedCount()
                         );
+                        final ClusterStateSerializationStats serializationStats = publishStats.getClusterStateSerializationStats();
+                        final ClusterStateSerializationStats deserializedSerializationStats = deserializedPublishStats
+                            .getClusterStateSerializationStats();
+                        assertEquals(
+                            serializationStats.getTotalDiffSerializationTimeInNanos(),
+                            deserializedSerializationStats.getTotalDiffSerializationTimeInNanos()
+                        );
+                        assertEquals(serializationStats.getFullStateSections(), deserializedSerializationStats.getFullStateSections());
+                        assertEquals(serializationStats.getDiffSections(), deserializedSerializationStats.getDiffSections());
                     }
 
                     final ClusterStateUpdateStats clusterStateUpdateStats = discoveryStats.getClusterStateUpdateStats();
@@ -925,8 +936,12 @@ public class NodeStatsTests extends ESTestCase {
                             randomNonNegativeLong(),
                             randomNonNegativeLong(),
                             randomNonNegativeLong(),
+                            randomSerializationSectionStats(),
+                            randomNonNegativeLong(),
+                            randomNonNegativeLong(),
+                            randomNonNegativeLong(),
                             randomNonNegativeLong(),
-                            randomNonNegativeLong()
+                            randomSerializationSectionStats()
                         )
                     )
                     : null,
@@ -1086,6 +1101,17 @@ public class NodeStatsTests extends ESTestCase {
         );
     }
 
+    private static Map<String, ClusterStateSerializationStats.SectionStats> randomSerializationSectionStats() {
+        final Map<String, ClusterStateSerializationStats.SectionStats> sections = new LinkedHashMap<>();
+        for (ClusterState.Section section : randomSubsetOf(List.of(ClusterState.Section.values()))) {
+            sections.put(
+                section.getName(),
+                new ClusterStateSerializationStats.SectionStats(randomNonNegativeLong(), randomNonNegativeLong())
+            );
+        }
+        return sections;
+    }
+
     private static TimeSeries randomTimeSeries() {
         if (randomBoolean()) {
             long total = randomLongBetween(0, 1024);
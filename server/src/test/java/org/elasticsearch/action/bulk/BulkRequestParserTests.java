@@ -11,6 +11,7 @@ package org.elasticsearch.action.bulk;
 
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.core.RestApiVersion;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.xcontent.XContentType;
@@ -307,4 +308,76 @@ public class BulkRequestParserTests extends ESTestCase {
         }, req -> fail(), req -> fail());
     }
 
+    public void testIncrementalParsing() throws IOException {
+        BytesArray request = new BytesArray("""
+            { "index":{ "_id": "1" } }
+            { "field": "value" }
+            { "delete":{ "_id": "2" } }
+            { "update":{ "_id": "3" } }
+            { "doc": { "field": "value" } }
+            { "create":{ "_id": "4" } }
+            {}
+            """);
+        List<String> ids = new ArrayList<>();
+        BulkRequestParser.IncrementalParser parser = new BulkRequestParser(randomBoolean(), RestApiVersion.current()).incrementalParser(
+            "foo",
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            false,
+            XContentType.JSON,
+            (indexRequest, type) -> ids.add(indexRequest.id()),
+            updateRequest -> ids.add(updateRequest.id()),
+            deleteRequest -> ids.add(deleteRequest.id())
+        );
+
+        // feed the body in random pieces, passing the bytes that weren't consumed again with the next piece
+        int consumed = 0;
+        int received = 0;
+        while (received < request.length()) {
+            received = randomIntBetween(received + 1, request.length());
+            BytesReference data = request.slice(consumed, received - consumed);
+            int parsed = parser.parse(data, received == request.length());
+            assertThat(parsed, Matchers.lessThanOrEqualTo(data.length()));
+            consumed += parsed;
+        }
+        assertEquals(request.length(), consumed);
+        assertEquals(List.of("1", "2", "3", "4"), ids);
+    }
+
+    public void testIncrementalParsingWaitsForSource() throws IOException {
+        List<String> ids = new ArrayList<>();
+        BulkRequestParser.IncrementalParser parser = new BulkRequestParser(randomBoolean(), RestApiVersion.current()).incrementalParser(
+            "foo",
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            false,
+            XContentType.JSON,
+            (indexRequest, type) -> ids.add(indexRequest.id()),
+            req -> fail(),
+            req -> fail()
+        );
+        BytesArray actionLine = new BytesArray("""
+            { "index":{ "_id": "1" } }
+            """);
+        assertEquals(0, parser.parse(actionLine, false));
+        assertEquals(List.of(), ids);
+
+        BytesArray request = new BytesArray("""
+            { "index":{ "_id": "1" } }
+            {}
+            """);
+        assertEquals(request.length(), parser.parse(request, false));
+        assertEquals(List.of("1"), ids);
+
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> parser.parse(new BytesArray("{}"), true));
+        assertEquals("The bulk request must be terminated by a newline [\\n]", e.getMessage());
+    }
 }
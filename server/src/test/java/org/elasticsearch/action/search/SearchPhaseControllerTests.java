@@ -31,6 +31,7 @@ import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.lucene.search.TopDocsAndMaxScore;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.text.Text;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.concurrent.AtomicArray;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
@@ -1380,6 +1381,97 @@ public class SearchPhaseControllerTests extends ESTestCase {
         assertThat(circuitBreaker.allocated, equalTo(0L));
     }
 
+    public void testPartialReduceOnBufferedAggsSize() throws Exception {
+        int numShards = randomIntBetween(2, 50);
+        AssertingCircuitBreaker circuitBreaker = new AssertingCircuitBreaker(CircuitBreaker.REQUEST);
+        // any buffered agg is above the budget, so a partial reduce is triggered as soon as enough shard results are buffered
+        circuitBreaker.limit = QueryPhaseResultConsumer.BUFFERED_AGGS_BREAKER_LIMIT_DIVISOR;
+        assertThat(QueryPhaseResultConsumer.maxBufferedAggsBytes(circuitBreaker), equalTo(1L));
+        assertThat(consumeMaxAggs(circuitBreaker, numShards), equalTo(expectedReducePhasesWithEarlyReduces(numShards)));
+        assertThat(circuitBreaker.allocated, equalTo(0L));
+    }
+
+    public void testPartialReduceWhenBreakerIsNearlyFull() throws Exception {
+        int numShards = randomIntBetween(2, 50);
+        AssertingCircuitBreaker circuitBreaker = new AssertingCircuitBreaker(CircuitBreaker.REQUEST);
+        // a tenth of the limit is far more than the buffered aggs, so only the breaker usage of other searches can trigger reduces
+        circuitBreaker.limit = ByteSizeValue.ofGb(1).getBytes();
+        assertThat(consumeMaxAggs(circuitBreaker, numShards), equalTo(1));
+        assertThat(circuitBreaker.allocated, equalTo(0L));
+
+        // concurrent searches leave no room in the breaker, but partial reduces still fold several shard results each
+        circuitBreaker.usedByOthers = circuitBreaker.limit;
+        assertThat(QueryPhaseResultConsumer.maxBufferedAggsBytes(circuitBreaker), equalTo(0L));
+        assertThat(consumeMaxAggs(circuitBreaker, numShards), equalTo(expectedReducePhasesWithEarlyReduces(numShards)));
+        assertThat(circuitBreaker.allocated, equalTo(0L));
+    }
+
+    /**
+     * The number of reduce phases when every shard result is above the buffered aggs budget: a partial reduce is triggered by the
+     * shard result that arrives once {@link QueryPhaseResultConsumer#MIN_BUFFERED_RESULTS_FOR_EARLY_REDUCE} results are buffered,
+     * plus the final reduce.
+     */
+    private static int expectedReducePhasesWithEarlyReduces(int numShards) {
+        return (numShards - 1) / QueryPhaseResultConsumer.MIN_BUFFERED_RESULTS_FOR_EARLY_REDUCE + 1;
+    }
+
+    /**
+     * Consumes a {@code max} aggregation from each shard with a batched reduce size that never triggers a partial reduce on its
+     * own, and returns the number of reduce phases.
+     */
+    private int consumeMaxAggs(AssertingCircuitBreaker circuitBreaker, int numShards) throws Exception {
+        SearchRequest request = new SearchRequest();
+        request.source(new SearchSourceBuilder().aggregation(new MaxAggregationBuilder("test")).size(0));
+        request.setBatchedReduceSize(numShards + 1);
+        try (
+            SearchPhaseResults<SearchPhaseResult> consumer = searchPhaseController.newSearchPhaseResults(
+                fixedExecutor,
+                circuitBreaker,
+                () -> false,
+                SearchProgressListener.NOOP,
+                request,
+                numShards,
+                exc -> {}
+            )
+        ) {
+            CountDownLatch latch = new CountDownLatch(numShards);
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < numShards; i++) {
+                double value = randomDouble();
+                max = Math.max(max, value);
+                QuerySearchResult result = new QuerySearchResult(
+                    new ShardSearchContextId(UUIDs.randomBase64UUID(), i),
+                    new SearchShardTarget("node", new ShardId("a", "b", i), null),
+                    null
+                );
+                try {
+                    result.topDocs(
+                        new TopDocsAndMaxScore(
+                            new TopDocs(new TotalHits(0, TotalHits.Relation.EQUAL_TO), Lucene.EMPTY_SCORE_DOCS),
+                            Float.NaN
+                        ),
+                        new DocValueFormat[0]
+                    );
+                    result.aggregations(
+                        InternalAggregations.from(
+                            Collections.singletonList(new Max("test", value, DocValueFormat.RAW, Collections.emptyMap()))
+                        )
+                    );
+                    result.setShardIndex(i);
+                    result.size(1);
+                    consumer.consumeResult(result, latch::countDown);
+                } finally {
+                    result.decRef();
+                }
+            }
+            latch.await();
+            SearchPhaseController.ReducedQueryPhase reduce = consumer.reduce();
+            assertEquals(max, ((Max) reduce.aggregations().asList().get(0)).value(), 0.0D);
+            assertThat(((QueryPhaseResultConsumer) consumer).getMaxAggsBufferSize(), greaterThan(0L));
+            return reduce.numReducePhases();
+        }
+    }
+
     public void testFailConsumeAggs() throws Exception {
         int expectedNumResults = randomIntBetween(20, 200);
         int bufferSize = randomIntBetween(2, expectedNumResults - 1);
@@ -1430,11 +1522,24 @@ public class SearchPhaseControllerTests extends ESTestCase {
         private final AtomicBoolean shouldBreak = new AtomicBoolean(false);
 
         private volatile long allocated;
+        private volatile long limit = NoopCircuitBreaker.LIMIT;
+        // memory accounted by other requests that share the breaker
+        private volatile long usedByOthers;
 
         AssertingCircuitBreaker(String name) {
             super(name);
         }
 
+        @Override
+        public long getLimit() {
+            return limit;
+        }
+
+        @Override
+        public long getUsed() {
+            return allocated + usedByOthers;
+        }
+
         @Override
         public void addEstimateBytesAndMaybeBreak(long bytes, String label) throws CircuitBreakingException {
             assert bytes >= 0;
@@ -27,7 +27,10 @@ import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.cluster.metadata.IndexTemplateMetadata;
 import org.elasticsearch.cluster.metadata.Metadata;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
+import org.elasticsearch.cluster.routing.IndexRoutingTable;
 import org.elasticsearch.cluster.routing.RoutingTable;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.cluster.routing.ShardRoutingState;
 import org.elasticsearch.cluster.routing.allocation.AllocationService;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.collect.Iterators;
@@ -47,12 +50,16 @@ import org.elasticsearch.xcontent.ToXContent;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 
@@ -220,6 +227,82 @@ public class ClusterSerializationTests extends ESAllocationTestCase {
         assertThat(target.toString(), equalTo(source.toString()));
     }
 
+    public void testRoutingTableDiffOnlyContainsChangedShards() throws Exception {
+        Metadata metadata = Metadata.builder()
+            .put(IndexMetadata.builder("test").settings(settings(IndexVersion.current())).numberOfShards(10).numberOfReplicas(1))
+            .build();
+        RoutingTable routingTable = RoutingTable.builder(TestShardRoutingRoleStrategies.DEFAULT_ROLE_ONLY)
+            .addAsNew(metadata.index("test"))
+            .build();
+        DiscoveryNodes nodes = DiscoveryNodes.builder().add(newNode("node1")).add(newNode("node2")).add(newNode("node3")).build();
+        ClusterState clusterState = ClusterState.builder(ClusterName.DEFAULT)
+            .nodes(nodes)
+            .metadata(metadata)
+            .routingTable(routingTable)
+            .build();
+
+        AllocationService strategy = createAllocationService();
+        ClusterState before = strategy.reroute(clusterState, "reroute", ActionListener.noop());
+        ShardRouting startedShard = randomFrom(before.routingTable().index("test").shardsWithState(ShardRoutingState.INITIALIZING));
+        ClusterState after = startShardsAndReroute(strategy, before, startedShard);
+
+        IndexRoutingTable previous = before.routingTable().index("test");
+        IndexRoutingTable expected = after.routingTable().index("test");
+        Diff<IndexRoutingTable> diff = expected.diff(previous);
+
+        BytesStreamOutput shardsDiffStream = new BytesStreamOutput();
+        diff.writeTo(shardsDiffStream);
+        StreamInput shardsDiffInput = shardsDiffStream.bytes().streamInput();
+        IndexRoutingTable fromShardsDiff = IndexRoutingTable.readDiffFrom(shardsDiffInput).apply(previous);
+        assertThat(fromShardsDiff, equalTo(expected));
+        for (int shardId = 0; shardId < previous.size(); shardId++) {
+            if (shardId != startedShard.id()) {
+                assertSame(previous.shard(shardId), fromShardsDiff.shard(shardId));
+            }
+        }
+
+        TransportVersion previousVersion = TransportVersionUtils.getPreviousVersion(TransportVersions.ROUTING_TABLE_SHARD_DIFFS);
+        BytesStreamOutput completeDiffStream = new BytesStreamOutput();
+        completeDiffStream.setTransportVersion(previousVersion);
+        diff.writeTo(completeDiffStream);
+        StreamInput completeDiffInput = completeDiffStream.bytes().streamInput();
+        completeDiffInput.setTransportVersion(previousVersion);
+        assertThat(IndexRoutingTable.readDiffFrom(completeDiffInput).apply(previous), equalTo(expected));
+
+        assertThat(shardsDiffStream.size(), lessThan(completeDiffStream.size()));
+    }
+
+    public void testSectionListener() throws Exception {
+        Metadata metadata = Metadata.builder()
+            .put(IndexMetadata.builder("test").settings(settings(IndexVersion.current())).numberOfShards(10).numberOfReplicas(1))
+            .build();
+        RoutingTable routingTable = RoutingTable.builder(TestShardRoutingRoleStrategies.DEFAULT_ROLE_ONLY)
+            .addAsNew(metadata.index("test"))
+            .build();
+        DiscoveryNodes nodes = DiscoveryNodes.builder().add(newNode("node1")).add(newNode("node2")).build();
+        ClusterState before = ClusterState.builder(ClusterName.DEFAULT).nodes(nodes).metadata(metadata).routingTable(routingTable).build();
+        ClusterState after = createAllocationService().reroute(before, "reroute", ActionListener.noop());
+
+        Map<ClusterState.Section, Long> fullStateSections = new EnumMap<>(ClusterState.Section.class);
+        BytesStreamOutput fullStateStream = new BytesStreamOutput();
+        after.writeTo(fullStateStream, (section, bytes, timeInNanos) -> assertNull(fullStateSections.put(section, bytes)));
+        assertThat(fullStateSections.keySet(), equalTo(EnumSet.allOf(ClusterState.Section.class)));
+        assertThat(fullStateSections.values().stream().mapToLong(Long::longValue).sum(), lessThan((long) fullStateStream.size()));
+        BytesStreamOutput plainStream = new BytesStreamOutput();
+        after.writeTo(plainStream);
+        assertThat(fullStateStream.bytes(), equalTo(plainStream.bytes()));
+
+        Map<ClusterState.Section, Long> diffSections = new EnumMap<>(ClusterState.Section.class);
+        Diff<ClusterState> diff = after.diff(before);
+        BytesStreamOutput diffStream = new BytesStreamOutput();
+        ClusterState.writeDiffTo(diff, diffStream, (section, bytes, timeInNanos) -> assertNull(diffSections.put(section, bytes)));
+        assertThat(diffSections.keySet(), equalTo(EnumSet.allOf(ClusterState.Section.class)));
+        assertThat(diffSections.get(ClusterState.Section.ROUTING_TABLE), greaterThan(0L));
+        BytesStreamOutput plainDiffStream = new BytesStreamOutput();
+        diff.writeTo(plainDiffStream);
+        assertThat(diffStream.bytes(), equalTo(plainDiffStream.bytes()));
+    }
+
     public void testSnapshotDeletionsInProgressSerialization() throws Exception {
 
         boolean includeRestore = randomBoolean();
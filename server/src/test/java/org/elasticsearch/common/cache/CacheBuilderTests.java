@@ -26,7 +26,9 @@ public class CacheBuilderTests extends ESTestCase {
         assertThat(iae.getMessage(), containsString("expireAfterAccess <="));
         final TimeValue timeValue = randomPositiveTimeValue();
         Cache<Object, Object> cache = CacheBuilder.builder().setExpireAfterAccess(timeValue).build();
-        assertEquals(timeValue.getNanos(), cache.getExpireAfterAccessNanos());
+        assertEquals(timeValue.getNanos(), ((LRUCache<Object, Object>) cache).getExpireAfterAccessNanos());
+        cache = CacheBuilder.builder().setExpireAfterAccess(timeValue).setFrequencyAware(true).build();
+        assertEquals(timeValue.getNanos(), ((FrequencyAwareCache<Object, Object>) cache).getExpireAfterAccessNanos());
     }
 
     public void testSettingExpireAfterWrite() {
@@ -39,6 +41,8 @@ public class CacheBuilderTests extends ESTestCase {
         assertThat(iae.getMessage(), containsString("expireAfterWrite <="));
         final TimeValue timeValue = randomPositiveTimeValue();
         Cache<Object, Object> cache = CacheBuilder.builder().setExpireAfterWrite(timeValue).build();
-        assertEquals(timeValue.getNanos(), cache.getExpireAfterWriteNanos());
+        assertEquals(timeValue.getNanos(), ((LRUCache<Object, Object>) cache).getExpireAfterWriteNanos());
+        cache = CacheBuilder.builder().setExpireAfterWrite(timeValue).setFrequencyAware(true).build();
+        assertEquals(timeValue.getNanos(), ((FrequencyAwareCache<Object, Object>) cache).getExpireAfterWriteNanos());
     }
 }
@@ -0,0 +1,392 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.common.cache;
+
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class FrequencyAwareCacheTests extends ESTestCase {
+
+    public void testBuilder() {
+        Cache<Integer, String> cache = CacheBuilder.<Integer, String>builder().setFrequencyAware(true).build();
+        assertThat(cache, instanceOf(FrequencyAwareCache.class));
+        cache = CacheBuilder.<Integer, String>builder().build();
+        assertThat(cache, instanceOf(LRUCache.class));
+    }
+
+    public void testCacheStats() {
+        int numberOfEntries = randomIntBetween(100, 1000);
+        Cache<Integer, String> cache = CacheBuilder.<Integer, String>builder().setFrequencyAware(true).build();
+        for (int i = 0; i < numberOfEntries; i++) {
+            cache.put(i, Integer.toString(i));
+        }
+        long hits = 0;
+        long misses = 0;
+        for (int i = 0; i < numberOfEntries; i++) {
+            if (rarely()) {
+                misses++;
+                assertNull(cache.get(-i - 1));
+            } else {
+                hits++;
+                assertEquals(Integer.toString(i), cache.get(i));
+            }
+        }
+        assertEquals(hits, cache.stats().getHits());
+        assertEquals(misses, cache.stats().getMisses());
+        assertEquals(0, cache.stats().getEvictions());
+        assertEquals(numberOfEntries, cache.count());
+        assertEquals(numberOfEntries, cache.weight());
+    }
+
+    public void testEvictionsKeepTheCacheUnderItsMaximumWeight() {
+        int maximumWeight = randomIntBetween(1, 100);
+        AtomicLong evictions = new AtomicLong();
+        Cache<Integer, String> cache = CacheBuilder.<Integer, String>builder()
+            .setFrequencyAware(true)
+            .setMaximumWeight(maximumWeight)
+            .removalListener(notification -> {
+                assertEquals(RemovalNotification.RemovalReason.EVICTED, notification.getRemovalReason());
+                evictions.incrementAndGet();
+            })
+            .build();
+        int numberOfEntries = randomIntBetween(maximumWeight, 1000);
+        for (int i = 0; i < numberOfEntries; i++) {
+            cache.put(i, Integer.toString(i));
+            if (randomBoolean()) {
+                cache.get(randomIntBetween(0, i));
+            }
+            assertThat(cache.weight(), lessThanOrEqualTo((long) maximumWeight));
+        }
+        assertEquals(maximumWeight, cache.count());
+        assertEquals(numberOfEntries - maximumWeight, evictions.get());
+        assertEquals(evictions.get(), cache.stats().getEvictions());
+    }
+
+    public void testWeigher() {
+        int maximumWeight = 2 * randomIntBetween(10, 100);
+        Cache<Integer, String> cache = CacheBuilder.<Integer, String>builder()
+            .setFrequencyAware(true)
+            .setMaximumWeight(maximumWeight)
+            .weigher((k, v) -> k)
+            .build();
+        for (int i = 0; i < maximumWeight; i++) {
+            cache.put(i, Integer.toString(i));
+            assertThat(cache.weight(), lessThanOrEqualTo((long) maximumWeight));
+        }
+        // an entry that is heavier than the whole cache doesn't stay
+        cache.put(maximumWeight + 1, "heavy");
+        assertNull(cache.get(maximumWeight + 1));
+        assertThat(cache.weight(), lessThanOrEqualTo((long) maximumWeight));
+    }
+
+    public void testFrequentlyAccessedEntriesSurviveAScan() {
+        int maximumWeight = 100;
+        Cache<Integer, String> cache = CacheBuilder.<Integer, String>builder()
+            .setFrequencyAware(true)
+            .setMaximumWeight(maximumWeight)
+            .build();
+        for (int i = 0; i < maximumWeight; i++) {
+            cache.put(i, Integer.toString(i));
+        }
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 10; i++) {
+                assertEquals(Integer.toString(i), cache.get(i));
+            }
+        }
+        // a burst of entries that are accessed only once would flush an LRU cache
+        for (int i = 1000; i < 1000 + 10 * maximumWeight; i++) {
+            cache.put(i, Integer.toString(i));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.toString(i), cache.get(i));
+        }
+        assertEquals(maximumWeight, cache.count());
+    }
+
+    public void testProtectedSegment() {
+        FrequencyAwareCache<Integer, String> cache = (FrequencyAwareCache<Integer, String>) CacheBuilder.<Integer, String>builder()
+            .setFrequencyAware(true)
+            .setMaximumWeight(100)
+            .build();
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, Integer.toString(i));
+        }
+        cache.get(3);
+        cache.get(5);
+        cache.refresh();
+        // all but the last entry overflowed the admission window of a single entry
+        assertThat(cache.keysInSegment(FrequencyAwareCache.Segment.WINDOW), containsInAnyOrder(9));
+        assertThat(cache.keysInSegment(FrequencyAwareCache.Segment.PROTECTED), containsInAnyOrder(3, 5));
+        assertThat(cache.keysInSegment(FrequencyAwareCache.Segment.PROBATION), containsInAnyOrder(0, 1, 2, 4, 6, 7, 8));
+    }
+
+    public void testExpirationAfterAccess() {
+        AtomicLong now = new AtomicLong();
+        FrequencyAwareCache<Integer, String> cache = new FrequencyAwareCache<>() {
+            @Override
+            protected long now() {
+                return now.get();
+            }
+        };
+        cache.setExpireAfterAccessNanos(1);
+        List<Integer> evicted = new ArrayList<>();
+        cache.setRemovalListener(notification -> evicted.add(notification.getKey()));
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, Integer.toString(i));
+        }
+        now.set(1);
+        assertEquals("3", cache.get(3));
+        now.set(2);
+        assertNull(cache.get(4));
+        cache.refresh();
+        assertEquals(1, cache.count());
+        assertEquals("3", cache.get(3));
+        assertThat(evicted, containsInAnyOrder(0, 1, 2, 4, 5, 6, 7, 8, 9));
+    }
+
+    public void testExpirationAfterWrite() {
+        AtomicLong now = new AtomicLong();
+        FrequencyAwareCache<Integer, String> cache = new FrequencyAwareCache<>() {
+            @Override
+            protected long now() {
+                return now.get();
+            }
+        };
+        cache.setExpireAfterWriteNanos(1);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, Integer.toString(i));
+        }
+        now.set(1);
+        cache.put(10, "10");
+        now.set(2);
+        assertNull(cache.get(0));
+        assertEquals("10", cache.get(10));
+        cache.refresh();
+        assertEquals(1, cache.count());
+    }
+
+    public void testExpirationAfterWriteOfAnEntryThatWasRead() {
+        AtomicLong now = new AtomicLong();
+        FrequencyAwareCache<Integer, String> cache = new FrequencyAwareCache<>() {
+            @Override
+            protected long now() {
+                return now.get();
+            }
+        };
+        cache.setExpireAfterWriteNanos(1);
+        List<Integer> evicted = new ArrayList<>();
+        cache.setRemovalListener(notification -> evicted.add(notification.getKey()));
+        cache.put(0, "0");
+        now.set(1);
+        for (int i = 1; i < 10; i++) {
+            cache.put(i, Integer.toString(i));
+        }
+        // reading the oldest entry moves it behind entries that were written after it
+        assertEquals("0", cache.get(0));
+        cache.refresh();
+        assertThat(cache.keysInSegment(FrequencyAwareCache.Segment.WINDOW).get(0), equalTo(1));
+        now.set(2);
+        cache.refresh();
+        assertEquals(9, cache.count());
+        assertThat(evicted, containsInAnyOrder(0));
+        now.set(3);
+        cache.refresh();
+        assertEquals(0, cache.count());
+    }
+
+    public void testComputeIfAbsentAfterExpiration() throws ExecutionException {
+        AtomicLong now = new AtomicLong();
+        FrequencyAwareCache<Integer, String> cache = new FrequencyAwareCache<>() {
+            @Override
+            protected long now() {
+                return now.get();
+            }
+        };
+        cache.setExpireAfterAccessNanos(1);
+        List<RemovalNotification.RemovalReason> reasons = new ArrayList<>();
+        cache.setRemovalListener(notification -> reasons.add(notification.getRemovalReason()));
+        cache.put(0, "0");
+        now.set(2);
+        assertEquals("recomputed", cache.computeIfAbsent(0, k -> "recomputed"));
+        assertEquals("recomputed", cache.get(0));
+        assertEquals(List.of(RemovalNotification.RemovalReason.EVICTED), reasons);
+        assertEquals(1, cache.count());
+    }
+
+    public void testComputeIfAbsentCallsOnce() throws InterruptedException {
+        int numberOfThreads = randomIntBetween(2, 32);
+        Cache<Integer, String> cache = CacheBuilder.<Integer, String>builder().setFrequencyAware(true).build();
+        Set<Integer> loaded = ConcurrentHashMap.newKeySet();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        CyclicBarrier barrier = new CyclicBarrier(numberOfThreads);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < numberOfThreads; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    barrier.await();
+                    for (int i = 0; i < 1000; i++) {
+                        assertEquals(Integer.toString(i), cache.computeIfAbsent(i, k -> {
+                            assertTrue(loaded.add(k));
+                            return Integer.toString(k);
+                        }));
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(failures, equalTo(List.of()));
+        assertEquals(1000, loaded.size());
+        assertEquals(1000, cache.count());
+    }
+
+    public void testComputeIfAbsentFailures() {
+        Cache<Integer, String> cache = CacheBuilder.<Integer, String>builder().setFrequencyAware(true).build();
+        ExecutionException e = expectThrows(ExecutionException.class, () -> cache.computeIfAbsent(1, k -> null));
+        assertThat(e.getCause(), instanceOf(NullPointerException.class));
+        e = expectThrows(ExecutionException.class, () -> cache.computeIfAbsent(1, k -> { throw new IllegalArgumentException("boom"); }));
+        assertThat(e.getCause(), instanceOf(IllegalArgumentException.class));
+        assertNull(cache.get(1));
+        assertEquals(0, cache.count());
+    }
+
+    public void testNotifications() {
+        List<RemovalNotification<Integer, String>> notifications = new ArrayList<>();
+        Cache<Integer, String> cache = CacheBuilder.<Integer, String>builder()
+            .setFrequencyAware(true)
+            .removalListener(notifications::add)
+            .build();
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, Integer.toString(i));
+        }
+        cache.put(0, "replaced");
+        cache.invalidate(1);
+        cache.invalidate(2, "not the value");
+        cache.invalidate(3, "3");
+        assertEquals(3, notifications.size());
+        assertEquals(RemovalNotification.RemovalReason.REPLACED, notifications.get(0).getRemovalReason());
+        assertEquals("0", notifications.get(0).getValue());
+        assertEquals(RemovalNotification.RemovalReason.INVALIDATED, notifications.get(1).getRemovalReason());
+        assertEquals(Integer.valueOf(1), notifications.get(1).getKey());
+        assertEquals(RemovalNotification.RemovalReason.INVALIDATED, notifications.get(2).getRemovalReason());
+        assertEquals(Integer.valueOf(3), notifications.get(2).getKey());
+        assertEquals(8, cache.count());
+        assertEquals("replaced", cache.get(0));
+
+        notifications.clear();
+        cache.invalidateAll();
+        assertEquals(8, notifications.size());
+        assertEquals(0, cache.count());
+        assertEquals(0, cache.weight());
+    }
+
+    public void testRemoveUsingKeysIterator() {
+        Set<Integer> removed = new HashSet<>();
+        Cache<Integer, String> cache = CacheBuilder.<Integer, String>builder()
+            .setFrequencyAware(true)
+            .removalListener(notification -> removed.add(notification.getKey()))
+            .build();
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, Integer.toString(i));
+        }
+        for (Iterator<Integer> iterator = cache.keys().iterator(); iterator.hasNext();) {
+            if (iterator.next() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(50, removed.size());
+        assertEquals(50, cache.count());
+        AtomicInteger remaining = new AtomicInteger();
+        cache.forEach((k, v) -> {
+            assertEquals(1, k % 2);
+            remaining.incrementAndGet();
+        });
+        assertEquals(50, remaining.get());
+    }
+
+    public void testTorture() throws InterruptedException, BrokenBarrierException {
+        int numberOfThreads = randomIntBetween(2, 64);
+        int maximumWeight = randomIntBetween(10, 1000);
+        AtomicLong removals = new AtomicLong();
+        Cache<Integer, String> cache = CacheBuilder.<Integer, String>builder()
+            .setFrequencyAware(true)
+            .setMaximumWeight(maximumWeight)
+            .removalListener(notification -> removals.incrementAndGet())
+            .build();
+        AtomicLong insertions = new AtomicLong();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        CyclicBarrier barrier = new CyclicBarrier(numberOfThreads + 1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < numberOfThreads; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    barrier.await();
+                    for (int i = 0; i < 10000; i++) {
+                        int key = randomIntBetween(0, 2 * maximumWeight);
+                        switch (randomIntBetween(0, 3)) {
+                            case 0 -> {
+                                cache.put(key, Integer.toString(key));
+                                insertions.incrementAndGet();
+                            }
+                            case 1 -> cache.computeIfAbsent(key, k -> {
+                                insertions.incrementAndGet();
+                                return Integer.toString(k);
+                            });
+                            case 2 -> cache.invalidate(key);
+                            default -> cache.get(key);
+                        }
+                    }
+                    barrier.await();
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        barrier.await();
+        barrier.await();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(failures, equalTo(List.of()));
+        cache.refresh();
+        int count = cache.count();
+        assertThat(cache.weight(), lessThanOrEqualTo((long) maximumWeight));
+        assertEquals(insertions.get() - removals.get(), count);
+        AtomicInteger entries = new AtomicInteger();
+        cache.forEach((k, v) -> entries.incrementAndGet());
+        assertEquals(count, entries.get());
+        assertThat(cache.stats().getHits() + cache.stats().getMisses(), greaterThan(0L));
+    }
+}
@@ -14,12 +14,14 @@ import org.apache.lucene.store.IOContext;
 import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.tests.util.LuceneTestCase;
+import org.apache.lucene.tests.util.TestUtil;
 import org.apache.lucene.util.NumericUtils;
 import org.apache.lucene.util.packed.PackedInts;
 
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Random;
+import java.util.TreeSet;
 
 public class ES87TSDBDocValuesEncoderTests extends LuceneTestCase {
 
@@ -262,12 +264,71 @@ public class ES87TSDBDocValuesEncoderTests extends LuceneTestCase {
     }
 
     public void testEncodeOrdinalsBitPack3Bits() throws IOException {
+        long[] arr = new long[blockSize];
+        // too many runs for run-length encoding
+        Arrays.setAll(arr, i -> Integer.bitCount(i) % 5);
+        doTestOrdinals(arr, 49);
+    }
+
+    public void testEncodeOrdinalsFewRuns() throws IOException {
         long[] arr = new long[blockSize];
         Arrays.fill(arr, 4);
         for (int i = 0; i < 4; i++) {
             arr[i] = i;
         }
-        doTestOrdinals(arr, 49);
+        // header (2 bytes) + first value + 4 * (run length + delta)
+        doTestOrdinals(arr, 11);
+    }
+
+    public void testEncodeOrdinalsRuns() throws IOException {
+        long[] arr = new long[blockSize];
+        Arrays.setAll(arr, i -> 100 * (i / 16));
+        // header (2 bytes) + first value + 7 * (run length + delta (2 bytes))
+        doTestOrdinals(arr, 24);
+    }
+
+    public void testEncodeOrdinalsRange() throws IOException {
+        long[] arr = new long[blockSize];
+        Arrays.setAll(arr, i -> 1000 + Integer.bitCount(i));
+        // header (2 bytes) + min value (2 bytes) + 3 bits per value
+        doTestOrdinals(arr, 2 + 2 + (blockSize * 3) / Byte.SIZE);
+    }
+
+    public void testDecodeOrdinalRuns() throws IOException {
+        long[] arr = new long[blockSize];
+        TreeSet<Integer> runEndSet = new TreeSet<>();
+        int numRuns = TestUtil.nextInt(random(), 1, 20);
+        while (runEndSet.size() < numRuns - 1) {
+            runEndSet.add(TestUtil.nextInt(random(), 1, blockSize - 1));
+        }
+        runEndSet.add(blockSize);
+        int[] expectedRunEnds = runEndSet.stream().mapToInt(Integer::intValue).toArray();
+        long value = TestUtil.nextLong(random(), 0, 1000);
+        for (int run = 0, start = 0; run < numRuns; start = expectedRunEnds[run++]) {
+            Arrays.fill(arr, start, expectedRunEnds[run], value);
+            value += TestUtil.nextLong(random(), 1, 100);
+        }
+        final long[] expected = arr.clone();
+        final int bitsPerOrd = PackedInts.bitsRequired(expected[blockSize - 1]);
+        int[] runEnds = new int[blockSize];
+        assertEquals(numRuns, ES87TSDBDocValuesEncoder.findRuns(expected, runEnds));
+        assertArrayEquals(expectedRunEnds, Arrays.copyOf(runEnds, numRuns));
+        try (Directory dir = newDirectory()) {
+            try (IndexOutput out = dir.createOutput("tests.bin", IOContext.DEFAULT)) {
+                encoder.encodeOrdinals(arr, out, bitsPerOrd);
+            }
+            try (IndexInput in = dir.openInput("tests.bin", IOContext.DEFAULT)) {
+                long[] decoded = new long[blockSize];
+                runEnds = new int[blockSize];
+                int decodedRuns = encoder.decodeOrdinals(in, decoded, runEnds, bitsPerOrd);
+                assertEquals(in.length(), in.getFilePointer());
+                assertArrayEquals(expected, decoded);
+                if (decodedRuns != -1) {
+                    assertEquals(numRuns, decodedRuns);
+                    assertArrayEquals(expectedRunEnds, Arrays.copyOf(runEnds, numRuns));
+                }
+            }
+        }
     }
 
     public void testEncodeOrdinalsCycle2() throws IOException {
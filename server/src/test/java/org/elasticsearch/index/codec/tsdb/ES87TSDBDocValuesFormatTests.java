@@ -13,6 +13,7 @@ import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.codecs.Codec;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.SortedNumericDocValuesField;
 import org.apache.lucene.document.SortedSetDocValuesField;
@@ -21,6 +22,7 @@ import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.SortedDocValues;
 import org.apache.lucene.index.SortedNumericDocValues;
@@ -41,8 +43,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.hamcrest.Matchers.either;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
 
 public class ES87TSDBDocValuesFormatTests extends BaseDocValuesFormatTestCase {
 
@@ -155,6 +162,115 @@ public class ES87TSDBDocValuesFormatTests extends BaseDocValuesFormatTestCase {
         }
     }
 
+    public void testSortedDocValuesRuns() throws Exception {
+        final int numDocs = 1000 + random().nextInt(1000);
+        final String[] values = new String[numDocs];
+        try (Directory dir = newDirectory(); IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig())) {
+            int doc = 0;
+            while (doc < numDocs) {
+                String value = "host-" + random().nextInt(50);
+                int runLength = 1 + random().nextInt(300);
+                for (int i = 0; i < runLength && doc < numDocs; i++, doc++) {
+                    values[doc] = value;
+                    Document d = new Document();
+                    d.add(new SortedDocValuesField("host", new BytesRef(value)));
+                    writer.addDocument(d);
+                }
+            }
+            writer.forceMerge(1);
+            try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                assertEquals(1, reader.leaves().size());
+                SortedDocValues dv = reader.leaves().get(0).reader().getSortedDocValues("host");
+                assertThat(dv, instanceOf(RunLengthDocValues.class));
+                RunLengthDocValues runs = (RunLengthDocValues) dv;
+                doc = random().nextInt(numDocs);
+                while (doc < numDocs) {
+                    assertTrue(dv.advanceExact(doc));
+                    int runEnd = runs.runEnd();
+                    assertThat(runEnd, greaterThan(doc));
+                    assertThat(runEnd, lessThanOrEqualTo(numDocs));
+                    String value = dv.lookupOrd(dv.ordValue()).utf8ToString();
+                    for (int i = doc; i < runEnd; i++) {
+                        assertEquals(values[i], value);
+                    }
+                    if (runEnd < numDocs && runEnd % ES87TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE != 0) {
+                        // runs only end early at block boundaries
+                        assertNotEquals(values[runEnd], value);
+                    }
+                    doc = runEnd;
+                }
+            }
+        }
+    }
+
+    public void testSkipIndex() throws Exception {
+        final int numDocs = 1000 + random().nextInt(10_000);
+        final long[][] values = new long[numDocs][];
+        IndexWriterConfig config = new IndexWriterConfig().setCodec(
+            TestUtil.alwaysDocValuesFormat(new ES87TSDBDocValuesFormat(field -> field.startsWith("skip_")))
+        );
+        try (Directory dir = newDirectory(); IndexWriter writer = new IndexWriter(dir, config)) {
+            for (int doc = 0; doc < numDocs; doc++) {
+                Document d = new Document();
+                if (random().nextInt(10) > 0) {
+                    values[doc] = new long[random().nextInt(3) == 0 ? 2 : 1];
+                    for (int v = 0; v < values[doc].length; v++) {
+                        values[doc][v] = doc * 10L + random().nextInt(1000);
+                        d.add(new SortedNumericDocValuesField("skip_multi", values[doc][v]));
+                    }
+                    Arrays.sort(values[doc]);
+                    d.add(new NumericDocValuesField("skip_single", values[doc][0]));
+                    d.add(new NumericDocValuesField("no_skip", values[doc][0]));
+                }
+                writer.addDocument(d);
+            }
+            writer.forceMerge(1);
+            try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                assertEquals(1, reader.leaves().size());
+                LeafReader leaf = reader.leaves().get(0).reader();
+                assertThat(leaf.getNumericDocValues("no_skip"), instanceOf(SkipIndexedDocValues.class));
+                assertNull(((SkipIndexedDocValues) leaf.getNumericDocValues("no_skip")).skipper());
+                assertSkipIndex(((SkipIndexedDocValues) leaf.getNumericDocValues("skip_single")).skipper(), values, true);
+                assertSkipIndex(((SkipIndexedDocValues) leaf.getSortedNumericDocValues("skip_multi")).skipper(), values, false);
+            }
+        }
+    }
+
+    private static void assertSkipIndex(DocValuesSkipper skipper, long[][] values, boolean singleValued) throws IOException {
+        assertNotNull(skipper);
+        int doc = 0;
+        while (true) {
+            skipper.advance(doc);
+            if (skipper.maxDocID() == DocIdSetIterator.NO_MORE_DOCS) {
+                assertEquals(DocIdSetIterator.NO_MORE_DOCS, skipper.minDocID());
+                break;
+            }
+            assertThat(skipper.minDocID(), greaterThanOrEqualTo(doc));
+            assertThat(skipper.docCount(), lessThanOrEqualTo(ES87TSDBDocValuesFormat.SKIP_INDEX_INTERVAL_SIZE));
+            long minValue = Long.MAX_VALUE;
+            long maxValue = Long.MIN_VALUE;
+            int docCount = 0;
+            for (; doc <= skipper.maxDocID(); doc++) {
+                if (values[doc] == null) {
+                    assertThat(doc, not(either(equalTo(skipper.minDocID())).or(equalTo(skipper.maxDocID()))));
+                    continue;
+                }
+                docCount++;
+                minValue = Math.min(minValue, values[doc][0]);
+                maxValue = Math.max(maxValue, singleValued ? values[doc][0] : values[doc][values[doc].length - 1]);
+            }
+            assertEquals(docCount, skipper.docCount());
+            assertEquals(minValue, skipper.minValue());
+            assertEquals(maxValue, skipper.maxValue());
+            // skipping doesn't go backwards
+            skipper.advance(doc - 1);
+            assertEquals(doc - 1, skipper.maxDocID());
+        }
+        for (; doc < values.length; doc++) {
+            assertNull(values[doc]);
+        }
+    }
+
     public void testManyDocsWithManyValues() throws Exception {
         final int numDocs = 10 + random().nextInt(20);
         final Map<String, List<String>> sortedSet = new HashMap<>(); // key -> doc-values
@@ -0,0 +1,113 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.lucene99.Lucene99Codec;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.KnnFloatVectorField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.tests.index.BaseKnnVectorsFormatTestCase;
+import org.apache.lucene.tests.util.TestUtil;
+import org.elasticsearch.common.logging.LogConfigurator;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class ES816HnswBinaryQuantizedVectorsFormatTests extends BaseKnnVectorsFormatTestCase {
+
+    static {
+        LogConfigurator.loadLog4jPlugins();
+        LogConfigurator.configureESLogging(); // native access requires logging to be initialized
+    }
+
+    @Override
+    protected Codec getCodec() {
+        return new Lucene99Codec() {
+            @Override
+            public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
+                return new ES816HnswBinaryQuantizedVectorsFormat();
+            }
+        };
+    }
+
+    public void testToString() {
+        assertThat(
+            new ES816HnswBinaryQuantizedVectorsFormat(10, 20).toString(),
+            equalTo(
+                "ES816HnswBinaryQuantizedVectorsFormat(name=ES816HnswBinaryQuantizedVectorsFormat, maxConn=10, beamWidth=20, "
+                    + "flatVectorFormat=ES816BinaryQuantizedVectorsFormat(name=ES816BinaryQuantizedVectorsFormat, "
+                    + "rawVectorFormat=Lucene99FlatVectorsFormat(vectorsScorer=DefaultFlatVectorScorer())))"
+            )
+        );
+    }
+
+    public void testLimits() {
+        expectThrows(IllegalArgumentException.class, () -> new ES816HnswBinaryQuantizedVectorsFormat(-1, 20));
+        expectThrows(IllegalArgumentException.class, () -> new ES816HnswBinaryQuantizedVectorsFormat(0, 20));
+        expectThrows(IllegalArgumentException.class, () -> new ES816HnswBinaryQuantizedVectorsFormat(20, 0));
+        expectThrows(IllegalArgumentException.class, () -> new ES816HnswBinaryQuantizedVectorsFormat(20, -1));
+        expectThrows(IllegalArgumentException.class, () -> new ES816HnswBinaryQuantizedVectorsFormat(513, 20));
+        expectThrows(IllegalArgumentException.class, () -> new ES816HnswBinaryQuantizedVectorsFormat(20, 3201));
+    }
+
+    public void testHitsAreRescoredWithRawVectors() throws IOException {
+        VectorSimilarityFunction similarityFunction = randomFrom(VectorSimilarityFunction.values());
+        int dims = TestUtil.nextInt(random(), 2, 64);
+        int numDocs = TestUtil.nextInt(random(), 10, 500);
+        float[][] vectors = new float[numDocs][];
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter w = new IndexWriter(dir, newIndexWriterConfig().setCodec(getCodec()))) {
+                for (int i = 0; i < numDocs; i++) {
+                    vectors[i] = randomFloatVector(dims);
+                    Document doc = new Document();
+                    doc.add(new KnnFloatVectorField("field", vectors[i], similarityFunction));
+                    doc.add(new StoredField("id", i));
+                    w.addDocument(doc);
+                }
+                if (random().nextBoolean()) {
+                    w.forceMerge(1);
+                }
+            }
+            try (IndexReader reader = DirectoryReader.open(dir)) {
+                float[] query = randomFloatVector(dims);
+                int k = TestUtil.nextInt(random(), 1, 10);
+                for (var context : reader.leaves()) {
+                    LeafReader leaf = context.reader();
+                    StoredFields storedFields = leaf.storedFields();
+                    TopDocs topDocs = leaf.searchNearestVectors("field", query, k, null, Integer.MAX_VALUE);
+                    for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                        int id = storedFields.document(scoreDoc.doc).getField("id").numericValue().intValue();
+                        assertEquals(similarityFunction.compare(query, vectors[id]), scoreDoc.score, 0f);
+                    }
+                }
+            }
+        }
+    }
+
+    private static float[] randomFloatVector(int dims) {
+        float[] vector = new float[dims];
+        for (int i = 0; i < dims; i++) {
+            vector[i] = random().nextFloat();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.lucene99.Lucene99Codec;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.KnnFloatVectorField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopKnnCollector;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.tests.index.BaseKnnVectorsFormatTestCase;
+import org.apache.lucene.tests.util.TestUtil;
+import org.elasticsearch.common.logging.LogConfigurator;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+
+public class ES816IvfVectorsFormatTests extends BaseKnnVectorsFormatTestCase {
+
+    static {
+        LogConfigurator.loadLog4jPlugins();
+        LogConfigurator.configureESLogging(); // native access requires logging to be initialized
+    }
+
+    @Override
+    protected Codec getCodec() {
+        // probing all partitions makes the results exact, which the base tests rely on
+        int vectorsPerCluster = TestUtil.nextInt(random(), ES816IvfVectorsFormat.MIN_VECTORS_PER_CLUSTER, 500);
+        return new Lucene99Codec() {
+            @Override
+            public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
+                return new ES816IvfVectorsFormat(vectorsPerCluster, ES816IvfVectorsFormat.MAX_NPROBE);
+            }
+        };
+    }
+
+    public void testSearchWithVisitedLimit() {
+        assumeTrue("requires graph based vector codec", false);
+    }
+
+    public void testToString() {
+        assertThat(
+            new ES816IvfVectorsFormat(128, 4).toString(),
+            equalTo(
+                "ES816IvfVectorsFormat(name=ES816IvfVectorsFormat, vectorsPerCluster=128, nprobe=4, "
+                    + "rawVectorFormat=Lucene99FlatVectorsFormat(vectorsScorer=DefaultFlatVectorScorer()))"
+            )
+        );
+    }
+
+    public void testLimitsProbedPartitions() throws IOException {
+        int dims = TestUtil.nextInt(random(), 2, 16);
+        int numDocs = TestUtil.nextInt(random(), 1_000, 3_000);
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter w = new IndexWriter(dir, newIndexWriterConfig().setCodec(new Lucene99Codec() {
+                @Override
+                public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
+                    return new ES816IvfVectorsFormat(ES816IvfVectorsFormat.MIN_VECTORS_PER_CLUSTER, 1);
+                }
+            }))) {
+                for (int i = 0; i < numDocs; i++) {
+                    Document doc = new Document();
+                    doc.add(new KnnFloatVectorField("field", randomFloatVector(dims), VectorSimilarityFunction.EUCLIDEAN));
+                    w.addDocument(doc);
+                }
+                w.forceMerge(1);
+            }
+            try (IndexReader reader = DirectoryReader.open(dir)) {
+                LeafReader leaf = getOnlyLeafReader(reader);
+                TopKnnCollector collector = new TopKnnCollector(10, Integer.MAX_VALUE);
+                leaf.searchNearestVectors("field", randomFloatVector(dims), collector, null);
+                TopDocs topDocs = collector.topDocs();
+                assertThat(topDocs.scoreDocs.length, equalTo(10));
+                // a single partition is about MIN_VECTORS_PER_CLUSTER vectors, far fewer than the whole segment
+                assertThat(collector.visitedCount(), greaterThan(9L));
+                assertThat(collector.visitedCount(), lessThan((long) numDocs));
+            }
+        }
+    }
+
+    private static float[] randomFloatVector(int dims) {
+        float[] vector = new float[dims];
+        for (int i = 0; i < dims; i++) {
+            vector[i] = random().nextFloat();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.lucene99.Lucene99Codec;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.KnnFloatVectorField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.KnnFloatVectorQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+public class VectorMergeTrackerTests extends ESTestCase {
+
+    public void testWrapKeepsFormatName() {
+        VectorMergeTracker tracker = new VectorMergeTracker();
+        KnnVectorsFormat format = new ES814HnswScalarQuantizedVectorsFormat();
+        KnnVectorsFormat wrapped = tracker.wrap(format);
+        assertEquals(format.getName(), wrapped.getName());
+        assertEquals(format.toString(), wrapped.toString());
+        assertEquals(0, tracker.getTotalMerges());
+        assertEquals(0, tracker.getTotalMergeTimeInMillis());
+    }
+
+    public void testIllegalMergeWorkers() {
+        IllegalArgumentException e = expectThrows(
+            IllegalArgumentException.class,
+            () -> new ES814HnswScalarQuantizedVectorsFormat(16, 100, null, 7, false, 0, null)
+        );
+        assertEquals("numMergeWorkers must be at least 1; numMergeWorkers=0", e.getMessage());
+    }
+
+    public void testConcurrentMerge() throws Exception {
+        ExecutorService executor = EsExecutors.newFixed(
+            "vector_merge",
+            2,
+            -1,
+            EsExecutors.daemonThreadFactory("vector_merge"),
+            new ThreadContext(Settings.EMPTY),
+            EsExecutors.TaskTrackingConfig.DO_NOT_TRACK
+        );
+        try {
+            VectorMergeTracker tracker = new VectorMergeTracker();
+            int numMergeWorkers = randomIntBetween(2, 4);
+            KnnVectorsFormat format = tracker.wrap(
+                new ES814HnswScalarQuantizedVectorsFormat(16, 100, null, 7, false, numMergeWorkers, executor)
+            );
+            assertMergedGraphIsSearchable(format);
+            assertThat(tracker.getTotalMerges(), greaterThanOrEqualTo(1L));
+        } finally {
+            terminate(executor);
+        }
+    }
+
+    public void testSingleThreadedMerge() throws IOException {
+        VectorMergeTracker tracker = new VectorMergeTracker();
+        assertMergedGraphIsSearchable(tracker.wrap(new ES814HnswScalarQuantizedVectorsFormat()));
+        assertThat(tracker.getTotalMerges(), greaterThanOrEqualTo(1L));
+    }
+
+    private void assertMergedGraphIsSearchable(KnnVectorsFormat format) throws IOException {
+        int dims = randomIntBetween(4, 16);
+        int numSegments = randomIntBetween(2, 5);
+        int docsPerSegment = randomIntBetween(10, 100);
+        IndexWriterConfig config = newIndexWriterConfig().setCodec(new Lucene99Codec() {
+            @Override
+            public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
+                return format;
+            }
+        }).setMaxBufferedDocs(docsPerSegment);
+        try (Directory dir = newDirectory(); IndexWriter writer = new IndexWriter(dir, config)) {
+            for (int s = 0; s < numSegments; s++) {
+                for (int d = 0; d < docsPerSegment; d++) {
+                    Document doc = new Document();
+                    doc.add(new KnnFloatVectorField("vector", randomVector(dims), VectorSimilarityFunction.EUCLIDEAN));
+                    writer.addDocument(doc);
+                }
+                writer.flush();
+            }
+            writer.forceMerge(1);
+            try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                assertEquals(1, reader.leaves().size());
+                int numDocs = numSegments * docsPerSegment;
+                IndexSearcher searcher = newSearcher(reader);
+                TopDocs topDocs = searcher.search(new KnnFloatVectorQuery("vector", randomVector(dims), numDocs), numDocs);
+                assertEquals(numDocs, topDocs.scoreDocs.length);
+            }
+        }
+    }
+
+    private static float[] randomVector(int dims) {
+        float[] vector = new float[dims];
+        for (int i = 0; i < dims; i++) {
+            vector[i] = randomFloat();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.engine;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.MockBigArrays;
+import org.elasticsearch.common.util.MockPageCacheRecycler;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.elasticsearch.index.engine.LiveVersionMapTestUtils.randomIndexVersionValue;
+import static org.elasticsearch.index.engine.LiveVersionMapTestUtils.uid;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.nullValue;
+
+public class PagedVersionMapTests extends ESTestCase {
+
+    private static BigArrays bigArrays() {
+        return new MockBigArrays(new MockPageCacheRecycler(Settings.EMPTY), new NoneCircuitBreakerService());
+    }
+
+    private static VersionValue randomVersionValue() {
+        if (randomBoolean()) {
+            return new DeleteVersionValue(randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong());
+        }
+        return randomIndexVersionValue();
+    }
+
+    public void testRandomOperations() {
+        final Map<BytesRef, VersionValue> expected = new HashMap<>();
+        final List<BytesRef> uids = new ArrayList<>();
+        final int numUids = randomIntBetween(1, 500);
+        for (int i = 0; i < numUids; i++) {
+            uids.add(uid(randomAlphaOfLength(10) + i));
+        }
+        try (PagedVersionMap map = new PagedVersionMap(randomIntBetween(0, 100), bigArrays())) {
+            for (int i = 0; i < 5000; i++) {
+                final BytesRef uid = randomFrom(uids);
+                switch (randomIntBetween(0, 2)) {
+                    case 0 -> {
+                        final VersionValue value = randomVersionValue();
+                        assertThat(map.put(uid, value), equalTo(expected.put(uid, value)));
+                    }
+                    case 1 -> assertThat(map.remove(uid), equalTo(expected.remove(uid)));
+                    case 2 -> assertThat(map.get(uid), equalTo(expected.get(uid)));
+                    default -> throw new AssertionError();
+                }
+                assertThat(map.size(), equalTo(expected.size()));
+            }
+            assertThat(map.entrySet(), equalTo(expected.entrySet()));
+            assertThat(map.ramBytesUsed(), greaterThan(0L));
+        }
+    }
+
+    public void testCloseReleasesMemory() {
+        final PagedVersionMap map = new PagedVersionMap(randomIntBetween(0, 100), bigArrays());
+        final BytesRef uid = uid(randomAlphaOfLength(10));
+        final VersionValue value = randomVersionValue();
+        map.put(uid, value);
+        assertThat(map.get(uid), equalTo(value));
+        assertThat(map.ramBytesUsed(), greaterThan(0L));
+
+        map.close();
+        assertThat(map.ramBytesUsed(), equalTo(0L));
+        // a closed map behaves like an empty map
+        assertThat(map.get(uid), nullValue());
+        assertThat(map.put(uid, value), nullValue());
+        assertThat(map.get(uid), nullValue());
+        assertThat(map.size(), equalTo(0));
+        assertTrue(map.isEmpty());
+        map.close();
+    }
+
+    public void testLiveVersionMapReleasesOldMapOnRefresh() throws IOException {
+        final LiveVersionMap map = new LiveVersionMap(LiveVersionMapArchive.NOOP_ARCHIVE, bigArrays());
+        map.enforceSafeAccess();
+        final int numDocs = randomIntBetween(1, 1000);
+        for (int i = 0; i < numDocs; i++) {
+            final BytesRef uid = uid(Integer.toString(i));
+            try (Releasable r = map.acquireLock(uid)) {
+                map.putIndexUnderLock(uid, randomIndexVersionValue());
+            }
+        }
+        assertThat(map.getAllCurrent().size(), equalTo(numDocs));
+        map.beforeRefresh();
+        final BytesRef uid = uid(Integer.toString(randomIntBetween(0, numDocs - 1)));
+        try (Releasable r = map.acquireLock(uid)) {
+            assertNotNull(map.getUnderLock(uid));
+        }
+        map.afterRefresh(randomBoolean());
+        try (Releasable r = map.acquireLock(uid)) {
+            assertNull(map.getUnderLock(uid));
+        }
+        // the current map is released by clear, MockBigArrays checks that nothing leaked
+        map.clear();
+    }
+
+    public void testConcurrentOperations() throws InterruptedException {
+        final int numThreads = randomIntBetween(2, 8);
+        final int numUidsPerThread = randomIntBetween(100, 1000);
+        try (PagedVersionMap map = new PagedVersionMap(0, bigArrays())) {
+            // the randomized context can't be used from other threads, so pick values up-front
+            final VersionValue[] values = new VersionValue[numUidsPerThread];
+            for (int i = 0; i < numUidsPerThread; i++) {
+                values[i] = randomVersionValue();
+            }
+            final CountDownLatch start = new CountDownLatch(1);
+            final Thread[] threads = new Thread[numThreads];
+            for (int t = 0; t < numThreads; t++) {
+                final int thread = t;
+                threads[t] = new Thread(() -> {
+                    safeAwait(start);
+                    for (int i = 0; i < numUidsPerThread; i++) {
+                        // each thread owns its uids, like the engine that holds a lock per uid
+                        final BytesRef uid = uid(thread + "_" + i);
+                        final VersionValue value = values[i];
+                        assertNull(map.put(uid, value));
+                        assertThat(map.get(uid), equalTo(value));
+                        if (i % 2 == 0) {
+                            assertThat(map.remove(uid), equalTo(value));
+                        }
+                    }
+                });
+                threads[t].start();
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertThat(map.size(), equalTo(numThreads * (numUidsPerThread / 2)));
+        }
+    }
+}
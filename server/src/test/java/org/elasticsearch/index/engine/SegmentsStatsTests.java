@@ -23,8 +23,10 @@ import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.store.Directory;
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.index.store.LuceneFilesExtensions;
 import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.TransportVersionUtils;
 
 public class SegmentsStatsTests extends ESTestCase {
 
@@ -71,4 +73,25 @@ public class SegmentsStatsTests extends ESTestCase {
         }
     }
 
+    public void testVectorMerges() throws Exception {
+        SegmentsStats stats = new SegmentsStats();
+        stats.addVectorMerges(2, 100);
+        SegmentsStats other = new SegmentsStats();
+        other.addVectorMerges(3, 50);
+        stats.add(other);
+        assertEquals(5, stats.getVectorMerges());
+        assertEquals(150, stats.getVectorMergeTimeInMillis());
+
+        SegmentsStats copy = copyWriteable(stats, writableRegistry(), SegmentsStats::new);
+        assertEquals(stats, copy);
+
+        SegmentsStats bwcCopy = copyWriteable(
+            stats,
+            writableRegistry(),
+            SegmentsStats::new,
+            TransportVersionUtils.getPreviousVersion(TransportVersions.SEGMENTS_STATS_VECTOR_MERGES)
+        );
+        assertEquals(0, bwcCopy.getVectorMerges());
+        assertEquals(0, bwcCopy.getVectorMergeTimeInMillis());
+    }
 }
@@ -0,0 +1,185 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.engine;
+
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.DeterministicTaskQueue;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.IndexSettingsModule;
+import org.elasticsearch.threadpool.TestThreadPool;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class TranslogGroupCommitterTests extends ESTestCase {
+
+    private record SyncCall(Translog.Location location, int requests) {}
+
+    private static IndexSettings indexSettings(String maxDelay, String maxBytes) {
+        return IndexSettingsModule.newIndexSettings(
+            "index",
+            Settings.builder()
+                .put(IndexSettings.INDEX_TRANSLOG_GROUP_COMMIT_MAX_DELAY_SETTING.getKey(), maxDelay)
+                .put(IndexSettings.INDEX_TRANSLOG_GROUP_COMMIT_MAX_BYTES_SETTING.getKey(), maxBytes)
+                .build()
+        );
+    }
+
+    public void testSyncsImmediatelyWithoutDelay() {
+        final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue();
+        final List<SyncCall> calls = new ArrayList<>();
+        final TranslogGroupCommitter committer = new TranslogGroupCommitter(
+            logger,
+            indexSettings("0ms", "1mb"),
+            taskQueue.getThreadPool(),
+            (location, requests, listener) -> {
+                calls.add(new SyncCall(location, requests));
+                listener.accept(null);
+            }
+        );
+        final AtomicInteger notified = new AtomicInteger();
+        final Translog.Location location = new Translog.Location(1, 10, 10);
+        committer.sync(location, e -> {
+            assertThat(e, nullValue());
+            notified.incrementAndGet();
+        });
+        assertThat(calls, equalTo(List.of(new SyncCall(location, 1))));
+        assertThat(notified.get(), equalTo(1));
+        assertFalse(taskQueue.hasRunnableTasks());
+        assertFalse(taskQueue.hasDeferredTasks());
+    }
+
+    public void testBatchesSyncsWithinDelay() {
+        final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue();
+        final List<SyncCall> calls = new ArrayList<>();
+        final TranslogGroupCommitter committer = new TranslogGroupCommitter(
+            logger,
+            indexSettings("100ms", "1mb"),
+            taskQueue.getThreadPool(),
+            (location, requests, listener) -> {
+                calls.add(new SyncCall(location, requests));
+                listener.accept(null);
+            }
+        );
+        final int numSyncs = randomIntBetween(1, 100);
+        final AtomicInteger notified = new AtomicInteger();
+        Translog.Location maxLocation = Translog.Location.EMPTY;
+        for (int i = 0; i < numSyncs; i++) {
+            final Translog.Location location = new Translog.Location(1, randomLongBetween(0, 1000), between(1, 100));
+            maxLocation = maxLocation.compareTo(location) >= 0 ? maxLocation : location;
+            committer.sync(location, e -> {
+                assertThat(e, nullValue());
+                notified.incrementAndGet();
+            });
+        }
+        taskQueue.runAllRunnableTasks();
+        assertThat(calls, hasSize(0));
+        assertThat(notified.get(), equalTo(0));
+
+        taskQueue.runAllTasks();
+        assertThat(calls, equalTo(List.of(new SyncCall(maxLocation, numSyncs))));
+        assertThat(notified.get(), equalTo(numSyncs));
+        assertThat(taskQueue.getCurrentTimeMillis(), equalTo(100L));
+    }
+
+    public void testSyncsEarlyAboveMaxBytes() {
+        final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue();
+        final List<SyncCall> calls = new ArrayList<>();
+        final TranslogGroupCommitter committer = new TranslogGroupCommitter(
+            logger,
+            indexSettings("1s", "100b"),
+            taskQueue.getThreadPool(),
+            (location, requests, listener) -> {
+                calls.add(new SyncCall(location, requests));
+                listener.accept(null);
+            }
+        );
+        final AtomicInteger notified = new AtomicInteger();
+        committer.sync(new Translog.Location(1, 0, 60), e -> notified.incrementAndGet());
+        taskQueue.runAllRunnableTasks();
+        assertThat(calls, hasSize(0));
+
+        committer.sync(new Translog.Location(1, 60, 60), e -> notified.incrementAndGet());
+        taskQueue.runAllRunnableTasks();
+        assertThat(calls, equalTo(List.of(new SyncCall(new Translog.Location(1, 60, 60), 2))));
+        assertThat(notified.get(), equalTo(2));
+        assertThat(taskQueue.getCurrentTimeMillis(), equalTo(0L));
+
+        // the scheduled sync has nothing left to do
+        taskQueue.runAllTasks();
+        assertThat(calls, hasSize(1));
+    }
+
+    public void testFailuresAreNotifiedToAllListeners() {
+        final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue();
+        final IOException exception = new IOException("boom");
+        final TranslogGroupCommitter committer = new TranslogGroupCommitter(
+            logger,
+            indexSettings("10ms", "1mb"),
+            taskQueue.getThreadPool(),
+            (location, requests, listener) -> listener.accept(exception)
+        );
+        final int numSyncs = randomIntBetween(1, 10);
+        final AtomicInteger notified = new AtomicInteger();
+        for (int i = 0; i < numSyncs; i++) {
+            committer.sync(new Translog.Location(1, i, 1), e -> {
+                assertThat(e, sameInstance(exception));
+                notified.incrementAndGet();
+            });
+        }
+        taskQueue.runAllTasks();
+        assertThat(notified.get(), equalTo(numSyncs));
+    }
+
+    public void testSyncsAreNotBlockedByFlushes() throws Exception {
+        final ThreadPool threadPool = new TestThreadPool(getTestName());
+        final CountDownLatch flushesBlocked = new CountDownLatch(1);
+        try {
+            // occupy every flush thread, and queue some more flushes behind them
+            final int flushTasks = threadPool.info(ThreadPool.Names.FLUSH).getMax() + between(1, 5);
+            for (int i = 0; i < flushTasks; i++) {
+                threadPool.executor(ThreadPool.Names.FLUSH).execute(() -> safeAwait(flushesBlocked));
+            }
+            final TranslogGroupCommitter committer = new TranslogGroupCommitter(
+                logger,
+                indexSettings(randomFrom("1ms", "10ms"), randomFrom("1b", "1mb")),
+                threadPool,
+                (location, requests, listener) -> {
+                    assertTrue(Thread.currentThread().getName(), Thread.currentThread().getName().contains(ThreadPool.Names.TRANSLOG_SYNC));
+                    listener.accept(null);
+                }
+            );
+            final int numSyncs = between(1, 10);
+            final CountDownLatch synced = new CountDownLatch(numSyncs);
+            for (int i = 0; i < numSyncs; i++) {
+                committer.sync(new Translog.Location(1, i, 10), e -> {
+                    assertThat(e, nullValue());
+                    synced.countDown();
+                });
+            }
+            assertTrue(synced.await(10, TimeUnit.SECONDS));
+        } finally {
+            flushesBlocked.countDown();
+            terminate(threadPool);
+        }
+    }
+}
@@ -45,6 +45,7 @@ import org.elasticsearch.index.mapper.NumberFieldMapper.NumberFieldType;
 import org.elasticsearch.index.mapper.NumberFieldMapper.NumberType;
 import org.elasticsearch.index.query.SearchExecutionContext;
 import org.elasticsearch.index.query.SearchExecutionContextHelper;
+import org.elasticsearch.lucene.queries.DocValuesSkipIndexRangeQuery;
 import org.elasticsearch.script.ScriptCompiler;
 import org.elasticsearch.search.MultiValueMode;
 import org.elasticsearch.xcontent.XContentBuilder;
@@ -64,6 +65,8 @@ import java.util.function.Supplier;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class NumberFieldTypeTests extends FieldTypeTestCase {
 
@@ -466,6 +469,24 @@ public class NumberFieldTypeTests extends FieldTypeTestCase {
         );
     }
 
+    public void testRangeQueryWithDocValuesSkipIndex() {
+        SearchExecutionContext context = mock(SearchExecutionContext.class);
+        when(context.allowExpensiveQueries()).thenReturn(true);
+        when(context.hasDocValuesSkipIndex("field")).thenReturn(true);
+        MappedFieldType ft = new NumberFieldMapper.NumberFieldType("field", NumberFieldMapper.NumberType.LONG, false);
+        assertEquals(new DocValuesSkipIndexRangeQuery("field", 1, 3), ft.rangeQuery("1", "3", true, true, null, null, null, context));
+
+        ft = new NumberFieldMapper.NumberFieldType("field", NumberFieldMapper.NumberType.DOUBLE, false);
+        assertEquals(
+            new DocValuesSkipIndexRangeQuery("field", NumericUtils.doubleToSortableLong(1.5), NumericUtils.doubleToSortableLong(3)),
+            ft.rangeQuery("1.5", "3", true, true, null, null, null, context)
+        );
+
+        // indexed fields keep using points
+        ft = new NumberFieldMapper.NumberFieldType("field", NumberFieldMapper.NumberType.LONG);
+        assertThat(ft.rangeQuery("1", "3", true, true, null, null, null, context), instanceOf(IndexOrDocValuesQuery.class));
+    }
+
     public void testConversions() {
         assertEquals((byte) 3, NumberType.BYTE.parse(3d, true));
         assertEquals((short) 3, NumberType.SHORT.parse(3d, true));
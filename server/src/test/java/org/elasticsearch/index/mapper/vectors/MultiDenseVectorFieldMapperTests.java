@@ -0,0 +1,297 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.mapper.vectors;
+
+import org.apache.lucene.document.BinaryDocValuesField;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.search.FieldExistsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.index.mapper.DocumentMapper;
+import org.elasticsearch.index.mapper.DocumentParsingException;
+import org.elasticsearch.index.mapper.LuceneDocument;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.MapperParsingException;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.mapper.MapperTestCase;
+import org.elasticsearch.index.mapper.ParsedDocument;
+import org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper.ElementType;
+import org.elasticsearch.index.mapper.vectors.MultiDenseVectorFieldMapper.MultiDenseVectorFieldType;
+import org.elasticsearch.search.vectors.MaxSimQuery;
+import org.elasticsearch.search.vectors.VectorData;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.junit.AssumptionViolatedException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+
+public class MultiDenseVectorFieldMapperTests extends MapperTestCase {
+
+    private final ElementType elementType;
+    private final int dims;
+
+    public MultiDenseVectorFieldMapperTests() {
+        this.elementType = randomFrom(ElementType.BYTE, ElementType.FLOAT);
+        this.dims = 4;
+    }
+
+    @Override
+    protected void minimalMapping(XContentBuilder b) throws IOException {
+        b.field("type", "multi_dense_vector").field("dims", dims);
+        if (elementType != ElementType.FLOAT) {
+            b.field("element_type", elementType.toString());
+        }
+    }
+
+    @Override
+    protected Object getSampleValueForDocument() {
+        return elementType == ElementType.FLOAT
+            ? List.of(List.of(0.5, 0.5, 0.5, 0.5), List.of(0.25, 0.5, 0.75, 1.0))
+            : List.of(List.of((byte) 1, (byte) 1, (byte) 1, (byte) 1), List.of((byte) 2, (byte) 3, (byte) 4, (byte) 5));
+    }
+
+    @Override
+    protected void registerParameters(ParameterChecker checker) throws IOException {
+        checker.registerConflictCheck(
+            "dims",
+            fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", dims)),
+            fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", dims + 8))
+        );
+        checker.registerConflictCheck(
+            "element_type",
+            fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", dims).field("element_type", "byte")),
+            fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", dims).field("element_type", "float"))
+        );
+    }
+
+    @Override
+    protected boolean supportsStoredFields() {
+        return false;
+    }
+
+    @Override
+    protected boolean supportsIgnoreMalformed() {
+        return false;
+    }
+
+    @Override
+    protected boolean supportsEmptyInputArray() {
+        return false;
+    }
+
+    @Override
+    protected void assertSearchable(MappedFieldType fieldType) {
+        assertThat(fieldType, instanceOf(MultiDenseVectorFieldType.class));
+        assertFalse(fieldType.isIndexed());
+        assertFalse(fieldType.isSearchable());
+    }
+
+    @Override
+    protected void assertExistsQuery(MappedFieldType fieldType, Query query, LuceneDocument fields) {
+        assertThat(query, instanceOf(FieldExistsQuery.class));
+        FieldExistsQuery existsQuery = (FieldExistsQuery) query;
+        assertEquals("field", existsQuery.getField());
+        assertNoFieldNamesField(fields);
+    }
+
+    public void testDims() {
+        Exception e = expectThrows(MapperParsingException.class, () -> createMapperService(fieldMapping(b -> {
+            b.field("type", "multi_dense_vector");
+            b.field("dims", 0);
+        })));
+        assertThat(
+            e.getMessage(),
+            containsString("The number of dimensions for field [field] should be in the range [1, 4096] but was [0]")
+        );
+        e = expectThrows(MapperParsingException.class, () -> createMapperService(fieldMapping(b -> b.field("type", "multi_dense_vector"))));
+        assertThat(e.getMessage(), containsString("Missing required parameter [dims] for field [field]"));
+    }
+
+    public void testBitElementTypeNotSupported() {
+        Exception e = expectThrows(MapperParsingException.class, () -> createMapperService(fieldMapping(b -> {
+            b.field("type", "multi_dense_vector");
+            b.field("dims", 8);
+            b.field("element_type", "bit");
+        })));
+        assertThat(e.getMessage(), containsString("invalid element_type [bit]; available types are [float, byte]"));
+    }
+
+    public void testStoresAllVectorsInOneDocValue() throws Exception {
+        DocumentMapper mapper = createDocumentMapper(fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", 3)));
+        float[][] vectors = new float[][] { { -12.1f, 100.7f, -4 }, { 1, 2, 3 }, { 0.5f, -0.5f, 0 } };
+        ParsedDocument doc = mapper.parse(source(b -> {
+            b.startArray("field");
+            for (float[] vector : vectors) {
+                b.value(vector);
+            }
+            b.endArray();
+        }));
+        List<IndexableField> fields = doc.rootDoc().getFields("field");
+        assertEquals(1, fields.size());
+        assertThat(fields.get(0), instanceOf(BinaryDocValuesField.class));
+        BytesRef value = fields.get(0).binaryValue();
+        assertEquals(vectors.length * 3 * Float.BYTES, value.length);
+        ByteBuffer buffer = ByteBuffer.wrap(value.bytes, value.offset, value.length).order(ByteOrder.LITTLE_ENDIAN);
+        for (float[] vector : vectors) {
+            for (float v : vector) {
+                assertEquals(v, buffer.getFloat(), 0f);
+            }
+        }
+    }
+
+    public void testStoresByteVectors() throws Exception {
+        DocumentMapper mapper = createDocumentMapper(
+            fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", 3).field("element_type", "byte"))
+        );
+        ParsedDocument doc = mapper.parse(source(b -> {
+            b.startArray("field");
+            b.value(new int[] { -1, 2, 127 });
+            b.value(new int[] { 0, -128, 5 });
+            b.endArray();
+        }));
+        List<IndexableField> fields = doc.rootDoc().getFields("field");
+        assertEquals(1, fields.size());
+        assertEquals(new BytesRef(new byte[] { -1, 2, 127, 0, -128, 5 }), fields.get(0).binaryValue());
+
+        Exception e = expectThrows(DocumentParsingException.class, () -> mapper.parse(source(b -> {
+            b.startArray("field");
+            b.value(new int[] { 0, 200, 5 });
+            b.endArray();
+        })));
+        assertThat(e.getCause().getMessage(), containsString("vectors only support integers between [-128, 127]"));
+    }
+
+    public void testDimensionsMismatch() throws Exception {
+        DocumentMapper mapper = createDocumentMapper(fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", 3)));
+        Exception e = expectThrows(DocumentParsingException.class, () -> mapper.parse(source(b -> {
+            b.startArray("field");
+            b.value(new float[] { 1, 2, 3 });
+            b.value(new float[] { 1, 2 });
+            b.endArray();
+        })));
+        assertThat(e.getCause().getMessage(), containsString("has a vector at index [1] with a different number of dimensions"));
+
+        e = expectThrows(DocumentParsingException.class, () -> mapper.parse(source(b -> {
+            b.startArray("field");
+            b.value(new float[] { 1, 2, 3, 4 });
+            b.endArray();
+        })));
+        assertThat(e.getCause().getMessage(), containsString("has a vector at index [0] with a different number of dimensions"));
+
+        e = expectThrows(DocumentParsingException.class, () -> mapper.parse(source(b -> b.array("field", 1, 2, 3))));
+        assertThat(e.getMessage(), containsString("failed to parse field [field] of type [multi_dense_vector]"));
+    }
+
+    public void testCreateMaxSimQuery() {
+        MultiDenseVectorFieldType ft = new MultiDenseVectorFieldType("f", ElementType.FLOAT, 3, Map.of());
+        Query query = ft.createMaxSimQuery(List.of(VectorData.fromFloats(new float[] { 1, 2, 3 })));
+        assertThat(query, instanceOf(MaxSimQuery.Floats.class));
+
+        Exception e = expectThrows(
+            IllegalArgumentException.class,
+            () -> ft.createMaxSimQuery(List.of(VectorData.fromFloats(new float[] { 1, 2 })))
+        );
+        assertThat(e.getMessage(), containsString("The query vector has a different number of dimensions [2]"));
+
+        MultiDenseVectorFieldType byteFt = new MultiDenseVectorFieldType("f", ElementType.BYTE, 3, Map.of());
+        query = byteFt.createMaxSimQuery(List.of(VectorData.fromBytes(new byte[] { 1, 2, 3 })));
+        assertThat(query, instanceOf(MaxSimQuery.Bytes.class));
+    }
+
+    public void testSyntheticSourceRoundTrip() throws IOException {
+        DocumentMapper mapper = createDocumentMapper(
+            syntheticSourceMapping(b -> b.startObject("field").field("type", "multi_dense_vector").field("dims", 2).endObject())
+        );
+        String source = syntheticSource(mapper, b -> {
+            b.startArray("field");
+            b.value(new float[] { 1.5f, -2 });
+            b.value(new float[] { 0, 3 });
+            b.endArray();
+        });
+        assertThat(source, equalTo("""
+            {"field":[[1.5,-2.0],[0.0,3.0]]}"""));
+    }
+
+    @Override
+    protected void assertFetchMany(MapperService mapperService, String field, Object value, String format, int count) throws IOException {
+        assumeFalse("Multi dense vectors don't support multiple values in the same field", false);
+    }
+
+    @Override
+    protected void assertFetch(MapperService mapperService, String field, Object value, String format) throws IOException {
+        // multi dense vectors don't provide fielddata so there is nothing to compare the source values to
+    }
+
+    @Override
+    protected Object generateRandomInputValue(MappedFieldType ft) {
+        MultiDenseVectorFieldType vectorFieldType = (MultiDenseVectorFieldType) ft;
+        int numVectors = randomIntBetween(1, 5);
+        List<List<?>> vectors = new ArrayList<>(numVectors);
+        for (int v = 0; v < numVectors; v++) {
+            vectors.add(
+                vectorFieldType.getElementType() == ElementType.BYTE
+                    ? randomList(vectorFieldType.getVectorDimensions(), vectorFieldType.getVectorDimensions(), ESTestCase::randomByte)
+                    : randomList(vectorFieldType.getVectorDimensions(), vectorFieldType.getVectorDimensions(), ESTestCase::randomFloat)
+            );
+        }
+        return vectors;
+    }
+
+    @Override
+    protected IngestScriptSupport ingestScriptSupport() {
+        throw new AssumptionViolatedException("not supported");
+    }
+
+    @Override
+    protected SyntheticSourceSupport syntheticSourceSupport(boolean ignoreMalformed) {
+        return new MultiDenseVectorSyntheticSourceSupport();
+    }
+
+    private static class MultiDenseVectorSyntheticSourceSupport implements SyntheticSourceSupport {
+        private final int dims = between(1, 256);
+        private final ElementType elementType = randomFrom(ElementType.BYTE, ElementType.FLOAT);
+
+        @Override
+        public SyntheticSourceExample example(int maxValues) throws IOException {
+            int numVectors = between(1, 5);
+            List<List<?>> value = new ArrayList<>(numVectors);
+            for (int v = 0; v < numVectors; v++) {
+                value.add(
+                    elementType == ElementType.BYTE
+                        ? randomList(dims, dims, ESTestCase::randomByte)
+                        : randomList(dims, dims, ESTestCase::randomFloat)
+                );
+            }
+            return new SyntheticSourceExample(value, value, this::mapping);
+        }
+
+        private void mapping(XContentBuilder b) throws IOException {
+            b.field("type", "multi_dense_vector");
+            b.field("dims", dims);
+            if (elementType == ElementType.BYTE || randomBoolean()) {
+                b.field("element_type", elementType.toString());
+            }
+        }
+
+        @Override
+        public List<SyntheticSourceInvalidExample> invalidExample() {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.translog;
+
+import org.elasticsearch.test.ESTestCase;
+
+public class SyncBatchSizeTrackerTests extends ESTestCase {
+
+    public void testHistogram() {
+        final SyncBatchSizeTracker tracker = new SyncBatchSizeTracker();
+
+        assertArrayEquals(new long[] { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 }, tracker.getHistogram());
+
+        tracker.addBatchSize(1);
+        assertArrayEquals(new long[] { 0, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 }, tracker.getHistogram());
+
+        tracker.addBatchSize(2);
+        assertArrayEquals(new long[] { 0, 1, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 }, tracker.getHistogram());
+
+        tracker.addBatchSize(3);
+        assertArrayEquals(new long[] { 0, 1, 2, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 }, tracker.getHistogram());
+
+        tracker.addBatchSize(1024);
+        assertArrayEquals(new long[] { 0, 1, 2, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0 }, tracker.getHistogram());
+
+        tracker.addBatchSize(4095);
+        assertArrayEquals(new long[] { 0, 1, 2, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 0 }, tracker.getHistogram());
+
+        tracker.addBatchSize(randomIntBetween(4096, Integer.MAX_VALUE));
+        assertArrayEquals(new long[] { 0, 1, 2, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1 }, tracker.getHistogram());
+
+        tracker.addBatchSize(0);
+        assertArrayEquals(new long[] { 1, 1, 2, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1 }, tracker.getHistogram());
+    }
+}
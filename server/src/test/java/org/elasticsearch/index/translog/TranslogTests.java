@@ -39,6 +39,7 @@ import org.elasticsearch.common.io.DiskIoBufferPool;
 import org.elasticsearch.common.io.FileSystemUtils;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.network.HandlingTimeTracker;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
@@ -548,9 +549,18 @@ public class TranslogTests extends ESTestCase {
                         "size_in_bytes": %s,
                         "uncommitted_operations": 4,
                         "uncommitted_size_in_bytes": %s,
-                        "earliest_last_modified_age": %s
+                        "earliest_last_modified_age": %s,
+                        "sync": {
+                          "time_histogram": %s,
+                          "batch_size_histogram": []
+                        }
                       }
-                    }""", 325L + sourceLength, 270L + sourceLength, stats.getEarliestLastModifiedAge()))));
+                    }""",
+                    325L + sourceLength,
+                    270L + sourceLength,
+                    stats.getEarliestLastModifiedAge(),
+                    syncTimeHistogramToJson(copy.getSyncTimeHistogram())
+                ))));
             }
         }
         translog.getDeletionPolicy().setLocalCheckpointOfSafeCommit(randomLongBetween(3, Long.MAX_VALUE));
@@ -566,6 +576,36 @@ public class TranslogTests extends ESTestCase {
         }
     }
 
+    /**
+     * Renders the non-empty range of a sync time histogram, whose buckets depend on how long the syncs of the test took.
+     */
+    private static String syncTimeHistogramToJson(long[] histogram) {
+        final int[] bounds = HandlingTimeTracker.getBucketUpperBounds();
+        int first = 0;
+        while (first < histogram.length && histogram[first] == 0) {
+            first++;
+        }
+        int last = histogram.length - 1;
+        while (last >= first && histogram[last] == 0) {
+            last--;
+        }
+        final StringBuilder json = new StringBuilder("[");
+        for (int i = first; i <= last; i++) {
+            if (i > first) {
+                json.append(',');
+            }
+            json.append('{');
+            if (i > 0) {
+                json.append("\"ge_millis\":").append(bounds[i - 1]).append(',');
+            }
+            if (i < bounds.length) {
+                json.append("\"lt_millis\":").append(bounds[i]).append(',');
+            }
+            json.append("\"count\":").append(histogram[i]).append('}');
+        }
+        return json.append(']').toString();
+    }
+
     public void testUncommittedOperations() throws Exception {
         final TranslogDeletionPolicy deletionPolicy = translog.getDeletionPolicy();
         final int operations = scaledRandomIntBetween(10, 100);
@@ -588,6 +628,27 @@ public class TranslogTests extends ESTestCase {
         }
     }
 
+    public void testSyncTimeHistogram() throws IOException {
+        assertThat(Arrays.stream(translog.stats().getSyncTimeHistogram()).sum(), equalTo(0L));
+        final int syncs = randomIntBetween(1, 10);
+        for (int i = 0; i < syncs; i++) {
+            final Location location = translog.add(indexOp(Integer.toString(i), i, primaryTerm.get(), Integer.toString(i)));
+            if (randomBoolean()) {
+                assertTrue(translog.ensureSynced(location, SequenceNumbers.UNASSIGNED_SEQ_NO));
+            } else {
+                translog.sync();
+            }
+            // already synced, doesn't count
+            assertFalse(translog.ensureSynced(location, SequenceNumbers.UNASSIGNED_SEQ_NO));
+        }
+        final TranslogStats stats = translog.stats();
+        assertThat(Arrays.stream(stats.getSyncTimeHistogram()).sum(), equalTo((long) syncs));
+
+        final BytesStreamOutput out = new BytesStreamOutput();
+        stats.writeTo(out);
+        assertThat(new TranslogStats(out.bytes().streamInput()), equalTo(stats));
+    }
+
     public void testTotalTests() {
         final TranslogStats total = new TranslogStats();
 
@@ -16,6 +16,7 @@ import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.TermQuery;
@@ -25,6 +26,7 @@ import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefIterator;
 import org.elasticsearch.common.CheckedSupplier;
 import org.elasticsearch.common.bytes.AbstractBytesReference;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
@@ -397,6 +399,50 @@ public class IndicesRequestCacheTests extends ESTestCase {
 
     }
 
+    public void testSegmentLevelCacheSurvivesRefresh() throws Exception {
+        ShardRequestCache requestCacheStats = new ShardRequestCache();
+        IndicesRequestCache cache = new IndicesRequestCache(Settings.EMPTY);
+        Directory dir = newDirectory();
+        IndexWriter writer = new IndexWriter(dir, newIndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE));
+        MappingLookup.CacheKey mappingKey = MappingLookup.EMPTY.cacheKey();
+        BytesReference termBytes = XContentHelper.toXContent(new TermQueryBuilder("id", "0"), XContentType.JSON, false);
+        TestEntity entity = new TestEntity(requestCacheStats, new AtomicBoolean(true));
+
+        writer.addDocument(newDoc(0, "foo"));
+        DirectoryReader reader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer), new ShardId("foo", "bar", 1));
+        assertEquals(1, reader.leaves().size());
+        IndexReader.CacheHelper firstSegment = reader.leaves().get(0).reader().getReaderCacheHelper();
+        assertNull(cache.get(entity, mappingKey, firstSegment, termBytes));
+        cache.put(entity, mappingKey, firstSegment, termBytes, new BytesArray("partial"));
+        assertEquals(1, cache.count());
+        assertEquals(1, cache.numRegisteredCloseListeners());
+
+        // a refresh that adds a segment keeps the entry of the untouched segment
+        writer.addDocument(newDoc(1, "bar"));
+        DirectoryReader secondReader = DirectoryReader.openIfChanged(reader);
+        assertEquals(2, secondReader.leaves().size());
+        reader.close();
+        cache.cleanCache();
+        assertEquals(1, cache.count());
+        assertEquals(
+            new BytesArray("partial"),
+            cache.get(entity, mappingKey, secondReader.leaves().get(0).reader().getReaderCacheHelper(), termBytes)
+        );
+        assertNull(cache.get(entity, mappingKey, secondReader.leaves().get(1).reader().getReaderCacheHelper(), termBytes));
+        // segment level lookups don't count towards the shard's hits and misses
+        assertEquals(0, requestCacheStats.stats().getHitCount());
+        assertEquals(0, requestCacheStats.stats().getMissCount());
+
+        // the entry goes away with the segment
+        secondReader.close();
+        cache.cleanCache();
+        assertEquals(0, cache.count());
+        assertEquals(0L, requestCacheStats.stats().getMemorySize().getBytes());
+        assertEquals(0, cache.numRegisteredCloseListeners());
+
+        IOUtils.close(writer, dir, cache);
+    }
+
     public Iterable<Field> newDoc(int id, String value) {
         return Arrays.asList(
             newField("id", Integer.toString(id), StringField.TYPE_STORED),
@@ -0,0 +1,138 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+
+package org.elasticsearch.indices.recovery;
+
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class RecoveryBandwidthSchedulerTests extends ESTestCase {
+
+    private static final long MAX_BYTES_PER_SEC = ByteSizeValue.ofMb(100).getBytes();
+    private static final TimeValue TARGET_LATENCY = TimeValue.timeValueMillis(100);
+
+    public void testSingleRecoveryGetsAllBandwidth() {
+        final RecoveryBandwidthScheduler scheduler = new RecoveryBandwidthScheduler(MAX_BYTES_PER_SEC, TARGET_LATENCY, System::nanoTime);
+        try (RecoveryBandwidthScheduler.Allocation allocation = scheduler.allocate(randomBoolean(), randomNonNegativeLong())) {
+            assertThat(allocation.bytesPerSec(), equalTo(MAX_BYTES_PER_SEC));
+            assertThat(allocation.rateLimiter(), notNullValue());
+            assertThat(allocation.rateLimiter().getMBPerSec(), closeTo(100.0, 0.001));
+            assertThat(scheduler.activeAllocations(), equalTo(1));
+        }
+        assertThat(scheduler.activeAllocations(), equalTo(0));
+    }
+
+    public void testPrimaryRelocationsGetTwiceTheBandwidth() {
+        final RecoveryBandwidthScheduler scheduler = new RecoveryBandwidthScheduler(MAX_BYTES_PER_SEC, TARGET_LATENCY, System::nanoTime);
+        final long bytesToSend = randomLongBetween(0, ByteSizeValue.ofGb(100).getBytes());
+        try (
+            RecoveryBandwidthScheduler.Allocation primary = scheduler.allocate(true, bytesToSend);
+            RecoveryBandwidthScheduler.Allocation replica = scheduler.allocate(false, bytesToSend)
+        ) {
+            assertThat((double) primary.bytesPerSec(), closeTo(2.0 * replica.bytesPerSec(), 1.0));
+            assertThat((double) primary.bytesPerSec() + replica.bytesPerSec(), closeTo(MAX_BYTES_PER_SEC, 1.0));
+        }
+    }
+
+    public void testSmallerRecoveriesGetMoreBandwidth() {
+        final RecoveryBandwidthScheduler scheduler = new RecoveryBandwidthScheduler(MAX_BYTES_PER_SEC, TARGET_LATENCY, System::nanoTime);
+        final boolean primaryRelocation = randomBoolean();
+        try (
+            RecoveryBandwidthScheduler.Allocation small = scheduler.allocate(primaryRelocation, ByteSizeValue.ofMb(10).getBytes());
+            RecoveryBandwidthScheduler.Allocation large = scheduler.allocate(primaryRelocation, ByteSizeValue.ofGb(100).getBytes())
+        ) {
+            assertThat(small.bytesPerSec(), greaterThan(large.bytesPerSec()));
+            final long largeBytesPerSec = large.bytesPerSec();
+            // as the large recovery progresses it gets a bigger share
+            large.onBytesSent(ByteSizeValue.ofGb(100).getBytes() - ByteSizeValue.ofMb(10).getBytes());
+            assertThat(large.bytesPerSec(), greaterThan(largeBytesPerSec));
+            assertThat(large.bytesPerSec(), equalTo(small.bytesPerSec()));
+        }
+    }
+
+    public void testReleasedBandwidthIsRedistributed() {
+        final RecoveryBandwidthScheduler scheduler = new RecoveryBandwidthScheduler(MAX_BYTES_PER_SEC, TARGET_LATENCY, System::nanoTime);
+        try (RecoveryBandwidthScheduler.Allocation first = scheduler.allocate(randomBoolean(), randomNonNegativeLong())) {
+            final RecoveryBandwidthScheduler.Allocation second = scheduler.allocate(randomBoolean(), randomNonNegativeLong());
+            assertThat(first.bytesPerSec(), lessThanOrEqualTo(MAX_BYTES_PER_SEC));
+            second.close();
+            assertThat(first.bytesPerSec(), equalTo(MAX_BYTES_PER_SEC));
+            // releasing twice is a no-op
+            second.close();
+            assertThat(scheduler.activeAllocations(), equalTo(1));
+        }
+    }
+
+    public void testUnlimitedBandwidth() {
+        final RecoveryBandwidthScheduler scheduler = new RecoveryBandwidthScheduler(0L, TARGET_LATENCY, System::nanoTime);
+        try (RecoveryBandwidthScheduler.Allocation allocation = scheduler.allocate(randomBoolean(), randomNonNegativeLong())) {
+            assertThat(allocation.bytesPerSec(), equalTo(0L));
+            assertThat(allocation.rateLimiter(), nullValue());
+            scheduler.setMaxBytesPerSec(MAX_BYTES_PER_SEC);
+            assertThat(allocation.bytesPerSec(), equalTo(MAX_BYTES_PER_SEC));
+            assertThat(allocation.rateLimiter(), notNullValue());
+            scheduler.setMaxBytesPerSec(0L);
+            assertThat(allocation.rateLimiter(), nullValue());
+        }
+    }
+
+    public void testAdaptsToChunkLatency() {
+        final AtomicLong clock = new AtomicLong();
+        final RecoveryBandwidthScheduler scheduler = new RecoveryBandwidthScheduler(MAX_BYTES_PER_SEC, TARGET_LATENCY, clock::get);
+        final long slow = TARGET_LATENCY.nanos() + TimeUnit.MILLISECONDS.toNanos(between(1, 1000));
+        final long fast = randomLongBetween(0, TARGET_LATENCY.nanos());
+        try (RecoveryBandwidthScheduler.Allocation allocation = scheduler.allocate(randomBoolean(), randomNonNegativeLong())) {
+            // a slow chunk within the current interval has no effect until the interval is over
+            allocation.onChunkAcknowledged(slow);
+            assertThat(scheduler.availableBytesPerSec(), equalTo(MAX_BYTES_PER_SEC));
+
+            clock.addAndGet(TARGET_LATENCY.nanos());
+            allocation.onChunkAcknowledged(fast);
+            final long reduced = Math.round(MAX_BYTES_PER_SEC * RecoveryBandwidthScheduler.DECREASE_FACTOR);
+            assertThat(scheduler.availableBytesPerSec(), equalTo(reduced));
+            assertThat(allocation.bytesPerSec(), equalTo(reduced));
+
+            for (int i = 0; i < 100; i++) {
+                clock.addAndGet(TARGET_LATENCY.nanos());
+                allocation.onChunkAcknowledged(slow);
+            }
+            final long minimum = Math.round(MAX_BYTES_PER_SEC * RecoveryBandwidthScheduler.MIN_BANDWIDTH_FACTOR);
+            assertThat(scheduler.availableBytesPerSec(), equalTo(minimum));
+
+            clock.addAndGet(TARGET_LATENCY.nanos());
+            allocation.onChunkAcknowledged(fast);
+            assertThat(
+                scheduler.availableBytesPerSec(),
+                equalTo(
+                    Math.round(
+                        MAX_BYTES_PER_SEC * (RecoveryBandwidthScheduler.MIN_BANDWIDTH_FACTOR + RecoveryBandwidthScheduler.INCREASE_STEP)
+                    )
+                )
+            );
+
+            for (int i = 0; i < 100; i++) {
+                clock.addAndGet(TARGET_LATENCY.nanos());
+                allocation.onChunkAcknowledged(fast);
+            }
+            assertThat(scheduler.availableBytesPerSec(), equalTo(MAX_BYTES_PER_SEC));
+        }
+    }
+}
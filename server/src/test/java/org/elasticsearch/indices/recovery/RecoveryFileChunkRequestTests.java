@@ -0,0 +1,106 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+
+package org.elasticsearch.indices.recovery;
+
+import org.apache.lucene.util.Version;
+import org.elasticsearch.TransportVersion;
+import org.elasticsearch.TransportVersions;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.TransportVersionUtils;
+
+import java.io.IOException;
+
+public class RecoveryFileChunkRequestTests extends ESTestCase {
+
+    public void testSerialization() throws IOException {
+        final TransportVersion version = TransportVersionUtils.randomCompatibleVersion(random());
+        final RecoveryFileChunkRequest request = randomRequest();
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            out.setTransportVersion(version);
+            request.writeTo(out);
+            try (StreamInput in = out.bytes().streamInput()) {
+                in.setTransportVersion(version);
+                final RecoveryFileChunkRequest copy = new RecoveryFileChunkRequest(in);
+                try {
+                    assertEquals(request.recoveryId(), copy.recoveryId());
+                    assertEquals(request.requestSeqNo(), copy.requestSeqNo());
+                    assertEquals(request.shardId(), copy.shardId());
+                    assertEquals(request.name(), copy.name());
+                    assertEquals(request.position(), copy.position());
+                    assertEquals(request.length(), copy.length());
+                    assertEquals(request.metadata().checksum(), copy.metadata().checksum());
+                    assertEquals(request.metadata().writtenBy(), copy.metadata().writtenBy());
+                    assertEquals(request.content(), copy.content());
+                    assertEquals(request.lastChunk(), copy.lastChunk());
+                    assertEquals(request.totalTranslogOps(), copy.totalTranslogOps());
+                    assertEquals(request.sourceThrottleTimeInNanos(), copy.sourceThrottleTimeInNanos());
+                } finally {
+                    copy.decRef();
+                }
+            }
+        } finally {
+            request.decRef();
+        }
+    }
+
+    public void testContentIsReturnedAsTrailingBytes() throws IOException {
+        final RecoveryFileChunkRequest request = randomRequest();
+        try (BytesStreamOutput expected = new BytesStreamOutput(); BytesStreamOutput actual = new BytesStreamOutput()) {
+            request.writeTo(expected);
+            final BytesReference trailingBytes = request.writeWithoutTrailingBytes(actual);
+            assertSame(request.content(), trailingBytes);
+            assertEquals(expected.bytes(), CompositeBytesReference.of(actual.bytes(), trailingBytes));
+        } finally {
+            request.decRef();
+        }
+    }
+
+    public void testContentIsInlinedForOlderVersions() throws IOException {
+        final TransportVersion version = TransportVersionUtils.randomVersionBetween(
+            random(),
+            TransportVersions.MINIMUM_COMPATIBLE,
+            TransportVersionUtils.getPreviousVersion(TransportVersions.RECOVERY_FILE_CHUNK_TRAILING_CONTENT)
+        );
+        final RecoveryFileChunkRequest request = randomRequest();
+        try (BytesStreamOutput expected = new BytesStreamOutput(); BytesStreamOutput actual = new BytesStreamOutput()) {
+            expected.setTransportVersion(version);
+            actual.setTransportVersion(version);
+            request.writeTo(expected);
+            assertEquals(0, request.writeWithoutTrailingBytes(actual).length());
+            assertEquals(expected.bytes(), actual.bytes());
+        } finally {
+            request.decRef();
+        }
+    }
+
+    private static RecoveryFileChunkRequest randomRequest() {
+        final byte[] bytes = randomByteArrayOfLength(between(0, 1024));
+        return new RecoveryFileChunkRequest(
+            randomNonNegativeLong(),
+            randomNonNegativeLong(),
+            new ShardId(randomAlphaOfLength(10), randomAlphaOfLength(10), between(0, 10)),
+            new StoreFileMetadata(randomAlphaOfLength(10), between(bytes.length, 4096), randomAlphaOfLength(8), Version.LATEST.toString()),
+            randomNonNegativeLong(),
+            ReleasableBytesReference.wrap(new BytesArray(bytes)),
+            randomBoolean(),
+            randomNonNegativeInt(),
+            randomNonNegativeLong()
+        );
+    }
+}
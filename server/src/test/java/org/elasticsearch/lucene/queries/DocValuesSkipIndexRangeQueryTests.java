@@ -0,0 +1,102 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.lucene.queries;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.search.FieldExistsQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.tests.search.QueryUtils;
+import org.apache.lucene.tests.util.TestUtil;
+import org.elasticsearch.index.codec.tsdb.ES87TSDBDocValuesFormat;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.instanceOf;
+
+public class DocValuesSkipIndexRangeQueryTests extends ESTestCase {
+
+    public void testBasics() {
+        Query query1 = new DocValuesSkipIndexRangeQuery("field", 1, 10);
+        Query query2 = new DocValuesSkipIndexRangeQuery("field", 1, 10);
+        QueryUtils.check(query1);
+        QueryUtils.checkEqual(query1, query2);
+        QueryUtils.checkUnequal(query1, new DocValuesSkipIndexRangeQuery("field", 1, 11));
+        QueryUtils.checkUnequal(query1, new DocValuesSkipIndexRangeQuery("other", 1, 10));
+        assertEquals("[1 TO 10]", query1.toString("field"));
+        assertEquals("field:[1 TO 10]", query1.toString("other"));
+    }
+
+    public void testRewrite() throws IOException {
+        IndexSearcher searcher = newSearcher(new MultiReader());
+        Query allValues = new DocValuesSkipIndexRangeQuery("field", Long.MIN_VALUE, Long.MAX_VALUE);
+        assertThat(allValues.rewrite(searcher), instanceOf(FieldExistsQuery.class));
+        assertThat(new DocValuesSkipIndexRangeQuery("field", 10, 1).rewrite(searcher), instanceOf(MatchNoDocsQuery.class));
+    }
+
+    public void testWithSkipIndex() throws IOException {
+        assertSameMatches(true);
+    }
+
+    public void testWithoutSkipIndex() throws IOException {
+        assertSameMatches(false);
+    }
+
+    /**
+     * Compares the matches of the query with the matches of a query that checks the value of every document.
+     */
+    private void assertSameMatches(boolean skipIndex) throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig().setCodec(
+            TestUtil.alwaysDocValuesFormat(new ES87TSDBDocValuesFormat(field -> skipIndex))
+        );
+        int numDocs = randomIntBetween(1000, 20_000);
+        try (Directory dir = newDirectory(); IndexWriter writer = new IndexWriter(dir, config)) {
+            for (int doc = 0; doc < numDocs; doc++) {
+                Document d = new Document();
+                if (randomInt(9) > 0) {
+                    // values are correlated with the doc ids, like with an index sorted on time
+                    long value = doc * 10L + randomIntBetween(-100, 100);
+                    d.add(new NumericDocValuesField("single", value));
+                    d.add(new SortedNumericDocValuesField("multi", value));
+                    if (randomBoolean()) {
+                        d.add(new SortedNumericDocValuesField("multi", value + randomIntBetween(0, 1000)));
+                    }
+                }
+                writer.addDocument(d);
+                if (rarely()) {
+                    writer.commit();
+                }
+            }
+            try (IndexReader reader = DirectoryReader.open(writer)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                for (int i = 0; i < 20; i++) {
+                    long lower = randomLongBetween(-200, numDocs * 10L);
+                    long upper = randomBoolean() ? lower + randomIntBetween(0, 100) : lower + randomLongBetween(0, numDocs * 10L);
+                    for (String field : new String[] { "single", "multi" }) {
+                        assertEquals(
+                            searcher.count(SortedNumericDocValuesField.newSlowRangeQuery(field, lower, upper)),
+                            searcher.count(new DocValuesSkipIndexRangeQuery(field, lower, upper))
+                        );
+                    }
+                }
+            }
+        }
+    }
+}
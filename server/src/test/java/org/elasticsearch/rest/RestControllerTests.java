@@ -12,8 +12,10 @@ package org.elasticsearch.rest;
 import org.elasticsearch.ElasticsearchStatusException;
 import org.elasticsearch.client.internal.node.NodeClient;
 import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.component.AbstractLifecycleComponent;
 import org.elasticsearch.common.io.stream.BytesStream;
 import org.elasticsearch.common.io.stream.RecyclerBytesStreamOutput;
@@ -27,6 +29,7 @@ import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.core.IOUtils;
 import org.elasticsearch.core.RestApiVersion;
+import org.elasticsearch.http.HttpBody;
 import org.elasticsearch.http.HttpHeadersValidationException;
 import org.elasticsearch.http.HttpInfo;
 import org.elasticsearch.http.HttpRequest;
@@ -79,6 +82,7 @@ import static org.elasticsearch.rest.RestRequest.Method.POST;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
@@ -515,6 +519,74 @@ public class RestControllerTests extends ESTestCase {
         assertEquals(0, inFlightRequestsBreaker.getUsed());
     }
 
+    public void testDispatchChargesChunksOfStreamedContent() {
+        final AtomicReference<HttpBody.ChunkHandler> chunkHandler = new AtomicReference<>();
+        final HttpBody.Stream stream = new HttpBody.Stream() {
+            @Override
+            public void setHandler(HttpBody.ChunkHandler handler) {
+                chunkHandler.set(handler);
+            }
+
+            @Override
+            public void next() {}
+
+            @Override
+            public void close() {}
+        };
+        final List<ReleasableBytesReference> chunks = new ArrayList<>();
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        restController.registerHandler(new Route(POST, "/stream"), new RestHandler() {
+            @Override
+            public void handleRequest(RestRequest request, RestChannel channel, NodeClient client) {
+                request.contentStream().setHandler(new HttpBody.ChunkHandler() {
+                    @Override
+                    public void onNext(ReleasableBytesReference chunk, boolean isLast) {
+                        chunks.add(chunk);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        failure.set(e);
+                    }
+                });
+            }
+
+            @Override
+            public boolean supportsContentStream() {
+                return true;
+            }
+        });
+        RestRequest request = new FakeRestRequest.Builder(xContentRegistry()).withMethod(POST)
+            .withPath("/stream")
+            .withContentStream(stream, XContentType.JSON)
+            .build();
+        AssertingChannel channel = new AssertingChannel(request, true, RestStatus.OK);
+
+        restController.dispatchRequest(request, channel, client.threadPool().getThreadContext());
+        assertEquals(0, inFlightRequestsBreaker.getUsed());
+
+        // chunks are charged while the handler holds on to them
+        int length = (int) (BREAKER_LIMIT.getBytes() / inFlightRequestsBreaker.getOverhead());
+        AtomicBoolean released = new AtomicBoolean();
+        var chunk = new ReleasableBytesReference(new BytesArray(randomByteArrayOfLength(length)), () -> released.set(true));
+        chunkHandler.get().onNext(chunk, false);
+        assertEquals(1, chunks.size());
+        assertEquals(length, inFlightRequestsBreaker.getUsed());
+        chunks.get(0).close();
+        assertTrue(released.get());
+        assertEquals(0, inFlightRequestsBreaker.getUsed());
+
+        // a chunk that trips the breaker is released and fails the handler instead
+        released.set(false);
+        chunk = new ReleasableBytesReference(new BytesArray(randomByteArrayOfLength(length + 1)), () -> released.set(true));
+        chunkHandler.get().onNext(chunk, true);
+        assertEquals(1, chunks.size());
+        assertTrue(released.get());
+        assertThat(failure.get(), instanceOf(CircuitBreakingException.class));
+        assertEquals(1, inFlightRequestsBreaker.getTrippedCount());
+        assertEquals(0, inFlightRequestsBreaker.getUsed());
+    }
+
     public void testDispatchRequiresContentTypeForRequestsWithContent() {
         String content = randomAlphaOfLength((int) Math.round(BREAKER_LIMIT.getBytes() / inFlightRequestsBreaker.getOverhead()));
         RestRequest request = testRestRequest("/", content, null);
@@ -11,25 +11,44 @@ package org.elasticsearch.rest.action.document;
 
 import org.apache.lucene.util.SetOnce;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.support.WriteRequest;
 import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.http.HttpBody;
+import org.elasticsearch.http.HttpTransportSettings;
 import org.elasticsearch.index.IndexVersion;
+import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.rest.RestChannel;
 import org.elasticsearch.rest.RestRequest;
+import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.client.NoOpNodeClient;
+import org.elasticsearch.test.rest.FakeRestChannel;
 import org.elasticsearch.test.rest.FakeRestRequest;
 import org.elasticsearch.xcontent.XContentType;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -165,4 +184,174 @@ public class RestBulkActionTests extends ESTestCase {
             }
         }
     }
+
+    public void testStreamingIsOptIn() {
+        assertFalse(new RestBulkAction(Settings.EMPTY).supportsContentStream());
+        assertTrue(
+            new RestBulkAction(Settings.builder().put(RestBulkAction.STREAM_REQUEST_BODY.getKey(), true).build()).supportsContentStream()
+        );
+    }
+
+    public void testStreamedBody() throws Exception {
+        final int numDocs = randomIntBetween(20, 50);
+        final StringBuilder body = new StringBuilder();
+        for (int i = 0; i < numDocs; i++) {
+            body.append("{\"index\":{\"_id\":\"").append(i).append("\"}}\n");
+            body.append("{\"field\":\"").append(randomAlphaOfLength(randomIntBetween(50, 500))).append("\"}\n");
+        }
+        final BytesReference content = new BytesArray(body.toString());
+
+        final List<BulkRequest> batches = new ArrayList<>();
+        final List<ActionListener<BulkResponse>> pendingBatches = new ArrayList<>();
+        try (var threadPool = createThreadPool()) {
+            final var client = new NoOpNodeClient(threadPool) {
+                @Override
+                public void bulk(BulkRequest request, ActionListener<BulkResponse> listener) {
+                    batches.add(request);
+                    pendingBatches.add(listener);
+                }
+            };
+            final TestBodyStream stream = new TestBodyStream();
+            final RestRequest request = new FakeRestRequest.Builder(xContentRegistry()).withPath("my_index/_bulk")
+                .withParams(new HashMap<>(Map.of("index", "my_index", "refresh", "wait_for")))
+                .withContentStream(stream, XContentType.JSON)
+                .withMethod(RestRequest.Method.POST)
+                .build();
+            final FakeRestChannel channel = new FakeRestChannel(request, true, 1);
+            final Settings settings = Settings.builder()
+                .put(RestBulkAction.STREAM_REQUEST_BODY.getKey(), true)
+                .put(RestBulkAction.STREAM_BATCH_SIZE.getKey(), "1kb")
+                .build();
+            new RestBulkAction(settings).handleRequest(request, channel, client);
+
+            int offset = 0;
+            while (offset < content.length()) {
+                if (stream.requested == false) {
+                    // the next chunk is only requested once the batch in flight completed
+                    assertThat(pendingBatches, hasSize(1));
+                    respond(batches.get(batches.size() - 1), pendingBatches.remove(0));
+                    assertTrue(stream.requested);
+                }
+                final int length = randomIntBetween(1, Math.min(200, content.length() - offset));
+                stream.requested = false;
+                stream.handler.onNext(ReleasableBytesReference.wrap(content.slice(offset, length)), offset + length == content.length());
+                offset += length;
+            }
+            while (pendingBatches.isEmpty() == false) {
+                assertThat(pendingBatches, hasSize(1));
+                respond(batches.get(batches.size() - 1), pendingBatches.remove(0));
+            }
+
+            assertThat(batches.size(), greaterThan(1));
+            int id = 0;
+            for (BulkRequest batch : batches) {
+                assertThat(batch.getRefreshPolicy(), equalTo(WriteRequest.RefreshPolicy.WAIT_UNTIL));
+                for (DocWriteRequest<?> docWriteRequest : batch.requests()) {
+                    assertThat(docWriteRequest.index(), equalTo("my_index"));
+                    assertThat(docWriteRequest.id(), equalTo(Integer.toString(id++)));
+                }
+            }
+            assertThat(id, equalTo(numDocs));
+            assertThat(channel.responses().get(), equalTo(1));
+            assertThat(channel.capturedResponse().status(), equalTo(RestStatus.OK));
+        }
+    }
+
+    public void testStreamedItemLargerThanMaxContentLength() throws Exception {
+        final String body = "{\"index\":{\"_id\":\"1\"}}\n{\"field\":\"" + randomAlphaOfLength(2048) + "\"}\n";
+        final BytesReference content = new BytesArray(body);
+        try (var threadPool = createThreadPool()) {
+            final var client = new NoOpNodeClient(threadPool) {
+                @Override
+                public void bulk(BulkRequest request, ActionListener<BulkResponse> listener) {
+                    fail("the item is too large to be executed");
+                }
+            };
+            final TestBodyStream stream = new TestBodyStream();
+            final RestRequest request = new FakeRestRequest.Builder(xContentRegistry()).withPath("my_index/_bulk")
+                .withParams(new HashMap<>(Map.of("index", "my_index")))
+                .withContentStream(stream, XContentType.JSON)
+                .withMethod(RestRequest.Method.POST)
+                .build();
+            final FakeRestChannel channel = new FakeRestChannel(request, true, 1);
+            final Settings settings = Settings.builder()
+                .put(RestBulkAction.STREAM_REQUEST_BODY.getKey(), true)
+                .put(HttpTransportSettings.SETTING_HTTP_MAX_CONTENT_LENGTH.getKey(), "1kb")
+                .build();
+            new RestBulkAction(settings).handleRequest(request, channel, client);
+
+            final AtomicInteger unreleasedChunks = new AtomicInteger();
+            int offset = 0;
+            while (stream.requested) {
+                final int length = randomIntBetween(1, 200);
+                stream.requested = false;
+                unreleasedChunks.incrementAndGet();
+                final BytesReference chunk = content.slice(offset, length);
+                stream.handler.onNext(new ReleasableBytesReference(chunk, unreleasedChunks::decrementAndGet), false);
+                offset += length;
+            }
+            assertThat(offset, greaterThan(1024));
+            assertThat(offset, lessThanOrEqualTo(1024 + 200));
+            assertThat(unreleasedChunks.get(), equalTo(0));
+            assertThat(channel.responses().get(), equalTo(0));
+            assertThat(channel.errors().get(), equalTo(1));
+            assertThat(channel.capturedResponse().status(), equalTo(RestStatus.REQUEST_ENTITY_TOO_LARGE));
+        }
+    }
+
+    public void testStreamedChunkFailure() throws Exception {
+        try (var threadPool = createThreadPool()) {
+            final var client = new NoOpNodeClient(threadPool);
+            final TestBodyStream stream = new TestBodyStream();
+            final RestRequest request = new FakeRestRequest.Builder(xContentRegistry()).withPath("my_index/_bulk")
+                .withParams(new HashMap<>(Map.of("index", "my_index")))
+                .withContentStream(stream, XContentType.JSON)
+                .withMethod(RestRequest.Method.POST)
+                .build();
+            final FakeRestChannel channel = new FakeRestChannel(request, true, 1);
+            new RestBulkAction(Settings.builder().put(RestBulkAction.STREAM_REQUEST_BODY.getKey(), true).build()).handleRequest(
+                request,
+                channel,
+                client
+            );
+
+            assertTrue(stream.requested);
+            stream.requested = false;
+            stream.handler.onFailure(new CircuitBreakingException("in-flight requests", CircuitBreaker.Durability.TRANSIENT));
+            assertFalse(stream.requested);
+            assertThat(channel.errors().get(), equalTo(1));
+            assertThat(channel.capturedResponse().status(), equalTo(RestStatus.TOO_MANY_REQUESTS));
+        }
+    }
+
+    private static void respond(BulkRequest batch, ActionListener<BulkResponse> listener) {
+        final ShardId shardId = new ShardId("my_index", "_na_", 0);
+        final BulkItemResponse[] items = new BulkItemResponse[batch.numberOfActions()];
+        for (int i = 0; i < items.length; i++) {
+            final String id = batch.requests().get(i).id();
+            items[i] = BulkItemResponse.success(i, DocWriteRequest.OpType.INDEX, new IndexResponse(shardId, id, 1, 1, 1, true));
+        }
+        ActionListener.respondAndRelease(listener, new BulkResponse(items, 1));
+    }
+
+    private static class TestBodyStream implements HttpBody.Stream {
+        HttpBody.ChunkHandler handler;
+        boolean requested;
+
+        @Override
+        public void setHandler(HttpBody.ChunkHandler chunkHandler) {
+            this.handler = chunkHandler;
+        }
+
+        @Override
+        public void next() {
+            assertFalse("chunk already requested", requested);
+            requested = true;
+        }
+
+        @Override
+        public void close() {
+            handler.close();
+        }
+    }
 }
@@ -0,0 +1,230 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.aggregations;
+
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.MockBigArrays;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
+import org.elasticsearch.search.aggregations.bucket.terms.LongTerms;
+import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
+import org.elasticsearch.search.aggregations.metrics.Sum;
+import org.elasticsearch.search.aggregations.metrics.SumAggregationBuilder;
+import org.elasticsearch.search.aggregations.support.AggregationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.elasticsearch.test.InternalAggregationTestCase.DEFAULT_MAX_BUCKETS;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class SegmentCachingAggregatorCollectorTests extends AggregatorTestCase {
+
+    public void testSameResultsAsUncachedCollection() throws IOException {
+        AggregatorFactories.Builder builder = new AggregatorFactories.Builder().addAggregator(
+            new TermsAggregationBuilder("terms").field("t").size(100).subAggregation(new SumAggregationBuilder("sum").field("v"))
+        );
+        withNonMergingIndex(iw -> {
+            for (int s = randomIntBetween(2, 6); s > 0; s--) {
+                int numDocs = randomIntBetween(1, 50);
+                for (int d = 0; d < numDocs; d++) {
+                    iw.addDocument(
+                        List.of(
+                            new SortedNumericDocValuesField("t", randomIntBetween(0, 10)),
+                            new SortedNumericDocValuesField("v", randomIntBetween(0, 1000))
+                        )
+                    );
+                }
+                iw.commit();
+            }
+        }, reader -> {
+            // the writer may flush on its own, but never merges
+            int numSegments = reader.leaves().size();
+            assertThat(numSegments, greaterThanOrEqualTo(2));
+            LongTerms expected = collect(reader, builder, null);
+
+            // nothing is cached yet, every segment is collected and offered to the cache
+            MapCache cache = new MapCache();
+            assertTermsEqual(expected, collect(reader, builder, cache));
+            assertThat(cache.hits, equalTo(0));
+            assertThat(cache.entries.size(), equalTo(numSegments));
+
+            // every segment is read from the cache
+            cache.hits = 0;
+            assertTermsEqual(expected, collect(reader, builder, cache));
+            assertThat(cache.hits, equalTo(numSegments));
+
+            // only some of the segments are cached, the others are collected and reduced with the cached results
+            int evicted = 0;
+            for (LeafReaderContext leaf : reader.leaves()) {
+                if (evicted == 0 || randomBoolean()) {
+                    cache.entries.remove(leaf.ord);
+                    evicted++;
+                }
+            }
+            cache.hits = 0;
+            assertTermsEqual(expected, collect(reader, builder, cache));
+            assertThat(cache.hits, equalTo(numSegments - evicted));
+            assertThat(cache.entries.size(), equalTo(numSegments));
+        });
+    }
+
+    public void testNoSegments() throws IOException {
+        AggregatorFactories.Builder builder = new AggregatorFactories.Builder();
+        builder.addAggregator(new TermsAggregationBuilder("terms").field("t"));
+        withNonMergingIndex(iw -> {}, reader -> {
+            MapCache cache = new MapCache();
+            assertTermsEqual(collect(reader, builder, null), collect(reader, builder, cache));
+            assertThat(cache.entries.size(), equalTo(0));
+        });
+    }
+
+    public void testReleasesAggregatorsOfCollectedSegments() throws IOException {
+        AggregatorFactories.Builder builder = new AggregatorFactories.Builder().addAggregator(
+            new TermsAggregationBuilder("terms").field("t").size(100).subAggregation(new SumAggregationBuilder("sum").field("v"))
+        );
+        withNonMergingIndex(iw -> {
+            for (int s = 0; s < 5; s++) {
+                for (int d = 0; d < 200; d++) {
+                    iw.addDocument(
+                        List.of(
+                            new SortedNumericDocValuesField("t", s * 1000 + d),
+                            new SortedNumericDocValuesField("v", randomIntBetween(0, 1000))
+                        )
+                    );
+                }
+                iw.commit();
+            }
+        }, reader -> {
+            CircuitBreaker breaker = new MockBigArrays.LimitedBreaker(CircuitBreaker.REQUEST, ByteSizeValue.ofMb(100));
+            CircuitBreakerService breakerService = new NoneCircuitBreakerService() {
+                @Override
+                public CircuitBreaker getBreaker(String name) {
+                    return breaker;
+                }
+            };
+            List<Long> usedBeforeSegment = new ArrayList<>();
+            MapCache cache = new MapCache() {
+                @Override
+                public InternalAggregations get(LeafReaderContext ctx) {
+                    usedBeforeSegment.add(breaker.getUsed());
+                    return super.get(ctx);
+                }
+            };
+            AggregationContext context = createAggregationContext(
+                reader,
+                createIndexSettings(),
+                new MatchAllDocsQuery(),
+                breakerService,
+                0,
+                DEFAULT_MAX_BUCKETS,
+                false,
+                false,
+                longField("t"),
+                longField("v")
+            );
+            collect(context, builder, cache);
+            assertThat(usedBeforeSegment.size(), equalTo(reader.leaves().size()));
+            // the first segment is collected by the aggregators that were created up front, every later segment starts from
+            // the same baseline because the aggregators of the previous segment have been released
+            long baseline = usedBeforeSegment.get(1);
+            assertThat(baseline, lessThanOrEqualTo(usedBeforeSegment.get(0)));
+            for (int i = 2; i < usedBeforeSegment.size(); i++) {
+                assertThat("breaker usage before segment [" + i + "]", usedBeforeSegment.get(i), equalTo(baseline));
+            }
+        });
+    }
+
+    private LongTerms collect(IndexReader reader, AggregatorFactories.Builder builder, SegmentAggregationsCache cache)
+        throws IOException {
+        AggregationContext context = createAggregationContext(reader, new MatchAllDocsQuery(), longField("t"), longField("v"));
+        return collect(context, builder, cache);
+    }
+
+    private LongTerms collect(AggregationContext context, AggregatorFactories.Builder builder, SegmentAggregationsCache cache)
+        throws IOException {
+        Supplier<AggregatorCollector> collectorSupplier = () -> {
+            try {
+                Aggregator[] aggregators = builder.build(context, null).createTopLevelAggregators();
+                BucketCollector bucketCollector = MultiBucketCollector.wrap(true, List.of(aggregators));
+                bucketCollector.preCollection();
+                return new AggregatorCollector(aggregators, bucketCollector);
+            } catch (IOException e) {
+                throw new AggregationInitializationException("Could not initialize aggregators", e);
+            }
+        };
+        AggregatorCollector collector = cache == null
+            ? collectorSupplier.get()
+            : new SegmentCachingAggregatorCollector(
+                collectorSupplier,
+                cache,
+                () -> new AggregationReduceContext.ForPartial(context.bigArrays(), getMockScriptService(), () -> false, builder, b -> {})
+            );
+        context.searcher().search(context.query(), collector);
+        collector.doPostCollection();
+        InternalAggregations reduced = InternalAggregations.topLevelReduce(
+            List.of(InternalAggregations.from(collector.internalAggregations)),
+            new AggregationReduceContext.ForFinal(
+                context.bigArrays(),
+                getMockScriptService(),
+                () -> false,
+                builder,
+                new MultiBucketConsumerService.MultiBucketConsumer(context.maxBuckets(), context.breaker())
+            )
+        );
+        return reduced.get("terms");
+    }
+
+    private static void assertTermsEqual(LongTerms expected, LongTerms actual) {
+        assertThat(actual.getBuckets().size(), equalTo(expected.getBuckets().size()));
+        for (int i = 0; i < expected.getBuckets().size(); i++) {
+            LongTerms.Bucket expectedBucket = expected.getBuckets().get(i);
+            LongTerms.Bucket actualBucket = actual.getBuckets().get(i);
+            assertThat(actualBucket.getKey(), equalTo(expectedBucket.getKey()));
+            assertThat(actualBucket.getDocCount(), equalTo(expectedBucket.getDocCount()));
+            Sum expectedSum = expectedBucket.getAggregations().get("sum");
+            Sum actualSum = actualBucket.getAggregations().get("sum");
+            assertThat(actualSum.value(), equalTo(expectedSum.value()));
+        }
+    }
+
+    /**
+     * Caches the partial results by segment ordinal, which is stable for the lifetime of the test's reader.
+     */
+    private static class MapCache implements SegmentAggregationsCache {
+        private final Map<Integer, InternalAggregations> entries = new HashMap<>();
+        private int hits;
+
+        @Override
+        public InternalAggregations get(LeafReaderContext ctx) {
+            InternalAggregations cached = entries.get(ctx.ord);
+            if (cached != null) {
+                hits++;
+            }
+            return cached;
+        }
+
+        @Override
+        public void put(LeafReaderContext ctx, InternalAggregations aggregations) {
+            entries.put(ctx.ord, aggregations);
+        }
+    }
+}
@@ -10,21 +10,32 @@
 package org.elasticsearch.search.aggregations.bucket.histogram;
 
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
 import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.tests.index.RandomIndexWriter;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.time.DateFormatter;
 import org.elasticsearch.common.time.DateFormatters;
 import org.elasticsearch.core.CheckedConsumer;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.mapper.BooleanFieldMapper;
 import org.elasticsearch.index.mapper.CustomTermFreqField;
 import org.elasticsearch.index.mapper.DateFieldMapper;
@@ -41,6 +52,7 @@ import org.elasticsearch.search.aggregations.bucket.terms.StringTerms;
 import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
 import org.elasticsearch.search.aggregations.pipeline.PipelineAggregator.PipelineTree;
 import org.elasticsearch.search.aggregations.support.AggregationContext;
+import org.elasticsearch.test.IndexSettingsModule;
 import org.elasticsearch.test.InternalAggregationTestCase;
 import org.hamcrest.Matcher;
 
@@ -50,6 +62,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.IntStream;
 
@@ -70,6 +84,12 @@ public class DateHistogramAggregatorTests extends DateHistogramAggregatorTestCas
      */
     private static final String SEARCHABLE_DATE = "searchable_date";
 
+    /**
+     * Should the index settings claim that the index is sorted on
+     * {@link #AGGREGABLE_DATE}?
+     */
+    private boolean sortOnAggregableDate = false;
+
     private static final List<String> DATASET = Arrays.asList(
         "2010-03-12T01:07:45",
         "2010-04-27T03:43:34",
@@ -1028,6 +1048,64 @@ public class DateHistogramAggregatorTests extends DateHistogramAggregatorTestCas
         );
     }
 
+    /**
+     * When the index is sorted on the date we count whole segments by
+     * searching for the boundaries of each bucket instead of collecting.
+     */
+    public void testCountFromIndexSort() throws IOException {
+        sortOnAggregableDate = true;
+        boolean reverse = randomBoolean();
+        boolean deletes = randomBoolean();
+        IndexWriterConfig config = newIndexWriterConfig().setIndexSort(
+            new Sort(new SortedNumericSortField(AGGREGABLE_DATE, SortField.Type.LONG, reverse))
+        );
+        long start = DateFieldMapper.DEFAULT_DATE_TIME_FORMATTER.parseMillis("2020-01-01T00:00:00");
+        int numDocs = between(5000, 10000);
+        Map<String, Long> expected = new TreeMap<>();
+        try (Directory directory = newDirectory(); IndexWriter iw = new IndexWriter(directory, config)) {
+            for (int i = 0; i < numDocs; i++) {
+                long date = start + randomLongBetween(0, TimeUnit.DAYS.toMillis(3) - 1);
+                iw.addDocument(List.of(new SortedNumericDocValuesField(AGGREGABLE_DATE, date), new StringField("id", "" + i, Store.NO)));
+                if (deletes == false || i % 10 != 0) {
+                    String key = DateFieldMapper.DEFAULT_DATE_TIME_FORMATTER.formatMillis(date).substring(0, 10) + "T00:00:00.000Z";
+                    expected.merge(key, 1L, Long::sum);
+                }
+            }
+            iw.forceMerge(1);
+            if (deletes) {
+                for (int i = 0; i < numDocs; i += 10) {
+                    iw.deleteDocuments(new Term("id", "" + i));
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(iw)) {
+                debugTestCase(
+                    new DateHistogramAggregationBuilder("d").field(AGGREGABLE_DATE).calendarInterval(DateHistogramInterval.DAY),
+                    new MatchAllDocsQuery(),
+                    reader,
+                    (InternalDateHistogram result, Class<? extends Aggregator> impl, Map<String, Map<String, Object>> debug) -> {
+                        Map<String, Long> counts = new TreeMap<>();
+                        for (InternalDateHistogram.Bucket bucket : result.getBuckets()) {
+                            counts.put(bucket.getKeyAsString(), bucket.getDocCount());
+                        }
+                        assertThat(counts, equalTo(expected));
+
+                        assertThat(impl, equalTo(DateHistogramAggregator.class));
+                        assertMap(
+                            debug,
+                            matchesMap().entry(
+                                "d",
+                                matchesMap().entry("total_buckets", (long) expected.size())
+                                    .entry("segments_counted_from_index_sort", deletes ? 0 : 1)
+                            )
+                        );
+                    },
+                    null,
+                    aggregableDateFieldType(false, false)
+                );
+            }
+        }
+    }
+
     private void aggregationImplementationChoiceTestCase(
         DateFieldMapper.DateFieldType ft,
         List<String> data,
@@ -1186,6 +1264,15 @@ public class DateHistogramAggregatorTests extends DateHistogramAggregatorTestCas
         }
     }
 
+    @Override
+    protected IndexSettings createIndexSettings() {
+        Settings.Builder builder = Settings.builder();
+        if (sortOnAggregableDate) {
+            builder.put("index.sort.field", AGGREGABLE_DATE);
+        }
+        return IndexSettingsModule.newIndexSettings(new Index("_index", "0"), builder.build());
+    }
+
     private static long asLong(String dateTime) {
         return DateFormatters.from(DateFieldMapper.DEFAULT_DATE_TIME_FORMATTER.parse(dateTime)).toInstant().toEpochMilli();
     }
@@ -9,11 +9,13 @@
 
 package org.elasticsearch.search.profile.query;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.io.stream.Writeable.Reader;
 import org.elasticsearch.search.SearchResponseUtils;
 import org.elasticsearch.search.profile.ProfileResult;
 import org.elasticsearch.search.profile.ProfileResultTests;
 import org.elasticsearch.test.AbstractXContentSerializingTestCase;
+import org.elasticsearch.test.TransportVersionUtils;
 import org.elasticsearch.xcontent.XContentParser;
 
 import java.io.IOException;
@@ -37,7 +39,16 @@ public class QueryProfileShardResultTests extends AbstractXContentSerializingTes
         }
 
         Long vectorOperationsCount = randomBoolean() ? null : randomNonNegativeLong();
-        return new QueryProfileShardResult(queryProfileResults, rewriteTime, profileCollector, vectorOperationsCount);
+        Long knnExactSegments = randomBoolean() ? null : randomLongBetween(0, 100);
+        Long knnApproximateSegments = randomBoolean() ? null : randomLongBetween(0, 100);
+        return new QueryProfileShardResult(
+            queryProfileResults,
+            rewriteTime,
+            profileCollector,
+            vectorOperationsCount,
+            knnExactSegments,
+            knnApproximateSegments
+        );
     }
 
     @Override
@@ -67,4 +78,25 @@ public class QueryProfileShardResultTests extends AbstractXContentSerializingTes
     protected Predicate<String> getRandomFieldsExcludeFilter() {
         return ProfileResultTests.RANDOM_FIELDS_EXCLUDE_FILTER;
     }
+
+    public void testKnnSearchSegmentsSerialization() throws IOException {
+        QueryProfileShardResult instance = new QueryProfileShardResult(
+            List.of(),
+            randomNonNegativeLong(),
+            CollectorResultTests.createTestItem(1),
+            randomNonNegativeLong(),
+            randomLongBetween(0, 100),
+            randomLongBetween(0, 100)
+        );
+        QueryProfileShardResult copy = copyInstance(instance);
+        assertEquals(instance.getKnnExactSegments(), copy.getKnnExactSegments());
+        assertEquals(instance.getKnnApproximateSegments(), copy.getKnnApproximateSegments());
+
+        QueryProfileShardResult bwcCopy = copyInstance(
+            instance,
+            TransportVersionUtils.getPreviousVersion(TransportVersions.KNN_PROFILE_SEARCH_SEGMENTS)
+        );
+        assertNull(bwcCopy.getKnnExactSegments());
+        assertNull(bwcCopy.getKnnApproximateSegments());
+    }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.KnnByteVectorField;
+import org.apache.lucene.document.KnnFloatVectorField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.tests.index.RandomIndexWriter;
+import org.elasticsearch.search.profile.query.QueryProfiler;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class FilteredKnnSearchStrategyTests extends ESTestCase {
+
+    public void testPreferExactSearch() {
+        // fewer matching docs than candidates
+        assertTrue(FilteredKnnSearchStrategy.preferExactSearch(100, 50, 1_000_000));
+        // very restrictive filter, the graph search would visit most of the segment to collect enough candidates
+        assertTrue(FilteredKnnSearchStrategy.preferExactSearch(10, 1_000, 1_000_000));
+        // unrestrictive filter
+        assertFalse(FilteredKnnSearchStrategy.preferExactSearch(10, 900_000, 1_000_000));
+        assertFalse(FilteredKnnSearchStrategy.preferExactSearch(10, 1_000_000, 1_000_000));
+    }
+
+    public void testExactSearchMatchesBruteForce() throws IOException {
+        int dims = randomIntBetween(2, 16);
+        int numDocs = randomIntBetween(10, 200);
+        float[][] vectors = new float[numDocs][];
+        boolean[] matches = new boolean[numDocs];
+        int numMatches = 0;
+        try (Directory dir = newDirectory(); RandomIndexWriter w = new RandomIndexWriter(random(), dir)) {
+            for (int d = 0; d < numDocs; d++) {
+                vectors[d] = randomVector(dims);
+                matches[d] = randomBoolean();
+                numMatches += matches[d] ? 1 : 0;
+                Document doc = document(d, matches[d]);
+                doc.add(new KnnFloatVectorField("vector", vectors[d], VectorSimilarityFunction.EUCLIDEAN));
+                w.addDocument(doc);
+            }
+            float[] queryVector = randomVector(dims);
+            try (IndexReader reader = w.getReader()) {
+                IndexSearcher searcher = newSearcher(reader);
+                Query filter = new TermQuery(new Term("tag", "match"));
+                // more candidates than matching docs, so every segment is scored exactly
+                int numCands = numMatches + randomIntBetween(1, 10);
+                ESKnnFloatVectorQuery query = new ESKnnFloatVectorQuery("vector", queryVector, null, numCands, filter, true);
+                TopDocs topDocs = searcher.search(query, numDocs);
+                assertEquals(numMatches, topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    int id = Integer.parseInt(searcher.storedFields().document(scoreDoc.doc).get("id"));
+                    assertTrue(matches[id]);
+                    assertEquals(VectorSimilarityFunction.EUCLIDEAN.compare(queryVector, vectors[id]), scoreDoc.score, 1e-5f);
+                }
+
+                QueryProfiler profiler = new QueryProfiler();
+                query.profile(profiler);
+                assertEquals(0L, profiler.getKnnApproximateSegments().longValue());
+                assertThat(profiler.getKnnExactSegments(), lessThanOrEqualTo((long) reader.leaves().size()));
+            }
+        }
+    }
+
+    public void testGraphSearchWithUnrestrictiveFilter() throws IOException {
+        int dims = randomIntBetween(2, 16);
+        int numDocs = randomIntBetween(500, 1000);
+        try (Directory dir = newDirectory(); IndexWriter w = new IndexWriter(dir, newIndexWriterConfig())) {
+            for (int d = 0; d < numDocs; d++) {
+                Document doc = document(d, true);
+                doc.add(new KnnFloatVectorField("vector", randomVector(dims), VectorSimilarityFunction.EUCLIDEAN));
+                w.addDocument(doc);
+            }
+            w.forceMerge(1);
+            try (IndexReader reader = DirectoryReader.open(w)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                Query filter = new TermQuery(new Term("tag", "match"));
+                int k = randomIntBetween(1, 10);
+                ESKnnFloatVectorQuery query = new ESKnnFloatVectorQuery("vector", randomVector(dims), k, k, filter, true);
+                TopDocs topDocs = searcher.search(query, numDocs);
+                assertEquals(k, topDocs.scoreDocs.length);
+
+                QueryProfiler profiler = new QueryProfiler();
+                query.profile(profiler);
+                assertEquals(1L, profiler.getKnnApproximateSegments().longValue() + profiler.getKnnExactSegments().longValue());
+            }
+        }
+    }
+
+    public void testBytes() throws IOException {
+        try (Directory dir = newDirectory(); RandomIndexWriter w = new RandomIndexWriter(random(), dir)) {
+            byte[][] vectors = new byte[][] { { 1, 0 }, { 0, 1 }, { 1, 1 }, { -1, -1 } };
+            for (int d = 0; d < vectors.length; d++) {
+                Document doc = document(d, d != 2);
+                doc.add(new KnnByteVectorField("vector", vectors[d], VectorSimilarityFunction.EUCLIDEAN));
+                w.addDocument(doc);
+            }
+            try (IndexReader reader = w.getReader()) {
+                IndexSearcher searcher = newSearcher(reader);
+                Query filter = new TermQuery(new Term("tag", "match"));
+                byte[] queryVector = new byte[] { 1, 1 };
+                Query query = new ESKnnByteVectorQuery("vector", queryVector, 2, 10, filter, true);
+                TopDocs topDocs = searcher.search(query, 10);
+                assertEquals(2, topDocs.scoreDocs.length);
+                // the closest document doesn't match the filter, the next two are equally close
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    String id = searcher.storedFields().document(scoreDoc.doc).get("id");
+                    assertTrue(id.equals("0") || id.equals("1"));
+                    assertEquals(VectorSimilarityFunction.EUCLIDEAN.compare(queryVector, vectors[0]), scoreDoc.score, 0f);
+                }
+            }
+        }
+    }
+
+    private static Document document(int id, boolean matches) {
+        Document doc = new Document();
+        doc.add(new StringField("id", Integer.toString(id), Field.Store.YES));
+        doc.add(new StringField("tag", matches ? "match" : "other", Field.Store.NO));
+        return doc;
+    }
+
+    private static float[] randomVector(int dims) {
+        float[] vector = new float[dims];
+        for (int i = 0; i < dims; i++) {
+            vector[i] = randomFloat();
+        }
+        return vector;
+    }
+}
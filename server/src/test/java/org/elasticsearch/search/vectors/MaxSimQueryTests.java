@@ -0,0 +1,154 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.apache.lucene.document.BinaryDocValuesField;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.tests.index.RandomIndexWriter;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.VectorUtil;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class MaxSimQueryTests extends ESTestCase {
+
+    public void testEquals() {
+        Query q1 = new MaxSimQuery.Floats("f1", new float[][] { { 0, 1 }, { 1, 0 } });
+        assertEquals(q1, new MaxSimQuery.Floats("f1", new float[][] { { 0, 1 }, { 1, 0 } }));
+        assertEquals(q1.hashCode(), new MaxSimQuery.Floats("f1", new float[][] { { 0, 1 }, { 1, 0 } }).hashCode());
+        assertNotEquals(q1, new MaxSimQuery.Floats("f2", new float[][] { { 0, 1 }, { 1, 0 } }));
+        assertNotEquals(q1, new MaxSimQuery.Floats("f1", new float[][] { { 0, 1 } }));
+        assertNotEquals(q1, new MaxSimQuery.Bytes("f1", new byte[][] { { 0, 1 }, { 1, 0 } }));
+        assertNotEquals(q1, new TermQuery(new Term("f1", "x")));
+    }
+
+    public void testFloatScores() throws IOException {
+        int dims = randomIntBetween(1, 32);
+        float[][][] docs = new float[randomIntBetween(1, 20)][][];
+        try (Directory dir = newDirectory(); RandomIndexWriter w = new RandomIndexWriter(random(), dir)) {
+            for (int d = 0; d < docs.length; d++) {
+                docs[d] = new float[randomIntBetween(1, 10)][];
+                ByteBuffer buffer = ByteBuffer.allocate(docs[d].length * dims * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                for (int v = 0; v < docs[d].length; v++) {
+                    docs[d][v] = randomVector(dims);
+                    for (float value : docs[d][v]) {
+                        buffer.putFloat(value);
+                    }
+                }
+                w.addDocument(document(d, new BytesRef(buffer.array())));
+            }
+            // a document without vectors doesn't match
+            Document empty = new Document();
+            empty.add(new StringField("id", "empty", Field.Store.YES));
+            w.addDocument(empty);
+
+            float[][] queryVectors = new float[randomIntBetween(1, 5)][];
+            for (int q = 0; q < queryVectors.length; q++) {
+                queryVectors[q] = randomVector(dims);
+            }
+            try (IndexReader reader = w.getReader()) {
+                IndexSearcher searcher = newSearcher(reader);
+                Query query = new MaxSimQuery.Floats("vectors", queryVectors);
+                TopDocs topDocs = searcher.search(query, docs.length + 1);
+                assertEquals(docs.length, topDocs.totalHits.value);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    int id = Integer.parseInt(searcher.storedFields().document(scoreDoc.doc).get("id"));
+                    float expected = 0;
+                    for (float[] queryVector : queryVectors) {
+                        float max = Float.NEGATIVE_INFINITY;
+                        for (float[] vector : docs[id]) {
+                            max = Math.max(max, VectorUtil.dotProduct(queryVector, vector));
+                        }
+                        expected += max;
+                    }
+                    assertEquals(VectorUtil.scaleMaxInnerProductScore(expected), scoreDoc.score, 1e-4f);
+                    Explanation explanation = searcher.explain(query, scoreDoc.doc);
+                    assertTrue(explanation.isMatch());
+                    assertEquals(scoreDoc.score, explanation.getValue().floatValue(), 0f);
+                }
+            }
+        }
+    }
+
+    public void testByteScores() throws IOException {
+        try (Directory dir = newDirectory(); RandomIndexWriter w = new RandomIndexWriter(random(), dir)) {
+            w.addDocument(document(0, new BytesRef(new byte[] { 1, 0, 0, 1 })));
+            w.addDocument(document(1, new BytesRef(new byte[] { 2, 2 })));
+            w.addDocument(document(2, new BytesRef(new byte[] { -1, -1 })));
+            try (IndexReader reader = w.getReader()) {
+                IndexSearcher searcher = newSearcher(reader);
+                Query query = new MaxSimQuery.Bytes("vectors", new byte[][] { { 1, 0 }, { 0, 1 } });
+                TopDocs topDocs = searcher.search(query, 10);
+                assertEquals(3, topDocs.totalHits.value);
+                assertEquals("1", searcher.storedFields().document(topDocs.scoreDocs[0].doc).get("id"));
+                assertEquals(VectorUtil.scaleMaxInnerProductScore(4), topDocs.scoreDocs[0].score, 0f);
+                assertEquals("0", searcher.storedFields().document(topDocs.scoreDocs[1].doc).get("id"));
+                assertEquals(VectorUtil.scaleMaxInnerProductScore(2), topDocs.scoreDocs[1].score, 0f);
+                assertEquals("2", searcher.storedFields().document(topDocs.scoreDocs[2].doc).get("id"));
+                assertEquals(VectorUtil.scaleMaxInnerProductScore(-2), topDocs.scoreDocs[2].score, 0f);
+            }
+        }
+    }
+
+    public void testIsCacheable() throws IOException {
+        try (Directory dir = newDirectory(); RandomIndexWriter w = new RandomIndexWriter(random(), dir)) {
+            w.addDocument(document(0, new BytesRef(new byte[] { 1, 2 })));
+            Query query = new MaxSimQuery.Bytes("vectors", new byte[][] { { 1, 1 } });
+            try (IndexReader reader = w.getReader()) {
+                IndexSearcher searcher = newSearcher(reader);
+                Weight weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE, 1f);
+                for (LeafReaderContext context : searcher.getIndexReader().leaves()) {
+                    assertTrue(weight.isCacheable(context));
+                }
+            }
+            // updated doc values must not be served from the query cache
+            w.w.updateBinaryDocValue(new Term("id", "0"), "vectors", new BytesRef(new byte[] { 2, 1 }));
+            try (IndexReader reader = w.getReader()) {
+                IndexSearcher searcher = newSearcher(reader);
+                Weight weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE, 1f);
+                for (LeafReaderContext context : searcher.getIndexReader().leaves()) {
+                    assertFalse(weight.isCacheable(context));
+                }
+            }
+        }
+    }
+
+    private static Document document(int id, BytesRef vectors) {
+        Document doc = new Document();
+        doc.add(new StringField("id", Integer.toString(id), Field.Store.YES));
+        doc.add(new BinaryDocValuesField("vectors", vectors));
+        return doc;
+    }
+
+    private static float[] randomVector(int dims) {
+        float[] vector = new float[dims];
+        for (int i = 0; i < dims; i++) {
+            vector[i] = randomFloatBetween(-1, 1, true);
+        }
+        return vector;
+    }
+}
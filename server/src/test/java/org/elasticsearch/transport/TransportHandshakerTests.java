@@ -9,6 +9,7 @@
 package org.elasticsearch.transport;
 
 import org.elasticsearch.TransportVersion;
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.Version;
 import org.elasticsearch.action.support.PlainActionFuture;
 import org.elasticsearch.cluster.node.DiscoveryNode;
@@ -18,6 +19,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.tasks.TaskId;
 import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.TransportVersionUtils;
 import org.elasticsearch.threadpool.TestThreadPool;
 
 import java.io.IOException;
@@ -60,7 +62,7 @@ public class TransportHandshakerTests extends ESTestCase {
     }
 
     public void testHandshakeRequestAndResponse() throws IOException {
-        PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         long reqId = randomLongBetween(1, 10);
         handshaker.sendHandshake(reqId, node, channel, new TimeValue(30, TimeUnit.SECONDS), versionFuture);
 
@@ -80,7 +82,66 @@ public class TransportHandshakerTests extends ESTestCase {
         handler.handleResponse((TransportHandshaker.HandshakeResponse) responseFuture.actionGet());
 
         assertTrue(versionFuture.isDone());
-        assertEquals(TransportVersion.current(), versionFuture.actionGet());
+        assertEquals(TransportVersion.current(), versionFuture.actionGet().transportVersion());
+    }
+
+    public void testHandshakeAdvertisesZstdAvailability() throws IOException {
+        // a node whose native zstd failed to load must not be sent zstd by the nodes that have it
+        final boolean remoteZstdAvailable = randomBoolean();
+        final TransportHandshaker remoteHandshaker = new TransportHandshaker(
+            TransportVersion.current(),
+            threadPool,
+            requestSender,
+            false,
+            remoteZstdAvailable
+        );
+        PlainActionFuture<TcpTransport.HandshakeResult> resultFuture = new PlainActionFuture<>();
+        long reqId = randomLongBetween(1, 10);
+        handshaker.sendHandshake(reqId, node, channel, new TimeValue(30, TimeUnit.SECONDS), resultFuture);
+
+        TransportHandshaker.HandshakeRequest handshakeRequest = new TransportHandshaker.HandshakeRequest(TransportVersion.current());
+        BytesStreamOutput requestBytes = new BytesStreamOutput();
+        handshakeRequest.writeTo(requestBytes);
+        final PlainActionFuture<TransportResponse> responseFuture = new PlainActionFuture<>();
+        remoteHandshaker.handleHandshake(new TestTransportChannel(responseFuture), reqId, requestBytes.bytes().streamInput());
+
+        TransportResponseHandler<TransportHandshaker.HandshakeResponse> handler = handshaker.removeHandlerForHandshake(reqId);
+        BytesStreamOutput responseBytes = new BytesStreamOutput();
+        responseFuture.actionGet().writeTo(responseBytes);
+        StreamInput responseInput = responseBytes.bytes().streamInput();
+        handler.handleResponse(handler.read(responseInput));
+        assertEquals(0, responseInput.available());
+
+        TcpTransport.HandshakeResult result = resultFuture.actionGet();
+        assertEquals(TransportVersion.current(), result.transportVersion());
+        assertEquals(remoteZstdAvailable, result.zstdAvailable());
+        assertEquals(
+            remoteZstdAvailable ? Compression.Scheme.ZSTD : Compression.Scheme.LZ4,
+            TcpTransport.compressionSchemeForRemote(Compression.Scheme.ZSTD, result.zstdAvailable())
+        );
+        assertEquals(Compression.Scheme.DEFLATE, TcpTransport.compressionSchemeForRemote(Compression.Scheme.DEFLATE, false));
+    }
+
+    public void testHandshakeDoesNotAdvertiseZstdToOlderNodes() throws IOException {
+        TransportVersion olderVersion = TransportVersionUtils.randomVersionBetween(
+            random(),
+            TransportVersions.MINIMUM_COMPATIBLE,
+            TransportVersionUtils.getPreviousVersion(Compression.Scheme.ZSTD_VERSION)
+        );
+        TransportHandshaker.HandshakeRequest handshakeRequest = new TransportHandshaker.HandshakeRequest(olderVersion);
+        BytesStreamOutput requestBytes = new BytesStreamOutput();
+        handshakeRequest.writeTo(requestBytes);
+        final PlainActionFuture<TransportResponse> responseFuture = new PlainActionFuture<>();
+        handshaker.handleHandshake(new TestTransportChannel(responseFuture), randomLongBetween(1, 10), requestBytes.bytes().streamInput());
+
+        // an older node reads nothing but the version from the response
+        TransportHandshaker.HandshakeResponse response = (TransportHandshaker.HandshakeResponse) responseFuture.actionGet();
+        assertNull(response.getZstdAvailable());
+        BytesStreamOutput responseBytes = new BytesStreamOutput();
+        response.writeTo(responseBytes);
+        StreamInput responseInput = responseBytes.bytes().streamInput();
+        assertEquals(TransportVersion.current(), TransportVersion.readVersion(responseInput));
+        assertEquals(0, responseInput.available());
     }
 
     public void testHandshakeRequestFutureVersionsCompatibility() throws IOException {
@@ -119,7 +180,7 @@ public class TransportHandshakerTests extends ESTestCase {
     }
 
     public void testHandshakeError() throws IOException {
-        PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         long reqId = randomLongBetween(1, 10);
         handshaker.sendHandshake(reqId, node, channel, new TimeValue(30, TimeUnit.SECONDS), versionFuture);
 
@@ -136,7 +197,7 @@ public class TransportHandshakerTests extends ESTestCase {
     }
 
     public void testSendRequestThrowsException() throws IOException {
-        PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         long reqId = randomLongBetween(1, 10);
         doThrow(new IOException("boom")).when(requestSender)
             .sendRequest(node, channel, reqId, TransportHandshaker.REQUEST_HANDSHAKE_VERSION);
@@ -150,7 +211,7 @@ public class TransportHandshakerTests extends ESTestCase {
     }
 
     public void testHandshakeTimeout() throws IOException {
-        PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         long reqId = randomLongBetween(1, 10);
         handshaker.sendHandshake(reqId, node, channel, new TimeValue(100, TimeUnit.MILLISECONDS), versionFuture);
 
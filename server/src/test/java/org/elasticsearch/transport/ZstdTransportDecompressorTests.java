@@ -0,0 +1,296 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.transport;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.Streams;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.recycler.Recycler;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.MockPageCacheRecycler;
+import org.elasticsearch.common.util.PageCacheRecycler;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.lessThan;
+
+public class ZstdTransportDecompressorTests extends ESTestCase {
+
+    private final Recycler<BytesRef> recycler = new BytesRefRecycler(new MockPageCacheRecycler(Settings.EMPTY));
+
+    public void testSimpleCompression() throws IOException {
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            byte randomByte = randomByte();
+            try (OutputStream zstdBlockStream = Compression.Scheme.zstdOutputStream(org.elasticsearch.core.Streams.noCloseStream(output))) {
+                zstdBlockStream.write(randomByte);
+            }
+
+            BytesReference bytes = output.bytes();
+
+            ZstdTransportDecompressor decompressor = new ZstdTransportDecompressor(recycler);
+            int bytesConsumed = decompressor.decompress(bytes);
+            assertEquals(bytes.length(), bytesConsumed);
+            ReleasableBytesReference releasableBytesReference = decompressor.pollDecompressedPage(true);
+            assertEquals(randomByte, releasableBytesReference.get(0));
+            releasableBytesReference.close();
+        }
+    }
+
+    public void testMultiPageCompression() throws IOException {
+        int intsToWrite = 50000;
+        int uncompressedLength = intsToWrite * 4;
+
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            try (
+                StreamOutput zstdBlockStream = new OutputStreamStreamOutput(
+                    Compression.Scheme.zstdOutputStream(Streams.flushOnCloseStream(output))
+                )
+            ) {
+                for (int i = 0; i < intsToWrite; ++i) {
+                    int lowByte = (i & 0xFF);
+                    if (lowByte < 128) {
+                        zstdBlockStream.writeInt(0);
+                    } else if (lowByte < 200) {
+                        zstdBlockStream.writeInt(1);
+                    } else {
+                        zstdBlockStream.writeInt(i);
+                    }
+                }
+            }
+
+            BytesReference bytes = output.bytes();
+            // Since 200 / 255 data is repeated, we should get a compression ratio of at least 50%
+            assertThat(bytes.length(), lessThan(uncompressedLength / 2));
+
+            ZstdTransportDecompressor decompressor = new ZstdTransportDecompressor(recycler);
+            int bytesConsumed = decompressor.decompress(bytes);
+            assertEquals(bytes.length(), bytesConsumed);
+
+            int numOfUncompressedPages = uncompressedLength / PageCacheRecycler.BYTE_PAGE_SIZE;
+            if (bytes.length() % PageCacheRecycler.BYTE_PAGE_SIZE > 0) {
+                numOfUncompressedPages += 1;
+            }
+
+            ReleasableBytesReference[] polledReferences = new ReleasableBytesReference[numOfUncompressedPages];
+            for (int i = 0; i < numOfUncompressedPages - 1; ++i) {
+                polledReferences[i] = decompressor.pollDecompressedPage(false);
+            }
+
+            polledReferences[numOfUncompressedPages - 1] = decompressor.pollDecompressedPage(true);
+            assertNull(decompressor.pollDecompressedPage(true));
+
+            BytesReference composite = CompositeBytesReference.of(polledReferences);
+            assertEquals(uncompressedLength, composite.length());
+            StreamInput streamInput = composite.streamInput();
+            for (int i = 0; i < intsToWrite; ++i) {
+                int lowByte = (i & 0xFF);
+                if (lowByte < 128) {
+                    assertEquals(0, streamInput.readInt());
+                } else if (lowByte < 200) {
+                    assertEquals(1, streamInput.readInt());
+                } else {
+                    assertEquals(i, streamInput.readInt());
+                }
+            }
+            Releasables.close(polledReferences);
+        }
+    }
+
+    public void testIncrementalMultiPageCompression() throws IOException {
+        int intsToWrite = 50000;
+        int uncompressedLength = intsToWrite * 4;
+
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            try (
+                StreamOutput zstdBlockStream = new OutputStreamStreamOutput(
+                    Compression.Scheme.zstdOutputStream(Streams.flushOnCloseStream(output))
+                )
+            ) {
+                for (int i = 0; i < intsToWrite; ++i) {
+                    int lowByte = (i & 0xFF);
+                    if (lowByte < 128) {
+                        zstdBlockStream.writeInt(0);
+                    } else if (lowByte < 200) {
+                        zstdBlockStream.writeInt(1);
+                    } else {
+                        zstdBlockStream.writeInt(i);
+                    }
+                }
+            }
+
+            BytesReference bytes = output.bytes();
+            // Since 200 / 255 data is repeated, we should get a compression ratio of at least 50%
+            assertThat(bytes.length(), lessThan(uncompressedLength / 2));
+
+            ZstdTransportDecompressor decompressor = new ZstdTransportDecompressor(recycler);
+
+            int split1 = (int) (bytes.length() * 0.3);
+            int split2 = (int) (bytes.length() * 0.65);
+            BytesReference inbound1 = bytes.slice(0, split1);
+            BytesReference inbound2 = bytes.slice(split1, split2 - split1);
+            BytesReference inbound3 = bytes.slice(split2, bytes.length() - split2);
+
+            int bytesConsumed1 = decompressor.decompress(inbound1);
+            BytesReference next = CompositeBytesReference.of(inbound1.slice(bytesConsumed1, inbound1.length() - bytesConsumed1), inbound2);
+            int bytesConsumed2 = decompressor.decompress(next);
+            BytesReference next2 = CompositeBytesReference.of(next.slice(bytesConsumed2, next.length() - bytesConsumed2), inbound3);
+            int bytesConsumed3 = decompressor.decompress(next2);
+            assertEquals(bytes.length(), bytesConsumed1 + bytesConsumed2 + bytesConsumed3);
+
+            int numOfUncompressedPages = uncompressedLength / PageCacheRecycler.BYTE_PAGE_SIZE;
+            if (bytes.length() % PageCacheRecycler.BYTE_PAGE_SIZE > 0) {
+                numOfUncompressedPages += 1;
+            }
+
+            ReleasableBytesReference[] polledReferences = new ReleasableBytesReference[numOfUncompressedPages];
+            for (int i = 0; i < numOfUncompressedPages - 1; ++i) {
+                polledReferences[i] = decompressor.pollDecompressedPage(false);
+            }
+
+            polledReferences[numOfUncompressedPages - 1] = decompressor.pollDecompressedPage(true);
+            assertNull(decompressor.pollDecompressedPage(true));
+
+            BytesReference composite = CompositeBytesReference.of(polledReferences);
+            assertEquals(uncompressedLength, composite.length());
+            StreamInput streamInput = composite.streamInput();
+            for (int i = 0; i < intsToWrite; ++i) {
+                int lowByte = (i & 0xFF);
+                if (lowByte < 128) {
+                    assertEquals(0, streamInput.readInt());
+                } else if (lowByte < 200) {
+                    assertEquals(1, streamInput.readInt());
+                } else {
+                    assertEquals(i, streamInput.readInt());
+                }
+            }
+            Releasables.close(polledReferences);
+
+        }
+    }
+
+    public void testMultiBlockRoundTrip() throws IOException {
+        final byte[] uncompressed = new byte[randomIntBetween(Compression.Scheme.ZSTD_BLOCK_SIZE, 3 * Compression.Scheme.ZSTD_BLOCK_SIZE)];
+        for (int i = 0; i < uncompressed.length; i++) {
+            // a small alphabet so that the data compresses
+            uncompressed[i] = (byte) randomIntBetween('a', 'd');
+        }
+
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            try (OutputStream zstdBlockStream = Compression.Scheme.zstdOutputStream(Streams.flushOnCloseStream(output))) {
+                int offset = 0;
+                while (offset < uncompressed.length) {
+                    int length = randomIntBetween(1, Math.min(uncompressed.length - offset, 50_000));
+                    zstdBlockStream.write(uncompressed, offset, length);
+                    offset += length;
+                }
+            }
+
+            BytesReference bytes = output.bytes();
+            assertThat(bytes.length(), lessThan(uncompressed.length / 2));
+
+            ZstdTransportDecompressor decompressor = new ZstdTransportDecompressor(recycler);
+            BytesReference remaining = BytesArray.EMPTY;
+            int offset = 0;
+            int bytesConsumed = 0;
+            while (offset < bytes.length()) {
+                // the decompressor is only created once the scheme header is available
+                int length = randomIntBetween(offset == 0 ? Compression.Scheme.HEADER_LENGTH : 1, bytes.length() - offset);
+                BytesReference inbound = CompositeBytesReference.of(remaining, bytes.slice(offset, length));
+                offset += length;
+                int consumed = decompressor.decompress(inbound);
+                bytesConsumed += consumed;
+                remaining = inbound.slice(consumed, inbound.length() - consumed);
+            }
+            assertEquals(bytes.length(), bytesConsumed);
+            assertTrue(decompressor.isClosed());
+
+            List<ReleasableBytesReference> polledReferences = new ArrayList<>();
+            ReleasableBytesReference page;
+            while ((page = decompressor.pollDecompressedPage(true)) != null) {
+                polledReferences.add(page);
+            }
+            BytesReference composite = CompositeBytesReference.of(polledReferences.toArray(new BytesReference[0]));
+            assertEquals(new BytesArray(uncompressed), composite);
+            Releasables.close(polledReferences);
+        }
+    }
+
+    public void testBlocksOfGrowingSizes() throws IOException {
+        // the compressor only writes a smaller block at the end of a stream, so concatenate the blocks of two streams to get a
+        // message whose blocks grow, and with them the native buffers they are decompressed through
+        final byte[] small = randomByteArrayOfLength(randomIntBetween(1, 1024));
+        final int blockSize = Compression.Scheme.ZSTD_BLOCK_SIZE;
+        final byte[] large = randomByteArrayOfLength(randomIntBetween(blockSize, 3 * blockSize));
+        final BytesReference smallStream = compress(small);
+        final BytesReference largeStream = compress(large);
+        final int endOfStreamLength = ReuseBuffersZstdBlockOutputStream.HEADER_LENGTH;
+        final BytesReference bytes = CompositeBytesReference.of(
+            smallStream.slice(0, smallStream.length() - endOfStreamLength),
+            largeStream.slice(Compression.Scheme.HEADER_LENGTH, largeStream.length() - Compression.Scheme.HEADER_LENGTH)
+        );
+
+        try (ZstdTransportDecompressor decompressor = new ZstdTransportDecompressor(recycler)) {
+            assertEquals(bytes.length(), decompressor.decompress(bytes));
+            assertTrue(decompressor.isClosed());
+            List<ReleasableBytesReference> polledReferences = new ArrayList<>();
+            ReleasableBytesReference page;
+            while ((page = decompressor.pollDecompressedPage(true)) != null) {
+                polledReferences.add(page);
+            }
+            BytesReference composite = CompositeBytesReference.of(polledReferences.toArray(new BytesReference[0]));
+            assertEquals(CompositeBytesReference.of(new BytesArray(small), new BytesArray(large)), composite);
+            Releasables.close(polledReferences);
+        }
+    }
+
+    private static BytesReference compress(byte[] uncompressed) throws IOException {
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            try (OutputStream zstdBlockStream = Compression.Scheme.zstdOutputStream(Streams.flushOnCloseStream(output))) {
+                zstdBlockStream.write(uncompressed);
+            }
+            return new BytesArray(BytesReference.toBytes(output.bytes()));
+        }
+    }
+
+    public void testCorruptedBlockHeader() throws IOException {
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            try (OutputStream zstdBlockStream = Compression.Scheme.zstdOutputStream(Streams.flushOnCloseStream(output))) {
+                zstdBlockStream.write(randomByteArrayOfLength(randomIntBetween(1, 1024)));
+            }
+
+            BytesReference bytes = output.bytes();
+            byte[] corrupted = BytesReference.toBytes(bytes);
+            // claim a decompressed length that is larger than the maximum block size
+            corrupted[Compression.Scheme.HEADER_LENGTH + 7] = (byte) 0x7F;
+
+            try (ZstdTransportDecompressor decompressor = new ZstdTransportDecompressor(recycler)) {
+                IllegalStateException e = expectThrows(
+                    IllegalStateException.class,
+                    () -> decompressor.decompress(new BytesArray(corrupted))
+                );
+                assertThat(e.getMessage(), containsString("invalid decompressedLength"));
+                expectThrows(IllegalStateException.class, () -> decompressor.decompress(new BytesArray(corrupted)));
+            }
+        }
+    }
+}
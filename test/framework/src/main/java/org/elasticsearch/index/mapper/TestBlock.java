@@ -132,6 +132,24 @@ public class TestBlock implements BlockLoader.Block {
                 return builder.build();
             }
 
+            @Override
+            public BlockLoader.Block constantInts(int value, int count) {
+                BlockLoader.IntBuilder builder = ints(count);
+                for (int i = 0; i < count; i++) {
+                    builder.appendInt(value);
+                }
+                return builder.build();
+            }
+
+            @Override
+            public BlockLoader.Block constantLongs(long value, int count) {
+                BlockLoader.LongBuilder builder = longs(count);
+                for (int i = 0; i < count; i++) {
+                    builder.appendLong(value);
+                }
+                return builder.build();
+            }
+
             @Override
             public BlockLoader.SingletonOrdinalsBuilder singletonOrdinalsBuilder(SortedDocValues ordinals, int count) {
                 class SingletonOrdsBuilder extends TestBlock.Builder implements BlockLoader.SingletonOrdinalsBuilder {
@@ -531,6 +531,8 @@ public enum SearchResponseUtils {
         List<ProfileResult> queryProfileResults = new ArrayList<>();
         long rewriteTime = 0;
         Long vectorOperationsCount = null;
+        Long knnExactSegments = null;
+        Long knnApproximateSegments = null;
         CollectorResult collector = null;
         while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
             if (token == XContentParser.Token.FIELD_NAME) {
@@ -540,6 +542,10 @@ public enum SearchResponseUtils {
                     rewriteTime = parser.longValue();
                 } else if (QueryProfileShardResult.VECTOR_OPERATIONS_COUNT.equals(currentFieldName)) {
                     vectorOperationsCount = parser.longValue();
+                } else if (QueryProfileShardResult.KNN_EXACT_SEARCH_SEGMENTS.equals(currentFieldName)) {
+                    knnExactSegments = parser.longValue();
+                } else if (QueryProfileShardResult.KNN_APPROXIMATE_SEARCH_SEGMENTS.equals(currentFieldName)) {
+                    knnApproximateSegments = parser.longValue();
                 } else {
                     parser.skipChildren();
                 }
@@ -559,7 +565,14 @@ public enum SearchResponseUtils {
                 parser.skipChildren();
             }
         }
-        return new QueryProfileShardResult(queryProfileResults, rewriteTime, collector, vectorOperationsCount);
+        return new QueryProfileShardResult(
+            queryProfileResults,
+            rewriteTime,
+            collector,
+            vectorOperationsCount,
+            knnExactSegments,
+            knnApproximateSegments
+        );
     }
 
     public static SearchHits parseSearchHits(XContentParser parser) throws IOException {
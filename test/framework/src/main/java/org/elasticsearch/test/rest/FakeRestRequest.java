@@ -14,6 +14,7 @@ import org.elasticsearch.action.support.SubscribableListener;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.xcontent.LoggingDeprecationHandler;
+import org.elasticsearch.http.HttpBody;
 import org.elasticsearch.http.HttpChannel;
 import org.elasticsearch.http.HttpRequest;
 import org.elasticsearch.http.HttpResponse;
@@ -57,9 +58,10 @@ public class FakeRestRequest extends RestRequest {
         private final BytesReference content;
         private final Map<String, List<String>> headers;
         private final Exception inboundException;
+        private final HttpBody.Stream contentStream;
 
         public FakeHttpRequest(Method method, String uri, BytesReference content, Map<String, List<String>> headers) {
-            this(method, uri, content, headers, null);
+            this(method, uri, content, headers, null, null);
         }
 
         private FakeHttpRequest(
@@ -67,13 +69,15 @@ public class FakeRestRequest extends RestRequest {
             String uri,
             BytesReference content,
             Map<String, List<String>> headers,
-            Exception inboundException
+            Exception inboundException,
+            HttpBody.Stream contentStream
         ) {
             this.method = method;
             this.uri = uri;
             this.content = content == null ? BytesArray.EMPTY : content;
             this.headers = headers;
             this.inboundException = inboundException;
+            this.contentStream = contentStream;
         }
 
         @Override
@@ -91,6 +95,11 @@ public class FakeRestRequest extends RestRequest {
             return content;
         }
 
+        @Override
+        public HttpBody.Stream contentStream() {
+            return contentStream;
+        }
+
         @Override
         public Map<String, List<String>> getHeaders() {
             return headers;
@@ -110,7 +119,7 @@ public class FakeRestRequest extends RestRequest {
         public HttpRequest removeHeader(String header) {
             final var filteredHeaders = new HashMap<>(headers);
             filteredHeaders.remove(header);
-            return new FakeHttpRequest(method, uri, content, filteredHeaders, inboundException);
+            return new FakeHttpRequest(method, uri, content, filteredHeaders, inboundException, contentStream);
         }
 
         @Override
@@ -205,6 +214,8 @@ public class FakeRestRequest extends RestRequest {
 
         private Exception inboundException;
 
+        private HttpBody.Stream contentStream;
+
         public Builder(NamedXContentRegistry registry) {
             this.parserConfig = XContentParserConfiguration.EMPTY.withDeprecationHandler(LoggingDeprecationHandler.INSTANCE)
                 .withRegistry(registry);
@@ -228,6 +239,12 @@ public class FakeRestRequest extends RestRequest {
             return this;
         }
 
+        public Builder withContentStream(HttpBody.Stream stream, XContentType xContentType) {
+            this.contentStream = stream;
+            headers.put("Content-Type", Collections.singletonList(xContentType.mediaType()));
+            return this;
+        }
+
         public Builder withPath(String path) {
             this.path = path;
             return this;
@@ -249,7 +266,7 @@ public class FakeRestRequest extends RestRequest {
         }
 
         public FakeRestRequest build() {
-            FakeHttpRequest fakeHttpRequest = new FakeHttpRequest(method, path, content, headers, inboundException);
+            FakeHttpRequest fakeHttpRequest = new FakeHttpRequest(method, path, content, headers, inboundException, contentStream);
             return new FakeRestRequest(parserConfig, fakeHttpRequest, params, new FakeHttpChannel(address));
         }
     }
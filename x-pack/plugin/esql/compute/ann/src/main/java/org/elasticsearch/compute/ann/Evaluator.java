@@ -42,4 +42,30 @@ public @interface Evaluator {
      * into a warning and turn into a null value.
      */
     Class<? extends Exception>[] warnExceptions() default {};
+
+    /**
+     * A bulk operation equivalent to the process method that the generated
+     * evaluator tries when all of its inputs are dense vectors, before
+     * evaluating position by position. Only supported for process methods
+     * with two {@code int}, {@code long} or {@code double} arguments. The
+     * operation is implemented by the {@code IntVectorOps}, {@code LongVectorOps}
+     * or {@code DoubleVectorOps} class matching the argument type.
+     */
+    VectorOp vectorOp() default VectorOp.NONE;
+
+    /**
+     * Bulk operations that a generated evaluator can delegate to.
+     */
+    enum VectorOp {
+        NONE,
+        ADD,
+        SUB,
+        MUL,
+        EQ,
+        NEQ,
+        GT,
+        GTE,
+        LT,
+        LTE;
+    }
 }
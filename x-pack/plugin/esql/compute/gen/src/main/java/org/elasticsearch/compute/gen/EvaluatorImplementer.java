@@ -15,11 +15,13 @@ import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 
+import org.elasticsearch.compute.ann.Evaluator;
 import org.elasticsearch.compute.ann.Fixed;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -54,6 +56,7 @@ import static org.elasticsearch.compute.gen.Types.blockType;
 import static org.elasticsearch.compute.gen.Types.builderType;
 import static org.elasticsearch.compute.gen.Types.elementType;
 import static org.elasticsearch.compute.gen.Types.vectorFixedBuilderType;
+import static org.elasticsearch.compute.gen.Types.vectorOpsType;
 import static org.elasticsearch.compute.gen.Types.vectorType;
 
 public class EvaluatorImplementer {
@@ -61,16 +64,22 @@ public class EvaluatorImplementer {
     private final ProcessFunction processFunction;
     private final ClassName implementation;
     private final boolean processOutputsMultivalued;
+    private final Evaluator.VectorOp vectorOp;
 
     public EvaluatorImplementer(
         Elements elements,
         javax.lang.model.util.Types types,
         ExecutableElement processFunction,
         String extraName,
-        List<TypeMirror> warnExceptions
+        List<TypeMirror> warnExceptions,
+        Evaluator.VectorOp vectorOp
     ) {
         this.declarationType = (TypeElement) processFunction.getEnclosingElement();
         this.processFunction = new ProcessFunction(elements, types, processFunction, warnExceptions);
+        this.vectorOp = vectorOp;
+        if (vectorOp != Evaluator.VectorOp.NONE && supportsVectorOp(this.processFunction) == false) {
+            throw new IllegalArgumentException("vectorOp requires two int, long or double arguments of the same type");
+        }
 
         this.implementation = ClassName.get(
             elements.getPackageOf(declarationType).toString(),
@@ -169,6 +178,10 @@ public class EvaluatorImplementer {
         builder.addModifiers(Modifier.PUBLIC).returns(resultDataType);
         builder.addParameter(TypeName.INT, "positionCount");
 
+        if (blockStyle == false && vectorOp != Evaluator.VectorOp.NONE) {
+            tryVectorOp(builder, resultDataType);
+        }
+
         boolean vectorize = false;
         if (blockStyle == false && processFunction.warnExceptions.isEmpty() && processOutputsMultivalued == false) {
             ClassName type = processFunction.resultDataType(false);
@@ -263,6 +276,43 @@ public class EvaluatorImplementer {
         return builder.build();
     }
 
+    private static boolean supportsVectorOp(ProcessFunction processFunction) {
+        if (processFunction.args.size() != 2 || processFunction.builderArg != null) {
+            return false;
+        }
+        if (processFunction.args.get(0) instanceof StandardProcessFunctionArg lhs
+            && processFunction.args.get(1) instanceof StandardProcessFunctionArg rhs) {
+            return lhs.type().equals(rhs.type())
+                && (lhs.type().equals(TypeName.INT) || lhs.type().equals(TypeName.LONG) || lhs.type().equals(TypeName.DOUBLE));
+        }
+        return false;
+    }
+
+    /**
+     * Delegates to the bulk operation for dense vectors, falling through to the position by position loop if it
+     * can't handle the vectors.
+     */
+    private void tryVectorOp(MethodSpec.Builder builder, ClassName resultDataType) {
+        ProcessFunctionArg lhs = processFunction.args.get(0);
+        ProcessFunctionArg rhs = processFunction.args.get(1);
+        TypeName argType = ((StandardProcessFunctionArg) lhs).type();
+        builder.addStatement(
+            "$T vectorOpResult = $T.$L(driverContext.blockFactory(), $N, $N)",
+            vectorType(TypeName.get(processFunction.function.getReturnType())),
+            vectorOpsType(argType),
+            vectorOp.name().toLowerCase(Locale.ROOT),
+            lhs.paramName(false),
+            rhs.paramName(false)
+        );
+        builder.beginControlFlow("if (vectorOpResult != null)");
+        if (resultDataType.simpleName().endsWith("Vector")) {
+            builder.addStatement("return vectorOpResult");
+        } else {
+            builder.addStatement("return vectorOpResult.asBlock()");
+        }
+        builder.endControlFlow();
+    }
+
     private static void skipNull(MethodSpec.Builder builder, String value) {
         builder.beginControlFlow("if ($N.isNull(p))", value);
         {
@@ -62,6 +62,10 @@ public class Types {
     static final ClassName DOUBLE_VECTOR = ClassName.get(DATA_PACKAGE, "DoubleVector");
     static final ClassName FLOAT_VECTOR = ClassName.get(DATA_PACKAGE, "FloatVector");
 
+    static final ClassName INT_VECTOR_OPS = ClassName.get(DATA_PACKAGE, "IntVectorOps");
+    static final ClassName LONG_VECTOR_OPS = ClassName.get(DATA_PACKAGE, "LongVectorOps");
+    static final ClassName DOUBLE_VECTOR_OPS = ClassName.get(DATA_PACKAGE, "DoubleVectorOps");
+
     static final ClassName BOOLEAN_VECTOR_BUILDER = ClassName.get(DATA_PACKAGE, "BooleanVector", "Builder");
     static final ClassName BYTES_REF_VECTOR_BUILDER = ClassName.get(DATA_PACKAGE, "BytesRefVector", "Builder");
     static final ClassName INT_VECTOR_BUILDER = ClassName.get(DATA_PACKAGE, "IntVector", "Builder");
@@ -206,6 +210,19 @@ public class Types {
         throw new IllegalArgumentException("unknown vector type for [" + elementType + "]");
     }
 
+    static ClassName vectorOpsType(TypeName elementType) {
+        if (elementType.equals(TypeName.INT)) {
+            return INT_VECTOR_OPS;
+        }
+        if (elementType.equals(TypeName.LONG)) {
+            return LONG_VECTOR_OPS;
+        }
+        if (elementType.equals(TypeName.DOUBLE)) {
+            return DOUBLE_VECTOR_OPS;
+        }
+        throw new IllegalArgumentException("no vector ops for [" + elementType + "]");
+    }
+
     static ClassName vectorType(String elementType) {
         if (elementType.equalsIgnoreCase(TypeName.BOOLEAN.toString())) {
             return BOOLEAN_VECTOR;
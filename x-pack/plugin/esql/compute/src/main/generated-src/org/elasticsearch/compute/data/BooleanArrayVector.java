@@ -73,6 +73,13 @@ final class BooleanArrayVector extends AbstractVector implements BooleanVector {
         return values[position];
     }
 
+    /**
+     * The backing array. It may be longer than the vector and must not be modified.
+     */
+    boolean[] values() {
+        return values;
+    }
+
     @Override
     public ElementType elementType() {
         return ElementType.BOOLEAN;
@@ -72,6 +72,13 @@ final class DoubleArrayVector extends AbstractVector implements DoubleVector {
         return values[position];
     }
 
+    /**
+     * The backing array. It may be longer than the vector and must not be modified.
+     */
+    double[] values() {
+        return values;
+    }
+
     @Override
     public ElementType elementType() {
         return ElementType.DOUBLE;
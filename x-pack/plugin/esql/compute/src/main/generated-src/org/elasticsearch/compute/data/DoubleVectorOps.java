@@ -0,0 +1,291 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.data;
+
+import org.apache.lucene.util.RamUsageEstimator;
+
+/**
+ * Bulk operations over dense {@link DoubleVector}s that generated evaluators try before evaluating position by position.
+ * Each operation is a tight loop over the arrays backing the vectors, without virtual calls or branches, that the JIT
+ * can compile to SIMD instructions. The left hand side must be backed by an array and the right hand side by an array
+ * or a constant. Operations return {@code null} if that isn't the case, or if the scalar implementation would have
+ * failed for any position. The caller must then evaluate position by position, which registers the warnings.
+ * This class is generated. Do not edit it.
+ */
+public final class DoubleVectorOps {
+    private DoubleVectorOps() {}
+
+    /**
+     * Adds two vectors, returning {@code null} if any position
+     * isn't finite.
+     */
+    public static DoubleVector add(BlockFactory blockFactory, DoubleVector lhs, DoubleVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final double[] l = values(lhs);
+        final double[] result = newDoubles(blockFactory, positionCount);
+        boolean finite = true;
+        if (rhs.isConstant()) {
+            final double r = rhs.getDouble(0);
+            for (int i = 0; i < positionCount; i++) {
+                final double v = l[i] + r;
+                finite &= Double.isFinite(v);
+                result[i] = v;
+            }
+        } else {
+            final double[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                final double v = l[i] + r[i];
+                finite &= Double.isFinite(v);
+                result[i] = v;
+            }
+        }
+        return build(blockFactory, result, positionCount, finite);
+    }
+
+    /**
+     * Subtracts {@code rhs} from {@code lhs}, returning {@code null} if any position
+     * isn't finite.
+     */
+    public static DoubleVector sub(BlockFactory blockFactory, DoubleVector lhs, DoubleVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final double[] l = values(lhs);
+        final double[] result = newDoubles(blockFactory, positionCount);
+        boolean finite = true;
+        if (rhs.isConstant()) {
+            final double r = rhs.getDouble(0);
+            for (int i = 0; i < positionCount; i++) {
+                final double v = l[i] - r;
+                finite &= Double.isFinite(v);
+                result[i] = v;
+            }
+        } else {
+            final double[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                final double v = l[i] - r[i];
+                finite &= Double.isFinite(v);
+                result[i] = v;
+            }
+        }
+        return build(blockFactory, result, positionCount, finite);
+    }
+
+    /**
+     * Multiplies two vectors, returning {@code null} if any position
+     * isn't finite.
+     */
+    public static DoubleVector mul(BlockFactory blockFactory, DoubleVector lhs, DoubleVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final double[] l = values(lhs);
+        final double[] result = newDoubles(blockFactory, positionCount);
+        boolean finite = true;
+        if (rhs.isConstant()) {
+            final double r = rhs.getDouble(0);
+            for (int i = 0; i < positionCount; i++) {
+                final double v = l[i] * r;
+                finite &= Double.isFinite(v);
+                result[i] = v;
+            }
+        } else {
+            final double[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                final double v = l[i] * r[i];
+                finite &= Double.isFinite(v);
+                result[i] = v;
+            }
+        }
+        return build(blockFactory, result, positionCount, finite);
+    }
+
+    /**
+     * Compares two vectors with {@code ==}.
+     */
+    public static BooleanVector eq(BlockFactory blockFactory, DoubleVector lhs, DoubleVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final double[] l = values(lhs);
+        final boolean[] result = newBooleans(blockFactory, positionCount);
+        if (rhs.isConstant()) {
+            final double r = rhs.getDouble(0);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] == r;
+            }
+        } else {
+            final double[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] == r[i];
+            }
+        }
+        return blockFactory.newBooleanArrayVector(result, positionCount, booleansBytes(positionCount));
+    }
+
+    /**
+     * Compares two vectors with {@code !=}.
+     */
+    public static BooleanVector neq(BlockFactory blockFactory, DoubleVector lhs, DoubleVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final double[] l = values(lhs);
+        final boolean[] result = newBooleans(blockFactory, positionCount);
+        if (rhs.isConstant()) {
+            final double r = rhs.getDouble(0);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] != r;
+            }
+        } else {
+            final double[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] != r[i];
+            }
+        }
+        return blockFactory.newBooleanArrayVector(result, positionCount, booleansBytes(positionCount));
+    }
+
+    /**
+     * Compares two vectors with {@code >}.
+     */
+    public static BooleanVector gt(BlockFactory blockFactory, DoubleVector lhs, DoubleVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final double[] l = values(lhs);
+        final boolean[] result = newBooleans(blockFactory, positionCount);
+        if (rhs.isConstant()) {
+            final double r = rhs.getDouble(0);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] > r;
+            }
+        } else {
+            final double[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] > r[i];
+            }
+        }
+        return blockFactory.newBooleanArrayVector(result, positionCount, booleansBytes(positionCount));
+    }
+
+    /**
+     * Compares two vectors with {@code >=}.
+     */
+    public static BooleanVector gte(BlockFactory blockFactory, DoubleVector lhs, DoubleVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final double[] l = values(lhs);
+        final boolean[] result = newBooleans(blockFactory, positionCount);
+        if (rhs.isConstant()) {
+            final double r = rhs.getDouble(0);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] >= r;
+            }
+        } else {
+            final double[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] >= r[i];
+            }
+        }
+        return blockFactory.newBooleanArrayVector(result, positionCount, booleansBytes(positionCount));
+    }
+
+    /**
+     * Compares two vectors with {@code <}.
+     */
+    public static BooleanVector lt(BlockFactory blockFactory, DoubleVector lhs, DoubleVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final double[] l = values(lhs);
+        final boolean[] result = newBooleans(blockFactory, positionCount);
+        if (rhs.isConstant()) {
+            final double r = rhs.getDouble(0);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] < r;
+            }
+        } else {
+            final double[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] < r[i];
+            }
+        }
+        return blockFactory.newBooleanArrayVector(result, positionCount, booleansBytes(positionCount));
+    }
+
+    /**
+     * Compares two vectors with {@code <=}.
+     */
+    public static BooleanVector lte(BlockFactory blockFactory, DoubleVector lhs, DoubleVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final double[] l = values(lhs);
+        final boolean[] result = newBooleans(blockFactory, positionCount);
+        if (rhs.isConstant()) {
+            final double r = rhs.getDouble(0);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] <= r;
+            }
+        } else {
+            final double[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] <= r[i];
+            }
+        }
+        return blockFactory.newBooleanArrayVector(result, positionCount, booleansBytes(positionCount));
+    }
+
+    private static boolean supported(DoubleVector lhs, DoubleVector rhs) {
+        return values(lhs) != null && (rhs.isConstant() || values(rhs) != null);
+    }
+
+    private static double[] values(DoubleVector vector) {
+        return vector instanceof DoubleArrayVector array ? array.values() : null;
+    }
+
+    private static long doublesBytes(int positionCount) {
+        return RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + (long) positionCount * Double.BYTES;
+    }
+
+    private static long booleansBytes(int positionCount) {
+        return RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + (long) positionCount * Byte.BYTES;
+    }
+
+    private static double[] newDoubles(BlockFactory blockFactory, int positionCount) {
+        blockFactory.adjustBreaker(doublesBytes(positionCount));
+        return new double[positionCount];
+    }
+
+    private static boolean[] newBooleans(BlockFactory blockFactory, int positionCount) {
+        blockFactory.adjustBreaker(booleansBytes(positionCount));
+        return new boolean[positionCount];
+    }
+
+    private static DoubleVector build(BlockFactory blockFactory, double[] result, int positionCount, boolean valid) {
+        final long preAdjustedBytes = doublesBytes(positionCount);
+        if (valid == false) {
+            blockFactory.adjustBreaker(-preAdjustedBytes);
+            return null;
+        }
+        return blockFactory.newDoubleArrayVector(result, positionCount, preAdjustedBytes);
+    }
+}
@@ -72,6 +72,13 @@ final class FloatArrayVector extends AbstractVector implements FloatVector {
         return values[position];
     }
 
+    /**
+     * The backing array. It may be longer than the vector and must not be modified.
+     */
+    float[] values() {
+        return values;
+    }
+
     @Override
     public ElementType elementType() {
         return ElementType.FLOAT;
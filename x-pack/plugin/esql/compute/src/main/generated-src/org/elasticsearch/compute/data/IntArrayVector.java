@@ -82,6 +82,13 @@ final class IntArrayVector extends AbstractVector implements IntVector {
         return values[position];
     }
 
+    /**
+     * The backing array. It may be longer than the vector and must not be modified.
+     */
+    int[] values() {
+        return values;
+    }
+
     @Override
     public ElementType elementType() {
         return ElementType.INT;
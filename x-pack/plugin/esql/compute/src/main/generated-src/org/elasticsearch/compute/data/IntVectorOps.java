@@ -0,0 +1,294 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.data;
+
+import org.apache.lucene.util.RamUsageEstimator;
+
+/**
+ * Bulk operations over dense {@link IntVector}s that generated evaluators try before evaluating position by position.
+ * Each operation is a tight loop over the arrays backing the vectors, without virtual calls or branches, that the JIT
+ * can compile to SIMD instructions. The left hand side must be backed by an array and the right hand side by an array
+ * or a constant. Operations return {@code null} if that isn't the case, or if the scalar implementation would have
+ * failed for any position. The caller must then evaluate position by position, which registers the warnings.
+ * This class is generated. Do not edit it.
+ */
+public final class IntVectorOps {
+    private IntVectorOps() {}
+
+    /**
+     * Adds two vectors, returning {@code null} if any position
+     * overflows.
+     */
+    public static IntVector add(BlockFactory blockFactory, IntVector lhs, IntVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final int[] l = values(lhs);
+        final int[] result = newInts(blockFactory, positionCount);
+        // the same overflow check as Math.addExact, accumulated over all positions
+        int overflow = 0;
+        if (rhs.isConstant()) {
+            final int r = rhs.getInt(0);
+            for (int i = 0; i < positionCount; i++) {
+                final int v = l[i] + r;
+                overflow |= (l[i] ^ v) & (r ^ v);
+                result[i] = v;
+            }
+        } else {
+            final int[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                final int v = l[i] + r[i];
+                overflow |= (l[i] ^ v) & (r[i] ^ v);
+                result[i] = v;
+            }
+        }
+        return build(blockFactory, result, positionCount, overflow >= 0);
+    }
+
+    /**
+     * Subtracts {@code rhs} from {@code lhs}, returning {@code null} if any position
+     * overflows.
+     */
+    public static IntVector sub(BlockFactory blockFactory, IntVector lhs, IntVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final int[] l = values(lhs);
+        final int[] result = newInts(blockFactory, positionCount);
+        // the same overflow check as Math.subtractExact, accumulated over all positions
+        int overflow = 0;
+        if (rhs.isConstant()) {
+            final int r = rhs.getInt(0);
+            for (int i = 0; i < positionCount; i++) {
+                final int v = l[i] - r;
+                overflow |= (l[i] ^ r) & (l[i] ^ v);
+                result[i] = v;
+            }
+        } else {
+            final int[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                final int v = l[i] - r[i];
+                overflow |= (l[i] ^ r[i]) & (l[i] ^ v);
+                result[i] = v;
+            }
+        }
+        return build(blockFactory, result, positionCount, overflow >= 0);
+    }
+
+    /**
+     * Multiplies two vectors, returning {@code null} if any position
+     * overflows.
+     */
+    public static IntVector mul(BlockFactory blockFactory, IntVector lhs, IntVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final int[] l = values(lhs);
+        final int[] result = newInts(blockFactory, positionCount);
+        // the product fits in an int if widening its low 32 bits gives back the full product
+        long overflow = 0;
+        if (rhs.isConstant()) {
+            final int r = rhs.getInt(0);
+            for (int i = 0; i < positionCount; i++) {
+                final long v = (long) l[i] * r;
+                overflow |= v ^ (int) v;
+                result[i] = (int) v;
+            }
+        } else {
+            final int[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                final long v = (long) l[i] * r[i];
+                overflow |= v ^ (int) v;
+                result[i] = (int) v;
+            }
+        }
+        return build(blockFactory, result, positionCount, overflow == 0);
+    }
+
+    /**
+     * Compares two vectors with {@code ==}.
+     */
+    public static BooleanVector eq(BlockFactory blockFactory, IntVector lhs, IntVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final int[] l = values(lhs);
+        final boolean[] result = newBooleans(blockFactory, positionCount);
+        if (rhs.isConstant()) {
+            final int r = rhs.getInt(0);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] == r;
+            }
+        } else {
+            final int[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] == r[i];
+            }
+        }
+        return blockFactory.newBooleanArrayVector(result, positionCount, booleansBytes(positionCount));
+    }
+
+    /**
+     * Compares two vectors with {@code !=}.
+     */
+    public static BooleanVector neq(BlockFactory blockFactory, IntVector lhs, IntVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final int[] l = values(lhs);
+        final boolean[] result = newBooleans(blockFactory, positionCount);
+        if (rhs.isConstant()) {
+            final int r = rhs.getInt(0);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] != r;
+            }
+        } else {
+            final int[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] != r[i];
+            }
+        }
+        return blockFactory.newBooleanArrayVector(result, positionCount, booleansBytes(positionCount));
+    }
+
+    /**
+     * Compares two vectors with {@code >}.
+     */
+    public static BooleanVector gt(BlockFactory blockFactory, IntVector lhs, IntVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final int[] l = values(lhs);
+        final boolean[] result = newBooleans(blockFactory, positionCount);
+        if (rhs.isConstant()) {
+            final int r = rhs.getInt(0);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] > r;
+            }
+        } else {
+            final int[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] > r[i];
+            }
+        }
+        return blockFactory.newBooleanArrayVector(result, positionCount, booleansBytes(positionCount));
+    }
+
+    /**
+     * Compares two vectors with {@code >=}.
+     */
+    public static BooleanVector gte(BlockFactory blockFactory, IntVector lhs, IntVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final int[] l = values(lhs);
+        final boolean[] result = newBooleans(blockFactory, positionCount);
+        if (rhs.isConstant()) {
+            final int r = rhs.getInt(0);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] >= r;
+            }
+        } else {
+            final int[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] >= r[i];
+            }
+        }
+        return blockFactory.newBooleanArrayVector(result, positionCount, booleansBytes(positionCount));
+    }
+
+    /**
+     * Compares two vectors with {@code <}.
+     */
+    public static BooleanVector lt(BlockFactory blockFactory, IntVector lhs, IntVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final int[] l = values(lhs);
+        final boolean[] result = newBooleans(blockFactory, positionCount);
+        if (rhs.isConstant()) {
+            final int r = rhs.getInt(0);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] < r;
+            }
+        } else {
+            final int[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] < r[i];
+            }
+        }
+        return blockFactory.newBooleanArrayVector(result, positionCount, booleansBytes(positionCount));
+    }
+
+    /**
+     * Compares two vectors with {@code <=}.
+     */
+    public static BooleanVector lte(BlockFactory blockFactory, IntVector lhs, IntVector rhs) {
+        if (supported(lhs, rhs) == false) {
+            return null;
+        }
+        final int positionCount = lhs.getPositionCount();
+        final int[] l = values(lhs);
+        final boolean[] result = newBooleans(blockFactory, positionCount);
+        if (rhs.isConstant()) {
+            final int r = rhs.getInt(0);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] <= r;
+            }
+        } else {
+            final int[] r = values(rhs);
+            for (int i = 0; i < positionCount; i++) {
+                result[i] = l[i] <= r[i];
+            }
+        }
+        return blockFactory.newBooleanArrayVector(result, positionCount, booleansBytes(positionCount));
+    }
+
+    private static boolean supported(IntVector lhs, IntVector rhs) {
+        return values(lhs) != null && (rhs.isConstant() || values(rhs) != null);
+    }
+
+    private static int[] values(IntVector vector) {
+        return vector instanceof IntArrayVector array ? array.values() : null;
+    }
+
+    private static long intsBytes(int positionCount) {
+        return RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + (long) positionCount * Integer.BYTES;
+    }
+
+    private static long booleansBytes(int positionCount) {
+        return RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + (long) positionCount * Byte.BYTES;
+    }
+
+    private static int[] newInts(BlockFactory blockFactory, int positionCount) {
+        blockFactory.adjustBreaker(intsBytes(positionCount));
+        return new int[positionCount];
+    }
+
+    private static boolean[] newBooleans(BlockFactory blockFactory, int positionCount) {
+        blockFactory.adjustBreaker(booleansBytes(positionCount));
+        return new boolean[positionCount];
+    }
+
+    private static IntVector build(BlockFactory blockFactory, int[] result, int positionCount, boolean valid) {
+        final long preAdjustedBytes = intsBytes(positionCount);
+        if (valid == false) {
+            blockFactory.adjustBreaker(-preAdjustedBytes);
+            return null;
+        }
+        return blockFactory.newIntArrayVector(result, positionCount, preAdjustedBytes);
+    }
+}
@@ -72,6 +72,13 @@ final class LongArrayVector extends AbstractVector implements LongVector {
         return values[position];
     }
 
+    /**
+     * The backing array. It may be longer than the vector and must not be modified.
+     */
+    long[] values() {
+        return values;
+    }
+
     @Override
     public ElementType elementType() {
         return ElementType.LONG;
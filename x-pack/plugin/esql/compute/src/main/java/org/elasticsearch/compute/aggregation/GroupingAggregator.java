@@ -34,6 +34,11 @@ public class GroupingAggregator implements Releasable {
         return mode.isOutputPartial() ? aggregatorFunction.intermediateBlockCount() : 1;
     }
 
+    /** The number of Blocks required to {@link #evaluateIntermediate} this aggregation, whatever its mode. */
+    public int intermediateBlockCount() {
+        return aggregatorFunction.intermediateBlockCount();
+    }
+
     /**
      * Prepare to process a single page of results.
      */
@@ -78,6 +83,16 @@ public class GroupingAggregator implements Releasable {
         }
     }
 
+    /**
+     * Build the intermediate state of this aggregation, whatever its mode, so it can be
+     * merged into an aggregation that takes partial input.
+     * @param selected the groupIds that have been selected to be included in
+     *                 the results. Always ascending.
+     */
+    public void evaluateIntermediate(Block[] blocks, int offset, IntVector selected) {
+        aggregatorFunction.evaluateIntermediate(blocks, offset, selected);
+    }
+
     @Override
     public void close() {
         aggregatorFunction.close();
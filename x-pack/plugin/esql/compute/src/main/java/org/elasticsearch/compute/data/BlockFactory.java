@@ -69,6 +69,13 @@ public class BlockFactory {
         return parent != null ? parent : this;
     }
 
+    /**
+     * Build a factory that builds blocks on the same breaker as this one, but allocates with {@code bigArrays}.
+     */
+    public BlockFactory withBigArrays(BigArrays bigArrays) {
+        return new BlockFactory(breaker, bigArrays, ByteSizeValue.ofBytes(maxPrimitiveArrayBytes), parent);
+    }
+
     public BlockFactory newChildFactory(LocalCircuitBreaker childBreaker) {
         if (childBreaker.parentBreaker() != breaker) {
             throw new IllegalStateException("Different parent breaker");
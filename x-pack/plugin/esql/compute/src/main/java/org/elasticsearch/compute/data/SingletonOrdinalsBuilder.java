@@ -24,6 +24,7 @@ public class SingletonOrdinalsBuilder implements BlockLoader.SingletonOrdinalsBu
     private final SortedDocValues docValues;
     private final int[] ords;
     private int count;
+    private int runs = -1;
 
     public SingletonOrdinalsBuilder(BlockFactory blockFactory, SortedDocValues docValues, int count) {
         this.blockFactory = blockFactory;
@@ -100,6 +101,67 @@ public class SingletonOrdinalsBuilder implements BlockLoader.SingletonOrdinalsBu
         }
     }
 
+    /**
+     * Builds a block from ordinals that mostly repeat the ordinal of the previous position, like the dimensions of time series
+     * indices which are sorted by {@code _tsid}. Only the ordinals at the start of each run are resolved and a single run becomes
+     * a constant block.
+     */
+    BytesRefBlock buildFromRuns() {
+        if (countRuns() == 1) {
+            if (ords[0] == -1) {
+                return (BytesRefBlock) blockFactory.newConstantNullBlock(ords.length);
+            }
+            try {
+                return blockFactory.newConstantBytesRefBlockWith(BytesRef.deepCopyOf(docValues.lookupOrd(ords[0])), ords.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException("error resolving ordinals", e);
+            }
+        }
+        long breakerSize = ordsSize(countRuns());
+        blockFactory.adjustBreaker(breakerSize);
+        BytesRefVector bytesVector = null;
+        IntBlock ordinalBlock = null;
+        try {
+            int[] uniqueOrds = new int[countRuns()];
+            int run = 0;
+            for (int i = 0; i < ords.length; i++) {
+                if (i == 0 || ords[i] != ords[i - 1]) {
+                    uniqueOrds[run++] = ords[i];
+                }
+            }
+            int uniqueCount = compactToUnique(uniqueOrds);
+            try (BytesRefVector.Builder bytesBuilder = blockFactory.newBytesRefVectorBuilder(uniqueCount)) {
+                for (int o = 0; o < uniqueCount; o++) {
+                    bytesBuilder.appendBytesRef(docValues.lookupOrd(uniqueOrds[o]));
+                }
+                bytesVector = bytesBuilder.build();
+            } catch (IOException e) {
+                throw new UncheckedIOException("error resolving ordinals", e);
+            }
+            try (IntBlock.Builder ordinalsBuilder = blockFactory.newIntBlockBuilder(ords.length)) {
+                int newOrd = -1;
+                for (int i = 0; i < ords.length; i++) {
+                    if (ords[i] == -1) {
+                        ordinalsBuilder.appendNull();
+                        continue;
+                    }
+                    if (i == 0 || ords[i] != ords[i - 1]) {
+                        newOrd = Arrays.binarySearch(uniqueOrds, 0, uniqueCount, ords[i]);
+                        assert 0 <= newOrd && newOrd < uniqueCount;
+                    }
+                    ordinalsBuilder.appendInt(newOrd);
+                }
+                ordinalBlock = ordinalsBuilder.build();
+            }
+            final OrdinalBytesRefBlock result = new OrdinalBytesRefBlock(ordinalBlock, bytesVector);
+            bytesVector = null;
+            ordinalBlock = null;
+            return result;
+        } finally {
+            Releasables.close(() -> blockFactory.adjustBreaker(-breakerSize), ordinalBlock, bytesVector);
+        }
+    }
+
     BytesRefBlock buildRegularBlock() {
         try {
             long breakerSize = ordsSize(ords.length);
@@ -163,6 +225,9 @@ public class SingletonOrdinalsBuilder implements BlockLoader.SingletonOrdinalsBu
 
     @Override
     public BytesRefBlock build() {
+        if (shouldBuildFromRuns()) {
+            return buildFromRuns();
+        }
         return shouldBuildOrdinalsBlock() ? buildOrdinal() : buildRegularBlock();
     }
 
@@ -170,6 +235,26 @@ public class SingletonOrdinalsBuilder implements BlockLoader.SingletonOrdinalsBu
         return ords.length >= 2 * docValues.getValueCount() && ords.length >= 32;
     }
 
+    boolean shouldBuildFromRuns() {
+        int runs = countRuns();
+        return runs == 1 || (ords.length >= 32 && runs * 2 <= ords.length);
+    }
+
+    /**
+     * The number of runs of equal ordinals, computed once all ordinals have been appended.
+     */
+    private int countRuns() {
+        if (runs == -1) {
+            runs = ords.length == 0 ? 0 : 1;
+            for (int i = 1; i < ords.length; i++) {
+                if (ords[i] != ords[i - 1]) {
+                    runs++;
+                }
+            }
+        }
+        return runs;
+    }
+
     @Override
     public void close() {
         blockFactory.adjustBreaker(-ordsSize(ords.length));
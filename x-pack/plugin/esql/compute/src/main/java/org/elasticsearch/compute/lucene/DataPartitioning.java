@@ -14,4 +14,10 @@ public enum DataPartitioning {
     SEGMENT,
 
     DOC,
+
+    /**
+     * Like {@link #SEGMENT}, but segments too large to be a single slice are split into doc ranges
+     * that drivers claim as they go, sized by how fast each driver has been scanning.
+     */
+    ADAPTIVE,
 }
@@ -65,6 +65,20 @@ public abstract class LuceneOperator extends SourceOperator {
 
     private LuceneScorer currentScorer;
 
+    /**
+     * {@link #processingNanos} when the current slice was loaded.
+     */
+    private long sliceStartNanos;
+    /**
+     * Nanoseconds spent on the slowest slice processed so far.
+     */
+    private long maxSliceNanos;
+    /**
+     * Documents in the slices processed so far, with {@link #scannedNanos} the rate at which this operator scans.
+     */
+    private long scannedDocs;
+    private long scannedNanos;
+
     long processingNanos;
     int pagesEmitted;
     boolean doneCollecting;
@@ -127,12 +141,16 @@ public abstract class LuceneOperator extends SourceOperator {
     LuceneScorer getCurrentOrLoadNextScorer() {
         while (currentScorer == null || currentScorer.isDone()) {
             if (currentSlice == null || sliceIndex >= currentSlice.numLeaves()) {
+                if (currentSlice != null) {
+                    finishSlice(currentSlice);
+                }
                 sliceIndex = 0;
-                currentSlice = sliceQueue.nextSlice();
+                currentSlice = sliceQueue.nextSlice(scannedNanos == 0 ? 0 : (double) scannedDocs / scannedNanos);
                 if (currentSlice == null) {
                     doneCollecting = true;
                     return null;
                 }
+                sliceStartNanos = processingNanos;
                 processedSlices++;
                 processedShards.add(currentSlice.shardContext().shardIdentifier());
             }
@@ -154,6 +172,16 @@ public abstract class LuceneOperator extends SourceOperator {
         return currentScorer;
     }
 
+    private void finishSlice(LuceneSlice slice) {
+        long nanos = processingNanos - sliceStartNanos;
+        maxSliceNanos = Math.max(maxSliceNanos, nanos);
+        scannedNanos += nanos;
+        for (int i = 0; i < slice.numLeaves(); i++) {
+            PartialLeafReaderContext leaf = slice.getLeaf(i);
+            scannedDocs += leaf.maxDoc() - leaf.minDoc();
+        }
+    }
+
     /**
      * Wraps a {@link BulkScorer} with shard information
      */
@@ -250,6 +278,14 @@ public abstract class LuceneOperator extends SourceOperator {
         private final int sliceMin;
         private final int sliceMax;
         private final int current;
+        /**
+         * Nanoseconds spent on the current slice.
+         */
+        private final long sliceNanos;
+        /**
+         * Nanoseconds spent on the slowest slice processed so far.
+         */
+        private final long maxSliceNanos;
 
         private Status(LuceneOperator operator) {
             processedSlices = operator.processedSlices;
@@ -274,6 +310,8 @@ public abstract class LuceneOperator extends SourceOperator {
                 current = scorer.position;
             }
             pagesEmitted = operator.pagesEmitted;
+            sliceNanos = slice == null ? 0 : operator.processingNanos - operator.sliceStartNanos;
+            maxSliceNanos = operator.maxSliceNanos;
         }
 
         Status(
@@ -286,7 +324,9 @@ public abstract class LuceneOperator extends SourceOperator {
             int pagesEmitted,
             int sliceMin,
             int sliceMax,
-            int current
+            int current,
+            long sliceNanos,
+            long maxSliceNanos
         ) {
             this.processedSlices = processedSlices;
             this.processedQueries = processedQueries;
@@ -298,6 +338,8 @@ public abstract class LuceneOperator extends SourceOperator {
             this.sliceMin = sliceMin;
             this.sliceMax = sliceMax;
             this.current = current;
+            this.sliceNanos = sliceNanos;
+            this.maxSliceNanos = maxSliceNanos;
         }
 
         Status(StreamInput in) throws IOException {
@@ -316,6 +358,13 @@ public abstract class LuceneOperator extends SourceOperator {
             sliceMin = in.readVInt();
             sliceMax = in.readVInt();
             current = in.readVInt();
+            if (in.getTransportVersion().onOrAfter(TransportVersions.ESQL_ADAPTIVE_DATA_PARTITIONING)) {
+                sliceNanos = in.readVLong();
+                maxSliceNanos = in.readVLong();
+            } else {
+                sliceNanos = 0;
+                maxSliceNanos = 0;
+            }
         }
 
         @Override
@@ -334,6 +383,10 @@ public abstract class LuceneOperator extends SourceOperator {
             out.writeVInt(sliceMin);
             out.writeVInt(sliceMax);
             out.writeVInt(current);
+            if (out.getTransportVersion().onOrAfter(TransportVersions.ESQL_ADAPTIVE_DATA_PARTITIONING)) {
+                out.writeVLong(sliceNanos);
+                out.writeVLong(maxSliceNanos);
+            }
         }
 
         @Override
@@ -381,6 +434,14 @@ public abstract class LuceneOperator extends SourceOperator {
             return current;
         }
 
+        public long sliceNanos() {
+            return sliceNanos;
+        }
+
+        public long maxSliceNanos() {
+            return maxSliceNanos;
+        }
+
         @Override
         public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
             builder.startObject();
@@ -397,6 +458,14 @@ public abstract class LuceneOperator extends SourceOperator {
             builder.field("slice_min", sliceMin);
             builder.field("slice_max", sliceMax);
             builder.field("current", current);
+            builder.field("slice_nanos", sliceNanos);
+            if (builder.humanReadable()) {
+                builder.field("slice_time", TimeValue.timeValueNanos(sliceNanos));
+            }
+            builder.field("max_slice_nanos", maxSliceNanos);
+            if (builder.humanReadable()) {
+                builder.field("max_slice_time", TimeValue.timeValueNanos(maxSliceNanos));
+            }
             return builder.endObject();
         }
 
@@ -414,12 +483,24 @@ public abstract class LuceneOperator extends SourceOperator {
                 && pagesEmitted == status.pagesEmitted
                 && sliceMin == status.sliceMin
                 && sliceMax == status.sliceMax
-                && current == status.current;
+                && current == status.current
+                && sliceNanos == status.sliceNanos
+                && maxSliceNanos == status.maxSliceNanos;
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(processedSlices, sliceIndex, totalSlices, pagesEmitted, sliceMin, sliceMax, current);
+            return Objects.hash(
+                processedSlices,
+                sliceIndex,
+                totalSlices,
+                pagesEmitted,
+                sliceMin,
+                sliceMax,
+                current,
+                sliceNanos,
+                maxSliceNanos
+            );
         }
 
         @Override
@@ -12,6 +12,7 @@ import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Weight;
 import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.TimeValue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -19,6 +20,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 /**
@@ -28,19 +30,52 @@ public final class LuceneSliceQueue {
     private static final int MAX_DOCS_PER_SLICE = 250_000; // copied from IndexSearcher
     private static final int MAX_SEGMENTS_PER_SLICE = 5; // copied from IndexSearcher
 
+    /**
+     * The smallest doc range that {@link DataPartitioning#ADAPTIVE} splits a segment into.
+     */
+    static final int MIN_DOCS_PER_CLAIM = 10_000;
+    /**
+     * {@link DataPartitioning#ADAPTIVE} sizes doc ranges so that drivers take about this long to scan them.
+     */
+    static final long TARGET_NANOS_PER_CLAIM = TimeValue.timeValueMillis(50).nanos();
+
     private final int totalSlices;
     private final Queue<LuceneSlice> slices;
+    private final Queue<SplitSegment> splitSegments;
 
-    private LuceneSliceQueue(List<LuceneSlice> slices) {
-        this.totalSlices = slices.size();
+    LuceneSliceQueue(List<LuceneSlice> slices, List<SplitSegment> splitSegments) {
+        this.totalSlices = slices.size() + splitSegments.stream().mapToInt(SplitSegment::maxClaims).sum();
         this.slices = new ConcurrentLinkedQueue<>(slices);
+        this.splitSegments = new ConcurrentLinkedQueue<>(splitSegments);
     }
 
     @Nullable
     public LuceneSlice nextSlice() {
+        return nextSlice(0);
+    }
+
+    /**
+     * Claim the next slice. Doc ranges of segments split by {@link DataPartitioning#ADAPTIVE} are
+     * claimed before the other slices so the small slices even out the tail.
+     * @param docsPerNano how fast the caller has been scanning documents or {@code 0} if it doesn't know yet
+     */
+    @Nullable
+    public LuceneSlice nextSlice(double docsPerNano) {
+        SplitSegment segment;
+        while ((segment = splitSegments.peek()) != null) {
+            LuceneSlice slice = segment.claim(docsPerNano);
+            if (slice != null) {
+                return slice;
+            }
+            splitSegments.remove(segment);
+        }
         return slices.poll();
     }
 
+    /**
+     * The number of slices. Segments split by {@link DataPartitioning#ADAPTIVE} count as
+     * the most drivers that can share them, because they are sized as they are claimed.
+     */
     public int totalSlices() {
         return totalSlices;
     }
@@ -56,21 +91,33 @@ public final class LuceneSliceQueue {
         int taskConcurrency
     ) {
         final List<LuceneSlice> slices = new ArrayList<>();
+        final List<SplitSegment> splitSegments = new ArrayList<>();
         for (ShardContext ctx : contexts) {
             final List<LeafReaderContext> leafContexts = ctx.searcher().getLeafContexts();
+            final Weight weight = weightFunction.apply(ctx);
             List<List<PartialLeafReaderContext>> groups = switch (dataPartitioning) {
                 case SHARD -> Collections.singletonList(leafContexts.stream().map(PartialLeafReaderContext::new).toList());
                 case SEGMENT -> segmentSlices(leafContexts);
                 case DOC -> docSlices(ctx.searcher().getIndexReader(), taskConcurrency);
+                case ADAPTIVE -> {
+                    List<LeafReaderContext> smallLeaves = new ArrayList<>();
+                    for (LeafReaderContext leaf : leafContexts) {
+                        if (leaf.reader().maxDoc() > MAX_DOCS_PER_SLICE) {
+                            splitSegments.add(new SplitSegment(ctx, leaf, weight, taskConcurrency));
+                        } else {
+                            smallLeaves.add(leaf);
+                        }
+                    }
+                    yield segmentSlices(smallLeaves);
+                }
             };
-            final Weight weight = weightFunction.apply(ctx);
             for (List<PartialLeafReaderContext> group : groups) {
                 if (group.isEmpty() == false) {
                     slices.add(new LuceneSlice(ctx, group, weight));
                 }
             }
         }
-        return new LuceneSliceQueue(slices);
+        return new LuceneSliceQueue(slices, splitSegments);
     }
 
     static List<List<PartialLeafReaderContext>> docSlices(IndexReader indexReader, int numSlices) {
@@ -123,4 +170,54 @@ public final class LuceneSliceQueue {
         IndexSearcher.LeafSlice[] gs = IndexSearcher.slices(leafContexts, MAX_DOCS_PER_SLICE, MAX_SEGMENTS_PER_SLICE);
         return Arrays.stream(gs).map(g -> Arrays.stream(g.leaves).map(PartialLeafReaderContext::new).toList()).toList();
     }
+
+    /**
+     * A segment that drivers scan in doc ranges, claiming the next range from the
+     * shared cursor whenever they are done with their previous slice. Ranges start
+     * at a fair share of the segment and shrink as it runs out, so that drivers
+     * finish at about the same time. They are further capped at what the claiming
+     * driver has been scanning in {@link #TARGET_NANOS_PER_CLAIM}, so slow drivers
+     * take small ranges and leave the rest to faster ones.
+     */
+    static final class SplitSegment {
+        private final ShardContext shardContext;
+        private final LeafReaderContext leaf;
+        private final Weight weight;
+        private final int taskConcurrency;
+        private final AtomicInteger next = new AtomicInteger();
+
+        SplitSegment(ShardContext shardContext, LeafReaderContext leaf, Weight weight, int taskConcurrency) {
+            this.shardContext = shardContext;
+            this.leaf = leaf;
+            this.weight = weight;
+            this.taskConcurrency = Math.max(1, taskConcurrency);
+        }
+
+        @Nullable
+        LuceneSlice claim(double docsPerNano) {
+            final int maxDoc = leaf.reader().maxDoc();
+            while (true) {
+                final int start = next.get();
+                final int remaining = maxDoc - start;
+                if (remaining <= 0) {
+                    return null;
+                }
+                long size = Math.max(MIN_DOCS_PER_CLAIM, remaining / (2L * taskConcurrency));
+                if (docsPerNano > 0) {
+                    size = Math.min(size, Math.max(MIN_DOCS_PER_CLAIM, (long) (docsPerNano * TARGET_NANOS_PER_CLAIM)));
+                }
+                final int end = start + (int) Math.min(size, remaining);
+                if (next.compareAndSet(start, end)) {
+                    return new LuceneSlice(shardContext, List.of(new PartialLeafReaderContext(leaf, start, end)), weight);
+                }
+            }
+        }
+
+        /**
+         * The most drivers that can scan this segment at the same time.
+         */
+        int maxClaims() {
+            return (int) Math.min(taskConcurrency, (leaf.reader().maxDoc() + MIN_DOCS_PER_CLAIM - 1L) / MIN_DOCS_PER_CLAIM);
+        }
+    }
 }
@@ -21,7 +21,9 @@ import org.elasticsearch.compute.data.BytesRefBlock;
 import org.elasticsearch.compute.data.DocBlock;
 import org.elasticsearch.compute.data.DocVector;
 import org.elasticsearch.compute.data.ElementType;
+import org.elasticsearch.compute.data.IntBlock;
 import org.elasticsearch.compute.data.IntVector;
+import org.elasticsearch.compute.data.LongBlock;
 import org.elasticsearch.compute.data.Page;
 import org.elasticsearch.compute.data.SingletonOrdinalsBuilder;
 import org.elasticsearch.compute.operator.AbstractPageMappingOperator;
@@ -683,6 +685,16 @@ public class ValuesSourceReaderOperator extends AbstractPageMappingOperator {
             return factory.newConstantBytesRefBlockWith(value, pageSize);
         }
 
+        @Override
+        public IntBlock constantInts(int value, int count) {
+            return factory.newConstantIntBlockWith(value, count);
+        }
+
+        @Override
+        public LongBlock constantLongs(long value, int count) {
+            return factory.newConstantLongBlockWith(value, count);
+        }
+
         @Override
         public BlockLoader.SingletonOrdinalsBuilder singletonOrdinalsBuilder(SortedDocValues ordinals, int count) {
             return new SingletonOrdinalsBuilder(factory, ordinals, count);
@@ -84,6 +84,15 @@ public class DriverContext {
         return bigArrays;
     }
 
+    /**
+     * Build a context for allocating the state of an operator with {@code bigArrays} rather than the ones
+     * of this context. Blocks are still built on the same breaker. The returned context doesn't track the
+     * releasables and async actions of the driver, so it should only be handed to code that allocates state.
+     */
+    public DriverContext withBigArrays(BigArrays bigArrays) {
+        return new DriverContext(bigArrays, blockFactory.withBigArrays(bigArrays), warningsMode);
+    }
+
     /**
      * The {@link CircuitBreaker} to use to track memory.
      */
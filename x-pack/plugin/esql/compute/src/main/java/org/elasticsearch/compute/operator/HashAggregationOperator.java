@@ -7,20 +7,32 @@
 
 package org.elasticsearch.compute.operator;
 
+import com.carrotsearch.hppc.BitMixer;
+
+import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.TransportVersion;
 import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.compute.Describable;
 import org.elasticsearch.compute.aggregation.GroupingAggregator;
 import org.elasticsearch.compute.aggregation.GroupingAggregatorFunction;
 import org.elasticsearch.compute.aggregation.blockhash.BlockHash;
 import org.elasticsearch.compute.data.Block;
+import org.elasticsearch.compute.data.BooleanBlock;
+import org.elasticsearch.compute.data.BytesRefBlock;
+import org.elasticsearch.compute.data.DoubleBlock;
+import org.elasticsearch.compute.data.FloatBlock;
 import org.elasticsearch.compute.data.IntBlock;
 import org.elasticsearch.compute.data.IntVector;
+import org.elasticsearch.compute.data.LongBlock;
 import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.ReleasableIterator;
 import org.elasticsearch.core.Releasables;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.xcontent.XContentBuilder;
@@ -31,6 +43,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.joining;
@@ -40,14 +53,43 @@ public class HashAggregationOperator implements Operator {
     public record HashAggregationOperatorFactory(
         List<BlockHash.GroupSpec> groups,
         List<GroupingAggregator.Factory> aggregators,
-        int maxPageSize
+        int maxPageSize,
+        @Nullable Spill spill
     ) implements OperatorFactory {
+        public HashAggregationOperatorFactory(
+            List<BlockHash.GroupSpec> groups,
+            List<GroupingAggregator.Factory> aggregators,
+            int maxPageSize
+        ) {
+            this(groups, aggregators, maxPageSize, null);
+        }
+
         @Override
         public Operator get(DriverContext driverContext) {
+            if (spill == null) {
+                return new HashAggregationOperator(
+                    aggregators,
+                    () -> BlockHash.build(groups, driverContext.blockFactory(), maxPageSize, false),
+                    driverContext
+                );
+            }
+            // spilled pages start with the keys, in the order of the groups
+            List<BlockHash.GroupSpec> mergeGroups = IntStream.range(0, groups.size())
+                .mapToObj(c -> new BlockHash.GroupSpec(c, groups.get(c).elementType()))
+                .toList();
+            // the state is allocated through its own breaker service so the operator can tell how much memory it holds
+            MemoryTrackingCircuitBreakerService memory = new MemoryTrackingCircuitBreakerService(
+                driverContext.bigArrays().breakerService(),
+                CircuitBreaker.REQUEST
+            );
+            DriverContext stateContext = driverContext.withBigArrays(driverContext.bigArrays().withBreakerService(memory));
             return new HashAggregationOperator(
                 aggregators,
-                () -> BlockHash.build(groups, driverContext.blockFactory(), maxPageSize, false),
-                driverContext
+                () -> BlockHash.build(groups, stateContext.blockFactory(), maxPageSize, false),
+                spill,
+                memory,
+                () -> BlockHash.build(mergeGroups, stateContext.blockFactory(), maxPageSize, false),
+                stateContext
             );
         }
 
@@ -61,15 +103,62 @@ public class HashAggregationOperator implements Operator {
         }
     }
 
+    /**
+     * Configuration for spilling the state of the aggregation to disk when it takes too much of the circuit breaker's limit.
+     * The state is spilled as the grouping keys followed by the intermediate state of each aggregation, partitioned
+     * by the hash of the keys. Once all input has been processed each partition is read back and merged on its own.
+     * @param directory the directory to spill to
+     * @param breakerThreshold spill when the state of the operator takes more than this fraction of the circuit breaker's limit
+     * @param mergeAggregators aggregators that merge the spilled partitions. Their input channels start right after
+     *                         the grouping keys and follow the intermediate state of {@code aggregators}, in order.
+     */
+    public record Spill(SpillDirectory directory, double breakerThreshold, List<GroupingAggregator.Factory> mergeAggregators) {}
+
+    /**
+     * The number of partitions to spill to. Each of them is merged on its own so this
+     * is roughly how much less memory merging takes than aggregating in memory.
+     */
+    static final int SPILL_PARTITIONS = 16;
+
     private boolean finished;
     private Page output;
 
-    private final BlockHash blockHash;
+    private final List<GroupingAggregator.Factory> aggregatorFactories;
+
+    private final Supplier<BlockHash> blockHashSupplier;
+
+    private BlockHash blockHash;
 
     private final List<GroupingAggregator> aggregators;
 
     private final DriverContext driverContext;
 
+    @Nullable
+    private final Spill spill;
+
+    /**
+     * Tracks the memory allocated by the state of this operator, {@code null} if spilling is disabled.
+     */
+    @Nullable
+    private final MemoryTrackingCircuitBreakerService memory;
+
+    private final Supplier<BlockHash> mergeBlockHash;
+
+    /**
+     * Files that the state is spilled to, one per partition. {@code null} until the first spill.
+     */
+    private SpillFile[] spillFiles;
+
+    /**
+     * The number of partitions that have been merged back.
+     */
+    private int mergedPartitions;
+
+    /**
+     * Count of pages added since the last spill.
+     */
+    private int pagesSinceSpill;
+
     /**
      * Nanoseconds this operator has spent hashing grouping keys.
      */
@@ -82,14 +171,43 @@ public class HashAggregationOperator implements Operator {
      * Count of pages this operator has processed.
      */
     private int pagesProcessed;
+    /**
+     * Count of times this operator has spilled its state to disk.
+     */
+    private int spills;
+    /**
+     * Bytes this operator has spilled to disk.
+     */
+    private long spilledBytes;
 
-    @SuppressWarnings("this-escape")
     public HashAggregationOperator(
         List<GroupingAggregator.Factory> aggregators,
         Supplier<BlockHash> blockHash,
         DriverContext driverContext
     ) {
+        this(aggregators, blockHash, null, null, null, driverContext);
+    }
+
+    /**
+     * Build an operator that spills its state once the memory tracked by {@code memory} reaches the threshold of {@code spill}.
+     * The state must be allocated with the {@link DriverContext#bigArrays()} of {@code driverContext}, which must be tracked by
+     * {@code memory}.
+     */
+    @SuppressWarnings("this-escape")
+    HashAggregationOperator(
+        List<GroupingAggregator.Factory> aggregators,
+        Supplier<BlockHash> blockHash,
+        @Nullable Spill spill,
+        @Nullable MemoryTrackingCircuitBreakerService memory,
+        @Nullable Supplier<BlockHash> mergeBlockHash,
+        DriverContext driverContext
+    ) {
+        this.aggregatorFactories = aggregators;
+        this.blockHashSupplier = blockHash;
         this.aggregators = new ArrayList<>(aggregators.size());
+        this.spill = spill;
+        this.memory = memory;
+        this.mergeBlockHash = mergeBlockHash;
         this.driverContext = driverContext;
         boolean success = false;
         try {
@@ -113,68 +231,83 @@ public class HashAggregationOperator implements Operator {
     @Override
     public void addInput(Page page) {
         try {
-            GroupingAggregatorFunction.AddInput[] prepared = new GroupingAggregatorFunction.AddInput[aggregators.size()];
-            class AddInput implements GroupingAggregatorFunction.AddInput {
-                long hashStart = System.nanoTime();
-                long aggStart;
-
-                @Override
-                public void add(int positionOffset, IntBlock groupIds) {
-                    IntVector groupIdsVector = groupIds.asVector();
-                    if (groupIdsVector != null) {
-                        add(positionOffset, groupIdsVector);
-                    } else {
-                        startAggEndHash();
-                        for (GroupingAggregatorFunction.AddInput p : prepared) {
-                            p.add(positionOffset, groupIds);
-                        }
-                        end();
-                    }
-                }
+            checkState(needsInput(), "Operator is already finishing");
+            requireNonNull(page, "page is null");
+            addInput(blockHash, aggregators, page, wrapPage(page));
+        } finally {
+            page.releaseBlocks();
+            pagesProcessed++;
+            pagesSinceSpill++;
+        }
+        if (shouldSpill()) {
+            spill(true);
+        }
+    }
 
-                @Override
-                public void add(int positionOffset, IntVector groupIds) {
+    /**
+     * Add a page to the groups in {@code hash} and the aggregations.
+     */
+    private void addInput(BlockHash hash, List<GroupingAggregator> aggregators, Page page, Page hashPage) {
+        GroupingAggregatorFunction.AddInput[] prepared = new GroupingAggregatorFunction.AddInput[aggregators.size()];
+        class AddInput implements GroupingAggregatorFunction.AddInput {
+            long hashStart = System.nanoTime();
+            long aggStart;
+
+            @Override
+            public void add(int positionOffset, IntBlock groupIds) {
+                IntVector groupIdsVector = groupIds.asVector();
+                if (groupIdsVector != null) {
+                    add(positionOffset, groupIdsVector);
+                } else {
                     startAggEndHash();
                     for (GroupingAggregatorFunction.AddInput p : prepared) {
                         p.add(positionOffset, groupIds);
                     }
                     end();
                 }
+            }
 
-                private void startAggEndHash() {
-                    aggStart = System.nanoTime();
-                    hashNanos += aggStart - hashStart;
-                }
-
-                private void end() {
-                    hashStart = System.nanoTime();
-                    aggregationNanos += hashStart - aggStart;
+            @Override
+            public void add(int positionOffset, IntVector groupIds) {
+                startAggEndHash();
+                for (GroupingAggregatorFunction.AddInput p : prepared) {
+                    p.add(positionOffset, groupIds);
                 }
+                end();
+            }
 
-                @Override
-                public void close() {
-                    Releasables.closeExpectNoException(prepared);
-                }
+            private void startAggEndHash() {
+                aggStart = System.nanoTime();
+                hashNanos += aggStart - hashStart;
             }
-            try (AddInput add = new AddInput()) {
-                checkState(needsInput(), "Operator is already finishing");
-                requireNonNull(page, "page is null");
 
-                for (int i = 0; i < prepared.length; i++) {
-                    prepared[i] = aggregators.get(i).prepareProcessPage(blockHash, page);
-                }
+            private void end() {
+                hashStart = System.nanoTime();
+                aggregationNanos += hashStart - aggStart;
+            }
 
-                blockHash.add(wrapPage(page), add);
-                hashNanos += System.nanoTime() - add.hashStart;
+            @Override
+            public void close() {
+                Releasables.closeExpectNoException(prepared);
             }
-        } finally {
-            page.releaseBlocks();
-            pagesProcessed++;
+        }
+        try (AddInput add = new AddInput()) {
+            for (int i = 0; i < prepared.length; i++) {
+                prepared[i] = aggregators.get(i).prepareProcessPage(hash, page);
+            }
+
+            hash.add(hashPage, add);
+            hashNanos += System.nanoTime() - add.hashStart;
         }
     }
 
     @Override
     public Page getOutput() {
+        if (finished && spillFiles != null) {
+            while (output == null && mergedPartitions < spillFiles.length) {
+                output = mergePartition(mergedPartitions++);
+            }
+        }
         Page p = output;
         output = null;
         return p;
@@ -186,23 +319,43 @@ public class HashAggregationOperator implements Operator {
             return;
         }
         finished = true;
+        if (spillFiles == null) {
+            output = evaluate(blockHash, aggregators, false);
+        } else {
+            // what's still in memory is merged with the partitions it would have been spilled to
+            spill(false);
+        }
+    }
+
+    /**
+     * Build a page of the keys in {@code hash} followed by the results of the
+     * aggregations, or by their intermediate state if {@code intermediate}.
+     */
+    private Page evaluate(BlockHash hash, List<GroupingAggregator> aggregators, boolean intermediate) {
         Block[] blocks = null;
         IntVector selected = null;
         boolean success = false;
         try {
-            selected = blockHash.nonEmpty();
-            Block[] keys = blockHash.getKeys();
-            int[] aggBlockCounts = aggregators.stream().mapToInt(GroupingAggregator::evaluateBlockCount).toArray();
+            selected = hash.nonEmpty();
+            Block[] keys = hash.getKeys();
+            int[] aggBlockCounts = aggregators.stream()
+                .mapToInt(intermediate ? GroupingAggregator::intermediateBlockCount : GroupingAggregator::evaluateBlockCount)
+                .toArray();
             blocks = new Block[keys.length + Arrays.stream(aggBlockCounts).sum()];
             System.arraycopy(keys, 0, blocks, 0, keys.length);
             int offset = keys.length;
             for (int i = 0; i < aggregators.size(); i++) {
                 var aggregator = aggregators.get(i);
-                aggregator.evaluate(blocks, offset, selected, driverContext);
+                if (intermediate) {
+                    aggregator.evaluateIntermediate(blocks, offset, selected);
+                } else {
+                    aggregator.evaluate(blocks, offset, selected, driverContext);
+                }
                 offset += aggBlockCounts[i];
             }
-            output = new Page(blocks);
+            Page page = new Page(blocks);
             success = true;
+            return page;
         } finally {
             // selected should always be closed
             if (selected != null) {
@@ -214,9 +367,156 @@ public class HashAggregationOperator implements Operator {
         }
     }
 
+    private boolean shouldSpill() {
+        if (spill == null || pagesSinceSpill == 0) {
+            return false;
+        }
+        // only the memory held by this operator counts, the breaker itself protects the node from everything else
+        long limit = memory.limit();
+        return limit > 0 && memory.used() > limit * spill.breakerThreshold();
+    }
+
+    /**
+     * Write the keys and the intermediate state of the aggregations to the spill files, partitioned
+     * by the hash of the keys, and release them. If {@code reset} then start over with empty groups.
+     */
+    private void spill(boolean reset) {
+        if (spillFiles == null) {
+            spillFiles = new SpillFile[SPILL_PARTITIONS];
+            for (int p = 0; p < SPILL_PARTITIONS; p++) {
+                spillFiles[p] = spill.directory().newFile();
+            }
+        }
+        Page state = evaluate(blockHash, aggregators, true);
+        try {
+            int keyCount = state.getBlockCount() - aggregators.stream().mapToInt(GroupingAggregator::intermediateBlockCount).sum();
+            int[][] partitions = partitionPositions(state, keyCount);
+            for (int p = 0; p < SPILL_PARTITIONS; p++) {
+                if (partitions[p].length == 0) {
+                    continue;
+                }
+                Page partition = filter(state, partitions[p]);
+                try {
+                    long before = spillFiles[p].bytes();
+                    spillFiles[p].write(partition);
+                    spilledBytes += spillFiles[p].bytes() - before;
+                } finally {
+                    partition.releaseBlocks();
+                }
+            }
+        } finally {
+            state.releaseBlocks();
+        }
+        spills++;
+        pagesSinceSpill = 0;
+        Releasables.close(blockHash, () -> Releasables.close(aggregators));
+        blockHash = null;
+        aggregators.clear();
+        if (reset) {
+            blockHash = blockHashSupplier.get();
+            for (GroupingAggregator.Factory a : aggregatorFactories) {
+                aggregators.add(a.apply(driverContext));
+            }
+        }
+    }
+
+    /**
+     * Read a spilled partition back and merge it into the output for all of its groups.
+     * Returns {@code null} if nothing was spilled to the partition.
+     */
+    private Page mergePartition(int partition) {
+        SpillFile file = spillFiles[partition];
+        spillFiles[partition] = null;
+        if (file.pages() == 0) {
+            file.close();
+            return null;
+        }
+        BlockHash hash = null;
+        List<GroupingAggregator> merging = new ArrayList<>(spill.mergeAggregators().size());
+        try (file; ReleasableIterator<Page> pages = file.read(driverContext.blockFactory())) {
+            hash = mergeBlockHash.get();
+            for (GroupingAggregator.Factory a : spill.mergeAggregators()) {
+                merging.add(a.apply(driverContext));
+            }
+            while (pages.hasNext()) {
+                Page page = pages.next();
+                try {
+                    addInput(hash, merging, page, page);
+                } finally {
+                    page.releaseBlocks();
+                }
+            }
+            return evaluate(hash, merging, false);
+        } finally {
+            Releasables.close(hash, () -> Releasables.close(merging));
+        }
+    }
+
+    /**
+     * Group the positions of {@code page} by the partition that the hash of their first {@code keyCount} blocks selects.
+     */
+    private static int[][] partitionPositions(Page page, int keyCount) {
+        int positionCount = page.getPositionCount();
+        int[] partitionOf = new int[positionCount];
+        int[] counts = new int[SPILL_PARTITIONS];
+        BytesRef scratch = new BytesRef();
+        for (int p = 0; p < positionCount; p++) {
+            long hash = 0;
+            for (int k = 0; k < keyCount; k++) {
+                hash = 31 * hash + hashKey(page.getBlock(k), p, scratch);
+            }
+            int partition = (int) (BitMixer.mix64(hash) & (SPILL_PARTITIONS - 1));
+            partitionOf[p] = partition;
+            counts[partition]++;
+        }
+        int[][] partitions = new int[SPILL_PARTITIONS][];
+        for (int i = 0; i < SPILL_PARTITIONS; i++) {
+            partitions[i] = new int[counts[i]];
+            counts[i] = 0;
+        }
+        for (int p = 0; p < positionCount; p++) {
+            int partition = partitionOf[p];
+            partitions[partition][counts[partition]++] = p;
+        }
+        return partitions;
+    }
+
+    private static int hashKey(Block block, int position, BytesRef scratch) {
+        if (block.isNull(position)) {
+            return 0;
+        }
+        int i = block.getFirstValueIndex(position);
+        return switch (block.elementType()) {
+            case BOOLEAN -> Boolean.hashCode(((BooleanBlock) block).getBoolean(i));
+            case INT -> Integer.hashCode(((IntBlock) block).getInt(i));
+            case LONG -> Long.hashCode(((LongBlock) block).getLong(i));
+            case FLOAT -> Float.hashCode(((FloatBlock) block).getFloat(i));
+            case DOUBLE -> Double.hashCode(((DoubleBlock) block).getDouble(i));
+            case BYTES_REF -> ((BytesRefBlock) block).getBytesRef(i, scratch).hashCode();
+            case NULL -> 0;
+            default -> throw new IllegalArgumentException("can't spill keys of type [" + block.elementType() + "]");
+        };
+    }
+
+    private static Page filter(Page page, int[] positions) {
+        Block[] blocks = new Block[page.getBlockCount()];
+        boolean success = false;
+        try {
+            for (int b = 0; b < blocks.length; b++) {
+                blocks[b] = page.getBlock(b).filter(positions);
+            }
+            success = true;
+            return new Page(positions.length, blocks);
+        } finally {
+            if (success == false) {
+                Releasables.closeExpectNoException(blocks);
+            }
+        }
+    }
+
     @Override
     public boolean isFinished() {
-        return finished && output == null;
+        return finished && output == null && (spillFiles == null || mergedPartitions == spillFiles.length);
     }
 
     @Override
@@ -224,12 +524,16 @@ public class HashAggregationOperator implements Operator {
         if (output != null) {
             output.releaseBlocks();
         }
-        Releasables.close(blockHash, () -> Releasables.close(aggregators));
+        Releasables.close(
+            blockHash,
+            () -> Releasables.close(aggregators),
+            () -> Releasables.close(spillFiles == null ? new SpillFile[0] : spillFiles)
+        );
     }
 
     @Override
     public Operator.Status status() {
-        return new Status(hashNanos, aggregationNanos, pagesProcessed);
+        return new Status(hashNanos, aggregationNanos, pagesProcessed, spills, spilledBytes);
     }
 
     protected static void checkState(boolean condition, String msg) {
@@ -271,23 +575,42 @@ public class HashAggregationOperator implements Operator {
          * Count of pages this operator has processed.
          */
         private final int pagesProcessed;
+        /**
+         * Count of times this operator has spilled its state to disk.
+         */
+        private final int spills;
+        /**
+         * Bytes this operator has spilled to disk.
+         */
+        private final long spilledBytes;
 
         /**
          * Build.
          * @param hashNanos Nanoseconds this operator has spent hashing grouping keys.
          * @param aggregationNanos Nanoseconds this operator has spent running the aggregations.
          * @param pagesProcessed Count of pages this operator has processed.
+         * @param spills Count of times this operator has spilled its state to disk.
+         * @param spilledBytes Bytes this operator has spilled to disk.
          */
-        public Status(long hashNanos, long aggregationNanos, int pagesProcessed) {
+        public Status(long hashNanos, long aggregationNanos, int pagesProcessed, int spills, long spilledBytes) {
             this.hashNanos = hashNanos;
             this.aggregationNanos = aggregationNanos;
             this.pagesProcessed = pagesProcessed;
+            this.spills = spills;
+            this.spilledBytes = spilledBytes;
         }
 
         protected Status(StreamInput in) throws IOException {
             hashNanos = in.readVLong();
             aggregationNanos = in.readVLong();
             pagesProcessed = in.readVInt();
+            if (in.getTransportVersion().onOrAfter(TransportVersions.ESQL_AGGREGATION_SPILL)) {
+                spills = in.readVInt();
+                spilledBytes = in.readVLong();
+            } else {
+                spills = 0;
+                spilledBytes = 0;
+            }
         }
 
         @Override
@@ -295,6 +618,10 @@ public class HashAggregationOperator implements Operator {
             out.writeVLong(hashNanos);
             out.writeVLong(aggregationNanos);
             out.writeVInt(pagesProcessed);
+            if (out.getTransportVersion().onOrAfter(TransportVersions.ESQL_AGGREGATION_SPILL)) {
+                out.writeVInt(spills);
+                out.writeVLong(spilledBytes);
+            }
         }
 
         @Override
@@ -323,6 +650,20 @@ public class HashAggregationOperator implements Operator {
             return pagesProcessed;
         }
 
+        /**
+         * Count of times this operator has spilled its state to disk.
+         */
+        public int spills() {
+            return spills;
+        }
+
+        /**
+         * Bytes this operator has spilled to disk.
+         */
+        public long spilledBytes() {
+            return spilledBytes;
+        }
+
         @Override
         public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
             builder.startObject();
@@ -335,6 +676,11 @@ public class HashAggregationOperator implements Operator {
                 builder.field("aggregation_time", TimeValue.timeValueNanos(aggregationNanos));
             }
             builder.field("pages_processed", pagesProcessed);
+            builder.field("spills", spills);
+            builder.field("spilled_bytes", spilledBytes);
+            if (builder.humanReadable()) {
+                builder.field("spilled", ByteSizeValue.ofBytes(spilledBytes));
+            }
             return builder.endObject();
 
         }
@@ -344,12 +690,16 @@ public class HashAggregationOperator implements Operator {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             Status status = (Status) o;
-            return hashNanos == status.hashNanos && aggregationNanos == status.aggregationNanos && pagesProcessed == status.pagesProcessed;
+            return hashNanos == status.hashNanos
+                && aggregationNanos == status.aggregationNanos
+                && pagesProcessed == status.pagesProcessed
+                && spills == status.spills
+                && spilledBytes == status.spilledBytes;
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(hashNanos, aggregationNanos, pagesProcessed);
+            return Objects.hash(hashNanos, aggregationNanos, pagesProcessed, spills, spilledBytes);
         }
 
         @Override
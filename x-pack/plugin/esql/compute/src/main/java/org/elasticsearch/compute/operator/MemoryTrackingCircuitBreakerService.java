@@ -0,0 +1,132 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator;
+
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.indices.breaker.AllCircuitBreakerStats;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.indices.breaker.CircuitBreakerStats;
+import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link CircuitBreakerService} that passes everything through to another one, but keeps
+ * count of the bytes added to one of its breakers. Use it with
+ * {@link BigArrays#withBreakerService} to tell how much memory a single operator holds,
+ * as opposed to the whole node.
+ */
+final class MemoryTrackingCircuitBreakerService extends CircuitBreakerService {
+    private final CircuitBreakerService next;
+    private final String trackedName;
+    private final TrackingCircuitBreaker tracked;
+
+    MemoryTrackingCircuitBreakerService(@Nullable CircuitBreakerService next, String breakerToTrack) {
+        this.next = next == null ? new NoneCircuitBreakerService() : next;
+        this.trackedName = breakerToTrack;
+        this.tracked = new TrackingCircuitBreaker(this.next.getBreaker(breakerToTrack));
+    }
+
+    /**
+     * The number of bytes currently added through the tracked breaker.
+     */
+    long used() {
+        return tracked.used.get();
+    }
+
+    /**
+     * The limit of the tracked breaker.
+     */
+    long limit() {
+        return tracked.getLimit();
+    }
+
+    @Override
+    public CircuitBreaker getBreaker(String name) {
+        if (name.equals(trackedName)) {
+            return tracked;
+        }
+        return next.getBreaker(name);
+    }
+
+    @Override
+    public AllCircuitBreakerStats stats() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public CircuitBreakerStats stats(String name) {
+        throw new UnsupportedOperationException();
+    }
+
+    private static class TrackingCircuitBreaker implements CircuitBreaker {
+        private final CircuitBreaker next;
+        // arrays may be released by another thread than the one that allocated them
+        private final AtomicLong used = new AtomicLong();
+
+        TrackingCircuitBreaker(CircuitBreaker next) {
+            this.next = next;
+        }
+
+        @Override
+        public void circuitBreak(String fieldName, long bytesNeeded) {
+            next.circuitBreak(fieldName, bytesNeeded);
+        }
+
+        @Override
+        public void addEstimateBytesAndMaybeBreak(long bytes, String label) throws CircuitBreakingException {
+            next.addEstimateBytesAndMaybeBreak(bytes, label);
+            // only count the bytes once we know we didn't circuit break
+            used.addAndGet(bytes);
+        }
+
+        @Override
+        public void addWithoutBreaking(long bytes) {
+            next.addWithoutBreaking(bytes);
+            used.addAndGet(bytes);
+        }
+
+        @Override
+        public long getUsed() {
+            return next.getUsed();
+        }
+
+        @Override
+        public long getLimit() {
+            return next.getLimit();
+        }
+
+        @Override
+        public double getOverhead() {
+            return next.getOverhead();
+        }
+
+        @Override
+        public long getTrippedCount() {
+            return next.getTrippedCount();
+        }
+
+        @Override
+        public String getName() {
+            return next.getName();
+        }
+
+        @Override
+        public Durability getDurability() {
+            return next.getDurability();
+        }
+
+        @Override
+        public void setLimitAndOverhead(long limit, double overhead) {
+            next.setLimitAndOverhead(limit, overhead);
+        }
+    }
+}
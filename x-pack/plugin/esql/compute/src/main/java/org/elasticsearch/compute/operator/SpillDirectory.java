@@ -0,0 +1,118 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator;
+
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Releasable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local directory that operators of a single query spill their state to when they
+ * are close to tripping the circuit breaker. All {@link SpillFile}s of the query
+ * share a disk budget, and writing past it fails the query just like tripping the
+ * breaker would have. Closing the directory removes it with everything in it.
+ */
+public final class SpillDirectory implements Releasable {
+    /**
+     * The number of bytes a single query may spill to disk on each node. Spilling is disabled when this is {@code 0}.
+     */
+    public static final String DISK_BUDGET_SETTING = "esql.spill.disk_budget";
+    public static final ByteSizeValue DEFAULT_DISK_BUDGET = ByteSizeValue.ZERO;
+
+    /**
+     * The fraction of the circuit breaker's limit that the state of a single operator may take before it spills.
+     */
+    public static final String BREAKER_THRESHOLD_SETTING = "esql.spill.breaker_threshold";
+    public static final double DEFAULT_BREAKER_THRESHOLD = 0.75;
+
+    private final Path path;
+    private final long diskBudget;
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicInteger files = new AtomicInteger();
+
+    public SpillDirectory(Path path, long diskBudget) {
+        if (diskBudget <= 0) {
+            throw new IllegalArgumentException("disk budget must be positive but was [" + diskBudget + "]");
+        }
+        this.path = path;
+        this.diskBudget = diskBudget;
+    }
+
+    /**
+     * Create a new, empty, file in this directory.
+     */
+    public SpillFile newFile() {
+        try {
+            Files.createDirectories(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to create spill directory [" + path + "]", e);
+        }
+        return new SpillFile(this, path.resolve("spill_" + files.getAndIncrement()));
+    }
+
+    /**
+     * Reserve {@code bytes} of the disk budget, failing if that would exceed it.
+     */
+    void reserve(long bytes) {
+        long used = usedBytes.addAndGet(bytes);
+        if (used > diskBudget) {
+            usedBytes.addAndGet(-bytes);
+            throw new CircuitBreakingException(
+                "[esql_spill] query would spill ["
+                    + ByteSizeValue.ofBytes(used)
+                    + "] to disk, which is larger than the limit of ["
+                    + ByteSizeValue.ofBytes(diskBudget)
+                    + "]",
+                used,
+                diskBudget,
+                CircuitBreaker.Durability.TRANSIENT
+            );
+        }
+    }
+
+    /**
+     * Return {@code bytes} of the disk budget after a file has been removed.
+     */
+    void release(long bytes) {
+        usedBytes.addAndGet(-bytes);
+    }
+
+    /**
+     * The number of bytes currently spilled to this directory.
+     */
+    public long usedBytes() {
+        return usedBytes.get();
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    @Override
+    public void close() {
+        try {
+            IOUtils.rm(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to remove spill directory [" + path + "]", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SpillDirectory[path=" + path + ", budget=" + ByteSizeValue.ofBytes(diskBudget) + "]";
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator;
+
+import org.elasticsearch.common.io.stream.InputStreamStreamInput;
+import org.elasticsearch.common.io.stream.NamedWriteableAwareStreamInput;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.io.stream.PositionTrackingOutputStreamStreamOutput;
+import org.elasticsearch.compute.data.Block;
+import org.elasticsearch.compute.data.BlockFactory;
+import org.elasticsearch.compute.data.BlockStreamInput;
+import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.ReleasableIterator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * A file in a {@link SpillDirectory} that {@link Page}s are appended to and
+ * then read back, in the same order, once all of them have been written.
+ * Closing the file removes it and returns its bytes to the disk budget.
+ */
+public final class SpillFile implements Releasable {
+    private static final NamedWriteableRegistry REGISTRY = new NamedWriteableRegistry(Block.getNamedWriteables());
+
+    private final SpillDirectory directory;
+    private final Path path;
+
+    private PositionTrackingOutputStreamStreamOutput out;
+    private long bytes;
+    private int pages;
+    private boolean reading;
+
+    SpillFile(SpillDirectory directory, Path path) {
+        this.directory = directory;
+        this.path = path;
+    }
+
+    /**
+     * Append a {@link Page} to the file. This doesn't release the page.
+     */
+    public void write(Page page) {
+        if (reading) {
+            throw new IllegalStateException("can't write to [" + path + "] after reading it");
+        }
+        try {
+            if (out == null) {
+                out = new PositionTrackingOutputStreamStreamOutput(
+                    new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))
+                );
+            }
+            page.writeTo(out);
+            long written = out.position() - bytes;
+            directory.reserve(written);
+            bytes += written;
+            pages++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to spill to [" + path + "]", e);
+        }
+    }
+
+    /**
+     * The number of {@link Page}s written to this file.
+     */
+    public int pages() {
+        return pages;
+    }
+
+    /**
+     * The number of bytes written to this file.
+     */
+    public long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Read all pages back in the order they were written. No more pages
+     * can be written once this has been called.
+     */
+    public ReleasableIterator<Page> read(BlockFactory blockFactory) {
+        reading = true;
+        final InputStream stream;
+        final BlockStreamInput in;
+        try {
+            IOUtils.close(out);
+            stream = pages == 0 ? InputStream.nullInputStream() : new BufferedInputStream(Files.newInputStream(path));
+            in = new BlockStreamInput(new NamedWriteableAwareStreamInput(new InputStreamStreamInput(stream), REGISTRY), blockFactory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to read [" + path + "]", e);
+        }
+        return new ReleasableIterator<>() {
+            int read = 0;
+
+            @Override
+            public boolean hasNext() {
+                return read < pages;
+            }
+
+            @Override
+            public Page next() {
+                if (hasNext() == false) {
+                    throw new NoSuchElementException();
+                }
+                read++;
+                try {
+                    return new Page(in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("failed to read spilled page from [" + path + "]", e);
+                }
+            }
+
+            @Override
+            public void close() {
+                try {
+                    IOUtils.close(in, stream);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        try {
+            IOUtils.close(out);
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to remove [" + path + "]", e);
+        } finally {
+            directory.release(bytes);
+            bytes = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SpillFile[path=" + path + ", pages=" + pages + ", bytes=" + bytes + "]";
+    }
+}
@@ -36,6 +36,7 @@ import static org.elasticsearch.test.ListMatcher.matchesList;
 import static org.elasticsearch.test.MapMatcher.assertMap;
 import static org.elasticsearch.test.MapMatcher.matchesMap;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 
 public class SingletonOrdinalsBuilderTests extends ESTestCase {
     public void testReader() throws IOException {
@@ -86,6 +87,53 @@ public class SingletonOrdinalsBuilderTests extends ESTestCase {
         }
     }
 
+    public void testBuildFromRuns() throws IOException {
+        BlockFactory factory = breakingDriverContext().blockFactory();
+        int runLength = between(16, 100);
+        String[] values = new String[] { "d", "a", "c", "b" };
+        try (Directory directory = newDirectory(); RandomIndexWriter indexWriter = new RandomIndexWriter(random(), directory)) {
+            for (String value : values) {
+                for (int i = 0; i < runLength; i++) {
+                    indexWriter.addDocument(List.of(new SortedDocValuesField("f", new BytesRef(value))));
+                }
+            }
+            indexWriter.forceMerge(1);
+            try (IndexReader reader = indexWriter.getReader()) {
+                LeafReaderContext ctx = reader.leaves().get(0);
+                SortedDocValues docValues = ctx.reader().getSortedDocValues("f");
+                List<String> expected = new ArrayList<>();
+                try (SingletonOrdinalsBuilder builder = new SingletonOrdinalsBuilder(factory, docValues, ctx.reader().maxDoc())) {
+                    for (int i = 0; i < ctx.reader().maxDoc(); i++) {
+                        assertThat(docValues.advanceExact(i), equalTo(true));
+                        builder.appendOrd(docValues.ordValue());
+                        expected.add(docValues.lookupOrd(docValues.ordValue()).utf8ToString());
+                    }
+                    assertThat(builder.shouldBuildFromRuns(), equalTo(true));
+                    try (BytesRefBlock built = builder.build()) {
+                        assertThat(built.asVector(), instanceOf(OrdinalBytesRefVector.class));
+                        assertThat(((OrdinalBytesRefVector) built.asVector()).getDictionaryVector().getPositionCount(), equalTo(4));
+                        List<String> actual = new ArrayList<>();
+                        for (int p = 0; p < built.getPositionCount(); p++) {
+                            actual.add(built.getBytesRef(p, new BytesRef()).utf8ToString());
+                        }
+                        assertMap(actual, matchesList(expected));
+                    }
+                }
+                docValues = ctx.reader().getSortedDocValues("f");
+                try (SingletonOrdinalsBuilder builder = new SingletonOrdinalsBuilder(factory, docValues, runLength)) {
+                    for (int i = 0; i < runLength; i++) {
+                        assertThat(docValues.advanceExact(i), equalTo(true));
+                        builder.appendOrd(docValues.ordValue());
+                    }
+                    try (BytesRefBlock built = builder.build()) {
+                        assertThat(built.asVector().isConstant(), equalTo(true));
+                        assertThat(built.getBytesRef(0, new BytesRef()).utf8ToString(), equalTo(values[0]));
+                    }
+                }
+            }
+        }
+    }
+
     public void testCompactWithNulls() {
         assertCompactToUnique(new int[] { -1, -1, -1, -1, 0, 1, 2 }, List.of(0, 1, 2));
     }
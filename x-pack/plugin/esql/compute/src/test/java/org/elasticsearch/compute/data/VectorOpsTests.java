@@ -0,0 +1,180 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.data;
+
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.LongArray;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.function.LongBinaryOperator;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+public class VectorOpsTests extends ESTestCase {
+
+    private final BlockFactory blockFactory = BlockFactoryTests.blockFactory(ByteSizeValue.ofGb(1));
+
+    public void testLongArithmetic() {
+        int positionCount = between(1, 10_000);
+        long[] lhs = randomLongs(positionCount, Integer.MAX_VALUE);
+        long[] rhs = randomLongs(positionCount, Integer.MAX_VALUE);
+        try (LongVector l = blockFactory.newLongArrayVector(lhs, positionCount); LongVector r = rhsVector(rhs)) {
+            assertLongs(LongVectorOps.add(blockFactory, l, r), lhs, r, Math::addExact);
+            assertLongs(LongVectorOps.sub(blockFactory, l, r), lhs, r, Math::subtractExact);
+            assertLongs(LongVectorOps.mul(blockFactory, l, r), lhs, r, Math::multiplyExact);
+        }
+        assertThat(blockFactory.breaker().getUsed(), equalTo(0L));
+    }
+
+    public void testLongComparisons() {
+        int positionCount = between(1, 10_000);
+        long[] lhs = randomLongs(positionCount, 10);
+        long[] rhs = randomLongs(positionCount, 10);
+        try (LongVector l = blockFactory.newLongArrayVector(lhs, positionCount); LongVector r = rhsVector(rhs)) {
+            try (BooleanVector result = LongVectorOps.eq(blockFactory, l, r)) {
+                for (int p = 0; p < positionCount; p++) {
+                    assertThat(result.getBoolean(p), equalTo(lhs[p] == r.getLong(p)));
+                }
+            }
+            try (BooleanVector result = LongVectorOps.neq(blockFactory, l, r)) {
+                for (int p = 0; p < positionCount; p++) {
+                    assertThat(result.getBoolean(p), equalTo(lhs[p] != r.getLong(p)));
+                }
+            }
+            try (BooleanVector result = LongVectorOps.gt(blockFactory, l, r)) {
+                for (int p = 0; p < positionCount; p++) {
+                    assertThat(result.getBoolean(p), equalTo(lhs[p] > r.getLong(p)));
+                }
+            }
+            try (BooleanVector result = LongVectorOps.gte(blockFactory, l, r)) {
+                for (int p = 0; p < positionCount; p++) {
+                    assertThat(result.getBoolean(p), equalTo(lhs[p] >= r.getLong(p)));
+                }
+            }
+            try (BooleanVector result = LongVectorOps.lt(blockFactory, l, r)) {
+                for (int p = 0; p < positionCount; p++) {
+                    assertThat(result.getBoolean(p), equalTo(lhs[p] < r.getLong(p)));
+                }
+            }
+            try (BooleanVector result = LongVectorOps.lte(blockFactory, l, r)) {
+                for (int p = 0; p < positionCount; p++) {
+                    assertThat(result.getBoolean(p), equalTo(lhs[p] <= r.getLong(p)));
+                }
+            }
+        }
+        assertThat(blockFactory.breaker().getUsed(), equalTo(0L));
+    }
+
+    public void testLongOverflow() {
+        int positionCount = between(1, 1_000);
+        long[] lhs = randomLongs(positionCount, 1_000);
+        long[] rhs = randomLongs(positionCount, 1_000);
+        int overflowing = between(0, positionCount - 1);
+        lhs[overflowing] = Long.MAX_VALUE;
+        rhs[overflowing] = between(2, 1_000);
+        try (
+            LongVector l = blockFactory.newLongArrayVector(lhs, positionCount);
+            LongVector r = blockFactory.newLongArrayVector(rhs, positionCount)
+        ) {
+            assertThat(LongVectorOps.add(blockFactory, l, r), nullValue());
+            assertThat(LongVectorOps.mul(blockFactory, l, r), nullValue());
+            lhs[overflowing] = Long.MIN_VALUE;
+            assertThat(LongVectorOps.sub(blockFactory, l, r), nullValue());
+        }
+        assertThat(blockFactory.breaker().getUsed(), equalTo(0L));
+    }
+
+    public void testIntOverflow() {
+        int positionCount = between(1, 1_000);
+        int[] lhs = new int[positionCount];
+        int[] rhs = new int[positionCount];
+        for (int p = 0; p < positionCount; p++) {
+            lhs[p] = between(-1_000, 1_000);
+            rhs[p] = between(-1_000, 1_000);
+        }
+        try (
+            IntVector l = blockFactory.newIntArrayVector(lhs, positionCount);
+            IntVector r = blockFactory.newIntArrayVector(rhs, positionCount)
+        ) {
+            try (IntVector result = IntVectorOps.mul(blockFactory, l, r)) {
+                for (int p = 0; p < positionCount; p++) {
+                    assertThat(result.getInt(p), equalTo(lhs[p] * rhs[p]));
+                }
+            }
+            int overflowing = between(0, positionCount - 1);
+            lhs[overflowing] = Integer.MAX_VALUE;
+            rhs[overflowing] = between(2, 1_000);
+            assertThat(IntVectorOps.add(blockFactory, l, r), nullValue());
+            assertThat(IntVectorOps.mul(blockFactory, l, r), nullValue());
+            lhs[overflowing] = Integer.MIN_VALUE;
+            assertThat(IntVectorOps.sub(blockFactory, l, r), nullValue());
+        }
+        assertThat(blockFactory.breaker().getUsed(), equalTo(0L));
+    }
+
+    public void testDoubleNotFinite() {
+        int positionCount = between(1, 1_000);
+        double[] lhs = new double[positionCount];
+        for (int p = 0; p < positionCount; p++) {
+            lhs[p] = randomDouble();
+        }
+        try (
+            DoubleVector l = blockFactory.newDoubleArrayVector(lhs, positionCount);
+            DoubleVector r = blockFactory.newConstantDoubleVector(2.0, positionCount)
+        ) {
+            try (DoubleVector result = DoubleVectorOps.mul(blockFactory, l, r)) {
+                for (int p = 0; p < positionCount; p++) {
+                    assertThat(result.getDouble(p), equalTo(lhs[p] * 2.0));
+                }
+            }
+            lhs[between(0, positionCount - 1)] = Double.MAX_VALUE;
+            assertThat(DoubleVectorOps.mul(blockFactory, l, r), nullValue());
+            assertThat(DoubleVectorOps.add(blockFactory, l, l), nullValue());
+        }
+        assertThat(blockFactory.breaker().getUsed(), equalTo(0L));
+    }
+
+    public void testUnsupportedVectors() {
+        int positionCount = between(1, 1_000);
+        LongArray array = blockFactory.bigArrays().newLongArray(positionCount);
+        try (
+            LongVector bigArrayVector = new LongBigArrayVector(array, positionCount, blockFactory);
+            LongVector arrayVector = blockFactory.newLongArrayVector(randomLongs(positionCount, 10), positionCount);
+            LongVector constant = blockFactory.newConstantLongVector(1, positionCount)
+        ) {
+            assertThat(LongVectorOps.add(blockFactory, bigArrayVector, arrayVector), nullValue());
+            assertThat(LongVectorOps.add(blockFactory, arrayVector, bigArrayVector), nullValue());
+            assertThat(LongVectorOps.gt(blockFactory, constant, arrayVector), nullValue());
+        }
+        assertThat(blockFactory.breaker().getUsed(), equalTo(0L));
+    }
+
+    private LongVector rhsVector(long[] values) {
+        if (randomBoolean()) {
+            return blockFactory.newConstantLongVector(values[0], values.length);
+        }
+        return blockFactory.newLongArrayVector(values, values.length);
+    }
+
+    private static long[] randomLongs(int positionCount, long bound) {
+        long[] values = new long[positionCount];
+        for (int p = 0; p < positionCount; p++) {
+            values[p] = randomLongBetween(-bound, bound);
+        }
+        return values;
+    }
+
+    private static void assertLongs(LongVector result, long[] lhs, LongVector rhs, LongBinaryOperator expected) {
+        try (result) {
+            for (int p = 0; p < lhs.length; p++) {
+                assertThat(result.getLong(p), equalTo(expected.applyAsLong(lhs[p], rhs.getLong(p))));
+            }
+        }
+    }
+}
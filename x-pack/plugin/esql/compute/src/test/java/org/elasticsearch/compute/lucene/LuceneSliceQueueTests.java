@@ -0,0 +1,174 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.lucene;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.core.CheckedConsumer;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.elasticsearch.compute.lucene.LuceneSliceQueue.MIN_DOCS_PER_CLAIM;
+import static org.elasticsearch.compute.lucene.LuceneSliceQueue.TARGET_NANOS_PER_CLAIM;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class LuceneSliceQueueTests extends ESTestCase {
+
+    public void testConcurrentClaimsCoverSegmentOnce() throws Exception {
+        int maxDoc = between(MIN_DOCS_PER_CLAIM * 2, 100_000);
+        withSegment(maxDoc, leaf -> {
+            int taskConcurrency = between(1, 16);
+            LuceneSliceQueue queue = new LuceneSliceQueue(
+                List.of(),
+                List.of(new LuceneSliceQueue.SplitSegment(null, leaf, null, taskConcurrency))
+            );
+            List<PartialLeafReaderContext> claimed = new CopyOnWriteArrayList<>();
+            Thread[] threads = new Thread[between(2, 8)];
+            CountDownLatch start = new CountDownLatch(1);
+            for (int t = 0; t < threads.length; t++) {
+                // drivers scan at different speeds, and don't know their speed before their first slice
+                double docsPerNano = randomBoolean() ? 0 : randomDoubleBetween(0.00001, 0.01, true);
+                threads[t] = new Thread(() -> {
+                    safeAwait(start);
+                    LuceneSlice slice;
+                    while ((slice = queue.nextSlice(docsPerNano)) != null) {
+                        assertThat(slice.leaves(), hasSize(1));
+                        claimed.add(slice.getLeaf(0));
+                    }
+                });
+                threads[t].start();
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            List<PartialLeafReaderContext> ranges = new ArrayList<>(claimed);
+            ranges.sort(Comparator.comparingInt(PartialLeafReaderContext::minDoc));
+            int expectedStart = 0;
+            for (PartialLeafReaderContext range : ranges) {
+                assertThat(range.leafReaderContext(), sameInstance(leaf));
+                assertThat(range.minDoc(), equalTo(expectedStart));
+                if (range.maxDoc() < maxDoc) {
+                    // only the last range may be smaller than the minimum, because there aren't enough docs left
+                    assertThat(range.maxDoc() - range.minDoc(), greaterThanOrEqualTo(MIN_DOCS_PER_CLAIM));
+                }
+                expectedStart = range.maxDoc();
+            }
+            assertThat(expectedStart, equalTo(maxDoc));
+            assertThat(queue.nextSlice(), nullValue());
+        });
+    }
+
+    public void testClaimStartsAtFairShare() throws Exception {
+        int taskConcurrency = between(1, 4);
+        int maxDoc = between(2 * taskConcurrency * MIN_DOCS_PER_CLAIM, 200_000);
+        withSegment(maxDoc, leaf -> {
+            LuceneSliceQueue.SplitSegment segment = new LuceneSliceQueue.SplitSegment(null, leaf, null, taskConcurrency);
+            // the caller doesn't know its speed yet so it gets its share of the segment, halved to leave room to even out the tail
+            PartialLeafReaderContext first = segment.claim(0).getLeaf(0);
+            assertThat(first.minDoc(), equalTo(0));
+            assertThat(first.maxDoc(), equalTo(maxDoc / (2 * taskConcurrency)));
+            // the next range is a share of what is left
+            PartialLeafReaderContext second = segment.claim(0).getLeaf(0);
+            assertThat(second.minDoc(), equalTo(first.maxDoc()));
+            int remaining = maxDoc - first.maxDoc();
+            assertThat(second.maxDoc() - second.minDoc(), equalTo(Math.max(MIN_DOCS_PER_CLAIM, remaining / (2 * taskConcurrency))));
+        });
+    }
+
+    public void testClaimSizedByScanSpeed() throws Exception {
+        int maxDoc = between(10 * MIN_DOCS_PER_CLAIM, 200_000);
+        withSegment(maxDoc, leaf -> {
+            LuceneSliceQueue.SplitSegment segment = new LuceneSliceQueue.SplitSegment(null, leaf, null, 1);
+            // scanning between one and two minimum ranges in the target time, well below the fair share of half the segment
+            double docsPerNano = (double) between(MIN_DOCS_PER_CLAIM, 2 * MIN_DOCS_PER_CLAIM) / TARGET_NANOS_PER_CLAIM;
+            PartialLeafReaderContext range = segment.claim(docsPerNano).getLeaf(0);
+            assertThat(range.minDoc(), equalTo(0));
+            assertThat((long) range.maxDoc(), equalTo(Math.max(MIN_DOCS_PER_CLAIM, (long) (docsPerNano * TARGET_NANOS_PER_CLAIM))));
+
+            // very fast drivers are capped at the fair share
+            int start = range.maxDoc();
+            range = segment.claim(Double.MAX_VALUE / TARGET_NANOS_PER_CLAIM).getLeaf(0);
+            assertThat(range.minDoc(), equalTo(start));
+            assertThat(range.maxDoc() - range.minDoc(), equalTo(Math.max(MIN_DOCS_PER_CLAIM, (maxDoc - start) / 2)));
+        });
+    }
+
+    public void testClaimRespectsMinDocs() throws Exception {
+        int maxDoc = between(MIN_DOCS_PER_CLAIM + 1, 5 * MIN_DOCS_PER_CLAIM);
+        withSegment(maxDoc, leaf -> {
+            // so many drivers that their fair share is below the minimum
+            int taskConcurrency = between(maxDoc / MIN_DOCS_PER_CLAIM + 1, 1000);
+            LuceneSliceQueue.SplitSegment segment = new LuceneSliceQueue.SplitSegment(null, leaf, null, taskConcurrency);
+            assertThat(segment.maxClaims(), equalTo((maxDoc + MIN_DOCS_PER_CLAIM - 1) / MIN_DOCS_PER_CLAIM));
+            // and so slow that they would scan a single doc in the target time
+            double docsPerNano = 1.0 / TARGET_NANOS_PER_CLAIM;
+            int start = 0;
+            LuceneSlice slice;
+            while ((slice = segment.claim(randomBoolean() ? 0 : docsPerNano)) != null) {
+                PartialLeafReaderContext range = slice.getLeaf(0);
+                assertThat(range.minDoc(), equalTo(start));
+                assertThat(range.maxDoc(), equalTo(Math.min(start + MIN_DOCS_PER_CLAIM, maxDoc)));
+                start = range.maxDoc();
+            }
+            assertThat(start, equalTo(maxDoc));
+        });
+    }
+
+    public void testSplitSegmentsClaimedBeforeSlices() throws Exception {
+        withSegment(between(MIN_DOCS_PER_CLAIM, 3 * MIN_DOCS_PER_CLAIM), leaf -> {
+            LuceneSlice small = new LuceneSlice(null, List.of(new PartialLeafReaderContext(leaf, 0, 1)), null);
+            LuceneSliceQueue queue = new LuceneSliceQueue(
+                List.of(small),
+                List.of(new LuceneSliceQueue.SplitSegment(null, leaf, null, between(1, 4)))
+            );
+            int claimedDocs = 0;
+            while (claimedDocs < leaf.reader().maxDoc()) {
+                LuceneSlice slice = queue.nextSlice(randomBoolean() ? 0 : randomDoubleBetween(0.00001, 0.01, true));
+                assertThat(slice.getLeaf(0).minDoc(), equalTo(claimedDocs));
+                claimedDocs = slice.getLeaf(0).maxDoc();
+            }
+            assertThat(queue.nextSlice(), sameInstance(small));
+            assertThat(queue.nextSlice(), nullValue());
+        });
+    }
+
+    /**
+     * Index {@code maxDoc} empty documents in a single segment.
+     */
+    private void withSegment(int maxDoc, CheckedConsumer<LeafReaderContext, Exception> test) throws Exception {
+        try (Directory directory = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+                for (int d = 0; d < maxDoc; d++) {
+                    writer.addDocument(new Document());
+                }
+                writer.forceMerge(1);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                assertThat(reader.leaves(), hasSize(1));
+                LeafReaderContext leaf = reader.leaves().get(0);
+                assertThat(leaf.reader().maxDoc(), equalTo(maxDoc));
+                test.accept(leaf);
+            }
+        }
+    }
+}
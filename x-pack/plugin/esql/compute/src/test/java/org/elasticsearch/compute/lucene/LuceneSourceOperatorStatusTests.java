@@ -20,7 +20,20 @@ import static org.hamcrest.Matchers.equalTo;
 
 public class LuceneSourceOperatorStatusTests extends AbstractWireSerializingTestCase<LuceneSourceOperator.Status> {
     public static LuceneSourceOperator.Status simple() {
-        return new LuceneSourceOperator.Status(2, Set.of("*:*"), new TreeSet<>(List.of("a:0", "a:1")), 1002, 0, 1, 5, 123, 99990, 8000);
+        return new LuceneSourceOperator.Status(
+            2,
+            Set.of("*:*"),
+            new TreeSet<>(List.of("a:0", "a:1")),
+            1002,
+            0,
+            1,
+            5,
+            123,
+            99990,
+            8000,
+            1000,
+            2000
+        );
     }
 
     public static String simpleToJson() {
@@ -41,7 +54,11 @@ public class LuceneSourceOperatorStatusTests extends AbstractWireSerializingTest
               "pages_emitted" : 5,
               "slice_min" : 123,
               "slice_max" : 99990,
-              "current" : 8000
+              "current" : 8000,
+              "slice_nanos" : 1000,
+              "slice_time" : "1micros",
+              "max_slice_nanos" : 2000,
+              "max_slice_time" : "2micros"
             }""";
     }
 
@@ -66,7 +83,9 @@ public class LuceneSourceOperatorStatusTests extends AbstractWireSerializingTest
             randomNonNegativeInt(),
             randomNonNegativeInt(),
             randomNonNegativeInt(),
-            randomNonNegativeInt()
+            randomNonNegativeInt(),
+            randomNonNegativeLong(),
+            randomNonNegativeLong()
         );
     }
 
@@ -100,7 +119,9 @@ public class LuceneSourceOperatorStatusTests extends AbstractWireSerializingTest
         int sliceMin = instance.sliceMin();
         int sliceMax = instance.sliceMax();
         int current = instance.current();
-        switch (between(0, 9)) {
+        long sliceNanos = instance.sliceNanos();
+        long maxSliceNanos = instance.maxSliceNanos();
+        switch (between(0, 11)) {
             case 0 -> processedSlices = randomValueOtherThan(processedSlices, ESTestCase::randomNonNegativeInt);
             case 1 -> processedQueries = randomValueOtherThan(processedQueries, LuceneSourceOperatorStatusTests::randomProcessedQueries);
             case 2 -> processedShards = randomValueOtherThan(processedShards, LuceneSourceOperatorStatusTests::randomProcessedShards);
@@ -111,6 +132,8 @@ public class LuceneSourceOperatorStatusTests extends AbstractWireSerializingTest
             case 7 -> sliceMin = randomValueOtherThan(sliceMin, ESTestCase::randomNonNegativeInt);
             case 8 -> sliceMax = randomValueOtherThan(sliceMax, ESTestCase::randomNonNegativeInt);
             case 9 -> current = randomValueOtherThan(current, ESTestCase::randomNonNegativeInt);
+            case 10 -> sliceNanos = randomValueOtherThan(sliceNanos, ESTestCase::randomNonNegativeLong);
+            case 11 -> maxSliceNanos = randomValueOtherThan(maxSliceNanos, ESTestCase::randomNonNegativeLong);
             default -> throw new UnsupportedOperationException();
         }
         return new LuceneSourceOperator.Status(
@@ -123,7 +146,9 @@ public class LuceneSourceOperatorStatusTests extends AbstractWireSerializingTest
             pagesEmitted,
             sliceMin,
             sliceMax,
-            current
+            current,
+            sliceNanos,
+            maxSliceNanos
         );
     }
 }
@@ -12,17 +12,22 @@ import org.apache.lucene.document.DoubleDocValuesField;
 import org.apache.lucene.document.FieldType;
 import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.DocValuesType;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.tests.index.RandomIndexWriter;
 import org.apache.lucene.tests.mockfile.HandleLimitFS;
 import org.apache.lucene.tests.util.LuceneTestCase;
+import org.apache.lucene.tests.util.TestUtil;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.Randomness;
 import org.elasticsearch.common.bytes.BytesReference;
@@ -35,6 +40,7 @@ import org.elasticsearch.compute.data.BooleanVector;
 import org.elasticsearch.compute.data.BytesRefBlock;
 import org.elasticsearch.compute.data.BytesRefVector;
 import org.elasticsearch.compute.data.DocBlock;
+import org.elasticsearch.compute.data.DocVector;
 import org.elasticsearch.compute.data.DoubleBlock;
 import org.elasticsearch.compute.data.DoubleVector;
 import org.elasticsearch.compute.data.ElementType;
@@ -42,6 +48,7 @@ import org.elasticsearch.compute.data.IntBlock;
 import org.elasticsearch.compute.data.IntVector;
 import org.elasticsearch.compute.data.LongBlock;
 import org.elasticsearch.compute.data.LongVector;
+import org.elasticsearch.compute.data.OrdinalBytesRefVector;
 import org.elasticsearch.compute.data.Page;
 import org.elasticsearch.compute.operator.CannedSourceOperator;
 import org.elasticsearch.compute.operator.Driver;
@@ -53,6 +60,8 @@ import org.elasticsearch.compute.operator.SourceOperator;
 import org.elasticsearch.core.IOUtils;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.IndexVersion;
+import org.elasticsearch.index.codec.tsdb.ES87TSDBDocValuesFormat;
+import org.elasticsearch.index.codec.tsdb.RunLengthDocValues;
 import org.elasticsearch.index.mapper.BlockLoader;
 import org.elasticsearch.index.mapper.FieldNamesFieldMapper;
 import org.elasticsearch.index.mapper.IdFieldMapper;
@@ -91,6 +100,7 @@ import static org.elasticsearch.test.MapMatcher.matchesMap;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
@@ -1337,6 +1347,156 @@ public class ValuesSourceReaderOperatorTests extends OperatorTestCase {
         assertDriverContext(driverContext);
     }
 
+    public void testLoadSingleRunFromTsdbDocValues() throws IOException {
+        int blockSize = ES87TSDBDocValuesFormat.NUMERIC_BLOCK_SIZE;
+        // every block of the codec is a single run
+        initRunsIndex(blockSize * between(1, 4), blockSize);
+        int start = blockSize * between(0, reader.maxDoc() / blockSize - 1);
+        int[] docs = IntStream.range(start, start + between(2, blockSize)).toArray();
+        DriverContext driverContext = driverContext();
+        Page page = loadRuns(driverContext, docs);
+        try {
+            assertRuns(page, docs, blockSize);
+            assertThat(page.<LongBlock>getBlock(1).asVector().isConstant(), equalTo(true));
+            assertThat(page.<IntBlock>getBlock(2).asVector().isConstant(), equalTo(true));
+            assertThat(page.<BytesRefBlock>getBlock(3).asVector().isConstant(), equalTo(true));
+        } finally {
+            page.releaseBlocks();
+        }
+        assertDriverContext(driverContext);
+    }
+
+    public void testLoadManyRunsFromTsdbDocValues() throws IOException {
+        int runLength = between(3, 50);
+        initRunsIndex(between(500, 2000), runLength);
+        int[] docs = IntStream.range(0, reader.maxDoc()).toArray();
+        DriverContext driverContext = driverContext();
+        Page page = loadRuns(driverContext, docs);
+        try {
+            assertRuns(page, docs, runLength);
+            assertThat(page.<LongBlock>getBlock(1).asVector().isConstant(), equalTo(false));
+            assertThat(page.<IntBlock>getBlock(2).asVector().isConstant(), equalTo(false));
+            // each run only resolves its ordinal once and they share the dictionary
+            BytesRefVector keywords = page.<BytesRefBlock>getBlock(3).asVector();
+            assertThat(keywords, instanceOf(OrdinalBytesRefVector.class));
+            int runs = (docs.length + runLength - 1) / runLength;
+            assertThat(((OrdinalBytesRefVector) keywords).getDictionaryVector().getPositionCount(), equalTo(runs));
+        } finally {
+            page.releaseBlocks();
+        }
+        assertDriverContext(driverContext);
+    }
+
+    public void testLoadRunsOfSparseDocsFromTsdbDocValues() throws IOException {
+        int runLength = between(3, 50);
+        initRunsIndex(between(500, 2000), runLength);
+        // skips docs within runs and, if the step is longer than a run, whole runs
+        int step = between(2, 2 * runLength);
+        int[] docs = IntStream.range(0, reader.maxDoc()).filter(d -> d % step == 0).toArray();
+        DriverContext driverContext = driverContext();
+        Page page = loadRuns(driverContext, docs);
+        try {
+            assertRuns(page, docs, runLength);
+        } finally {
+            page.releaseBlocks();
+        }
+        assertDriverContext(driverContext);
+    }
+
+    /**
+     * Index {@code numDocs} into a single segment with the time series doc values format, with fields that repeat their
+     * value for runs of {@code runLength} docs and a field that is missing from every tenth doc.
+     */
+    private void initRunsIndex(int numDocs, int runLength) throws IOException {
+        mapperService = new MapperServiceTestCase() {
+        }.createMapperService(MapperServiceTestCase.mapping(b -> {
+            simpleField(b, "runs_long", "long");
+            simpleField(b, "runs_int", "integer");
+            simpleField(b, "runs_kwd", "keyword");
+            simpleField(b, "sparse_long", "long");
+        }));
+        IndexWriterConfig config = new IndexWriterConfig().setCodec(TestUtil.alwaysDocValuesFormat(new ES87TSDBDocValuesFormat()))
+            .setMergePolicy(NoMergePolicy.INSTANCE)
+            .setMaxBufferedDocs(IndexWriterConfig.DISABLE_AUTO_FLUSH);
+        try (IndexWriter writer = new IndexWriter(directory, config)) {
+            for (int d = 0; d < numDocs; d++) {
+                int value = d / runLength;
+                Document doc = new Document();
+                doc.add(new SortedNumericDocValuesField("runs_long", runsLong(value)));
+                doc.add(new SortedNumericDocValuesField("runs_int", value));
+                doc.add(new SortedSetDocValuesField("runs_kwd", runsKeyword(value)));
+                if (d % 10 != 0) {
+                    doc.add(new SortedNumericDocValuesField("sparse_long", d));
+                }
+                writer.addDocument(doc);
+            }
+            writer.commit();
+        }
+        reader = DirectoryReader.open(directory);
+        assertThat(reader.leaves(), hasSize(1));
+        LeafReader leaf = reader.leaves().get(0).reader();
+        assertThat(DocValues.unwrapSingleton(leaf.getSortedNumericDocValues("runs_long")), instanceOf(RunLengthDocValues.class));
+        assertThat(DocValues.unwrapSingleton(leaf.getSortedNumericDocValues("runs_int")), instanceOf(RunLengthDocValues.class));
+        assertThat(DocValues.unwrapSingleton(leaf.getSortedSetDocValues("runs_kwd")), instanceOf(RunLengthDocValues.class));
+        assertThat(DocValues.unwrapSingleton(leaf.getSortedNumericDocValues("sparse_long")), not(instanceOf(RunLengthDocValues.class)));
+    }
+
+    private static long runsLong(int value) {
+        return value * 1_000_000_000L;
+    }
+
+    private static BytesRef runsKeyword(int value) {
+        return new BytesRef("run" + value);
+    }
+
+    /**
+     * Load the fields of the index built by {@link #initRunsIndex} for {@code docs} in a single page.
+     */
+    private Page loadRuns(DriverContext driverContext, int[] docs) {
+        BlockFactory blockFactory = driverContext.blockFactory();
+        Page input = new Page(
+            new DocVector(
+                blockFactory.newConstantIntVector(0, docs.length),
+                blockFactory.newConstantIntVector(0, docs.length),
+                blockFactory.newIntArrayVector(docs, docs.length),
+                true
+            ).asBlock()
+        );
+        Operator op = new ValuesSourceReaderOperator.Factory(
+            List.of(
+                fieldInfo(mapperService.fieldType("runs_long"), ElementType.LONG),
+                fieldInfo(mapperService.fieldType("runs_int"), ElementType.INT),
+                fieldInfo(mapperService.fieldType("runs_kwd"), ElementType.BYTES_REF),
+                fieldInfo(mapperService.fieldType("sparse_long"), ElementType.LONG)
+            ),
+            List.of(new ValuesSourceReaderOperator.ShardContext(reader, () -> SourceLoader.FROM_STORED_SOURCE)),
+            0
+        ).get(driverContext);
+        List<Page> results = drive(op, List.of(input).iterator(), driverContext);
+        assertThat(results, hasSize(1));
+        return results.get(0);
+    }
+
+    private static void assertRuns(Page page, int[] docs, int runLength) {
+        assertThat(page.getPositionCount(), equalTo(docs.length));
+        LongVector longs = page.<LongBlock>getBlock(1).asVector();
+        IntVector ints = page.<IntBlock>getBlock(2).asVector();
+        BytesRefVector keywords = page.<BytesRefBlock>getBlock(3).asVector();
+        LongBlock sparse = page.getBlock(4);
+        BytesRef scratch = new BytesRef();
+        for (int p = 0; p < docs.length; p++) {
+            int value = docs[p] / runLength;
+            assertThat(longs.getLong(p), equalTo(runsLong(value)));
+            assertThat(ints.getInt(p), equalTo(value));
+            assertThat(keywords.getBytesRef(p, scratch), equalTo(runsKeyword(value)));
+            if (docs[p] % 10 == 0) {
+                assertThat(sparse.isNull(p), equalTo(true));
+            } else {
+                assertThat(sparse.getLong(sparse.getFirstValueIndex(p)), equalTo((long) docs[p]));
+            }
+        }
+    }
+
     private XContentBuilder fieldExamples(XContentBuilder builder, String name, String type) throws IOException {
         simpleField(builder, name, type);
         simpleField(builder, "mv_" + name, type);
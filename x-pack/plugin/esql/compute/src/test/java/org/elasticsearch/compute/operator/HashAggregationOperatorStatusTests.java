@@ -16,7 +16,7 @@ import static org.hamcrest.Matchers.equalTo;
 
 public class HashAggregationOperatorStatusTests extends AbstractWireSerializingTestCase<HashAggregationOperator.Status> {
     public static HashAggregationOperator.Status simple() {
-        return new HashAggregationOperator.Status(500012, 200012, 123);
+        return new HashAggregationOperator.Status(500012, 200012, 123, 2, 4096);
     }
 
     public static String simpleToJson() {
@@ -26,7 +26,10 @@ public class HashAggregationOperatorStatusTests extends AbstractWireSerializingT
               "hash_time" : "500micros",
               "aggregation_nanos" : 200012,
               "aggregation_time" : "200micros",
-              "pages_processed" : 123
+              "pages_processed" : 123,
+              "spills" : 2,
+              "spilled_bytes" : 4096,
+              "spilled" : "4kb"
             }""";
     }
 
@@ -41,7 +44,13 @@ public class HashAggregationOperatorStatusTests extends AbstractWireSerializingT
 
     @Override
     public HashAggregationOperator.Status createTestInstance() {
-        return new HashAggregationOperator.Status(randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeInt());
+        return new HashAggregationOperator.Status(
+            randomNonNegativeLong(),
+            randomNonNegativeLong(),
+            randomNonNegativeInt(),
+            randomNonNegativeInt(),
+            randomNonNegativeLong()
+        );
     }
 
     @Override
@@ -49,12 +58,16 @@ public class HashAggregationOperatorStatusTests extends AbstractWireSerializingT
         long hashNanos = instance.hashNanos();
         long aggregationNanos = instance.aggregationNanos();
         int pagesProcessed = instance.pagesProcessed();
-        switch (between(0, 2)) {
+        int spills = instance.spills();
+        long spilledBytes = instance.spilledBytes();
+        switch (between(0, 4)) {
             case 0 -> hashNanos = randomValueOtherThan(hashNanos, ESTestCase::randomNonNegativeLong);
             case 1 -> aggregationNanos = randomValueOtherThan(aggregationNanos, ESTestCase::randomNonNegativeLong);
             case 2 -> pagesProcessed = randomValueOtherThan(pagesProcessed, ESTestCase::randomNonNegativeInt);
+            case 3 -> spills = randomValueOtherThan(spills, ESTestCase::randomNonNegativeInt);
+            case 4 -> spilledBytes = randomValueOtherThan(spilledBytes, ESTestCase::randomNonNegativeLong);
             default -> throw new UnsupportedOperationException();
         }
-        return new HashAggregationOperator.Status(hashNanos, aggregationNanos, pagesProcessed);
+        return new HashAggregationOperator.Status(hashNanos, aggregationNanos, pagesProcessed, spills, spilledBytes);
     }
 }
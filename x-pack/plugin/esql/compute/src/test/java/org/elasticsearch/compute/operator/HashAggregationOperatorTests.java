@@ -7,6 +7,8 @@
 
 package org.elasticsearch.compute.operator;
 
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.compute.aggregation.AggregatorMode;
 import org.elasticsearch.compute.aggregation.MaxLongAggregatorFunction;
 import org.elasticsearch.compute.aggregation.MaxLongAggregatorFunctionSupplier;
@@ -23,11 +25,16 @@ import org.elasticsearch.compute.data.Page;
 import org.elasticsearch.core.Tuple;
 import org.hamcrest.Matcher;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.LongStream;
 
 import static java.util.stream.IntStream.range;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 
 public class HashAggregationOperatorTests extends ForkingOperatorTestCase {
@@ -94,4 +101,104 @@ public class HashAggregationOperatorTests extends ForkingOperatorTestCase {
             max.assertSimpleGroup(input, maxs, i, group);
         }
     }
+
+    public void testSpill() {
+        DriverContext driverContext = driverContext();
+        int size = between(1_000, 10_000);
+        int groups = between(1, 500);
+        List<Page> input = CannedSourceOperator.collectPages(
+            new TupleBlockSourceOperator(driverContext.blockFactory(), LongStream.range(0, size).mapToObj(l -> Tuple.tuple(l % groups, l)))
+        );
+        int sumChannelCount = SumLongAggregatorFunction.intermediateStateDesc().size();
+        int maxChannelCount = MaxLongAggregatorFunction.intermediateStateDesc().size();
+        List<Integer> sumChannels = range(1, 1 + sumChannelCount).boxed().toList();
+        List<Integer> maxChannels = range(1 + sumChannelCount, 1 + sumChannelCount + maxChannelCount).boxed().toList();
+
+        Path path = createTempDir().resolve("spill");
+        List<Page> results;
+        HashAggregationOperator.Status status;
+        try (SpillDirectory directory = new SpillDirectory(path, ByteSizeValue.ofMb(100).getBytes())) {
+            // a threshold of 0 spills after every page
+            HashAggregationOperator.Spill spill = new HashAggregationOperator.Spill(
+                directory,
+                0.0,
+                List.of(
+                    new SumLongAggregatorFunctionSupplier(sumChannels).groupingAggregatorFactory(AggregatorMode.FINAL),
+                    new MaxLongAggregatorFunctionSupplier(maxChannels).groupingAggregatorFactory(AggregatorMode.FINAL)
+                )
+            );
+            Operator operator = new HashAggregationOperator.HashAggregationOperatorFactory(
+                List.of(new BlockHash.GroupSpec(0, ElementType.LONG)),
+                List.of(
+                    new SumLongAggregatorFunctionSupplier(List.of(1)).groupingAggregatorFactory(AggregatorMode.SINGLE),
+                    new MaxLongAggregatorFunctionSupplier(List.of(1)).groupingAggregatorFactory(AggregatorMode.SINGLE)
+                ),
+                randomPageSize(),
+                spill
+            ).get(driverContext);
+            results = drive(operator, input.iterator(), driverContext);
+            status = (HashAggregationOperator.Status) operator.status();
+            assertThat(directory.usedBytes(), equalTo(0L));
+        }
+        assertThat(Files.exists(path), equalTo(false));
+        assertThat(status.spills(), greaterThan(0));
+        assertThat(status.spilledBytes(), greaterThan(0L));
+
+        Map<Long, Long> sums = new HashMap<>();
+        Map<Long, Long> maxs = new HashMap<>();
+        for (Page page : results) {
+            LongBlock keys = page.getBlock(0);
+            LongBlock sumBlock = page.getBlock(1);
+            LongBlock maxBlock = page.getBlock(2);
+            for (int p = 0; p < page.getPositionCount(); p++) {
+                long key = keys.getLong(p);
+                assertThat(sums.put(key, sumBlock.getLong(p)), equalTo(null));
+                maxs.put(key, maxBlock.getLong(p));
+            }
+            page.releaseBlocks();
+        }
+        assertThat(sums.size(), equalTo(groups));
+        for (long group = 0; group < groups; group++) {
+            long g = group;
+            assertThat(sums.get(group), equalTo(LongStream.range(0, size).filter(l -> l % groups == g).sum()));
+            assertThat(maxs.get(group), equalTo(LongStream.range(0, size).filter(l -> l % groups == g).max().getAsLong()));
+        }
+    }
+
+    public void testSpillOnlyCountsOwnMemory() {
+        DriverContext driverContext = driverContext();
+        CircuitBreaker breaker = driverContext.bigArrays().breakerService().getBreaker(CircuitBreaker.REQUEST);
+        assertThat(breaker.getLimit(), greaterThan(0L));
+        int size = between(1_000, 10_000);
+        List<Page> input = CannedSourceOperator.collectPages(
+            new TupleBlockSourceOperator(driverContext.blockFactory(), LongStream.range(0, size).mapToObj(l -> Tuple.tuple(l % 100, l)))
+        );
+        int sumChannelCount = SumLongAggregatorFunction.intermediateStateDesc().size();
+        List<Integer> sumChannels = range(1, 1 + sumChannelCount).boxed().toList();
+
+        // other operators use more of the breaker than the threshold, which must not make this one spill its few groups
+        long usedByOthers = (long) (breaker.getLimit() * 0.6);
+        breaker.addWithoutBreaking(usedByOthers);
+        try (SpillDirectory directory = new SpillDirectory(createTempDir().resolve("spill"), ByteSizeValue.ofMb(100).getBytes())) {
+            HashAggregationOperator.Spill spill = new HashAggregationOperator.Spill(
+                directory,
+                0.5,
+                List.of(new SumLongAggregatorFunctionSupplier(sumChannels).groupingAggregatorFactory(AggregatorMode.FINAL))
+            );
+            Operator operator = new HashAggregationOperator.HashAggregationOperatorFactory(
+                List.of(new BlockHash.GroupSpec(0, ElementType.LONG)),
+                List.of(new SumLongAggregatorFunctionSupplier(List.of(1)).groupingAggregatorFactory(AggregatorMode.SINGLE)),
+                randomPageSize(),
+                spill
+            ).get(driverContext);
+            List<Page> results = drive(operator, input.iterator(), driverContext);
+            HashAggregationOperator.Status status = (HashAggregationOperator.Status) operator.status();
+            assertThat(status.spills(), equalTo(0));
+            assertThat(status.spilledBytes(), equalTo(0L));
+            assertThat(results.stream().mapToInt(Page::getPositionCount).sum(), equalTo(100));
+            results.forEach(Page::releaseBlocks);
+        } finally {
+            breaker.addWithoutBreaking(-usedByOthers);
+        }
+    }
 }
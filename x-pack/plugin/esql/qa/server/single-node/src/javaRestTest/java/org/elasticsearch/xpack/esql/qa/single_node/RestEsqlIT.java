@@ -529,6 +529,8 @@ public class RestEsqlIT extends RestEsqlTestCase {
                 .entry("slice_max", 0)
                 .entry("slice_min", 0)
                 .entry("current", DocIdSetIterator.NO_MORE_DOCS)
+                .entry("slice_nanos", 0)
+                .entry("max_slice_nanos", greaterThan(0))
                 .entry("pages_emitted", greaterThan(0))
                 .entry("processing_nanos", greaterThan(0))
                 .entry("processed_queries", List.of("*:*"));
@@ -104,12 +104,12 @@ public class Add extends DateTimeArithmeticOperation implements BinaryComparison
         return true;
     }
 
-    @Evaluator(extraName = "Ints", warnExceptions = { ArithmeticException.class })
+    @Evaluator(extraName = "Ints", warnExceptions = { ArithmeticException.class }, vectorOp = Evaluator.VectorOp.ADD)
     static int processInts(int lhs, int rhs) {
         return Math.addExact(lhs, rhs);
     }
 
-    @Evaluator(extraName = "Longs", warnExceptions = { ArithmeticException.class })
+    @Evaluator(extraName = "Longs", warnExceptions = { ArithmeticException.class }, vectorOp = Evaluator.VectorOp.ADD)
     static long processLongs(long lhs, long rhs) {
         return Math.addExact(lhs, rhs);
     }
@@ -119,7 +119,7 @@ public class Add extends DateTimeArithmeticOperation implements BinaryComparison
         return unsignedLongAddExact(lhs, rhs);
     }
 
-    @Evaluator(extraName = "Doubles", warnExceptions = { ArithmeticException.class })
+    @Evaluator(extraName = "Doubles", warnExceptions = { ArithmeticException.class }, vectorOp = Evaluator.VectorOp.ADD)
     static double processDoubles(double lhs, double rhs) {
         return NumericUtils.asFiniteNumber(lhs + rhs);
     }
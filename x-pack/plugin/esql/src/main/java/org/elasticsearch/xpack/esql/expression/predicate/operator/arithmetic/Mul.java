@@ -88,12 +88,12 @@ public class Mul extends EsqlArithmeticOperation implements BinaryComparisonInve
         return new Mul(source(), left, right);
     }
 
-    @Evaluator(extraName = "Ints", warnExceptions = { ArithmeticException.class })
+    @Evaluator(extraName = "Ints", warnExceptions = { ArithmeticException.class }, vectorOp = Evaluator.VectorOp.MUL)
     static int processInts(int lhs, int rhs) {
         return Math.multiplyExact(lhs, rhs);
     }
 
-    @Evaluator(extraName = "Longs", warnExceptions = { ArithmeticException.class })
+    @Evaluator(extraName = "Longs", warnExceptions = { ArithmeticException.class }, vectorOp = Evaluator.VectorOp.MUL)
     static long processLongs(long lhs, long rhs) {
         return Math.multiplyExact(lhs, rhs);
     }
@@ -103,7 +103,7 @@ public class Mul extends EsqlArithmeticOperation implements BinaryComparisonInve
         return unsignedLongMultiplyExact(lhs, rhs);
     }
 
-    @Evaluator(extraName = "Doubles", warnExceptions = { ArithmeticException.class })
+    @Evaluator(extraName = "Doubles", warnExceptions = { ArithmeticException.class }, vectorOp = Evaluator.VectorOp.MUL)
     static double processDoubles(double lhs, double rhs) {
         return NumericUtils.asFiniteNumber(lhs * rhs);
     }
@@ -117,12 +117,12 @@ public class Sub extends DateTimeArithmeticOperation implements BinaryComparison
         return Add::new;
     }
 
-    @Evaluator(extraName = "Ints", warnExceptions = { ArithmeticException.class })
+    @Evaluator(extraName = "Ints", warnExceptions = { ArithmeticException.class }, vectorOp = Evaluator.VectorOp.SUB)
     static int processInts(int lhs, int rhs) {
         return Math.subtractExact(lhs, rhs);
     }
 
-    @Evaluator(extraName = "Longs", warnExceptions = { ArithmeticException.class })
+    @Evaluator(extraName = "Longs", warnExceptions = { ArithmeticException.class }, vectorOp = Evaluator.VectorOp.SUB)
     static long processLongs(long lhs, long rhs) {
         return Math.subtractExact(lhs, rhs);
     }
@@ -132,7 +132,7 @@ public class Sub extends DateTimeArithmeticOperation implements BinaryComparison
         return unsignedLongSubtractExact(lhs, rhs);
     }
 
-    @Evaluator(extraName = "Doubles", warnExceptions = { ArithmeticException.class })
+    @Evaluator(extraName = "Doubles", warnExceptions = { ArithmeticException.class }, vectorOp = Evaluator.VectorOp.SUB)
     static double processDoubles(double lhs, double rhs) {
         return NumericUtils.asFiniteNumber(lhs - rhs);
     }
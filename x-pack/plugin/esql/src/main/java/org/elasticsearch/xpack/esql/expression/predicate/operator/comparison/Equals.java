@@ -131,17 +131,17 @@ public class Equals extends EsqlBinaryComparison implements Negatable<EsqlBinary
         return new NotEquals(source(), left(), right(), zoneId());
     }
 
-    @Evaluator(extraName = "Ints")
+    @Evaluator(extraName = "Ints", vectorOp = Evaluator.VectorOp.EQ)
     static boolean processInts(int lhs, int rhs) {
         return lhs == rhs;
     }
 
-    @Evaluator(extraName = "Longs")
+    @Evaluator(extraName = "Longs", vectorOp = Evaluator.VectorOp.EQ)
     static boolean processLongs(long lhs, long rhs) {
         return lhs == rhs;
     }
 
-    @Evaluator(extraName = "Doubles")
+    @Evaluator(extraName = "Doubles", vectorOp = Evaluator.VectorOp.EQ)
     static boolean processDoubles(double lhs, double rhs) {
         return lhs == rhs;
     }
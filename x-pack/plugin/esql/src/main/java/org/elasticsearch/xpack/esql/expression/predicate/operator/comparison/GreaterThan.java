@@ -98,17 +98,17 @@ public class GreaterThan extends EsqlBinaryComparison implements Negatable<EsqlB
         return new LessThan(source(), left(), right(), zoneId());
     }
 
-    @Evaluator(extraName = "Ints")
+    @Evaluator(extraName = "Ints", vectorOp = Evaluator.VectorOp.GT)
     static boolean processInts(int lhs, int rhs) {
         return lhs > rhs;
     }
 
-    @Evaluator(extraName = "Longs")
+    @Evaluator(extraName = "Longs", vectorOp = Evaluator.VectorOp.GT)
     static boolean processLongs(long lhs, long rhs) {
         return lhs > rhs;
     }
 
-    @Evaluator(extraName = "Doubles")
+    @Evaluator(extraName = "Doubles", vectorOp = Evaluator.VectorOp.GT)
     static boolean processDoubles(double lhs, double rhs) {
         return lhs > rhs;
     }
@@ -98,17 +98,17 @@ public class GreaterThanOrEqual extends EsqlBinaryComparison implements Negatabl
         return new LessThanOrEqual(source(), left(), right(), zoneId());
     }
 
-    @Evaluator(extraName = "Ints")
+    @Evaluator(extraName = "Ints", vectorOp = Evaluator.VectorOp.GTE)
     static boolean processInts(int lhs, int rhs) {
         return lhs >= rhs;
     }
 
-    @Evaluator(extraName = "Longs")
+    @Evaluator(extraName = "Longs", vectorOp = Evaluator.VectorOp.GTE)
     static boolean processLongs(long lhs, long rhs) {
         return lhs >= rhs;
     }
 
-    @Evaluator(extraName = "Doubles")
+    @Evaluator(extraName = "Doubles", vectorOp = Evaluator.VectorOp.GTE)
     static boolean processDoubles(double lhs, double rhs) {
         return lhs >= rhs;
     }
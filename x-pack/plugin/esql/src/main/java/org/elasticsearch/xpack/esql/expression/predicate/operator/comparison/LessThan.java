@@ -98,17 +98,17 @@ public class LessThan extends EsqlBinaryComparison implements Negatable<EsqlBina
         return new GreaterThan(source(), left(), right(), zoneId());
     }
 
-    @Evaluator(extraName = "Ints")
+    @Evaluator(extraName = "Ints", vectorOp = Evaluator.VectorOp.LT)
     static boolean processInts(int lhs, int rhs) {
         return lhs < rhs;
     }
 
-    @Evaluator(extraName = "Longs")
+    @Evaluator(extraName = "Longs", vectorOp = Evaluator.VectorOp.LT)
     static boolean processLongs(long lhs, long rhs) {
         return lhs < rhs;
     }
 
-    @Evaluator(extraName = "Doubles")
+    @Evaluator(extraName = "Doubles", vectorOp = Evaluator.VectorOp.LT)
     static boolean processDoubles(double lhs, double rhs) {
         return lhs < rhs;
     }
@@ -98,17 +98,17 @@ public class LessThanOrEqual extends EsqlBinaryComparison implements Negatable<E
         return new GreaterThanOrEqual(source(), left(), right(), zoneId());
     }
 
-    @Evaluator(extraName = "Ints")
+    @Evaluator(extraName = "Ints", vectorOp = Evaluator.VectorOp.LTE)
     static boolean processInts(int lhs, int rhs) {
         return lhs <= rhs;
     }
 
-    @Evaluator(extraName = "Longs")
+    @Evaluator(extraName = "Longs", vectorOp = Evaluator.VectorOp.LTE)
     static boolean processLongs(long lhs, long rhs) {
         return lhs <= rhs;
     }
 
-    @Evaluator(extraName = "Doubles")
+    @Evaluator(extraName = "Doubles", vectorOp = Evaluator.VectorOp.LTE)
     static boolean processDoubles(double lhs, double rhs) {
         return lhs <= rhs;
     }
@@ -106,17 +106,17 @@ public class NotEquals extends EsqlBinaryComparison implements Negatable<EsqlBin
         return ENTRY.name;
     }
 
-    @Evaluator(extraName = "Ints")
+    @Evaluator(extraName = "Ints", vectorOp = Evaluator.VectorOp.NEQ)
     static boolean processInts(int lhs, int rhs) {
         return lhs != rhs;
     }
 
-    @Evaluator(extraName = "Longs")
+    @Evaluator(extraName = "Longs", vectorOp = Evaluator.VectorOp.NEQ)
     static boolean processLongs(long lhs, long rhs) {
         return lhs != rhs;
     }
 
-    @Evaluator(extraName = "Doubles")
+    @Evaluator(extraName = "Doubles", vectorOp = Evaluator.VectorOp.NEQ)
     static boolean processDoubles(double lhs, double rhs) {
         return lhs != rhs;
     }
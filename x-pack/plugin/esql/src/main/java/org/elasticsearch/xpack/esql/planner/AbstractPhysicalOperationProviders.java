@@ -14,6 +14,7 @@ import org.elasticsearch.compute.aggregation.GroupingAggregator;
 import org.elasticsearch.compute.aggregation.blockhash.BlockHash;
 import org.elasticsearch.compute.data.ElementType;
 import org.elasticsearch.compute.operator.AggregationOperator;
+import org.elasticsearch.compute.operator.HashAggregationOperator;
 import org.elasticsearch.compute.operator.HashAggregationOperator.HashAggregationOperatorFactory;
 import org.elasticsearch.compute.operator.Operator;
 import org.elasticsearch.xpack.esql.EsqlIllegalArgumentException;
@@ -36,6 +37,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 import static java.util.Collections.emptyList;
 
@@ -162,7 +164,8 @@ public abstract class AbstractPhysicalOperationProviders implements PhysicalOper
                 operatorFactory = new HashAggregationOperatorFactory(
                     groupSpecs.stream().map(GroupSpec::toHashGroupSpec).toList(),
                     aggregatorFactories,
-                    context.pageSize(aggregateExec.estimatedRowSize())
+                    context.pageSize(aggregateExec.estimatedRowSize()),
+                    spill(aggregates, aggregatorMode, groupSpecs.size(), context)
                 );
             }
         }
@@ -222,6 +225,37 @@ public abstract class AbstractPhysicalOperationProviders implements PhysicalOper
         return attrs;
     }
 
+    /**
+     * Build the configuration for spilling the hash aggregation to disk, or {@code null} if spilling is disabled.
+     * The spilled pages start with the {@code groupCount} keys, followed by the intermediate state of each aggregation.
+     */
+    private HashAggregationOperator.Spill spill(
+        List<? extends NamedExpression> aggregates,
+        AggregatorMode mode,
+        int groupCount,
+        LocalExecutionPlannerContext context
+    ) {
+        if (context.spillDirectory() == null) {
+            return null;
+        }
+        AggregatorMode mergeMode = mode.isOutputPartial() ? AggregatorMode.INTERMEDIATE : AggregatorMode.FINAL;
+        List<GroupingAggregator.Factory> mergeAggregators = new ArrayList<>();
+        int channel = groupCount;
+        for (NamedExpression ne : aggregates) {
+            if (ne instanceof Alias alias && alias.child() instanceof AggregateFunction aggregateFunction) {
+                int stateSize = aggregateMapper.mapGrouping(aggregateFunction).size();
+                List<Integer> inputChannels = IntStream.range(channel, channel + stateSize).boxed().toList();
+                channel += stateSize;
+                if (aggregateFunction instanceof ToAggregator agg) {
+                    mergeAggregators.add(agg.supplier(inputChannels).groupingAggregatorFactory(mergeMode));
+                } else {
+                    throw new EsqlIllegalArgumentException("aggregate functions must extend ToAggregator");
+                }
+            }
+        }
+        return new HashAggregationOperator.Spill(context.spillDirectory(), context.spillBreakerThreshold(), mergeAggregators);
+    }
+
     private record AggFunctionSupplierContext(AggregatorFunctionSupplier supplier, AggregatorMode mode) {}
 
     private void aggregatesToFactory(
@@ -37,6 +37,7 @@ import org.elasticsearch.compute.operator.SinkOperator;
 import org.elasticsearch.compute.operator.SinkOperator.SinkOperatorFactory;
 import org.elasticsearch.compute.operator.SourceOperator;
 import org.elasticsearch.compute.operator.SourceOperator.SourceOperatorFactory;
+import org.elasticsearch.compute.operator.SpillDirectory;
 import org.elasticsearch.compute.operator.StringExtractOperator;
 import org.elasticsearch.compute.operator.exchange.ExchangeSinkHandler;
 import org.elasticsearch.compute.operator.exchange.ExchangeSinkOperator.ExchangeSinkOperatorFactory;
@@ -45,6 +46,7 @@ import org.elasticsearch.compute.operator.exchange.ExchangeSourceOperator.Exchan
 import org.elasticsearch.compute.operator.topn.TopNEncoder;
 import org.elasticsearch.compute.operator.topn.TopNOperator;
 import org.elasticsearch.compute.operator.topn.TopNOperator.TopNOperatorFactory;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasables;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.logging.LogManager;
@@ -88,6 +90,7 @@ import org.elasticsearch.xpack.esql.plan.physical.ProjectExec;
 import org.elasticsearch.xpack.esql.plan.physical.RowExec;
 import org.elasticsearch.xpack.esql.plan.physical.ShowExec;
 import org.elasticsearch.xpack.esql.plan.physical.TopNExec;
+import org.elasticsearch.xpack.esql.plugin.EsqlPlugin;
 import org.elasticsearch.xpack.esql.plugin.QueryPragmas;
 import org.elasticsearch.xpack.esql.session.Configuration;
 
@@ -126,6 +129,8 @@ public class LocalExecutionPlanner {
     private final ExchangeSinkHandler exchangeSinkHandler;
     private final EnrichLookupService enrichLookupService;
     private final PhysicalOperationProviders physicalOperationProviders;
+    @Nullable
+    private final SpillDirectory spillDirectory;
 
     public LocalExecutionPlanner(
         String sessionId,
@@ -138,7 +143,8 @@ public class LocalExecutionPlanner {
         ExchangeSourceHandler exchangeSourceHandler,
         ExchangeSinkHandler exchangeSinkHandler,
         EnrichLookupService enrichLookupService,
-        PhysicalOperationProviders physicalOperationProviders
+        PhysicalOperationProviders physicalOperationProviders,
+        @Nullable SpillDirectory spillDirectory
     ) {
         this.sessionId = sessionId;
         this.clusterAlias = clusterAlias;
@@ -151,6 +157,7 @@ public class LocalExecutionPlanner {
         this.enrichLookupService = enrichLookupService;
         this.physicalOperationProviders = physicalOperationProviders;
         this.configuration = configuration;
+        this.spillDirectory = spillDirectory;
     }
 
     /**
@@ -163,7 +170,8 @@ public class LocalExecutionPlanner {
             configuration.pragmas(),
             bigArrays,
             blockFactory,
-            settings
+            settings,
+            spillDirectory
         );
 
         // workaround for https://github.com/elastic/elasticsearch/issues/99782
@@ -747,7 +755,8 @@ public class LocalExecutionPlanner {
         QueryPragmas queryPragmas,
         BigArrays bigArrays,
         BlockFactory blockFactory,
-        Settings settings
+        Settings settings,
+        @Nullable SpillDirectory spillDirectory
     ) {
         void addDriverFactory(DriverFactory driverFactory) {
             driverFactories.add(driverFactory);
@@ -769,6 +778,14 @@ public class LocalExecutionPlanner {
             }
             return Math.max(SourceOperator.MIN_TARGET_PAGE_SIZE, SourceOperator.TARGET_PAGE_SIZE / estimatedRowSize);
         }
+
+        /**
+         * The fraction of the circuit breaker's limit that the state of an operator may take before it spills to the
+         * {@link #spillDirectory}.
+         */
+        double spillBreakerThreshold() {
+            return EsqlPlugin.SPILL_BREAKER_THRESHOLD.get(settings);
+        }
     }
 
     record DriverSupplier(
@@ -20,15 +20,19 @@ import org.elasticsearch.action.support.RefCountingListener;
 import org.elasticsearch.action.support.RefCountingRunnable;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.compute.data.BlockFactory;
 import org.elasticsearch.compute.data.Page;
 import org.elasticsearch.compute.operator.Driver;
 import org.elasticsearch.compute.operator.DriverTaskRunner;
+import org.elasticsearch.compute.operator.SpillDirectory;
 import org.elasticsearch.compute.operator.exchange.ExchangeService;
 import org.elasticsearch.compute.operator.exchange.ExchangeSink;
 import org.elasticsearch.compute.operator.exchange.ExchangeSinkHandler;
 import org.elasticsearch.compute.operator.exchange.ExchangeSourceHandler;
+import org.elasticsearch.core.AbstractRefCounted;
 import org.elasticsearch.core.IOUtils;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Releasables;
@@ -70,6 +74,8 @@ import org.elasticsearch.xpack.esql.planner.PlannerUtils;
 import org.elasticsearch.xpack.esql.session.Configuration;
 import org.elasticsearch.xpack.esql.session.Result;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -96,6 +102,8 @@ public class ComputeService {
     private final ExchangeService exchangeService;
     private final EnrichLookupService enrichLookupService;
     private final ClusterService clusterService;
+    private final Path spillPath;
+    private final Map<String, SessionSpillDirectory> spillDirectories = ConcurrentCollections.newConcurrentMap();
 
     public ComputeService(
         SearchService searchService,
@@ -105,7 +113,8 @@ public class ComputeService {
         ClusterService clusterService,
         ThreadPool threadPool,
         BigArrays bigArrays,
-        BlockFactory blockFactory
+        BlockFactory blockFactory,
+        Path spillPath
     ) {
         this.searchService = searchService;
         this.transportService = transportService;
@@ -123,6 +132,13 @@ public class ComputeService {
         this.exchangeService = exchangeService;
         this.enrichLookupService = enrichLookupService;
         this.clusterService = clusterService;
+        this.spillPath = spillPath;
+        try {
+            // remove anything left behind by queries running when the node stopped
+            IOUtils.rm(spillPath);
+        } catch (IOException e) {
+            LOGGER.warn("failed to clean up the spill directory [" + spillPath + "]", e);
+        }
     }
 
     public void execute(
@@ -362,6 +378,11 @@ public class ComputeService {
 
     void runCompute(CancellableTask task, ComputeContext context, PhysicalPlan plan, ActionListener<ComputeResponse> listener) {
         listener = ActionListener.runBefore(listener, () -> Releasables.close(context.searchContexts));
+        final SessionSpillDirectory sessionSpill = acquireSpillDirectory(context.sessionId);
+        final SpillDirectory spillDirectory = sessionSpill == null ? null : sessionSpill.directory;
+        if (sessionSpill != null) {
+            listener = ActionListener.runBefore(listener, sessionSpill::decRef);
+        }
         List<EsPhysicalOperationProviders.ShardContext> contexts = new ArrayList<>(context.searchContexts.size());
         for (int i = 0; i < context.searchContexts.size(); i++) {
             SearchContext searchContext = context.searchContexts.get(i);
@@ -386,7 +407,8 @@ public class ComputeService {
                 context.exchangeSource(),
                 context.exchangeSink(),
                 enrichLookupService,
-                new EsPhysicalOperationProviders(contexts)
+                new EsPhysicalOperationProviders(contexts),
+                spillDirectory
             );
 
             LOGGER.debug("Received physical plan:\n{}", plan);
@@ -424,6 +446,41 @@ public class ComputeService {
         );
     }
 
+    /**
+     * Acquire the directory that the operators of a session spill to on this node, or {@code null} if spilling is disabled.
+     * All the computes that a session runs on this node concurrently share the directory, and so its disk budget. The
+     * directory is removed once all of them released it.
+     */
+    private SessionSpillDirectory acquireSpillDirectory(String sessionId) {
+        long diskBudget = EsqlPlugin.SPILL_DISK_BUDGET.get(clusterService.getSettings()).getBytes();
+        if (diskBudget <= 0) {
+            return null;
+        }
+        return spillDirectories.compute(sessionId, (id, existing) -> {
+            if (existing != null && existing.tryIncRef()) {
+                return existing;
+            }
+            // the last compute of the session may be releasing the existing directory, so the new one needs its own path
+            return new SessionSpillDirectory(id, new SpillDirectory(spillPath.resolve(id + "_" + UUIDs.randomBase64UUID()), diskBudget));
+        });
+    }
+
+    private class SessionSpillDirectory extends AbstractRefCounted {
+        private final String sessionId;
+        private final SpillDirectory directory;
+
+        SessionSpillDirectory(String sessionId, SpillDirectory directory) {
+            this.sessionId = sessionId;
+            this.directory = directory;
+        }
+
+        @Override
+        protected void closeInternal() {
+            spillDirectories.remove(sessionId, this);
+            directory.close();
+        }
+    }
+
     private void acquireSearchContexts(
         String clusterAlias,
         List<ShardId> shardIds,
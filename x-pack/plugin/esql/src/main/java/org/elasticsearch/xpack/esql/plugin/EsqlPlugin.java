@@ -33,6 +33,7 @@ import org.elasticsearch.compute.operator.DriverStatus;
 import org.elasticsearch.compute.operator.HashAggregationOperator;
 import org.elasticsearch.compute.operator.LimitOperator;
 import org.elasticsearch.compute.operator.MvExpandOperator;
+import org.elasticsearch.compute.operator.SpillDirectory;
 import org.elasticsearch.compute.operator.exchange.ExchangeService;
 import org.elasticsearch.compute.operator.exchange.ExchangeSinkOperator;
 import org.elasticsearch.compute.operator.exchange.ExchangeSourceOperator;
@@ -101,6 +102,20 @@ public class EsqlPlugin extends Plugin implements ActionPlugin {
         Setting.Property.Dynamic
     );
 
+    public static final Setting<ByteSizeValue> SPILL_DISK_BUDGET = Setting.byteSizeSetting(
+        SpillDirectory.DISK_BUDGET_SETTING,
+        SpillDirectory.DEFAULT_DISK_BUDGET,
+        Setting.Property.NodeScope
+    );
+
+    public static final Setting<Double> SPILL_BREAKER_THRESHOLD = Setting.doubleSetting(
+        SpillDirectory.BREAKER_THRESHOLD_SETTING,
+        SpillDirectory.DEFAULT_BREAKER_THRESHOLD,
+        0.0,
+        1.0,
+        Setting.Property.NodeScope
+    );
+
     @Override
     public Collection<?> createComponents(PluginServices services) {
         CircuitBreaker circuitBreaker = services.indicesService().getBigArrays().breakerService().getBreaker("request");
@@ -136,7 +151,7 @@ public class EsqlPlugin extends Plugin implements ActionPlugin {
      */
     @Override
     public List<Setting<?>> getSettings() {
-        return List.of(QUERY_RESULT_TRUNCATION_DEFAULT_SIZE, QUERY_RESULT_TRUNCATION_MAX_SIZE);
+        return List.of(QUERY_RESULT_TRUNCATION_DEFAULT_SIZE, QUERY_RESULT_TRUNCATION_MAX_SIZE, SPILL_DISK_BUDGET, SPILL_BREAKER_THRESHOLD);
     }
 
     @Override
@@ -538,7 +538,8 @@ public class CsvTests extends ESTestCase {
             exchangeSource,
             exchangeSink,
             Mockito.mock(EnrichLookupService.class),
-            physicalOperationProviders
+            physicalOperationProviders,
+            null
         );
 
         List<Page> collectedPages = Collections.synchronizedList(new ArrayList<>());
@@ -565,6 +565,8 @@ public class ClusterStatsMonitoringDocTests extends BaseMonitoringDocTestCase<Cl
                     "version_map_memory_in_bytes": 0,
                     "fixed_bit_set_memory_in_bytes": 0,
                     "max_unsafe_auto_id_timestamp": -9223372036854775808,
+                    "vector_merges_total": 0,
+                    "vector_merges_total_time_in_millis": 0,
                     "file_sizes": {}
                   },
                   "mappings": {
@@ -1047,13 +1047,13 @@ public class SimpleSecurityNetty4ServerTransportTests extends AbstractSimpleTran
             DiscoveryNode node,
             TcpChannel channel,
             ConnectionProfile profile,
-            ActionListener<TransportVersion> listener
+            ActionListener<HandshakeResult> listener
         ) {
             if (doHandshake) {
                 super.executeHandshake(node, channel, profile, listener);
             } else {
                 assert getVersion().equals(TransportVersion.current());
-                listener.onResponse(TransportVersions.MINIMUM_COMPATIBLE);
+                listener.onResponse(new HandshakeResult(TransportVersions.MINIMUM_COMPATIBLE, false));
             }
         }
 